@@ -3,8 +3,12 @@ package cs.bilkent.joker;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import javax.annotation.concurrent.ThreadSafe;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 
@@ -16,9 +20,14 @@ import cs.bilkent.joker.engine.adaptation.AdaptationTracker;
 import cs.bilkent.joker.engine.config.JokerConfig;
 import cs.bilkent.joker.engine.flow.FlowExecPlan;
 import cs.bilkent.joker.engine.flow.PipelineId;
+import cs.bilkent.joker.engine.metric.FlowMetrics;
+import cs.bilkent.joker.engine.partition.PartitionTransport;
+import cs.bilkent.joker.engine.pipeline.PipelineReplicaRunnerThreadPool;
 import cs.bilkent.joker.engine.region.RegionExecPlanFactory;
+import cs.bilkent.joker.engine.supervisor.impl.SupervisorLoop;
 import cs.bilkent.joker.flow.FlowDef;
 import cs.bilkent.joker.operator.spec.OperatorType;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * Executes the {@link FlowDef} given by the user. It a thread-safe class, which can be used from multiple threads.
@@ -28,6 +37,9 @@ import cs.bilkent.joker.operator.spec.OperatorType;
 public class Joker
 {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger( Joker.class );
+
+
     private final JokerEngine engine;
 
     private final Injector injector;
@@ -39,14 +51,39 @@ public class Joker
 
     Joker ( final JokerConfig config )
     {
-        this( UUID.randomUUID().toString(), config, null, null );
+        this( UUID.randomUUID().toString(), config, null, null, null, null, null, null );
     }
 
     private Joker ( final Object jokerId, final JokerConfig config, final RegionExecPlanFactory regionExecPlanFactory,
-                    final AdaptationTracker adaptationTracker )
+                    final AdaptationTracker adaptationTracker, final PartitionTransport partitionTransport )
+    {
+        this( jokerId, config, regionExecPlanFactory, adaptationTracker, null, partitionTransport, null, null );
+    }
+
+    Joker ( final Object jokerId, final JokerConfig config, final RegionExecPlanFactory regionExecPlanFactory,
+            final AdaptationTracker adaptationTracker, final ScheduledExecutorService metricsScheduler,
+            final SupervisorLoop supervisorLoop, final PipelineReplicaRunnerThreadPool runnerThreadPool )
     {
-        this.injector = Guice.createInjector( new JokerModule( jokerId, config, regionExecPlanFactory, adaptationTracker ) );
+        this( jokerId, config, regionExecPlanFactory, adaptationTracker, metricsScheduler, null, supervisorLoop, runnerThreadPool );
+    }
+
+    Joker ( final Object jokerId, final JokerConfig config, final RegionExecPlanFactory regionExecPlanFactory,
+            final AdaptationTracker adaptationTracker, final ScheduledExecutorService metricsScheduler,
+            final PartitionTransport partitionTransport, final SupervisorLoop supervisorLoop,
+            final PipelineReplicaRunnerThreadPool runnerThreadPool )
+    {
+        final long startTime = System.nanoTime();
+        final JokerModule module = new JokerModule( jokerId,
+                                                    config,
+                                                    regionExecPlanFactory,
+                                                    adaptationTracker,
+                                                    metricsScheduler,
+                                                    partitionTransport,
+                                                    supervisorLoop,
+                                                    runnerThreadPool );
+        this.injector = Guice.createInjector( module );
         this.engine = injector.getInstance( JokerEngine.class );
+        LOGGER.info( "Joker {} is created in {} ms", jokerId, NANOSECONDS.toMillis( System.nanoTime() - startTime ) );
     }
 
     /**
@@ -74,6 +111,16 @@ public class Joker
         return engine.getStatus();
     }
 
+    /**
+     * Returns the latest metrics published for the execution. Metrics are published periodically once the metric collector warms up.
+     *
+     * @return the latest metrics of the execution, or null if no metrics are published yet
+     */
+    public FlowMetrics getMetrics ()
+    {
+        return engine.getMetrics();
+    }
+
     /**
      * Merges pipelines given with {@code pipelineIds} parameter of the flow execution plan given with {@code flowVersion} parameter.
      * Only consecutive pipelines of a single region can be merged.
@@ -154,6 +201,8 @@ public class Joker
 
         private AdaptationTracker adaptationTracker;
 
+        private PartitionTransport partitionTransport;
+
         private boolean built;
 
         public JokerBuilder ()
@@ -189,6 +238,18 @@ public class Joker
             return this;
         }
 
+        /**
+         * Sets the transport which carries tuples of the partitions owned by the other Joker instances running the same flow. It is
+         * required if {@link cs.bilkent.joker.engine.config.PartitionServiceConfig#getInstanceCount()} is greater than 1.
+         */
+        public JokerBuilder setPartitionTransport ( final PartitionTransport partitionTransport )
+        {
+            checkArgument( partitionTransport != null );
+            checkState( !built, "Joker is already built!" );
+            this.partitionTransport = partitionTransport;
+            return this;
+        }
+
         public JokerBuilder setJokerId ( final Object jokerId )
         {
             checkArgument( jokerId != null );
@@ -200,7 +261,7 @@ public class Joker
         {
             checkState( !built, "Joker is already built!" );
             built = true;
-            return new Joker( jokerId, jokerConfig, regionExecPlanFactory, adaptationTracker );
+            return new Joker( jokerId, jokerConfig, regionExecPlanFactory, adaptationTracker, partitionTransport );
         }
 
     }
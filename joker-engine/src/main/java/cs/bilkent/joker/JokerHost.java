@@ -0,0 +1,298 @@
+package cs.bilkent.joker;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import cs.bilkent.joker.engine.FlowStatus;
+import cs.bilkent.joker.engine.config.JokerConfig;
+import cs.bilkent.joker.engine.config.JokerConfigBuilder;
+import cs.bilkent.joker.engine.flow.FlowExecPlan;
+import cs.bilkent.joker.engine.pipeline.PipelineReplicaRunnerThreadPool;
+import cs.bilkent.joker.engine.region.RegionExecPlanFactory;
+import cs.bilkent.joker.engine.supervisor.impl.SupervisorLoop;
+import static cs.bilkent.joker.engine.util.ExceptionUtils.checkInterruption;
+import cs.bilkent.joker.flow.FlowDef;
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+/**
+ * Hosts multiple independent {@link FlowDef} objects in a single process. Each flow is executed by its own {@link Joker} instance
+ * hence it has its own {@link FlowExecPlan} versions, pipelines and adaptation state. However, the flows share the threads of the host.
+ * Metric collection tasks of all flows are scheduled on a single thread pool, supervisor tasks and adaptation checks of all flows run
+ * on a single {@link SupervisorLoop} thread, and pipeline replica runners of all flows run on a single
+ * {@link PipelineReplicaRunnerThreadPool}.
+ * <p>
+ * Each flow must be given a cpu quota with {@link cs.bilkent.joker.engine.config.AdaptationConfig#getCpuQuota()}, which limits
+ * number of pipeline replica threads of the flow, both in its initial execution plan and after adaptation. The host does not accept
+ * a flow if the sum of cpu quotas of the running flows exceeds its cpu capacity, hence the runner threads of the flows do not exceed
+ * the cpu capacity of the host.
+ */
+@ThreadSafe
+public class JokerHost
+{
+
+    private static final Logger LOGGER = LoggerFactory.getLogger( JokerHost.class );
+
+    private static final int DEFAULT_METRICS_SCHEDULER_THREAD_COUNT = 2;
+
+    private static final long RUNNER_THREAD_KEEP_ALIVE_TIME_IN_MILLIS = MINUTES.toMillis( 1 );
+
+
+    private final ScheduledExecutorService metricsScheduler;
+
+    private final SupervisorLoop supervisorLoop;
+
+    private final PipelineReplicaRunnerThreadPool runnerThreadPool;
+
+    private final int cpuCapacity;
+
+    private final Object monitor = new Object();
+
+    @GuardedBy( "monitor" )
+    private final Map<Object, HostedFlow> flows = new HashMap<>();
+
+    @GuardedBy( "monitor" )
+    private boolean shutdown;
+
+    public JokerHost ()
+    {
+        this( Runtime.getRuntime().availableProcessors(), DEFAULT_METRICS_SCHEDULER_THREAD_COUNT );
+    }
+
+    public JokerHost ( final int cpuCapacity, final int metricsSchedulerThreadCount )
+    {
+        checkArgument( cpuCapacity > 0 );
+        checkArgument( metricsSchedulerThreadCount > 0 );
+        this.cpuCapacity = cpuCapacity;
+        this.metricsScheduler = newScheduledThreadPool( metricsSchedulerThreadCount,
+                                                        new ThreadFactoryBuilder().setNameFormat( "JokerHost_MetricsCollector-%d" )
+                                                                                  .build() );
+        final ThreadGroup threadGroup = new ThreadGroup( "JokerHost" );
+        this.supervisorLoop = new SupervisorLoop( threadGroup );
+        this.runnerThreadPool = new PipelineReplicaRunnerThreadPool( threadGroup, RUNNER_THREAD_KEEP_ALIVE_TIME_IN_MILLIS );
+    }
+
+    /**
+     * Starts execution of the given {@link FlowDef} with the default configuration and the given cpu quota.
+     *
+     * @param flowId
+     *         unique id of the flow in the host
+     * @param flow
+     *         flow to be executed
+     * @param cpuQuota
+     *         maximum number of pipeline replica threads of the flow
+     *
+     * @return the flow execution plan which represents the current execution model of the given {@link FlowDef}
+     */
+    public FlowExecPlan submit ( final Object flowId, final FlowDef flow, final int cpuQuota )
+    {
+        final JokerConfigBuilder configBuilder = new JokerConfigBuilder();
+        configBuilder.getAdaptationConfigBuilder().setCpuQuota( cpuQuota );
+
+        return submit( flowId, flow, configBuilder.build(), null );
+    }
+
+    /**
+     * Starts execution of the given {@link FlowDef} with the given configuration and region execution plan factory.
+     *
+     * @param flowId
+     *         unique id of the flow in the host
+     * @param flow
+     *         flow to be executed
+     * @param config
+     *         configuration of the flow, which must have a cpu quota
+     * @param regionExecPlanFactory
+     *         region execution plan factory of the flow. The default one is used if it is null
+     *
+     * @return the flow execution plan which represents the current execution model of the given {@link FlowDef}
+     */
+    public FlowExecPlan submit ( final Object flowId,
+                                 final FlowDef flow,
+                                 final JokerConfig config,
+                                 final RegionExecPlanFactory regionExecPlanFactory )
+    {
+        checkArgument( flowId != null );
+        checkArgument( flow != null );
+        checkArgument( config != null );
+
+        final int cpuQuota = config.getAdaptationConfig().getCpuQuota();
+        checkArgument( cpuQuota > 0, "cannot submit flow %s without cpu quota", flowId );
+        final Joker joker;
+        synchronized ( monitor )
+        {
+            checkState( !shutdown, "cannot submit flow %s since host is shut down", flowId );
+            checkState( !flows.containsKey( flowId ), "flow %s is already submitted", flowId );
+            final int allocatedCpuQuota = getAllocatedCpuQuota();
+            checkState( allocatedCpuQuota + cpuQuota <= cpuCapacity,
+                        "cannot submit flow %s with cpu quota: %s since %s of cpu capacity: %s is allocated",
+                        flowId,
+                        cpuQuota,
+                        allocatedCpuQuota,
+                        cpuCapacity );
+
+            joker = new Joker( flowId, config, regionExecPlanFactory, null, metricsScheduler, supervisorLoop, runnerThreadPool );
+            flows.put( flowId, new HostedFlow( joker, cpuQuota ) );
+        }
+
+        try
+        {
+            final FlowExecPlan flowExecPlan = joker.run( flow );
+            LOGGER.info( "Flow {} is submitted with cpu quota: {}", flowId, cpuQuota );
+
+            return flowExecPlan;
+        }
+        catch ( RuntimeException e )
+        {
+            checkInterruption( e );
+            synchronized ( monitor )
+            {
+                flows.remove( flowId );
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * Triggers the graceful shutdown process for the given flow. Other flows in the host are not affected.
+     *
+     * @param flowId
+     *         id of the flow to be cancelled
+     *
+     * @return future to be notified once the shutdown of the flow is completed.
+     */
+    public Future<Void> cancel ( final Object flowId )
+    {
+        final HostedFlow flow;
+        synchronized ( monitor )
+        {
+            flow = flows.remove( flowId );
+        }
+
+        checkArgument( flow != null, "flow %s not found", flowId );
+        LOGGER.info( "Cancelling flow {}", flowId );
+
+        return flow.joker.shutdown();
+    }
+
+    /**
+     * Returns the {@link Joker} instance executing the given flow, which can be used to change execution plan of the flow.
+     *
+     * @param flowId
+     *         id of the flow
+     *
+     * @return the {@link Joker} instance executing the given flow
+     */
+    public Joker getJoker ( final Object flowId )
+    {
+        synchronized ( monitor )
+        {
+            final HostedFlow flow = flows.get( flowId );
+            checkArgument( flow != null, "flow %s not found", flowId );
+
+            return flow.joker;
+        }
+    }
+
+    public FlowStatus getStatus ( final Object flowId )
+    {
+        return getJoker( flowId ).getStatus();
+    }
+
+    public Set<Object> getFlowIds ()
+    {
+        synchronized ( monitor )
+        {
+            return new HashSet<>( flows.keySet() );
+        }
+    }
+
+    public int getAllocatedCpuQuota ()
+    {
+        synchronized ( monitor )
+        {
+            return flows.values().stream().mapToInt( flow -> flow.cpuQuota ).sum();
+        }
+    }
+
+    SupervisorLoop getSupervisorLoop ()
+    {
+        return supervisorLoop;
+    }
+
+    PipelineReplicaRunnerThreadPool getRunnerThreadPool ()
+    {
+        return runnerThreadPool;
+    }
+
+    /**
+     * Cancels all flows and releases the resources shared by them.
+     *
+     * @return future to be notified once all flows are shut down
+     */
+    public Future<Void> shutdown ()
+    {
+        final List<Future<Void>> futures = new ArrayList<>();
+        synchronized ( monitor )
+        {
+            checkState( !shutdown, "host is already shut down" );
+            shutdown = true;
+            for ( Object flowId : new ArrayList<>( flows.keySet() ) )
+            {
+                futures.add( cancel( flowId ) );
+            }
+        }
+
+        return CompletableFuture.runAsync( () -> {
+            try
+            {
+                for ( Future<Void> future : futures )
+                {
+                    future.get();
+                }
+            }
+            catch ( Exception e )
+            {
+                checkInterruption( e );
+                LOGGER.error( "Flow shutdown failed", e );
+            }
+            finally
+            {
+                metricsScheduler.shutdown();
+                supervisorLoop.shutdown();
+                runnerThreadPool.shutdown();
+            }
+        } );
+    }
+
+    private static class HostedFlow
+    {
+
+        final Joker joker;
+
+        final int cpuQuota;
+
+        HostedFlow ( final Joker joker, final int cpuQuota )
+        {
+            this.joker = joker;
+            this.cpuQuota = cpuQuota;
+        }
+
+    }
+
+}
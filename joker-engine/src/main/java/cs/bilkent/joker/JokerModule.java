@@ -5,10 +5,13 @@ import java.lang.management.OperatingSystemMXBean;
 import java.lang.management.RuntimeMXBean;
 import java.lang.management.ThreadMXBean;
 import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.codahale.metrics.MetricRegistry;
 import com.google.inject.AbstractModule;
+import com.google.inject.Key;
+import com.google.inject.multibindings.OptionalBinder;
 
 import static com.google.inject.name.Names.named;
 import cs.bilkent.joker.engine.adaptation.AdaptationManager;
@@ -18,15 +21,18 @@ import cs.bilkent.joker.engine.adaptation.impl.adaptationtracker.DefaultAdaptati
 import cs.bilkent.joker.engine.config.JokerConfig;
 import static cs.bilkent.joker.engine.config.JokerConfig.JOKER_ID;
 import static cs.bilkent.joker.engine.config.JokerConfig.JOKER_THREAD_GROUP_NAME;
+import static cs.bilkent.joker.engine.config.JokerConfig.METRICS_SCHEDULER_NAME;
 import cs.bilkent.joker.engine.kvstore.OperatorKVStoreManager;
 import cs.bilkent.joker.engine.kvstore.impl.OperatorKVStoreManagerImpl;
 import cs.bilkent.joker.engine.metric.MetricManager;
 import cs.bilkent.joker.engine.metric.impl.MetricManagerImpl;
 import cs.bilkent.joker.engine.partition.PartitionKeyExtractorFactory;
 import cs.bilkent.joker.engine.partition.PartitionService;
+import cs.bilkent.joker.engine.partition.PartitionTransport;
 import cs.bilkent.joker.engine.partition.impl.PartitionKeyExtractorFactoryImpl;
 import cs.bilkent.joker.engine.partition.impl.PartitionServiceImpl;
 import cs.bilkent.joker.engine.pipeline.PipelineManager;
+import cs.bilkent.joker.engine.pipeline.PipelineReplicaRunnerThreadPool;
 import cs.bilkent.joker.engine.pipeline.impl.PipelineManagerImpl;
 import cs.bilkent.joker.engine.region.FlowDefOptimizer;
 import cs.bilkent.joker.engine.region.PipelineTransformer;
@@ -41,6 +47,7 @@ import cs.bilkent.joker.engine.region.impl.RegionDefFormerImpl;
 import cs.bilkent.joker.engine.region.impl.RegionManagerImpl;
 import cs.bilkent.joker.engine.supervisor.Supervisor;
 import cs.bilkent.joker.engine.supervisor.impl.SupervisorImpl;
+import cs.bilkent.joker.engine.supervisor.impl.SupervisorLoop;
 import cs.bilkent.joker.engine.tuplequeue.OperatorQueueManager;
 import cs.bilkent.joker.engine.tuplequeue.impl.OperatorQueueManagerImpl;
 
@@ -58,6 +65,14 @@ public class JokerModule extends AbstractModule
 
     private final AdaptationTracker adaptationTracker;
 
+    private final ScheduledExecutorService metricsScheduler;
+
+    private final PartitionTransport partitionTransport;
+
+    private final SupervisorLoop supervisorLoop;
+
+    private final PipelineReplicaRunnerThreadPool runnerThreadPool;
+
     public JokerModule ( final JokerConfig config )
     {
         this( UUID.randomUUID().toString(), config, null, null );
@@ -65,11 +80,27 @@ public class JokerModule extends AbstractModule
 
     JokerModule ( final Object jokerId, final JokerConfig config, final RegionExecPlanFactory regionExecPlanFactory,
                   final AdaptationTracker adaptationTracker )
+    {
+        this( jokerId, config, regionExecPlanFactory, adaptationTracker, null, null, null, null );
+    }
+
+    /**
+     * Creates the module of a Joker instance. The metrics scheduler, partition transport, supervisor loop and runner thread pool are
+     * optional and they are shared with the other Joker instances if they are given.
+     */
+    JokerModule ( final Object jokerId, final JokerConfig config, final RegionExecPlanFactory regionExecPlanFactory,
+                  final AdaptationTracker adaptationTracker, final ScheduledExecutorService metricsScheduler,
+                  final PartitionTransport partitionTransport, final SupervisorLoop supervisorLoop,
+                  final PipelineReplicaRunnerThreadPool runnerThreadPool )
     {
         this.jokerId = jokerId;
         this.config = config;
         this.regionExecPlanFactory = regionExecPlanFactory;
         this.adaptationTracker = adaptationTracker;
+        this.metricsScheduler = metricsScheduler;
+        this.partitionTransport = partitionTransport;
+        this.supervisorLoop = supervisorLoop;
+        this.runnerThreadPool = runnerThreadPool;
     }
 
     public JokerConfig getConfig ()
@@ -108,6 +139,29 @@ public class JokerModule extends AbstractModule
         {
             bind( AdaptationTracker.class ).to( DefaultAdaptationTracker.class );
         }
+        final Key<ScheduledExecutorService> metricsSchedulerKey = Key.get( ScheduledExecutorService.class, named( METRICS_SCHEDULER_NAME ) );
+        final OptionalBinder<ScheduledExecutorService> metricsSchedulerBinder = OptionalBinder.newOptionalBinder( binder(), metricsSchedulerKey );
+        if ( metricsScheduler != null )
+        {
+            metricsSchedulerBinder.setBinding().toInstance( metricsScheduler );
+        }
+        final OptionalBinder<PartitionTransport> partitionTransportBinder = OptionalBinder.newOptionalBinder( binder(),
+                                                                                                              PartitionTransport.class );
+        if ( partitionTransport != null )
+        {
+            partitionTransportBinder.setBinding().toInstance( partitionTransport );
+        }
+        final OptionalBinder<SupervisorLoop> supervisorLoopBinder = OptionalBinder.newOptionalBinder( binder(), SupervisorLoop.class );
+        if ( supervisorLoop != null )
+        {
+            supervisorLoopBinder.setBinding().toInstance( supervisorLoop );
+        }
+        final OptionalBinder<PipelineReplicaRunnerThreadPool> runnerThreadPoolBinder =
+                OptionalBinder.newOptionalBinder( binder(), PipelineReplicaRunnerThreadPool.class );
+        if ( runnerThreadPool != null )
+        {
+            runnerThreadPoolBinder.setBinding().toInstance( runnerThreadPool );
+        }
         bind( JokerConfig.class ).toInstance( config );
         bind( ThreadGroup.class ).annotatedWith( named( JOKER_THREAD_GROUP_NAME ) ).toInstance( new ThreadGroup( "Joker" ) );
         bind( ThreadMXBean.class ).toInstance( ManagementFactory.getThreadMXBean() );
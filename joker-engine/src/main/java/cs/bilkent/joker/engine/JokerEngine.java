@@ -5,21 +5,31 @@ import java.util.List;
 import java.util.concurrent.Future;
 import javax.inject.Inject;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Preconditions.checkState;
+import cs.bilkent.joker.engine.config.JokerConfig;
 import cs.bilkent.joker.engine.exception.InitializationException;
 import cs.bilkent.joker.engine.flow.FlowExecPlan;
 import cs.bilkent.joker.engine.flow.PipelineId;
 import cs.bilkent.joker.engine.flow.RegionDef;
 import cs.bilkent.joker.engine.flow.RegionExecPlan;
+import cs.bilkent.joker.engine.metric.FlowMetrics;
 import cs.bilkent.joker.engine.region.FlowDefOptimizer;
 import cs.bilkent.joker.engine.region.RegionDefFormer;
 import cs.bilkent.joker.engine.region.RegionExecPlanFactory;
 import cs.bilkent.joker.engine.supervisor.impl.SupervisorImpl;
 import cs.bilkent.joker.flow.FlowDef;
 import cs.bilkent.joker.operator.utils.Pair;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 public class JokerEngine
 {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger( JokerEngine.class );
+
+
     private final RegionDefFormer regionDefFormer;
 
     private final FlowDefOptimizer flowDefOptimizer;
@@ -28,8 +38,11 @@ public class JokerEngine
 
     private final SupervisorImpl supervisor;
 
+    private final int cpuQuota;
+
     @Inject
-    public JokerEngine ( final RegionDefFormer regionDefFormer,
+    public JokerEngine ( final JokerConfig config,
+                         final RegionDefFormer regionDefFormer,
                          final FlowDefOptimizer flowDefOptimizer,
                          final RegionExecPlanFactory regionExecPlanFactory,
                          final SupervisorImpl supervisor )
@@ -38,16 +51,46 @@ public class JokerEngine
         this.flowDefOptimizer = flowDefOptimizer;
         this.regionExecPlanFactory = regionExecPlanFactory;
         this.supervisor = supervisor;
+        this.cpuQuota = config.getAdaptationConfig().getCpuQuota();
     }
 
     public FlowExecPlan run ( final FlowDef flow ) throws InitializationException
     {
+        final long startTime = System.nanoTime();
         final List<RegionDef> initialRegions = regionDefFormer.createRegions( flow );
+        final long regionFormationTime = System.nanoTime();
         final Pair<FlowDef, List<RegionDef>> result = flowDefOptimizer.optimize( flow, initialRegions );
         final FlowDef optimizedFlow = result._1;
         final List<RegionDef> optimizedRegions = result._2;
+        final long optimizationTime = System.nanoTime();
         final List<RegionExecPlan> regionExecPlans = regionExecPlanFactory.createRegionExecPlans( optimizedRegions );
-        return supervisor.start( optimizedFlow, regionExecPlans );
+        checkCpuQuota( regionExecPlans );
+        final long planningTime = System.nanoTime();
+        final FlowExecPlan flowExecPlan = supervisor.start( optimizedFlow, regionExecPlans );
+        final long endTime = System.nanoTime();
+
+        LOGGER.info( "Flow with {} operators is started in {} ms. region formation: {} ms, optimization: {} ms, planning: {} ms, "
+                     + "supervisor start: {} ms",
+                     flow.getOperators().size(),
+                     NANOSECONDS.toMillis( endTime - startTime ),
+                     NANOSECONDS.toMillis( regionFormationTime - startTime ),
+                     NANOSECONDS.toMillis( optimizationTime - regionFormationTime ),
+                     NANOSECONDS.toMillis( planningTime - optimizationTime ),
+                     NANOSECONDS.toMillis( endTime - planningTime ) );
+
+        return flowExecPlan;
+    }
+
+    private void checkCpuQuota ( final List<RegionExecPlan> regionExecPlans )
+    {
+        if ( cpuQuota > 0 )
+        {
+            final int threadCount = regionExecPlans.stream().mapToInt( RegionExecPlan::getThreadCount ).sum();
+            checkState( threadCount <= cpuQuota,
+                        "cannot run flow since thread count: %s of initial region execution plans exceeds cpu quota: %s",
+                        threadCount,
+                        cpuQuota );
+        }
     }
 
     public FlowStatus getStatus ()
@@ -55,6 +98,11 @@ public class JokerEngine
         return supervisor.getFlowStatus();
     }
 
+    public FlowMetrics getMetrics ()
+    {
+        return supervisor.getMetrics();
+    }
+
     public Future<Void> shutdown ()
     {
         return supervisor.shutdown();
@@ -7,6 +7,10 @@ import cs.bilkent.joker.engine.flow.RegionExecPlan;
 import cs.bilkent.joker.engine.metric.PipelineMetrics;
 import cs.bilkent.joker.operator.utils.Pair;
 
+/**
+ * Resolves bottleneck pipelines of a region with adaptation actions. {@link PipelineMetrics} objects given to the resolver contain
+ * cpu costs, inbound and outbound throughputs, and selectivities of the operators, in addition to the pipeline-level metrics.
+ */
 @FunctionalInterface
 public interface BottleneckResolver
 {
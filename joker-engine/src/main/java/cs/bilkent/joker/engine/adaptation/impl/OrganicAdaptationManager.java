@@ -10,13 +10,19 @@ import javax.annotation.concurrent.NotThreadSafe;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import cs.bilkent.joker.engine.adaptation.AdaptationAction;
 import cs.bilkent.joker.engine.adaptation.AdaptationManager;
 import cs.bilkent.joker.engine.adaptation.BottleneckResolver;
+import cs.bilkent.joker.engine.adaptation.impl.bottleneckresolver.ModelBasedPlanner;
 import cs.bilkent.joker.engine.adaptation.impl.bottleneckresolver.PipelineSplitter;
 import cs.bilkent.joker.engine.adaptation.impl.bottleneckresolver.RegionExtender;
+import cs.bilkent.joker.engine.adaptation.impl.bottleneckresolver.ThreadReleaser;
 import cs.bilkent.joker.engine.config.AdaptationConfig;
 import cs.bilkent.joker.engine.config.JokerConfig;
+import cs.bilkent.joker.engine.flow.PipelineId;
 import cs.bilkent.joker.engine.flow.RegionDef;
 import cs.bilkent.joker.engine.flow.RegionExecPlan;
 import cs.bilkent.joker.engine.metric.FlowMetrics;
@@ -30,6 +36,8 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.reverse;
 import static java.util.Collections.unmodifiableList;
 import static java.util.Comparator.comparing;
+import static java.util.Comparator.comparingLong;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static java.util.stream.Collectors.toList;
 
 @NotThreadSafe
@@ -37,6 +45,9 @@ import static java.util.stream.Collectors.toList;
 public class OrganicAdaptationManager implements AdaptationManager
 {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger( OrganicAdaptationManager.class );
+
+
     private final PipelineMetricsHistorySummarizer pipelineMetricsHistorySummarizer;
 
     private final List<BottleneckResolver> bottleneckResolvers;
@@ -49,6 +60,20 @@ public class OrganicAdaptationManager implements AdaptationManager
 
     private final Function<RegionExecPlan, RegionAdaptationContext> regionAdaptationContextFactory;
 
+    private final ModelBasedPlanner modelBasedPlanner;
+
+    private final int cpuQuota;
+
+    private final boolean latencySloEnabled;
+
+    private final long p99LatencySloInNanos;
+
+    private final double latencySloSlackRatio;
+
+    private final double latencyDecreaseThreshold;
+
+    private final ThreadReleaser threadReleaser;
+
     private boolean adaptationEnabled;
 
     private FlowDef flowDef;
@@ -57,6 +82,10 @@ public class OrganicAdaptationManager implements AdaptationManager
 
     private List<RegionAdaptationContext> adaptingRegions = emptyList();
 
+    private long p99TupleLatencyBeforeAdaptation;
+
+    private boolean releasingThreads;
+
     @Inject
     public OrganicAdaptationManager ( final JokerConfig config )
     {
@@ -72,7 +101,20 @@ public class OrganicAdaptationManager implements AdaptationManager
         final BottleneckResolver pipelineSplitter = new PipelineSplitter( ext );
         final BottleneckResolver regionExtender = new RegionExtender( config.getPartitionServiceConfig().getMaxReplicaCount() );
         final List<BottleneckResolver> bottleneckResolvers = new ArrayList<>();
-        if ( adaptationConfig.isAdaptationEnabled() )
+        ModelBasedPlanner modelBasedPlanner = null;
+        if ( adaptationConfig.isAdaptationEnabled() && adaptationConfig.isModelBasedPlanningEnabled() )
+        {
+            modelBasedPlanner = new ModelBasedPlanner( adaptationConfig.isPipelineSplitEnabled(),
+                                                       adaptationConfig.isRegionRebalanceEnabled(),
+                                                       config.getPartitionServiceConfig().getMaxReplicaCount(),
+                                                       adaptationConfig.getCpuQuota() > 0
+                                                       ? adaptationConfig.getCpuQuota()
+                                                       : Runtime.getRuntime().availableProcessors(),
+                                                       adaptationConfig.getThroughputIncreaseThreshold(),
+                                                       adaptationConfig.getModelCorrectionWeight() );
+            bottleneckResolvers.add( modelBasedPlanner );
+        }
+        else if ( adaptationConfig.isAdaptationEnabled() )
         {
             if ( adaptationConfig.isPipelineSplitEnabled() )
             {
@@ -92,6 +134,16 @@ public class OrganicAdaptationManager implements AdaptationManager
         }
 
         this.bottleneckResolvers = unmodifiableList( bottleneckResolvers );
+        this.modelBasedPlanner = modelBasedPlanner;
+        this.cpuQuota = adaptationConfig.getCpuQuota();
+        this.latencySloEnabled = adaptationConfig.isLatencySloEnabled();
+        this.p99LatencySloInNanos = MICROSECONDS.toNanos( adaptationConfig.getP99LatencySloInMicros() );
+        this.latencySloSlackRatio = adaptationConfig.getLatencySloSlackRatio();
+        this.latencyDecreaseThreshold = adaptationConfig.getLatencyDecreaseThreshold();
+        // pipeline merges are allowed only if pipeline splits are enabled
+        this.threadReleaser = new ThreadReleaser( adaptationConfig.isPipelineSplitEnabled(),
+                                                  adaptationConfig.isRegionRebalanceEnabled(),
+                                                  adaptationConfig.getCpuUtilBottleneckThreshold() );
         this.loadChangePredicate = adaptationConfig.getLoadChangePredicate();
         this.bottleneckPredicate = adaptationConfig.getBottleneckPredicate();
         this.adaptationEvaluationPredicate = adaptationConfig.getAdaptationEvaluationPredicate();
@@ -130,9 +182,23 @@ public class OrganicAdaptationManager implements AdaptationManager
     @Override
     public List<AdaptationAction> adapt ( final List<RegionExecPlan> execPlans, final FlowMetrics metrics )
     {
+        if ( latencySloEnabled )
+        {
+            return adaptingRegions.isEmpty() ? resolveLatencySloIfViolated( metrics ) : evaluateLatencyAdaptations( metrics );
+        }
+
         return adaptingRegions.isEmpty() ? resolveBottlenecksIfPresent( metrics ) : evaluateAdaptations( metrics );
     }
 
+    private void updateRegionMetrics ( final FlowMetrics metrics )
+    {
+        for ( RegionAdaptationContext region : regions )
+        {
+            final List<PipelineMetrics> regionMetrics = metrics.getRegionMetrics( region.getRegionId(), pipelineMetricsHistorySummarizer );
+            region.updateRegionMetrics( regionMetrics, loadChangePredicate );
+        }
+    }
+
     private List<AdaptationAction> resolveBottlenecksIfPresent ( final FlowMetrics metrics )
     {
         if ( !adaptationEnabled )
@@ -140,11 +206,7 @@ public class OrganicAdaptationManager implements AdaptationManager
             return emptyList();
         }
 
-        for ( RegionAdaptationContext region : regions )
-        {
-            final List<PipelineMetrics> regionMetrics = metrics.getRegionMetrics( region.getRegionId(), pipelineMetricsHistorySummarizer );
-            region.updateRegionMetrics( regionMetrics, loadChangePredicate );
-        }
+        updateRegionMetrics( metrics );
 
         final List<RegionAdaptationContext> adaptingRegions = new ArrayList<>();
         final List<AdaptationAction> adaptationActions = new ArrayList<>();
@@ -154,6 +216,12 @@ public class OrganicAdaptationManager implements AdaptationManager
             final List<AdaptationAction> regionActions = region.resolveIfBottleneck( bottleneckPredicate, bottleneckResolvers );
             if ( !regionActions.isEmpty() )
             {
+                if ( exceedsCpuQuota( region ) )
+                {
+                    region.cancelAdaptation();
+                    continue;
+                }
+
                 adaptingRegions.add( region );
                 adaptationActions.addAll( regionActions );
             }
@@ -169,8 +237,193 @@ public class OrganicAdaptationManager implements AdaptationManager
         return unmodifiableList( adaptationActions );
     }
 
+    /**
+     * If the p99 tuple latency exceeds the latency slo, tries to resolve the pipeline contributing most to the tail latency in the
+     * regions, which are visited in descending order of their contributions to the tail latency. If the p99 tuple latency is far
+     * below the latency slo, tries to release a thread from the regions, which are visited in ascending order of their contributions
+     * to the tail latency. Only a single region is adapted at a time so that the outcome of the adaptation can be evaluated via the
+     * end-to-end latency.
+     */
+    private List<AdaptationAction> resolveLatencySloIfViolated ( final FlowMetrics metrics )
+    {
+        if ( !adaptationEnabled )
+        {
+            return emptyList();
+        }
+
+        updateRegionMetrics( metrics );
+
+        final TailLatencyAnalyzer latencyAnalyzer = new TailLatencyAnalyzer( metrics );
+        final long p99TupleLatency = latencyAnalyzer.getP99TupleLatency();
+        if ( p99TupleLatency == 0 )
+        {
+            return emptyList();
+        }
+
+        final List<RegionAdaptationContext> candidates = new ArrayList<>( regions );
+        candidates.sort( comparingLong( region -> latencyAnalyzer.getP99Contribution( region.getCurrentExecPlan() ) ) );
+
+        if ( p99TupleLatency > p99LatencySloInNanos )
+        {
+            LOGGER.info( "p99 tuple latency: {} ns exceeds latency slo: {} ns", p99TupleLatency, p99LatencySloInNanos );
+
+            reverse( candidates );
+            for ( RegionAdaptationContext region : candidates )
+            {
+                if ( latencyAnalyzer.getP99Contribution( region.getCurrentExecPlan() ) == 0 )
+                {
+                    break;
+                }
+
+                final Predicate<PipelineMetrics> bottleneckPredicate = getTailLatencyBottleneckPredicate( region, latencyAnalyzer );
+                final List<AdaptationAction> regionActions = region.resolveIfBottleneck( bottleneckPredicate, bottleneckResolvers );
+                if ( regionActions.isEmpty() )
+                {
+                    continue;
+                }
+                else if ( exceedsCpuQuota( region ) )
+                {
+                    region.cancelAdaptation();
+                    continue;
+                }
+
+                return startLatencyAdaptation( region, regionActions, p99TupleLatency, false );
+            }
+        }
+        else if ( p99TupleLatency < p99LatencySloInNanos * latencySloSlackRatio )
+        {
+            for ( RegionAdaptationContext region : candidates )
+            {
+                if ( !threadReleaser.canRelease( region.getCurrentExecPlan() ) )
+                {
+                    continue;
+                }
+
+                final List<AdaptationAction> regionActions = region.releaseThreads( threadReleaser );
+                if ( !regionActions.isEmpty() )
+                {
+                    LOGGER.info( "p99 tuple latency: {} ns has slack for latency slo: {} ns", p99TupleLatency, p99LatencySloInNanos );
+
+                    return startLatencyAdaptation( region, regionActions, p99TupleLatency, true );
+                }
+            }
+        }
+
+        return emptyList();
+    }
+
+    private Predicate<PipelineMetrics> getTailLatencyBottleneckPredicate ( final RegionAdaptationContext region,
+                                                                           final TailLatencyAnalyzer latencyAnalyzer )
+    {
+        final RegionExecPlan execPlan = region.getCurrentExecPlan();
+        PipelineId bottleneckPipelineId = null;
+        long maxContribution = -1;
+        for ( PipelineId pipelineId : execPlan.getPipelineIds() )
+        {
+            final long contribution = latencyAnalyzer.getP99Contribution( execPlan, pipelineId.getPipelineStartIndex() );
+            if ( contribution > maxContribution )
+            {
+                bottleneckPipelineId = pipelineId;
+                maxContribution = contribution;
+            }
+        }
+
+        final PipelineId pipelineId = bottleneckPipelineId;
+
+        return pipelineMetrics -> pipelineMetrics.getPipelineId().equals( pipelineId );
+    }
+
+    private List<AdaptationAction> startLatencyAdaptation ( final RegionAdaptationContext region,
+                                                            final List<AdaptationAction> regionActions,
+                                                            final long p99TupleLatency,
+                                                            final boolean releasingThreads )
+    {
+        final List<RegionAdaptationContext> adaptingRegions = new ArrayList<>();
+        adaptingRegions.add( region );
+        this.adaptingRegions = adaptingRegions;
+        this.p99TupleLatencyBeforeAdaptation = p99TupleLatency;
+        this.releasingThreads = releasingThreads;
+
+        return unmodifiableList( regionActions );
+    }
+
+    private List<AdaptationAction> evaluateLatencyAdaptations ( final FlowMetrics metrics )
+    {
+        final long p99TupleLatency = new TailLatencyAnalyzer( metrics ).getP99TupleLatency();
+        final boolean success;
+        if ( releasingThreads )
+        {
+            success = p99TupleLatency <= p99LatencySloInNanos;
+        }
+        else
+        {
+            final double latencyDecrease = ( (double) ( p99TupleLatencyBeforeAdaptation - p99TupleLatency ) )
+                                           / p99TupleLatencyBeforeAdaptation;
+            success = p99TupleLatency <= p99LatencySloInNanos || latencyDecrease >= latencyDecreaseThreshold;
+        }
+
+        LOGGER.info( "Latency adaptations: {} are {} with p99 tuple latency: {} ns before adaptation: {} ns latency slo: {} ns",
+                     adaptingRegions.get( 0 ).getAdaptationActions(),
+                     ( success ? "beneficial" : "not beneficial" ),
+                     p99TupleLatency,
+                     p99TupleLatencyBeforeAdaptation,
+                     p99LatencySloInNanos );
+
+        if ( success )
+        {
+            return finalizeAdaptations( metrics );
+        }
+
+        final List<AdaptationAction> reverts = new ArrayList<>();
+        for ( RegionAdaptationContext adaptingRegion : adaptingRegions )
+        {
+            reverts.addAll( adaptingRegion.revertAdaptation() );
+        }
+
+        adaptingRegions = emptyList();
+
+        return unmodifiableList( reverts );
+    }
+
+    private boolean exceedsCpuQuota ( final RegionAdaptationContext region )
+    {
+        if ( cpuQuota <= 0 || getThreadCount( region.getCurrentExecPlan() ) <= getThreadCount( region.getBaseExecPlan() ) )
+        {
+            return false;
+        }
+
+        final int threadCount = regions.stream().map( RegionAdaptationContext::getCurrentExecPlan ).mapToInt( this::getThreadCount ).sum();
+        if ( threadCount > cpuQuota )
+        {
+            LOGGER.warn( "Region {} adaptations: {} are cancelled since thread count: {} exceeds cpu quota: {}",
+                         region.getRegionId(),
+                         region.getAdaptationActions(),
+                         threadCount,
+                         cpuQuota );
+
+            return true;
+        }
+
+        return false;
+    }
+
+    private int getThreadCount ( final RegionExecPlan execPlan )
+    {
+        return execPlan != null ? execPlan.getThreadCount() : 0;
+    }
+
     private List<AdaptationAction> evaluateAdaptations ( final FlowMetrics metrics )
     {
+        if ( modelBasedPlanner != null )
+        {
+            for ( RegionAdaptationContext adaptingRegion : adaptingRegions )
+            {
+                final int regionId = adaptingRegion.getRegionId();
+                final List<PipelineMetrics> regionMetrics = metrics.getRegionMetrics( regionId, pipelineMetricsHistorySummarizer );
+                modelBasedPlanner.observe( adaptingRegion.getCurrentExecPlan(), regionMetrics );
+            }
+        }
+
         final RegionAdaptationContext nonResolvedRegion = getNonResolvedBottleneck( metrics );
 
         return ( nonResolvedRegion == null ) ? finalizeAdaptations( metrics ) : retryOrRevertAdaptations( nonResolvedRegion );
@@ -213,7 +466,12 @@ public class OrganicAdaptationManager implements AdaptationManager
     private List<AdaptationAction> retryOrRevertAdaptations ( final RegionAdaptationContext nonResolvedRegion )
     {
         final List<AdaptationAction> reverts = nonResolvedRegion.revertAdaptation();
-        final List<AdaptationAction> newActions = nonResolvedRegion.resolveIfBottleneck( bottleneckPredicate, bottleneckResolvers );
+        List<AdaptationAction> newActions = nonResolvedRegion.resolveIfBottleneck( bottleneckPredicate, bottleneckResolvers );
+        if ( !newActions.isEmpty() && exceedsCpuQuota( nonResolvedRegion ) )
+        {
+            nonResolvedRegion.cancelAdaptation();
+            newActions = emptyList();
+        }
 
         final List<AdaptationAction> actions = new ArrayList<>();
         if ( newActions.isEmpty() )
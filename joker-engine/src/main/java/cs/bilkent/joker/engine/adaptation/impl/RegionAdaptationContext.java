@@ -165,6 +165,39 @@ public class RegionAdaptationContext
         return resolutions.stream().map( Pair::firstElement ).collect( toList() );
     }
 
+    /**
+     * Tries to reduce number of threads of the region with the given resolver, which is given metrics of all pipelines of the region.
+     * Unlike {@link #resolveIfBottleneck(Predicate, List)}, pipelines of the region are not marked as non-resolvable if the resolver
+     * does not return any adaptation action.
+     */
+    List<AdaptationAction> releaseThreads ( final BottleneckResolver threadReleaser )
+    {
+        checkArgument( threadReleaser != null );
+        checkState( adaptationActions.isEmpty(),
+                    "Region %s cannot release threads before evaluation of adaptation actions: %s",
+                    getRegionId(),
+                    adaptationActions );
+
+        final List<PipelineId> pipelineIds = currentExecPlan.getPipelineIds();
+        if ( regionDef.isSource() || !metricsByPipelineId.keySet().containsAll( pipelineIds ) )
+        {
+            return emptyList();
+        }
+
+        final List<Pair<AdaptationAction, List<PipelineId>>> resolutions = resolveBottlenecks( pipelineIds,
+                                                                                               getMetrics( pipelineIds ),
+                                                                                               threadReleaser );
+        if ( resolutions.isEmpty() )
+        {
+            return emptyList();
+        }
+
+        adaptationActions = resolutions;
+        currentExecPlan = resolutions.get( resolutions.size() - 1 )._1.getNewExecPlan();
+
+        return resolutions.stream().map( Pair::firstElement ).collect( toList() );
+    }
+
     private boolean isRegionNonResolvable ()
     {
         if ( regionDef.isSource() )
@@ -397,6 +430,18 @@ public class RegionAdaptationContext
         return revertActions;
     }
 
+    /**
+     * Drops the adaptation actions, which are not applied yet, without adding them to the blacklist.
+     */
+    void cancelAdaptation ()
+    {
+        checkState( !adaptationActions.isEmpty(), "Cannot cancel adaptation for Region %s has no adaptation action", getRegionId() );
+
+        currentExecPlan = getBaseExecPlan();
+        checkState( currentExecPlan != null );
+        adaptationActions = emptyList();
+    }
+
     private void addToBlacklist ()
     {
         for ( Pair<AdaptationAction, List<PipelineId>> p : adaptationActions )
@@ -0,0 +1,85 @@
+package cs.bilkent.joker.engine.adaptation.impl;
+
+import java.util.Collection;
+
+import cs.bilkent.joker.engine.flow.RegionExecPlan;
+import cs.bilkent.joker.engine.metric.FlowMetrics;
+import cs.bilkent.joker.engine.metric.LatencyMetrics;
+import cs.bilkent.joker.engine.metric.LatencyMetrics.LatencyRecord;
+import cs.bilkent.joker.engine.metric.LatencyMetricsHistory;
+import cs.bilkent.joker.operator.OperatorDef;
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.max;
+import static java.util.Arrays.stream;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Computes the p99 end-to-end tuple latency of a flow and contributions of regions and pipelines to it using the latest
+ * {@link LatencyMetrics} of the sink operators. Contribution of a group of operators is the sum of p99 queue and invocation latencies
+ * of the operators, which is an upper bound for the time spent by a tail tuple in the given operators.
+ */
+class TailLatencyAnalyzer
+{
+
+    private final Collection<LatencyMetricsHistory> latencyMetricsHistories;
+
+    TailLatencyAnalyzer ( final FlowMetrics metrics )
+    {
+        checkArgument( metrics != null );
+        this.latencyMetricsHistories = metrics.getLatencyMetricsHistories();
+    }
+
+    /**
+     * Returns the maximum p99 tuple latency observed among the sink operators in nanoseconds, or 0 if there is no latency metric.
+     *
+     * @return the maximum p99 tuple latency observed among the sink operators in nanoseconds
+     */
+    long getP99TupleLatency ()
+    {
+        return latencyMetricsHistories.stream()
+                                      .map( LatencyMetricsHistory::getLatest )
+                                      .mapToLong( latencyMetrics -> latencyMetrics.getTupleLatency().getPercentile99() )
+                                      .max()
+                                      .orElse( 0 );
+    }
+
+    long getP99Contribution ( final RegionExecPlan execPlan )
+    {
+        checkArgument( execPlan != null );
+
+        return getP99Contribution( execPlan.getRegionDef().getOperators().stream().map( OperatorDef::getId ).collect( toList() ) );
+    }
+
+    long getP99Contribution ( final RegionExecPlan execPlan, final int pipelineStartIndex )
+    {
+        checkArgument( execPlan != null );
+        final OperatorDef[] operators = execPlan.getOperatorDefsByPipelineStartIndex( pipelineStartIndex );
+
+        return getP99Contribution( stream( operators ).map( OperatorDef::getId ).collect( toList() ) );
+    }
+
+    long getP99Contribution ( final Collection<String> operatorIds )
+    {
+        long maxContribution = 0;
+        for ( LatencyMetricsHistory latencyMetricsHistory : latencyMetricsHistories )
+        {
+            final LatencyMetrics latencyMetrics = latencyMetricsHistory.getLatest();
+            long contribution = 0;
+            for ( String operatorId : operatorIds )
+            {
+                contribution += getPercentile99( latencyMetrics.getQueueLatency( operatorId ) );
+                contribution += getPercentile99( latencyMetrics.getInvocationLatency( operatorId ) );
+            }
+
+            maxContribution = max( maxContribution, contribution );
+        }
+
+        return maxContribution;
+    }
+
+    private long getPercentile99 ( final LatencyRecord record )
+    {
+        return record != null ? record.getPercentile99() : 0;
+    }
+
+}
@@ -0,0 +1,347 @@
+package cs.bilkent.joker.engine.adaptation.impl.bottleneckresolver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import cs.bilkent.joker.engine.adaptation.AdaptationAction;
+import cs.bilkent.joker.engine.adaptation.BottleneckResolver;
+import cs.bilkent.joker.engine.adaptation.impl.adaptationaction.RegionRebalanceAction;
+import cs.bilkent.joker.engine.adaptation.impl.adaptationaction.SplitPipelineAction;
+import cs.bilkent.joker.engine.flow.PipelineId;
+import cs.bilkent.joker.engine.flow.RegionExecPlan;
+import cs.bilkent.joker.engine.metric.PipelineMetrics;
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+import static cs.bilkent.joker.operator.spec.OperatorType.PARTITIONED_STATEFUL;
+import cs.bilkent.joker.operator.utils.Pair;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Resolves bottlenecks of a region by predicting throughput of candidate {@link RegionExecPlan} objects with a simple queueing model,
+ * instead of trying split and rebalance actions one by one.
+ * <p>
+ * Each bottleneck pipeline is modelled as a chain of servers. Cost of an operator is its share in the busy time of the pipeline
+ * replica thread, which is measured per input tuple of the pipeline. Therefore, selectivities of the operators are already reflected
+ * to the costs. If a pipeline is split at a given operator index, throughput of the pipeline is bounded by its most expensive part.
+ * Replicas multiply the capacity, as long as the region does not need more threads than available cores.
+ * <p>
+ * Predictions are corrected by comparing them with the observed throughput of the region after the adaptation. The correction is
+ * kept per region and applied to the predicted speedup.
+ */
+@NotThreadSafe
+public class ModelBasedPlanner implements BottleneckResolver
+{
+
+    private static final Logger LOGGER = LoggerFactory.getLogger( ModelBasedPlanner.class );
+
+    private static final double MIN_CPU_UTILIZATION_RATIO = 0.01;
+
+    private static final double MAX_CORRECTION = 2;
+
+
+    private final boolean pipelineSplitEnabled;
+
+    private final boolean regionRebalanceEnabled;
+
+    private final int maxReplicaCount;
+
+    private final int availableCoreCount;
+
+    private final double throughputIncreaseThreshold;
+
+    private final double correctionWeight;
+
+    private final Map<Integer, Double> corrections = new HashMap<>();
+
+    private final Map<Integer, ThroughputPrediction> predictions = new HashMap<>();
+
+    public ModelBasedPlanner ( final boolean pipelineSplitEnabled,
+                               final boolean regionRebalanceEnabled,
+                               final int maxReplicaCount,
+                               final int availableCoreCount,
+                               final double throughputIncreaseThreshold,
+                               final double correctionWeight )
+    {
+        checkArgument( pipelineSplitEnabled || regionRebalanceEnabled );
+        checkArgument( maxReplicaCount > 0 );
+        checkArgument( availableCoreCount > 0 );
+        checkArgument( throughputIncreaseThreshold >= 0 );
+        checkArgument( correctionWeight >= 0 && correctionWeight <= 1 );
+        this.pipelineSplitEnabled = pipelineSplitEnabled;
+        this.regionRebalanceEnabled = regionRebalanceEnabled;
+        this.maxReplicaCount = maxReplicaCount;
+        this.availableCoreCount = availableCoreCount;
+        this.throughputIncreaseThreshold = throughputIncreaseThreshold;
+        this.correctionWeight = correctionWeight;
+    }
+
+    @Override
+    public List<Pair<AdaptationAction, List<PipelineId>>> resolve ( final RegionExecPlan execPlan, final List<PipelineMetrics> metrics )
+    {
+        checkArgument( execPlan != null );
+        checkArgument( metrics != null && metrics.size() > 0 );
+
+        final int regionId = execPlan.getRegionId();
+        final List<Integer> splitIndices = metrics.stream().map( m -> getBestSplitIndex( execPlan, m ) ).collect( toList() );
+        final boolean splittable = pipelineSplitEnabled && splitIndices.stream().anyMatch( i -> i > 0 );
+        final int replicaCountLimit = ( regionRebalanceEnabled && execPlan.getRegionType() == PARTITIONED_STATEFUL )
+                                      ? this.maxReplicaCount
+                                      : execPlan.getReplicaCount();
+
+        final PipelineMetrics headMetrics = metrics.get( 0 );
+        final double currentThroughput = getTotalInboundThroughput( headMetrics );
+        final double cpuUtilizationRatio = max( MIN_CPU_UTILIZATION_RATIO, headMetrics.getAvgCpuUtilizationRatio() );
+
+        double bestThroughput = predictThroughput( regionId, currentThroughput, cpuUtilizationRatio, 1 );
+        boolean bestSplit = false;
+        int bestReplicaCount = execPlan.getReplicaCount();
+        double bestSpeedup = 1;
+
+        // candidates are visited in increasing number of threads so that a plan with more threads is picked only if it pays off
+        for ( int replicaCount = execPlan.getReplicaCount(); replicaCount <= replicaCountLimit; replicaCount++ )
+        {
+            for ( boolean split : splittable ? new boolean[] { false, true } : new boolean[] { false } )
+            {
+                if ( !split && replicaCount == execPlan.getReplicaCount() )
+                {
+                    continue;
+                }
+
+                final double speedup = predictSpeedup( execPlan, metrics, split ? splitIndices : null, replicaCount );
+                final double throughput = predictThroughput( regionId, currentThroughput, cpuUtilizationRatio, speedup );
+                if ( throughput >= bestThroughput * ( 1 + throughputIncreaseThreshold ) )
+                {
+                    bestThroughput = throughput;
+                    bestSplit = split;
+                    bestReplicaCount = replicaCount;
+                    bestSpeedup = speedup;
+                }
+            }
+        }
+
+        if ( !bestSplit && bestReplicaCount == execPlan.getReplicaCount() )
+        {
+            LOGGER.info( "Region: {} has no candidate plan with predicted throughput increase. current throughput: {}",
+                         regionId,
+                         currentThroughput );
+
+            return emptyList();
+        }
+
+        final List<Pair<AdaptationAction, List<PipelineId>>> actions = createActions( execPlan,
+                                                                                      metrics,
+                                                                                      bestSplit ? splitIndices : null,
+                                                                                      bestReplicaCount );
+
+        final RegionExecPlan newExecPlan = actions.get( actions.size() - 1 )._1.getNewExecPlan();
+        predictions.put( regionId,
+                         new ThroughputPrediction( headMetrics.getPipelineId(),
+                                                   newExecPlan,
+                                                   currentThroughput,
+                                                   bestSpeedup / cpuUtilizationRatio ) );
+
+        LOGGER.info( "Region: {} current throughput: {} predicted throughput: {} with plan: {}",
+                     regionId,
+                     currentThroughput,
+                     bestThroughput,
+                     newExecPlan.toPlanSummaryString() );
+
+        return actions;
+    }
+
+    /**
+     * Compares the observed throughput of the region with the prediction made for its current execution plan,
+     * and updates the correction of the region.
+     *
+     * @param execPlan
+     *         current execution plan of the region
+     * @param metrics
+     *         metrics of the region, collected with the current execution plan
+     */
+    public void observe ( final RegionExecPlan execPlan, final List<PipelineMetrics> metrics )
+    {
+        checkArgument( execPlan != null );
+        checkArgument( metrics != null );
+
+        final int regionId = execPlan.getRegionId();
+        final ThroughputPrediction prediction = predictions.remove( regionId );
+        if ( prediction == null )
+        {
+            return;
+        }
+
+        if ( !prediction.execPlan.equals( execPlan ) )
+        {
+            LOGGER.warn( "Region: {} discards prediction since execution plan is changed to {}", regionId, execPlan.toPlanSummaryString() );
+            return;
+        }
+
+        final PipelineMetrics pipelineMetrics = metrics.stream()
+                                                       .filter( m -> m.getPipelineId().equals( prediction.pipelineId ) )
+                                                       .findFirst()
+                                                       .orElse( null );
+
+        if ( pipelineMetrics == null || prediction.baseThroughput <= 0 || prediction.speedup <= 1 )
+        {
+            return;
+        }
+
+        final double observedSpeedup = getTotalInboundThroughput( pipelineMetrics ) / prediction.baseThroughput;
+        final double sample = min( MAX_CORRECTION, max( 0, ( observedSpeedup - 1 ) / ( prediction.speedup - 1 ) ) );
+        final double correction = ( 1 - correctionWeight ) * getCorrection( regionId ) + correctionWeight * sample;
+        corrections.put( regionId, correction );
+
+        LOGGER.info( "Region: {} predicted speedup: {} observed speedup: {} new correction: {}",
+                     regionId,
+                     prediction.speedup,
+                     observedSpeedup,
+                     correction );
+    }
+
+    double getCorrection ( final int regionId )
+    {
+        return corrections.getOrDefault( regionId, 1d );
+    }
+
+    double predictThroughput ( final int regionId, final double currentThroughput, final double cpuUtilizationRatio, final double speedup )
+    {
+        // throughput of a saturated pipeline with the current plan is currentThroughput / cpuUtilizationRatio
+        final double rawSpeedup = speedup / cpuUtilizationRatio;
+        return currentThroughput * ( 1 + getCorrection( regionId ) * ( rawSpeedup - 1 ) );
+    }
+
+    double predictSpeedup ( final RegionExecPlan execPlan,
+                            final List<PipelineMetrics> metrics,
+                            final List<Integer> splitIndices,
+                            final int replicaCount )
+    {
+        double speedup = Double.MAX_VALUE;
+        int threadCount = execPlan.getPipelineCount() * replicaCount;
+        for ( int i = 0; i < metrics.size(); i++ )
+        {
+            final int splitIndex = splitIndices != null ? splitIndices.get( i ) : 0;
+            final double maxStageCost = splitIndex > 0 ? getMaxStageCost( metrics.get( i ), splitIndex ) : 1;
+            speedup = min( speedup, ( (double) replicaCount / execPlan.getReplicaCount() ) / maxStageCost );
+            if ( splitIndex > 0 )
+            {
+                threadCount += replicaCount;
+            }
+        }
+
+        final int currentThreadCount = execPlan.getPipelineCount() * execPlan.getReplicaCount();
+        final double coreFactor = min( 1d, (double) availableCoreCount / threadCount ) / min( 1d,
+                                                                                             (double) availableCoreCount
+                                                                                             / currentThreadCount );
+
+        return speedup * coreFactor;
+    }
+
+    int getBestSplitIndex ( final RegionExecPlan execPlan, final PipelineMetrics metrics )
+    {
+        final int operatorCount = execPlan.getOperatorCountByPipelineStartIndex( metrics.getPipelineId().getPipelineStartIndex() );
+        int bestSplitIndex = 0;
+        double bestStageCost = 1;
+        for ( int splitIndex = 1; splitIndex < operatorCount; splitIndex++ )
+        {
+            final double stageCost = getMaxStageCost( metrics, splitIndex );
+            if ( stageCost < bestStageCost )
+            {
+                bestStageCost = stageCost;
+                bestSplitIndex = splitIndex;
+            }
+        }
+
+        return bestSplitIndex;
+    }
+
+    private double getMaxStageCost ( final PipelineMetrics metrics, final int splitIndex )
+    {
+        // pipeline cost is paid by both pipelines after the split
+        final double pipelineCost = metrics.getAvgPipelineCost();
+        final double totalOperatorCost = max( 0, 1 - pipelineCost );
+        double headCost = 0;
+        for ( int i = 0; i < splitIndex; i++ )
+        {
+            headCost += metrics.getAvgOperatorCost( i );
+        }
+
+        headCost = min( headCost, totalOperatorCost );
+        final double tailCost = totalOperatorCost - headCost;
+
+        return pipelineCost + max( headCost, tailCost );
+    }
+
+    private List<Pair<AdaptationAction, List<PipelineId>>> createActions ( final RegionExecPlan execPlan,
+                                                                           final List<PipelineMetrics> metrics,
+                                                                           final List<Integer> splitIndices,
+                                                                           final int replicaCount )
+    {
+        final List<Pair<AdaptationAction, List<PipelineId>>> actions = new ArrayList<>();
+        RegionExecPlan currentExecPlan = execPlan;
+        if ( splitIndices != null )
+        {
+            for ( int i = 0; i < metrics.size(); i++ )
+            {
+                final int splitIndex = splitIndices.get( i );
+                if ( splitIndex > 0 )
+                {
+                    final PipelineId pipelineId = metrics.get( i ).getPipelineId();
+                    final AdaptationAction action = new SplitPipelineAction( currentExecPlan, pipelineId, splitIndex );
+                    actions.add( Pair.of( action, singletonList( pipelineId ) ) );
+                    currentExecPlan = action.getNewExecPlan();
+                }
+            }
+        }
+
+        if ( replicaCount != currentExecPlan.getReplicaCount() )
+        {
+            final List<PipelineId> pipelineIds = metrics.stream().map( PipelineMetrics::getPipelineId ).collect( toList() );
+            actions.add( Pair.of( new RegionRebalanceAction( currentExecPlan, replicaCount ), pipelineIds ) );
+        }
+
+        return actions;
+    }
+
+    private static double getTotalInboundThroughput ( final PipelineMetrics metrics )
+    {
+        double throughput = 0;
+        for ( int portIndex = 0; portIndex < metrics.getInputPortCount(); portIndex++ )
+        {
+            throughput += metrics.getTotalInboundThroughput( portIndex );
+        }
+
+        return throughput;
+    }
+
+    private static class ThroughputPrediction
+    {
+
+        final PipelineId pipelineId;
+
+        final RegionExecPlan execPlan;
+
+        final double baseThroughput;
+
+        final double speedup;
+
+        ThroughputPrediction ( final PipelineId pipelineId, final RegionExecPlan execPlan, final double baseThroughput,
+                               final double speedup )
+        {
+            this.pipelineId = pipelineId;
+            this.execPlan = execPlan;
+            this.baseThroughput = baseThroughput;
+            this.speedup = speedup;
+        }
+
+    }
+
+}
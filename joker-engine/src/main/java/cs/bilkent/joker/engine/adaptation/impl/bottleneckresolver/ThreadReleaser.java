@@ -0,0 +1,135 @@
+package cs.bilkent.joker.engine.adaptation.impl.bottleneckresolver;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import cs.bilkent.joker.engine.adaptation.AdaptationAction;
+import cs.bilkent.joker.engine.adaptation.BottleneckResolver;
+import cs.bilkent.joker.engine.adaptation.impl.adaptationaction.MergePipelinesAction;
+import cs.bilkent.joker.engine.adaptation.impl.adaptationaction.RegionRebalanceAction;
+import cs.bilkent.joker.engine.flow.PipelineId;
+import cs.bilkent.joker.engine.flow.RegionExecPlan;
+import cs.bilkent.joker.engine.metric.PipelineMetrics;
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+import static cs.bilkent.joker.operator.spec.OperatorType.PARTITIONED_STATEFUL;
+import cs.bilkent.joker.operator.utils.Pair;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Reduces number of threads of a region by merging its two adjacent pipelines with the lowest total cpu utilization, or by removing
+ * a replica of the region. The resulting pipelines are not allowed to exceed the given cpu utilization threshold. Metrics of all
+ * pipelines of the region must be given in order of their pipeline ids.
+ */
+public class ThreadReleaser implements BottleneckResolver
+{
+
+    private static final Logger LOGGER = LoggerFactory.getLogger( ThreadReleaser.class );
+
+
+    private final boolean pipelineMergeEnabled;
+
+    private final boolean regionRebalanceEnabled;
+
+    private final double cpuUtilBottleneckThreshold;
+
+    public ThreadReleaser ( final boolean pipelineMergeEnabled, final boolean regionRebalanceEnabled, final double cpuUtilBottleneckThreshold )
+    {
+        this.pipelineMergeEnabled = pipelineMergeEnabled;
+        this.regionRebalanceEnabled = regionRebalanceEnabled;
+        this.cpuUtilBottleneckThreshold = cpuUtilBottleneckThreshold;
+    }
+
+    /**
+     * Checks if the given region execution plan can have fewer threads with one of the enabled adaptation actions.
+     *
+     * @param execPlan
+     *         region execution plan to check
+     *
+     * @return true if the given region execution plan can have fewer threads
+     */
+    public boolean canRelease ( final RegionExecPlan execPlan )
+    {
+        checkArgument( execPlan != null );
+
+        if ( pipelineMergeEnabled && execPlan.getPipelineCount() > 1 )
+        {
+            return true;
+        }
+
+        return regionRebalanceEnabled && execPlan.getRegionType() == PARTITIONED_STATEFUL && execPlan.getReplicaCount() > 1;
+    }
+
+    @Override
+    public List<Pair<AdaptationAction, List<PipelineId>>> resolve ( final RegionExecPlan execPlan, final List<PipelineMetrics> metrics )
+    {
+        checkArgument( execPlan != null );
+        checkArgument( metrics != null && metrics.size() == execPlan.getPipelineCount() );
+
+        final Pair<AdaptationAction, List<PipelineId>> merge = pipelineMergeEnabled ? merge( execPlan, metrics ) : null;
+        if ( merge != null )
+        {
+            LOGGER.info( "Region: {} can release a thread with {}", execPlan.getRegionId(), merge._1 );
+            return singletonList( merge );
+        }
+
+        final Pair<AdaptationAction, List<PipelineId>> rebalance = regionRebalanceEnabled ? rebalance( execPlan, metrics ) : null;
+        if ( rebalance != null )
+        {
+            LOGGER.info( "Region: {} can release threads with {}", execPlan.getRegionId(), rebalance._1 );
+            return singletonList( rebalance );
+        }
+
+        return emptyList();
+    }
+
+    private Pair<AdaptationAction, List<PipelineId>> merge ( final RegionExecPlan execPlan, final List<PipelineMetrics> metrics )
+    {
+        int mergeIndex = -1;
+        double minCpuUtilization = cpuUtilBottleneckThreshold;
+        for ( int i = 0; i < metrics.size() - 1; i++ )
+        {
+            final double cpuUtilization = metrics.get( i ).getAvgCpuUtilizationRatio() + metrics.get( i + 1 ).getAvgCpuUtilizationRatio();
+            if ( cpuUtilization < minCpuUtilization )
+            {
+                mergeIndex = i;
+                minCpuUtilization = cpuUtilization;
+            }
+        }
+
+        if ( mergeIndex == -1 )
+        {
+            return null;
+        }
+
+        final List<PipelineId> pipelineIds = asList( metrics.get( mergeIndex ).getPipelineId(),
+                                                     metrics.get( mergeIndex + 1 ).getPipelineId() );
+
+        return Pair.of( new MergePipelinesAction( execPlan, pipelineIds ), pipelineIds );
+    }
+
+    private Pair<AdaptationAction, List<PipelineId>> rebalance ( final RegionExecPlan execPlan, final List<PipelineMetrics> metrics )
+    {
+        final int replicaCount = execPlan.getReplicaCount();
+        if ( execPlan.getRegionType() != PARTITIONED_STATEFUL || replicaCount < 2 )
+        {
+            return null;
+        }
+
+        final double maxCpuUtilization = metrics.stream().mapToDouble( PipelineMetrics::getAvgCpuUtilizationRatio ).max().orElse( 0 );
+        final double cpuUtilization = maxCpuUtilization * replicaCount / ( replicaCount - 1 );
+        if ( cpuUtilization >= cpuUtilBottleneckThreshold )
+        {
+            return null;
+        }
+
+        final List<PipelineId> pipelineIds = metrics.stream().map( PipelineMetrics::getPipelineId ).collect( toList() );
+
+        return Pair.of( new RegionRebalanceAction( execPlan, replicaCount - 1 ), pipelineIds );
+    }
+
+}
@@ -50,6 +50,20 @@ public class AdaptationConfig
 
     static final String STABLE_PERIOD_COUNT_TO_STOP = "stablePeriodCountToStop";
 
+    static final String MODEL_BASED_PLANNING_ENABLED = "modelBasedPlanningEnabled";
+
+    static final String MODEL_CORRECTION_WEIGHT = "modelCorrectionWeight";
+
+    static final String CPU_QUOTA = "cpuQuota";
+
+    static final String LATENCY_SLO_ENABLED = "latencySloEnabled";
+
+    static final String P99_LATENCY_SLO_IN_MICROS = "p99LatencySloInMicros";
+
+    static final String LATENCY_SLO_SLACK_RATIO = "latencySloSlackRatio";
+
+    static final String LATENCY_DECREASE_THRESHOLD = "latencyDecreaseThreshold";
+
 
     private final boolean adaptationEnabled;
 
@@ -75,6 +89,20 @@ public class AdaptationConfig
 
     private final int stablePeriodCountToStop;
 
+    private final boolean modelBasedPlanningEnabled;
+
+    private final double modelCorrectionWeight;
+
+    private final int cpuQuota;
+
+    private final boolean latencySloEnabled;
+
+    private final long p99LatencySloInMicros;
+
+    private final double latencySloSlackRatio;
+
+    private final double latencyDecreaseThreshold;
+
 
     AdaptationConfig ( final Config parentConfig )
     {
@@ -101,6 +129,13 @@ public class AdaptationConfig
         this.throughputIncreaseThreshold = config.getDouble( THROUGHPUT_INCREASE_THRESHOLD );
         this.splitUtility = config.getDouble( SPLIT_UTILITY );
         this.stablePeriodCountToStop = config.getInt( STABLE_PERIOD_COUNT_TO_STOP );
+        this.modelBasedPlanningEnabled = config.getBoolean( MODEL_BASED_PLANNING_ENABLED );
+        this.modelCorrectionWeight = config.getDouble( MODEL_CORRECTION_WEIGHT );
+        this.cpuQuota = config.getInt( CPU_QUOTA );
+        this.latencySloEnabled = config.getBoolean( LATENCY_SLO_ENABLED );
+        this.p99LatencySloInMicros = config.getLong( P99_LATENCY_SLO_IN_MICROS );
+        this.latencySloSlackRatio = config.getDouble( LATENCY_SLO_SLACK_RATIO );
+        this.latencyDecreaseThreshold = config.getDouble( LATENCY_DECREASE_THRESHOLD );
     }
 
     public boolean isAdaptationEnabled ()
@@ -171,6 +206,54 @@ public class AdaptationConfig
         return stablePeriodCountToStop;
     }
 
+    public boolean isModelBasedPlanningEnabled ()
+    {
+        return modelBasedPlanningEnabled;
+    }
+
+    public double getModelCorrectionWeight ()
+    {
+        return modelCorrectionWeight;
+    }
+
+    /**
+     * Returns maximum number of pipeline replica threads the flow can have after adaptation actions. 0 means no limit.
+     *
+     * @return maximum number of pipeline replica threads the flow can have after adaptation actions
+     */
+    public int getCpuQuota ()
+    {
+        return cpuQuota;
+    }
+
+    /**
+     * Returns true if the adaptation decisions are driven by the p99 end-to-end tuple latency of the flow instead of the throughput.
+     * In this mode, regions contributing most to the tail latency are adapted while the p99 latency is above
+     * {@link #getP99LatencySloInMicros()}, and threads are released from the regions contributing least to the tail latency while
+     * the p99 latency is below {@link #getP99LatencySloInMicros()} multiplied by {@link #getLatencySloSlackRatio()}.
+     *
+     * @return true if the adaptation decisions are driven by the p99 end-to-end tuple latency of the flow
+     */
+    public boolean isLatencySloEnabled ()
+    {
+        return latencySloEnabled;
+    }
+
+    public long getP99LatencySloInMicros ()
+    {
+        return p99LatencySloInMicros;
+    }
+
+    public double getLatencySloSlackRatio ()
+    {
+        return latencySloSlackRatio;
+    }
+
+    public double getLatencyDecreaseThreshold ()
+    {
+        return latencyDecreaseThreshold;
+    }
+
     public BiPredicate<PipelineMetrics, PipelineMetrics> getLoadChangePredicate ()
     {
         return ( oldMetrics, newMetrics ) -> {
@@ -275,7 +358,10 @@ public class AdaptationConfig
         return "AdaptationConfig{" + "pipelineMetricsHistorySummarizerClass=" + pipelineMetricsHistorySummarizerClass
                + ", cpuUtilBottleneckThreshold=" + cpuUtilBottleneckThreshold + ", cpuUtilLoadChangeThreshold=" + cpuUtilLoadChangeThreshold
                + ", throughputLoadChangeThreshold=" + throughputLoadChangeThreshold + ", throughputIncreaseThreshold="
-               + throughputIncreaseThreshold + ", splitUtility=" + splitUtility + '}';
+               + throughputIncreaseThreshold + ", splitUtility=" + splitUtility + ", modelBasedPlanningEnabled=" + modelBasedPlanningEnabled
+               + ", modelCorrectionWeight=" + modelCorrectionWeight + ", cpuQuota=" + cpuQuota
+               + ", latencySloEnabled=" + latencySloEnabled + ", p99LatencySloInMicros=" + p99LatencySloInMicros + ", latencySloSlackRatio="
+               + latencySloSlackRatio + ", latencyDecreaseThreshold=" + latencyDecreaseThreshold + '}';
     }
 
 }
@@ -10,6 +10,8 @@ public class JokerConfig
 
     public static final String JOKER_ID = "jokerId";
 
+    public static final String METRICS_SCHEDULER_NAME = "metricsScheduler";
+
     static final String ENGINE_CONFIG_NAME = "joker.engine";
 
 
@@ -31,6 +33,8 @@ public class JokerConfig
 
     private final AdaptationConfig adaptationConfig;
 
+    private final SpillConfig spillConfig;
+
     public JokerConfig ()
     {
         this( ConfigFactory.load() );
@@ -48,6 +52,7 @@ public class JokerConfig
         this.pipelineManagerConfig = new PipelineManagerConfig( engineConfig );
         this.metricManagerConfig = new MetricManagerConfig( engineConfig );
         this.adaptationConfig = new AdaptationConfig( engineConfig );
+        this.spillConfig = new SpillConfig( engineConfig );
     }
 
     public Config getRootConfig ()
@@ -95,6 +100,11 @@ public class JokerConfig
         return adaptationConfig;
     }
 
+    public SpillConfig getSpillConfig ()
+    {
+        return spillConfig;
+    }
+
     @Override
     public String toString ()
     {
@@ -109,7 +119,7 @@ public class JokerConfig
     private String getConfigString ()
     {
         return tupleQueueManagerConfig + ", " + tupleQueueDrainerConfig + ", " + pipelineReplicaRunnerConfig + ", " + partitionServiceConfig
-               + ", " + flowDefOptimizerConfig + ", " + pipelineManagerConfig + ", " + metricManagerConfig;
+               + ", " + flowDefOptimizerConfig + ", " + pipelineManagerConfig + ", " + metricManagerConfig + ", " + spillConfig;
     }
 
 }
@@ -8,8 +8,15 @@ import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 
 import static cs.bilkent.joker.engine.config.AdaptationConfig.ADAPTATION_ENABLED;
+import static cs.bilkent.joker.engine.config.AdaptationConfig.CPU_QUOTA;
 import static cs.bilkent.joker.engine.config.AdaptationConfig.CPU_UTILIZATION_BOTTLENECK_THRESHOLD;
 import static cs.bilkent.joker.engine.config.AdaptationConfig.CPU_UTILIZATION_LOAD_CHANGE_THRESHOLD;
+import static cs.bilkent.joker.engine.config.AdaptationConfig.LATENCY_DECREASE_THRESHOLD;
+import static cs.bilkent.joker.engine.config.AdaptationConfig.LATENCY_SLO_ENABLED;
+import static cs.bilkent.joker.engine.config.AdaptationConfig.LATENCY_SLO_SLACK_RATIO;
+import static cs.bilkent.joker.engine.config.AdaptationConfig.MODEL_BASED_PLANNING_ENABLED;
+import static cs.bilkent.joker.engine.config.AdaptationConfig.MODEL_CORRECTION_WEIGHT;
+import static cs.bilkent.joker.engine.config.AdaptationConfig.P99_LATENCY_SLO_IN_MICROS;
 import static cs.bilkent.joker.engine.config.AdaptationConfig.PIPELINE_METRICS_HISTORY_SUMMARIZER_CLASS;
 import static cs.bilkent.joker.engine.config.AdaptationConfig.PIPELINE_SPLIT_ENABLED;
 import static cs.bilkent.joker.engine.config.AdaptationConfig.REGION_REBALANCE_ENABLED;
@@ -30,10 +37,19 @@ import static cs.bilkent.joker.engine.config.MetricManagerConfig.PERIOD_SKEW_TOL
 import static cs.bilkent.joker.engine.config.MetricManagerConfig.PIPELINE_METRICS_SCANNING_PERIOD_IN_MILLIS;
 import static cs.bilkent.joker.engine.config.MetricManagerConfig.TICK_MASK;
 import static cs.bilkent.joker.engine.config.MetricManagerConfig.WARMUP_ITERATIONS;
+import static cs.bilkent.joker.engine.config.PartitionServiceConfig.INSTANCE_COUNT;
+import static cs.bilkent.joker.engine.config.PartitionServiceConfig.INSTANCE_INDEX;
+import static cs.bilkent.joker.engine.config.PartitionServiceConfig.MAX_PARTITION_COUNT;
 import static cs.bilkent.joker.engine.config.PartitionServiceConfig.MAX_REPLICA_COUNT;
+import static cs.bilkent.joker.engine.config.PartitionServiceConfig.MIN_PARTITION_COUNT_PER_REPLICA;
 import static cs.bilkent.joker.engine.config.PartitionServiceConfig.PARTITION_COUNT;
+import static cs.bilkent.joker.engine.config.PipelineManagerConfig.INITIALIZATION_PARALLELISM;
 import static cs.bilkent.joker.engine.config.PipelineManagerConfig.RUNNER_COMMAND_TIMEOUT;
 import static cs.bilkent.joker.engine.config.PipelineReplicaRunnerConfig.RUNNER_WAIT_TIMEOUT;
+import static cs.bilkent.joker.engine.config.SpillConfig.PARTITIONED_QUEUE_TUPLE_LIMIT;
+import static cs.bilkent.joker.engine.config.SpillConfig.PARTITIONED_STATE_KEY_LIMIT;
+import static cs.bilkent.joker.engine.config.SpillConfig.SPILL_DIR;
+import static cs.bilkent.joker.engine.config.SpillConfig.SPILL_ENABLED;
 import static cs.bilkent.joker.engine.config.TupleQueueDrainerConfig.MAX_BATCH_SIZE;
 import static cs.bilkent.joker.engine.config.TupleQueueManagerConfig.TUPLE_QUEUE_CAPACITY;
 
@@ -53,6 +69,8 @@ public class JokerConfigBuilder
 
     private final Map<String, Object> pipelineReplicaRunnerConfigVals = new HashMap<>();
 
+    private final Map<String, Object> spillConfigVals = new HashMap<>();
+
     private final Map<String, Object> tupleQueueDrainerConfigVals = new HashMap<>();
 
     private final Map<String, Object> tupleQueueManagerConfigVals = new HashMap<>();
@@ -69,6 +87,8 @@ public class JokerConfigBuilder
 
     private final PipelineReplicaRunnerConfigBuilder pipelineReplicaRunnerConfigBuilder = new PipelineReplicaRunnerConfigBuilder();
 
+    private final SpillConfigBuilder spillConfigBuilder = new SpillConfigBuilder();
+
     private final TupleQueueDrainerConfigBuilder tupleQueueDrainerConfigBuilder = new TupleQueueDrainerConfigBuilder();
 
     private final TupleQueueManagerConfigBuilder tupleQueueManagerConfigBuilder = new TupleQueueManagerConfigBuilder();
@@ -92,6 +112,7 @@ public class JokerConfigBuilder
         accumulate( allVals, PartitionServiceConfig.CONFIG_NAME, partitionServiceConfigVals );
         accumulate( allVals, PipelineManagerConfig.CONFIG_NAME, pipelineManagerConfigVals );
         accumulate( allVals, PipelineReplicaRunnerConfig.CONFIG_NAME, pipelineReplicaRunnerConfigVals );
+        accumulate( allVals, SpillConfig.CONFIG_NAME, spillConfigVals );
         accumulate( allVals, TupleQueueDrainerConfig.CONFIG_NAME, tupleQueueDrainerConfigVals );
         accumulate( allVals, TupleQueueManagerConfig.CONFIG_NAME, tupleQueueManagerConfigVals );
 
@@ -141,6 +162,11 @@ public class JokerConfigBuilder
         return pipelineReplicaRunnerConfigBuilder;
     }
 
+    public SpillConfigBuilder getSpillConfigBuilder ()
+    {
+        return spillConfigBuilder;
+    }
+
     public TupleQueueDrainerConfigBuilder getTupleQueueDrainerConfigBuilder ()
     {
         return tupleQueueDrainerConfigBuilder;
@@ -277,6 +303,69 @@ public class JokerConfigBuilder
             return this;
         }
 
+        public AdaptationConfigBuilder enableModelBasedPlanning ()
+        {
+            adaptationConfigVals.put( MODEL_BASED_PLANNING_ENABLED, true );
+
+            return this;
+        }
+
+        public AdaptationConfigBuilder disableModelBasedPlanning ()
+        {
+            adaptationConfigVals.put( MODEL_BASED_PLANNING_ENABLED, false );
+
+            return this;
+        }
+
+        public AdaptationConfigBuilder setModelCorrectionWeight ( final double val )
+        {
+            adaptationConfigVals.put( MODEL_CORRECTION_WEIGHT, val );
+
+            return this;
+        }
+
+        public AdaptationConfigBuilder setCpuQuota ( final int val )
+        {
+            adaptationConfigVals.put( CPU_QUOTA, val );
+
+            return this;
+        }
+
+        public AdaptationConfigBuilder enableLatencySlo ()
+        {
+            adaptationConfigVals.put( LATENCY_SLO_ENABLED, true );
+
+            return this;
+        }
+
+        public AdaptationConfigBuilder disableLatencySlo ()
+        {
+            adaptationConfigVals.put( LATENCY_SLO_ENABLED, false );
+
+            return this;
+        }
+
+        public AdaptationConfigBuilder setP99LatencySloInMicros ( final long val )
+        {
+            adaptationConfigVals.put( P99_LATENCY_SLO_IN_MICROS, val );
+
+            return this;
+        }
+
+        public AdaptationConfigBuilder setLatencySloSlackRatio ( final double val )
+        {
+            adaptationConfigVals.put( LATENCY_SLO_SLACK_RATIO, val );
+
+            return this;
+        }
+
+        public AdaptationConfigBuilder setLatencyDecreaseThreshold ( final double val )
+        {
+            adaptationConfigVals.put( LATENCY_DECREASE_THRESHOLD, val );
+
+            return this;
+        }
+
     }
 
 
@@ -412,6 +501,20 @@ public class JokerConfigBuilder
             return this;
         }
 
+        public PartitionServiceConfigBuilder setMaxPartitionCount ( final int val )
+        {
+            partitionServiceConfigVals.put( MAX_PARTITION_COUNT, val );
+
+            return this;
+        }
+
+        public PartitionServiceConfigBuilder setMinPartitionCountPerReplica ( final int val )
+        {
+            partitionServiceConfigVals.put( MIN_PARTITION_COUNT_PER_REPLICA, val );
+
+            return this;
+        }
+
         public PartitionServiceConfigBuilder setMaxReplicaCount ( final int val )
         {
             partitionServiceConfigVals.put( MAX_REPLICA_COUNT, val );
@@ -419,6 +522,20 @@ public class JokerConfigBuilder
             return this;
         }
 
+        public PartitionServiceConfigBuilder setInstanceCount ( final int val )
+        {
+            partitionServiceConfigVals.put( INSTANCE_COUNT, val );
+
+            return this;
+        }
+
+        public PartitionServiceConfigBuilder setInstanceIndex ( final int val )
+        {
+            partitionServiceConfigVals.put( INSTANCE_INDEX, val );
+
+            return this;
+        }
+
     }
 
 
@@ -436,6 +553,13 @@ public class JokerConfigBuilder
             return this;
         }
 
+        public PipelineManagerConfigBuilder setInitializationParallelism ( final int val )
+        {
+            pipelineManagerConfigVals.put( INITIALIZATION_PARALLELISM, val );
+
+            return this;
+        }
+
     }
 
 
@@ -456,6 +580,51 @@ public class JokerConfigBuilder
     }
 
 
+    public class SpillConfigBuilder
+    {
+
+        private SpillConfigBuilder ()
+        {
+        }
+
+        public SpillConfigBuilder enableSpill ()
+        {
+            spillConfigVals.put( SPILL_ENABLED, true );
+
+            return this;
+        }
+
+        public SpillConfigBuilder disableSpill ()
+        {
+            spillConfigVals.put( SPILL_ENABLED, false );
+
+            return this;
+        }
+
+        public SpillConfigBuilder setSpillDir ( final String val )
+        {
+            spillConfigVals.put( SPILL_DIR, val );
+
+            return this;
+        }
+
+        public SpillConfigBuilder setPartitionedQueueTupleLimit ( final int val )
+        {
+            spillConfigVals.put( PARTITIONED_QUEUE_TUPLE_LIMIT, val );
+
+            return this;
+        }
+
+        public SpillConfigBuilder setPartitionedStateKeyLimit ( final int val )
+        {
+            spillConfigVals.put( PARTITIONED_STATE_KEY_LIMIT, val );
+
+            return this;
+        }
+
+    }
+
+
     public class TupleQueueDrainerConfigBuilder
     {
 
@@ -2,6 +2,8 @@ package cs.bilkent.joker.engine.config;
 
 import com.typesafe.config.Config;
 
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+
 public class PartitionServiceConfig
 {
 
@@ -9,34 +11,101 @@ public class PartitionServiceConfig
 
     static final String PARTITION_COUNT = "partitionCount";
 
+    static final String MAX_PARTITION_COUNT = "maxPartitionCount";
+
+    static final String MIN_PARTITION_COUNT_PER_REPLICA = "minPartitionCountPerReplica";
+
     static final String MAX_REPLICA_COUNT = "maxReplicaCount";
 
+    static final String INSTANCE_COUNT = "instanceCount";
+
+    static final String INSTANCE_INDEX = "instanceIndex";
+
 
     private final int partitionCount;
 
+    private final int maxPartitionCount;
+
+    private final int minPartitionCountPerReplica;
+
     private final int maxReplicaCount;
 
+    private final int instanceCount;
+
+    private final int instanceIndex;
+
     PartitionServiceConfig ( final Config parentConfig )
     {
         final Config config = parentConfig.getConfig( CONFIG_NAME );
         this.partitionCount = config.getInt( PARTITION_COUNT );
+        this.maxPartitionCount = config.getInt( MAX_PARTITION_COUNT );
+        this.minPartitionCountPerReplica = config.getInt( MIN_PARTITION_COUNT_PER_REPLICA );
         this.maxReplicaCount = config.getInt( MAX_REPLICA_COUNT );
+        this.instanceCount = config.getInt( INSTANCE_COUNT );
+        this.instanceIndex = config.getInt( INSTANCE_INDEX );
+        checkArgument( partitionCount > 0, "invalid partition count: %s", partitionCount );
+        checkArgument( maxPartitionCount >= partitionCount,
+                       "max partition count: %s cannot be less than partition count: %s",
+                       maxPartitionCount,
+                       partitionCount );
+        checkArgument( minPartitionCountPerReplica > 0, "invalid min partition count per replica: %s", minPartitionCountPerReplica );
+        checkArgument( instanceCount > 0 && instanceCount <= partitionCount,
+                       "instance count: %s must be positive and cannot be greater than partition count: %s",
+                       instanceCount,
+                       partitionCount );
+        checkArgument( instanceIndex >= 0 && instanceIndex < instanceCount,
+                       "invalid instance index: %s for instance count: %s",
+                       instanceIndex,
+                       instanceCount );
     }
 
+    /**
+     * Returns the initial partition count of the regions. Partitions of a region are split into halves when its replica count grows
+     * beyond {@code partitionCount / minPartitionCountPerReplica}, hence a region can have {@code partitionCount * 2^k} partitions.
+     */
     public int getPartitionCount ()
     {
         return partitionCount;
     }
 
+    public int getMaxPartitionCount ()
+    {
+        return maxPartitionCount;
+    }
+
+    public int getMinPartitionCountPerReplica ()
+    {
+        return minPartitionCountPerReplica;
+    }
+
     public int getMaxReplicaCount ()
     {
         return maxReplicaCount;
     }
 
+    /**
+     * Returns the number of Joker instances which run the same flow and share the ownership of the partitions of its
+     * {@code PARTITIONED_STATEFUL} regions. Each instance owns {@code partitionCount / instanceCount} of the initial partitions.
+     */
+    public int getInstanceCount ()
+    {
+        return instanceCount;
+    }
+
+    /**
+     * Returns index of this Joker instance among the instances which run the same flow
+     */
+    public int getInstanceIndex ()
+    {
+        return instanceIndex;
+    }
+
     @Override
     public String toString ()
     {
-        return "PartitionServiceConfig{" + "partitionCount=" + partitionCount + ", maxReplicaCount=" + maxReplicaCount + '}';
+        return "PartitionServiceConfig{" + "partitionCount=" + partitionCount + ", maxPartitionCount=" + maxPartitionCount
+               + ", minPartitionCountPerReplica=" + minPartitionCountPerReplica + ", maxReplicaCount=" + maxReplicaCount
+               + ", instanceCount=" + instanceCount + ", instanceIndex=" + instanceIndex + '}';
     }
 
 }
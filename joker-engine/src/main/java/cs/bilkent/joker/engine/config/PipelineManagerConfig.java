@@ -2,6 +2,8 @@ package cs.bilkent.joker.engine.config;
 
 import com.typesafe.config.Config;
 
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+
 public class PipelineManagerConfig
 {
 
@@ -9,13 +11,22 @@ public class PipelineManagerConfig
 
     static final String RUNNER_COMMAND_TIMEOUT = "runnerCommandTimeoutInMillis";
 
+    static final String INITIALIZATION_PARALLELISM = "initializationParallelism";
+
 
     private final long runnerCommandTimeoutInMillis;
 
+    private final int initializationParallelism;
+
     PipelineManagerConfig ( final Config parentConfig )
     {
         final Config config = parentConfig.getConfig( CONFIG_NAME );
         this.runnerCommandTimeoutInMillis = config.getLong( RUNNER_COMMAND_TIMEOUT );
+        final int initializationParallelism = config.getInt( INITIALIZATION_PARALLELISM );
+        checkArgument( initializationParallelism >= 0, "invalid initialization parallelism: %s", initializationParallelism );
+        this.initializationParallelism = initializationParallelism > 0
+                                         ? initializationParallelism
+                                         : Runtime.getRuntime().availableProcessors();
     }
 
     public long getRunnerCommandTimeoutInMillis ()
@@ -23,10 +34,16 @@ public class PipelineManagerConfig
         return runnerCommandTimeoutInMillis;
     }
 
+    public int getInitializationParallelism ()
+    {
+        return initializationParallelism;
+    }
+
     @Override
     public String toString ()
     {
-        return "PipelineManagerConfig{" + "runnerCommandTimeoutInMillis=" + runnerCommandTimeoutInMillis + '}';
+        return "PipelineManagerConfig{" + "runnerCommandTimeoutInMillis=" + runnerCommandTimeoutInMillis + ", initializationParallelism="
+               + initializationParallelism + '}';
     }
 
 }
@@ -0,0 +1,64 @@
+package cs.bilkent.joker.engine.config;
+
+import com.typesafe.config.Config;
+
+public class SpillConfig
+{
+
+    static final String CONFIG_NAME = "spill";
+
+    static final String SPILL_ENABLED = "spillEnabled";
+
+    static final String SPILL_DIR = "spillDir";
+
+    static final String PARTITIONED_QUEUE_TUPLE_LIMIT = "partitionedQueueTupleLimit";
+
+    static final String PARTITIONED_STATE_KEY_LIMIT = "partitionedStateKeyLimit";
+
+
+    private final boolean spillEnabled;
+
+    private final String spillDir;
+
+    private final int partitionedQueueTupleLimit;
+
+    private final int partitionedStateKeyLimit;
+
+    SpillConfig ( final Config parentConfig )
+    {
+        final Config config = parentConfig.getConfig( CONFIG_NAME );
+        this.spillEnabled = config.getBoolean( SPILL_ENABLED );
+        final String spillDir = config.getString( SPILL_DIR );
+        this.spillDir = spillDir.isEmpty() ? System.getProperty( "java.io.tmpdir" ) : spillDir;
+        this.partitionedQueueTupleLimit = config.getInt( PARTITIONED_QUEUE_TUPLE_LIMIT );
+        this.partitionedStateKeyLimit = config.getInt( PARTITIONED_STATE_KEY_LIMIT );
+    }
+
+    public boolean isSpillEnabled ()
+    {
+        return spillEnabled;
+    }
+
+    public String getSpillDir ()
+    {
+        return spillDir;
+    }
+
+    public int getPartitionedQueueTupleLimit ()
+    {
+        return partitionedQueueTupleLimit;
+    }
+
+    public int getPartitionedStateKeyLimit ()
+    {
+        return partitionedStateKeyLimit;
+    }
+
+    @Override
+    public String toString ()
+    {
+        return "SpillConfig{" + "spillEnabled=" + spillEnabled + ", spillDir='" + spillDir + '\'' + ", partitionedQueueTupleLimit="
+               + partitionedQueueTupleLimit + ", partitionedStateKeyLimit=" + partitionedStateKeyLimit + '}';
+    }
+
+}
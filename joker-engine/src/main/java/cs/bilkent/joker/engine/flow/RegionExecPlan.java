@@ -12,7 +12,6 @@ import cs.bilkent.joker.operator.OperatorDef;
 import cs.bilkent.joker.operator.spec.OperatorType;
 import static cs.bilkent.joker.operator.spec.OperatorType.PARTITIONED_STATEFUL;
 import static cs.bilkent.joker.operator.spec.OperatorType.STATEFUL;
-import static cs.bilkent.joker.operator.spec.OperatorType.STATELESS;
 import static java.util.Collections.unmodifiableList;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
@@ -22,7 +21,9 @@ import static java.util.stream.IntStream.range;
  * Represents an execution plan for a {@link RegionDef} object. Each region contains a chain of operators.
  * Operators of a region are split into pipelines. Due to its type, regions can have multiple replicas.
  * For instance, if a region has 2 replicas, each pipeline of the region will have 2 replicas as well.
- * Only {@link OperatorType#PARTITIONED_STATEFUL} regions can have multiple replicas for now.
+ * {@link OperatorType#PARTITIONED_STATEFUL} and {@link OperatorType#STATELESS} regions can have multiple replicas, whereas
+ * {@link OperatorType#STATEFUL} regions have a single replica. Replicas of a {@link OperatorType#STATELESS} region are fed by
+ * load-balancing their input queues.
  * <p>
  * Each pipeline is represented with a {@link PipelineId} object, which contains two field: id of the region and in-region index of the
  * pipeline's first operator.
@@ -38,9 +39,7 @@ public class RegionExecPlan
 
     public RegionExecPlan ( final RegionDef regionDef, final List<Integer> pipelineStartIndices, final int replicaCount )
     {
-        checkArgument( ( regionDef.getRegionType() == STATEFUL || regionDef.getRegionType() == STATELESS )
-                       ? replicaCount == 1
-                       : replicaCount > 0,
+        checkArgument( regionDef.getRegionType() == STATEFUL ? replicaCount == 1 : replicaCount > 0,
                        "Invalid replica count: %s for %s region with id: %s",
                        replicaCount,
                        regionDef.getRegionType(),
@@ -112,6 +111,16 @@ public class RegionExecPlan
         return pipelineStartIndices.size();
     }
 
+    /**
+     * Returns number of the pipeline replica threads of the region execution plan
+     *
+     * @return number of the pipeline replica threads of the region execution plan
+     */
+    public int getThreadCount ()
+    {
+        return getPipelineCount() * replicaCount;
+    }
+
     /**
      * Returns ids of the pipelines present in the region execution plan
      *
@@ -0,0 +1,37 @@
+package cs.bilkent.joker.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Application of an adaptation action to a region, with the region execution plans before and after the action.
+ */
+@Name( "cs.bilkent.joker.AdaptationAction" )
+@Label( "Adaptation Action" )
+@Description( "Application of an adaptation action to a region" )
+@Category( { "Joker", "Adaptation" } )
+@StackTrace( false )
+public class AdaptationActionEvent extends Event
+{
+
+    @Label( "Action" )
+    public String action;
+
+    @Label( "Region Id" )
+    public int regionId;
+
+    @Label( "Current Execution Plan" )
+    public String currentExecPlan;
+
+    @Label( "New Execution Plan" )
+    public String newExecPlan;
+
+    @Label( "Flow Version" )
+    @Description( "Version of the flow execution plan after the action" )
+    public int flowVersion;
+
+}
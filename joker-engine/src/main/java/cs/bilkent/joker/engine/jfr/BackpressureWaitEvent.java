@@ -0,0 +1,70 @@
+package cs.bilkent.joker.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Time spent by a downstream collector while waiting for space in a full downstream operator queue. The event is created only after the
+ * first failed offer, hence it does not affect the path on which the tuples are offered without waiting.
+ */
+@Name( "cs.bilkent.joker.BackpressureWait" )
+@Label( "Backpressure Wait" )
+@Description( "Wait of a downstream collector on a full operator queue" )
+@Category( { "Joker", "Queue" } )
+@Threshold( "1 ms" )
+@StackTrace( false )
+public class BackpressureWaitEvent extends Event
+{
+
+    @Label( "Downstream Operator" )
+    public String operatorId;
+
+    @Label( "Downstream Port Index" )
+    @Description( "Port index of the downstream operator, or -1 if tuples are offered to multiple ports" )
+    public int portIndex;
+
+    @Label( "Idle Count" )
+    @Description( "Number of spins, yields and parks performed by the idle strategy" )
+    public long idleCount;
+
+    /**
+     * Begins a new event on the first failed offer of a downstream collector, or counts the idle iteration of the ongoing event.
+     */
+    public static BackpressureWaitEvent onIdle ( final BackpressureWaitEvent event, final String operatorId, final int portIndex )
+    {
+        if ( event != null )
+        {
+            event.idleCount++;
+            return event;
+        }
+
+        final BackpressureWaitEvent newEvent = new BackpressureWaitEvent();
+        newEvent.operatorId = operatorId;
+        newEvent.portIndex = portIndex;
+        newEvent.idleCount = 1;
+        newEvent.begin();
+
+        return newEvent;
+    }
+
+    /**
+     * Ends and commits the given event, if there is any and it passes the threshold.
+     */
+    public static void onCompleted ( final BackpressureWaitEvent event )
+    {
+        if ( event != null )
+        {
+            event.end();
+            if ( event.shouldCommit() )
+            {
+                event.commit();
+            }
+        }
+    }
+
+}
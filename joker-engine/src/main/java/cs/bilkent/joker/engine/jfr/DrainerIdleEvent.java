@@ -0,0 +1,70 @@
+package cs.bilkent.joker.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Time spent by a blocking tuple queue drainer while waiting for the tuples requested by the scheduling strategy of an operator.
+ * The event is created only after the first unsatisfied check of the queues.
+ */
+@Name( "cs.bilkent.joker.DrainerIdle" )
+@Label( "Drainer Idle" )
+@Description( "Idle spins of a blocking tuple queue drainer waiting for input tuples" )
+@Category( { "Joker", "Queue" } )
+@Threshold( "10 ms" )
+@StackTrace( false )
+public class DrainerIdleEvent extends Event
+{
+
+    @Label( "Drainer" )
+    public String drainer;
+
+    @Label( "Idle Count" )
+    @Description( "Number of spins, yields and parks performed by the idle strategy" )
+    public long idleCount;
+
+    @Label( "Satisfied" )
+    @Description( "False if the drainer gave up waiting without the requested tuples" )
+    public boolean satisfied;
+
+    /**
+     * Begins a new event on the first unsatisfied check of a drainer, or counts the idle iteration of the ongoing event.
+     */
+    public static DrainerIdleEvent onIdle ( final DrainerIdleEvent event, final Object drainer )
+    {
+        if ( event != null )
+        {
+            event.idleCount++;
+            return event;
+        }
+
+        final DrainerIdleEvent newEvent = new DrainerIdleEvent();
+        newEvent.drainer = drainer.getClass().getSimpleName();
+        newEvent.idleCount = 1;
+        newEvent.begin();
+
+        return newEvent;
+    }
+
+    /**
+     * Ends and commits the given event, if there is any and it passes the threshold.
+     */
+    public static void onCompleted ( final DrainerIdleEvent event, final boolean satisfied )
+    {
+        if ( event != null )
+        {
+            event.end();
+            if ( event.shouldCommit() )
+            {
+                event.satisfied = satisfied;
+                event.commit();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,180 @@
+package cs.bilkent.joker.engine.jfr;
+
+import cs.bilkent.joker.engine.adaptation.AdaptationAction;
+import cs.bilkent.joker.engine.pipeline.PipelineReplicaId;
+import cs.bilkent.joker.operator.impl.TuplesImpl;
+
+/**
+ * Entry point of the engine to its flight recorder events. The event classes extend {@code jdk.jfr.Event}, which is not present in the
+ * Java 8 runtimes older than 8u272 and in the runtimes without JFR. Therefore, the engine classes refer only to this class and keep the
+ * events as opaque objects. The event classes are loaded only if {@code jdk.jfr} is present, and the methods of this class do nothing
+ * and return {@code null} otherwise.
+ */
+public final class FlightRecorderEvents
+{
+
+    private static final boolean ENABLED = isFlightRecorderPresent();
+
+
+    private FlightRecorderEvents ()
+    {
+    }
+
+    /**
+     * Returns true if the {@code jdk.jfr} API is present in the runtime, so that the events are recorded
+     */
+    public static boolean isEnabled ()
+    {
+        return ENABLED;
+    }
+
+    public static Object onBackpressureIdle ( final Object event, final String operatorId, final int portIndex )
+    {
+        return ENABLED ? BackpressureWaitEvent.onIdle( (BackpressureWaitEvent) event, operatorId, portIndex ) : null;
+    }
+
+    public static void onBackpressureCompleted ( final Object event )
+    {
+        if ( event != null )
+        {
+            BackpressureWaitEvent.onCompleted( (BackpressureWaitEvent) event );
+        }
+    }
+
+    public static Object onDrainerIdle ( final Object event, final Object drainer )
+    {
+        return ENABLED ? DrainerIdleEvent.onIdle( (DrainerIdleEvent) event, drainer ) : null;
+    }
+
+    public static void onDrainerCompleted ( final Object event, final boolean satisfied )
+    {
+        if ( event != null )
+        {
+            DrainerIdleEvent.onCompleted( (DrainerIdleEvent) event, satisfied );
+        }
+    }
+
+    public static Object beginPipelineReplicaInvocation ()
+    {
+        if ( !ENABLED )
+        {
+            return null;
+        }
+
+        final PipelineReplicaInvocationEvent event = new PipelineReplicaInvocationEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void commitPipelineReplicaInvocation ( final Object e,
+                                                         final PipelineReplicaId pipelineReplicaId,
+                                                         final boolean invoked,
+                                                         final TuplesImpl tuples )
+    {
+        if ( e == null )
+        {
+            return;
+        }
+
+        final PipelineReplicaInvocationEvent event = (PipelineReplicaInvocationEvent) e;
+        event.end();
+        if ( event.shouldCommit() )
+        {
+            event.pipelineReplicaId = pipelineReplicaId.toString();
+            event.invoked = invoked;
+            if ( tuples != null )
+            {
+                for ( int i = 0; i < tuples.getPortCount(); i++ )
+                {
+                    event.outputTupleCount += tuples.getTupleCount( i );
+                }
+            }
+            event.commit();
+        }
+    }
+
+    public static Object beginPipelineReplicaRunnerCommand ()
+    {
+        if ( !ENABLED )
+        {
+            return null;
+        }
+
+        final PipelineReplicaRunnerCommandEvent event = new PipelineReplicaRunnerCommandEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void setPipelineReplicaRunnerCommand ( final Object e, final String command, final long pendingTime )
+    {
+        if ( e != null )
+        {
+            final PipelineReplicaRunnerCommandEvent event = (PipelineReplicaRunnerCommandEvent) e;
+            event.command = command;
+            event.pendingTime = pendingTime;
+        }
+    }
+
+    public static void commitPipelineReplicaRunnerCommand ( final Object e, final PipelineReplicaId pipelineReplicaId, final String status )
+    {
+        if ( e == null )
+        {
+            return;
+        }
+
+        final PipelineReplicaRunnerCommandEvent event = (PipelineReplicaRunnerCommandEvent) e;
+        event.end();
+        if ( event.shouldCommit() )
+        {
+            event.pipelineReplicaId = pipelineReplicaId.toString();
+            event.status = status;
+            event.commit();
+        }
+    }
+
+    public static Object beginAdaptationAction ()
+    {
+        if ( !ENABLED )
+        {
+            return null;
+        }
+
+        final AdaptationActionEvent event = new AdaptationActionEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void commitAdaptationAction ( final Object e, final AdaptationAction action, final int flowVersion )
+    {
+        if ( e == null )
+        {
+            return;
+        }
+
+        final AdaptationActionEvent event = (AdaptationActionEvent) e;
+        event.end();
+        if ( event.shouldCommit() )
+        {
+            event.action = action.getClass().getSimpleName();
+            event.regionId = action.getCurrentExecPlan().getRegionId();
+            event.currentExecPlan = action.getCurrentExecPlan().toPlanSummaryString();
+            event.newExecPlan = action.getNewExecPlan().toPlanSummaryString();
+            event.flowVersion = flowVersion;
+            event.commit();
+        }
+    }
+
+    private static boolean isFlightRecorderPresent ()
+    {
+        try
+        {
+            Class.forName( "jdk.jfr.Event", false, FlightRecorderEvents.class.getClassLoader() );
+            return true;
+        }
+        catch ( ClassNotFoundException | LinkageError e )
+        {
+            return false;
+        }
+    }
+
+}
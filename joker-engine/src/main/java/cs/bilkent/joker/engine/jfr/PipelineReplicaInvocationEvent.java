@@ -0,0 +1,34 @@
+package cs.bilkent.joker.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Duration of a single invocation of a pipeline replica, including draining of its queue. Only the invocations which are sampled by the
+ * tick mask of the pipeline replica meter are timed, so the event costs nothing for the other invocations.
+ */
+@Name( "cs.bilkent.joker.PipelineReplicaInvocation" )
+@Label( "Pipeline Replica Invocation" )
+@Description( "Duration of a sampled pipeline replica invocation" )
+@Category( { "Joker", "Pipeline" } )
+@Threshold( "1 ms" )
+@StackTrace( false )
+public class PipelineReplicaInvocationEvent extends Event
+{
+
+    @Label( "Pipeline Replica" )
+    public String pipelineReplicaId;
+
+    @Label( "Invoked" )
+    @Description( "True if any operator of the pipeline replica is invoked" )
+    public boolean invoked;
+
+    @Label( "Output Tuple Count" )
+    public int outputTupleCount;
+
+}
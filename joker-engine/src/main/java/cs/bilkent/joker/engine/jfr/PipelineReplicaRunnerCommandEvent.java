@@ -0,0 +1,37 @@
+package cs.bilkent.joker.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Handling of a pause, resume, refresh or stop command by a pipeline replica runner thread. Duration of the event covers the handling
+ * itself, while the pending time is the time between the command is issued and its handling is started.
+ */
+@Name( "cs.bilkent.joker.PipelineReplicaRunnerCommand" )
+@Label( "Pipeline Replica Runner Command" )
+@Description( "Handling of a command by a pipeline replica runner" )
+@Category( { "Joker", "Pipeline" } )
+@StackTrace( false )
+public class PipelineReplicaRunnerCommandEvent extends Event
+{
+
+    @Label( "Pipeline Replica" )
+    public String pipelineReplicaId;
+
+    @Label( "Command" )
+    public String command;
+
+    @Label( "Status" )
+    @Description( "Status of the runner after the command is handled" )
+    public String status;
+
+    @Label( "Pending Time" )
+    @Timespan( Timespan.NANOSECONDS )
+    public long pendingTime;
+
+}
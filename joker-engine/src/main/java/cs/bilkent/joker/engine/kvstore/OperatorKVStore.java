@@ -1,5 +1,6 @@
 package cs.bilkent.joker.engine.kvstore;
 
+import cs.bilkent.joker.operator.impl.StateEvictor;
 import cs.bilkent.joker.operator.kvstore.KVStore;
 import cs.bilkent.joker.partition.impl.PartitionKey;
 
@@ -11,4 +12,13 @@ public interface OperatorKVStore
 
     KVStore getKVStore ( PartitionKey key );
 
+    /**
+     * Returns the {@link StateEvictor} which evicts states according to the retention policy of the operator, or null if the operator
+     * has no retention policy
+     */
+    default StateEvictor getStateEvictor ()
+    {
+        return null;
+    }
+
 }
@@ -1,6 +1,10 @@
 package cs.bilkent.joker.engine.kvstore;
 
+import java.util.List;
+
+import cs.bilkent.joker.engine.metric.StateEvictionMetrics;
 import cs.bilkent.joker.engine.partition.PartitionDistribution;
+import cs.bilkent.joker.operator.kvstore.StateRetentionPolicy;
 
 public interface OperatorKVStoreManager
 {
@@ -9,7 +13,19 @@ public interface OperatorKVStoreManager
 
     OperatorKVStore getDefaultKVStore ( int regionId, String operatorId );
 
-    OperatorKVStore[] createPartitionedKVStores ( int regionId, String operatorId, PartitionDistribution partitionDistribution );
+    default OperatorKVStore[] createPartitionedKVStores ( int regionId, String operatorId, PartitionDistribution partitionDistribution )
+    {
+        return createPartitionedKVStores( regionId, operatorId, partitionDistribution, null );
+    }
+
+    /**
+     * Creates partitioned kv stores of an operator. If the retention policy is not null, states of the partition keys are evicted
+     * according to the policy.
+     */
+    OperatorKVStore[] createPartitionedKVStores ( int regionId,
+                                                  String operatorId,
+                                                  PartitionDistribution partitionDistribution,
+                                                  StateRetentionPolicy retentionPolicy );
 
     OperatorKVStore[] rebalancePartitionedKVStores ( int regionId,
                                                      String operatorId,
@@ -39,4 +55,10 @@ public interface OperatorKVStoreManager
 
     void releasePartitionedKVStores ( int regionId, String operatorId );
 
+    /**
+     * Returns the evicted and expired key counts of the partitioned operators which have a retention policy. It is called by the metric
+     * collector thread, hence it can be called concurrently with the pipeline replicas accessing the kv stores.
+     */
+    List<StateEvictionMetrics> getStateEvictionMetrics ();
+
 }
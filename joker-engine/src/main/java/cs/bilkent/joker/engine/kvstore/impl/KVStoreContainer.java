@@ -1,25 +1,119 @@
 package cs.bilkent.joker.engine.kvstore.impl;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import javax.annotation.concurrent.NotThreadSafe;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import gnu.trove.map.hash.THashMap;
+import gnu.trove.map.hash.TObjectDoubleHashMap;
+import gnu.trove.map.hash.TObjectLongHashMap;
+
+import cs.bilkent.joker.engine.partition.PartitionUtil;
+import cs.bilkent.joker.engine.spill.SpillFile;
+import cs.bilkent.joker.engine.spill.SpillSegment;
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkState;
+import cs.bilkent.joker.operator.Tuple;
 import cs.bilkent.joker.operator.impl.InMemoryKVStore;
 import cs.bilkent.joker.operator.kvstore.KVStore;
+import cs.bilkent.joker.operator.kvstore.LongLongHashMap;
+import cs.bilkent.joker.operator.kvstore.StateRetentionPolicy;
+import cs.bilkent.joker.operator.utils.Pair;
 import cs.bilkent.joker.partition.impl.PartitionKey;
+import static java.lang.Math.max;
+import static java.util.Collections.singletonList;
 
+/**
+ * Keeps kv stores of the partition keys of a partition. If a spill file is given, the least recently accessed kv stores are moved to
+ * the spill file when the number of kv stores kept on heap exceeds the given limit, and paged in when their keys are accessed again.
+ * A kv store is kept on heap if it contains a non-string key or a value which cannot be encoded.
+ * <p>
+ * Typed states of the partition keys, such as {@code long} values, are not kept in the kv stores. Instead, each typed state is kept in a
+ * primitive map of the partition keys, so that the typed states are updated without boxing and without creating a kv store for each
+ * partition key. Typed states are always kept on heap.
+ * <p>
+ * If a {@link StateRetentionPolicy} is given, access times of the partition keys are tracked. When the number of partition keys exceeds
+ * the limit of the policy, the least recently accessed partition key is evicted immediately. Partition keys which are not accessed within
+ * the time-to-live of the policy are evicted incrementally via {@link #evictExpiredKeys(long, int, BiConsumer)}. States of the evicted
+ * partition keys are collected into a kv store and passed to a consumer.
+ * <p>
+ * A container can be split into multiple containers when the partition count is multiplied, and the split containers can be merged back.
+ * Partition ids of the partition keys are computed from their cached partition hashes, hence kv stores, spilled kv stores and typed
+ * states of the partition keys are moved between the containers without re-hashing the partition keys or paging in the spilled ones.
+ */
 @NotThreadSafe
 public class KVStoreContainer
 {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger( KVStoreContainer.class );
+
+
     private final int partitionId;
 
-    private final Map<PartitionKey, KVStore> kvStores = new HashMap<>();
+    private final Map<PartitionKey, KVStore> kvStores;
+
+    private final SpillFile spillFile;
+
+    private int inMemoryKeyLimit;
+
+    private final Map<PartitionKey, SpillSegment> spilledKVStores = new HashMap<>();
+
+    private int nextSpillCheckKeyCount;
+
+    private final Map<String, TObjectLongHashMap<PartitionKey>> longStates = new THashMap<>();
+
+    private final Map<String, TObjectDoubleHashMap<PartitionKey>> doubleStates = new THashMap<>();
+
+    private final Map<String, Map<PartitionKey, LongLongHashMap>> longLongMapStates = new THashMap<>();
+
+    private final Map<String, Map<PartitionKey, List<Object>>> listStates = new THashMap<>();
+
+    private final PartitionKVStoreView view = new PartitionKVStoreView( this );
+
+    private final StateRetentionPolicy retentionPolicy;
+
+    private final LinkedHashMap<PartitionKey, AccessTime> accessTimes;
+
+    private final List<Pair<PartitionKey, KVStore>> evictedKVStores = new ArrayList<>();
+
+    // written only by the pipeline replica thread owning the container, read by the metric collector thread
+    private volatile long evictedKeyCount;
+
+    private volatile long expiredKeyCount;
 
 
     KVStoreContainer ( final int partitionId )
     {
+        this( partitionId, null, Integer.MAX_VALUE );
+    }
+
+    KVStoreContainer ( final int partitionId, final SpillFile spillFile, final int inMemoryKeyLimit )
+    {
+        this( partitionId, spillFile, inMemoryKeyLimit, null );
+    }
+
+    KVStoreContainer ( final int partitionId,
+                       final SpillFile spillFile,
+                       final int inMemoryKeyLimit,
+                       final StateRetentionPolicy retentionPolicy )
+    {
+        checkArgument( inMemoryKeyLimit > 0, "invalid in-memory key limit %s for partitionId=%s", inMemoryKeyLimit, partitionId );
         this.partitionId = partitionId;
+        this.spillFile = spillFile;
+        this.inMemoryKeyLimit = inMemoryKeyLimit;
+        this.kvStores = spillFile != null ? new LinkedHashMap<>( 16, 0.75f, true ) : new HashMap<>();
+        this.retentionPolicy = retentionPolicy;
+        this.accessTimes = retentionPolicy != null ? new LinkedHashMap<>( 16, 0.75f, true ) : null;
     }
 
     public int getPartitionId ()
@@ -27,14 +121,129 @@ public class KVStoreContainer
         return partitionId;
     }
 
+    /**
+     * Returns number of the partition keys which have a kv store, either on heap or spilled. Partition keys which have only typed states
+     * are not included.
+     */
     public int getKeyCount ()
     {
-        return kvStores.size();
+        return kvStores.size() + spilledKVStores.size();
+    }
+
+    public int getSpilledKeyCount ()
+    {
+        return spilledKVStores.size();
+    }
+
+    public boolean hasRetentionPolicy ()
+    {
+        return retentionPolicy != null;
+    }
+
+    /**
+     * Returns number of the partition keys evicted since the number of partition keys exceeds the limit of the retention policy
+     */
+    public long getEvictedKeyCount ()
+    {
+        return evictedKeyCount;
+    }
+
+    /**
+     * Returns number of the partition keys evicted since they are not accessed within the time-to-live of the retention policy
+     */
+    public long getExpiredKeyCount ()
+    {
+        return expiredKeyCount;
+    }
+
+    /**
+     * Returns the kv store of the given partition key. The returned object is reused for all partition keys of the container, hence it
+     * should not be used after another partition key is accessed.
+     */
+    KVStore getKVStore ( final PartitionKey key )
+    {
+        return getKVStore( key, retentionPolicy != null ? System.currentTimeMillis() : 0 );
+    }
+
+    KVStore getKVStore ( final PartitionKey key, final long now )
+    {
+        if ( accessTimes != null )
+        {
+            touch( key, now );
+        }
+
+        return view.setKey( key );
+    }
+
+    /**
+     * Evicts at most the given number of partition keys which are not accessed within the time-to-live of the retention policy, and passes
+     * their states to the given consumer.
+     *
+     * @return number of the evicted partition keys
+     */
+    int evictExpiredKeys ( final long now, final int maxEvictionCount, final BiConsumer<PartitionKey, KVStore> consumer )
+    {
+        if ( accessTimes == null )
+        {
+            return 0;
+        }
+
+        int evictionCount = 0;
+        if ( retentionPolicy.hasTtl() )
+        {
+            final long ttlMillis = retentionPolicy.getTtlMillis();
+            final Iterator<Entry<PartitionKey, AccessTime>> it = accessTimes.entrySet().iterator();
+            while ( evictionCount < maxEvictionCount && it.hasNext() )
+            {
+                final Entry<PartitionKey, AccessTime> e = it.next();
+                if ( now - e.getValue().millis < ttlMillis )
+                {
+                    break;
+                }
+
+                it.remove();
+                evict( e.getKey() );
+                evictionCount++;
+            }
+
+            expiredKeyCount += evictionCount;
+        }
+
+        drainEvictedKVStores( consumer );
+
+        return evictionCount;
+    }
+
+    /**
+     * Passes states of the partition keys evicted since the last call to the given consumer
+     */
+    void drainEvictedKVStores ( final BiConsumer<PartitionKey, KVStore> consumer )
+    {
+        for ( int i = 0; i < evictedKVStores.size(); i++ )
+        {
+            final Pair<PartitionKey, KVStore> evicted = evictedKVStores.get( i );
+            consumer.accept( evicted._1, evicted._2 );
+        }
+
+        evictedKVStores.clear();
     }
 
     KVStore getOrCreateKVStore ( final PartitionKey key )
     {
-        return kvStores.computeIfAbsent( key, k -> new InMemoryKVStore() );
+        if ( spillFile == null )
+        {
+            return kvStores.computeIfAbsent( key, k -> new InMemoryKVStore() );
+        }
+
+        KVStore kvStore = kvStores.get( key );
+        if ( kvStore == null )
+        {
+            kvStore = pageIn( key );
+            kvStores.put( key, kvStore );
+            spillColdKVStoresIfNeeded( key );
+        }
+
+        return kvStore;
     }
 
     public void clear ()
@@ -42,5 +251,486 @@ public class KVStoreContainer
         kvStores.values().forEach( KVStore::clear );
 
         kvStores.clear();
+
+        if ( spilledKVStores.size() > 0 )
+        {
+            LOGGER.warn( "{} spilled kv stores of partitionId={} are discarded", spilledKVStores.size(), partitionId );
+            spilledKVStores.values().forEach( spillFile::discard );
+            spilledKVStores.clear();
+        }
+
+        longStates.clear();
+        doubleStates.clear();
+        longLongMapStates.clear();
+        listStates.clear();
+
+        if ( accessTimes != null )
+        {
+            accessTimes.clear();
+        }
+        evictedKVStores.clear();
+    }
+
+    /**
+     * Splits this partition into {@code newPartitionCount / currentPartitionCount} partitions. This container keeps the partition keys
+     * which still belong to its partition id, and the other partition keys are moved to the returned containers. The container at index
+     * {@code i} of the returned array has partition id {@code getPartitionId() + i * currentPartitionCount}, and the first element is
+     * this container. The in-memory key limit is split among the containers.
+     */
+    KVStoreContainer[] split ( final int currentPartitionCount, final int newPartitionCount )
+    {
+        checkArgument( partitionId < currentPartitionCount && newPartitionCount % currentPartitionCount == 0,
+                       "cannot split partitionId=%s of %s partitions into %s partitions",
+                       partitionId,
+                       currentPartitionCount,
+                       newPartitionCount );
+
+        final int splitCount = newPartitionCount / currentPartitionCount;
+        inMemoryKeyLimit = max( 1, inMemoryKeyLimit / splitCount );
+        nextSpillCheckKeyCount = 0;
+
+        final KVStoreContainer[] containers = new KVStoreContainer[ splitCount ];
+        containers[ 0 ] = this;
+        for ( int i = 1; i < splitCount; i++ )
+        {
+            containers[ i ] = new KVStoreContainer( partitionId + i * currentPartitionCount, spillFile, inMemoryKeyLimit, retentionPolicy );
+        }
+
+        moveKeys( kvStores, containers, currentPartitionCount, newPartitionCount, c -> c.kvStores );
+        moveKeys( spilledKVStores, containers, currentPartitionCount, newPartitionCount, c -> c.spilledKVStores );
+        for ( Entry<String, TObjectLongHashMap<PartitionKey>> e : longStates.entrySet() )
+        {
+            final TObjectLongHashMap<PartitionKey> states = e.getValue();
+            final String name = e.getKey();
+            for ( PartitionKey key : states.keySet().toArray( new PartitionKey[ 0 ] ) )
+            {
+                final KVStoreContainer container = containers[ getSplitIndex( key, currentPartitionCount, newPartitionCount ) ];
+                if ( container != this )
+                {
+                    container.setLongState( key, name, states.remove( key ) );
+                }
+            }
+        }
+        for ( Entry<String, TObjectDoubleHashMap<PartitionKey>> e : doubleStates.entrySet() )
+        {
+            final TObjectDoubleHashMap<PartitionKey> states = e.getValue();
+            final String name = e.getKey();
+            for ( PartitionKey key : states.keySet().toArray( new PartitionKey[ 0 ] ) )
+            {
+                final KVStoreContainer container = containers[ getSplitIndex( key, currentPartitionCount, newPartitionCount ) ];
+                if ( container != this )
+                {
+                    container.setDoubleState( key, name, states.remove( key ) );
+                }
+            }
+        }
+        for ( Entry<String, Map<PartitionKey, LongLongHashMap>> e : longLongMapStates.entrySet() )
+        {
+            final String name = e.getKey();
+            moveKeys( e.getValue(),
+                      containers,
+                      currentPartitionCount,
+                      newPartitionCount,
+                      c -> c.longLongMapStates.computeIfAbsent( name, n -> new THashMap<>() ) );
+        }
+        for ( Entry<String, Map<PartitionKey, List<Object>>> e : listStates.entrySet() )
+        {
+            final String name = e.getKey();
+            moveKeys( e.getValue(),
+                      containers,
+                      currentPartitionCount,
+                      newPartitionCount,
+                      c -> c.listStates.computeIfAbsent( name, n -> new THashMap<>() ) );
+        }
+        if ( accessTimes != null )
+        {
+            moveKeys( accessTimes, containers, currentPartitionCount, newPartitionCount, c -> c.accessTimes );
+        }
+
+        LOGGER.debug( "partitionId={} is split into {} partitions", partitionId, splitCount );
+
+        return containers;
+    }
+
+    /**
+     * Moves all partition keys of the given container, which is split from the same partition with this container, into this container.
+     * In-memory key limits of the containers are summed up.
+     */
+    void merge ( final KVStoreContainer other )
+    {
+        checkArgument( other != this && other.spillFile == spillFile,
+                       "cannot merge partitionId=%s into partitionId=%s",
+                       other.partitionId,
+                       partitionId );
+
+        inMemoryKeyLimit += other.inMemoryKeyLimit;
+        kvStores.putAll( other.kvStores );
+        spilledKVStores.putAll( other.spilledKVStores );
+        other.longStates.forEach( ( name, states ) -> longStates.computeIfAbsent( name, n -> new TObjectLongHashMap<>() )
+                                                                .putAll( states ) );
+        other.doubleStates.forEach( ( name, states ) -> doubleStates.computeIfAbsent( name, n -> new TObjectDoubleHashMap<>() )
+                                                                    .putAll( states ) );
+        other.longLongMapStates.forEach( ( name, states ) -> longLongMapStates.computeIfAbsent( name, n -> new THashMap<>() )
+                                                                              .putAll( states ) );
+        other.listStates.forEach( ( name, states ) -> listStates.computeIfAbsent( name, n -> new THashMap<>() ).putAll( states ) );
+        if ( accessTimes != null )
+        {
+            accessTimes.putAll( other.accessTimes );
+        }
+        evictedKVStores.addAll( other.evictedKVStores );
+        evictedKeyCount += other.evictedKeyCount;
+        expiredKeyCount += other.expiredKeyCount;
+
+        // the moved kv stores and spill segments are not cleared or discarded
+        other.kvStores.clear();
+        other.spilledKVStores.clear();
+        other.clear();
+
+        LOGGER.debug( "partitionId={} is merged into partitionId={}", other.partitionId, partitionId );
+    }
+
+    long getLongState ( final PartitionKey key, final String name, final long defaultVal )
+    {
+        final TObjectLongHashMap<PartitionKey> states = longStates.get( name );
+        if ( states == null )
+        {
+            return defaultVal;
+        }
+
+        final long value = states.get( key );
+        return ( value != states.getNoEntryValue() || states.containsKey( key ) ) ? value : defaultVal;
+    }
+
+    void setLongState ( final PartitionKey key, final String name, final long value )
+    {
+        longStates.computeIfAbsent( name, n -> new TObjectLongHashMap<>() ).put( key, value );
     }
+
+    long addLongState ( final PartitionKey key, final String name, final long delta )
+    {
+        return longStates.computeIfAbsent( name, n -> new TObjectLongHashMap<>() ).adjustOrPutValue( key, delta, delta );
+    }
+
+    double getDoubleState ( final PartitionKey key, final String name, final double defaultVal )
+    {
+        final TObjectDoubleHashMap<PartitionKey> states = doubleStates.get( name );
+        if ( states == null )
+        {
+            return defaultVal;
+        }
+
+        final double value = states.get( key );
+        return ( value != states.getNoEntryValue() || states.containsKey( key ) ) ? value : defaultVal;
+    }
+
+    void setDoubleState ( final PartitionKey key, final String name, final double value )
+    {
+        doubleStates.computeIfAbsent( name, n -> new TObjectDoubleHashMap<>() ).put( key, value );
+    }
+
+    double addDoubleState ( final PartitionKey key, final String name, final double delta )
+    {
+        return doubleStates.computeIfAbsent( name, n -> new TObjectDoubleHashMap<>() ).adjustOrPutValue( key, delta, delta );
+    }
+
+    LongLongHashMap getLongLongMapState ( final PartitionKey key, final String name, final boolean createIfAbsent )
+    {
+        Map<PartitionKey, LongLongHashMap> states = longLongMapStates.get( name );
+        if ( states == null )
+        {
+            if ( !createIfAbsent )
+            {
+                return null;
+            }
+
+            states = new THashMap<>();
+            longLongMapStates.put( name, states );
+        }
+
+        return createIfAbsent ? states.computeIfAbsent( key, k -> new LongLongHashMap() ) : states.get( key );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    <T> List<T> getListState ( final PartitionKey key, final String name, final boolean createIfAbsent )
+    {
+        Map<PartitionKey, List<Object>> states = listStates.get( name );
+        if ( states == null )
+        {
+            if ( !createIfAbsent )
+            {
+                return null;
+            }
+
+            states = new THashMap<>();
+            listStates.put( name, states );
+        }
+
+        return (List<T>) ( createIfAbsent ? states.computeIfAbsent( key, k -> new ArrayList<>() ) : states.get( key ) );
+    }
+
+    boolean deleteState ( final PartitionKey key, final String name )
+    {
+        boolean deleted = false;
+
+        final TObjectLongHashMap<PartitionKey> longs = longStates.get( name );
+        if ( longs != null && longs.containsKey( key ) )
+        {
+            longs.remove( key );
+            deleted = true;
+        }
+
+        final TObjectDoubleHashMap<PartitionKey> doubles = doubleStates.get( name );
+        if ( doubles != null && doubles.containsKey( key ) )
+        {
+            doubles.remove( key );
+            deleted = true;
+        }
+
+        final Map<PartitionKey, LongLongHashMap> maps = longLongMapStates.get( name );
+        deleted |= maps != null && maps.remove( key ) != null;
+
+        final Map<PartitionKey, List<Object>> lists = listStates.get( name );
+        deleted |= lists != null && lists.remove( key ) != null;
+
+        return deleted;
+    }
+
+    void deleteStates ( final PartitionKey key )
+    {
+        longStates.values().forEach( states -> states.remove( key ) );
+        doubleStates.values().forEach( states -> states.remove( key ) );
+        longLongMapStates.values().forEach( states -> states.remove( key ) );
+        listStates.values().forEach( states -> states.remove( key ) );
+    }
+
+    int getStateCount ( final PartitionKey key )
+    {
+        int count = 0;
+        for ( TObjectLongHashMap<PartitionKey> states : longStates.values() )
+        {
+            count += states.containsKey( key ) ? 1 : 0;
+        }
+        for ( TObjectDoubleHashMap<PartitionKey> states : doubleStates.values() )
+        {
+            count += states.containsKey( key ) ? 1 : 0;
+        }
+        for ( Map<PartitionKey, LongLongHashMap> states : longLongMapStates.values() )
+        {
+            count += states.containsKey( key ) ? 1 : 0;
+        }
+        for ( Map<PartitionKey, List<Object>> states : listStates.values() )
+        {
+            count += states.containsKey( key ) ? 1 : 0;
+        }
+
+        return count;
+    }
+
+    private <V> void moveKeys ( final Map<PartitionKey, V> source,
+                                final KVStoreContainer[] containers,
+                                final int currentPartitionCount,
+                                final int newPartitionCount,
+                                final Function<KVStoreContainer, Map<PartitionKey, V>> targetFunc )
+    {
+        final Iterator<Entry<PartitionKey, V>> it = source.entrySet().iterator();
+        while ( it.hasNext() )
+        {
+            final Entry<PartitionKey, V> e = it.next();
+            final KVStoreContainer container = containers[ getSplitIndex( e.getKey(), currentPartitionCount, newPartitionCount ) ];
+            if ( container != this )
+            {
+                targetFunc.apply( container ).put( e.getKey(), e.getValue() );
+                it.remove();
+            }
+        }
+    }
+
+    private int getSplitIndex ( final PartitionKey key, final int currentPartitionCount, final int newPartitionCount )
+    {
+        return PartitionUtil.getPartitionId( key.partitionHashCode(), newPartitionCount ) / currentPartitionCount;
+    }
+
+    private void touch ( final PartitionKey key, final long now )
+    {
+        final AccessTime accessTime = accessTimes.get( key );
+        if ( accessTime != null )
+        {
+            accessTime.millis = now;
+            return;
+        }
+
+        accessTimes.put( key, new AccessTime( now ) );
+        if ( accessTimes.size() > retentionPolicy.getMaxKeysPerPartition() )
+        {
+            final Iterator<PartitionKey> it = accessTimes.keySet().iterator();
+            final PartitionKey eldest = it.next();
+            it.remove();
+            evict( eldest );
+            evictedKeyCount++;
+        }
+    }
+
+    /**
+     * Collects the kv store and typed states of the given partition key into a kv store to be passed to the consumer of the evictions
+     */
+    private void evict ( final PartitionKey key )
+    {
+        final InMemoryKVStore kvStore;
+        final KVStore inMemory = kvStores.remove( key );
+        if ( inMemory != null )
+        {
+            kvStore = (InMemoryKVStore) inMemory;
+        }
+        else if ( spilledKVStores.containsKey( key ) )
+        {
+            kvStore = (InMemoryKVStore) pageIn( key );
+        }
+        else
+        {
+            kvStore = new InMemoryKVStore();
+        }
+
+        for ( Entry<String, TObjectLongHashMap<PartitionKey>> e : longStates.entrySet() )
+        {
+            if ( e.getValue().containsKey( key ) )
+            {
+                kvStore.setLongState( e.getKey(), e.getValue().remove( key ) );
+            }
+        }
+        for ( Entry<String, TObjectDoubleHashMap<PartitionKey>> e : doubleStates.entrySet() )
+        {
+            if ( e.getValue().containsKey( key ) )
+            {
+                kvStore.setDoubleState( e.getKey(), e.getValue().remove( key ) );
+            }
+        }
+        for ( Entry<String, Map<PartitionKey, LongLongHashMap>> e : longLongMapStates.entrySet() )
+        {
+            final LongLongHashMap map = e.getValue().remove( key );
+            if ( map != null )
+            {
+                final LongLongHashMap evictedMap = kvStore.getLongLongMapState( e.getKey(), true );
+                map.forEach( evictedMap::put );
+            }
+        }
+        for ( Entry<String, Map<PartitionKey, List<Object>>> e : listStates.entrySet() )
+        {
+            final List<Object> list = e.getValue().remove( key );
+            if ( list != null )
+            {
+                kvStore.getListState( e.getKey(), true ).addAll( list );
+            }
+        }
+
+        if ( kvStore.size() > 0 )
+        {
+            evictedKVStores.add( Pair.of( key, kvStore ) );
+        }
+    }
+
+    private KVStore pageIn ( final PartitionKey key )
+    {
+        final InMemoryKVStore kvStore = new InMemoryKVStore();
+        final SpillSegment segment = spilledKVStores.remove( key );
+        if ( segment != null )
+        {
+            final List<Tuple> tuples = spillFile.pageIn( segment );
+            checkState( tuples.size() == 1, "invalid spilled kv store of key=%s partitionId=%s", key, partitionId );
+            tuples.get( 0 ).sinkTo( kvStore::set );
+        }
+
+        return kvStore;
+    }
+
+    /**
+     * Spills the least recently accessed kv stores until a quarter of the in-memory key limit is freed. If not enough kv stores can be
+     * spilled, the next attempt is made after a quarter of the limit more keys are accessed, so that kv stores are not scanned on each
+     * access. The kv store of the accessed partition key is not spilled, since it is returned to the caller.
+     */
+    private void spillColdKVStoresIfNeeded ( final PartitionKey accessedKey )
+    {
+        final int keyCount = kvStores.size();
+        if ( keyCount <= inMemoryKeyLimit || keyCount < nextSpillCheckKeyCount )
+        {
+            return;
+        }
+
+        final int targetKeyCount = inMemoryKeyLimit - inMemoryKeyLimit / 4;
+        final Iterator<Entry<PartitionKey, KVStore>> it = kvStores.entrySet().iterator();
+        while ( kvStores.size() > targetKeyCount && it.hasNext() )
+        {
+            final Entry<PartitionKey, KVStore> e = it.next();
+            if ( !accessedKey.equals( e.getKey() ) && spill( e.getKey(), e.getValue() ) )
+            {
+                it.remove();
+            }
+        }
+
+        nextSpillCheckKeyCount = kvStores.size() + max( 1, inMemoryKeyLimit / 4 );
+
+        LOGGER.debug( "{} kv stores of partitionId={} are spilled. in-memory key count: {} spilled key count: {}",
+                      ( keyCount - kvStores.size() ),
+                      partitionId,
+                      kvStores.size(),
+                      spilledKVStores.size() );
+    }
+
+    private boolean spill ( final PartitionKey key, final KVStore kvStore )
+    {
+        if ( kvStore.size() == 0 )
+        {
+            return true;
+        }
+        else if ( ( (InMemoryKVStore) kvStore ).hasTypedStates() )
+        {
+            return false;
+        }
+
+        final Tuple tuple = toTuple( (InMemoryKVStore) kvStore );
+        if ( tuple == null )
+        {
+            return false;
+        }
+
+        final SpillSegment segment = spillFile.write( singletonList( tuple ) );
+        if ( segment == null )
+        {
+            return false;
+        }
+
+        spilledKVStores.put( key, segment );
+        return true;
+    }
+
+    private static Tuple toTuple ( final InMemoryKVStore kvStore )
+    {
+        final Tuple tuple = new Tuple();
+        final int[] nonStringKeyCount = new int[ 1 ];
+        kvStore.sinkTo( ( key, value ) -> {
+            if ( key instanceof String )
+            {
+                tuple.set( (String) key, value );
+            }
+            else
+            {
+                nonStringKeyCount[ 0 ]++;
+            }
+        } );
+
+        return nonStringKeyCount[ 0 ] == 0 ? tuple : null;
+    }
+
+
+    private static final class AccessTime
+    {
+
+        private long millis;
+
+        AccessTime ( final long millis )
+        {
+            this.millis = millis;
+        }
+
+    }
+
 }
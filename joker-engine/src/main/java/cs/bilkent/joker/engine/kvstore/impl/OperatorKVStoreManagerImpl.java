@@ -4,7 +4,10 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.concurrent.NotThreadSafe;
+import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.slf4j.Logger;
@@ -12,12 +15,18 @@ import org.slf4j.LoggerFactory;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import cs.bilkent.joker.engine.config.JokerConfig;
+import cs.bilkent.joker.engine.config.SpillConfig;
 import cs.bilkent.joker.engine.kvstore.OperatorKVStore;
 import cs.bilkent.joker.engine.kvstore.OperatorKVStoreManager;
+import cs.bilkent.joker.engine.metric.StateEvictionMetrics;
 import cs.bilkent.joker.engine.partition.PartitionDistribution;
+import cs.bilkent.joker.engine.spill.SpillFile;
 import cs.bilkent.joker.operator.impl.InMemoryKVStore;
 import cs.bilkent.joker.operator.kvstore.KVStore;
+import cs.bilkent.joker.operator.kvstore.StateRetentionPolicy;
 import cs.bilkent.joker.operator.utils.Pair;
+import static java.lang.Math.max;
 import static java.util.Arrays.copyOf;
 
 @Singleton
@@ -32,7 +41,18 @@ public class OperatorKVStoreManagerImpl implements OperatorKVStoreManager
 
     private final Map<Pair<Integer, String>, PartitionedOperatorKVStore[]> partitionedOperatorKVStores = new HashMap<>();
 
-    private final Map<Pair<Integer, String>, KVStoreContainer[]> kvStoreContainersByOperatorId = new HashMap<>();
+    // also read by the metric collector thread for the state eviction metrics
+    private final Map<Pair<Integer, String>, KVStoreContainer[]> kvStoreContainersByOperatorId = new ConcurrentHashMap<>();
+
+    private final Map<Pair<Integer, String>, SpillFile> spillFilesByOperatorId = new HashMap<>();
+
+    private final SpillConfig spillConfig;
+
+    @Inject
+    public OperatorKVStoreManagerImpl ( final JokerConfig jokerConfig )
+    {
+        this.spillConfig = jokerConfig.getSpillConfig();
+    }
 
     @Override
     public OperatorKVStore createDefaultKVStore ( final int regionId, final String operatorId )
@@ -61,7 +81,8 @@ public class OperatorKVStoreManagerImpl implements OperatorKVStoreManager
     @Override
     public OperatorKVStore[] createPartitionedKVStores ( final int regionId,
                                                          final String operatorId,
-                                                         final PartitionDistribution partitionDistribution )
+                                                         final PartitionDistribution partitionDistribution,
+                                                         final StateRetentionPolicy retentionPolicy )
     {
         checkArgument( regionId >= 0, "invalid regionId %s", regionId );
         checkArgument( operatorId != null, "null operatorId for regionId %s", regionId );
@@ -77,9 +98,22 @@ public class OperatorKVStoreManagerImpl implements OperatorKVStoreManager
 
         final int partitionCount = partitionDistribution.getPartitionCount();
         final KVStoreContainer[] containers = new KVStoreContainer[ partitionCount ];
-        for ( int i = 0; i < partitionCount; i++ )
+        if ( spillConfig.isSpillEnabled() )
         {
-            containers[ i ] = new KVStoreContainer( i );
+            final SpillFile spillFile = new SpillFile( spillConfig.getSpillDir(), operatorId + "-state" );
+            final int inMemoryKeyLimit = max( 1, ( spillConfig.getPartitionedStateKeyLimit() + partitionCount - 1 ) / partitionCount );
+            for ( int i = 0; i < partitionCount; i++ )
+            {
+                containers[ i ] = new KVStoreContainer( i, spillFile, inMemoryKeyLimit, retentionPolicy );
+            }
+            spillFilesByOperatorId.put( key, spillFile );
+        }
+        else
+        {
+            for ( int i = 0; i < partitionCount; i++ )
+            {
+                containers[ i ] = new KVStoreContainer( i, null, Integer.MAX_VALUE, retentionPolicy );
+            }
         }
         kvStoreContainersByOperatorId.put( key, containers );
 
@@ -87,7 +121,11 @@ public class OperatorKVStoreManagerImpl implements OperatorKVStoreManager
         final PartitionedOperatorKVStore[] operatorKVStores = new PartitionedOperatorKVStore[ partitionDistribution.getReplicaCount() ];
         for ( int replicaIndex = 0; replicaIndex < partitionDistribution.getReplicaCount(); replicaIndex++ )
         {
-            operatorKVStores[ replicaIndex ] = new PartitionedOperatorKVStore( operatorId, replicaIndex, containers, partitions );
+            operatorKVStores[ replicaIndex ] = new PartitionedOperatorKVStore( operatorId,
+                                                                               replicaIndex,
+                                                                               containers,
+                                                                               partitions,
+                                                                               retentionPolicy );
         }
 
         partitionedOperatorKVStores.put( key, operatorKVStores );
@@ -106,11 +144,28 @@ public class OperatorKVStoreManagerImpl implements OperatorKVStoreManager
         PartitionedOperatorKVStore[] kvStores = partitionedOperatorKVStores.get( key );
         checkState( kvStores != null, "partitioned kv stores do not exist for regionId=%s operatorId=%s", regionId, operatorId );
 
-        final Map<Integer, KVStoreContainer> migratingPartitions = getMigratingPartitions( currentPartitionDistribution,
-                                                                                           newPartitionDistribution,
+        // partitions are split before the migrations and merged after the migrations
+        // so that the migrations are performed between distributions with the same partition count
+        PartitionDistribution fromPartitionDistribution = currentPartitionDistribution;
+        if ( newPartitionDistribution.getPartitionCount() > currentPartitionDistribution.getPartitionCount() )
+        {
+            fromPartitionDistribution = currentPartitionDistribution.split( newPartitionDistribution.getPartitionCount() );
+            splitPartitions( key, kvStores, fromPartitionDistribution );
+        }
+
+        final int partitionCount = fromPartitionDistribution.getPartitionCount();
+        final PartitionDistribution toPartitionDistribution = newPartitionDistribution.split( partitionCount );
+
+        final Map<Integer, KVStoreContainer> migratingPartitions = getMigratingPartitions( fromPartitionDistribution,
+                                                                                           toPartitionDistribution,
                                                                                            kvStores );
 
-        kvStores = migratePartitions( currentPartitionDistribution, newPartitionDistribution, kvStores, migratingPartitions );
+        kvStores = migratePartitions( fromPartitionDistribution, toPartitionDistribution, kvStores, migratingPartitions );
+
+        if ( newPartitionDistribution.getPartitionCount() < toPartitionDistribution.getPartitionCount() )
+        {
+            mergePartitions( key, kvStores, newPartitionDistribution );
+        }
 
         partitionedOperatorKVStores.put( key, kvStores );
         LOGGER.debug( "partitioned operator kv stores of regionId={} operatorId={} are rebalanced to {} replicas",
@@ -121,6 +176,55 @@ public class OperatorKVStoreManagerImpl implements OperatorKVStoreManager
         return kvStores;
     }
 
+    private void splitPartitions ( final Pair<Integer, String> key,
+                                   final PartitionedOperatorKVStore[] kvStores,
+                                   final PartitionDistribution splitPartitionDistribution )
+    {
+        final KVStoreContainer[] containers = kvStoreContainersByOperatorId.get( key );
+        final KVStoreContainer[] splitContainers = new KVStoreContainer[ splitPartitionDistribution.getPartitionCount() ];
+        for ( KVStoreContainer container : containers )
+        {
+            for ( KVStoreContainer splitContainer : container.split( containers.length, splitContainers.length ) )
+            {
+                splitContainers[ splitContainer.getPartitionId() ] = splitContainer;
+            }
+        }
+
+        setPartitions( key, kvStores, splitContainers, splitPartitionDistribution );
+    }
+
+    private void mergePartitions ( final Pair<Integer, String> key,
+                                   final PartitionedOperatorKVStore[] kvStores,
+                                   final PartitionDistribution mergedPartitionDistribution )
+    {
+        final KVStoreContainer[] containers = kvStoreContainersByOperatorId.get( key );
+        final KVStoreContainer[] mergedContainers = copyOf( containers, mergedPartitionDistribution.getPartitionCount() );
+        for ( int partitionId = mergedContainers.length; partitionId < containers.length; partitionId++ )
+        {
+            mergedContainers[ partitionId % mergedContainers.length ].merge( containers[ partitionId ] );
+        }
+
+        setPartitions( key, kvStores, mergedContainers, mergedPartitionDistribution );
+    }
+
+    private void setPartitions ( final Pair<Integer, String> key,
+                                 final PartitionedOperatorKVStore[] kvStores,
+                                 final KVStoreContainer[] containers,
+                                 final PartitionDistribution partitionDistribution )
+    {
+        kvStoreContainersByOperatorId.put( key, containers );
+        final int[] partitions = partitionDistribution.getDistribution();
+        for ( PartitionedOperatorKVStore kvStore : kvStores )
+        {
+            kvStore.setPartitions( containers, partitions );
+        }
+
+        LOGGER.debug( "partitioned operator kv stores of regionId={} operatorId={} are repartitioned to {} partitions",
+                      key._1,
+                      key._2,
+                      containers.length );
+    }
+
     private Map<Integer, KVStoreContainer> getMigratingPartitions ( final PartitionDistribution currentPartitionDistribution,
                                                                     final PartitionDistribution newPartitionDistribution,
                                                                     final PartitionedOperatorKVStore[] queues )
@@ -174,7 +278,8 @@ public class OperatorKVStoreManagerImpl implements OperatorKVStoreManager
                 newKVStores[ replicaIndex ] = new PartitionedOperatorKVStore( operatorId,
                                                                               replicaIndex,
                                                                               containers,
-                                                                              newPartitionDistribution.getDistribution() );
+                                                                              newPartitionDistribution.getDistribution(),
+                                                                              kvStores[ 0 ].getRetentionPolicy() );
 
             }
         }
@@ -241,6 +346,31 @@ public class OperatorKVStoreManagerImpl implements OperatorKVStoreManager
         LOGGER.debug( "partitioned kv stores of region {} operator {} are released", regionId, operatorId );
     }
 
+    @Override
+    public List<StateEvictionMetrics> getStateEvictionMetrics ()
+    {
+        final List<StateEvictionMetrics> metrics = new ArrayList<>();
+        for ( Entry<Pair<Integer, String>, KVStoreContainer[]> e : kvStoreContainersByOperatorId.entrySet() )
+        {
+            final KVStoreContainer[] containers = e.getValue();
+            if ( !containers[ 0 ].hasRetentionPolicy() )
+            {
+                continue;
+            }
+
+            long evictedKeyCount = 0, expiredKeyCount = 0;
+            for ( KVStoreContainer container : containers )
+            {
+                evictedKeyCount += container.getEvictedKeyCount();
+                expiredKeyCount += container.getExpiredKeyCount();
+            }
+
+            metrics.add( new StateEvictionMetrics( e.getKey()._2, evictedKeyCount, expiredKeyCount ) );
+        }
+
+        return metrics;
+    }
+
     private void releaseKVStoreContainers ( final int regionId, final String operatorId )
     {
         final Pair<Integer, String> p = Pair.of( regionId, operatorId );
@@ -250,6 +380,12 @@ public class OperatorKVStoreManagerImpl implements OperatorKVStoreManager
         {
             container.clear();
         }
+
+        final SpillFile spillFile = spillFilesByOperatorId.remove( p );
+        if ( spillFile != null )
+        {
+            spillFile.close();
+        }
     }
 
 }
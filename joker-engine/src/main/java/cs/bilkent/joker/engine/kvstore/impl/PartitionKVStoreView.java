@@ -0,0 +1,143 @@
+package cs.bilkent.joker.engine.kvstore.impl;
+
+import java.util.List;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import cs.bilkent.joker.operator.kvstore.KVStore;
+import cs.bilkent.joker.operator.kvstore.LongLongHashMap;
+import cs.bilkent.joker.partition.impl.PartitionKey;
+
+/**
+ * {@link KVStore} of the current partition key of a {@link KVStoreContainer}. A single instance is reused by the container for all
+ * partition keys. Fields are read from and written to the kv store of the partition key, and typed states are read from and written to
+ * the primitive maps of the container, so that an invocation does not allocate an object for them.
+ */
+@NotThreadSafe
+class PartitionKVStoreView implements KVStore
+{
+
+    private final KVStoreContainer container;
+
+    private PartitionKey key;
+
+    PartitionKVStoreView ( final KVStoreContainer container )
+    {
+        this.container = container;
+    }
+
+    PartitionKVStoreView setKey ( final PartitionKey key )
+    {
+        this.key = key;
+        return this;
+    }
+
+    PartitionKey getKey ()
+    {
+        return key;
+    }
+
+    @Override
+    public <T> T get ( final Object field )
+    {
+        return container.getOrCreateKVStore( key ).get( field );
+    }
+
+    @Override
+    public boolean contains ( final Object field )
+    {
+        return container.getOrCreateKVStore( key ).contains( field );
+    }
+
+    @Override
+    public <T> KVStore set ( final Object field, final T value )
+    {
+        container.getOrCreateKVStore( key ).set( field, value );
+        return this;
+    }
+
+    @Override
+    public <T> T remove ( final Object field )
+    {
+        return container.getOrCreateKVStore( key ).remove( field );
+    }
+
+    @Override
+    public boolean delete ( final Object field )
+    {
+        return container.getOrCreateKVStore( key ).delete( field );
+    }
+
+    @Override
+    public void clear ()
+    {
+        container.getOrCreateKVStore( key ).clear();
+        container.deleteStates( key );
+    }
+
+    @Override
+    public int size ()
+    {
+        return container.getOrCreateKVStore( key ).size() + container.getStateCount( key );
+    }
+
+    @Override
+    public long getLongState ( final String name, final long defaultVal )
+    {
+        return container.getLongState( key, name, defaultVal );
+    }
+
+    @Override
+    public void setLongState ( final String name, final long value )
+    {
+        container.setLongState( key, name, value );
+    }
+
+    @Override
+    public long addLongState ( final String name, final long delta )
+    {
+        return container.addLongState( key, name, delta );
+    }
+
+    @Override
+    public double getDoubleState ( final String name, final double defaultVal )
+    {
+        return container.getDoubleState( key, name, defaultVal );
+    }
+
+    @Override
+    public void setDoubleState ( final String name, final double value )
+    {
+        container.setDoubleState( key, name, value );
+    }
+
+    @Override
+    public double addDoubleState ( final String name, final double delta )
+    {
+        return container.addDoubleState( key, name, delta );
+    }
+
+    @Override
+    public LongLongHashMap getLongLongMapState ( final String name, final boolean createIfAbsent )
+    {
+        return container.getLongLongMapState( key, name, createIfAbsent );
+    }
+
+    @Override
+    public <T> List<T> getListState ( final String name, final boolean createIfAbsent )
+    {
+        return container.getListState( key, name, createIfAbsent );
+    }
+
+    @Override
+    public boolean deleteState ( final String name )
+    {
+        return container.deleteState( key, name );
+    }
+
+    @Override
+    public String toString ()
+    {
+        return "PartitionKVStoreView{" + "partitionId=" + container.getPartitionId() + ", key=" + key + '}';
+    }
+
+}
@@ -3,6 +3,7 @@ package cs.bilkent.joker.engine.kvstore.impl;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.BiConsumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,7 +11,9 @@ import org.slf4j.LoggerFactory;
 import cs.bilkent.joker.engine.kvstore.OperatorKVStore;
 import static cs.bilkent.joker.engine.partition.PartitionUtil.getPartitionId;
 import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+import cs.bilkent.joker.operator.impl.StateEvictor;
 import cs.bilkent.joker.operator.kvstore.KVStore;
+import cs.bilkent.joker.operator.kvstore.StateRetentionPolicy;
 import cs.bilkent.joker.partition.impl.PartitionKey;
 
 public class PartitionedOperatorKVStore implements OperatorKVStore
@@ -23,26 +26,37 @@ public class PartitionedOperatorKVStore implements OperatorKVStore
 
     private final int replicaIndex;
 
-    private final KVStoreContainer[] kvStoreContainers;
+    private KVStoreContainer[] kvStoreContainers;
 
-    private final int partitionCount;
+    private int partitionCount;
+
+    private final StateRetentionPolicy retentionPolicy;
+
+    private final StateEvictor stateEvictor;
+
+    private long now = System.currentTimeMillis();
+
+    private int nextEvictionPartitionId;
 
     PartitionedOperatorKVStore ( final String operatorId,
                                  final int replicaIndex,
                                  final KVStoreContainer[] kvStoreContainers,
                                  final int[] partitions )
+    {
+        this( operatorId, replicaIndex, kvStoreContainers, partitions, null );
+    }
+
+    PartitionedOperatorKVStore ( final String operatorId,
+                                 final int replicaIndex,
+                                 final KVStoreContainer[] kvStoreContainers,
+                                 final int[] partitions,
+                                 final StateRetentionPolicy retentionPolicy )
     {
         this.operatorId = operatorId;
+        this.retentionPolicy = retentionPolicy;
+        this.stateEvictor = retentionPolicy != null ? this::evictStates : null;
         this.replicaIndex = replicaIndex;
-        this.kvStoreContainers = Arrays.copyOf( kvStoreContainers, kvStoreContainers.length );
-        this.partitionCount = partitions.length;
-        for ( int partitionId = 0; partitionId < partitionCount; partitionId++ )
-        {
-            if ( partitions[ partitionId ] != replicaIndex )
-            {
-                this.kvStoreContainers[ partitionId ] = null;
-            }
-        }
+        setPartitions( kvStoreContainers, partitions );
     }
 
     @Override
@@ -62,7 +76,78 @@ public class PartitionedOperatorKVStore implements OperatorKVStore
         final int partitionHash = key.partitionHashCode();
         final int partitionId = getPartitionId( partitionHash, partitionCount );
         final KVStoreContainer container = kvStoreContainers[ partitionId ];
-        return container.getOrCreateKVStore( key );
+        return container.getKVStore( key, now );
+    }
+
+    @Override
+    public StateEvictor getStateEvictor ()
+    {
+        return stateEvictor;
+    }
+
+    StateRetentionPolicy getRetentionPolicy ()
+    {
+        return retentionPolicy;
+    }
+
+    /**
+     * Passes states of the partition keys evicted due to the key limit of the retention policy to the given consumer, and evicts expired
+     * partition keys of the acquired partitions, starting from the partition where the previous call left off, until the eviction limit
+     * of the retention policy is reached. It also updates the time used for tracking access times of the partition keys, hence access
+     * times have the precision of an invocation.
+     */
+    void evictStates ( final BiConsumer<PartitionKey, KVStore> consumer )
+    {
+        now = System.currentTimeMillis();
+        for ( KVStoreContainer container : kvStoreContainers )
+        {
+            if ( container != null )
+            {
+                container.drainEvictedKVStores( consumer );
+            }
+        }
+
+        int remaining = retentionPolicy.getMaxEvictionsPerInvocation();
+        for ( int i = 0; i < partitionCount && remaining > 0; i++ )
+        {
+            final KVStoreContainer container = kvStoreContainers[ nextEvictionPartitionId ];
+            if ( container != null )
+            {
+                remaining -= container.evictExpiredKeys( now, remaining, consumer );
+                if ( remaining == 0 )
+                {
+                    break;
+                }
+            }
+
+            nextEvictionPartitionId = ( nextEvictionPartitionId + 1 ) % partitionCount;
+        }
+    }
+
+    /**
+     * Replaces the partitions with the given ones after the partitions are split or merged. The replica keeps the given containers of
+     * the partitions which are owned by itself in the given distribution.
+     */
+    void setPartitions ( final KVStoreContainer[] kvStoreContainers, final int[] partitions )
+    {
+        checkArgument( kvStoreContainers.length == partitions.length,
+                       "kv store container count: %s and partition count: %s are different for operatorId=%s replicaIndex=%s",
+                       kvStoreContainers.length,
+                       partitions.length,
+                       operatorId,
+                       replicaIndex );
+
+        this.kvStoreContainers = Arrays.copyOf( kvStoreContainers, kvStoreContainers.length );
+        this.partitionCount = partitions.length;
+        for ( int partitionId = 0; partitionId < partitionCount; partitionId++ )
+        {
+            if ( partitions[ partitionId ] != replicaIndex )
+            {
+                this.kvStoreContainers[ partitionId ] = null;
+            }
+        }
+
+        this.nextEvictionPartitionId = 0;
     }
 
     void acquirePartitions ( final List<KVStoreContainer> partitions )
@@ -21,13 +21,17 @@ public class FlowMetrics
 
     private final Map<Pair<String, Integer>, LatencyMetricsHistory> latencyMetricsHistories;
 
+    private final Map<String, StateEvictionMetrics> stateEvictionMetrics;
+
     public FlowMetrics ( final int period,
                          final Map<PipelineId, PipelineMetricsHistory> pipelineMetricsHistories,
-                         final Map<Pair<String, Integer>, LatencyMetricsHistory> latencyMetricsHistories )
+                         final Map<Pair<String, Integer>, LatencyMetricsHistory> latencyMetricsHistories,
+                         final Map<String, StateEvictionMetrics> stateEvictionMetrics )
     {
         this.period = period;
         this.pipelineMetricsHistories = new TreeMap<>( pipelineMetricsHistories );
         this.latencyMetricsHistories = new HashMap<>( latencyMetricsHistories );
+        this.stateEvictionMetrics = new TreeMap<>( stateEvictionMetrics );
     }
 
     public int getPeriod ()
@@ -71,10 +75,23 @@ public class FlowMetrics
         return Collections.unmodifiableCollection( latencyMetricsHistories.values() );
     }
 
+    /**
+     * Returns the state eviction metrics of the given operator, or null if the operator has no state retention policy
+     */
+    public StateEvictionMetrics getStateEvictionMetrics ( final String operatorId )
+    {
+        return stateEvictionMetrics.get( operatorId );
+    }
+
+    public Collection<StateEvictionMetrics> getStateEvictionMetrics ()
+    {
+        return Collections.unmodifiableCollection( stateEvictionMetrics.values() );
+    }
+
     @Override
     public String toString ()
     {
         return "FlowMetrics{" + "period=" + period + ", pipelineMetricsHistories=" + pipelineMetricsHistories + ", latencyMetricsHistories="
-               + latencyMetricsHistories + '}';
+               + latencyMetricsHistories + ", stateEvictionMetrics=" + stateEvictionMetrics + '}';
     }
 }
@@ -9,9 +9,11 @@ import java.util.List;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import cs.bilkent.joker.engine.flow.PipelineId;
+import cs.bilkent.joker.engine.pipeline.OperatorReplica;
 import cs.bilkent.joker.engine.pipeline.PipelineReplicaId;
 import cs.bilkent.joker.operator.OperatorDef;
 import static java.util.Arrays.copyOf;
+import static java.util.Arrays.stream;
 
 public class PipelineMeter
 {
@@ -31,11 +33,23 @@ public class PipelineMeter
 
     private final List<String> operatorIds;
 
+    private final OperatorReplica[][] operatorReplicas;
+
     public PipelineMeter ( final PipelineId pipelineId,
                            final OperatorDef[] operatorDefs,
                            final int replicaCount,
                            final long[] threadIds,
                            final PipelineReplicaMeter[] pipelineReplicaMeters )
+    {
+        this( pipelineId, operatorDefs, replicaCount, threadIds, pipelineReplicaMeters, null );
+    }
+
+    public PipelineMeter ( final PipelineId pipelineId,
+                           final OperatorDef[] operatorDefs,
+                           final int replicaCount,
+                           final long[] threadIds,
+                           final PipelineReplicaMeter[] pipelineReplicaMeters,
+                           final OperatorReplica[][] operatorReplicas )
     {
         checkArgument( pipelineId != null );
         checkArgument( replicaCount > 0 );
@@ -53,12 +67,21 @@ public class PipelineMeter
         this.replicaCount = replicaCount;
         this.threadIds = copyOf( threadIds, threadIds.length );
         this.pipelineReplicaMeters = copyOf( pipelineReplicaMeters, pipelineReplicaMeters.length );
+        this.operatorReplicas = operatorReplicas != null ? copyOf( operatorReplicas, operatorReplicas.length ) : null;
         for ( PipelineReplicaMeter replicaMeter : pipelineReplicaMeters )
         {
             checkArgument( replicaMeter.getPipelineReplicaId().pipelineId.equals( pipelineId ) );
             checkArgument( replicaMeter.getHeadOperatorId().equals( operatorDefs[ 0 ].getId() ) );
             checkArgument( replicaMeter.getInputPortCount() == operatorDefs[ 0 ].getInputPortCount() );
         }
+        if ( operatorReplicas != null )
+        {
+            checkArgument( replicaCount == operatorReplicas.length );
+            for ( OperatorReplica[] replicas : operatorReplicas )
+            {
+                checkArgument( stream( replicas ).mapToInt( OperatorReplica::getOperatorCount ).sum() == operatorDefs.length );
+            }
+        }
     }
 
     public PipelineId getPipelineId ()
@@ -128,4 +151,28 @@ public class PipelineMeter
         pipelineReplicaMeter.readInboundThroughput( inboundThroughput );
     }
 
+    /**
+     * Reads number of tuples consumed and produced by each operator of the given pipeline replica.
+     * Arrays are not modified if operator replicas are not given to the pipeline meter.
+     */
+    public void readOperatorThroughputs ( final int replicaIndex, final long[] inboundThroughputs, final long[] outboundThroughputs )
+    {
+        checkArgument( inboundThroughputs.length == getOperatorCount() );
+        checkArgument( outboundThroughputs.length == getOperatorCount() );
+
+        if ( operatorReplicas == null )
+        {
+            return;
+        }
+
+        // happens-before
+        pipelineReplicaMeters[ replicaIndex ].getCurrentlyExecutingComponent();
+        int offset = 0;
+        for ( OperatorReplica operatorReplica : operatorReplicas[ replicaIndex ] )
+        {
+            operatorReplica.readTupleCounts( inboundThroughputs, outboundThroughputs, offset );
+            offset += operatorReplica.getOperatorCount();
+        }
+    }
+
 }
@@ -32,6 +32,10 @@ public class PipelineMetrics
 
     private final double[] pipelineCosts;
 
+    private final long[][] operatorInboundThroughputs;
+
+    private final long[][] operatorOutboundThroughputs;
+
     public PipelineMetrics ( final PipelineId pipelineId,
                              final int flowVersion,
                              final int replicaCount,
@@ -47,6 +51,8 @@ public class PipelineMetrics
         this.inboundThroughputs = new long[ replicaCount ][ inputPortCount ];
         this.operatorCosts = new double[ replicaCount ][ operatorCount ];
         this.pipelineCosts = new double[ replicaCount ];
+        this.operatorInboundThroughputs = new long[ replicaCount ][ operatorCount ];
+        this.operatorOutboundThroughputs = new long[ replicaCount ][ operatorCount ];
     }
 
     PipelineMetrics ( final PipelineId pipelineId,
@@ -57,7 +63,9 @@ public class PipelineMetrics
                       final double[] cpuUtilizationRatios,
                       final long[][] inboundThroughputs,
                       final double[][] operatorCosts,
-                      final double[] pipelineCosts )
+                      final double[] pipelineCosts,
+                      final long[][] operatorInboundThroughputs,
+                      final long[][] operatorOutboundThroughputs )
     {
         this.pipelineId = pipelineId;
         this.flowVersion = flowVersion;
@@ -68,6 +76,8 @@ public class PipelineMetrics
         this.inboundThroughputs = inboundThroughputs;
         this.operatorCosts = operatorCosts;
         this.pipelineCosts = pipelineCosts;
+        this.operatorInboundThroughputs = operatorInboundThroughputs;
+        this.operatorOutboundThroughputs = operatorOutboundThroughputs;
     }
 
     public PipelineId getPipelineId ()
@@ -179,6 +189,53 @@ public class PipelineMetrics
         return sum;
     }
 
+    public long getOperatorInboundThroughput ( final int replicaIndex, final int operatorIndex )
+    {
+        return operatorInboundThroughputs[ replicaIndex ][ operatorIndex ];
+    }
+
+    public long getOperatorOutboundThroughput ( final int replicaIndex, final int operatorIndex )
+    {
+        return operatorOutboundThroughputs[ replicaIndex ][ operatorIndex ];
+    }
+
+    public long getTotalOperatorInboundThroughput ( final int operatorIndex )
+    {
+        long sum = 0;
+        for ( int replicaIndex = 0; replicaIndex < getReplicaCount(); replicaIndex++ )
+        {
+            sum += operatorInboundThroughputs[ replicaIndex ][ operatorIndex ];
+        }
+
+        return sum;
+    }
+
+    public long getTotalOperatorOutboundThroughput ( final int operatorIndex )
+    {
+        long sum = 0;
+        for ( int replicaIndex = 0; replicaIndex < getReplicaCount(); replicaIndex++ )
+        {
+            sum += operatorOutboundThroughputs[ replicaIndex ][ operatorIndex ];
+        }
+
+        return sum;
+    }
+
+    /**
+     * Returns number of tuples produced by the operator per consumed tuple, or {@link Double#NaN} if the operator has not consumed
+     * any tuple.
+     */
+    public double getOperatorSelectivity ( final int operatorIndex )
+    {
+        final long inboundThroughput = getTotalOperatorInboundThroughput( operatorIndex );
+        return inboundThroughput > 0 ? ( (double) getTotalOperatorOutboundThroughput( operatorIndex ) ) / inboundThroughput : NaN;
+    }
+
+    public double[] getOperatorSelectivities ()
+    {
+        return range( 0, operatorCount ).mapToDouble( this::getOperatorSelectivity ).toArray();
+    }
+
     public void visit ( final PipelineMetricsVisitor visitor )
     {
         for ( int replicaIndex = 0; replicaIndex < replicaCount; replicaIndex++ )
@@ -198,7 +255,9 @@ public class PipelineMetrics
     {
         return "PipelineMetrics{" + "pipelineId=" + pipelineId + ", flowVersion=" + flowVersion + ", cpuUtilizationRatios="
                + Arrays.toString( cpuUtilizationRatios ) + ", inboundThroughputs=" + Arrays.deepToString( inboundThroughputs )
-               + ", operatorCosts=" + Arrays.deepToString( operatorCosts ) + ", pipelineCosts=" + Arrays.toString( pipelineCosts ) + '}';
+               + ", operatorCosts=" + Arrays.deepToString( operatorCosts ) + ", pipelineCosts=" + Arrays.toString( pipelineCosts )
+               + ", operatorInboundThroughputs=" + Arrays.deepToString( operatorInboundThroughputs ) + ", operatorOutboundThroughputs="
+               + Arrays.deepToString( operatorOutboundThroughputs ) + '}';
     }
 
     public interface PipelineMetricsVisitor
@@ -263,6 +322,26 @@ public class PipelineMetrics
             return this;
         }
 
+        public PipelineMetricsBuilder setOperatorInboundThroughput ( final int replicaIndex,
+                                                                     final int operatorIndex,
+                                                                     final long throughput )
+        {
+            checkArgument( building );
+            snapshot.operatorInboundThroughputs[ replicaIndex ][ operatorIndex ] = throughput;
+
+            return this;
+        }
+
+        public PipelineMetricsBuilder setOperatorOutboundThroughput ( final int replicaIndex,
+                                                                      final int operatorIndex,
+                                                                      final long throughput )
+        {
+            checkArgument( building );
+            snapshot.operatorOutboundThroughputs[ replicaIndex ][ operatorIndex ] = throughput;
+
+            return this;
+        }
+
         public PipelineMetrics build ()
         {
             checkArgument( building );
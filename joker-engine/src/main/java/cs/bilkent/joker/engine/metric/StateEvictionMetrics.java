@@ -0,0 +1,51 @@
+package cs.bilkent.joker.engine.metric;
+
+/**
+ * Numbers of the partition keys of a {@link cs.bilkent.joker.operator.spec.OperatorType#PARTITIONED_STATEFUL} operator which are
+ * removed by its {@link cs.bilkent.joker.operator.kvstore.StateRetentionPolicy}. Counts are cumulative since the operator is initialized.
+ */
+public class StateEvictionMetrics
+{
+
+    private final String operatorId;
+
+    private final long evictedKeyCount;
+
+    private final long expiredKeyCount;
+
+    public StateEvictionMetrics ( final String operatorId, final long evictedKeyCount, final long expiredKeyCount )
+    {
+        this.operatorId = operatorId;
+        this.evictedKeyCount = evictedKeyCount;
+        this.expiredKeyCount = expiredKeyCount;
+    }
+
+    public String getOperatorId ()
+    {
+        return operatorId;
+    }
+
+    /**
+     * Returns number of the partition keys evicted since the number of partition keys exceeds the limit of the retention policy
+     */
+    public long getEvictedKeyCount ()
+    {
+        return evictedKeyCount;
+    }
+
+    /**
+     * Returns number of the partition keys evicted since they are not accessed within the time-to-live of the retention policy
+     */
+    public long getExpiredKeyCount ()
+    {
+        return expiredKeyCount;
+    }
+
+    @Override
+    public String toString ()
+    {
+        return "StateEvictionMetrics{" + "operatorId='" + operatorId + '\'' + ", evictedKeyCount=" + evictedKeyCount + ", expiredKeyCount="
+               + expiredKeyCount + '}';
+    }
+
+}
@@ -13,12 +13,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.LockSupport;
@@ -41,9 +43,11 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import static com.google.common.base.Preconditions.checkState;
 import cs.bilkent.joker.engine.config.JokerConfig;
 import static cs.bilkent.joker.engine.config.JokerConfig.JOKER_THREAD_GROUP_NAME;
+import static cs.bilkent.joker.engine.config.JokerConfig.METRICS_SCHEDULER_NAME;
 import cs.bilkent.joker.engine.config.MetricManagerConfig;
 import cs.bilkent.joker.engine.exception.JokerException;
 import cs.bilkent.joker.engine.flow.PipelineId;
+import cs.bilkent.joker.engine.kvstore.OperatorKVStoreManager;
 import cs.bilkent.joker.engine.metric.FlowMetrics;
 import cs.bilkent.joker.engine.metric.LatencyMeter;
 import cs.bilkent.joker.engine.metric.LatencyMetrics;
@@ -54,6 +58,7 @@ import cs.bilkent.joker.engine.metric.PipelineMeter;
 import cs.bilkent.joker.engine.metric.PipelineMetrics;
 import cs.bilkent.joker.engine.metric.PipelineMetrics.PipelineMetricsVisitor;
 import cs.bilkent.joker.engine.metric.PipelineMetricsHistory;
+import cs.bilkent.joker.engine.metric.StateEvictionMetrics;
 import cs.bilkent.joker.flow.FlowDef;
 import cs.bilkent.joker.operator.OperatorDef;
 import cs.bilkent.joker.operator.utils.Pair;
@@ -90,8 +95,14 @@ public class MetricManagerImpl implements MetricManager
 
     private final OperatingSystemMXBean osMXBean;
 
+    private final OperatorKVStoreManager operatorKVStoreManager;
+
     private final ScheduledExecutorService scheduler;
 
+    private final boolean sharedScheduler;
+
+    private final List<ScheduledFuture<?>> scheduledTasks = new ArrayList<>();
+
     private final int numberOfCores;
 
     private final Object monitor = new Object();
@@ -116,35 +127,67 @@ public class MetricManagerImpl implements MetricManager
 
     private volatile boolean pause;
 
+    private volatile boolean shutdown;
+
+    public MetricManagerImpl ( final JokerConfig jokerConfig,
+                               final MetricRegistry pipelineMetricRegistry,
+                               final ThreadMXBean threadMXBean,
+                               final RuntimeMXBean runtimeMXBean,
+                               final OperatingSystemMXBean osMXBean,
+                               final OperatorKVStoreManager operatorKVStoreManager,
+                               final ThreadGroup threadGroup )
+    {
+        this( jokerConfig,
+              pipelineMetricRegistry,
+              threadMXBean,
+              runtimeMXBean,
+              osMXBean,
+              operatorKVStoreManager,
+              threadGroup,
+              Optional.empty() );
+    }
+
+    /**
+     * If a scheduler is given with {@code sharedScheduler}, metric collection tasks are scheduled on it and it is not shut down
+     * by this instance, since the scheduler is shared by multiple flows.
+     */
     @Inject
     public MetricManagerImpl ( final JokerConfig jokerConfig,
                                final MetricRegistry pipelineMetricRegistry,
                                final ThreadMXBean threadMXBean,
                                final RuntimeMXBean runtimeMXBean,
                                final OperatingSystemMXBean osMXBean,
-                               @Named( JOKER_THREAD_GROUP_NAME ) final ThreadGroup threadGroup )
+                               final OperatorKVStoreManager operatorKVStoreManager,
+                               @Named( JOKER_THREAD_GROUP_NAME ) final ThreadGroup threadGroup,
+                               @Named( METRICS_SCHEDULER_NAME ) final Optional<ScheduledExecutorService> sharedScheduler )
     {
         this.metricManagerConfig = jokerConfig.getMetricManagerConfig();
         this.pipelineMetricRegistry = pipelineMetricRegistry;
         this.threadMXBean = threadMXBean;
         this.runtimeMXBean = runtimeMXBean;
         this.osMXBean = osMXBean;
+        this.operatorKVStoreManager = operatorKVStoreManager;
         this.numberOfCores = osMXBean.getAvailableProcessors();
-        final ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat( threadGroup.getName() + "_MetricsCollector-%d" )
-                                                                      .build();
-        this.scheduler = newScheduledThreadPool( METRICS_SCHEDULER_CORE_POOL_SIZE, threadFactory );
-        this.scheduler.scheduleWithFixedDelay( new CollectPipelineMetrics(),
-                                               metricManagerConfig.getPipelineMetricsScanningPeriodInMillis(),
-                                               metricManagerConfig.getPipelineMetricsScanningPeriodInMillis(),
-                                               MILLISECONDS );
-        this.scheduler.scheduleAtFixedRate( new SamplePipelines(),
-                                            metricManagerConfig.getOperatorInvocationSamplingPeriodInMicros(),
-                                            metricManagerConfig.getOperatorInvocationSamplingPeriodInMicros(),
-                                            MICROSECONDS );
+        this.sharedScheduler = sharedScheduler.isPresent();
+        this.scheduler = sharedScheduler.orElseGet( () -> newScheduledThreadPool( METRICS_SCHEDULER_CORE_POOL_SIZE,
+                                                                                  createThreadFactory( threadGroup ) ) );
+        this.scheduledTasks.add( scheduler.scheduleWithFixedDelay( new CollectPipelineMetrics(),
+                                                                   metricManagerConfig.getPipelineMetricsScanningPeriodInMillis(),
+                                                                   metricManagerConfig.getPipelineMetricsScanningPeriodInMillis(),
+                                                                   MILLISECONDS ) );
+        this.scheduledTasks.add( scheduler.scheduleAtFixedRate( new SamplePipelines(),
+                                                                metricManagerConfig.getOperatorInvocationSamplingPeriodInMicros(),
+                                                                metricManagerConfig.getOperatorInvocationSamplingPeriodInMicros(),
+                                                                MICROSECONDS ) );
         this.scanOperatorsHistogram = pipelineMetricRegistry.histogram( "scanOperators" );
         this.scanMetricsHistogram = pipelineMetricRegistry.histogram( "scanMetrics" );
     }
 
+    private static ThreadFactory createThreadFactory ( final ThreadGroup threadGroup )
+    {
+        return new ThreadFactoryBuilder().setNameFormat( threadGroup.getName() + "_MetricsCollector-%d" ).build();
+    }
+
     @Override
     public void start ( final int flowVersion, final List<PipelineMeter> pipelineMeters )
     {
@@ -180,7 +223,7 @@ public class MetricManagerImpl implements MetricManager
     {
         synchronized ( monitor )
         {
-            checkState( !scheduler.isShutdown() );
+            checkState( !shutdown );
 
             final Supplier<Histogram> histogramCtor = () -> {
                 final long period = metricManagerConfig.getPipelineMetricsScanningPeriodInMillis();
@@ -210,12 +253,20 @@ public class MetricManagerImpl implements MetricManager
     {
         synchronized ( monitor )
         {
-            if ( scheduler.isShutdown() )
+            if ( shutdown )
             {
                 return;
             }
 
             call( new ShutdownTasks(), "shutting down" );
+            shutdown = true;
+            scheduledTasks.forEach( task -> task.cancel( false ) );
+            if ( sharedScheduler )
+            {
+                LOGGER.info( "Shutdown completed" );
+                return;
+            }
+
             scheduler.shutdown();
             try
             {
@@ -240,6 +291,11 @@ public class MetricManagerImpl implements MetricManager
     {
         synchronized ( monitor )
         {
+            if ( shutdown )
+            {
+                throw new JokerException( command + " failed because metric collector is already shut down!" );
+            }
+
             try
             {
                 scheduler.submit( callable ).get();
@@ -483,7 +539,8 @@ public class MetricManagerImpl implements MetricManager
                 {
                     final int newPeriod = getNewPeriod();
                     final Map<Pair<String, Integer>, LatencyMetricsHistory> latencyMetricsHistories = getLatencyMetrics( newPeriod );
-                    metrics = new FlowMetrics( newPeriod, pipelineMetricsHistories, latencyMetricsHistories );
+                    final Map<String, StateEvictionMetrics> stateEvictionMetrics = getStateEvictionMetrics();
+                    metrics = new FlowMetrics( newPeriod, pipelineMetricsHistories, latencyMetricsHistories, stateEvictionMetrics );
                 }
 
                 final long timeSpent = System.nanoTime() - scanStartTimeInNanos;
@@ -620,6 +677,17 @@ public class MetricManagerImpl implements MetricManager
             return latencyMetricsHistories;
         }
 
+        private Map<String, StateEvictionMetrics> getStateEvictionMetrics ()
+        {
+            final Map<String, StateEvictionMetrics> stateEvictionMetrics = new HashMap<>();
+            for ( StateEvictionMetrics m : operatorKVStoreManager.getStateEvictionMetrics() )
+            {
+                stateEvictionMetrics.put( m.getOperatorId(), m );
+            }
+
+            return stateEvictionMetrics;
+        }
+
         private int getNewPeriod ()
         {
             return metrics != null ? metrics.getPeriod() + 1 : 0;
@@ -712,6 +780,14 @@ public class MetricManagerImpl implements MetricManager
                 }
             }
 
+            for ( StateEvictionMetrics stateEvictionMetrics : metrics.getStateEvictionMetrics() )
+            {
+                LOGGER.info( "STATE EVICTIONS: {} -> evicted keys: {} expired keys: {}",
+                             stateEvictionMetrics.getOperatorId(),
+                             stateEvictionMetrics.getEvictedKeyCount(),
+                             stateEvictionMetrics.getExpiredKeyCount() );
+            }
+
             final Snapshot scanMetricsSnapshot = scanMetricsHistogram.getSnapshot();
             final Snapshot scanOperatorsSnapshot = scanOperatorsHistogram.getSnapshot();
             LOGGER.debug( "SCAN METRICS   -> min: {} max: {} mean: {} std dev: {} median: {} .75: {} .95: {} .99: {} .999: {}",
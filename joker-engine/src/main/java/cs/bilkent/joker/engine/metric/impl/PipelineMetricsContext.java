@@ -13,6 +13,7 @@ import cs.bilkent.joker.engine.metric.PipelineMetrics.PipelineMetricsBuilder;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.lang.System.arraycopy;
+import static java.util.Arrays.copyOf;
 import static java.util.Arrays.fill;
 
 class PipelineMetricsContext
@@ -43,6 +44,12 @@ class PipelineMetricsContext
     // updated and read by metrics thread
     private final long[][] inboundThroughputs;
 
+    // updated and read by metrics thread
+    private final long[][] operatorInboundThroughputs;
+
+    // updated and read by metrics thread
+    private final long[][] operatorOutboundThroughputs;
+
     // sample counts buffers can be updated in the sampling thread and read in the metrics thread.
     // this field is used to provide happens-before relationship among these two threads.
     private volatile int sampling;
@@ -57,6 +64,8 @@ class PipelineMetricsContext
         this.pipelineSampleCountsBuffer = new long[ pipelineMeter.getReplicaCount() ];
         this.threadCpuTimes = new long[ pipelineMeter.getReplicaCount() ];
         this.inboundThroughputs = new long[ pipelineMeter.getReplicaCount() ][ pipelineMeter.getInputPortCount() ];
+        this.operatorInboundThroughputs = new long[ pipelineMeter.getReplicaCount() ][ pipelineMeter.getOperatorCount() ];
+        this.operatorOutboundThroughputs = new long[ pipelineMeter.getReplicaCount() ][ pipelineMeter.getOperatorCount() ];
     }
 
     private PipelineMetricsBuilder newPipelineMetricsBuilder ()
@@ -94,6 +103,9 @@ class PipelineMetricsContext
             fill( this.inboundThroughputs[ replicaIndex ], 0 );
 
             pipelineMeter.readInboundThroughput( replicaIndex, this.inboundThroughputs[ replicaIndex ] );
+            pipelineMeter.readOperatorThroughputs( replicaIndex,
+                                                   this.operatorInboundThroughputs[ replicaIndex ],
+                                                   this.operatorOutboundThroughputs[ replicaIndex ] );
         }
     }
 
@@ -122,6 +134,7 @@ class PipelineMetricsContext
         updateThreadUtilizationRatios( newReplicaCpuTimes, systemTimeDiff, builder );
         updateCosts( builder );
         updateThroughputs( builder );
+        updateOperatorThroughputs( builder );
 
         return builder.build();
     }
@@ -211,6 +224,33 @@ class PipelineMetricsContext
         }
     }
 
+    private void updateOperatorThroughputs ( final PipelineMetricsBuilder builder )
+    {
+        final int replicaCount = pipelineMeter.getReplicaCount();
+        final int operatorCount = pipelineMeter.getOperatorCount();
+
+        for ( int replicaIndex = 0; replicaIndex < replicaCount; replicaIndex++ )
+        {
+            final long[] currInboundThroughputs = this.operatorInboundThroughputs[ replicaIndex ];
+            final long[] currOutboundThroughputs = this.operatorOutboundThroughputs[ replicaIndex ];
+            final long[] newInboundThroughputs = copyOf( currInboundThroughputs, operatorCount );
+            final long[] newOutboundThroughputs = copyOf( currOutboundThroughputs, operatorCount );
+
+            pipelineMeter.readOperatorThroughputs( replicaIndex, newInboundThroughputs, newOutboundThroughputs );
+
+            for ( int operatorIndex = 0; operatorIndex < operatorCount; operatorIndex++ )
+            {
+                final long inboundThroughput = newInboundThroughputs[ operatorIndex ] - currInboundThroughputs[ operatorIndex ];
+                final long outboundThroughput = newOutboundThroughputs[ operatorIndex ] - currOutboundThroughputs[ operatorIndex ];
+                builder.setOperatorInboundThroughput( replicaIndex, operatorIndex, inboundThroughput );
+                builder.setOperatorOutboundThroughput( replicaIndex, operatorIndex, outboundThroughput );
+            }
+
+            arraycopy( newInboundThroughputs, 0, currInboundThroughputs, 0, operatorCount );
+            arraycopy( newOutboundThroughputs, 0, currOutboundThroughputs, 0, operatorCount );
+        }
+    }
+
     // called by sampler thread
     void sample ( final ThreadMXBean threadMXBean )
     {
@@ -30,10 +30,14 @@ public class ExponentialMovingAverage implements PipelineMetricsHistorySummarize
         double pipelineCost = p.get( 0 ).getAvgPipelineCost();
         final double[] operatorCosts = new double[ history.getOperatorCount() ];
         final long[] throughputs = new long[ history.getInputPortCount() ];
+        final long[] operatorInboundThroughputs = new long[ history.getOperatorCount() ];
+        final long[] operatorOutboundThroughputs = new long[ history.getOperatorCount() ];
 
         for ( int i = 0; i < history.getOperatorCount(); i++ )
         {
             operatorCosts[ i ] = p.get( 0 ).getAvgOperatorCost( i );
+            operatorInboundThroughputs[ i ] = p.get( 0 ).getTotalOperatorInboundThroughput( i );
+            operatorOutboundThroughputs[ i ] = p.get( 0 ).getTotalOperatorOutboundThroughput( i );
         }
 
         for ( int i = 0; i < history.getInputPortCount(); i++ )
@@ -51,6 +55,10 @@ public class ExponentialMovingAverage implements PipelineMetricsHistorySummarize
             for ( int j = 0; j < history.getOperatorCount(); j++ )
             {
                 operatorCosts[ j ] = ema( pipelineMetrics.getAvgOperatorCost( j ), operatorCosts[ j ] );
+                operatorInboundThroughputs[ j ] = ema( pipelineMetrics.getTotalOperatorInboundThroughput( j ),
+                                                       operatorInboundThroughputs[ j ] );
+                operatorOutboundThroughputs[ j ] = ema( pipelineMetrics.getTotalOperatorOutboundThroughput( j ),
+                                                        operatorOutboundThroughputs[ j ] );
             }
 
             for ( int j = 0; j < history.getInputPortCount(); j++ )
@@ -69,7 +77,9 @@ public class ExponentialMovingAverage implements PipelineMetricsHistorySummarize
 
         for ( int i = 0; i < history.getOperatorCount(); i++ )
         {
-            builder.setOperatorCost( 0, i, operatorCosts[ i ] );
+            builder.setOperatorCost( 0, i, operatorCosts[ i ] )
+                   .setOperatorInboundThroughput( 0, i, operatorInboundThroughputs[ i ] )
+                   .setOperatorOutboundThroughput( 0, i, operatorOutboundThroughputs[ i ] );
         }
 
         for ( int i = 0; i < history.getInputPortCount(); i++ )
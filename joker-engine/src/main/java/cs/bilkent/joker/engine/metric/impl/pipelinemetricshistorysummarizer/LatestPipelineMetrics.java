@@ -27,7 +27,9 @@ public class LatestPipelineMetrics implements PipelineMetricsHistorySummarizer
 
         for ( int operatorIndex = 0; operatorIndex < latestSnapshot.getOperatorCount(); operatorIndex++ )
         {
-            builder.setOperatorCost( 0, operatorIndex, latestSnapshot.getAvgOperatorCost( operatorIndex ) );
+            builder.setOperatorCost( 0, operatorIndex, latestSnapshot.getAvgOperatorCost( operatorIndex ) )
+                   .setOperatorInboundThroughput( 0, operatorIndex, latestSnapshot.getTotalOperatorInboundThroughput( operatorIndex ) )
+                   .setOperatorOutboundThroughput( 0, operatorIndex, latestSnapshot.getTotalOperatorOutboundThroughput( operatorIndex ) );
         }
 
         for ( int portIndex = 0; portIndex < latestSnapshot.getInputPortCount(); portIndex++ )
@@ -19,6 +19,8 @@ public class SimpleMovingAverage implements PipelineMetricsHistorySummarizer
         double pipelineCost = 0;
         final double[] operatorCosts = new double[ history.getOperatorCount() ];
         final long[] throughputs = new long[ history.getInputPortCount() ];
+        final long[] operatorInboundThroughputs = new long[ history.getOperatorCount() ];
+        final long[] operatorOutboundThroughputs = new long[ history.getOperatorCount() ];
 
         for ( PipelineMetrics metrics : history.getAll() )
         {
@@ -28,6 +30,8 @@ public class SimpleMovingAverage implements PipelineMetricsHistorySummarizer
             for ( int i = 0; i < history.getOperatorCount(); i++ )
             {
                 operatorCosts[ i ] += metrics.getAvgOperatorCost( i );
+                operatorInboundThroughputs[ i ] += metrics.getTotalOperatorInboundThroughput( i );
+                operatorOutboundThroughputs[ i ] += metrics.getTotalOperatorOutboundThroughput( i );
             }
 
             for ( int i = 0; i < history.getInputPortCount(); i++ )
@@ -48,7 +52,9 @@ public class SimpleMovingAverage implements PipelineMetricsHistorySummarizer
 
         for ( int i = 0; i < history.getOperatorCount(); i++ )
         {
-            builder.setOperatorCost( 0, i, operatorCosts[ i ] / historySize );
+            builder.setOperatorCost( 0, i, operatorCosts[ i ] / historySize )
+                   .setOperatorInboundThroughput( 0, i, operatorInboundThroughputs[ i ] / historySize )
+                   .setOperatorOutboundThroughput( 0, i, operatorOutboundThroughputs[ i ] / historySize );
         }
 
         for ( int i = 0; i < history.getInputPortCount(); i++ )
@@ -11,16 +11,37 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static java.util.Collections.unmodifiableList;
 
+/**
+ * Maps partitions of a {@code PARTITIONED_STATEFUL} region to its replicas. When the partitions are shared by multiple Joker instances
+ * running the same flow, each partition is also mapped to its owner instance, hence a partition is owned by the (instance, replica) pair
+ * given by {@link #getInstanceIndex(int)} and {@link #getReplicaIndex(int)}. Replica indices of the partitions owned by the other
+ * instances are only meaningful on their owner instances. Tuples of these partitions are not processed by the local replicas.
+ */
 public class PartitionDistribution
 {
 
     private final int[] distribution;
 
+    private final int[] instanceIndices;
+
+    private final int localInstanceIndex;
+
     private final Map<Integer, List<Integer>> partitionIdsByReplicaIndex;
 
     public PartitionDistribution ( final int[] distribution )
     {
+        this( distribution, new int[ distribution.length ], 0 );
+    }
+
+    public PartitionDistribution ( final int[] distribution, final int[] instanceIndices, final int localInstanceIndex )
+    {
+        checkArgument( distribution.length == instanceIndices.length,
+                       "partition count: %s and instance index count: %s are different!",
+                       distribution.length,
+                       instanceIndices.length );
         this.distribution = Arrays.copyOf( distribution, distribution.length );
+        this.instanceIndices = Arrays.copyOf( instanceIndices, instanceIndices.length );
+        this.localInstanceIndex = localInstanceIndex;
         final Map<Integer, List<Integer>> partitionIdsByReplicaIndex = new HashMap<>();
         for ( int partitionId = 0; partitionId < distribution.length; partitionId++ )
         {
@@ -63,14 +84,98 @@ public class PartitionDistribution
         return partitionIdsByReplicaIndex.get( replicaIndex );
     }
 
+    public int[] getInstanceIndices ()
+    {
+        return Arrays.copyOf( instanceIndices, instanceIndices.length );
+    }
+
+    public int getInstanceIndex ( final int partitionId )
+    {
+        return instanceIndices[ partitionId ];
+    }
+
+    public int getLocalInstanceIndex ()
+    {
+        return localInstanceIndex;
+    }
+
+    public boolean isLocal ( final int partitionId )
+    {
+        return instanceIndices[ partitionId ] == localInstanceIndex;
+    }
+
+    /**
+     * Returns true if any partition is owned by another Joker instance
+     */
+    public boolean isDistributed ()
+    {
+        for ( int instanceIndex : instanceIndices )
+        {
+            if ( instanceIndex != localInstanceIndex )
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns a new partition distribution with the same instance ownerships and the given replica indices
+     */
+    public PartitionDistribution withReplicaIndices ( final int[] distribution )
+    {
+        checkArgument( distribution.length <= instanceIndices.length && instanceIndices.length % distribution.length == 0,
+                       "cannot map %s partitions to instance indices of %s partitions",
+                       distribution.length,
+                       instanceIndices.length );
+
+        return new PartitionDistribution( distribution, Arrays.copyOf( instanceIndices, distribution.length ), localInstanceIndex );
+    }
+
+    /**
+     * Returns a new partition distribution in which each partition of this distribution is split into
+     * {@code partitionCount / getPartitionCount()} partitions owned by the same replica. Since partition ids are computed with modulo,
+     * keys of partitionId {@code p} in the new distribution belong to partitionId {@code p % getPartitionCount()} in this distribution.
+     * Therefore, partitions can be split, and merged back, without computing partition hashes of their keys. Split partitions are owned by
+     * the instance of their parent partitions.
+     */
+    public PartitionDistribution split ( final int partitionCount )
+    {
+        checkArgument( partitionCount > 0 && partitionCount % distribution.length == 0,
+                       "cannot split %s partitions into %s partitions",
+                       distribution.length,
+                       partitionCount );
+
+        final int[] split = new int[ partitionCount ];
+        final int[] splitInstanceIndices = new int[ partitionCount ];
+        for ( int partitionId = 0; partitionId < partitionCount; partitionId++ )
+        {
+            split[ partitionId ] = distribution[ partitionId % distribution.length ];
+            splitInstanceIndices[ partitionId ] = instanceIndices[ partitionId % distribution.length ];
+        }
+
+        return new PartitionDistribution( split, splitInstanceIndices, localInstanceIndex );
+    }
+
+    /**
+     * Returns ids of the local partitions migrated to the given replica in the other distribution. Partitions owned by the other instances
+     * are not migrated since their tuples are not processed by the local replicas.
+     */
     public List<Integer> getPartitionIdsMigratedToReplicaIndex ( final PartitionDistribution other, final int replicaIndex )
     {
+        verifyPartitionCount( other );
         verifyReplicaCount( other );
 
         final List<Integer> migrations = new ArrayList<>();
 
         for ( int partitionId = 0; partitionId < getPartitionCount(); partitionId++ )
         {
+            if ( !isLocal( partitionId ) )
+            {
+                continue;
+            }
+
             final int thisReplicaIndex = this.distribution[ partitionId ];
             final int otherReplicaIndex = other.distribution[ partitionId ];
             if ( thisReplicaIndex != replicaIndex && otherReplicaIndex == replicaIndex )
@@ -83,14 +188,23 @@ public class PartitionDistribution
         return migrations;
     }
 
+    /**
+     * Returns ids of the local partitions migrated from the given replica in the other distribution
+     */
     public List<Integer> getPartitionIdsMigratedFromReplicaIndex ( final PartitionDistribution other, final int replicaIndex )
     {
+        verifyPartitionCount( other );
         verifyReplicaCount( other );
 
         final List<Integer> migrations = new ArrayList<>();
 
         for ( int partitionId = 0; partitionId < getPartitionCount(); partitionId++ )
         {
+            if ( !isLocal( partitionId ) )
+            {
+                continue;
+            }
+
             final int thisReplicaIndex = this.distribution[ partitionId ];
             final int otherReplicaIndex = other.distribution[ partitionId ];
             if ( thisReplicaIndex == replicaIndex && otherReplicaIndex != replicaIndex )
@@ -103,6 +217,14 @@ public class PartitionDistribution
         return migrations;
     }
 
+    private void verifyPartitionCount ( final PartitionDistribution other )
+    {
+        checkState( this.getPartitionCount() == other.getPartitionCount(),
+                    "distributions have different partition counts! this: %s other: %s",
+                    this.getPartitionCount(),
+                    other.getPartitionCount() );
+    }
+
     private void verifyReplicaCount ( final PartitionDistribution other )
     {
         checkState( this.getReplicaCount() != other.getReplicaCount(),
@@ -128,6 +250,12 @@ public class PartitionDistribution
     @Override
     public String toString ()
     {
+        if ( isDistributed() )
+        {
+            return "PartitionDistribution{" + Arrays.toString( distribution ) + ", instanceIndices=" + Arrays.toString( instanceIndices )
+                   + ", localInstanceIndex=" + localInstanceIndex + '}';
+        }
+
         return "PartitionDistribution{" + Arrays.toString( distribution ) + '}';
     }
 
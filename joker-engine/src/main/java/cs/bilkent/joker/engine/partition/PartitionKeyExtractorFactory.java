@@ -2,6 +2,8 @@ package cs.bilkent.joker.engine.partition;
 
 import java.util.List;
 
+import cs.bilkent.joker.operator.schema.runtime.OperatorRuntimeSchema;
+
 public interface PartitionKeyExtractorFactory
 {
 
@@ -12,4 +14,17 @@ public interface PartitionKeyExtractorFactory
 
     PartitionKeyExtractor createPartitionKeyExtractor ( List<String> partitionFieldNames, int forwardedKeySize );
 
+    default PartitionKeyExtractor createPartitionKeyExtractor ( OperatorRuntimeSchema schema, List<String> partitionFieldNames )
+    {
+        return createPartitionKeyExtractor( schema, partitionFieldNames, partitionFieldNames.size() );
+    }
+
+    /**
+     * Creates a partition key extractor for the given partition field names. Types of the partition fields in the input port schemas are
+     * used for picking an extractor which does not box primitive partition field values into partition keys.
+     */
+    PartitionKeyExtractor createPartitionKeyExtractor ( OperatorRuntimeSchema schema,
+                                                        List<String> partitionFieldNames,
+                                                        int forwardedKeySize );
+
 }
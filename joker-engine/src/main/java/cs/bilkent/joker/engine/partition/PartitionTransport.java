@@ -0,0 +1,60 @@
+package cs.bilkent.joker.engine.partition;
+
+import java.util.List;
+
+import cs.bilkent.joker.operator.Tuple;
+
+/**
+ * Carries tuples of the partitions owned by the other Joker instances, which run the same flow, to their owners. Instances are
+ * identified with their indices given in {@link cs.bilkent.joker.engine.config.PartitionServiceConfig#getInstanceIndex()}, and
+ * destinations of the tuples are identified with the ids of the first operators of the {@code PARTITIONED_STATEFUL} regions, which are
+ * the same on all instances.
+ * <p>
+ * Instances shut down together. Each instance keeps receiving the tuples of its partitions until all of the other instances complete
+ * sending tuples, hence tuples are not lost while the instances are shutting down. Tuples cannot be delivered to an instance which is
+ * unbound, for instance because its flow has failed, hence they are not dropped silently and sending them fails.
+ * <p>
+ * Implementations must be thread-safe since tuples are sent from the pipeline replica threads of the upstream regions concurrently.
+ */
+public interface PartitionTransport
+{
+
+    /**
+     * Starts passing the tuples sent to the given instance to the given receiver
+     */
+    void bind ( int instanceIndex, PartitionTupleReceiver receiver );
+
+    /**
+     * Stops passing the tuples sent to the given instance. An instance is unbound after all of the other instances complete sending
+     * tuples, unless its flow fails. Tuples sent to an unbound instance are not delivered, and sending them fails with
+     * {@link cs.bilkent.joker.engine.exception.JokerException}.
+     */
+    void unbind ( int instanceIndex );
+
+    /**
+     * Notifies the receivers of the other instances that the given instance does not send tuples anymore. Receivers which are bound after
+     * this call are notified as well.
+     */
+    void complete ( int instanceIndex );
+
+    /**
+     * Sends the tuples to the given input port of the operator on the given instance. Returns once the tuples are accepted by the
+     * destination instance, so that backpressure of the destination is propagated to the caller. The caller can reuse the tuple list
+     * after the method returns.
+     */
+    void send ( int instanceIndex, String operatorId, int portIndex, List<Tuple> tuples );
+
+
+    interface PartitionTupleReceiver
+    {
+
+        void receive ( String operatorId, int portIndex, List<Tuple> tuples );
+
+        /**
+         * Called when another instance completes sending tuples. It can be called more than once for the same instance.
+         */
+        void onSenderCompleted ( int instanceIndex );
+
+    }
+
+}
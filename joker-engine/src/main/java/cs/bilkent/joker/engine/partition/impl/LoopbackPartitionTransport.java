@@ -0,0 +1,128 @@
+package cs.bilkent.joker.engine.partition.impl;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.concurrent.ThreadSafe;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import cs.bilkent.joker.engine.exception.JokerException;
+import cs.bilkent.joker.engine.partition.PartitionTransport;
+import cs.bilkent.joker.engine.util.concurrent.BackoffIdleStrategy;
+import cs.bilkent.joker.engine.util.concurrent.IdleStrategy;
+import cs.bilkent.joker.operator.Tuple;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Connects Joker instances running in the same process. Tuples are passed to the receiver of the destination instance on the caller
+ * thread, without copying. Since instances can be started one by one, tuples sent to an instance which is not bound yet are held until
+ * it is bound, or the bind timeout is reached. Sending tuples to an instance which is unbound fails.
+ */
+@ThreadSafe
+public class LoopbackPartitionTransport implements PartitionTransport
+{
+
+    public static final long DEFAULT_BIND_TIMEOUT_IN_MILLIS = 30000;
+
+    private final ConcurrentMap<Integer, PartitionTupleReceiver> receivers = new ConcurrentHashMap<>();
+
+    private final Set<Integer> unboundInstanceIndices = ConcurrentHashMap.newKeySet();
+
+    private final Set<Integer> completedInstanceIndices = ConcurrentHashMap.newKeySet();
+
+    private final long bindTimeoutInMillis;
+
+    public LoopbackPartitionTransport ()
+    {
+        this( DEFAULT_BIND_TIMEOUT_IN_MILLIS );
+    }
+
+    public LoopbackPartitionTransport ( final long bindTimeoutInMillis )
+    {
+        checkArgument( bindTimeoutInMillis >= 0, "invalid bind timeout: %s", bindTimeoutInMillis );
+        this.bindTimeoutInMillis = bindTimeoutInMillis;
+    }
+
+    @Override
+    public void bind ( final int instanceIndex, final PartitionTupleReceiver receiver )
+    {
+        checkArgument( receiver != null );
+        checkState( receivers.putIfAbsent( instanceIndex, receiver ) == null, "instance %s is already bound", instanceIndex );
+        unboundInstanceIndices.remove( instanceIndex );
+        // the receiver is put before the completed instances are read, and an instance is completed before the receivers are read.
+        // therefore, the receiver is notified at least once for each completed instance, either here or in complete().
+        for ( int completedInstanceIndex : completedInstanceIndices )
+        {
+            if ( completedInstanceIndex != instanceIndex )
+            {
+                receiver.onSenderCompleted( completedInstanceIndex );
+            }
+        }
+    }
+
+    @Override
+    public void unbind ( final int instanceIndex )
+    {
+        if ( receivers.remove( instanceIndex ) != null )
+        {
+            unboundInstanceIndices.add( instanceIndex );
+        }
+    }
+
+    @Override
+    public void complete ( final int instanceIndex )
+    {
+        if ( completedInstanceIndices.add( instanceIndex ) )
+        {
+            receivers.forEach( ( receiverInstanceIndex, receiver ) -> {
+                if ( receiverInstanceIndex != instanceIndex )
+                {
+                    receiver.onSenderCompleted( instanceIndex );
+                }
+            } );
+        }
+    }
+
+    @Override
+    public void send ( final int instanceIndex, final String operatorId, final int portIndex, final List<Tuple> tuples )
+    {
+        final PartitionTupleReceiver receiver = getReceiver( instanceIndex );
+        if ( receiver == null )
+        {
+            throw new JokerException( "cannot send " + tuples.size() + " tuples of operator: " + operatorId + " port index: " + portIndex
+                                      + " since instance " + instanceIndex + " is unbound" );
+        }
+
+        receiver.receive( operatorId, portIndex, tuples );
+    }
+
+    private PartitionTupleReceiver getReceiver ( final int instanceIndex )
+    {
+        PartitionTupleReceiver receiver = receivers.get( instanceIndex );
+        if ( receiver != null )
+        {
+            return receiver;
+        }
+
+        final IdleStrategy idleStrategy = BackoffIdleStrategy.newDefaultInstance();
+        final long deadline = System.nanoTime() + MILLISECONDS.toNanos( bindTimeoutInMillis );
+        while ( ( receiver = receivers.get( instanceIndex ) ) == null )
+        {
+            if ( unboundInstanceIndices.contains( instanceIndex ) )
+            {
+                return null;
+            }
+            else if ( System.nanoTime() - deadline > 0 )
+            {
+                throw new JokerException( "instance " + instanceIndex + " is not bound in " + bindTimeoutInMillis + " ms" );
+            }
+
+            idleStrategy.idle();
+        }
+
+        return receiver;
+    }
+
+}
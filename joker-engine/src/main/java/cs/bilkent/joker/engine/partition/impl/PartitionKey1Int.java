@@ -0,0 +1,89 @@
+package cs.bilkent.joker.engine.partition.impl;
+
+import java.util.AbstractList;
+import java.util.List;
+
+import cs.bilkent.joker.partition.impl.PartitionKey;
+import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.hashHead;
+
+/**
+ * Partition key of a single {@code int} partition field. It is equal to the {@link cs.bilkent.joker.partition.impl.PartitionKey1} of the
+ * same value, and has the same hash codes, but it keeps the value unboxed.
+ */
+public class PartitionKey1Int extends AbstractList<Object> implements PartitionKey
+{
+
+    private final int val0;
+
+    private final int hashCode;
+
+    private final int partitionHashCode;
+
+    PartitionKey1Int ( final int val0 )
+    {
+        this.val0 = val0;
+        this.hashCode = 31 + Integer.hashCode( val0 );
+        this.partitionHashCode = computeHashCode( val0 );
+    }
+
+    @Override
+    public int partitionHashCode ()
+    {
+        return partitionHashCode;
+    }
+
+    @Override
+    public Object get ( final int index )
+    {
+        if ( index == 0 )
+        {
+            return val0;
+        }
+
+        throw new IndexOutOfBoundsException( "Index: " + index + ", Size: " + 1 );
+    }
+
+    @Override
+    public int size ()
+    {
+        return 1;
+    }
+
+    @Override
+    public boolean equals ( final Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null )
+        {
+            return false;
+        }
+        if ( getClass() != o.getClass() )
+        {
+            return o instanceof List && super.equals( o );
+        }
+
+        final PartitionKey1Int n2 = (PartitionKey1Int) o;
+        return val0 == n2.val0;
+    }
+
+    @Override
+    public int hashCode ()
+    {
+        return hashCode;
+    }
+
+    @Override
+    public String toString ()
+    {
+        return "PartitionKey1Int{" + "val0=" + val0 + '}';
+    }
+
+    static int computeHashCode ( final int val0 )
+    {
+        return hashHead( val0 );
+    }
+
+}
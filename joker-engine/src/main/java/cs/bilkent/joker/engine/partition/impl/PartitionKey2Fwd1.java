@@ -5,7 +5,8 @@ import java.util.List;
 
 import cs.bilkent.joker.partition.impl.PartitionKey;
 import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.hashHead;
-import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.hashTail;
+import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.listHashHead;
+import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.listHashTail;
 
 public class PartitionKey2Fwd1 extends AbstractList<Object> implements PartitionKey
 {
@@ -23,7 +24,7 @@ public class PartitionKey2Fwd1 extends AbstractList<Object> implements Partition
         this.val0 = val0;
         this.val1 = val1;
         this.partitionHashCode = computePartitionHashCode( val0 );
-        this.hashCode = hashTail( partitionHashCode, val1 );
+        this.hashCode = listHashTail( listHashHead( val0 ), val1 );
     }
 
     @Override
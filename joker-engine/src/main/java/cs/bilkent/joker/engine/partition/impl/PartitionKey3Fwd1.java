@@ -5,7 +5,8 @@ import java.util.List;
 
 import cs.bilkent.joker.partition.impl.PartitionKey;
 import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.hashHead;
-import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.hashTail;
+import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.listHashHead;
+import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.listHashTail;
 
 public class PartitionKey3Fwd1 extends AbstractList<Object> implements PartitionKey
 {
@@ -26,7 +27,7 @@ public class PartitionKey3Fwd1 extends AbstractList<Object> implements Partition
         this.val1 = val1;
         this.val2 = val2;
         this.partitionHashCode = computePartitionHashCode( val0 );
-        this.hashCode = hashTail( hashTail( partitionHashCode, val1 ), val2 );
+        this.hashCode = listHashTail( listHashTail( listHashHead( val0 ), val1 ), val2 );
     }
 
     @Override
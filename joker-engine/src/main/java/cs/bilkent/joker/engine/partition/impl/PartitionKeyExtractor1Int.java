@@ -0,0 +1,32 @@
+package cs.bilkent.joker.engine.partition.impl;
+
+import java.util.List;
+
+import cs.bilkent.joker.engine.partition.PartitionKeyExtractor;
+import static cs.bilkent.joker.engine.partition.impl.PartitionKey1Int.computeHashCode;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.partition.impl.PartitionKey;
+
+public class PartitionKeyExtractor1Int implements PartitionKeyExtractor
+{
+
+    private final String fieldName;
+
+    PartitionKeyExtractor1Int ( final List<String> partitionFieldNames )
+    {
+        this.fieldName = partitionFieldNames.get( 0 );
+    }
+
+    @Override
+    public PartitionKey getPartitionKey ( final Tuple tuple )
+    {
+        return new PartitionKey1Int( tuple.getInteger( fieldName ) );
+    }
+
+    @Override
+    public int getPartitionHash ( final Tuple tuple )
+    {
+        return computeHashCode( tuple.getInteger( fieldName ) );
+    }
+
+}
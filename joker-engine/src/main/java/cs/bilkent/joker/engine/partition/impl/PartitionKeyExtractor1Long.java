@@ -0,0 +1,32 @@
+package cs.bilkent.joker.engine.partition.impl;
+
+import java.util.List;
+
+import cs.bilkent.joker.engine.partition.PartitionKeyExtractor;
+import static cs.bilkent.joker.engine.partition.impl.PartitionKey1Long.computeHashCode;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.partition.impl.PartitionKey;
+
+public class PartitionKeyExtractor1Long implements PartitionKeyExtractor
+{
+
+    private final String fieldName;
+
+    PartitionKeyExtractor1Long ( final List<String> partitionFieldNames )
+    {
+        this.fieldName = partitionFieldNames.get( 0 );
+    }
+
+    @Override
+    public PartitionKey getPartitionKey ( final Tuple tuple )
+    {
+        return new PartitionKey1Long( tuple.getLong( fieldName ) );
+    }
+
+    @Override
+    public int getPartitionHash ( final Tuple tuple )
+    {
+        return computeHashCode( tuple.getLong( fieldName ) );
+    }
+
+}
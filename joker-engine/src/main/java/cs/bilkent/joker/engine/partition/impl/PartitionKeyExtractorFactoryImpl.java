@@ -6,6 +6,9 @@ import java.util.function.Function;
 import static com.google.common.base.Preconditions.checkArgument;
 import cs.bilkent.joker.engine.partition.PartitionKeyExtractor;
 import cs.bilkent.joker.engine.partition.PartitionKeyExtractorFactory;
+import cs.bilkent.joker.operator.schema.runtime.OperatorRuntimeSchema;
+import cs.bilkent.joker.operator.schema.runtime.PortRuntimeSchema;
+import cs.bilkent.joker.operator.schema.runtime.RuntimeSchemaField;
 import static java.lang.Math.min;
 
 public class PartitionKeyExtractorFactoryImpl implements PartitionKeyExtractorFactory
@@ -61,4 +64,45 @@ public class PartitionKeyExtractorFactoryImpl implements PartitionKeyExtractorFa
         }
     }
 
+    @Override
+    public PartitionKeyExtractor createPartitionKeyExtractor ( final OperatorRuntimeSchema schema,
+                                                             final List<String> partitionFieldNames,
+                                                             final int forwardedKeySize )
+    {
+        if ( partitionFieldNames.size() == 1 )
+        {
+            final Class<?> type = getPartitionFieldType( schema, partitionFieldNames.get( 0 ) );
+            if ( type == long.class || type == Long.class )
+            {
+                return new PartitionKeyExtractor1Long( partitionFieldNames );
+            }
+            else if ( type == int.class || type == Integer.class )
+            {
+                return new PartitionKeyExtractor1Int( partitionFieldNames );
+            }
+        }
+
+        return createPartitionKeyExtractor( partitionFieldNames, forwardedKeySize );
+    }
+
+    /**
+     * Returns type of the given field if all input port schemas contain the field with the same type, null otherwise
+     */
+    private Class<?> getPartitionFieldType ( final OperatorRuntimeSchema schema, final String fieldName )
+    {
+        Class<?> type = null;
+        for ( PortRuntimeSchema portSchema : schema.getInputSchemas() )
+        {
+            final RuntimeSchemaField field = portSchema.getField( fieldName );
+            if ( field == null || ( type != null && type != field.getType() ) )
+            {
+                return null;
+            }
+
+            type = field.getType();
+        }
+
+        return type;
+    }
+
 }
@@ -7,7 +7,7 @@ import java.util.List;
 import cs.bilkent.joker.operator.Tuple;
 import cs.bilkent.joker.partition.impl.PartitionKey;
 import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.hashHead;
-import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.hashTail;
+import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.listHashCode;
 import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.rangeCheck;
 
 public class PartitionKeyNFwd1 extends AbstractList<Object> implements PartitionKey
@@ -25,18 +25,15 @@ public class PartitionKeyNFwd1 extends AbstractList<Object> implements Partition
         this.values = new Object[ j ];
 
         final Object headVal = tuple.getObject( partitionFieldNames.get( 0 ) );
-        int hashCode = computePartitionHash( headVal );
-        this.partitionHashCode = hashCode;
+        this.partitionHashCode = computePartitionHash( headVal );
         this.values[ 0 ] = headVal;
 
         for ( int i = 1; i < j; i++ )
         {
-            final Object val = tuple.getObject( partitionFieldNames.get( i ) );
-            this.values[ i ] = val;
-            hashCode = hashTail( hashCode, val );
+            this.values[ i ] = tuple.getObject( partitionFieldNames.get( i ) );
         }
 
-        this.hashCode = hashCode;
+        this.hashCode = listHashCode( values );
     }
 
     @Override
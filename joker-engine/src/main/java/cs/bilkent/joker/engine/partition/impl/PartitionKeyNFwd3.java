@@ -8,6 +8,7 @@ import cs.bilkent.joker.operator.Tuple;
 import cs.bilkent.joker.partition.impl.PartitionKey;
 import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.hashHead;
 import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.hashTail;
+import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.listHashCode;
 import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.rangeCheck;
 
 public class PartitionKeyNFwd3 extends AbstractList<Object> implements PartitionKey
@@ -27,20 +28,17 @@ public class PartitionKeyNFwd3 extends AbstractList<Object> implements Partition
         final Object headVal0 = tuple.getObject( partitionFieldNames.get( 0 ) );
         final Object headVal1 = tuple.getObject( partitionFieldNames.get( 1 ) );
         final Object headVal2 = tuple.getObject( partitionFieldNames.get( 2 ) );
-        int hashCode = computePartitionHash( headVal0, headVal1, headVal2 );
-        this.partitionHashCode = hashCode;
+        this.partitionHashCode = computePartitionHash( headVal0, headVal1, headVal2 );
         this.values[ 0 ] = headVal0;
         this.values[ 1 ] = headVal1;
         this.values[ 2 ] = headVal2;
 
         for ( int i = 3; i < j; i++ )
         {
-            final Object val = tuple.getObject( partitionFieldNames.get( i ) );
-            this.values[ i ] = val;
-            hashCode = hashTail( hashCode, val );
+            this.values[ i ] = tuple.getObject( partitionFieldNames.get( i ) );
         }
 
-        this.hashCode = hashCode;
+        this.hashCode = listHashCode( values );
     }
 
     @Override
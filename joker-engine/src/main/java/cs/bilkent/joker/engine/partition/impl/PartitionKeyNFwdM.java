@@ -8,6 +8,7 @@ import cs.bilkent.joker.operator.Tuple;
 import cs.bilkent.joker.partition.impl.PartitionKey;
 import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.hashHead;
 import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.hashTail;
+import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.listHashCode;
 import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.rangeCheck;
 
 public class PartitionKeyNFwdM extends AbstractList<Object> implements PartitionKey
@@ -25,26 +26,24 @@ public class PartitionKeyNFwdM extends AbstractList<Object> implements Partition
         this.values = new Object[ j ];
 
         final Object headVal = tuple.getObject( partitionFieldNames.get( 0 ) );
-        int hashCode = hashHead( headVal );
+        int partitionHashCode = hashHead( headVal );
         this.values[ 0 ] = headVal;
 
         for ( int i = 1; i < forwardedKeySize; i++ )
         {
             final Object val = tuple.getObject( partitionFieldNames.get( i ) );
             this.values[ i ] = val;
-            hashCode = hashTail( hashCode, val );
+            partitionHashCode = hashTail( partitionHashCode, val );
         }
 
-        this.partitionHashCode = hashCode;
+        this.partitionHashCode = partitionHashCode;
 
         for ( int i = forwardedKeySize; i < j; i++ )
         {
-            final Object val = tuple.getObject( partitionFieldNames.get( i ) );
-            this.values[ i ] = val;
-            hashCode = hashTail( hashCode, val );
+            this.values[ i ] = tuple.getObject( partitionFieldNames.get( i ) );
         }
 
-        this.hashCode = hashCode;
+        this.hashCode = listHashCode( values );
     }
 
     @Override
@@ -20,9 +20,11 @@ import com.google.inject.Singleton;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import cs.bilkent.joker.engine.config.JokerConfig;
+import cs.bilkent.joker.engine.config.PartitionServiceConfig;
 import cs.bilkent.joker.engine.partition.PartitionDistribution;
 import cs.bilkent.joker.engine.partition.PartitionService;
 import static java.util.Collections.emptyList;
+import static java.lang.Math.max;
 import static java.util.Collections.shuffle;
 
 @Singleton
@@ -35,18 +37,36 @@ public class PartitionServiceImpl implements PartitionService
 
     private final Map<Integer, PartitionDistribution> distributions = new HashMap<>();
 
-    private final int partitionCount;
+    private final int initialPartitionCount;
+
+    private final int maxPartitionCount;
+
+    private final int minPartitionCountPerReplica;
+
+    private final int instanceCount;
+
+    private final int instanceIndex;
 
     @Inject
     public PartitionServiceImpl ( final JokerConfig jokerConfig )
     {
-        this.partitionCount = jokerConfig.getPartitionServiceConfig().getPartitionCount();
+        final PartitionServiceConfig config = jokerConfig.getPartitionServiceConfig();
+        this.initialPartitionCount = config.getPartitionCount();
+        int maxPartitionCount = initialPartitionCount;
+        while ( maxPartitionCount <= config.getMaxPartitionCount() / 2 )
+        {
+            maxPartitionCount *= 2;
+        }
+        this.maxPartitionCount = maxPartitionCount;
+        this.minPartitionCountPerReplica = config.getMinPartitionCountPerReplica();
+        this.instanceCount = config.getInstanceCount();
+        this.instanceIndex = config.getInstanceIndex();
     }
 
     @Override
     public int getPartitionCount ()
     {
-        return partitionCount;
+        return initialPartitionCount;
     }
 
     @Override
@@ -64,44 +84,110 @@ public class PartitionServiceImpl implements PartitionService
                     regionId,
                     replicaCount );
 
-        final List<Integer> replicaIndices = new ArrayList<>( partitionCount );
+        final int partitionCount = getPartitionCount( replicaCount );
+        final int[] instanceIndices = getInstanceIndices( partitionCount );
+        final List<Integer> localPartitionIds = new ArrayList<>(), remotePartitionIds = new ArrayList<>();
         for ( int partitionId = 0; partitionId < partitionCount; partitionId++ )
         {
-            replicaIndices.add( partitionId % replicaCount );
+            ( instanceIndices[ partitionId ] == instanceIndex ? localPartitionIds : remotePartitionIds ).add( partitionId );
         }
-        shuffle( replicaIndices );
+        checkLocalPartitionCount( regionId, localPartitionIds.size(), replicaCount );
 
+        // local partitions are distributed to the replicas first so that the replicas share them evenly. the remaining partitions are owned
+        // by the other instances, hence the local replicas do not process their tuples.
         final int[] distribution = new int[ partitionCount ];
-        for ( int partitionId = 0; partitionId < partitionCount; partitionId++ )
-        {
-            distribution[ partitionId ] = replicaIndices.get( partitionId );
-        }
+        final int localPartitionCount = localPartitionIds.size();
+        assignReplicaIndices( localPartitionIds, 0, replicaCount, distribution );
+        assignReplicaIndices( remotePartitionIds, localPartitionCount, replicaCount, distribution );
 
-        checkDistribution( regionId, distribution );
+        checkDistribution( regionId, distribution, instanceIndices, replicaCount );
 
-        final PartitionDistribution partitionDistribution = new PartitionDistribution( distribution );
+        final PartitionDistribution partitionDistribution = new PartitionDistribution( distribution, instanceIndices, instanceIndex );
         distributions.put( regionId, partitionDistribution );
 
         LOGGER.debug( "partition distribution is created for regionId={} replicaCount={} distribution={}",
                       regionId,
                       replicaCount,
-                      distribution );
+                      partitionDistribution );
 
         return partitionDistribution;
     }
 
+    /**
+     * Initial partitions are owned by the instances in a round-robin fashion. Since partitions of a region are split into halves when the
+     * region grows, a split partition is owned by the instance of its parent partition. Therefore, all instances agree on the owner of a
+     * partition key even if their regions have different partition counts.
+     */
+    private int[] getInstanceIndices ( final int partitionCount )
+    {
+        final int[] instanceIndices = new int[ partitionCount ];
+        for ( int partitionId = 0; partitionId < partitionCount; partitionId++ )
+        {
+            instanceIndices[ partitionId ] = ( partitionId % initialPartitionCount ) % instanceCount;
+        }
+
+        return instanceIndices;
+    }
+
+    private void assignReplicaIndices ( final List<Integer> partitionIds,
+                                        final int firstReplicaIndex,
+                                        final int replicaCount,
+                                        final int[] distribution )
+    {
+        final List<Integer> replicaIndices = new ArrayList<>( partitionIds.size() );
+        for ( int i = 0; i < partitionIds.size(); i++ )
+        {
+            replicaIndices.add( ( firstReplicaIndex + i ) % replicaCount );
+        }
+        shuffle( replicaIndices );
+
+        for ( int i = 0; i < partitionIds.size(); i++ )
+        {
+            distribution[ partitionIds.get( i ) ] = replicaIndices.get( i );
+        }
+    }
+
+    private void checkLocalPartitionCount ( final int regionId, final int localPartitionCount, final int replicaCount )
+    {
+        checkArgument( localPartitionCount >= replicaCount,
+                       "regionId=%s cannot distribute %s local partitions to %s replicas",
+                       regionId,
+                       localPartitionCount,
+                       replicaCount );
+    }
+
     private void checkReplicaCount ( final int replicaCount )
     {
-        checkArgument( replicaCount > 0 && replicaCount <= partitionCount,
+        checkArgument( replicaCount > 0 && replicaCount <= maxPartitionCount,
                        "replica count: %s must be positive and should be less than %s",
                        replicaCount,
-                       partitionCount );
+                       maxPartitionCount );
+    }
+
+    /**
+     * Returns the partition count of a region with the given replica count. Partitions are split into halves until each replica can own
+     * {@code minPartitionCountPerReplica} local partitions, or the max partition count is reached. Each instance owns about
+     * {@code 1 / instanceCount} of the partitions.
+     */
+    private int getPartitionCount ( final int replicaCount )
+    {
+        int partitionCount = initialPartitionCount;
+        while ( partitionCount < replicaCount * instanceCount * minPartitionCountPerReplica && partitionCount < maxPartitionCount )
+        {
+            partitionCount *= 2;
+        }
+
+        return partitionCount;
     }
 
-    private void checkDistribution ( final int regionId, final int[] distribution )
+    /**
+     * Checks if the local partitions are balanced among the replicas. Partitions owned by the other instances are not checked since their
+     * tuples are not processed by the local replicas.
+     */
+    private void checkDistribution ( final int regionId, final int[] distribution, final int[] instanceIndices, final int replicaCount )
     {
-        final Map<Integer, List<Integer>> newOwnerships = getOwnershipsMap( distribution );
-        final int replicaCount = newOwnerships.size();
+        final Map<Integer, List<Integer>> newOwnerships = getLocalOwnershipsMap( distribution, instanceIndices, replicaCount );
+        final int partitionCount = getPartitionCount( newOwnerships );
         int overCapacityCount = partitionCount % replicaCount;
         int normalCapacityCount = replicaCount - overCapacityCount;
         final int normalCapacity = partitionCount / replicaCount;
@@ -140,39 +226,94 @@ public class PartitionServiceImpl implements PartitionService
         final PartitionDistribution partitionDistribution = getPartitionDistributionOrFail( regionId );
         checkState( partitionDistribution != null, "partition distribution to rebalance not found for regionId=%s", regionId );
 
-        final int[] distribution = partitionDistribution.getDistribution();
-
-        final Map<Integer, List<Integer>> currentOwnerships = getOwnershipsMap( distribution );
-
-        if ( currentOwnerships.size() == newReplicaCount )
+        if ( partitionDistribution.getReplicaCount() == newReplicaCount )
         {
             return partitionDistribution;
         }
 
-        final Map<Integer, List<Integer>> destinations = changeOwnerships( regionId, currentOwnerships, newReplicaCount );
+        // partitions are split before their ownerships are changed so that the new replicas can acquire the split partitions
+        final int newPartitionCount = max( partitionDistribution.getPartitionCount(), getPartitionCount( newReplicaCount ) );
+        final PartitionDistribution split = partitionDistribution.split( newPartitionCount );
+        final int[] splitDistribution = split.getDistribution();
+        final int[] instanceIndices = split.getInstanceIndices();
+
+        // only the local partitions are rebalanced and migrated between the replicas. the partitions owned by the other instances are
+        // rebalanced by their owners, hence they are only mapped to the existing replicas here.
+        final Map<Integer, List<Integer>> currentOwnerships = getLocalOwnershipsMap( splitDistribution,
+                                                                                     instanceIndices,
+                                                                                     partitionDistribution.getReplicaCount() );
+        final int localPartitionCount = getPartitionCount( currentOwnerships );
+        checkLocalPartitionCount( regionId, localPartitionCount, newReplicaCount );
+
+        final Map<Integer, List<Integer>> destinations = changeOwnerships( regionId,
+                                                                           localPartitionCount,
+                                                                           currentOwnerships,
+                                                                           newReplicaCount );
 
-        updateDistribution( distribution, destinations );
+        updateDistribution( splitDistribution, destinations );
+        updateRemotePartitions( splitDistribution, instanceIndices, newReplicaCount );
 
-        checkDistribution( regionId, distribution );
+        checkDistribution( regionId, splitDistribution, instanceIndices, newReplicaCount );
+
+        final int[] distribution = mergePartitions( splitDistribution, getPartitionCount( newReplicaCount ) );
+
+        checkDistribution( regionId, distribution, instanceIndices, newReplicaCount );
 
         LOGGER.debug( "partition distribution is rebalanced for regionId={} newReplicaCount={} distribution={}",
                       regionId,
                       newReplicaCount,
                       distribution );
 
-        final PartitionDistribution newDistribution = new PartitionDistribution( distribution );
+        final PartitionDistribution newDistribution = split.withReplicaIndices( distribution );
         distributions.put( regionId, newDistribution );
 
         return newDistribution;
     }
 
-    private Map<Integer, List<Integer>> getOwnershipsMap ( final int[] distribution )
+    /**
+     * Merges the split partitions back into their parent partitions, down to the given partition count, as long as a parent partition and
+     * all of its split partitions are owned by the same replica.
+     */
+    private int[] mergePartitions ( final int[] distribution, final int minPartitionCount )
+    {
+        int partitionCount = distribution.length;
+        while ( partitionCount > minPartitionCount && isMergeable( distribution, partitionCount / 2 ) )
+        {
+            partitionCount /= 2;
+        }
+
+        return partitionCount < distribution.length ? Arrays.copyOf( distribution, partitionCount ) : distribution;
+    }
+
+    private boolean isMergeable ( final int[] distribution, final int partitionCount )
+    {
+        for ( int partitionId = partitionCount; partitionId < distribution.length; partitionId++ )
+        {
+            if ( distribution[ partitionId ] != distribution[ partitionId % partitionCount ] )
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private Map<Integer, List<Integer>> getLocalOwnershipsMap ( final int[] distribution,
+                                                                final int[] instanceIndices,
+                                                                final int replicaCount )
     {
         final Map<Integer, List<Integer>> currentOwnerships = new HashMap<>();
+        for ( int replicaIndex = 0; replicaIndex < replicaCount; replicaIndex++ )
+        {
+            currentOwnerships.put( replicaIndex, new ArrayList<>() );
+        }
+
         for ( int partitionId = 0; partitionId < distribution.length; partitionId++ )
         {
-            final int replicaIndex = distribution[ partitionId ];
-            currentOwnerships.computeIfAbsent( replicaIndex, integer -> new ArrayList<>() ).add( partitionId );
+            if ( instanceIndices[ partitionId ] == instanceIndex )
+            {
+                currentOwnerships.get( distribution[ partitionId ] ).add( partitionId );
+            }
         }
 
         currentOwnerships.values().forEach( Collections::shuffle );
@@ -218,6 +359,7 @@ public class PartitionServiceImpl implements PartitionService
     }
 
     private Map<Integer, List<Integer>> changeOwnerships ( final int regionId,
+                                                           final int partitionCount,
                                                            final Map<Integer, List<Integer>> currentOwnerships,
                                                            final int newReplicaCount )
     {
@@ -246,7 +388,13 @@ public class PartitionServiceImpl implements PartitionService
 
             addToDestination( destinations, partitionId );
 
-            if ( isNewDistributionBalanced( regionId, currentOwnerships, newReplicaCount, normalCapacity, sourceReplicas, destinations ) )
+            if ( isNewDistributionBalanced( regionId,
+                                            partitionCount,
+                                            currentOwnerships,
+                                            newReplicaCount,
+                                            normalCapacity,
+                                            sourceReplicas,
+                                            destinations ) )
             {
                 break;
             }
@@ -271,6 +419,11 @@ public class PartitionServiceImpl implements PartitionService
         return e.getValue().size();
     }
 
+    private int getPartitionCount ( final Map<Integer, List<Integer>> ownerships )
+    {
+        return ownerships.values().stream().mapToInt( List::size ).sum();
+    }
+
     private void addToDestination ( final Map<Integer, List<Integer>> destinations, final int partitionId )
     {
         final List<Integer> destination = getDestination( destinations );
@@ -284,6 +437,7 @@ public class PartitionServiceImpl implements PartitionService
     }
 
     private boolean isNewDistributionBalanced ( final int regionId,
+                                                final int partitionCount,
                                                 final Map<Integer, List<Integer>> currentOwnerships,
                                                 final int newReplicaCount,
                                                 final int normalCapacity,
@@ -330,6 +484,22 @@ public class PartitionServiceImpl implements PartitionService
         return normalCapacityCount == 0 && overCapacityCount == 0;
     }
 
+    /**
+     * Maps the partitions owned by the other instances to the replicas which exist after the rebalancing. These partitions are not migrated
+     * since the local replicas do not keep their tuples. Split partitions of a parent partition are mapped to the same replica so that they
+     * can be merged back.
+     */
+    private void updateRemotePartitions ( final int[] distribution, final int[] instanceIndices, final int newReplicaCount )
+    {
+        for ( int partitionId = 0; partitionId < distribution.length; partitionId++ )
+        {
+            if ( instanceIndices[ partitionId ] != instanceIndex )
+            {
+                distribution[ partitionId ] %= newReplicaCount;
+            }
+        }
+    }
+
     private void updateDistribution ( final int[] distribution, final Map<Integer, List<Integer>> destinations )
     {
         for ( Entry<Integer, List<Integer>> e : destinations.entrySet() )
@@ -0,0 +1,101 @@
+package cs.bilkent.joker.engine.pipeline;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import cs.bilkent.joker.operator.ChainableOperator;
+import cs.bilkent.joker.operator.Operator;
+import cs.bilkent.joker.operator.OperatorDef;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.impl.InternalInvocationCtx;
+import cs.bilkent.joker.operator.impl.TuplesImpl;
+import static cs.bilkent.joker.operator.spec.OperatorType.STATELESS;
+
+/**
+ * Composes tuple functions of consecutive {@link ChainableOperator} implementations fused into an {@link OperatorReplica} into a single
+ * function. Each input tuple of the first operator is pushed through all operators of the chain in a single loop, and output tuples of
+ * the last operator are passed to its invocation context. Number of tuples consumed by each operator is added to the given tuple
+ * counts array.
+ */
+final class OperatorChain
+{
+
+    /**
+     * Checks if the given operator can be a part of a chain
+     *
+     * @param operatorDef
+     *         definition of the operator
+     * @param operator
+     *         the operator
+     *
+     * @return true if the given operator can be a part of a chain
+     */
+    static boolean isChainable ( final OperatorDef operatorDef, final Operator operator )
+    {
+        return operator instanceof ChainableOperator && operatorDef.getOperatorType() == STATELESS && operatorDef.getInputPortCount() == 1
+               && operatorDef.getOutputPortCount() == 1;
+    }
+
+
+    private final int length;
+
+    private final Consumer<Tuple> head;
+
+    /**
+     * Creates a chain for the operators between the given indices.
+     *
+     * @param startIndex
+     *         index of the first operator of the chain in the operator replica
+     * @param operators
+     *         operators of the chain
+     * @param lastInvocationCtx
+     *         invocation context of the last operator of the chain
+     * @param tupleCounts
+     *         tuple counts array of the operator replica
+     */
+    OperatorChain ( final int startIndex,
+                    final List<ChainableOperator> operators,
+                    final InternalInvocationCtx lastInvocationCtx,
+                    final long[] tupleCounts )
+    {
+        checkArgument( operators.size() > 1 );
+        this.length = operators.size();
+        Consumer<Tuple> downstream = lastInvocationCtx::output;
+        for ( int i = operators.size() - 1; i >= 0; i-- )
+        {
+            final int operatorIndex = startIndex + i;
+            final Consumer<Tuple> f = operators.get( i ).chain( downstream );
+            downstream = tuple -> {
+                tupleCounts[ operatorIndex ]++;
+                f.accept( tuple );
+            };
+        }
+        this.head = downstream;
+    }
+
+    int getLength ()
+    {
+        return length;
+    }
+
+    /**
+     * Pushes the input tuples of the first operator through the chain
+     *
+     * @param invocationCtx
+     *         invocation context of the first operator of the chain
+     */
+    void invoke ( final InternalInvocationCtx invocationCtx )
+    {
+        final List<TuplesImpl> inputs = invocationCtx.getInputs();
+        for ( int i = 0, j = invocationCtx.getInputCount(); i < j; i++ )
+        {
+            final List<Tuple> tuples = inputs.get( i ).getTuplesModifiable( 0 );
+            for ( int k = 0; k < tuples.size(); k++ )
+            {
+                head.accept( tuples.get( k ) );
+            }
+        }
+    }
+
+}
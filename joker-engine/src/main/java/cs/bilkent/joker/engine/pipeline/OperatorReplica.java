@@ -1,5 +1,6 @@
 package cs.bilkent.joker.engine.pipeline;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
@@ -23,7 +24,12 @@ import cs.bilkent.joker.engine.tuplequeue.TupleQueueDrainer;
 import cs.bilkent.joker.engine.tuplequeue.TupleQueueDrainerPool;
 import cs.bilkent.joker.engine.tuplequeue.impl.drainer.GreedyDrainer;
 import static cs.bilkent.joker.engine.util.ExceptionUtils.checkInterruption;
+import cs.bilkent.joker.engine.util.concurrent.BackoffIdleStrategy;
+import cs.bilkent.joker.engine.util.concurrent.IdleStrategy;
 import cs.bilkent.joker.flow.FlowDef;
+import cs.bilkent.joker.operator.AsyncOperator;
+import cs.bilkent.joker.operator.ChainableOperator;
+import cs.bilkent.joker.operator.ColumnarBatch;
 import cs.bilkent.joker.operator.InitCtx;
 import cs.bilkent.joker.operator.InvocationCtx.InvocationReason;
 import static cs.bilkent.joker.operator.InvocationCtx.InvocationReason.INPUT_PORT_CLOSED;
@@ -32,22 +38,29 @@ import static cs.bilkent.joker.operator.InvocationCtx.InvocationReason.SUCCESS;
 import cs.bilkent.joker.operator.Operator;
 import cs.bilkent.joker.operator.OperatorDef;
 import cs.bilkent.joker.operator.Tuple;
+import static cs.bilkent.joker.operator.TupleAccessor.isTrackingLatencyRecords;
 import static cs.bilkent.joker.operator.TupleAccessor.recordQueueLatency;
+import cs.bilkent.joker.operator.VectorizedOperator;
 import cs.bilkent.joker.operator.impl.DefaultInvocationCtx;
 import cs.bilkent.joker.operator.impl.InitCtxImpl;
 import cs.bilkent.joker.operator.impl.InternalInvocationCtx;
 import cs.bilkent.joker.operator.impl.OutputCollector;
 import cs.bilkent.joker.operator.impl.TuplesImpl;
+import cs.bilkent.joker.operator.kvstore.StateEvictionListener;
 import cs.bilkent.joker.operator.scheduling.ScheduleNever;
 import cs.bilkent.joker.operator.scheduling.ScheduleWhenAvailable;
 import cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable;
 import static cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.TupleAvailabilityByPort.ANY_PORT;
 import cs.bilkent.joker.operator.scheduling.SchedulingStrategy;
+import static cs.bilkent.joker.operator.schema.annotation.PortSchemaScope.EXACT_FIELD_SET;
+import cs.bilkent.joker.operator.schema.runtime.PortRuntimeSchema;
 import cs.bilkent.joker.partition.impl.PartitionKey;
+import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.lang.System.arraycopy;
 import static java.util.Arrays.fill;
 import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 
 /**
  * Manages runtime state of an {@link Operator} defined in a {@link FlowDef} and provides methods for operator invocation.
@@ -83,6 +96,16 @@ public class OperatorReplica
 
     private final Function<PartitionKey, TuplesImpl> drainerTuplesSupplier;
 
+    // updated by the pipeline replica thread, read by the metrics thread.
+    // i-th element is number of tuples consumed by i-th operator. last element is number of tuples produced by the last operator.
+    private final long[] tupleCounts;
+
+    // i-th element contains columnar batches of the input ports of i-th operator if it is a vectorized operator, null otherwise.
+    private final ColumnarBatch[][] inputBatches;
+
+    // used while the operator is an AsyncOperator which neither accepts input tuples nor has output tuples
+    private final IdleStrategy asyncOperatorIdleStrategy = BackoffIdleStrategy.newDefaultInstance();
+
     private TupleQueueDrainer drainer;
 
     private OperatorReplicaStatus status = INITIAL;
@@ -99,6 +122,9 @@ public class OperatorReplica
 
     private Operator[] fusedOperators;
 
+    // i-th element is the chain starting from i-th fused operator, if there is any.
+    private OperatorChain[] operatorChains;
+
     private SchedulingStrategy schedulingStrategy;
 
     private int[] minTupleCounts;
@@ -143,6 +169,8 @@ public class OperatorReplica
         }
         this.lastInvocationCtx = invocationCtxes[ fusedOperatorCount ];
         this.fusedUpstreamCtxes = new UpstreamCtx[ fusedOperatorCount ];
+        this.tupleCounts = new long[ operatorDefs.length + 1 ];
+        this.inputBatches = createInputBatches( operatorDefs );
     }
 
     private OperatorReplica ( final PipelineReplicaId pipelineReplicaId,
@@ -171,6 +199,7 @@ public class OperatorReplica
 
         this.operator = operator;
         arraycopy( fusedOperators, 0, this.fusedOperators, 0, fusedOperators.length );
+        createOperatorChains();
 
         setSchedulingStrategy( schedulingStrategy );
         setDrainer( drainerPool.acquire( schedulingStrategy ) );
@@ -179,6 +208,38 @@ public class OperatorReplica
         setStatus( RUNNING );
     }
 
+    private ColumnarBatch[][] createInputBatches ( final OperatorDef[] operatorDefs )
+    {
+        final ColumnarBatch[][] inputBatches = new ColumnarBatch[ operatorDefs.length ][];
+        for ( int i = 0; i < operatorDefs.length; i++ )
+        {
+            final OperatorDef operatorDef = operatorDefs[ i ];
+            if ( !VectorizedOperator.class.isAssignableFrom( operatorDef.getOperatorClazz() ) )
+            {
+                continue;
+            }
+
+            final ColumnarBatch[] batches = new ColumnarBatch[ operatorDef.getInputPortCount() ];
+            boolean vectorized = false;
+            for ( int portIndex = 0; portIndex < batches.length; portIndex++ )
+            {
+                final PortRuntimeSchema schema = operatorDef.getSchema().getInputSchema( portIndex );
+                if ( schema.getScope() == EXACT_FIELD_SET )
+                {
+                    batches[ portIndex ] = new ColumnarBatch( schema );
+                    vectorized = true;
+                }
+            }
+
+            if ( vectorized )
+            {
+                inputBatches[ i ] = batches;
+            }
+        }
+
+        return inputBatches;
+    }
+
     private String generateOperatorName ( final PipelineReplicaId pipelineReplicaId, final OperatorDef[] operatorDefs )
     {
         if ( operatorDefs.length == 1 )
@@ -227,6 +288,8 @@ public class OperatorReplica
                 schedulingStrategies[ i + 1 ] = initializeOperator( fusedOperatorDefs[ i ], fusedOperators[ i ], fusedUpstreamCtxes[ i ] );
             }
 
+            createOperatorChains();
+
             setStatus( RUNNING );
             LOGGER.info( "{} initialized. Initial scheduling strategies: {} Drainer: {}",
                          operatorName,
@@ -243,6 +306,31 @@ public class OperatorReplica
         }
     }
 
+    private void createOperatorChains ()
+    {
+        operatorChains = new OperatorChain[ fusedOperators.length ];
+        int i = 0;
+        while ( i < fusedOperators.length )
+        {
+            int j = i;
+            final List<ChainableOperator> operators = new ArrayList<>();
+            while ( j < fusedOperators.length && OperatorChain.isChainable( fusedOperatorDefs[ j ], fusedOperators[ j ] ) )
+            {
+                operators.add( (ChainableOperator) fusedOperators[ j++ ] );
+            }
+
+            if ( operators.size() > 1 )
+            {
+                operatorChains[ i ] = new OperatorChain( i + 1, operators, fusedInvocationCtxes[ j - 1 ], tupleCounts );
+                LOGGER.info( "{} chained fused operators: {}",
+                             operatorName,
+                             Arrays.stream( fusedOperatorDefs, i, j ).map( OperatorDef::getId ).collect( toList() ) );
+            }
+
+            i = max( j, i + 1 );
+        }
+    }
+
     private void setStatus ( final OperatorReplicaStatus status )
     {
         this.status = status;
@@ -296,6 +384,9 @@ public class OperatorReplica
      * - if the scheduling strategy is {@link ScheduleWhenTuplesAvailable} and operator is not invokable with the new upstream context
      * anymore, it invokes the operator with {@link InvocationReason#INPUT_PORT_CLOSED},
      * <p>
+     * If the operator is an {@link AsyncOperator}, its input tuples are not drained while it cannot accept them, and it is invoked
+     * successfully without input tuples if it has output tuples and there is no change in the upstream context.
+     * <p>
      * When the operator is in {@link OperatorReplicaStatus#COMPLETING} status:
      * It invokes the operator successfully if it can drain a non-empty input from the tuple queues. If there is no non-empty input:
      * - it performs the final invocation and moves the operator to {@link OperatorReplicaStatus#COMPLETED} status
@@ -321,7 +412,14 @@ public class OperatorReplica
         checkState( status == RUNNING || status == COMPLETING, operatorName );
 
         offer( upstreamInput );
-        drainQueue( drainerMaySkipBlocking );
+        if ( status == RUNNING && isHoldingBackInput() )
+        {
+            resetInvocationCtxes();
+        }
+        else
+        {
+            drainQueue( drainerMaySkipBlocking );
+        }
 
         if ( status == RUNNING )
         {
@@ -359,8 +457,19 @@ public class OperatorReplica
                     return null;
                 }
             }
+            else if ( hasAvailableAsyncOutput() )
+            {
+                asyncOperatorIdleStrategy.reset();
+                drainerTuplesSupplier.apply( null );
+                invokeOperators( SUCCESS );
+            }
             else
             {
+                if ( isHoldingBackInput() )
+                {
+                    asyncOperatorIdleStrategy.idle();
+                }
+
                 return null;
             }
         }
@@ -394,6 +503,16 @@ public class OperatorReplica
         return lastInvocationCtx.getOutput();
     }
 
+    private boolean isHoldingBackInput ()
+    {
+        return operator instanceof AsyncOperator && !( (AsyncOperator) operator ).canAcceptInput();
+    }
+
+    private boolean hasAvailableAsyncOutput ()
+    {
+        return operator instanceof AsyncOperator && ( (AsyncOperator) operator ).hasAvailableOutput();
+    }
+
     private void drainQueue ( final boolean drainerMaySkipBlocking )
     {
         resetInvocationCtxes();
@@ -448,9 +567,10 @@ public class OperatorReplica
 
     private void invokeOperators ( final InvocationReason reason )
     {
-        invokeOperator( operatorDef, reason, invocationCtx, operator );
+        invokeOperator( 0, operatorDef, reason, invocationCtx, operator );
 
-        for ( int i = 0; i < fusedOperators.length; i++ )
+        int i = 0;
+        while ( i < fusedOperators.length )
         {
             final InternalInvocationCtx invocationCtx = fusedInvocationCtxes[ i ];
             if ( invocationCtx.getInputCount() == 0 )
@@ -458,11 +578,47 @@ public class OperatorReplica
                 break;
             }
 
-            invokeOperator( fusedOperatorDefs[ i ], reason, invocationCtx, fusedOperators[ i ] );
+            final OperatorChain chain = operatorChains[ i ];
+            if ( chain != null && canInvokeChain( invocationCtx ) )
+            {
+                chain.invoke( invocationCtx );
+                i += chain.getLength();
+            }
+            else
+            {
+                invokeOperator( i + 1, fusedOperatorDefs[ i ], reason, invocationCtx, fusedOperators[ i ] );
+                i++;
+            }
+        }
+
+        tupleCounts[ tupleCounts.length - 1 ] += countTuples( lastInvocationCtx.getOutput() );
+    }
+
+    /**
+     * Operator chains are not used when the pipeline replica meter samples the invoked operators, or tuples contain latency records,
+     * so that the metrics are collected for each operator separately.
+     */
+    private boolean canInvokeChain ( final InternalInvocationCtx invocationCtx )
+    {
+        if ( meter.isTicked() )
+        {
+            return false;
+        }
+
+        final List<TuplesImpl> inputs = invocationCtx.getInputs();
+        for ( int i = 0, j = invocationCtx.getInputCount(); i < j; i++ )
+        {
+            if ( isTrackingLatencyRecords( inputs.get( i ) ) )
+            {
+                return false;
+            }
         }
+
+        return true;
     }
 
-    private void invokeOperator ( final OperatorDef operatorDef,
+    private void invokeOperator ( final int operatorIndex,
+                                  final OperatorDef operatorDef,
                                   final InvocationReason reason,
                                   final InternalInvocationCtx invocationCtx,
                                   final Operator operator )
@@ -470,18 +626,51 @@ public class OperatorReplica
         invocationCtx.setInvocationReason( reason );
         meter.onInvocationStart( operatorDef.getId() );
         final long start = System.nanoTime();
+        final ColumnarBatch[] batches = inputBatches[ operatorIndex ];
         do
         {
-            operator.invoke( invocationCtx );
+            if ( batches != null )
+            {
+                for ( int portIndex = 0; portIndex < batches.length; portIndex++ )
+                {
+                    if ( batches[ portIndex ] != null )
+                    {
+                        batches[ portIndex ].reset( invocationCtx.getInputTuples( portIndex ) );
+                    }
+                }
+                ( (VectorizedOperator) operator ).invoke( invocationCtx, batches );
+            }
+            else
+            {
+                operator.invoke( invocationCtx );
+            }
         } while ( invocationCtx.nextInput() );
+        invocationCtx.evictStates( operator instanceof StateEvictionListener ? (StateEvictionListener) operator : null );
         final long end = System.nanoTime();
         meter.onInvocationComplete( operatorDef.getId() );
 
         meter.count( operatorDef.getId(), invocationCtx.getInputs(), invocationCtx.getInputCount() );
+        final List<TuplesImpl> inputs = invocationCtx.getInputs();
+        for ( int i = 0, j = invocationCtx.getInputCount(); i < j; i++ )
+        {
+            tupleCounts[ operatorIndex ] += countTuples( inputs.get( i ) );
+        }
+
         final OutputCollector outputCollector = invocationCtx.getOutputCollector();
         outputCollector.recordInvocationLatency( operatorDef.getId(), ( end - start ) );
     }
 
+    private int countTuples ( final TuplesImpl tuples )
+    {
+        int count = 0;
+        for ( int portIndex = 0, portCount = tuples.getPortCount(); portIndex < portCount; portIndex++ )
+        {
+            count += tuples.getTupleCount( portIndex );
+        }
+
+        return count;
+    }
+
     /**
      * Updates the scheduling strategy of the operator with new scheduling strategy given in the argument.
      */
@@ -727,6 +916,30 @@ public class OperatorReplica
         return invocationCtxes;
     }
 
+    /**
+     * Reads number of tuples consumed and produced by the operators since the operator replica is created.
+     * Number of tuples produced by an operator is equal to number of tuples consumed by the next fused operator.
+     *
+     * @param inboundTupleCounts
+     *         array to write number of tuples consumed by the operators
+     * @param outboundTupleCounts
+     *         array to write number of tuples produced by the operators
+     * @param offset
+     *         index of the first operator in the given arrays
+     */
+    public void readTupleCounts ( final long[] inboundTupleCounts, final long[] outboundTupleCounts, final int offset )
+    {
+        final int operatorCount = getOperatorCount();
+        checkArgument( inboundTupleCounts.length >= offset + operatorCount );
+        checkArgument( outboundTupleCounts.length >= offset + operatorCount );
+
+        for ( int i = 0; i < operatorCount; i++ )
+        {
+            inboundTupleCounts[ offset + i ] = tupleCounts[ i ];
+            outboundTupleCounts[ offset + i ] = tupleCounts[ i + 1 ];
+        }
+    }
+
     public PipelineReplicaMeter getMeter ()
     {
         return meter;
@@ -3,7 +3,9 @@ package cs.bilkent.joker.engine.pipeline;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -26,6 +28,7 @@ import static cs.bilkent.joker.engine.pipeline.OperatorReplicaStatus.INITIAL;
 import static cs.bilkent.joker.engine.pipeline.OperatorReplicaStatus.RUNNING;
 import static cs.bilkent.joker.engine.pipeline.OperatorReplicaStatus.SHUT_DOWN;
 import cs.bilkent.joker.engine.pipeline.PipelineReplicaRunner.PipelineReplicaRunnerStatus;
+import cs.bilkent.joker.engine.pipeline.PipelineReplicaRunnerThreadPool.Execution;
 import cs.bilkent.joker.engine.region.Region;
 import cs.bilkent.joker.engine.supervisor.Supervisor;
 import static cs.bilkent.joker.engine.util.ExceptionUtils.checkInterruption;
@@ -59,7 +62,7 @@ public class Pipeline
 
     private PipelineReplicaRunner[] runners;
 
-    private Thread[] threads;
+    private Execution[] runnerExecutions;
 
     private volatile DownstreamCollector[] downstreamCollectors;
 
@@ -77,7 +80,7 @@ public class Pipeline
         this.fusedOperatorUpstreamCtxes = region.getFusedUpstreamCtxes( id );
         this.replicas = region.getPipelineReplicas( id );
         final int replicaCount = regionExecPlan.getReplicaCount();
-        this.threads = new Thread[ replicaCount ];
+        this.runnerExecutions = new Execution[ replicaCount ];
         this.pipelineStatus = INITIAL;
         this.replicaStatuses = new OperatorReplicaStatus[ replicaCount ];
         fill( this.replicaStatuses, INITIAL );
@@ -199,33 +202,76 @@ public class Pipeline
                 pipelineReplica.init( fusedOperatorSchedulingStrategies, fusedOperatorUpstreamCtxes );
             }
 
-            setUpstreamCtx( operatorUpstreamCtxes[ 0 ] );
-            pipelineStatus = RUNNING;
-            fill( replicaStatuses, RUNNING );
+            completeInit();
         }
         catch ( Exception e1 )
         {
             checkInterruption( e1 );
-            for ( int replicaIndex = 0; replicaIndex < getReplicaCount(); replicaIndex++ )
-            {
-                final PipelineReplica pipelineReplica = replicas[ replicaIndex ];
-                try
-                {
-                    LOGGER.warn( "Shutting down Replica {} of Pipeline {}", replicaIndex, id );
-                    pipelineReplica.shutdown();
-                }
-                catch ( Exception e2 )
-                {
-                    checkInterruption( e2 );
+            shutdownReplicasOnInitFailure();
 
-                    LOGGER.error( "Shutdown of PipelineReplica=" + pipelineReplica.id() + "  failed!", e2 );
-                }
+            throw new InitializationException( "Initialization of Pipeline " + id + " failed!", e1 );
+        }
+    }
+
+    /**
+     * Initializes the replicas concurrently on the given executor. The returned future is completed after all replicas are initialized,
+     * or completed exceptionally with {@link InitializationException} after all replicas are shut down if any of them fails.
+     */
+    public CompletableFuture<Void> initAsync ( final Executor executor )
+    {
+        final int replicaIndexToInit = getReplicaIndexToInit();
+        final CompletableFuture[] futures = new CompletableFuture[ getReplicaCount() - replicaIndexToInit ];
+        for ( int replicaIndex = replicaIndexToInit; replicaIndex < getReplicaCount(); replicaIndex++ )
+        {
+            checkState( replicaStatuses[ replicaIndex ] == INITIAL );
+            final PipelineReplica pipelineReplica = replicas[ replicaIndex ];
+            final int i = replicaIndex;
+            futures[ replicaIndex - replicaIndexToInit ] = CompletableFuture.runAsync( () -> {
+                LOGGER.debug( "Initializing Replica {} of Pipeline {} with {}", i, id, upstreamCtx );
+                pipelineReplica.init( fusedOperatorSchedulingStrategies, fusedOperatorUpstreamCtxes );
+            }, executor );
+        }
+
+        // allOf() is completed after all replicas are done, hence the failed ones are shut down together with the initialized ones
+        return CompletableFuture.allOf( futures ).handle( ( result, throwable ) -> {
+            if ( throwable == null )
+            {
+                completeInit();
+                return null;
             }
 
-            pipelineStatus = SHUT_DOWN;
+            shutdownReplicasOnInitFailure();
+            final Throwable cause = throwable.getCause() != null ? throwable.getCause() : throwable;
+            throw new InitializationException( "Initialization of Pipeline " + id + " failed!", cause );
+        } );
+    }
 
-            throw new InitializationException( "Initialization of Pipeline " + id + " failed!", e1 );
+    private void completeInit ()
+    {
+        setUpstreamCtx( operatorUpstreamCtxes[ 0 ] );
+        pipelineStatus = RUNNING;
+        fill( replicaStatuses, RUNNING );
+    }
+
+    private void shutdownReplicasOnInitFailure ()
+    {
+        for ( int replicaIndex = 0; replicaIndex < getReplicaCount(); replicaIndex++ )
+        {
+            final PipelineReplica pipelineReplica = replicas[ replicaIndex ];
+            try
+            {
+                LOGGER.warn( "Shutting down Replica {} of Pipeline {}", replicaIndex, id );
+                pipelineReplica.shutdown();
+            }
+            catch ( Exception e2 )
+            {
+                checkInterruption( e2 );
+
+                LOGGER.error( "Shutdown of PipelineReplica=" + pipelineReplica.id() + "  failed!", e2 );
+            }
         }
+
+        pipelineStatus = SHUT_DOWN;
     }
 
     private int getReplicaIndexToInit ()
@@ -339,41 +385,41 @@ public class Pipeline
         return true;
     }
 
-    public void startPipelineReplicaRunners ( final JokerConfig jokerConfig, final Supervisor supervisor, final ThreadGroup threadGroup )
+    public void startPipelineReplicaRunners ( final JokerConfig jokerConfig,
+                                              final Supervisor supervisor,
+                                              final PipelineReplicaRunnerThreadPool threadPool )
     {
         checkArgument( jokerConfig != null, "cannot start pipeline %s replica runners since config is null", id );
         checkArgument( supervisor != null, "cannot start pipeline %s replica runners since supervisor is null", id );
-        checkArgument( threadGroup != null, "cannot start pipeline %s replica runners since threadGroup is null", id );
+        checkArgument( threadPool != null, "cannot start pipeline %s replica runners since thread pool is null", id );
         checkState( pipelineStatus == RUNNING, "cannot create pipeline %s replica runners since in %s status", id, pipelineStatus );
         checkState( runnerStatus == null, "cannot create pipeline %s replica runners since runner status is %s", id, runnerStatus );
 
-        createPipelineReplicaRunners( jokerConfig, supervisor, threadGroup );
-        startPipelineReplicaRunnerThreads();
+        createPipelineReplicaRunners( jokerConfig, supervisor );
+        startPipelineReplicaRunnerThreads( threadPool );
 
         runnerStatus = PipelineReplicaRunnerStatus.RUNNING;
     }
 
-    private void createPipelineReplicaRunners ( final JokerConfig jokerConfig, final Supervisor supervisor, final ThreadGroup threadGroup )
+    private void createPipelineReplicaRunners ( final JokerConfig jokerConfig, final Supervisor supervisor )
     {
         for ( int replicaIndex = 0; replicaIndex < getReplicaCount(); replicaIndex++ )
         {
             final PipelineReplica replica = replicas[ replicaIndex ];
             final DownstreamCollector downstreamCollector = downstreamCollectors[ replicaIndex ];
             final PipelineReplicaRunner runner = new PipelineReplicaRunner( jokerConfig, replica, supervisor, downstreamCollector );
-            final String threadName = getThreadName( threadGroup, replica );
-            final Thread thread = new Thread( threadGroup, runner, threadName );
-            setPipelineReplicaRunner( replicaIndex, runner, thread );
+            setPipelineReplicaRunner( replicaIndex, runner );
         }
 
-        LOGGER.info( "Created runners and threads for pipeline: {}", id );
+        LOGGER.info( "Created runners for pipeline: {}", id );
     }
 
-    private String getThreadName ( final ThreadGroup threadGroup, final PipelineReplica replica )
+    private String getThreadName ( final PipelineReplicaRunnerThreadPool threadPool, final PipelineReplica replica )
     {
-        return threadGroup.getName() + "-" + replica.id();
+        return threadPool.getName() + "-" + replica.id();
     }
 
-    private void setPipelineReplicaRunner ( final int replicaIndex, final PipelineReplicaRunner pipelineReplicaRunner, final Thread thread )
+    private void setPipelineReplicaRunner ( final int replicaIndex, final PipelineReplicaRunner pipelineReplicaRunner )
     {
         checkArgument( pipelineReplicaRunner != null,
                        "Cannot set null pipeline replica runner for replicaIndex=%s of Pipeline %s",
@@ -383,20 +429,20 @@ public class Pipeline
                     "Cannot set pipeline replica runner for replicaIndex=%s for Pipeline %s",
                     replicaIndex,
                     id );
-        checkState( threads[ replicaIndex ] == null,
+        checkState( runnerExecutions[ replicaIndex ] == null,
                     "Cannot set pipeline replica runner thread for replicaIndex=%s for Pipeline %s",
                     replicaIndex,
                     id );
 
         runners[ replicaIndex ] = pipelineReplicaRunner;
-        threads[ replicaIndex ] = thread;
     }
 
-    private void startPipelineReplicaRunnerThreads ()
+    private void startPipelineReplicaRunnerThreads ( final PipelineReplicaRunnerThreadPool threadPool )
     {
-        for ( Thread thread : threads )
+        for ( int replicaIndex = 0; replicaIndex < getReplicaCount(); replicaIndex++ )
         {
-            thread.start();
+            final String threadName = getThreadName( threadPool, replicas[ replicaIndex ] );
+            runnerExecutions[ replicaIndex ] = threadPool.execute( runners[ replicaIndex ], threadName );
         }
 
         LOGGER.info( "Pipeline {} threads are started", id );
@@ -458,14 +504,16 @@ public class Pipeline
         final OperatorDef[] operatorDefs = regionExecPlan.getOperatorDefsByPipelineStartIndex( id.getPipelineStartIndex() );
         final long[] threadIds = new long[ replicaCount ];
         final PipelineReplicaMeter[] replicaMeters = new PipelineReplicaMeter[ replicaCount ];
+        final OperatorReplica[][] operatorReplicas = new OperatorReplica[ replicaCount ][];
 
         for ( int replicaIndex = 0; replicaIndex < replicaCount; replicaIndex++ )
         {
-            threadIds[ replicaIndex ] = threads[ replicaIndex ].getId();
+            threadIds[ replicaIndex ] = runnerExecutions[ replicaIndex ].getThreadId();
             replicaMeters[ replicaIndex ] = replicas[ replicaIndex ].getMeter();
+            operatorReplicas[ replicaIndex ] = replicas[ replicaIndex ].getOperators();
         }
 
-        return new PipelineMeter( id, operatorDefs, replicaCount, threadIds, replicaMeters );
+        return new PipelineMeter( id, operatorDefs, replicaCount, threadIds, replicaMeters, operatorReplicas );
     }
 
     public List<Exception> stopPipelineReplicaRunners ( final long timeoutInMillis )
@@ -545,11 +593,11 @@ public class Pipeline
     {
         for ( int replicaIndex = 0; replicaIndex < getReplicaCount(); replicaIndex++ )
         {
-            final Thread thread = threads[ replicaIndex ];
-            threads[ replicaIndex ] = null;
+            final Execution execution = runnerExecutions[ replicaIndex ];
+            runnerExecutions[ replicaIndex ] = null;
             try
             {
-                thread.join( timeoutInMillis );
+                execution.join( timeoutInMillis );
             }
             catch ( InterruptedException e )
             {
@@ -36,6 +36,8 @@ public interface PipelineManager
 
     boolean handlePipelineReplicaCompleted ( PipelineReplicaId id );
 
+    void handleRemotePartitionSendersCompleted ();
+
     void handlePipelineReplicaFailed ( PipelineReplicaId id, Throwable failure );
 
     FlowStatus getFlowStatus ();
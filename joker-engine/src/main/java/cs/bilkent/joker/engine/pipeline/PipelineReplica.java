@@ -13,6 +13,8 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import cs.bilkent.joker.engine.exception.InitializationException;
 import cs.bilkent.joker.engine.flow.RegionDef;
+import static cs.bilkent.joker.engine.jfr.FlightRecorderEvents.beginPipelineReplicaInvocation;
+import static cs.bilkent.joker.engine.jfr.FlightRecorderEvents.commitPipelineReplicaInvocation;
 import cs.bilkent.joker.engine.metric.PipelineReplicaMeter;
 import static cs.bilkent.joker.engine.pipeline.OperatorReplicaStatus.INITIAL;
 import static cs.bilkent.joker.engine.pipeline.OperatorReplicaStatus.RUNNING;
@@ -177,6 +179,8 @@ public class PipelineReplica
     public TuplesImpl invoke ()
     {
         meter.tryTick();
+        final Object event = meter.isTicked() ? beginPipelineReplicaInvocation() : null;
+
         inputTuplesSupplier.reset();
         queue.drain( drainerMaySkipBlocking, drainer, inputTuplesSupplier );
 
@@ -190,6 +194,8 @@ public class PipelineReplica
 
         drainerMaySkipBlocking = invoked;
 
+        commitPipelineReplicaInvocation( event, id, invoked, tuples );
+
         return tuples;
     }
 
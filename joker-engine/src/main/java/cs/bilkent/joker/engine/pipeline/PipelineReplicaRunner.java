@@ -9,6 +9,9 @@ import org.slf4j.LoggerFactory;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import cs.bilkent.joker.engine.config.JokerConfig;
+import static cs.bilkent.joker.engine.jfr.FlightRecorderEvents.beginPipelineReplicaRunnerCommand;
+import static cs.bilkent.joker.engine.jfr.FlightRecorderEvents.commitPipelineReplicaRunnerCommand;
+import static cs.bilkent.joker.engine.jfr.FlightRecorderEvents.setPipelineReplicaRunnerCommand;
 import static cs.bilkent.joker.engine.pipeline.PipelineReplicaRunner.PipelineReplicaRunnerCommandType.PAUSE;
 import static cs.bilkent.joker.engine.pipeline.PipelineReplicaRunner.PipelineReplicaRunnerCommandType.REFRESH;
 import static cs.bilkent.joker.engine.pipeline.PipelineReplicaRunner.PipelineReplicaRunnerCommandType.RESUME;
@@ -413,6 +416,8 @@ public class PipelineReplicaRunner implements Runnable
         PipelineReplicaRunnerCommand command = this.command;
         if ( command != null )
         {
+            final Object event = beginPipelineReplicaRunnerCommand();
+
             synchronized ( monitor )
             {
                 // we are re-reading the command here because it can be updated by one of the API methods before we acquire the lock
@@ -424,6 +429,8 @@ public class PipelineReplicaRunner implements Runnable
                     return this.status;
                 }
 
+                setPipelineReplicaRunnerCommand( event, command.type.name(), System.nanoTime() - command.issueTime );
+
                 final UpstreamCtx pipelineUpstreamCtx = supervisor.getUpstreamCtx( id );
                 final DownstreamCollector downstreamCollector = supervisor.getDownstreamCollector( id );
 
@@ -481,6 +488,8 @@ public class PipelineReplicaRunner implements Runnable
                     }
                 }
             }
+
+            commitPipelineReplicaRunnerCommand( event, id, status.name() );
         }
 
         return status;
@@ -566,6 +575,8 @@ public class PipelineReplicaRunner implements Runnable
 
         private final CompletableFuture<Boolean> future;
 
+        private final long issueTime = System.nanoTime();
+
         private PipelineReplicaRunnerCommand ( final PipelineReplicaRunnerCommandType type )
         {
             this( type, new CompletableFuture<>() );
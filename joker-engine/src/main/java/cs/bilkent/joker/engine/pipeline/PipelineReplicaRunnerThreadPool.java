@@ -0,0 +1,246 @@
+package cs.bilkent.joker.engine.pipeline;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CountDownLatch;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Runs {@link PipelineReplicaRunner} objects on dedicated threads. Since a runner occupies its thread until it is stopped, a thread runs
+ * a single runner at a time. Once the runner completes, the thread waits for another runner, which can belong to another flow, until it
+ * stays idle for the keep-alive time. With zero keep-alive time, each runner gets a new thread which terminates with the runner.
+ */
+@ThreadSafe
+public class PipelineReplicaRunnerThreadPool
+{
+
+    private static final Logger LOGGER = LoggerFactory.getLogger( PipelineReplicaRunnerThreadPool.class );
+
+
+    private final ThreadGroup threadGroup;
+
+    private final long keepAliveTimeInMillis;
+
+    private final Object monitor = new Object();
+
+    @GuardedBy( "monitor" )
+    private final Deque<Worker> idleWorkers = new ArrayDeque<>();
+
+    @GuardedBy( "monitor" )
+    private int workerCount;
+
+    @GuardedBy( "monitor" )
+    private int workerIndex;
+
+    @GuardedBy( "monitor" )
+    private boolean shutdown;
+
+    public PipelineReplicaRunnerThreadPool ( final ThreadGroup threadGroup, final long keepAliveTimeInMillis )
+    {
+        checkArgument( threadGroup != null );
+        checkArgument( keepAliveTimeInMillis >= 0 );
+        this.threadGroup = threadGroup;
+        this.keepAliveTimeInMillis = keepAliveTimeInMillis;
+    }
+
+    public String getName ()
+    {
+        return threadGroup.getName();
+    }
+
+    /**
+     * Runs the given runner on an idle thread of the pool, or on a new thread if there is no idle thread.
+     *
+     * @param runner
+     *         runner to be executed
+     * @param threadName
+     *         name of the thread while it runs the runner
+     *
+     * @return execution of the runner, which gives the thread running the runner and notifies completion of the runner
+     */
+    public Execution execute ( final Runnable runner, final String threadName )
+    {
+        checkArgument( runner != null );
+        checkArgument( threadName != null );
+
+        synchronized ( monitor )
+        {
+            checkState( !shutdown, "cannot execute %s since pool %s is shut down", threadName, getName() );
+
+            Worker worker = idleWorkers.pollLast();
+            final Execution execution;
+            if ( worker != null )
+            {
+                execution = new Execution( runner, threadName, worker );
+                worker.execution = execution;
+                monitor.notifyAll();
+            }
+            else
+            {
+                worker = new Worker( getName() + "-Idle-" + workerIndex++ );
+                execution = new Execution( runner, threadName, worker );
+                worker.execution = execution;
+                workerCount++;
+                worker.start();
+            }
+
+            return execution;
+        }
+    }
+
+    /**
+     * Returns number of the alive threads of the pool, including the idle ones
+     */
+    public int getThreadCount ()
+    {
+        synchronized ( monitor )
+        {
+            return workerCount;
+        }
+    }
+
+    /**
+     * Terminates the idle threads. The threads running runners terminate once their runners complete.
+     */
+    public void shutdown ()
+    {
+        synchronized ( monitor )
+        {
+            shutdown = true;
+            monitor.notifyAll();
+        }
+
+        LOGGER.info( "Pipeline replica runner thread pool {} is shut down", getName() );
+    }
+
+    public static class Execution
+    {
+
+        private final Runnable runner;
+
+        private final String threadName;
+
+        private final Thread thread;
+
+        private final CountDownLatch completionLatch = new CountDownLatch( 1 );
+
+        private Execution ( final Runnable runner, final String threadName, final Thread thread )
+        {
+            this.runner = runner;
+            this.threadName = threadName;
+            this.thread = thread;
+        }
+
+        public long getThreadId ()
+        {
+            return thread.getId();
+        }
+
+        /**
+         * Waits until the runner completes, or the given timeout elapses.
+         *
+         * @return true if the runner is completed
+         */
+        public boolean join ( final long timeoutInMillis ) throws InterruptedException
+        {
+            return completionLatch.await( timeoutInMillis, MILLISECONDS );
+        }
+
+        private void run ()
+        {
+            final String idleThreadName = thread.getName();
+            thread.setName( threadName );
+            try
+            {
+                runner.run();
+            }
+            catch ( Throwable t )
+            {
+                LOGGER.error( threadName + " failed", t );
+            }
+            finally
+            {
+                // the runner may leave the interrupt flag set, which must not leak into the next runner of the thread
+                Thread.interrupted();
+                thread.setName( idleThreadName );
+            }
+        }
+
+        private void complete ()
+        {
+            completionLatch.countDown();
+        }
+
+    }
+
+
+    private class Worker extends Thread
+    {
+
+        @GuardedBy( "monitor" )
+        private Execution execution;
+
+        Worker ( final String name )
+        {
+            super( threadGroup, name );
+        }
+
+        @Override
+        public void run ()
+        {
+            Execution execution;
+            while ( ( execution = awaitExecution() ) != null )
+            {
+                execution.run();
+                // the thread becomes idle before the completion is notified, so that it can be reused right after the completion
+                synchronized ( monitor )
+                {
+                    this.execution = null;
+                    idleWorkers.addLast( this );
+                }
+                execution.complete();
+            }
+        }
+
+        private Execution awaitExecution ()
+        {
+            synchronized ( monitor )
+            {
+                final long deadline = System.currentTimeMillis() + keepAliveTimeInMillis;
+                boolean interrupted = false;
+                while ( execution == null )
+                {
+                    final long remaining = deadline - System.currentTimeMillis();
+                    if ( shutdown || interrupted || remaining <= 0 )
+                    {
+                        idleWorkers.remove( this );
+                        workerCount--;
+                        return null;
+                    }
+
+                    try
+                    {
+                        monitor.wait( remaining );
+                    }
+                    catch ( InterruptedException e )
+                    {
+                        Thread.currentThread().interrupt();
+                        interrupted = true;
+                    }
+                }
+
+                return execution;
+            }
+        }
+
+    }
+
+}
@@ -8,9 +8,18 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
 import javax.annotation.concurrent.NotThreadSafe;
@@ -22,6 +31,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
@@ -43,12 +53,15 @@ import cs.bilkent.joker.engine.partition.PartitionDistribution;
 import cs.bilkent.joker.engine.partition.PartitionKeyExtractor;
 import cs.bilkent.joker.engine.partition.PartitionKeyExtractorFactory;
 import cs.bilkent.joker.engine.partition.PartitionService;
+import cs.bilkent.joker.engine.partition.PartitionTransport;
+import cs.bilkent.joker.engine.partition.PartitionTransport.PartitionTupleReceiver;
 import cs.bilkent.joker.engine.pipeline.DownstreamCollector;
 import cs.bilkent.joker.engine.pipeline.OperatorReplicaStatus;
 import cs.bilkent.joker.engine.pipeline.Pipeline;
 import cs.bilkent.joker.engine.pipeline.PipelineManager;
 import cs.bilkent.joker.engine.pipeline.PipelineReplica;
 import cs.bilkent.joker.engine.pipeline.PipelineReplicaId;
+import cs.bilkent.joker.engine.pipeline.PipelineReplicaRunnerThreadPool;
 import cs.bilkent.joker.engine.pipeline.UpstreamCtx;
 import cs.bilkent.joker.engine.pipeline.UpstreamCtx.ConnectionStatus;
 import static cs.bilkent.joker.engine.pipeline.UpstreamCtx.ConnectionStatus.CLOSED;
@@ -57,8 +70,11 @@ import static cs.bilkent.joker.engine.pipeline.UpstreamCtx.createShutdownSourceU
 import cs.bilkent.joker.engine.pipeline.impl.downstreamcollector.CompositeDownstreamCollector;
 import cs.bilkent.joker.engine.pipeline.impl.downstreamcollector.DownstreamCollector1;
 import cs.bilkent.joker.engine.pipeline.impl.downstreamcollector.DownstreamCollectorN;
+import cs.bilkent.joker.engine.pipeline.impl.downstreamcollector.LoadBalancedDownstreamCollector1;
+import cs.bilkent.joker.engine.pipeline.impl.downstreamcollector.LoadBalancedDownstreamCollectorN;
 import cs.bilkent.joker.engine.pipeline.impl.downstreamcollector.PartitionedDownstreamCollector1;
 import cs.bilkent.joker.engine.pipeline.impl.downstreamcollector.PartitionedDownstreamCollectorN;
+import cs.bilkent.joker.engine.pipeline.impl.downstreamcollector.RemotePartitionSender;
 import cs.bilkent.joker.engine.region.Region;
 import cs.bilkent.joker.engine.region.RegionManager;
 import cs.bilkent.joker.engine.supervisor.Supervisor;
@@ -68,6 +84,8 @@ import cs.bilkent.joker.flow.FlowDef;
 import cs.bilkent.joker.flow.Port;
 import cs.bilkent.joker.operator.OperatorDef;
 import cs.bilkent.joker.operator.Tuple;
+import static cs.bilkent.joker.operator.TupleAccessor.enableLatencyRecords;
+import static cs.bilkent.joker.operator.TupleAccessor.isIngestionTimeNA;
 import static cs.bilkent.joker.operator.TupleAccessor.recordLatencies;
 import static cs.bilkent.joker.operator.TupleAccessor.setIngestionTime;
 import cs.bilkent.joker.operator.impl.TuplesImpl;
@@ -79,6 +97,7 @@ import static java.lang.Math.min;
 import static java.util.Collections.reverse;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.sort;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.Comparator.comparing;
 import static java.util.Comparator.comparingInt;
 import static java.util.stream.Collectors.toList;
@@ -110,10 +129,39 @@ public class PipelineManagerImpl implements PipelineManager
 
     private final ThreadGroup jokerThreadGroup;
 
+    private final PipelineReplicaRunnerThreadPool runnerThreadPool;
+
     private final BiFunction<List<Pair<Integer, Integer>>, OperatorQueue, DownstreamCollector>[] defaultDownstreamCollectorCtors = new BiFunction[ 6 ];
 
-    private final Function6<List<Pair<Integer, Integer>>, Integer, int[], OperatorQueue[], PartitionKeyExtractor, DownstreamCollector>[]
-            partitionedDownstreamCollectorCtors = new Function6[ 6 ];
+    private final Function7<List<Pair<Integer, Integer>>, Integer, int[], OperatorQueue[], PartitionKeyExtractor, RemotePartitionSender,
+                                   DownstreamCollector>[] partitionedDownstreamCollectorCtors = new Function7[ 6 ];
+
+    private final BiFunction<List<Pair<Integer, Integer>>, OperatorQueue[], DownstreamCollector>[] loadBalancedDownstreamCollectorCtors =
+            new BiFunction[ 6 ];
+
+    private final PartitionTransport partitionTransport;
+
+    private final int instanceIndex;
+
+    /**
+     * Collectors which pass the tuples received from the other Joker instances to the partitioned regions, by their first operator ids
+     * and input ports. Tuples are not received while a partitioned region is rebalanced.
+     */
+    private final Map<Pair<String, Integer>, DownstreamCollector> remotePartitionCollectors = new ConcurrentHashMap<>();
+
+    private final ReadWriteLock remotePartitionLock = new ReentrantReadWriteLock();
+
+    private final int instanceCount;
+
+    /**
+     * Indices of the other Joker instances which complete sending the tuples of the local partitions. Partitioned regions are not completed
+     * until all of the other instances complete sending tuples.
+     */
+    private final Set<Integer> completedRemotePartitionSenders = ConcurrentHashMap.newKeySet();
+
+    private boolean remotePartitionSendingCompleted;
+
+    private boolean partitionTransportBound;
 
     private Supervisor supervisor;
 
@@ -134,7 +182,9 @@ public class PipelineManagerImpl implements PipelineManager
                                  final PartitionKeyExtractorFactory partitionKeyExtractorFactory,
                                  final MetricManager metricManager,
                                  @Named( DOWNSTREAM_FAILURE_FLAG_NAME ) final AtomicBoolean downstreamCollectorFailureFlag,
-                                 @Named( JOKER_THREAD_GROUP_NAME ) final ThreadGroup jokerThreadGroup )
+                                 @Named( JOKER_THREAD_GROUP_NAME ) final ThreadGroup jokerThreadGroup,
+                                 final Optional<PartitionTransport> partitionTransport,
+                                 final Optional<PipelineReplicaRunnerThreadPool> sharedRunnerThreadPool )
     {
         this.jokerConfig = jokerConfig;
         this.regionManager = regionManager;
@@ -143,6 +193,10 @@ public class PipelineManagerImpl implements PipelineManager
         this.metricManager = metricManager;
         this.downstreamCollectorFailureFlag = downstreamCollectorFailureFlag;
         this.jokerThreadGroup = jokerThreadGroup;
+        this.runnerThreadPool = sharedRunnerThreadPool.orElseGet( () -> new PipelineReplicaRunnerThreadPool( jokerThreadGroup, 0 ) );
+        this.partitionTransport = partitionTransport.orElse( null );
+        this.instanceIndex = jokerConfig.getPartitionServiceConfig().getInstanceIndex();
+        this.instanceCount = jokerConfig.getPartitionServiceConfig().getInstanceCount();
         createDownstreamCollectorFactories();
     }
 
@@ -164,7 +218,8 @@ public class PipelineManagerImpl implements PipelineManager
             copyPorts( pairs, sourcePorts, destinationPorts );
             return new DownstreamCollectorN( downstreamCollectorFailureFlag, sourcePorts, destinationPorts, tupleQueue );
         };
-        partitionedDownstreamCollectorCtors[ 1 ] = ( pairs, partitionCount, partitionDistribution, tupleQueues, partitionKeyFunction ) -> {
+        partitionedDownstreamCollectorCtors[ 1 ] = ( pairs, partitionCount, partitionDistribution, tupleQueues, partitionKeyFunction,
+                                                      remotePartitionSender ) -> {
             final Pair<Integer, Integer> pair1 = pairs.get( 0 );
             return new PartitionedDownstreamCollector1( downstreamCollectorFailureFlag,
                                                         pair1._1,
@@ -172,9 +227,11 @@ public class PipelineManagerImpl implements PipelineManager
                                                         partitionCount,
                                                         partitionDistribution,
                                                         tupleQueues,
-                                                        partitionKeyFunction );
+                                                        partitionKeyFunction,
+                                                        remotePartitionSender );
         };
-        partitionedDownstreamCollectorCtors[ 2 ] = ( pairs, partitionCount, partitionDistribution, tupleQueues, partitionKeyFunction ) -> {
+        partitionedDownstreamCollectorCtors[ 2 ] = ( pairs, partitionCount, partitionDistribution, tupleQueues, partitionKeyFunction,
+                                                      remotePartitionSender ) -> {
             final int[] sourcePorts = new int[ pairs.size() ];
             final int[] destinationPorts = new int[ pairs.size() ];
             copyPorts( pairs, sourcePorts, destinationPorts );
@@ -184,7 +241,18 @@ public class PipelineManagerImpl implements PipelineManager
                                                         partitionCount,
                                                         partitionDistribution,
                                                         tupleQueues,
-                                                        partitionKeyFunction );
+                                                        partitionKeyFunction,
+                                                        remotePartitionSender );
+        };
+        loadBalancedDownstreamCollectorCtors[ 1 ] = ( pairs, tupleQueues ) -> {
+            final Pair<Integer, Integer> pair1 = pairs.get( 0 );
+            return new LoadBalancedDownstreamCollector1( downstreamCollectorFailureFlag, pair1._1, pair1._2, tupleQueues );
+        };
+        loadBalancedDownstreamCollectorCtors[ 2 ] = ( pairs, tupleQueues ) -> {
+            final int[] sourcePorts = new int[ pairs.size() ];
+            final int[] destinationPorts = new int[ pairs.size() ];
+            copyPorts( pairs, sourcePorts, destinationPorts );
+            return new LoadBalancedDownstreamCollectorN( downstreamCollectorFailureFlag, sourcePorts, destinationPorts, tupleQueues );
         };
     }
 
@@ -233,11 +301,23 @@ public class PipelineManagerImpl implements PipelineManager
         {
             checkState( status == FlowStatus.INITIAL, "cannot start pipeline replica runner threads since status is %s", status );
             this.flow = flow;
+            final long startTime = System.nanoTime();
             createPipelines( flow, regionExecPlans );
+            bindPartitionTransport();
+            final long creationTime = System.nanoTime();
             initPipelines();
+            final long initializationTime = System.nanoTime();
             startPipelineReplicaRunners( supervisor );
+            final long endTime = System.nanoTime();
             status = FlowStatus.RUNNING;
             incrementFlowVersion();
+            LOGGER.info( "{} pipelines of {} operators are started in {} ms. creation: {} ms, initialization: {} ms, runner start: {} ms",
+                         pipelines.size(),
+                         flow.getOperators().size(),
+                         NANOSECONDS.toMillis( endTime - startTime ),
+                         NANOSECONDS.toMillis( creationTime - startTime ),
+                         NANOSECONDS.toMillis( initializationTime - creationTime ),
+                         NANOSECONDS.toMillis( endTime - initializationTime ) );
         }
         catch ( Exception e )
         {
@@ -287,13 +367,41 @@ public class PipelineManagerImpl implements PipelineManager
 
     private void initPipelines ()
     {
+        final int parallelism = jokerConfig.getPipelineManagerConfig().getInitializationParallelism();
+        final ExecutorService executor = Executors.newFixedThreadPool( parallelism, createInitializerThreadFactory() );
         final List<Pipeline> initialized = new ArrayList<>();
         try
         {
+            // replicas of all pipelines are initialized concurrently
+            final List<CompletableFuture<Void>> futures = new ArrayList<>();
             for ( Pipeline pipeline : pipelines.values() )
             {
                 initialized.add( pipeline );
-                pipeline.init();
+                futures.add( pipeline.initAsync( executor ) );
+            }
+
+            RuntimeException failure = null;
+            for ( CompletableFuture<Void> future : futures )
+            {
+                try
+                {
+                    future.join();
+                }
+                catch ( CompletionException e )
+                {
+                    if ( failure == null )
+                    {
+                        final Throwable cause = e.getCause();
+                        failure = cause instanceof RuntimeException
+                                  ? (RuntimeException) cause
+                                  : new InitializationException( "Pipeline initialization failed", cause );
+                    }
+                }
+            }
+
+            if ( failure != null )
+            {
+                throw failure;
             }
         }
         catch ( Exception e1 )
@@ -318,6 +426,17 @@ public class PipelineManagerImpl implements PipelineManager
 
             throw e1;
         }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    private ThreadFactory createInitializerThreadFactory ()
+    {
+        return new ThreadFactoryBuilder().setThreadFactory( runnable -> new Thread( jokerThreadGroup, runnable ) )
+                                         .setNameFormat( jokerThreadGroup.getName() + "-Initializer-%d" )
+                                         .build();
     }
 
     @Override
@@ -360,9 +479,35 @@ public class PipelineManagerImpl implements PipelineManager
             }
         }
 
+        completeRemotePartitionSendingIfUpstreamCompleted();
+
         return gracefullyShutdownIfAllPipelinesCompleted();
     }
 
+    @Override
+    public void handleRemotePartitionSendersCompleted ()
+    {
+        if ( status != FlowStatus.SHUTTING_DOWN )
+        {
+            return;
+        }
+
+        final Set<Pipeline> partitionedPipelines = remotePartitionCollectors.keySet()
+                                                                            .stream()
+                                                                            .map( key -> flow.getOperator( key._1 ) )
+                                                                            .map( this::getPipelineByFirstOperatorOrFail )
+                                                                            .collect( toSet() );
+        for ( Pipeline pipeline : partitionedPipelines )
+        {
+            final UpstreamCtx updatedUpstreamCtx = getUpdatedUpstreamCtx( pipeline );
+            if ( updatedUpstreamCtx != null )
+            {
+                LOGGER.info( "Remote partition senders of Pipeline {} are completed.", pipeline.getId() );
+                pipeline.handleUpstreamCtxUpdated( updatedUpstreamCtx );
+            }
+        }
+    }
+
     private Collection<Pipeline> getDownstreamPipelines ( final Pipeline upstreamPipeline )
     {
         return flow.getOutboundConnections( upstreamPipeline.getLastOperatorDef().getId() )
@@ -397,35 +542,43 @@ public class PipelineManagerImpl implements PipelineManager
         final ConnectionStatus[] statuses = new ConnectionStatus[ firstOperator.getInputPortCount() ];
         for ( Entry<Port, Set<Port>> entry : flow.getInboundConnections( firstOperator.getId() ).entrySet() )
         {
-            final Collection<Port> upstreamPorts = entry.getValue();
-            final ConnectionStatus status;
-            if ( upstreamPorts.isEmpty() )
+            final int portIndex = entry.getKey().getPortIndex();
+            ConnectionStatus status = getLocalUpstreamConnectionStatus( entry.getValue() );
+            // tuples of the local partitions can be still sent by the other instances
+            if ( status == CLOSED && remotePartitionCollectors.containsKey( Pair.of( firstOperator.getId(), portIndex ) )
+                 && !isRemotePartitionSendersCompleted() )
             {
-                status = CLOSED;
-            }
-            else
-            {
-                final List<Pair<OperatorDef, Pipeline>> upstream = upstreamPorts.stream()
-                                                                                .map( p -> flow.getOperator( p.getOperatorId() ) )
-                                                                                .map( o -> Pair.of( o, getPipelineOrFail( o ) ) )
-                                                                                .collect( toList() );
-
-                upstream.forEach( p -> checkState( p._2.getOperatorIndex( p._1 ) == p._2.getOperatorCount() - 1 ) );
-
-                final boolean aliveConnPresent = upstream.stream().anyMatch( p -> {
-                    final OperatorReplicaStatus s = p._2.getPipelineStatus();
-                    return s == OperatorReplicaStatus.INITIAL || s == OperatorReplicaStatus.RUNNING
-                           || s == OperatorReplicaStatus.COMPLETING;
-                } );
-                status = aliveConnPresent ? OPEN : CLOSED;
+                status = OPEN;
             }
 
-            statuses[ entry.getKey().getPortIndex() ] = status;
+            statuses[ portIndex ] = status;
         }
 
         return statuses;
     }
 
+    private ConnectionStatus getLocalUpstreamConnectionStatus ( final Collection<Port> upstreamPorts )
+    {
+        if ( upstreamPorts.isEmpty() )
+        {
+            return CLOSED;
+        }
+
+        final List<Pair<OperatorDef, Pipeline>> upstream = upstreamPorts.stream()
+                                                                        .map( p -> flow.getOperator( p.getOperatorId() ) )
+                                                                        .map( o -> Pair.of( o, getPipelineOrFail( o ) ) )
+                                                                        .collect( toList() );
+
+        upstream.forEach( p -> checkState( p._2.getOperatorIndex( p._1 ) == p._2.getOperatorCount() - 1 ) );
+
+        final boolean aliveConnPresent = upstream.stream().anyMatch( p -> {
+            final OperatorReplicaStatus s = p._2.getPipelineStatus();
+            return s == OperatorReplicaStatus.INITIAL || s == OperatorReplicaStatus.RUNNING || s == OperatorReplicaStatus.COMPLETING;
+        } );
+
+        return aliveConnPresent ? OPEN : CLOSED;
+    }
+
     private boolean gracefullyShutdownIfAllPipelinesCompleted ()
     {
         for ( Pipeline pipeline : pipelines.values() )
@@ -491,7 +644,7 @@ public class PipelineManagerImpl implements PipelineManager
             addPipeline( pipeline );
             createDownstreamCollectors( flow, pipeline );
             recreateSinkDownstreamCollectors();
-            pipeline.startPipelineReplicaRunners( jokerConfig, supervisor, jokerThreadGroup );
+            pipeline.startPipelineReplicaRunners( jokerConfig, supervisor, runnerThreadPool );
             incrementFlowVersion();
         }
         catch ( Exception e )
@@ -554,7 +707,7 @@ public class PipelineManagerImpl implements PipelineManager
             for ( Pipeline pipeline : newPipelines )
             {
                 LOGGER.info( "Starting new pipeline {}", pipeline.getId() );
-                pipeline.startPipelineReplicaRunners( jokerConfig, supervisor, jokerThreadGroup );
+                pipeline.startPipelineReplicaRunners( jokerConfig, supervisor, runnerThreadPool );
             }
 
             incrementFlowVersion();
@@ -606,13 +759,28 @@ public class PipelineManagerImpl implements PipelineManager
                      newReplicaCount,
                      flowVersion );
 
+        final Lock remotePartitionWriteLock = remotePartitionLock.writeLock();
+        remotePartitionWriteLock.lock();
+        try
+        {
+            rebalanceRegion( flowVersion, regionDef, newReplicaCount );
+        }
+        finally
+        {
+            remotePartitionWriteLock.unlock();
+        }
+    }
+
+    private void rebalanceRegion ( final int flowVersion, final RegionDef regionDef, final int newReplicaCount )
+    {
+        final int regionId = regionDef.getRegionId();
         final Collection<Pipeline> upstreamPipelines = pauseUpstreamPipelines( regionDef );
         stopAndReleasePipelines( regionDef );
 
         try
         {
             final List<Pipeline> newPipelines = new ArrayList<>();
-            final Region region = regionManager.rebalanceRegion( flow, regionDef.getRegionId(), newReplicaCount );
+            final Region region = regionManager.rebalanceRegion( flow, regionId, newReplicaCount );
             regionExecPlans.put( region.getRegionId(), region.getExecPlan() );
 
             for ( int pipelineIndex = 0; pipelineIndex < region.getExecPlan().getPipelineCount(); pipelineIndex++ )
@@ -634,7 +802,7 @@ public class PipelineManagerImpl implements PipelineManager
             for ( Pipeline pipeline : newPipelines )
             {
                 LOGGER.info( "Starting new pipeline {}", pipeline.getId() );
-                pipeline.startPipelineReplicaRunners( jokerConfig, supervisor, jokerThreadGroup );
+                pipeline.startPipelineReplicaRunners( jokerConfig, supervisor, runnerThreadPool );
             }
 
             for ( Pipeline pausedPipeline : upstreamPipelines )
@@ -818,38 +986,49 @@ public class PipelineManagerImpl implements PipelineManager
                 }
                 else if ( downstreamRegionDef.getRegionType() == PARTITIONED_STATEFUL )
                 {
-                    final int[] partitionDistribution = getPartitionDistribution( downstreamOperator );
+                    final PartitionDistribution partitionDistribution = getPartitionDistribution( downstreamOperator );
+                    final int[] distribution = partitionDistribution.getDistribution();
                     final PartitionKeyExtractor partitionKeyExtractor = partitionKeyExtractorFactory.createPartitionKeyExtractor(
-                            downstreamRegionDef.getPartitionFieldNames() );
+                            downstreamOperator.getSchema(), downstreamRegionDef.getPartitionFieldNames() );
+                    RemotePartitionSender remotePartitionSender = null;
+                    if ( partitionDistribution.isDistributed() )
+                    {
+                        checkState( partitionTransport != null,
+                                    "partition transport is not set for distributed partitions of operator %s",
+                                    downstreamOperatorId );
+                        remotePartitionSender = new RemotePartitionSender( partitionTransport,
+                                                                           downstreamOperatorId,
+                                                                           partitionDistribution.getInstanceIndices(),
+                                                                           partitionDistribution.getLocalInstanceIndex() );
+                        if ( replicaIndex == 0 )
+                        {
+                            createRemotePartitionCollectors( downstreamOperator, pairs, distribution, pipelineQueues );
+                        }
+                    }
+
                     collectorsToDownstreamOperators[ i ] = partitionedDownstreamCollectorCtors[ j ].apply( pairs,
-                                                                                                           partitionService
-                                                                                                                   .getPartitionCount(),
-                                                                                                           partitionDistribution,
+                                                                                                           distribution.length,
+                                                                                                           distribution,
                                                                                                            pipelineQueues,
-                                                                                                           partitionKeyExtractor );
+                                                                                                           partitionKeyExtractor,
+                                                                                                           remotePartitionSender );
                 }
                 else if ( downstreamRegionDef.getRegionType() == STATELESS )
                 {
-                    OperatorQueue pipelineQueue = null;
                     if ( pipeline.getReplicaCount() == downstreamPipeline.getReplicaCount() )
                     {
-                        pipelineQueue = pipelineQueues[ replicaIndex ];
+                        final OperatorQueue pipelineQueue = pipelineQueues[ replicaIndex ];
+                        collectorsToDownstreamOperators[ i ] = defaultDownstreamCollectorCtors[ j ].apply( pairs, pipelineQueue );
                     }
                     else if ( downstreamPipeline.getReplicaCount() == 1 )
                     {
-                        pipelineQueue = pipelineQueues[ 0 ];
-                    }
-
-                    if ( pipelineQueue != null )
-                    {
+                        final OperatorQueue pipelineQueue = pipelineQueues[ 0 ];
                         collectorsToDownstreamOperators[ i ] = defaultDownstreamCollectorCtors[ j ].apply( pairs, pipelineQueue );
                     }
                     else
                     {
-                        throw new IllegalStateException( "incompatible replica counts! pipeline: " + pipeline.getId() + " replica count: "
-                                                         + pipeline.getReplicaCount() + " downstream pipeline: "
-                                                         + downstreamPipeline.getId() + " downstream pipeline replica count: "
-                                                         + downstreamPipeline.getReplicaCount() );
+                        // replica counts are independent. each batch goes to the less occupied one of two random replicas
+                        collectorsToDownstreamOperators[ i ] = loadBalancedDownstreamCollectorCtors[ j ].apply( pairs, pipelineQueues );
                     }
                 }
                 else if ( downstreamRegionDef.getRegionType() == STATEFUL )
@@ -946,12 +1125,146 @@ public class PipelineManagerImpl implements PipelineManager
         return result;
     }
 
-    private int[] getPartitionDistribution ( final OperatorDef operator )
+    private PartitionDistribution getPartitionDistribution ( final OperatorDef operator )
     {
         final Pipeline pipeline = getPipeline( operator, 0 );
-        final PartitionDistribution partitionDistribution = partitionService.getPartitionDistributionOrFail( pipeline.getId()
-                                                                                                                     .getRegionId() );
-        return partitionDistribution.getDistribution();
+        return partitionService.getPartitionDistributionOrFail( pipeline.getId().getRegionId() );
+    }
+
+    /**
+     * Creates the collectors which pass the tuples sent by the other Joker instances to the given partitioned operator. All of these
+     * tuples belong to the local partitions, hence the collectors do not send any tuple back to the other instances.
+     */
+    private void createRemotePartitionCollectors ( final OperatorDef operator,
+                                                   final List<Pair<Integer, Integer>> pairs,
+                                                   final int[] distribution,
+                                                   final OperatorQueue[] pipelineQueues )
+    {
+        final Pipeline pipeline = getPipeline( operator, 0 );
+        for ( Pair<Integer, Integer> pair : pairs )
+        {
+            final int destinationPortIndex = pair._2;
+            final List<Pair<Integer, Integer>> ports = singletonList( Pair.of( 0, destinationPortIndex ) );
+            final PartitionKeyExtractor partitionKeyExtractor = partitionKeyExtractorFactory.createPartitionKeyExtractor(
+                    operator.getSchema(), pipeline.getRegionDef().getPartitionFieldNames() );
+            final DownstreamCollector collector = partitionedDownstreamCollectorCtors[ 1 ].apply( ports,
+                                                                                                  distribution.length,
+                                                                                                  distribution,
+                                                                                                  pipelineQueues,
+                                                                                                  partitionKeyExtractor,
+                                                                                                  null );
+            remotePartitionCollectors.put( Pair.of( operator.getId(), destinationPortIndex ), collector );
+        }
+    }
+
+    private void bindPartitionTransport ()
+    {
+        if ( !remotePartitionCollectors.isEmpty() )
+        {
+            partitionTransport.bind( instanceIndex, new RemotePartitionTupleReceiver() );
+            partitionTransportBound = true;
+            LOGGER.info( "Joker instance {} is bound to partition transport for operators: {}",
+                         instanceIndex,
+                         remotePartitionCollectors.keySet() );
+        }
+    }
+
+    /**
+     * Unbinds the partition transport. If the flow is shut down because of a failure, the other instances are notified that this instance
+     * does not send tuples anymore, so that they do not wait for this instance while shutting down. They fail if they send tuples to this
+     * instance after it is unbound.
+     */
+    private void unbindPartitionTransport ()
+    {
+        if ( partitionTransportBound )
+        {
+            completeRemotePartitionSending();
+            partitionTransport.unbind( instanceIndex );
+            partitionTransportBound = false;
+        }
+    }
+
+    /**
+     * Notifies the other instances that this instance does not send tuples anymore, once all upstream pipelines of the partitioned regions
+     * are completed while the flow is shutting down.
+     */
+    private void completeRemotePartitionSendingIfUpstreamCompleted ()
+    {
+        if ( !partitionTransportBound || remotePartitionSendingCompleted )
+        {
+            return;
+        }
+
+        for ( Pair<String, Integer> key : remotePartitionCollectors.keySet() )
+        {
+            if ( getLocalUpstreamConnectionStatus( flow.getInboundConnections( new Port( key._1, key._2 ) ) ) == OPEN )
+            {
+                return;
+            }
+        }
+
+        completeRemotePartitionSending();
+    }
+
+    private void completeRemotePartitionSending ()
+    {
+        if ( !remotePartitionSendingCompleted )
+        {
+            LOGGER.info( "Joker instance {} completes sending remote partition tuples", instanceIndex );
+            remotePartitionSendingCompleted = true;
+            partitionTransport.complete( instanceIndex );
+        }
+    }
+
+    private boolean isRemotePartitionSendersCompleted ()
+    {
+        return completedRemotePartitionSenders.size() == instanceCount - 1;
+    }
+
+    private void handleRemotePartitionSenderCompleted ( final int senderInstanceIndex )
+    {
+        if ( completedRemotePartitionSenders.add( senderInstanceIndex ) && isRemotePartitionSendersCompleted() )
+        {
+            LOGGER.info( "All remote partition senders of Joker instance {} are completed", instanceIndex );
+            supervisor.notifyRemotePartitionSendersCompleted();
+        }
+    }
+
+    /**
+     * Passes the tuples sent by the other Joker instances to the partitioned regions. The partitioned regions keep running until all of
+     * the other instances complete sending tuples, hence tuples are received while the flow is shutting down as well.
+     */
+    private void receiveRemotePartitionTuples ( final String operatorId, final int portIndex, final List<Tuple> tuples )
+    {
+        if ( status == FlowStatus.SHUT_DOWN )
+        {
+            throw new JokerException( "cannot receive " + tuples.size() + " remote partition tuples of operator: " + operatorId
+                                      + " port index: " + portIndex + " since flow is shut down" );
+        }
+
+        final Lock remotePartitionReadLock = remotePartitionLock.readLock();
+        remotePartitionReadLock.lock();
+        try
+        {
+            final DownstreamCollector collector = remotePartitionCollectors.get( Pair.of( operatorId, portIndex ) );
+            if ( collector == null )
+            {
+                throw new JokerException( "No partitioned operator found for remote partition tuples of operator: " + operatorId
+                                          + " port index: " + portIndex );
+            }
+
+            final TuplesImpl input = new TuplesImpl( 1 );
+            input.add( 0, tuples );
+            // the collector can be used by multiple instances concurrently
+            synchronized ( collector )
+            {
+                collector.accept( input );
+            }
+        }
+        finally
+        {
+            remotePartitionReadLock.unlock();
+        }
     }
 
     private OperatorQueue[] getPipelineQueues ( final OperatorDef operator )
@@ -980,7 +1293,7 @@ public class PipelineManagerImpl implements PipelineManager
     {
         for ( Pipeline pipeline : pipelines.values() )
         {
-            pipeline.startPipelineReplicaRunners( jokerConfig, supervisor, jokerThreadGroup );
+            pipeline.startPipelineReplicaRunners( jokerConfig, supervisor, runnerThreadPool );
         }
     }
 
@@ -1094,6 +1407,7 @@ public class PipelineManagerImpl implements PipelineManager
 
             status = FlowStatus.SHUT_DOWN;
 
+            unbindPartitionTransport();
             stopPipelineReplicaRunners();
             shutdownPipelines();
             releaseRegions();
@@ -1104,10 +1418,28 @@ public class PipelineManagerImpl implements PipelineManager
         }
     }
 
+    private class RemotePartitionTupleReceiver implements PartitionTupleReceiver
+    {
+
+        @Override
+        public void receive ( final String operatorId, final int portIndex, final List<Tuple> tuples )
+        {
+            receiveRemotePartitionTuples( operatorId, portIndex, tuples );
+        }
+
+        @Override
+        public void onSenderCompleted ( final int instanceIndex )
+        {
+            handleRemotePartitionSenderCompleted( instanceIndex );
+        }
+
+    }
+
+
     @FunctionalInterface
-    private interface Function6<T1, T2, T3, T4, T5, T6>
+    private interface Function7<T1, T2, T3, T4, T5, T6, T7>
     {
-        T6 apply ( T1 t1, T2 t2, T3 t3, T4 t4, T5 t5 );
+        T7 apply ( T1 t1, T2 t2, T3 t3, T4 t4, T5 t5, T6 t6 );
     }
 
 
@@ -1146,7 +1478,16 @@ public class PipelineManagerImpl implements PipelineManager
                 final List<Tuple> l = tuples.getTuplesModifiable( i );
                 for ( int j = 0, t = l.size(); j < t; j++ )
                 {
-                    setIngestionTime( l.get( j ), ingestionTime, trackLatencyRecords );
+                    final Tuple tuple = l.get( j );
+                    // source operators may assign ingestion times themselves, i.e., intended send times of an open-loop load generator
+                    if ( isIngestionTimeNA( tuple ) )
+                    {
+                        setIngestionTime( tuple, ingestionTime, trackLatencyRecords );
+                    }
+                    else if ( trackLatencyRecords )
+                    {
+                        enableLatencyRecords( tuple );
+                    }
                 }
             }
 
@@ -0,0 +1,117 @@
+package cs.bilkent.joker.engine.pipeline.impl.downstreamcollector;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import javax.inject.Named;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static cs.bilkent.joker.JokerModule.DOWNSTREAM_FAILURE_FLAG_NAME;
+import cs.bilkent.joker.engine.exception.JokerException;
+import static cs.bilkent.joker.engine.jfr.FlightRecorderEvents.onBackpressureCompleted;
+import static cs.bilkent.joker.engine.jfr.FlightRecorderEvents.onBackpressureIdle;
+import cs.bilkent.joker.engine.pipeline.DownstreamCollector;
+import cs.bilkent.joker.engine.tuplequeue.OperatorQueue;
+import cs.bilkent.joker.engine.util.concurrent.BackoffIdleStrategy;
+import cs.bilkent.joker.engine.util.concurrent.IdleStrategy;
+import cs.bilkent.joker.operator.Tuple;
+import static cs.bilkent.joker.operator.TupleAccessor.setQueueOfferTime;
+import cs.bilkent.joker.operator.impl.TuplesImpl;
+
+/**
+ * Sends tuples to the replicas of a stateless region without pinning the upstream replica to a single downstream replica. For each batch
+ * of tuples, two replicas are picked randomly and the batch is sent to the one with fewer queued tuples (power of two choices). If the
+ * selected replica cannot accept the batch fully, the remaining tuples are sent to a newly selected replica.
+ */
+public abstract class AbstractLoadBalancedDownstreamCollector implements DownstreamCollector, Supplier<OperatorQueue[]>
+{
+
+    private final IdleStrategy idleStrategy = BackoffIdleStrategy.newDefaultInstance();
+
+    private final AtomicBoolean failureFlag;
+
+    private final int replicaCount;
+
+    private final OperatorQueue[] operatorQueues;
+
+    AbstractLoadBalancedDownstreamCollector ( @Named( DOWNSTREAM_FAILURE_FLAG_NAME ) final AtomicBoolean failureFlag,
+                                              final OperatorQueue[] operatorQueues )
+    {
+        checkArgument( operatorQueues.length > 0, "no operator queues to load balance!" );
+        this.failureFlag = failureFlag;
+        this.replicaCount = operatorQueues.length;
+        this.operatorQueues = Arrays.copyOf( operatorQueues, operatorQueues.length );
+    }
+
+    public final OperatorQueue[] get ()
+    {
+        return Arrays.copyOf( operatorQueues, operatorQueues.length );
+    }
+
+    protected final void send ( final TuplesImpl input, final int sourcePortIndex, final int destinationPortIndex )
+    {
+        final List<Tuple> tuples = input.getTuplesModifiable( sourcePortIndex );
+        final int size = tuples.size();
+        if ( size == 0 )
+        {
+            return;
+        }
+
+        idleStrategy.reset();
+
+        int replicaIndex = selectReplica();
+        int fromIndex = 0;
+        Object backpressureWaitEvent = null;
+        while ( true )
+        {
+            setQueueOfferTime( tuples, fromIndex, System.nanoTime() );
+            final int offered = operatorQueues[ replicaIndex ].offer( destinationPortIndex, tuples, fromIndex );
+            fromIndex += offered;
+            if ( fromIndex == size )
+            {
+                break;
+            }
+            else if ( offered == 0 )
+            {
+                // the selected replica is full. the remaining tuples may go to another replica
+                backpressureWaitEvent = onBackpressureIdle( backpressureWaitEvent,
+                                                            operatorQueues[ replicaIndex ].getOperatorId(),
+                                                            destinationPortIndex );
+                replicaIndex = selectReplica();
+                if ( idleStrategy.idle() )
+                {
+                    if ( failureFlag.get() )
+                    {
+                        throw new JokerException( "Not sending tuples to downstream since failure flag is set" );
+                    }
+                }
+            }
+        }
+
+        onBackpressureCompleted( backpressureWaitEvent );
+    }
+
+    final int selectReplica ()
+    {
+        if ( replicaCount == 1 )
+        {
+            return 0;
+        }
+
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int replicaIndex1 = random.nextInt( replicaCount );
+        int replicaIndex2 = random.nextInt( replicaCount - 1 );
+        if ( replicaIndex2 >= replicaIndex1 )
+        {
+            replicaIndex2++;
+        }
+
+        final int tupleCount1 = operatorQueues[ replicaIndex1 ].getQueuedTupleCount();
+        final int tupleCount2 = operatorQueues[ replicaIndex2 ].getQueuedTupleCount();
+
+        return tupleCount2 < tupleCount1 ? replicaIndex2 : replicaIndex1;
+    }
+
+}
@@ -9,6 +9,8 @@ import javax.inject.Named;
 
 import static cs.bilkent.joker.JokerModule.DOWNSTREAM_FAILURE_FLAG_NAME;
 import cs.bilkent.joker.engine.exception.JokerException;
+import static cs.bilkent.joker.engine.jfr.FlightRecorderEvents.onBackpressureCompleted;
+import static cs.bilkent.joker.engine.jfr.FlightRecorderEvents.onBackpressureIdle;
 import cs.bilkent.joker.engine.partition.PartitionKeyExtractor;
 import static cs.bilkent.joker.engine.partition.PartitionUtil.getPartitionId;
 import cs.bilkent.joker.engine.pipeline.DownstreamCollector;
@@ -36,6 +38,8 @@ public abstract class AbstractPartitionedDownstreamCollector implements Downstre
 
     private final PartitionKeyExtractor partitionKeyExtractor;
 
+    private final RemotePartitionSender remotePartitionSender;
+
     private List<Tuple>[] tupleLists;
 
     private int[] indices;
@@ -45,6 +49,20 @@ public abstract class AbstractPartitionedDownstreamCollector implements Downstre
                                              final int[] partitionDistribution,
                                              final OperatorQueue[] operatorQueues,
                                              final PartitionKeyExtractor partitionKeyExtractor )
+    {
+        this( failureFlag, partitionCount, partitionDistribution, operatorQueues, partitionKeyExtractor, null );
+    }
+
+    /**
+     * Creates a collector which sends tuples of the partitions owned by the other Joker instances via the given remote partition sender.
+     * Replica indices of these partitions in the given partition distribution are ignored.
+     */
+    AbstractPartitionedDownstreamCollector ( @Named( DOWNSTREAM_FAILURE_FLAG_NAME ) final AtomicBoolean failureFlag,
+                                             final int partitionCount,
+                                             final int[] partitionDistribution,
+                                             final OperatorQueue[] operatorQueues,
+                                             final PartitionKeyExtractor partitionKeyExtractor,
+                                             final RemotePartitionSender remotePartitionSender )
     {
         this.failureFlag = failureFlag;
         this.partitionCount = partitionCount;
@@ -52,6 +70,7 @@ public abstract class AbstractPartitionedDownstreamCollector implements Downstre
         this.replicaCount = operatorQueues.length;
         this.operatorQueues = Arrays.copyOf( operatorQueues, operatorQueues.length );
         this.partitionKeyExtractor = partitionKeyExtractor;
+        this.remotePartitionSender = remotePartitionSender;
         this.tupleLists = new List[ operatorQueues.length ];
         this.indices = new int[ operatorQueues.length ];
         for ( int i = 0; i < operatorQueues.length; i++ )
@@ -70,11 +89,19 @@ public abstract class AbstractPartitionedDownstreamCollector implements Downstre
         for ( Tuple tuple : input.getTuplesModifiable( sourcePortIndex ) )
         {
             final int partitionId = getPartitionId( partitionKeyExtractor.getPartitionHash( tuple ), partitionCount );
-            final int replicaIndex = partitionDistribution[ partitionId ];
-            tupleLists[ replicaIndex ].add( tuple );
+            if ( remotePartitionSender == null || remotePartitionSender.isLocal( partitionId ) )
+            {
+                final int replicaIndex = partitionDistribution[ partitionId ];
+                tupleLists[ replicaIndex ].add( tuple );
+            }
+            else
+            {
+                remotePartitionSender.add( partitionId, tuple );
+            }
         }
 
         int completed;
+        Object backpressureWaitEvent = null;
         while ( true )
         {
             completed = 0;
@@ -88,6 +115,9 @@ public abstract class AbstractPartitionedDownstreamCollector implements Downstre
                     final int offered = operatorQueues[ i ].offer( destinationPortIndex, tuples, fromIndex );
                     if ( offered == 0 )
                     {
+                        backpressureWaitEvent = onBackpressureIdle( backpressureWaitEvent,
+                                                                    operatorQueues[ i ].getOperatorId(),
+                                                                    destinationPortIndex );
                         if ( idleStrategy.idle() )
                         {
                             if ( failureFlag.get() )
@@ -116,12 +146,19 @@ public abstract class AbstractPartitionedDownstreamCollector implements Downstre
             }
         }
 
+        onBackpressureCompleted( backpressureWaitEvent );
+
         idleStrategy.reset();
         for ( int i = 0; i < replicaCount; i++ )
         {
             tupleLists[ i ].clear();
             indices[ i ] = 0;
         }
+
+        if ( remotePartitionSender != null )
+        {
+            remotePartitionSender.send( destinationPortIndex );
+        }
     }
 
 }
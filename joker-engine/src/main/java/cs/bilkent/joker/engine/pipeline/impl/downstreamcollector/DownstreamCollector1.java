@@ -7,6 +7,8 @@ import javax.inject.Named;
 
 import static cs.bilkent.joker.JokerModule.DOWNSTREAM_FAILURE_FLAG_NAME;
 import cs.bilkent.joker.engine.exception.JokerException;
+import static cs.bilkent.joker.engine.jfr.FlightRecorderEvents.onBackpressureCompleted;
+import static cs.bilkent.joker.engine.jfr.FlightRecorderEvents.onBackpressureIdle;
 import cs.bilkent.joker.engine.pipeline.DownstreamCollector;
 import cs.bilkent.joker.engine.tuplequeue.OperatorQueue;
 import cs.bilkent.joker.engine.util.concurrent.BackoffIdleStrategy;
@@ -47,6 +49,7 @@ public class DownstreamCollector1 implements DownstreamCollector, Supplier<Opera
         final List<Tuple> tuples = input.getTuplesModifiable( sourcePortIndex );
         final int size = tuples.size();
         int fromIndex = 0;
+        Object backpressureWaitEvent = null;
         while ( true )
         {
             setQueueOfferTime( tuples, fromIndex, System.nanoTime() );
@@ -58,6 +61,9 @@ public class DownstreamCollector1 implements DownstreamCollector, Supplier<Opera
             }
             else if ( offered == 0 )
             {
+                backpressureWaitEvent = onBackpressureIdle( backpressureWaitEvent,
+                                                            operatorQueue.getOperatorId(),
+                                                            destinationPortIndex );
                 if ( idleStrategy.idle() )
                 {
                     if ( failureFlag.get() )
@@ -67,6 +73,8 @@ public class DownstreamCollector1 implements DownstreamCollector, Supplier<Opera
                 }
             }
         }
+
+        onBackpressureCompleted( backpressureWaitEvent );
     }
 
     @Override
@@ -8,6 +8,8 @@ import javax.inject.Named;
 import static com.google.common.base.Preconditions.checkArgument;
 import static cs.bilkent.joker.JokerModule.DOWNSTREAM_FAILURE_FLAG_NAME;
 import cs.bilkent.joker.engine.exception.JokerException;
+import static cs.bilkent.joker.engine.jfr.FlightRecorderEvents.onBackpressureCompleted;
+import static cs.bilkent.joker.engine.jfr.FlightRecorderEvents.onBackpressureIdle;
 import cs.bilkent.joker.engine.pipeline.DownstreamCollector;
 import cs.bilkent.joker.engine.tuplequeue.OperatorQueue;
 import cs.bilkent.joker.engine.util.concurrent.BackoffIdleStrategy;
@@ -63,6 +65,7 @@ public class DownstreamCollectorN implements DownstreamCollector, Supplier<Opera
         fill( fromIndices, 0 );
         idleStrategy.reset();
         int done = 0;
+        Object backpressureWaitEvent = null;
 
         while ( true )
         {
@@ -97,6 +100,7 @@ public class DownstreamCollectorN implements DownstreamCollector, Supplier<Opera
             }
             else if ( idle )
             {
+                backpressureWaitEvent = onBackpressureIdle( backpressureWaitEvent, operatorQueue.getOperatorId(), -1 );
                 if ( idleStrategy.idle() )
                 {
                     if ( failureFlag.get() )
@@ -106,6 +110,8 @@ public class DownstreamCollectorN implements DownstreamCollector, Supplier<Opera
                 }
             }
         }
+
+        onBackpressureCompleted( backpressureWaitEvent );
     }
 
     @Override
@@ -0,0 +1,33 @@
+package cs.bilkent.joker.engine.pipeline.impl.downstreamcollector;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.inject.Named;
+
+import static cs.bilkent.joker.JokerModule.DOWNSTREAM_FAILURE_FLAG_NAME;
+import cs.bilkent.joker.engine.tuplequeue.OperatorQueue;
+import cs.bilkent.joker.operator.impl.TuplesImpl;
+
+public class LoadBalancedDownstreamCollector1 extends AbstractLoadBalancedDownstreamCollector
+{
+
+    private final int sourcePortIndex;
+
+    private final int destinationPortIndex;
+
+    public LoadBalancedDownstreamCollector1 ( @Named( DOWNSTREAM_FAILURE_FLAG_NAME ) final AtomicBoolean failureFlag,
+                                              final int sourcePortIndex,
+                                              final int destinationPortIndex,
+                                              final OperatorQueue[] operatorQueues )
+    {
+        super( failureFlag, operatorQueues );
+        this.sourcePortIndex = sourcePortIndex;
+        this.destinationPortIndex = destinationPortIndex;
+    }
+
+    @Override
+    public void accept ( final TuplesImpl input )
+    {
+        send( input, sourcePortIndex, destinationPortIndex );
+    }
+
+}
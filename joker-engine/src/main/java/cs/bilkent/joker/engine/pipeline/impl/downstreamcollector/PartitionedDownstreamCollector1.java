@@ -23,7 +23,26 @@ public class PartitionedDownstreamCollector1 extends AbstractPartitionedDownstre
                                              final OperatorQueue[] operatorQueues,
                                              final PartitionKeyExtractor partitionKeyExtractor )
     {
-        super( failureFlag, partitionCount, partitionDistribution, operatorQueues, partitionKeyExtractor );
+        this( failureFlag,
+              sourcePortIndex,
+              destinationPortIndex,
+              partitionCount,
+              partitionDistribution,
+              operatorQueues,
+              partitionKeyExtractor,
+              null );
+    }
+
+    public PartitionedDownstreamCollector1 ( @Named( DOWNSTREAM_FAILURE_FLAG_NAME ) final AtomicBoolean failureFlag,
+                                             final int sourcePortIndex,
+                                             final int destinationPortIndex,
+                                             final int partitionCount,
+                                             final int[] partitionDistribution,
+                                             final OperatorQueue[] operatorQueues,
+                                             final PartitionKeyExtractor partitionKeyExtractor,
+                                             final RemotePartitionSender remotePartitionSender )
+    {
+        super( failureFlag, partitionCount, partitionDistribution, operatorQueues, partitionKeyExtractor, remotePartitionSender );
         this.sourcePortIndex = sourcePortIndex;
         this.destinationPortIndex = destinationPortIndex;
 
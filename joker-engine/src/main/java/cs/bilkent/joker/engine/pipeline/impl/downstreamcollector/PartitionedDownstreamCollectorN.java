@@ -24,7 +24,26 @@ public class PartitionedDownstreamCollectorN extends AbstractPartitionedDownstre
                                              final OperatorQueue[] operatorQueues,
                                              final PartitionKeyExtractor partitionKeyExtractor )
     {
-        super( failureFlag, partitionCount, partitionDistribution, operatorQueues, partitionKeyExtractor );
+        this( failureFlag,
+              sourcePorts,
+              destinationPorts,
+              partitionCount,
+              partitionDistribution,
+              operatorQueues,
+              partitionKeyExtractor,
+              null );
+    }
+
+    public PartitionedDownstreamCollectorN ( @Named( DOWNSTREAM_FAILURE_FLAG_NAME ) final AtomicBoolean failureFlag,
+                                             final int[] sourcePorts,
+                                             final int[] destinationPorts,
+                                             final int partitionCount,
+                                             final int[] partitionDistribution,
+                                             final OperatorQueue[] operatorQueues,
+                                             final PartitionKeyExtractor partitionKeyExtractor,
+                                             final RemotePartitionSender remotePartitionSender )
+    {
+        super( failureFlag, partitionCount, partitionDistribution, operatorQueues, partitionKeyExtractor, remotePartitionSender );
         checkArgument( sourcePorts.length == destinationPorts.length,
                        "source ports size = %s and destination ports = %s ! destination operatorId=%s",
                        sourcePorts.length,
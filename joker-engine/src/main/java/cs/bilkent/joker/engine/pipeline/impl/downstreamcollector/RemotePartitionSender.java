@@ -0,0 +1,73 @@
+package cs.bilkent.joker.engine.pipeline.impl.downstreamcollector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import cs.bilkent.joker.engine.partition.PartitionTransport;
+import cs.bilkent.joker.operator.Tuple;
+
+/**
+ * Collects tuples of the partitions owned by the other Joker instances on behalf of a partitioned downstream collector, and sends them
+ * to their owner instances via the {@link PartitionTransport}.
+ */
+@NotThreadSafe
+public class RemotePartitionSender
+{
+
+    private final PartitionTransport transport;
+
+    private final String operatorId;
+
+    private final int[] instanceIndices;
+
+    private final int localInstanceIndex;
+
+    private final List<Tuple>[] tupleLists;
+
+    public RemotePartitionSender ( final PartitionTransport transport,
+                                   final String operatorId,
+                                   final int[] instanceIndices,
+                                   final int localInstanceIndex )
+    {
+        this.transport = transport;
+        this.operatorId = operatorId;
+        this.instanceIndices = Arrays.copyOf( instanceIndices, instanceIndices.length );
+        this.localInstanceIndex = localInstanceIndex;
+        this.tupleLists = new List[ Arrays.stream( instanceIndices ).max().orElse( localInstanceIndex ) + 1 ];
+        for ( int i = 0; i < tupleLists.length; i++ )
+        {
+            tupleLists[ i ] = new ArrayList<>();
+        }
+    }
+
+    public String getOperatorId ()
+    {
+        return operatorId;
+    }
+
+    boolean isLocal ( final int partitionId )
+    {
+        return instanceIndices[ partitionId ] == localInstanceIndex;
+    }
+
+    void add ( final int partitionId, final Tuple tuple )
+    {
+        tupleLists[ instanceIndices[ partitionId ] ].add( tuple );
+    }
+
+    void send ( final int destinationPortIndex )
+    {
+        for ( int instanceIndex = 0; instanceIndex < tupleLists.length; instanceIndex++ )
+        {
+            final List<Tuple> tuples = tupleLists[ instanceIndex ];
+            if ( !tuples.isEmpty() )
+            {
+                transport.send( instanceIndex, operatorId, destinationPortIndex, tuples );
+                tuples.clear();
+            }
+        }
+    }
+
+}
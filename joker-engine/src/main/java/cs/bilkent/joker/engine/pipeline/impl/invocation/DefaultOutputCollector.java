@@ -34,6 +34,18 @@ public class DefaultOutputCollector implements OutputCollector
         output.add( portIndex, tuple );
     }
 
+    @Override
+    public void add ( final int portIndex, final List<Tuple> tuples )
+    {
+        output.add( portIndex, tuples );
+    }
+
+    @Override
+    public void add ( final int portIndex, final Tuple[] tuples, final int count )
+    {
+        output.add( portIndex, tuples, count );
+    }
+
     @Override
     public void recordInvocationLatency ( final String operatorId, final long latency )
     {
@@ -6,10 +6,13 @@ import java.util.function.Function;
 import com.google.common.collect.ImmutableList;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static cs.bilkent.joker.flow.Port.DEFAULT_PORT_INDEX;
+import cs.bilkent.joker.operator.OutputSlice;
 import cs.bilkent.joker.operator.Tuple;
 import cs.bilkent.joker.operator.TupleAccessor;
 import cs.bilkent.joker.operator.impl.InternalInvocationCtx;
 import cs.bilkent.joker.operator.impl.OutputCollector;
+import cs.bilkent.joker.operator.impl.TupleArrayOutputSlice;
 import cs.bilkent.joker.operator.impl.TuplesImpl;
 import cs.bilkent.joker.operator.kvstore.KVStore;
 import cs.bilkent.joker.partition.impl.PartitionKey;
@@ -26,6 +29,8 @@ public class FusedInvocationCtx implements InternalInvocationCtx, OutputCollecto
 
     private final OutputCollector outputCollector;
 
+    private final TupleArrayOutputSlice outputSlice;
+
     private InvocationReason reason;
 
     private boolean[] upstreamConnectionStatuses;
@@ -38,6 +43,7 @@ public class FusedInvocationCtx implements InternalInvocationCtx, OutputCollecto
         this.inputs = ImmutableList.of( input );
         this.kvStoreSupplier = kvStoreSupplier;
         this.outputCollector = outputCollector;
+        this.outputSlice = new TupleArrayOutputSlice( outputCollector );
     }
 
     // InternalInvocationContext methods begin
@@ -54,6 +60,7 @@ public class FusedInvocationCtx implements InternalInvocationCtx, OutputCollecto
     {
         this.reason = null;
         input.clear();
+        outputSlice.reset();
         outputCollector.clear();
     }
 
@@ -118,10 +125,7 @@ public class FusedInvocationCtx implements InternalInvocationCtx, OutputCollecto
     @Override
     public void output ( final List<Tuple> tuples )
     {
-        for ( int i = 0, j = tuples.size(); i < j; i++ )
-        {
-            outputCollector.add( tuples.get( i ) );
-        }
+        outputCollector.add( DEFAULT_PORT_INDEX, tuples );
     }
 
     @Override
@@ -133,10 +137,13 @@ public class FusedInvocationCtx implements InternalInvocationCtx, OutputCollecto
     @Override
     public void output ( final int portIndex, final List<Tuple> tuples )
     {
-        for ( int i = 0, j = tuples.size(); i < j; i++ )
-        {
-            outputCollector.add( portIndex, tuples.get( i ) );
-        }
+        outputCollector.add( portIndex, tuples );
+    }
+
+    @Override
+    public OutputSlice reserveOutput ( final int portIndex, final int tupleCount )
+    {
+        return outputSlice.reserve( portIndex, tupleCount );
     }
 
     @Override
@@ -179,6 +186,18 @@ public class FusedInvocationCtx implements InternalInvocationCtx, OutputCollecto
         input.add( portIndex, tuple );
     }
 
+    @Override
+    public void add ( final int portIndex, final List<Tuple> tuples )
+    {
+        input.add( portIndex, tuples );
+    }
+
+    @Override
+    public void add ( final int portIndex, final Tuple[] tuples, final int count )
+    {
+        input.add( portIndex, tuples, count );
+    }
+
     @Override
     public void recordInvocationLatency ( final String operatorId, final long latency )
     {
@@ -7,12 +7,16 @@ import java.util.function.Function;
 import static com.google.common.base.Preconditions.checkNotNull;
 import cs.bilkent.joker.engine.partition.PartitionKeyExtractor;
 import static cs.bilkent.joker.flow.Port.DEFAULT_PORT_INDEX;
+import cs.bilkent.joker.operator.OutputSlice;
 import cs.bilkent.joker.operator.Tuple;
 import cs.bilkent.joker.operator.TupleAccessor;
 import cs.bilkent.joker.operator.impl.InternalInvocationCtx;
 import cs.bilkent.joker.operator.impl.OutputCollector;
+import cs.bilkent.joker.operator.impl.StateEvictor;
+import cs.bilkent.joker.operator.impl.TupleArrayOutputSlice;
 import cs.bilkent.joker.operator.impl.TuplesImpl;
 import cs.bilkent.joker.operator.kvstore.KVStore;
+import cs.bilkent.joker.operator.kvstore.StateEvictionListener;
 import cs.bilkent.joker.partition.impl.PartitionKey;
 import gnu.trove.map.hash.TObjectIntHashMap;
 import static java.util.Arrays.copyOf;
@@ -37,6 +41,8 @@ public class FusedPartitionedInvocationCtx implements InternalInvocationCtx, Out
 
     private final OutputCollector outputCollector;
 
+    private final TupleArrayOutputSlice outputSlice;
+
     private int inputCount;
 
     private int currentInput = 0;
@@ -45,6 +51,8 @@ public class FusedPartitionedInvocationCtx implements InternalInvocationCtx, Out
 
     private boolean[] upstreamConnectionStatuses;
 
+    private StateEvictor stateEvictor;
+
     public FusedPartitionedInvocationCtx ( final int inputPortCount,
                                            final Function<PartitionKey, KVStore> kvStoreSupplier,
                                            final PartitionKeyExtractor partitionKeyExtractor,
@@ -54,6 +62,7 @@ public class FusedPartitionedInvocationCtx implements InternalInvocationCtx, Out
         this.kvStoreSupplier = kvStoreSupplier;
         this.partitionKeyExtractor = partitionKeyExtractor;
         this.outputCollector = outputCollector;
+        this.outputSlice = new TupleArrayOutputSlice( outputCollector );
     }
 
     // InternalInvocationContext methods begin
@@ -74,6 +83,7 @@ public class FusedPartitionedInvocationCtx implements InternalInvocationCtx, Out
             input.clear();
         }
         partitionKeys.clear();
+        outputSlice.reset();
         outputCollector.clear();
         partitionKeyInputIndices.clear();
         inputCount = 0;
@@ -110,6 +120,26 @@ public class FusedPartitionedInvocationCtx implements InternalInvocationCtx, Out
         return outputCollector;
     }
 
+    @Override
+    public void setStateEvictor ( final StateEvictor stateEvictor )
+    {
+        this.stateEvictor = stateEvictor;
+    }
+
+    @Override
+    public void evictStates ( final StateEvictionListener listener )
+    {
+        if ( stateEvictor != null )
+        {
+            stateEvictor.evictStates( ( key, kvStore ) -> {
+                if ( listener != null )
+                {
+                    listener.onStateEvicted( key, kvStore, this );
+                }
+            } );
+        }
+    }
+
     // InternalInvocationContext methods end
 
     // InvocationContext methods begin
@@ -141,10 +171,7 @@ public class FusedPartitionedInvocationCtx implements InternalInvocationCtx, Out
     @Override
     public void output ( final List<Tuple> tuples )
     {
-        for ( int i = 0, j = tuples.size(); i < j; i++ )
-        {
-            outputCollector.add( tuples.get( i ) );
-        }
+        outputCollector.add( DEFAULT_PORT_INDEX, tuples );
     }
 
     @Override
@@ -156,10 +183,13 @@ public class FusedPartitionedInvocationCtx implements InternalInvocationCtx, Out
     @Override
     public void output ( final int portIndex, final List<Tuple> tuples )
     {
-        for ( int i = 0, j = tuples.size(); i < j; i++ )
-        {
-            outputCollector.add( portIndex, tuples.get( i ) );
-        }
+        outputCollector.add( portIndex, tuples );
+    }
+
+    @Override
+    public OutputSlice reserveOutput ( final int portIndex, final int tupleCount )
+    {
+        return outputSlice.reserve( portIndex, tupleCount );
     }
 
     @Override
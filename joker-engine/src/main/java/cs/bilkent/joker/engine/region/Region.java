@@ -7,6 +7,8 @@ import cs.bilkent.joker.engine.flow.RegionExecPlan;
 import cs.bilkent.joker.engine.pipeline.PipelineReplica;
 import cs.bilkent.joker.engine.pipeline.PipelineReplicaId;
 import cs.bilkent.joker.engine.pipeline.UpstreamCtx;
+import cs.bilkent.joker.operator.AsyncOperator;
+import cs.bilkent.joker.operator.OperatorDef;
 import cs.bilkent.joker.operator.scheduling.ScheduleWhenAvailable;
 import cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable;
 import cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.TupleAvailabilityByCount;
@@ -34,7 +36,8 @@ public class Region
     {
         this.execPlan = execPlan;
         this.schedulingStrategies = copyOf( schedulingStrategies, schedulingStrategies.length );
-        this.fusionStartIndices = findFusionStartIndices( schedulingStrategies );
+        this.fusionStartIndices = findFusionStartIndices( execPlan.getRegionDef().getOperators().toArray( new OperatorDef[ 0 ] ),
+                                                          schedulingStrategies );
         this.upstreamCtxes = copyOf( upstreamCtxes, upstreamCtxes.length );
         this.pipelines = copyOf( pipelines, pipelines.length );
         for ( int i = 0; i < pipelines.length; i++ )
@@ -120,7 +123,8 @@ public class Region
     public SchedulingStrategy[][] getFusedSchedulingStrategies ( final PipelineId pipelineId )
     {
         final SchedulingStrategy[] schedulingStrategies = getSchedulingStrategies( pipelineId );
-        final int[] fusionStartIndices = findFusionStartIndices( schedulingStrategies );
+        final OperatorDef[] operatorDefs = execPlan.getOperatorDefsByPipelineStartIndex( pipelineId.getPipelineStartIndex() );
+        final int[] fusionStartIndices = findFusionStartIndices( operatorDefs, schedulingStrategies );
         final SchedulingStrategy[][] fusedSchedulingStrategies = new SchedulingStrategy[ fusionStartIndices.length ][];
         for ( int i = 0; i < fusionStartIndices.length; i++ )
         {
@@ -139,7 +143,8 @@ public class Region
     public UpstreamCtx[][] getFusedUpstreamCtxes ( final PipelineId pipelineId )
     {
         final UpstreamCtx[] upstreamCtxes = getUpstreamCtxes( pipelineId );
-        final int[] fusionStartIndices = findFusionStartIndices( getSchedulingStrategies( pipelineId ) );
+        final OperatorDef[] operatorDefs = execPlan.getOperatorDefsByPipelineStartIndex( pipelineId.getPipelineStartIndex() );
+        final int[] fusionStartIndices = findFusionStartIndices( operatorDefs, getSchedulingStrategies( pipelineId ) );
         final UpstreamCtx[][] fusedUpstreamCtxes = new UpstreamCtx[ fusionStartIndices.length ][];
         for ( int i = 0; i < fusionStartIndices.length; i++ )
         {
@@ -176,14 +181,15 @@ public class Region
         return upstreamCtxes;
     }
 
-    public static int[] findFusionStartIndices ( final SchedulingStrategy[] operatorSchedulingStrategies )
+    public static int[] findFusionStartIndices ( final OperatorDef[] operatorDefs, final SchedulingStrategy[] operatorSchedulingStrategies )
     {
+        checkArgument( operatorDefs.length == operatorSchedulingStrategies.length );
         final int[] indices = new int[ operatorSchedulingStrategies.length ];
         indices[ 0 ] = 0;
         int j = 1;
         for ( int i = 1; i < operatorSchedulingStrategies.length; i++ )
         {
-            if ( !isFusible( operatorSchedulingStrategies[ i ] ) )
+            if ( !isFusible( operatorDefs[ i ], operatorSchedulingStrategies[ i ] ) )
             {
                 indices[ j++ ] = i;
             }
@@ -192,6 +198,14 @@ public class Region
         return copyOf( indices, j );
     }
 
+    /**
+     * {@link AsyncOperator} implementations are not fused since they hold back the input tuples in their own queues
+     */
+    public static boolean isFusible ( final OperatorDef operatorDef, final SchedulingStrategy strategy )
+    {
+        return !AsyncOperator.class.isAssignableFrom( operatorDef.getOperatorClazz() ) && isFusible( strategy );
+    }
+
     public static boolean isFusible ( SchedulingStrategy strategy )
     {
         if ( strategy instanceof ScheduleWhenAvailable )
@@ -0,0 +1,422 @@
+package cs.bilkent.joker.engine.region.impl;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.common.base.Charsets;
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.typesafe.config.ConfigValueFactory.fromAnyRef;
+import cs.bilkent.joker.Joker;
+import cs.bilkent.joker.Joker.JokerBuilder;
+import cs.bilkent.joker.engine.adaptation.AdaptationAction;
+import cs.bilkent.joker.engine.adaptation.AdaptationTracker;
+import cs.bilkent.joker.engine.adaptation.impl.bottleneckresolver.ModelBasedPlanner;
+import cs.bilkent.joker.engine.config.AdaptationConfig;
+import cs.bilkent.joker.engine.config.JokerConfig;
+import cs.bilkent.joker.engine.flow.FlowExecPlan;
+import cs.bilkent.joker.engine.flow.PipelineId;
+import cs.bilkent.joker.engine.flow.RegionDef;
+import cs.bilkent.joker.engine.flow.RegionExecPlan;
+import cs.bilkent.joker.engine.metric.FlowMetrics;
+import cs.bilkent.joker.engine.metric.PipelineMetrics;
+import cs.bilkent.joker.engine.metric.PipelineMetricsHistorySummarizer;
+import static cs.bilkent.joker.engine.util.ExceptionUtils.checkInterruption;
+import cs.bilkent.joker.flow.FlowDef;
+import cs.bilkent.joker.flow.Port;
+import cs.bilkent.joker.operator.OperatorDef;
+import cs.bilkent.joker.operator.utils.Pair;
+import static java.lang.Math.max;
+import static java.lang.Math.round;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Creates initial {@link RegionExecPlan} objects of a {@link FlowDef} by calibration. The flow is executed with the default
+ * execution plans until the metric history is filled. Then, replica counts and pipeline split points of the regions are computed
+ * with {@link ModelBasedPlanner} using the measured pipeline and operator costs. Available cores are shared among the regions
+ * proportional to their cpu utilization ratios.
+ * <p>
+ * Calibrated execution plans are stored in the given cache directory, in a file named by the fingerprint of the {@link FlowDef}.
+ * Therefore, calibration is skipped if the same flow is executed again with the same core count and max replica count.
+ * <p>
+ * Please keep in mind that the flow is actually executed during the calibration, hence its side effects are visible.
+ */
+@NotThreadSafe
+public class CalibratingRegionExecPlanFactory extends AbstractRegionExecPlanFactory
+{
+
+    private static final Logger LOGGER = LoggerFactory.getLogger( CalibratingRegionExecPlanFactory.class );
+
+    private static final String ADAPTATION_ENABLED_CONFIG_PATH = "joker.engine.adaptation.adaptationEnabled";
+
+    private static final String REPLICA_COUNT_KEY_SUFFIX = ".replicaCount";
+
+    private static final String PIPELINE_START_INDICES_KEY_SUFFIX = ".pipelineStartIndices";
+
+    private static final String CACHE_FILE_EXTENSION = ".properties";
+
+
+    private final JokerConfig jokerConfig;
+
+    private final FlowDef flow;
+
+    private final File cacheDir;
+
+    private final long calibrationTimeoutInMillis;
+
+    private final int availableCoreCount;
+
+    private final String fingerprint;
+
+    private Map<String, Pair<Integer, List<Integer>>> calibratedPlans = new HashMap<>();
+
+    public CalibratingRegionExecPlanFactory ( final JokerConfig jokerConfig,
+                                              final FlowDef flow,
+                                              final File cacheDir,
+                                              final long calibrationTimeoutInMillis )
+    {
+        super( jokerConfig );
+        checkArgument( flow != null );
+        checkArgument( cacheDir != null );
+        checkArgument( calibrationTimeoutInMillis > 0 );
+        this.jokerConfig = jokerConfig;
+        this.flow = flow;
+        this.cacheDir = cacheDir;
+        this.calibrationTimeoutInMillis = calibrationTimeoutInMillis;
+        final int cpuQuota = jokerConfig.getAdaptationConfig().getCpuQuota();
+        this.availableCoreCount = cpuQuota > 0 ? cpuQuota : Runtime.getRuntime().availableProcessors();
+        this.fingerprint = getFingerprint( flow, availableCoreCount, maxReplicaCount );
+    }
+
+    @Override
+    public List<RegionExecPlan> createRegionExecPlans ( final List<RegionDef> regionDefs )
+    {
+        final File cacheFile = new File( cacheDir, fingerprint + CACHE_FILE_EXTENSION );
+        calibratedPlans = readCache( cacheFile, regionDefs );
+        if ( calibratedPlans == null )
+        {
+            calibratedPlans = calibrate();
+            if ( !calibratedPlans.isEmpty() )
+            {
+                writeCache( cacheFile, calibratedPlans );
+            }
+        }
+        else
+        {
+            LOGGER.info( "Calibrated region execution plans are read from {}", cacheFile );
+        }
+
+        return super.createRegionExecPlans( regionDefs );
+    }
+
+    @Override
+    protected RegionExecPlan createRegionExecPlan ( final RegionDef regionDef )
+    {
+        final Pair<Integer, List<Integer>> plan = calibratedPlans.get( getRegionKey( regionDef ) );
+        if ( plan == null )
+        {
+            return new RegionExecPlan( regionDef, singletonList( 0 ), 1 );
+        }
+
+        return new RegionExecPlan( regionDef, new ArrayList<>( plan._2 ), plan._1 );
+    }
+
+    String getFingerprint ()
+    {
+        return fingerprint;
+    }
+
+    private Map<String, Pair<Integer, List<Integer>>> calibrate ()
+    {
+        final AdaptationConfig adaptationConfig = jokerConfig.getAdaptationConfig();
+        if ( !( adaptationConfig.isPipelineSplitEnabled() || adaptationConfig.isRegionRebalanceEnabled() ) )
+        {
+            LOGGER.warn( "Skipping calibration since both pipeline split and region rebalance are disabled" );
+            return new HashMap<>();
+        }
+
+        final JokerConfig warmUpConfig = new JokerConfig( jokerConfig.getRootConfig()
+                                                                     .withValue( ADAPTATION_ENABLED_CONFIG_PATH, fromAnyRef( true ) ) );
+        final CalibrationTracker tracker = new CalibrationTracker();
+        final Joker joker = new JokerBuilder( warmUpConfig ).setAdaptationTracker( tracker ).build();
+
+        try
+        {
+            LOGGER.info( "Starting calibration of flow with fingerprint: {}", fingerprint );
+            joker.run( flow );
+            final Pair<FlowExecPlan, FlowMetrics> result = tracker.result.get( calibrationTimeoutInMillis, MILLISECONDS );
+            tracker.shutdownFuture.get( calibrationTimeoutInMillis, MILLISECONDS );
+
+            return computeCalibratedPlans( result._1, result._2, adaptationConfig.getPipelineMetricsHistorySummarizer() );
+        }
+        catch ( Exception e )
+        {
+            checkInterruption( e );
+            LOGGER.error( "Calibration failed. Default region execution plans will be used.", e );
+            if ( tracker.shutdownFuture == null )
+            {
+                try
+                {
+                    joker.shutdown().get( calibrationTimeoutInMillis, MILLISECONDS );
+                }
+                catch ( Exception e2 )
+                {
+                    checkInterruption( e2 );
+                    LOGGER.error( "Shutdown of calibration flow failed", e2 );
+                }
+            }
+
+            return new HashMap<>();
+        }
+    }
+
+    private Map<String, Pair<Integer, List<Integer>>> computeCalibratedPlans ( final FlowExecPlan flowExecPlan,
+                                                                               final FlowMetrics flowMetrics,
+                                                                               final PipelineMetricsHistorySummarizer summarizer )
+    {
+        final List<Pair<RegionExecPlan, List<PipelineMetrics>>> regions = new ArrayList<>();
+        for ( RegionExecPlan regionExecPlan : flowExecPlan.getRegionExecPlans() )
+        {
+            final List<PipelineMetrics> regionMetrics = flowMetrics.getRegionMetrics( regionExecPlan.getRegionId(), summarizer );
+            regions.add( Pair.of( regionExecPlan, regionMetrics ) );
+        }
+
+        final Map<String, Pair<Integer, List<Integer>>> plans = new HashMap<>();
+        for ( RegionExecPlan regionExecPlan : computeRegionExecPlans( regions ) )
+        {
+            plans.put( getRegionKey( regionExecPlan.getRegionDef() ),
+                       Pair.of( regionExecPlan.getReplicaCount(), regionExecPlan.getPipelineStartIndices() ) );
+            LOGGER.info( "Calibrated region execution plan: {}", regionExecPlan.toPlanSummaryString() );
+        }
+
+        return plans;
+    }
+
+    /**
+     * Computes new execution plans of the regions using the metrics collected with their current execution plans.
+     * Each region gets a share of the available cores proportional to its cpu utilization ratio.
+     *
+     * @param regions
+     *         current execution plans of the regions along with their metrics
+     *
+     * @return new execution plans of the regions
+     */
+    List<RegionExecPlan> computeRegionExecPlans ( final List<Pair<RegionExecPlan, List<PipelineMetrics>>> regions )
+    {
+        final AdaptationConfig adaptationConfig = jokerConfig.getAdaptationConfig();
+        double totalCpuUtilizationRatio = 0;
+        for ( Pair<RegionExecPlan, List<PipelineMetrics>> region : regions )
+        {
+            totalCpuUtilizationRatio += getCpuUtilizationRatio( region._2 );
+        }
+
+        final List<RegionExecPlan> regionExecPlans = new ArrayList<>();
+        for ( Pair<RegionExecPlan, List<PipelineMetrics>> region : regions )
+        {
+            final RegionExecPlan regionExecPlan = region._1;
+            final List<PipelineMetrics> metrics = region._2;
+            if ( metrics.isEmpty() || totalCpuUtilizationRatio <= 0 )
+            {
+                regionExecPlans.add( regionExecPlan );
+                continue;
+            }
+
+            final double share = getCpuUtilizationRatio( metrics ) / totalCpuUtilizationRatio;
+            final int coreCount = (int) max( 1, round( availableCoreCount * share ) );
+            final ModelBasedPlanner planner = new ModelBasedPlanner( adaptationConfig.isPipelineSplitEnabled(),
+                                                                     adaptationConfig.isRegionRebalanceEnabled(),
+                                                                     maxReplicaCount,
+                                                                     coreCount,
+                                                                     adaptationConfig.getThroughputIncreaseThreshold(),
+                                                                     adaptationConfig.getModelCorrectionWeight() );
+
+            final List<Pair<AdaptationAction, List<PipelineId>>> actions = planner.resolve( regionExecPlan, metrics );
+            regionExecPlans.add( actions.isEmpty() ? regionExecPlan : actions.get( actions.size() - 1 )._1.getNewExecPlan() );
+        }
+
+        return regionExecPlans;
+    }
+
+    private double getCpuUtilizationRatio ( final List<PipelineMetrics> metrics )
+    {
+        double cpuUtilizationRatio = 0;
+        for ( PipelineMetrics pipelineMetrics : metrics )
+        {
+            cpuUtilizationRatio += pipelineMetrics.getAvgCpuUtilizationRatio() * pipelineMetrics.getReplicaCount();
+        }
+
+        return cpuUtilizationRatio;
+    }
+
+    private Map<String, Pair<Integer, List<Integer>>> readCache ( final File cacheFile, final List<RegionDef> regionDefs )
+    {
+        if ( !cacheFile.exists() )
+        {
+            return null;
+        }
+
+        final Properties properties = new Properties();
+        try ( InputStream in = new FileInputStream( cacheFile ) )
+        {
+            properties.load( in );
+
+            final Map<String, Pair<Integer, List<Integer>>> plans = new HashMap<>();
+            for ( RegionDef regionDef : regionDefs )
+            {
+                final String regionKey = getRegionKey( regionDef );
+                final String replicaCount = properties.getProperty( regionKey + REPLICA_COUNT_KEY_SUFFIX );
+                final String pipelineStartIndices = properties.getProperty( regionKey + PIPELINE_START_INDICES_KEY_SUFFIX );
+                if ( replicaCount == null || pipelineStartIndices == null )
+                {
+                    LOGGER.warn( "Ignoring cache file {} since region {} is missing", cacheFile, regionKey );
+                    return null;
+                }
+
+                final List<Integer> startIndices = Splitter.on( "," )
+                                                           .splitToList( pipelineStartIndices )
+                                                           .stream()
+                                                           .map( String::trim )
+                                                           .map( Integer::valueOf )
+                                                           .collect( toList() );
+
+                plans.put( regionKey, Pair.of( Integer.valueOf( replicaCount ), startIndices ) );
+            }
+
+            return plans;
+        }
+        catch ( IOException | NumberFormatException e )
+        {
+            LOGGER.error( "Cannot read cache file " + cacheFile, e );
+            return null;
+        }
+    }
+
+    private void writeCache ( final File cacheFile, final Map<String, Pair<Integer, List<Integer>>> plans )
+    {
+        final Properties properties = new Properties();
+        for ( Entry<String, Pair<Integer, List<Integer>>> e : plans.entrySet() )
+        {
+            properties.setProperty( e.getKey() + REPLICA_COUNT_KEY_SUFFIX, String.valueOf( e.getValue()._1 ) );
+            properties.setProperty( e.getKey() + PIPELINE_START_INDICES_KEY_SUFFIX, Joiner.on( "," ).join( e.getValue()._2 ) );
+        }
+
+        if ( !( cacheDir.isDirectory() || cacheDir.mkdirs() ) )
+        {
+            LOGGER.error( "Cannot create cache dir {}", cacheDir );
+            return;
+        }
+
+        try ( OutputStream out = new FileOutputStream( cacheFile ) )
+        {
+            properties.store( out, "calibrated region execution plans of flow " + fingerprint );
+            LOGGER.info( "Calibrated region execution plans are written to {}", cacheFile );
+        }
+        catch ( IOException e )
+        {
+            LOGGER.error( "Cannot write cache file " + cacheFile, e );
+        }
+    }
+
+    private static String getRegionKey ( final RegionDef regionDef )
+    {
+        // each operator belongs to a single region
+        return regionDef.getOperators().get( 0 ).getId();
+    }
+
+    /**
+     * Computes a fingerprint of the given flow, which depends on the operators, their connections, and the given resource limits.
+     * Operator configurations are not included since they may contain objects without a stable string representation.
+     */
+    static String getFingerprint ( final FlowDef flow, final int availableCoreCount, final int maxReplicaCount )
+    {
+        final Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putInt( availableCoreCount ).putInt( maxReplicaCount );
+
+        final List<OperatorDef> operators = new ArrayList<>( flow.getOperators() );
+        operators.sort( Comparator.comparing( OperatorDef::getId ) );
+        for ( OperatorDef operator : operators )
+        {
+            hasher.putString( operator.getId(), Charsets.UTF_8 )
+                  .putString( operator.getOperatorClazz().getName(), Charsets.UTF_8 )
+                  .putString( operator.getOperatorType().name(), Charsets.UTF_8 )
+                  .putInt( operator.getInputPortCount() )
+                  .putInt( operator.getOutputPortCount() )
+                  .putString( operator.getSchema().toString(), Charsets.UTF_8 )
+                  .putString( String.valueOf( operator.getPartitionFieldNames() ), Charsets.UTF_8 );
+        }
+
+        final List<String> connections = flow.getConnections()
+                                             .stream()
+                                             .map( e -> toString( e.getKey() ) + "->" + toString( e.getValue() ) )
+                                             .sorted()
+                                             .collect( toList() );
+        for ( String connection : connections )
+        {
+            hasher.putString( connection, Charsets.UTF_8 );
+        }
+
+        return hasher.hash().toString();
+    }
+
+    private static String toString ( final Port port )
+    {
+        return port.getOperatorId() + ":" + port.getPortIndex();
+    }
+
+    private static class CalibrationTracker implements AdaptationTracker
+    {
+
+        private final CompletableFuture<Pair<FlowExecPlan, FlowMetrics>> result = new CompletableFuture<>();
+
+        private volatile ShutdownHook shutdownHook;
+
+        private volatile Future<Void> shutdownFuture;
+
+        @Override
+        public void init ( final ShutdownHook hook, final FlowExecPlan execPlan )
+        {
+            this.shutdownHook = hook;
+        }
+
+        @Override
+        public void onPeriod ( final FlowExecPlan execPlan, final FlowMetrics metrics )
+        {
+            // metric history is full at the first period. the flow is shut down before any adaptation is performed.
+            if ( shutdownFuture == null )
+            {
+                shutdownFuture = shutdownHook.shutdown();
+                result.complete( Pair.of( execPlan, metrics ) );
+            }
+        }
+
+        @Override
+        public void onExecPlanChange ( final FlowExecPlan newExecPlan )
+        {
+
+        }
+
+    }
+
+}
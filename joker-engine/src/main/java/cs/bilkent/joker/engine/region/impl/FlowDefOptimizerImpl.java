@@ -353,7 +353,8 @@ public class FlowDefOptimizerImpl implements FlowDefOptimizer
                                                                        o.getOutputPortCount(),
                                                                        o.getSchema(),
                                                                        o.getConfig(),
-                                                                       o.getPartitionFieldNames() );
+                                                                       o.getPartitionFieldNames(),
+                                                                       o.getStateRetentionPolicy() );
                 duplicateOperators.add( duplicateOperator );
                 operators.put( duplicateOperatorId, duplicateOperator );
                 LOGGER.debug( "Operator {} is duplicated with id {}", o.getId(), duplicateOperatorId );
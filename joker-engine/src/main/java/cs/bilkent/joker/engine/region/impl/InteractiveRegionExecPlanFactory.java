@@ -106,7 +106,7 @@ public class InteractiveRegionExecPlanFactory extends AbstractRegionExecPlanFact
     private int readReplicaCount ( final RegionDef regionDef ) throws IOException
     {
         final int replicaCount;
-        if ( regionDef.getRegionType() == OperatorType.PARTITIONED_STATEFUL )
+        if ( regionDef.getRegionType() != OperatorType.STATEFUL )
         {
             System.out.println( "Enter replica count: " );
             replicaCount = Integer.parseInt( br.readLine() );
@@ -48,6 +48,7 @@ import cs.bilkent.joker.operator.Tuple;
 import cs.bilkent.joker.operator.impl.DefaultInvocationCtx;
 import cs.bilkent.joker.operator.impl.InternalInvocationCtx;
 import cs.bilkent.joker.operator.impl.OutputCollector;
+import cs.bilkent.joker.operator.impl.StateEvictor;
 import cs.bilkent.joker.operator.impl.TuplesImpl;
 import cs.bilkent.joker.operator.kvstore.KVStore;
 import cs.bilkent.joker.operator.scheduling.SchedulingStrategy;
@@ -146,7 +147,7 @@ public class PipelineTransformerImpl implements PipelineTransformer
                                                           operator.getQueue(), operator.getDrainerPool(), operator.getDownstreamCtx() ) );
             }
 
-            if ( isFusible( schedulingStrategies[ downPipelineStartIndex ] ) )
+            if ( isFusible( region.getRegionDef().getOperator( downPipelineStartIndex ), schedulingStrategies[ downPipelineStartIndex ] ) )
             {
                 final OperatorReplica duplicate = fuseMergedOperatorReplicas( region,
                                                                               replicaIndex,
@@ -210,7 +211,7 @@ public class PipelineTransformerImpl implements PipelineTransformer
         final OperatorDef operatorDef = region.getRegionDef().getOperator( pipelineStartIndex );
         final String operatorId = operatorDef.getId();
 
-        if ( isFusible( schedulingStrategies[ pipelineStartIndex ] ) )
+        if ( isFusible( operatorDef, schedulingStrategies[ pipelineStartIndex ] ) )
         {
             for ( int replicaIndex = 0; replicaIndex < regionExecPlan.getReplicaCount(); replicaIndex++ )
             {
@@ -328,14 +329,15 @@ public class PipelineTransformerImpl implements PipelineTransformer
                                                                                           replicaIndex );
             final List<String> partitionFieldNames = fusingOperatorDef.getPartitionFieldNames();
             final int forwardedKeySize = region.getRegionDef().getForwardedKeySize();
-            final PartitionKeyExtractor ext = partitionKeyExtractorFactory.createPartitionKeyExtractor( partitionFieldNames,
+            final PartitionKeyExtractor ext = partitionKeyExtractorFactory.createPartitionKeyExtractor( fusingOperatorDef.getSchema(),
+                                                                                                        partitionFieldNames,
                                                                                                         forwardedKeySize );
 
             invocationCtxes[ upOperatorCount ] = new FusedPartitionedInvocationCtx( fusingOperatorDef.getInputPortCount(),
                                                                                     kvStore::getKVStore,
                                                                                     ext,
                                                                                     fusingOutputCollector );
-
+            invocationCtxes[ upOperatorCount ].setStateEvictor( kvStore.getStateEvictor() );
         }
         else
         {
@@ -365,12 +367,14 @@ public class PipelineTransformerImpl implements PipelineTransformer
                 final OperatorKVStore kvStore = operatorKVStoreManager.getPartitionedKVStore( regionId, operatorDef.getId(), replicaIndex );
                 final List<String> partitionFieldNames = operatorDef.getPartitionFieldNames();
                 final int forwardedKeySize = region.getRegionDef().getForwardedKeySize();
-                final PartitionKeyExtractor ext = partitionKeyExtractorFactory.createPartitionKeyExtractor( partitionFieldNames,
+                final PartitionKeyExtractor ext = partitionKeyExtractorFactory.createPartitionKeyExtractor( operatorDef.getSchema(),
+                                                                                                            partitionFieldNames,
                                                                                                             forwardedKeySize );
                 invocationCtxes[ i ] = new FusedPartitionedInvocationCtx( operatorDef.getInputPortCount(),
                                                                           kvStore::getKVStore,
                                                                           ext,
                                                                           outputCollector );
+                invocationCtxes[ i ].setStateEvictor( kvStore.getStateEvictor() );
             }
             else
             {
@@ -390,9 +394,12 @@ public class PipelineTransformerImpl implements PipelineTransformer
 
         final OperatorDef upOperatorDef = upOperatorReplica.getOperatorDef( 0 );
         final Function<PartitionKey, KVStore> kvStoreSupplier;
+        StateEvictor stateEvictor = null;
         if ( upOperatorDef.getOperatorType() == PARTITIONED_STATEFUL )
         {
-            kvStoreSupplier = operatorKVStoreManager.getPartitionedKVStore( regionId, upOperatorDef.getId(), replicaIndex )::getKVStore;
+            final OperatorKVStore kvStore = operatorKVStoreManager.getPartitionedKVStore( regionId, upOperatorDef.getId(), replicaIndex );
+            kvStoreSupplier = kvStore::getKVStore;
+            stateEvictor = kvStore.getStateEvictor();
         }
         else if ( upOperatorDef.getOperatorType() == STATEFUL )
         {
@@ -406,6 +413,7 @@ public class PipelineTransformerImpl implements PipelineTransformer
         invocationCtxes[ 0 ] = new DefaultInvocationCtx( upOperatorDef.getInputPortCount(),
                                                          kvStoreSupplier,
                                                          (OutputCollector) invocationCtxes[ 1 ] );
+        invocationCtxes[ 0 ].setStateEvictor( stateEvictor );
 
         final Function<PartitionKey, TuplesImpl> drainerTuplesSupplier = ( (DefaultInvocationCtx) invocationCtxes[ 0 ] )::createInputTuples;
         return OperatorReplica.newRunningInstance( pipelineReplicaId,
@@ -472,7 +480,7 @@ public class PipelineTransformerImpl implements PipelineTransformer
 
         copyNonSplitPipelines( region, pipelineIndex, newPipelineReplicas );
 
-        if ( isFusible( region.getSchedulingStrategies()[ splitPipelineStartIndex ] ) )
+        if ( isFusible( splitOperatorDef, region.getSchedulingStrategies()[ splitPipelineStartIndex ] ) )
         {
             for ( int replicaIndex = 0; replicaIndex < replicaCount; replicaIndex++ )
             {
@@ -785,12 +793,14 @@ public class PipelineTransformerImpl implements PipelineTransformer
                                                                                               pipelineReplicaId.replicaIndex );
                 final List<String> partitionFieldNames = operatorDef.getPartitionFieldNames();
                 final int forwardedKeySize = regionDef.getForwardedKeySize();
-                final PartitionKeyExtractor ext = partitionKeyExtractorFactory.createPartitionKeyExtractor( partitionFieldNames,
+                final PartitionKeyExtractor ext = partitionKeyExtractorFactory.createPartitionKeyExtractor( operatorDef.getSchema(),
+                                                                                                            partitionFieldNames,
                                                                                                             forwardedKeySize );
                 invocationCtxes[ j ] = new FusedPartitionedInvocationCtx( operatorDef.getInputPortCount(),
                                                                           kvStore::getKVStore,
                                                                           ext,
                                                                           outputCollector );
+                invocationCtxes[ j ].setStateEvictor( kvStore.getStateEvictor() );
             }
             else
             {
@@ -810,11 +820,14 @@ public class PipelineTransformerImpl implements PipelineTransformer
 
         final OperatorDef headOperatorDef = operatorReplica.getOperatorDef( from );
         final Function<PartitionKey, KVStore> kvStoreSupplier;
+        StateEvictor stateEvictor = null;
         if ( headOperatorDef.getOperatorType() == PARTITIONED_STATEFUL )
         {
-            kvStoreSupplier = operatorKVStoreManager.getPartitionedKVStore( regionDef.getRegionId(),
-                                                                            headOperatorDef.getId(),
-                                                                            pipelineReplicaId.replicaIndex )::getKVStore;
+            final OperatorKVStore kvStore = operatorKVStoreManager.getPartitionedKVStore( regionDef.getRegionId(),
+                                                                                          headOperatorDef.getId(),
+                                                                                          pipelineReplicaId.replicaIndex );
+            kvStoreSupplier = kvStore::getKVStore;
+            stateEvictor = kvStore.getStateEvictor();
         }
         else if ( headOperatorDef.getOperatorType() == STATEFUL )
         {
@@ -836,6 +849,7 @@ public class PipelineTransformerImpl implements PipelineTransformer
         }
 
         invocationCtxes[ 0 ] = new DefaultInvocationCtx( headOperatorDef.getInputPortCount(), kvStoreSupplier, outputCollector );
+        invocationCtxes[ 0 ].setStateEvictor( stateEvictor );
     }
 
     private PipelineReplica duplicateSplitPipelineHead ( final PipelineReplica pipelineReplica,
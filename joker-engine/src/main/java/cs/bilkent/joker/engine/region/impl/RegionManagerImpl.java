@@ -152,7 +152,7 @@ public class RegionManagerImpl implements RegionManager
 
             final SchedulingStrategy[] pipelineSchedulingStrategies = new SchedulingStrategy[ pipelineOperatorCount ];
             arraycopy( schedulingStrategies, pipelineId, pipelineSchedulingStrategies, 0, pipelineOperatorCount );
-            final int[] fusionStartIndices = findFusionStartIndices( pipelineSchedulingStrategies );
+            final int[] fusionStartIndices = findFusionStartIndices( operatorDefs, pipelineSchedulingStrategies );
 
             final int pipelineOperatorReplicaCount = fusionStartIndices.length;
             final OperatorReplica[][] operatorReplicas = new OperatorReplica[ replicaCount ][ pipelineOperatorReplicaCount ];
@@ -225,8 +225,8 @@ public class RegionManagerImpl implements RegionManager
                         else if ( operatorDef.getOperatorType() == PARTITIONED_STATEFUL )
                         {
                             final List<String> partitionFieldNames = operatorDef.getPartitionFieldNames();
-                            final PartitionKeyExtractor ext = partitionKeyExtractorFactory.createPartitionKeyExtractor( partitionFieldNames,
-                                                                                                                        forwardedKeySize );
+                            final PartitionKeyExtractor ext = partitionKeyExtractorFactory.createPartitionKeyExtractor(
+                                    operatorDef.getSchema(), partitionFieldNames, forwardedKeySize );
                             invocationCtx = new FusedPartitionedInvocationCtx( inputPortCount, kvStoreSupplier, ext, outputCollector );
                         }
                         else
@@ -234,6 +234,11 @@ public class RegionManagerImpl implements RegionManager
                             invocationCtx = new FusedInvocationCtx( inputPortCount, kvStoreSupplier, outputCollector );
                         }
 
+                        if ( operatorDef.getOperatorType() == PARTITIONED_STATEFUL )
+                        {
+                            invocationCtx.setStateEvictor( operatorKvStores[ replicaIndex ].getStateEvictor() );
+                        }
+
                         fusedInvocationCtxes[ replicaIndex ][ j ] = invocationCtx;
                     }
                 }
@@ -418,8 +423,8 @@ public class RegionManagerImpl implements RegionManager
                 final OperatorQueue[] queues = Arrays.stream( pipelineReplicas )
                                                      .map( p -> p.getOperatorReplica( 0 ).getQueue() )
                                                      .toArray( OperatorQueue[]::new );
-                final PartitionKeyExtractor e = partitionKeyExtractorFactory.createPartitionKeyExtractor( region.getRegionDef()
-                                                                                                                .getPartitionFieldNames() );
+                final PartitionKeyExtractor e = partitionKeyExtractorFactory.createPartitionKeyExtractor(
+                        operatorDefs[ 0 ].getSchema(), region.getRegionDef().getPartitionFieldNames() );
                 rebalanceNonFusedStatelessOperator( region.getRegionId(),
                                                     e,
                                                     newPartitionDistribution,
@@ -484,7 +489,7 @@ public class RegionManagerImpl implements RegionManager
 
             result.getTuplesByDefaultPort().forEach( tuple -> {
                 final int partitionId = getPartitionId( partitionKeyExtractor.getPartitionHash( tuple ),
-                                                        config.getPartitionServiceConfig().getPartitionCount() );
+                                                        newPartitionDistribution.getPartitionCount() );
                 final int replicaIndex = newPartitionDistribution.getReplicaIndex( partitionId );
                 buffer.get( replicaIndex ).add( tuple );
             } );
@@ -567,7 +572,7 @@ public class RegionManagerImpl implements RegionManager
             final int pipelineOperatorCount = operatorDefs.length;
             final SchedulingStrategy[] pipelineSchedulingStrategies = new SchedulingStrategy[ pipelineOperatorCount ];
             arraycopy( region.getSchedulingStrategies(), pipelineId, pipelineSchedulingStrategies, 0, pipelineOperatorCount );
-            final int[] fusionStartIndices = findFusionStartIndices( pipelineSchedulingStrategies );
+            final int[] fusionStartIndices = findFusionStartIndices( operatorDefs, pipelineSchedulingStrategies );
             final int pipelineOperatorReplicaCount = fusionStartIndices.length;
             final int forwardedKeySize = currentRegionExecPlan.getRegionDef().getForwardedKeySize();
 
@@ -670,8 +675,8 @@ public class RegionManagerImpl implements RegionManager
                         else if ( operatorDef.getOperatorType() == PARTITIONED_STATEFUL )
                         {
                             final List<String> partitionFieldNames = operatorDef.getPartitionFieldNames();
-                            final PartitionKeyExtractor ext = partitionKeyExtractorFactory.createPartitionKeyExtractor( partitionFieldNames,
-                                                                                                                        forwardedKeySize );
+                            final PartitionKeyExtractor ext = partitionKeyExtractorFactory.createPartitionKeyExtractor(
+                                    operatorDef.getSchema(), partitionFieldNames, forwardedKeySize );
                             invocationCtx = new FusedPartitionedInvocationCtx( operatorDef.getInputPortCount(),
                                                                                fusedKVStoreSupplier,
                                                                                ext,
@@ -684,6 +689,11 @@ public class RegionManagerImpl implements RegionManager
                                                                     outputCollector );
                         }
 
+                        if ( operatorDef.getOperatorType() == PARTITIONED_STATEFUL )
+                        {
+                            invocationCtx.setStateEvictor( kvStore.getStateEvictor() );
+                        }
+
                         fusedInvocationCtxes[ j ] = invocationCtx;
                     }
 
@@ -963,7 +973,10 @@ public class RegionManagerImpl implements RegionManager
                           regionId,
                           operatorId );
             final PartitionDistribution partitionDistribution = partitionService.getPartitionDistributionOrFail( regionId );
-            operatorKvStores = operatorKvStoreManager.createPartitionedKVStores( regionId, operatorId, partitionDistribution );
+            operatorKvStores = operatorKvStoreManager.createPartitionedKVStores( regionId,
+                                                                                 operatorId,
+                                                                                 partitionDistribution,
+                                                                                 operatorDef.getStateRetentionPolicy() );
         }
         else
         {
@@ -0,0 +1,457 @@
+package cs.bilkent.joker.engine.spill;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import cs.bilkent.joker.engine.exception.JokerException;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.TupleAccessor;
+import cs.bilkent.joker.operator.codec.CodecRegistry;
+import cs.bilkent.joker.operator.codec.FieldCodec;
+import cs.bilkent.joker.operator.codec.TupleCodec;
+import cs.bilkent.joker.operator.schema.runtime.TupleSchema;
+import static java.util.Comparator.comparingLong;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Append-only file which keeps tuples moved out of the heap. A group of tuples is encoded with {@link TupleCodec} and written as a
+ * {@link SpillSegment}, which is read back and released with {@link #pageIn(SpillSegment)}, or released without reading with
+ * {@link #discard(SpillSegment)}. The file is created with the first write, truncated when all of its segments are released, and deleted
+ * when the spill file is closed.
+ * <p>
+ * Since released segments leave dead bytes behind, the file is compacted once it is larger than {@link #MIN_COMPACTION_FILE_SIZE} and
+ * more than half of it is dead. Live segments are moved to the beginning of the file in their offset order and the file is truncated
+ * after the last live segment. Therefore, the file size stays within twice of the live bytes, or the minimum compaction size.
+ * <p>
+ * Field values of {@link Tuple} type are encoded as nested tuples. If a tuple contains a field value which cannot be encoded, its group
+ * is not written and the caller keeps it on heap.
+ */
+@ThreadSafe
+public class SpillFile implements Closeable
+{
+
+    private static final Logger LOGGER = LoggerFactory.getLogger( SpillFile.class );
+
+    private static final int TUPLE_TYPE_ID = CodecRegistry.MIN_USER_TYPE_ID;
+
+    // schema id + ingestion time
+    private static final int TUPLE_HEADER_LENGTH = 4 + 8;
+
+    private static final long NO_INGESTION_TIME = Long.MIN_VALUE;
+
+    static final long MIN_COMPACTION_FILE_SIZE = 1024 * 1024;
+
+
+    private final File dir;
+
+    private final String name;
+
+    private final CodecRegistry registry = new CodecRegistry();
+
+    private final Map<TupleSchema, Integer> schemaIds = new IdentityHashMap<>();
+
+    private final List<TupleSchema> schemas = new ArrayList<>();
+
+    private final List<TupleCodec> codecs = new ArrayList<>();
+
+    private final ExpandableArrayBuffer writeBuffer = new ExpandableArrayBuffer();
+
+    private final UnsafeBuffer readBuffer = new UnsafeBuffer( new byte[ 0 ] );
+
+    private final Set<SpillSegment> liveSegments = new HashSet<>();
+
+    private File file;
+
+    private FileChannel channel;
+
+    private long writePosition;
+
+    private long liveByteCount;
+
+    private long spilledTupleCount;
+
+    private long spilledByteCount;
+
+    private long pageInCount;
+
+    private long pageInTupleCount;
+
+    private long pageInNanos;
+
+    private long compactionCount;
+
+    public SpillFile ( final String dir, final String name )
+    {
+        checkArgument( dir != null, "spill dir can't be null" );
+        checkArgument( name != null, "spill file name can't be null" );
+        this.dir = new File( dir );
+        this.name = name;
+        this.registry.register( TUPLE_TYPE_ID, Tuple.class, new NestedTupleCodec() );
+    }
+
+    /**
+     * Writes the given tuples as a single segment
+     *
+     * @param tuples
+     *         tuples to write
+     *
+     * @return the segment of the written tuples, or null if a tuple contains a field value which cannot be encoded
+     */
+    public synchronized SpillSegment write ( final List<Tuple> tuples )
+    {
+        checkArgument( tuples != null && tuples.size() > 0, "no tuples to spill to %s", name );
+
+        int length = 0;
+        try
+        {
+            for ( int i = 0; i < tuples.size(); i++ )
+            {
+                final Tuple tuple = tuples.get( i );
+                final int schemaId = getSchemaId( tuple.getSchema() );
+                final boolean ingestionTimeNA = TupleAccessor.isIngestionTimeNA( tuple );
+                writeBuffer.putInt( length, schemaId );
+                writeBuffer.putLong( length + 4, ingestionTimeNA ? NO_INGESTION_TIME : TupleAccessor.getIngestionTime( tuple ) );
+                length += TUPLE_HEADER_LENGTH;
+                length += codecs.get( schemaId ).encode( tuple, writeBuffer, length );
+            }
+        }
+        catch ( IllegalArgumentException e )
+        {
+            LOGGER.debug( "{} tuples cannot be spilled to {}: {}", tuples.size(), name, e.getMessage() );
+            return null;
+        }
+
+        final long offset = writePosition;
+        write( ByteBuffer.wrap( writeBuffer.byteArray(), 0, length ), offset );
+        writePosition += length;
+        liveByteCount += length;
+        spilledTupleCount += tuples.size();
+        spilledByteCount += length;
+
+        final SpillSegment segment = new SpillSegment( offset, length, tuples.size() );
+        liveSegments.add( segment );
+
+        return segment;
+    }
+
+    /**
+     * Reads the tuples of the given segment and releases the segment
+     *
+     * @param segment
+     *         segment to read
+     *
+     * @return tuples of the segment in the order they are written
+     */
+    public synchronized List<Tuple> pageIn ( final SpillSegment segment )
+    {
+        checkArgument( segment != null, "no segment to page in from %s", name );
+        checkArgument( liveSegments.contains( segment ), "segment %s is not live in %s", segment, name );
+        final long start = System.nanoTime();
+
+        final int length = segment.getLength();
+        readSegment( segment );
+
+        final List<Tuple> tuples = new ArrayList<>( segment.getTupleCount() );
+        int position = 0;
+        for ( int i = 0; i < segment.getTupleCount(); i++ )
+        {
+            final int schemaId = readBuffer.getInt( position );
+            final long ingestionTime = readBuffer.getLong( position + 4 );
+            position += TUPLE_HEADER_LENGTH;
+            final Tuple tuple = new Tuple( schemas.get( schemaId ) );
+            position += codecs.get( schemaId ).decode( readBuffer, position, tuple );
+            if ( ingestionTime != NO_INGESTION_TIME )
+            {
+                TupleAccessor.setIngestionTime( tuple, ingestionTime, false );
+            }
+            tuples.add( tuple );
+        }
+
+        checkState( position == length, "invalid segment %s in %s", segment, name );
+
+        release( segment );
+        pageInCount++;
+        pageInTupleCount += tuples.size();
+        pageInNanos += ( System.nanoTime() - start );
+
+        return tuples;
+    }
+
+    /**
+     * Releases the given segment without reading its tuples
+     *
+     * @param segment
+     *         segment to release
+     */
+    public synchronized void discard ( final SpillSegment segment )
+    {
+        checkArgument( segment != null, "no segment to discard from %s", name );
+        checkArgument( liveSegments.contains( segment ), "segment %s is not live in %s", segment, name );
+        release( segment );
+    }
+
+    public synchronized long getLiveByteCount ()
+    {
+        return liveByteCount;
+    }
+
+    public synchronized long getSpilledTupleCount ()
+    {
+        return spilledTupleCount;
+    }
+
+    public synchronized long getSpilledByteCount ()
+    {
+        return spilledByteCount;
+    }
+
+    public synchronized long getPageInCount ()
+    {
+        return pageInCount;
+    }
+
+    public synchronized long getPageInTupleCount ()
+    {
+        return pageInTupleCount;
+    }
+
+    public synchronized long getPageInNanos ()
+    {
+        return pageInNanos;
+    }
+
+    public synchronized long getCompactionCount ()
+    {
+        return compactionCount;
+    }
+
+    @Override
+    public synchronized void close ()
+    {
+        if ( spilledTupleCount > 0 )
+        {
+            LOGGER.info( "Closing {} spilledTuples={} spilledBytes={} pageIns={} pagedInTuples={} avgPageInMicros={} compactions={}",
+                         name,
+                         spilledTupleCount,
+                         spilledByteCount,
+                         pageInCount,
+                         pageInTupleCount,
+                         pageInCount > 0 ? ( pageInNanos / pageInCount / 1000 ) : 0,
+                         compactionCount );
+        }
+
+        if ( channel == null )
+        {
+            return;
+        }
+
+        try
+        {
+            channel.close();
+        }
+        catch ( IOException e )
+        {
+            LOGGER.warn( "Closing " + file + " failed", e );
+        }
+
+        if ( !file.delete() )
+        {
+            LOGGER.warn( "{} could not be deleted", file );
+        }
+
+        channel = null;
+        file = null;
+        writePosition = 0;
+        liveByteCount = 0;
+        liveSegments.clear();
+    }
+
+    private int getSchemaId ( final TupleSchema schema )
+    {
+        Integer schemaId = schemaIds.get( schema );
+        if ( schemaId == null )
+        {
+            final TupleCodec codec = new TupleCodec( schema, registry );
+            schemaId = schemas.size();
+            schemas.add( schema );
+            codecs.add( codec );
+            schemaIds.put( schema, schemaId );
+        }
+
+        return schemaId;
+    }
+
+    private void release ( final SpillSegment segment )
+    {
+        liveSegments.remove( segment );
+        liveByteCount -= segment.getLength();
+        checkState( liveByteCount >= 0, "released more bytes than written to %s", name );
+        if ( channel == null )
+        {
+            return;
+        }
+
+        if ( liveByteCount == 0 )
+        {
+            truncate( 0 );
+        }
+        else if ( writePosition > MIN_COMPACTION_FILE_SIZE && liveByteCount < writePosition / 2 )
+        {
+            compact();
+        }
+    }
+
+    private void compact ()
+    {
+        final long start = System.nanoTime();
+        final long fileSize = writePosition;
+
+        final List<SpillSegment> segments = new ArrayList<>( liveSegments );
+        segments.sort( comparingLong( SpillSegment::getOffset ) );
+
+        // segments are only moved towards the beginning of the file, hence a segment does not overwrite the live segments after itself
+        long position = 0;
+        for ( SpillSegment segment : segments )
+        {
+            if ( segment.getOffset() != position )
+            {
+                readSegment( segment );
+                write( ByteBuffer.wrap( readBuffer.byteArray(), 0, segment.getLength() ), position );
+                segment.setOffset( position );
+            }
+
+            position += segment.getLength();
+        }
+
+        truncate( position );
+        compactionCount++;
+
+        LOGGER.debug( "{} is compacted from {} bytes to {} bytes with {} live segments in {} micros",
+                      name,
+                      fileSize,
+                      position,
+                      segments.size(),
+                      NANOSECONDS.toMicros( System.nanoTime() - start ) );
+    }
+
+    private void truncate ( final long size )
+    {
+        try
+        {
+            channel.truncate( size );
+        }
+        catch ( IOException e )
+        {
+            throw new JokerException( "Truncating " + file + " failed", e );
+        }
+
+        writePosition = size;
+    }
+
+    private void readSegment ( final SpillSegment segment )
+    {
+        final int length = segment.getLength();
+        if ( readBuffer.capacity() < length )
+        {
+            readBuffer.wrap( new byte[ length ] );
+        }
+
+        read( ByteBuffer.wrap( readBuffer.byteArray(), 0, length ), segment.getOffset() );
+    }
+
+    private void write ( final ByteBuffer buffer, final long offset )
+    {
+        try
+        {
+            final FileChannel channel = getOrCreateChannel();
+            long position = offset;
+            while ( buffer.hasRemaining() )
+            {
+                position += channel.write( buffer, position );
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new JokerException( "Writing to " + file + " failed", e );
+        }
+    }
+
+    private void read ( final ByteBuffer buffer, final long offset )
+    {
+        checkState( channel != null, "%s is not open", name );
+        try
+        {
+            long position = offset;
+            while ( buffer.hasRemaining() )
+            {
+                final int read = channel.read( buffer, position );
+                checkState( read >= 0, "unexpected end of %s at %s", file, position );
+                position += read;
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new JokerException( "Reading from " + file + " failed", e );
+        }
+    }
+
+    private FileChannel getOrCreateChannel () throws IOException
+    {
+        if ( channel == null )
+        {
+            checkState( dir.isDirectory() || dir.mkdirs(), "spill dir %s cannot be created", dir );
+            file = File.createTempFile( "joker-" + name.replaceAll( "[^A-Za-z0-9_.-]", "_" ) + "-", ".spill", dir );
+            file.deleteOnExit();
+            channel = new RandomAccessFile( file, "rw" ).getChannel();
+            LOGGER.info( "Spill file {} is created for {}", file, name );
+        }
+
+        return channel;
+    }
+
+    /**
+     * Encodes a tuple value with the id of its schema, so that it is decoded with the same schema object
+     */
+    private class NestedTupleCodec implements FieldCodec<Tuple>
+    {
+
+        @Override
+        public int encode ( final MutableDirectBuffer buffer, final int offset, final Tuple value )
+        {
+            final int schemaId = getSchemaId( value.getSchema() );
+            buffer.putInt( offset, schemaId );
+            return 4 + codecs.get( schemaId ).encode( value, buffer, offset + 4 );
+        }
+
+        @Override
+        public Tuple decode ( final DirectBuffer buffer, final int offset, final int length )
+        {
+            final int schemaId = buffer.getInt( offset );
+            final Tuple tuple = new Tuple( schemas.get( schemaId ) );
+            codecs.get( schemaId ).decode( buffer, offset + 4, tuple );
+            return tuple;
+        }
+
+    }
+
+}
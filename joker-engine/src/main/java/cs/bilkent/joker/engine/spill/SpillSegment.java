@@ -0,0 +1,49 @@
+package cs.bilkent.joker.engine.spill;
+
+/**
+ * Location of a group of tuples written to a {@link SpillFile}. Offset of a segment changes when its spill file is compacted.
+ */
+public final class SpillSegment
+{
+
+    // guarded by the spill file which writes the segment
+    private long offset;
+
+    private final int length;
+
+    private final int tupleCount;
+
+    SpillSegment ( final long offset, final int length, final int tupleCount )
+    {
+        this.offset = offset;
+        this.length = length;
+        this.tupleCount = tupleCount;
+    }
+
+    public long getOffset ()
+    {
+        return offset;
+    }
+
+    void setOffset ( final long offset )
+    {
+        this.offset = offset;
+    }
+
+    public int getLength ()
+    {
+        return length;
+    }
+
+    public int getTupleCount ()
+    {
+        return tupleCount;
+    }
+
+    @Override
+    public String toString ()
+    {
+        return "SpillSegment{" + "offset=" + offset + ", length=" + length + ", tupleCount=" + tupleCount + '}';
+    }
+
+}
@@ -29,4 +29,9 @@ public interface Supervisor
 
     void notifyPipelineReplicaFailed ( PipelineReplicaId id, Throwable failure );
 
+    /**
+     * Notifies that all of the other Joker instances, which share the partitions of the flow, have completed sending tuples
+     */
+    void notifyRemotePartitionSendersCompleted ();
+
 }
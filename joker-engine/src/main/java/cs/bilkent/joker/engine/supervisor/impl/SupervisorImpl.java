@@ -1,6 +1,7 @@
 package cs.bilkent.joker.engine.supervisor.impl;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
@@ -28,6 +29,8 @@ import cs.bilkent.joker.engine.exception.JokerException;
 import cs.bilkent.joker.engine.flow.FlowExecPlan;
 import cs.bilkent.joker.engine.flow.PipelineId;
 import cs.bilkent.joker.engine.flow.RegionExecPlan;
+import static cs.bilkent.joker.engine.jfr.FlightRecorderEvents.beginAdaptationAction;
+import static cs.bilkent.joker.engine.jfr.FlightRecorderEvents.commitAdaptationAction;
 import cs.bilkent.joker.engine.metric.FlowMetrics;
 import cs.bilkent.joker.engine.metric.MetricManager;
 import cs.bilkent.joker.engine.metric.PipelineMeter;
@@ -36,6 +39,7 @@ import cs.bilkent.joker.engine.pipeline.PipelineManager;
 import cs.bilkent.joker.engine.pipeline.PipelineReplicaId;
 import cs.bilkent.joker.engine.pipeline.UpstreamCtx;
 import cs.bilkent.joker.engine.supervisor.Supervisor;
+import static cs.bilkent.joker.engine.supervisor.impl.SupervisorLoop.ADAPTATION_CHECK_PERIOD_IN_MILLIS;
 import static cs.bilkent.joker.engine.util.ExceptionUtils.checkInterruption;
 import cs.bilkent.joker.flow.FlowDef;
 import cs.bilkent.joker.operator.utils.Pair;
@@ -63,8 +67,12 @@ public class SupervisorImpl implements Supervisor
 
     private PipelineManager pipelineManager;
 
+    private final SupervisorLoop supervisorLoop;
+
     private final Thread supervisorThread;
 
+    private final TaskRunner taskRunner = new TaskRunner();
+
     private final Object monitor = new Object();
 
     private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>( Integer.MAX_VALUE );
@@ -78,13 +86,17 @@ public class SupervisorImpl implements Supervisor
                             final MetricManager metricManager,
                             final AdaptationManager adaptationManager,
                             final AdaptationTracker adaptationTracker,
-                            @Named( JOKER_THREAD_GROUP_NAME ) final ThreadGroup jokerThreadGroup )
+                            @Named( JOKER_THREAD_GROUP_NAME ) final ThreadGroup jokerThreadGroup,
+                            final Optional<SupervisorLoop> sharedSupervisorLoop )
     {
         this.config = config;
         this.metricManager = metricManager;
         this.adaptationManager = adaptationManager;
         this.adaptationTracker = adaptationTracker;
-        this.supervisorThread = new Thread( jokerThreadGroup, new TaskRunner(), jokerThreadGroup.getName() + "-Supervisor" );
+        this.supervisorLoop = sharedSupervisorLoop.orElse( null );
+        this.supervisorThread = supervisorLoop == null
+                                ? new Thread( jokerThreadGroup, taskRunner, jokerThreadGroup.getName() + "-Supervisor" )
+                                : null;
     }
 
     @Inject
@@ -98,6 +110,11 @@ public class SupervisorImpl implements Supervisor
         return pipelineManager.getFlowStatus();
     }
 
+    public FlowMetrics getMetrics ()
+    {
+        return metricManager.getMetrics();
+    }
+
     public FlowExecPlan start ( final FlowDef flow, final List<RegionExecPlan> regionExecPlans ) throws InitializationException
     {
         synchronized ( monitor )
@@ -116,7 +133,14 @@ public class SupervisorImpl implements Supervisor
                     adaptationManager.initialize( flow, flowExecPlan.getRegionExecPlans() );
                 }
 
-                supervisorThread.start();
+                if ( supervisorLoop != null )
+                {
+                    supervisorLoop.register( this );
+                }
+                else
+                {
+                    supervisorThread.start();
+                }
                 LOGGER.info( "Initial flow execution plan: {}", flowExecPlan.toSummaryString() );
 
                 return flowExecPlan;
@@ -139,7 +163,7 @@ public class SupervisorImpl implements Supervisor
             if ( shutdownFuture == null )
             {
                 shutdownFuture = new CompletableFuture<>();
-                final boolean result = queue.offer( this::doShutdown );
+                final boolean result = offerTask( this::doShutdown );
                 assert result : "offer failed for trigger shutdown";
                 LOGGER.info( "trigger shutdown task offered" );
             }
@@ -165,7 +189,7 @@ public class SupervisorImpl implements Supervisor
                         pipelineManager.getFlowStatus(),
                         shutdownFuture );
 
-            final boolean result = queue.offer( () -> doDisableAdaptation( future ) );
+            final boolean result = offerTask( () -> doDisableAdaptation( future ) );
             assert result : "offer failed for disable adaptation";
             LOGGER.info( "disable adaptation task offered" );
         }
@@ -192,7 +216,7 @@ public class SupervisorImpl implements Supervisor
                         shutdownFuture );
             checkState( !isAdaptationEnabled(), "cannot merge pipelines manually when adaptation is enabled" );
 
-            final boolean result = queue.offer( () -> doMergePipelines( future, flowVersion, pipelineIdsToMerge ) );
+            final boolean result = offerTask( () -> doMergePipelines( future, flowVersion, pipelineIdsToMerge ) );
             assert result : "offer failed for merge pipelines " + pipelineIdsToMerge + " with flow version " + flowVersion;
             LOGGER.info( "merge pipelines {} with flow version {} task offered", pipelineIdsToMerge, flowVersion );
         }
@@ -216,7 +240,7 @@ public class SupervisorImpl implements Supervisor
                         shutdownFuture );
             checkState( !isAdaptationEnabled(), "cannot split pipeline manually when adaptation is enabled" );
 
-            final boolean result = queue.offer( () -> doSplitPipeline( future, flowVersion, pipelineId, pipelineOperatorIndices ) );
+            final boolean result = offerTask( () -> doSplitPipeline( future, flowVersion, pipelineId, pipelineOperatorIndices ) );
             assert result : "offer failed for split pipeline " + pipelineId + " into " + pipelineOperatorIndices + " with flow version "
                             + flowVersion;
             LOGGER.info( "split pipeline {} into {} with flow version {} task offered", pipelineId, pipelineOperatorIndices, flowVersion );
@@ -239,7 +263,7 @@ public class SupervisorImpl implements Supervisor
                         shutdownFuture );
             checkState( !isAdaptationEnabled(), "cannot rebalance region manually when adaptation is enabled" );
 
-            final boolean result = queue.offer( () -> doRebalanceRegion( future, flowVersion, regionId, newReplicaCount ) );
+            final boolean result = offerTask( () -> doRebalanceRegion( future, flowVersion, regionId, newReplicaCount ) );
             assert result :
                     "offer failed for rebalance region " + regionId + " to new replica count: " + newReplicaCount + " with flow version "
                     + flowVersion;
@@ -252,6 +276,32 @@ public class SupervisorImpl implements Supervisor
         return future;
     }
 
+    private boolean offerTask ( final Runnable task )
+    {
+        final boolean result = queue.offer( task );
+        if ( supervisorLoop != null )
+        {
+            supervisorLoop.notifyTaskOffered();
+        }
+
+        return result;
+    }
+
+    /**
+     * Runs the next pending task, or checks adaptation if there is no pending task. Called by the shared {@link SupervisorLoop}.
+     *
+     * @return true if the flow is shut down
+     */
+    boolean runNextTask ()
+    {
+        return taskRunner.runNextTask( queue.poll() );
+    }
+
+    boolean hasPendingTask ()
+    {
+        return !queue.isEmpty();
+    }
+
     private boolean isDeploymentChangeable ()
     {
         return isInitialized() && ( shutdownFuture == null );
@@ -395,7 +445,7 @@ public class SupervisorImpl implements Supervisor
 
             if ( !shutdownFuture.isDone() )
             {
-                final boolean result = queue.offer( () -> doNotifyPipelineReplicaCompleted( id ) );
+                final boolean result = offerTask( () -> doNotifyPipelineReplicaCompleted( id ) );
                 assert result : "offer failed for notify pipeline replica " + id + " completed";
                 LOGGER.info( "notify pipeline replica {} completed task offered", id );
             }
@@ -419,7 +469,7 @@ public class SupervisorImpl implements Supervisor
 
             if ( shutdownFuture == null || !shutdownFuture.isDone() )
             {
-                final boolean result = queue.offer( () -> doNotifyPipelineReplicaFailed( id, failure ) );
+                final boolean result = offerTask( () -> doNotifyPipelineReplicaFailed( id, failure ) );
                 assert result : "offer failed for notify pipeline replica " + id + " failed: " + failure;
                 LOGGER.info( "notify pipeline replica {} failed with {} task offered", id, failure );
             }
@@ -430,6 +480,24 @@ public class SupervisorImpl implements Supervisor
         }
     }
 
+    @Override
+    public void notifyRemotePartitionSendersCompleted ()
+    {
+        synchronized ( monitor )
+        {
+            if ( shutdownFuture == null || !shutdownFuture.isDone() )
+            {
+                final boolean result = offerTask( pipelineManager::handleRemotePartitionSendersCompleted );
+                assert result : "offer failed for notify remote partition senders completed";
+                LOGGER.info( "notify remote partition senders completed task offered" );
+            }
+            else
+            {
+                LOGGER.warn( "not offered remote partition senders completed since shutdown future is set." );
+            }
+        }
+    }
+
     private void doNotifyPipelineReplicaCompleted ( final PipelineReplicaId id )
     {
         if ( pipelineManager.handlePipelineReplicaCompleted( id ) )
@@ -522,6 +590,7 @@ public class SupervisorImpl implements Supervisor
         for ( AdaptationAction action : actions )
         {
             LOGGER.info( "Performing: {}", action );
+            final Object event = beginAdaptationAction();
             // new adaptation performer for each iteration is needed to get the latest flow execution version
             final DefaultAdaptationPerformer performer = new DefaultAdaptationPerformer( pipelineManager );
             action.apply( performer );
@@ -531,6 +600,7 @@ public class SupervisorImpl implements Supervisor
             flowExecPlan = pipelineManager.getFlowExecPlan();
             final RegionExecPlan newRegionExecPlan = flowExecPlan.getRegionExecPlan( regionId );
             checkState( newRegionExecPlan.equals( action.getNewExecPlan() ) );
+            commitAdaptationAction( event, action, flowExecPlan.getVersion() );
 
             LOGGER.info( "Region execution plan after adaptation action: {}", newRegionExecPlan.toPlanSummaryString() );
 
@@ -577,18 +647,11 @@ public class SupervisorImpl implements Supervisor
         {
             try
             {
-                while ( true )
+                boolean shutDown = false;
+                while ( !shutDown )
                 {
-                    final Runnable task = pollTask();
-                    if ( run( task ) )
-                    {
-                        break;
-                    }
-
-                    log();
+                    shutDown = runNextTask( queue.poll( ADAPTATION_CHECK_PERIOD_IN_MILLIS, MILLISECONDS ) );
                 }
-
-                clearTaskQueue();
             }
             catch ( InterruptedException e )
             {
@@ -597,15 +660,16 @@ public class SupervisorImpl implements Supervisor
             }
         }
 
-        private Runnable pollTask () throws InterruptedException
+        boolean runNextTask ( final Runnable task )
         {
-            Runnable task = queue.poll( 100, MILLISECONDS );
-            if ( task == null )
+            if ( run( task != null ? task : SupervisorImpl.this::checkAdaptation ) )
             {
-                task = SupervisorImpl.this::checkAdaptation;
+                clearTaskQueue();
+                return true;
             }
 
-            return task;
+            log();
+            return false;
         }
 
         private boolean run ( final Runnable task )
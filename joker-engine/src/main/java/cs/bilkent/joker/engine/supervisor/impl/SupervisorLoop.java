@@ -0,0 +1,137 @@
+package cs.bilkent.joker.engine.supervisor.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Runs tasks and adaptation checks of multiple {@link SupervisorImpl} objects on a single thread, instead of a thread per supervisor.
+ * In each round, the loop runs a single pending task of each supervisor, or checks adaptation of the supervisor if it has no pending task.
+ * If the supervisors have no pending task after a round, the loop waits for a new task, or the adaptation check period.
+ * Since the supervisors share the thread, a long-running task of a supervisor delays the tasks of the others.
+ * A supervisor is removed from the loop once its flow is shut down.
+ */
+@ThreadSafe
+public class SupervisorLoop
+{
+
+    private static final Logger LOGGER = LoggerFactory.getLogger( SupervisorLoop.class );
+
+    static final long ADAPTATION_CHECK_PERIOD_IN_MILLIS = 100;
+
+
+    private final Thread thread;
+
+    private final Object monitor = new Object();
+
+    @GuardedBy( "monitor" )
+    private final List<SupervisorImpl> supervisors = new ArrayList<>();
+
+    @GuardedBy( "monitor" )
+    private boolean taskOffered;
+
+    @GuardedBy( "monitor" )
+    private boolean shutdown;
+
+    public SupervisorLoop ( final ThreadGroup threadGroup )
+    {
+        this.thread = new Thread( threadGroup, this::run, threadGroup.getName() + "-Supervisor" );
+        this.thread.start();
+    }
+
+    public int getSupervisorCount ()
+    {
+        synchronized ( monitor )
+        {
+            return supervisors.size();
+        }
+    }
+
+    /**
+     * Stops the loop thread. The supervisors of the flows, which are not shut down yet, are not run anymore.
+     */
+    public void shutdown ()
+    {
+        synchronized ( monitor )
+        {
+            shutdown = true;
+            monitor.notifyAll();
+        }
+    }
+
+    void register ( final SupervisorImpl supervisor )
+    {
+        synchronized ( monitor )
+        {
+            checkState( !shutdown, "cannot register supervisor since loop is shut down" );
+            supervisors.add( supervisor );
+            taskOffered = true;
+            monitor.notifyAll();
+        }
+    }
+
+    void notifyTaskOffered ()
+    {
+        synchronized ( monitor )
+        {
+            taskOffered = true;
+            monitor.notifyAll();
+        }
+    }
+
+    private void run ()
+    {
+        try
+        {
+            boolean hasPendingTask = false;
+            List<SupervisorImpl> round;
+            while ( ( round = awaitRound( hasPendingTask ) ) != null )
+            {
+                hasPendingTask = false;
+                for ( SupervisorImpl supervisor : round )
+                {
+                    if ( supervisor.runNextTask() )
+                    {
+                        synchronized ( monitor )
+                        {
+                            supervisors.remove( supervisor );
+                        }
+                    }
+                    else
+                    {
+                        hasPendingTask |= supervisor.hasPendingTask();
+                    }
+                }
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            LOGGER.error( "Supervisor loop thread is interrupted!" );
+            Thread.currentThread().interrupt();
+        }
+
+        LOGGER.info( "Supervisor loop is stopped." );
+    }
+
+    private List<SupervisorImpl> awaitRound ( final boolean hasPendingTask ) throws InterruptedException
+    {
+        synchronized ( monitor )
+        {
+            if ( !( hasPendingTask || taskOffered || shutdown ) )
+            {
+                monitor.wait( ADAPTATION_CHECK_PERIOD_IN_MILLIS );
+            }
+
+            taskOffered = false;
+
+            return shutdown ? null : new ArrayList<>( supervisors );
+        }
+    }
+
+}
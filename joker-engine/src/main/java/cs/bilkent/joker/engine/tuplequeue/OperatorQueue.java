@@ -68,6 +68,14 @@ public interface OperatorQueue
 
     boolean isEmpty ();
 
+    /**
+     * Returns the number of tuples waiting in the queue, summed over all input ports. The returned value may be stale if the queue is
+     * accessed by other threads concurrently, hence it should be used only as a hint.
+     *
+     * @return number of tuples waiting in the queue
+     */
+    int getQueuedTupleCount ();
+
     void ensureCapacity ( int capacity );
 
 }
@@ -16,6 +16,7 @@ import org.slf4j.LoggerFactory;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import cs.bilkent.joker.engine.config.JokerConfig;
+import cs.bilkent.joker.engine.config.SpillConfig;
 import cs.bilkent.joker.engine.config.ThreadingPref;
 import static cs.bilkent.joker.engine.config.ThreadingPref.MULTI_THREADED;
 import static cs.bilkent.joker.engine.config.ThreadingPref.SINGLE_THREADED;
@@ -23,6 +24,7 @@ import cs.bilkent.joker.engine.config.TupleQueueManagerConfig;
 import cs.bilkent.joker.engine.partition.PartitionDistribution;
 import cs.bilkent.joker.engine.partition.PartitionKeyExtractor;
 import cs.bilkent.joker.engine.partition.PartitionKeyExtractorFactory;
+import cs.bilkent.joker.engine.spill.SpillFile;
 import cs.bilkent.joker.engine.tuplequeue.OperatorQueue;
 import cs.bilkent.joker.engine.tuplequeue.OperatorQueueManager;
 import cs.bilkent.joker.engine.tuplequeue.TupleQueue;
@@ -51,6 +53,8 @@ public class OperatorQueueManagerImpl implements OperatorQueueManager
 
     private final TupleQueueManagerConfig tupleQueueManagerConfig;
 
+    private final SpillConfig spillConfig;
+
     private final Map<Triple<Integer, String, Integer>, DefaultOperatorQueue> defaultOperatorQueues = new HashMap<>();
 
     private final Map<Pair<Integer, String>, PartitionedOperatorQueue[]> partitionedOperatorQueues = new HashMap<>();
@@ -60,6 +64,7 @@ public class OperatorQueueManagerImpl implements OperatorQueueManager
     {
         this.partitionKeyExtractorFactory = partitionKeyExtractorFactory;
         this.tupleQueueManagerConfig = jokerConfig.getTupleQueueManagerConfig();
+        this.spillConfig = jokerConfig.getSpillConfig();
     }
 
     @Override
@@ -151,8 +156,8 @@ public class OperatorQueueManagerImpl implements OperatorQueueManager
 
         final PartitionedOperatorQueue[] operatorQueues = new PartitionedOperatorQueue[ replicaCount ];
         final List<String> partitionFieldNames = operatorDef.getPartitionFieldNames();
-        final PartitionKeyExtractor partitionKeyExtractor = partitionKeyExtractorFactory.createPartitionKeyExtractor( partitionFieldNames,
-                                                                                                                      forwardedKeySize );
+        final PartitionKeyExtractor partitionKeyExtractor = partitionKeyExtractorFactory.createPartitionKeyExtractor(
+                operatorDef.getSchema(), partitionFieldNames, forwardedKeySize );
 
         for ( int replicaIndex = 0; replicaIndex < replicaCount; replicaIndex++ )
         {
@@ -161,7 +166,9 @@ public class OperatorQueueManagerImpl implements OperatorQueueManager
                                                                            partitionDistribution.getPartitionCount(),
                                                                            replicaIndex,
                                                                            tupleQueueManagerConfig.getTupleQueueCapacity(),
-                                                                           partitionKeyExtractor );
+                                                                           partitionKeyExtractor,
+                                                                           createSpillFile( operatorId, replicaIndex ),
+                                                                           spillConfig.getPartitionedQueueTupleLimit() );
         }
 
         partitionedOperatorQueues.put( key, operatorQueues );
@@ -193,11 +200,28 @@ public class OperatorQueueManagerImpl implements OperatorQueueManager
         PartitionedOperatorQueue[] queues = this.partitionedOperatorQueues.get( key );
         checkState( queues != null, "partitioned operator queues do not exist for regionId=%s operatorId=%s", regionId, operatorId );
 
-        final Map<Integer, Map<PartitionKey, TupleQueue[]>> migratingPartitions = getMigratingPartitions( currentPartitionDistribution,
-                                                                                                          newPartitionDistribution,
+        // partitions are split before the migrations and merged after the migrations
+        // so that the migrations are performed between distributions with the same partition count
+        PartitionDistribution fromPartitionDistribution = currentPartitionDistribution;
+        if ( newPartitionDistribution.getPartitionCount() > currentPartitionDistribution.getPartitionCount() )
+        {
+            fromPartitionDistribution = currentPartitionDistribution.split( newPartitionDistribution.getPartitionCount() );
+            setPartitionCount( queues, fromPartitionDistribution.getPartitionCount() );
+        }
+
+        final int partitionCount = fromPartitionDistribution.getPartitionCount();
+        final PartitionDistribution toPartitionDistribution = newPartitionDistribution.split( partitionCount );
+
+        final Map<Integer, Map<PartitionKey, TupleQueue[]>> migratingPartitions = getMigratingPartitions( fromPartitionDistribution,
+                                                                                                          toPartitionDistribution,
                                                                                                           queues );
 
-        queues = migratePartitions( currentPartitionDistribution, newPartitionDistribution, queues, migratingPartitions );
+        queues = migratePartitions( fromPartitionDistribution, toPartitionDistribution, queues, migratingPartitions );
+
+        if ( newPartitionDistribution.getPartitionCount() < partitionCount )
+        {
+            setPartitionCount( queues, newPartitionDistribution.getPartitionCount() );
+        }
 
         this.partitionedOperatorQueues.put( key, queues );
         LOGGER.debug( "partitioned operator queues of regionId={} operatorId={} are rebalanced to {} replicas",
@@ -208,6 +232,14 @@ public class OperatorQueueManagerImpl implements OperatorQueueManager
         return queues;
     }
 
+    private void setPartitionCount ( final PartitionedOperatorQueue[] queues, final int partitionCount )
+    {
+        for ( PartitionedOperatorQueue queue : queues )
+        {
+            queue.setPartitionCount( partitionCount );
+        }
+    }
+
     private Map<Integer, Map<PartitionKey, TupleQueue[]>> getMigratingPartitions ( final PartitionDistribution currentPartitionDistribution,
                                                                                    final PartitionDistribution newPartitionDistribution,
                                                                                    final PartitionedOperatorQueue[] queues )
@@ -257,6 +289,11 @@ public class OperatorQueueManagerImpl implements OperatorQueueManager
                     newQueues[ replicaIndex ].acquireKeys( partitionId, keys );
                 }
             }
+
+            for ( int replicaIndex = newReplicaCount; replicaIndex < currentReplicaCount; replicaIndex++ )
+            {
+                queues[ replicaIndex ].closeSpillFile();
+            }
         }
         else
         {
@@ -268,7 +305,9 @@ public class OperatorQueueManagerImpl implements OperatorQueueManager
                                                                           partitionCount,
                                                                           replicaIndex,
                                                                           tupleQueueManagerConfig.getTupleQueueCapacity(),
-                                                                          partitionKeyExtractor );
+                                                                          partitionKeyExtractor,
+                                                                          createSpillFile( operatorId, replicaIndex ),
+                                                                          spillConfig.getPartitionedQueueTupleLimit() );
                 final List<Integer> migratedPartitionIds = currentPartitionDistribution.getPartitionIdsMigratedToReplicaIndex(
                         newPartitionDistribution,
                         replicaIndex );
@@ -288,6 +327,11 @@ public class OperatorQueueManagerImpl implements OperatorQueueManager
         return newQueues;
     }
 
+    private SpillFile createSpillFile ( final String operatorId, final int replicaIndex )
+    {
+        return spillConfig.isSpillEnabled() ? new SpillFile( spillConfig.getSpillDir(), operatorId + "-" + replicaIndex + "-queue" ) : null;
+    }
+
     @Override
     public void releaseDefaultQueue ( final int regionId, final String operatorId, final int replicaIndex )
     {
@@ -303,8 +347,13 @@ public class OperatorQueueManagerImpl implements OperatorQueueManager
     @Override
     public void releasePartitionedQueues ( final int regionId, final String operatorId )
     {
-        final OperatorQueue[] operatorQueues = partitionedOperatorQueues.remove( Pair.of( regionId, operatorId ) );
+        final PartitionedOperatorQueue[] operatorQueues = partitionedOperatorQueues.remove( Pair.of( regionId, operatorId ) );
         checkState( operatorQueues != null, "no partitioned queue to release for regionId=%s operatorId=%s", regionId, operatorId );
+
+        for ( PartitionedOperatorQueue operatorQueue : operatorQueues )
+        {
+            operatorQueue.closeSpillFile();
+        }
     }
 
     @Override
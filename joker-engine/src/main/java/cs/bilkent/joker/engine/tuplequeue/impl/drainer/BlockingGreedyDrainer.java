@@ -3,6 +3,8 @@ package cs.bilkent.joker.engine.tuplequeue.impl.drainer;
 import java.util.function.Function;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static cs.bilkent.joker.engine.jfr.FlightRecorderEvents.onDrainerCompleted;
+import static cs.bilkent.joker.engine.jfr.FlightRecorderEvents.onDrainerIdle;
 import cs.bilkent.joker.engine.tuplequeue.TupleQueue;
 import cs.bilkent.joker.engine.tuplequeue.TupleQueueDrainer;
 import cs.bilkent.joker.engine.util.concurrent.BackoffIdleStrategy;
@@ -31,6 +33,7 @@ public class BlockingGreedyDrainer implements TupleQueueDrainer
         checkArgument( tuplesSupplier != null );
 
         boolean idle = maySkipBlocking;
+        Object drainerIdleEvent = null;
 
         boolean empty = true;
         while ( empty )
@@ -44,14 +47,22 @@ public class BlockingGreedyDrainer implements TupleQueueDrainer
                 }
             }
 
-            if ( empty && idle )
+            if ( empty )
             {
-                return false;
+                if ( idle )
+                {
+                    onDrainerCompleted( drainerIdleEvent, false );
+                    return false;
+                }
+
+                drainerIdleEvent = onDrainerIdle( drainerIdleEvent, this );
             }
 
             idle = idleStrategy.idle();
         }
 
+        onDrainerCompleted( drainerIdleEvent, true );
+
         final TuplesImpl tuples = tuplesSupplier.apply( key );
 
         for ( int portIndex = 0; portIndex < inputPortCount; portIndex++ )
@@ -1,5 +1,7 @@
 package cs.bilkent.joker.engine.tuplequeue.impl.drainer;
 
+import static cs.bilkent.joker.engine.jfr.FlightRecorderEvents.onDrainerCompleted;
+import static cs.bilkent.joker.engine.jfr.FlightRecorderEvents.onDrainerIdle;
 import cs.bilkent.joker.engine.tuplequeue.TupleQueue;
 import cs.bilkent.joker.engine.util.concurrent.BackoffIdleStrategy;
 import cs.bilkent.joker.engine.util.concurrent.IdleStrategy;
@@ -20,6 +22,7 @@ public class BlockingMultiPortConjunctiveDrainer extends MultiPortDrainer
         idleStrategy.reset();
 
         boolean idle = maySkipBlocking;
+        Object drainerIdleEvent = null;
         while ( true )
         {
             int satisfied = 0;
@@ -35,15 +38,18 @@ public class BlockingMultiPortConjunctiveDrainer extends MultiPortDrainer
 
             if ( satisfied == inputPortCount )
             {
+                onDrainerCompleted( drainerIdleEvent, true );
                 return tupleCounts;
             }
             else
             {
                 if ( idle )
                 {
+                    onDrainerCompleted( drainerIdleEvent, false );
                     return null;
                 }
 
+                drainerIdleEvent = onDrainerIdle( drainerIdleEvent, this );
                 idle = idleStrategy.idle();
             }
         }
@@ -1,5 +1,7 @@
 package cs.bilkent.joker.engine.tuplequeue.impl.drainer;
 
+import static cs.bilkent.joker.engine.jfr.FlightRecorderEvents.onDrainerCompleted;
+import static cs.bilkent.joker.engine.jfr.FlightRecorderEvents.onDrainerIdle;
 import cs.bilkent.joker.engine.tuplequeue.TupleQueue;
 import cs.bilkent.joker.engine.util.concurrent.BackoffIdleStrategy;
 import cs.bilkent.joker.engine.util.concurrent.IdleStrategy;
@@ -21,6 +23,7 @@ public class BlockingMultiPortDisjunctiveDrainer extends MultiPortDrainer
         idleStrategy.reset();
 
         boolean idle = maySkipBlocking;
+        Object drainerIdleEvent = null;
         while ( true )
         {
             boolean satisfied = false;
@@ -46,15 +49,18 @@ public class BlockingMultiPortDisjunctiveDrainer extends MultiPortDrainer
 
             if ( satisfied )
             {
+                onDrainerCompleted( drainerIdleEvent, true );
                 return tupleCountsBuffer;
             }
             else
             {
                 if ( idle )
                 {
+                    onDrainerCompleted( drainerIdleEvent, false );
                     return null;
                 }
 
+                drainerIdleEvent = onDrainerIdle( drainerIdleEvent, this );
                 idle = idleStrategy.idle();
             }
         }
@@ -3,6 +3,8 @@ package cs.bilkent.joker.engine.tuplequeue.impl.drainer;
 import java.util.function.Function;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static cs.bilkent.joker.engine.jfr.FlightRecorderEvents.onDrainerCompleted;
+import static cs.bilkent.joker.engine.jfr.FlightRecorderEvents.onDrainerIdle;
 import cs.bilkent.joker.engine.tuplequeue.TupleQueue;
 import cs.bilkent.joker.engine.util.concurrent.BackoffIdleStrategy;
 import cs.bilkent.joker.engine.util.concurrent.IdleStrategy;
@@ -30,17 +32,22 @@ public class BlockingSinglePortDrainer extends SinglePortDrainer
         idleStrategy.reset();
         final TupleQueue tupleQueue = queues[ 0 ];
         boolean idle = maySkipBlocking;
+        Object drainerIdleEvent = null;
 
         while ( tupleQueue.size() < tupleCountToCheck )
         {
             if ( idle )
             {
+                onDrainerCompleted( drainerIdleEvent, false );
                 return false;
             }
 
+            drainerIdleEvent = onDrainerIdle( drainerIdleEvent, this );
             idle = idleStrategy.idle();
         }
 
+        onDrainerCompleted( drainerIdleEvent, true );
+
         tupleQueue.poll( tupleCountToPoll, tuplesSupplier.apply( key ).getTuplesModifiable( 0 ) );
 
         return true;
@@ -137,6 +137,18 @@ public class DefaultOperatorQueue implements OperatorQueue
         return true;
     }
 
+    @Override
+    public int getQueuedTupleCount ()
+    {
+        int count = 0;
+        for ( int portIndex = 0; portIndex < getInputPortCount(); portIndex++ )
+        {
+            count += tupleQueues[ portIndex ].size();
+        }
+
+        return count;
+    }
+
     @Override
     public void ensureCapacity ( final int capacity )
     {
@@ -89,6 +89,12 @@ public class EmptyOperatorQueue implements OperatorQueue
         return true;
     }
 
+    @Override
+    public int getQueuedTupleCount ()
+    {
+        return 0;
+    }
+
     @Override
     public void ensureCapacity ( final int capacity )
     {
@@ -1,5 +1,6 @@
 package cs.bilkent.joker.engine.tuplequeue.impl.operator;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -16,6 +17,8 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import cs.bilkent.joker.engine.partition.PartitionKeyExtractor;
 import static cs.bilkent.joker.engine.partition.PartitionUtil.getPartitionId;
+import cs.bilkent.joker.engine.spill.SpillFile;
+import cs.bilkent.joker.engine.spill.SpillSegment;
 import cs.bilkent.joker.engine.tuplequeue.OperatorQueue;
 import cs.bilkent.joker.engine.tuplequeue.TupleQueue;
 import cs.bilkent.joker.engine.tuplequeue.TupleQueueDrainer;
@@ -29,6 +32,7 @@ import static cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.T
 import cs.bilkent.joker.partition.impl.PartitionKey;
 import gnu.trove.map.hash.THashMap;
 import gnu.trove.set.hash.TLinkedHashSet;
+import static java.lang.Math.max;
 
 
 public class PartitionedOperatorQueue implements OperatorQueue
@@ -45,7 +49,7 @@ public class PartitionedOperatorQueue implements OperatorQueue
 
     private final int inputPortCount;
 
-    private final int partitionCount;
+    private int partitionCount;
 
     private final PartitionKeyExtractor partitionKeyExtractor;
 
@@ -55,6 +59,16 @@ public class PartitionedOperatorQueue implements OperatorQueue
 
     private final Set<PartitionKey> drainableKeys = new TLinkedHashSet<>();
 
+    private final SpillFile spillFile;
+
+    private final int inMemoryTupleLimit;
+
+    private final Map<PartitionKey, SpilledTuples> spilledTuplesByKeys = new THashMap<>();
+
+    private int inMemoryTupleCount;
+
+    private int nextSpillCheckTupleCount;
+
     private int[] tupleCounts;
 
     private TupleAvailabilityByPort tupleAvailabilityByPort;
@@ -65,12 +79,38 @@ public class PartitionedOperatorQueue implements OperatorQueue
                                       final int replicaIndex,
                                       final int tupleQueueCapacity,
                                       final PartitionKeyExtractor partitionKeyExtractor )
+    {
+        this( operatorId,
+              inputPortCount,
+              partitionCount,
+              replicaIndex,
+              tupleQueueCapacity,
+              partitionKeyExtractor,
+              null,
+              Integer.MAX_VALUE );
+    }
+
+    /**
+     * Creates a partitioned operator queue which moves tuples of the keys that are not drainable to the given spill file when the number
+     * of tuples kept on heap exceeds the given limit. Spilled tuples of a key are paged in before the key is drained or released.
+     */
+    public PartitionedOperatorQueue ( final String operatorId,
+                                      final int inputPortCount,
+                                      final int partitionCount,
+                                      final int replicaIndex,
+                                      final int tupleQueueCapacity,
+                                      final PartitionKeyExtractor partitionKeyExtractor,
+                                      final SpillFile spillFile,
+                                      final int inMemoryTupleLimit )
     {
         checkArgument( inputPortCount >= 0, "invalid input port count %s for partitioned tuple queue of operator $s",
                        inputPortCount,
                        operatorId );
         checkArgument( partitionCount > 0 );
         checkArgument( tupleQueueCapacity > 0 );
+        checkArgument( inMemoryTupleLimit > 0, "invalid in-memory tuple limit %s for partitioned tuple queue of operator %s",
+                       inMemoryTupleLimit,
+                       operatorId );
         this.operatorId = operatorId;
         this.replicaIndex = replicaIndex;
         this.inputPortCount = inputPortCount;
@@ -85,6 +125,8 @@ public class PartitionedOperatorQueue implements OperatorQueue
             }
             return tupleQueues;
         };
+        this.spillFile = spillFile;
+        this.inMemoryTupleLimit = inMemoryTupleLimit;
         this.tupleCounts = new int[ inputPortCount ];
         Arrays.fill( this.tupleCounts, 1 );
         this.tupleAvailabilityByPort = ANY_PORT;
@@ -126,6 +168,12 @@ public class PartitionedOperatorQueue implements OperatorQueue
             addToDrainableKeys( partitionKey, tupleQueues );
         }
 
+        if ( size > startIndex )
+        {
+            inMemoryTupleCount += ( size - startIndex );
+            spillColdKeysIfNeeded();
+        }
+
         return ( size - startIndex );
     }
 
@@ -140,7 +188,10 @@ public class PartitionedOperatorQueue implements OperatorQueue
             while ( it.hasNext() )
             {
                 final PartitionKey key = it.next();
-                drainer.drain( maySkipBlocking, key, getTupleQueues( key ), tuplesSupplier );
+                final TupleQueue[] tupleQueues = getTupleQueues( key );
+                pageIn( key, tupleQueues );
+                inMemoryTupleCount -= getTupleCount( tupleQueues );
+                drainer.drain( maySkipBlocking, key, tupleQueues, tuplesSupplier );
                 it.remove();
                 drainableKeys.remove( key );
             }
@@ -159,6 +210,8 @@ public class PartitionedOperatorQueue implements OperatorQueue
             {
                 final PartitionKey key = it.next();
                 final TupleQueue[] tupleQueues = getTupleQueues( key );
+                pageIn( key, tupleQueues );
+                final int tupleCount = getTupleCount( tupleQueues );
                 while ( true )
                 {
                     if ( !drainer.drain( maySkipBlocking, key, tupleQueues, tuplesSupplier ) )
@@ -166,6 +219,7 @@ public class PartitionedOperatorQueue implements OperatorQueue
                         break;
                     }
                 }
+                inMemoryTupleCount -= ( tupleCount - getTupleCount( tupleQueues ) );
                 it.remove();
             }
         }
@@ -208,8 +262,28 @@ public class PartitionedOperatorQueue implements OperatorQueue
             }
         }
 
+        for ( Entry<PartitionKey, SpilledTuples> e : spilledTuplesByKeys.entrySet() )
+        {
+            final SpilledTuples spilledTuples = e.getValue();
+            for ( int portIndex = 0; portIndex < inputPortCount; portIndex++ )
+            {
+                final int size = spilledTuples.getTupleCount( portIndex );
+                if ( size > 0 )
+                {
+                    LOGGER.warn( "Tuple queue {} of operator: {} for key: {} has {} spilled tuples before clear",
+                                 portIndex,
+                                 operatorId,
+                                 e.getKey(),
+                                 size );
+                }
+                spilledTuples.getSegments( portIndex ).forEach( spillFile::discard );
+            }
+        }
+
         tupleQueuesByKeys.clear();
         drainableKeys.clear();
+        spilledTuplesByKeys.clear();
+        inMemoryTupleCount = 0;
     }
 
     @Override
@@ -242,6 +316,11 @@ public class PartitionedOperatorQueue implements OperatorQueue
     @Override
     public boolean isEmpty ()
     {
+        if ( !spilledTuplesByKeys.isEmpty() )
+        {
+            return false;
+        }
+
         for ( TupleQueue[] tupleQueues : tupleQueuesByKeys.values() )
         {
             for ( TupleQueue tupleQueue : tupleQueues )
@@ -256,6 +335,12 @@ public class PartitionedOperatorQueue implements OperatorQueue
         return true;
     }
 
+    @Override
+    public int getQueuedTupleCount ()
+    {
+        return inMemoryTupleCount;
+    }
+
     @Override
     public void ensureCapacity ( final int capacity )
     {
@@ -271,6 +356,7 @@ public class PartitionedOperatorQueue implements OperatorQueue
             final PartitionKey partitionKey = e.getKey();
             final TupleQueue[] prev = tupleQueuesByKeys.put( partitionKey, e.getValue() );
             checkState( prev == null );
+            inMemoryTupleCount += getTupleCount( e.getValue() );
             addToDrainableKeys( partitionKey, e.getValue() );
         }
     }
@@ -282,7 +368,13 @@ public class PartitionedOperatorQueue implements OperatorQueue
                        operatorId,
                        replicaIndex );
 
+        // partitions without any keys are released as well, for instance the partitions owned by the other Joker instances
         final Map<Integer, Map<PartitionKey, TupleQueue[]>> released = new HashMap<>();
+        for ( Integer partitionId : partitionIds )
+        {
+            released.put( partitionId, new HashMap<>() );
+        }
+
         final Iterator<Entry<PartitionKey, TupleQueue[]>> it = tupleQueuesByKeys.entrySet().iterator();
 
         while ( it.hasNext() )
@@ -294,7 +386,9 @@ public class PartitionedOperatorQueue implements OperatorQueue
 
             if ( partitionIds.contains( partitionId ) )
             {
-                released.computeIfAbsent( partitionId, i -> new HashMap<>() ).put( partitionKey, tupleQueues );
+                pageIn( partitionKey, tupleQueues );
+                inMemoryTupleCount -= getTupleCount( tupleQueues );
+                released.get( partitionId ).put( partitionKey, tupleQueues );
                 it.remove();
                 drainableKeys.remove( partitionKey );
             }
@@ -305,6 +399,17 @@ public class PartitionedOperatorQueue implements OperatorQueue
         return released;
     }
 
+    /**
+     * Sets the partition count after the partitions are split or merged. Partition ids of the keys are computed from their cached
+     * partition hashes when the partitions are released, hence tuple queues of the keys are not touched.
+     */
+    public void setPartitionCount ( final int partitionCount )
+    {
+        checkArgument( partitionCount > 0 );
+        this.partitionCount = partitionCount;
+        LOGGER.debug( "partition count of operatorId={} replicaIndex={} is set to {}", operatorId, replicaIndex, partitionCount );
+    }
+
     public PartitionKeyExtractor getPartitionKeyExtractor ()
     {
         return partitionKeyExtractor;
@@ -315,21 +420,43 @@ public class PartitionedOperatorQueue implements OperatorQueue
         return drainableKeys.size();
     }
 
+    public int getInMemoryTupleCount ()
+    {
+        return inMemoryTupleCount;
+    }
+
+    public int getSpilledKeyCount ()
+    {
+        return spilledTuplesByKeys.size();
+    }
+
+    public void closeSpillFile ()
+    {
+        if ( spillFile != null )
+        {
+            spillFile.close();
+        }
+    }
+
     private void addToDrainableKeys ( final PartitionKey key, final TupleQueue[] tupleQueues )
     {
-        if ( !drainableKeys.contains( key ) && checkIfDrainable( tupleQueues ) )
+        if ( !drainableKeys.contains( key ) )
         {
-            drainableKeys.add( key );
+            final SpilledTuples spilledTuples = spilledTuplesByKeys.isEmpty() ? null : spilledTuplesByKeys.get( key );
+            if ( checkIfDrainable( tupleQueues, spilledTuples ) )
+            {
+                drainableKeys.add( key );
+            }
         }
     }
 
-    private boolean checkIfDrainable ( final TupleQueue[] tupleQueues )
+    private boolean checkIfDrainable ( final TupleQueue[] tupleQueues, final SpilledTuples spilledTuples )
     {
         if ( tupleAvailabilityByPort == ANY_PORT )
         {
             for ( int i = 0; i < inputPortCount; i++ )
             {
-                if ( tupleCounts[ i ] > 0 && tupleQueues[ i ].size() >= tupleCounts[ i ] )
+                if ( tupleCounts[ i ] > 0 && getTupleCount( tupleQueues, spilledTuples, i ) >= tupleCounts[ i ] )
                 {
                     return true;
                 }
@@ -341,7 +468,7 @@ public class PartitionedOperatorQueue implements OperatorQueue
         {
             for ( int i = 0; i < inputPortCount; i++ )
             {
-                if ( tupleCounts[ i ] > 0 && tupleQueues[ i ].size() < tupleCounts[ i ] )
+                if ( tupleCounts[ i ] > 0 && getTupleCount( tupleQueues, spilledTuples, i ) < tupleCounts[ i ] )
                 {
                     return false;
                 }
@@ -351,9 +478,156 @@ public class PartitionedOperatorQueue implements OperatorQueue
         }
     }
 
+    private int getTupleCount ( final TupleQueue[] tupleQueues, final SpilledTuples spilledTuples, final int portIndex )
+    {
+        final int size = tupleQueues[ portIndex ].size();
+        return spilledTuples != null ? size + spilledTuples.getTupleCount( portIndex ) : size;
+    }
+
+    private int getTupleCount ( final TupleQueue[] tupleQueues )
+    {
+        int count = 0;
+        for ( int i = 0; i < inputPortCount; i++ )
+        {
+            count += tupleQueues[ i ].size();
+        }
+
+        return count;
+    }
+
+    /**
+     * Spills tuples of the keys that are not drainable until half of the in-memory tuple limit is reached. If not enough tuples can be
+     * spilled, the next attempt is made after a quarter of the limit more tuples are offered, so that keys are not scanned on each offer.
+     */
+    private void spillColdKeysIfNeeded ()
+    {
+        if ( spillFile == null || inMemoryTupleCount <= inMemoryTupleLimit || inMemoryTupleCount < nextSpillCheckTupleCount )
+        {
+            return;
+        }
+
+        final int initialTupleCount = inMemoryTupleCount;
+        final int targetTupleCount = inMemoryTupleLimit / 2;
+        for ( Entry<PartitionKey, TupleQueue[]> e : tupleQueuesByKeys.entrySet() )
+        {
+            if ( inMemoryTupleCount <= targetTupleCount )
+            {
+                break;
+            }
+
+            final PartitionKey key = e.getKey();
+            if ( !drainableKeys.contains( key ) )
+            {
+                spill( key, e.getValue() );
+            }
+        }
+
+        nextSpillCheckTupleCount = inMemoryTupleCount + max( 1, inMemoryTupleLimit / 4 );
+
+        LOGGER.debug( "{} tuples of operatorId={} replicaIndex={} are spilled. in-memory tuple count: {} spilled key count: {}",
+                      ( initialTupleCount - inMemoryTupleCount ),
+                      operatorId,
+                      replicaIndex,
+                      inMemoryTupleCount,
+                      spilledTuplesByKeys.size() );
+    }
+
+    private void spill ( final PartitionKey key, final TupleQueue[] tupleQueues )
+    {
+        for ( int portIndex = 0; portIndex < inputPortCount; portIndex++ )
+        {
+            if ( tupleQueues[ portIndex ].isEmpty() )
+            {
+                continue;
+            }
+
+            final List<Tuple> tuples = tupleQueues[ portIndex ].poll( Integer.MAX_VALUE );
+            final SpillSegment segment = spillFile.write( tuples );
+            if ( segment == null )
+            {
+                tupleQueues[ portIndex ].offer( tuples );
+                continue;
+            }
+
+            // the backing array of a drained queue does not shrink
+            tupleQueues[ portIndex ] = new SingleThreadedTupleQueue( TUPLE_QUEUE_INITIAL_SIZE );
+            spilledTuplesByKeys.computeIfAbsent( key, k -> new SpilledTuples( inputPortCount ) ).add( portIndex, segment );
+            inMemoryTupleCount -= tuples.size();
+        }
+    }
+
+    private void pageIn ( final PartitionKey key, final TupleQueue[] tupleQueues )
+    {
+        if ( spilledTuplesByKeys.isEmpty() )
+        {
+            return;
+        }
+
+        final SpilledTuples spilledTuples = spilledTuplesByKeys.remove( key );
+        if ( spilledTuples == null )
+        {
+            return;
+        }
+
+        for ( int portIndex = 0; portIndex < inputPortCount; portIndex++ )
+        {
+            final List<SpillSegment> segments = spilledTuples.getSegments( portIndex );
+            if ( segments.isEmpty() )
+            {
+                continue;
+            }
+
+            // spilled tuples are offered before the tuples offered after the spill
+            final TupleQueue tupleQueue = tupleQueues[ portIndex ];
+            final List<Tuple> newerTuples = tupleQueue.poll( Integer.MAX_VALUE );
+            for ( SpillSegment segment : segments )
+            {
+                tupleQueue.offer( spillFile.pageIn( segment ) );
+            }
+            tupleQueue.offer( newerTuples );
+            inMemoryTupleCount += spilledTuples.getTupleCount( portIndex );
+        }
+    }
+
     private TupleQueue[] getTupleQueues ( final PartitionKey key )
     {
         return tupleQueuesByKeys.computeIfAbsent( key, this.tupleQueuesConstructor );
     }
 
+
+    private static class SpilledTuples
+    {
+
+        private final List<List<SpillSegment>> segments;
+
+        private final int[] tupleCounts;
+
+        SpilledTuples ( final int portCount )
+        {
+            this.segments = new ArrayList<>( portCount );
+            for ( int i = 0; i < portCount; i++ )
+            {
+                this.segments.add( new ArrayList<>( 1 ) );
+            }
+            this.tupleCounts = new int[ portCount ];
+        }
+
+        void add ( final int portIndex, final SpillSegment segment )
+        {
+            segments.get( portIndex ).add( segment );
+            tupleCounts[ portIndex ] += segment.getTupleCount();
+        }
+
+        List<SpillSegment> getSegments ( final int portIndex )
+        {
+            return segments.get( portIndex );
+        }
+
+        int getTupleCount ( final int portIndex )
+        {
+            return tupleCounts[ portIndex ];
+        }
+
+    }
+
 }
@@ -18,6 +18,14 @@ public final class TupleAccessor
         tuple.setIngestionTime( ingestionTime, trackLatencyRecords );
     }
 
+    /**
+     * Starts tracking latency records of a tuple whose ingestion time is already assigned, i.e., by a source operator
+     */
+    public static void enableLatencyRecords ( final Tuple tuple )
+    {
+        tuple.enableLatencyRecords();
+    }
+
     public static void recordLatencies ( final TuplesImpl tuples, final LatencyMeter meter, final long now )
     {
         for ( int i = 0; i < tuples.getPortCount(); i++ )
@@ -74,11 +82,33 @@ public final class TupleAccessor
         tuple.recordInvocationLatency( operatorId, latency );
     }
 
+    public static boolean isTrackingLatencyRecords ( final TuplesImpl tuples )
+    {
+        for ( int i = 0; i < tuples.getPortCount(); i++ )
+        {
+            final List<Tuple> l = tuples.getTuplesModifiable( i );
+            for ( int j = 0; j < l.size(); j++ )
+            {
+                if ( !l.get( j ).isNotTrackingLatencyRecords() )
+                {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
     public static long getIngestionTime ( final Tuple tuple )
     {
         return tuple.getIngestionTime();
     }
 
+    public static boolean isIngestionTimeNA ( final Tuple tuple )
+    {
+        return tuple.isIngestionTimeNA();
+    }
+
     public static void setQueueOfferTime ( final List<Tuple> tuples, final int fromIndex, final long now )
     {
         for ( int i = fromIndex; i < tuples.size(); i++ )
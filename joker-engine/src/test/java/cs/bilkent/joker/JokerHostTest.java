@@ -0,0 +1,166 @@
+package cs.bilkent.joker;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static com.google.common.util.concurrent.Uninterruptibles.sleepUninterruptibly;
+import cs.bilkent.joker.engine.config.JokerConfig;
+import cs.bilkent.joker.flow.FlowDef;
+import cs.bilkent.joker.flow.FlowDefBuilder;
+import cs.bilkent.joker.operator.OperatorConfig;
+import cs.bilkent.joker.operator.OperatorDef;
+import cs.bilkent.joker.operator.OperatorDefBuilder;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.schema.runtime.OperatorRuntimeSchemaBuilder;
+import cs.bilkent.joker.operators.BeaconOperator;
+import static cs.bilkent.joker.operators.BeaconOperator.TUPLE_COUNT_CONFIG_PARAMETER;
+import static cs.bilkent.joker.operators.BeaconOperator.TUPLE_POPULATOR_CONFIG_PARAMETER;
+import cs.bilkent.joker.operators.ForEachOperator;
+import static cs.bilkent.joker.operators.ForEachOperator.CONSUMER_FUNCTION_CONFIG_PARAMETER;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertTrue;
+
+public class JokerHostTest extends AbstractJokerTest
+{
+
+    private final JokerHost host = new JokerHost( 4, 1 );
+
+    @After
+    public void after () throws InterruptedException, ExecutionException, TimeoutException
+    {
+        host.shutdown().get( 60, SECONDS );
+    }
+
+    @Test
+    public void shouldRunMultipleFlows () throws InterruptedException, ExecutionException, TimeoutException
+    {
+        final AtomicInteger count1 = new AtomicInteger();
+        final AtomicInteger count2 = new AtomicInteger();
+
+        host.submit( "flow1", createFlow( tuple -> count1.incrementAndGet() ), 2 );
+        host.submit( "flow2", createFlow( tuple -> count2.incrementAndGet() ), 2 );
+
+        sleepUninterruptibly( 2, SECONDS );
+
+        assertTrue( count1.get() > 0 );
+        assertTrue( count2.get() > 0 );
+        assertThat( host.getSupervisorLoop().getSupervisorCount(), equalTo( 2 ) );
+
+        host.cancel( "flow1" ).get( 60, SECONDS );
+
+        assertThat( host.getFlowIds().size(), equalTo( 1 ) );
+        assertTrue( host.getFlowIds().contains( "flow2" ) );
+        assertTrueEventually( () -> assertThat( host.getSupervisorLoop().getSupervisorCount(), equalTo( 1 ) ) );
+
+        final int count2AfterCancel = count2.get();
+        sleepUninterruptibly( 1, SECONDS );
+
+        assertTrue( count2.get() > count2AfterCancel );
+    }
+
+    @Test
+    public void shouldReuseRunnerThreadsOfCancelledFlow () throws InterruptedException, ExecutionException, TimeoutException
+    {
+        host.submit( "flow1", createFlow( tuple -> {
+        } ), 2 );
+        host.submit( "flow2", createFlow( tuple -> {
+        } ), 2 );
+
+        final int threadCount = host.getRunnerThreadPool().getThreadCount();
+
+        host.cancel( "flow1" ).get( 60, SECONDS );
+        host.submit( "flow3", createFlow( tuple -> {
+        } ), 2 );
+
+        assertThat( host.getRunnerThreadPool().getThreadCount(), equalTo( threadCount ) );
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void shouldNotSubmitFlowWithSameId ()
+    {
+        host.submit( "flow", createFlow( tuple -> {
+        } ), 1 );
+        host.submit( "flow", createFlow( tuple -> {
+        } ), 1 );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotSubmitFlowWithoutCpuQuota ()
+    {
+        host.submit( "flow", createFlow( tuple -> {
+        } ), new JokerConfig(), null );
+    }
+
+    @Test
+    public void shouldNotSubmitFlowWithInitialExecPlanExceedingCpuQuota ()
+    {
+        try
+        {
+            host.submit( "flow", createFlow( tuple -> {
+            } ), 1 );
+        }
+        catch ( IllegalStateException expected )
+        {
+            assertThat( host.getFlowIds().size(), equalTo( 0 ) );
+            assertThat( host.getAllocatedCpuQuota(), equalTo( 0 ) );
+            return;
+        }
+
+        throw new AssertionError( "flow should not be submitted" );
+    }
+
+    @Test
+    public void shouldNotSubmitFlowExceedingCpuCapacity ()
+    {
+        host.submit( "flow1", createFlow( tuple -> {
+        } ), 3 );
+
+        assertThat( host.getAllocatedCpuQuota(), equalTo( 3 ) );
+
+        try
+        {
+            host.submit( "flow2", createFlow( tuple -> {
+            } ), 2 );
+        }
+        catch ( IllegalStateException expected )
+        {
+            assertThat( host.getFlowIds().size(), equalTo( 1 ) );
+            return;
+        }
+
+        throw new AssertionError( "flow2 should not be submitted" );
+    }
+
+    private FlowDef createFlow ( final Consumer<Tuple> consumer )
+    {
+        final OperatorConfig beaconConfig = new OperatorConfig().set( TUPLE_POPULATOR_CONFIG_PARAMETER,
+                                                                      (Consumer<Tuple>) tuple -> tuple.set( "val", 1 ) )
+                                                                .set( TUPLE_COUNT_CONFIG_PARAMETER, 10 );
+        final OperatorRuntimeSchemaBuilder beaconSchema = new OperatorRuntimeSchemaBuilder( 0, 1 );
+        beaconSchema.addOutputField( 0, "val", Integer.class );
+
+        final OperatorDef beacon = OperatorDefBuilder.newInstance( "beacon", BeaconOperator.class )
+                                                     .setConfig( beaconConfig )
+                                                     .setExtendingSchema( beaconSchema )
+                                                     .build();
+
+        final OperatorRuntimeSchemaBuilder foreachSchema = new OperatorRuntimeSchemaBuilder( 1, 1 );
+        foreachSchema.addInputField( 0, "val", Integer.class ).addOutputField( 0, "val", Integer.class );
+
+        final OperatorDef forEach = OperatorDefBuilder.newInstance( "forEach", ForEachOperator.class )
+                                                      .setConfig( new OperatorConfig().set( CONSUMER_FUNCTION_CONFIG_PARAMETER, consumer ) )
+                                                      .setExtendingSchema( foreachSchema )
+                                                      .build();
+
+        return new FlowDefBuilder().add( beacon ).add( forEach ).connect( beacon.getId(), forEach.getId() ).build();
+    }
+
+}
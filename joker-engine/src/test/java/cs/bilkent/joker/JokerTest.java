@@ -1,9 +1,14 @@
 package cs.bilkent.joker;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.BiConsumer;
@@ -16,10 +21,14 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.util.concurrent.Uninterruptibles.sleepUninterruptibly;
 import cs.bilkent.joker.Joker.JokerBuilder;
 import cs.bilkent.joker.engine.config.JokerConfig;
+import cs.bilkent.joker.engine.config.JokerConfigBuilder;
 import cs.bilkent.joker.engine.flow.FlowExecPlan;
 import cs.bilkent.joker.engine.flow.PipelineId;
 import cs.bilkent.joker.engine.flow.RegionDef;
 import cs.bilkent.joker.engine.flow.RegionExecPlan;
+import cs.bilkent.joker.engine.metric.FlowMetrics;
+import cs.bilkent.joker.engine.metric.StateEvictionMetrics;
+import cs.bilkent.joker.engine.partition.impl.LoopbackPartitionTransport;
 import cs.bilkent.joker.engine.region.impl.AbstractRegionExecPlanFactory;
 import cs.bilkent.joker.flow.FlowDef;
 import cs.bilkent.joker.flow.FlowDefBuilder;
@@ -31,6 +40,8 @@ import cs.bilkent.joker.operator.OperatorDef;
 import cs.bilkent.joker.operator.OperatorDefBuilder;
 import cs.bilkent.joker.operator.Tuple;
 import cs.bilkent.joker.operator.kvstore.KVStore;
+import cs.bilkent.joker.operator.kvstore.StateRetentionPolicy;
+import static cs.bilkent.joker.operator.kvstore.StateRetentionPolicy.maxKeysPerPartition;
 import static cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.TupleAvailabilityByCount.AT_LEAST;
 import static cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.scheduleWhenTuplesAvailableOnAll;
 import static cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.scheduleWhenTuplesAvailableOnDefaultPort;
@@ -53,6 +64,10 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class JokerTest extends AbstractJokerTest
 {
@@ -414,6 +429,180 @@ public class JokerTest extends AbstractJokerTest
         }
     }
 
+    @Test
+    public void testEndToEndSystemWithDistributedPartitions () throws InterruptedException, ExecutionException, TimeoutException
+    {
+        final int instanceCount = 2;
+        final int keyRange = 1000;
+        final LoopbackPartitionTransport transport = new LoopbackPartitionTransport();
+        final ConcurrentMap<Integer, Integer> ownersByKey = new ConcurrentHashMap<>();
+        final AtomicReferenceArray<Integer> sums = new AtomicReferenceArray<>( keyRange );
+        final AtomicBoolean ownershipViolated = new AtomicBoolean();
+        final Joker[] jokers = new Joker[ instanceCount ];
+        final FlowExecPlan[] flowExecPlans = new FlowExecPlan[ instanceCount ];
+        final AtomicInteger[] keyGenerators = new AtomicInteger[ instanceCount ];
+
+        for ( int instanceIndex = 0; instanceIndex < instanceCount; instanceIndex++ )
+        {
+            final JokerConfigBuilder configBuilder = new JokerConfigBuilder();
+            configBuilder.getPartitionServiceConfigBuilder()
+                         .setPartitionCount( 16 )
+                         .setMaxPartitionCount( 128 )
+                         .setMinPartitionCountPerReplica( 8 )
+                         .setInstanceCount( instanceCount )
+                         .setInstanceIndex( instanceIndex );
+            final JokerConfig jokerConfig = configBuilder.build();
+
+            // values of the instances are summed into different digits, hence a sum shows the instances its key is received from
+            final int value = instanceIndex == 0 ? 1 : 1000;
+            final AtomicInteger keyGenerator = new AtomicInteger();
+            keyGenerators[ instanceIndex ] = keyGenerator;
+            final Consumer<Tuple> valueGenerator = tuple -> tuple.set( "key", keyGenerator.getAndIncrement() % keyRange )
+                                                                 .set( "value", value );
+            final int owner = instanceIndex;
+            final Consumer<Tuple> sumCollector = tuple -> {
+                final int key = tuple.getInteger( "key" );
+                final Integer currentOwner = ownersByKey.putIfAbsent( key, owner );
+                if ( currentOwner != null && currentOwner != owner )
+                {
+                    ownershipViolated.set( true );
+                }
+                sums.accumulateAndGet( key, tuple.getInteger( "sum" ), ( s1, s2 ) -> s1 == null ? s2 : Math.max( s1, s2 ) );
+            };
+
+            final FlowDef flow = createDistributedSumFlow( valueGenerator, sumCollector );
+            final StaticRegionExecPlanFactory2 regionExecPlanFactory = new StaticRegionExecPlanFactory2( jokerConfig, 2 );
+            jokers[ instanceIndex ] = new JokerBuilder().setRegionExecPlanFactory( regionExecPlanFactory )
+                                                        .setJokerConfig( jokerConfig )
+                                                        .setPartitionTransport( transport )
+                                                        .build();
+            flowExecPlans[ instanceIndex ] = jokers[ instanceIndex ].run( flow );
+        }
+
+        // partitions of the second instance are split while the first instance keeps its partition count
+        final RegionExecPlan regionExecPlan = flowExecPlans[ 1 ].getRegionExecPlan( "summer" );
+        jokers[ 1 ].rebalanceRegion( flowExecPlans[ 1 ].getVersion(), regionExecPlan.getRegionId(), 4 ).get( 60, SECONDS );
+
+        assertTrueEventually( () -> {
+            for ( int key = 0; key < keyRange; key++ )
+            {
+                final Integer sum = sums.get( key );
+                assertTrue( "key: " + key + " sum: " + sum, sum != null && sum % 1000 > 0 && sum >= 1000 );
+            }
+        } );
+
+        // instances are shut down together since each instance keeps receiving tuples until the other instances complete sending
+        final List<Future<Void>> shutdownFutures = new ArrayList<>();
+        for ( Joker joker : jokers )
+        {
+            shutdownFutures.add( joker.shutdown() );
+        }
+
+        for ( Future<Void> shutdownFuture : shutdownFutures )
+        {
+            shutdownFuture.get( 60, SECONDS );
+        }
+
+        assertFalse( ownershipViolated.get() );
+        assertTrue( ownersByKey.containsValue( 0 ) );
+        assertTrue( ownersByKey.containsValue( 1 ) );
+
+        // no tuple is lost while the instances are shutting down
+        long sum = 0;
+        for ( int key = 0; key < keyRange; key++ )
+        {
+            sum += sums.get( key );
+        }
+        assertEquals( keyGenerators[ 0 ].get() + 1000L * keyGenerators[ 1 ].get(), sum );
+    }
+
+    @Test
+    public void testStateEvictionMetricsArePublishedWhileFlowIsRunning () throws InterruptedException, ExecutionException, TimeoutException
+    {
+        final JokerConfigBuilder configBuilder = new JokerConfigBuilder();
+        configBuilder.getMetricManagerConfigBuilder().setWarmupIterations( 1 ).setPipelineMetricsScanningPeriodInMillis( 500 );
+        final JokerConfig jokerConfig = configBuilder.build();
+
+        final int keyRange = 1000;
+        final AtomicInteger keyGenerator = new AtomicInteger();
+        final Consumer<Tuple> valueGenerator = tuple -> tuple.set( "key", keyGenerator.getAndIncrement() % keyRange ).set( "value", 1 );
+        final Consumer<Tuple> sumCollector = tuple -> {
+        };
+
+        // each partition keeps a single key, hence the summer keeps evicting keys as the beacon cycles through the key range
+        final FlowDef flow = createSumFlow( valueGenerator, sumCollector, maxKeysPerPartition( 1 ) );
+        final StaticRegionExecPlanFactory2 regionExecPlanFactory = new StaticRegionExecPlanFactory2( jokerConfig, 2 );
+        final Joker joker = new JokerBuilder().setRegionExecPlanFactory( regionExecPlanFactory ).setJokerConfig( jokerConfig ).build();
+
+        joker.run( flow );
+
+        final long[] evictedKeyCount = new long[ 1 ];
+        assertTrueEventually( () -> {
+            final FlowMetrics metrics = joker.getMetrics();
+            assertNotNull( metrics );
+            final StateEvictionMetrics stateEvictionMetrics = metrics.getStateEvictionMetrics( "summer" );
+            assertNotNull( stateEvictionMetrics );
+            assertTrue( stateEvictionMetrics.getEvictedKeyCount() > 0 );
+            evictedKeyCount[ 0 ] = stateEvictionMetrics.getEvictedKeyCount();
+        } );
+
+        assertNull( joker.getMetrics().getStateEvictionMetrics( "beacon" ) );
+
+        // counts keep increasing with the next metric periods
+        assertTrueEventually( () -> assertTrue(
+                joker.getMetrics().getStateEvictionMetrics( "summer" ).getEvictedKeyCount() > evictedKeyCount[ 0 ] ) );
+
+        joker.shutdown().get( 60, SECONDS );
+    }
+
+    private FlowDef createDistributedSumFlow ( final Consumer<Tuple> valueGenerator, final Consumer<Tuple> sumCollector )
+    {
+        return createSumFlow( valueGenerator, sumCollector, null );
+    }
+
+    private FlowDef createSumFlow ( final Consumer<Tuple> valueGenerator,
+                                    final Consumer<Tuple> sumCollector,
+                                    final StateRetentionPolicy retentionPolicy )
+    {
+        final OperatorRuntimeSchemaBuilder beaconSchema = new OperatorRuntimeSchemaBuilder( 0, 1 );
+        beaconSchema.addOutputField( 0, "key", Integer.class ).addOutputField( 0, "value", Integer.class );
+        final OperatorConfig beaconConfig = new OperatorConfig().set( TUPLE_POPULATOR_CONFIG_PARAMETER, valueGenerator )
+                                                                .set( TUPLE_COUNT_CONFIG_PARAMETER, 10 );
+        final OperatorDef beacon = OperatorDefBuilder.newInstance( "beacon", BeaconOperator.class )
+                                                     .setConfig( beaconConfig )
+                                                     .setExtendingSchema( beaconSchema )
+                                                     .build();
+
+        final OperatorRuntimeSchemaBuilder summerSchema = new OperatorRuntimeSchemaBuilder( 1, 1 );
+        summerSchema.addInputField( 0, "key", Integer.class )
+                    .addInputField( 0, "value", Integer.class )
+                    .addOutputField( 0, "key", Integer.class )
+                    .addOutputField( 0, "sum", Integer.class );
+        final OperatorDefBuilder summerBuilder = OperatorDefBuilder.newInstance( "summer", SummerOperator.class )
+                                                                   .setExtendingSchema( summerSchema )
+                                                                   .setPartitionFieldNames( singletonList( "key" ) );
+        if ( retentionPolicy != null )
+        {
+            summerBuilder.setStateRetentionPolicy( retentionPolicy );
+        }
+        final OperatorDef summer = summerBuilder.build();
+
+        final OperatorRuntimeSchemaBuilder collectorSchema = new OperatorRuntimeSchemaBuilder( 1, 1 );
+        collectorSchema.addInputField( 0, "key", Integer.class ).addInputField( 0, "sum", Integer.class );
+        final OperatorDef collector = OperatorDefBuilder.newInstance( "collector", ForEachOperator.class )
+                                                        .setConfig( new OperatorConfig().set( CONSUMER_FUNCTION_CONFIG_PARAMETER,
+                                                                                              sumCollector ) )
+                                                        .setExtendingSchema( collectorSchema )
+                                                        .build();
+
+        return new FlowDefBuilder().add( beacon )
+                                   .add( summer )
+                                   .add( collector )
+                                   .connect( "beacon", "summer" )
+                                   .connect( "summer", "collector" )
+                                   .build();
+    }
+
     static class StaticRegionExecPlanFactory extends AbstractRegionExecPlanFactory
     {
 
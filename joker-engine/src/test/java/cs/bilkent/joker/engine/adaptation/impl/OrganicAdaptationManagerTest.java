@@ -8,6 +8,7 @@ import java.util.function.Predicate;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
@@ -17,9 +18,13 @@ import cs.bilkent.joker.engine.adaptation.impl.adaptationaction.MergePipelinesAc
 import cs.bilkent.joker.engine.config.AdaptationConfig;
 import cs.bilkent.joker.engine.config.JokerConfig;
 import cs.bilkent.joker.engine.config.PartitionServiceConfig;
+import cs.bilkent.joker.engine.flow.PipelineId;
 import cs.bilkent.joker.engine.flow.RegionDef;
 import cs.bilkent.joker.engine.flow.RegionExecPlan;
 import cs.bilkent.joker.engine.metric.FlowMetrics;
+import cs.bilkent.joker.engine.metric.LatencyMetrics;
+import cs.bilkent.joker.engine.metric.LatencyMetrics.LatencyRecord;
+import cs.bilkent.joker.engine.metric.LatencyMetricsHistory;
 import cs.bilkent.joker.engine.metric.PipelineMetrics;
 import cs.bilkent.joker.engine.metric.PipelineMetricsHistorySummarizer;
 import cs.bilkent.joker.engine.region.RegionDefFormer;
@@ -35,11 +40,14 @@ import cs.bilkent.joker.test.AbstractJokerTest;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -268,6 +276,36 @@ public class OrganicAdaptationManagerTest extends AbstractJokerTest
         verify( region4Context ).resolveIfBottleneck( eq( bottleneckPredicate ), anyListOf( BottleneckResolver.class ) );
     }
 
+    @Test
+    public void shouldCancelAdaptationActionExceedingCpuQuota ()
+    {
+        when( adaptationConfig.getCpuQuota() ).thenReturn( 1 );
+        adaptationManager = new OrganicAdaptationManager( config, regionAdaptationContextFactory );
+        shouldInitRegionAdaptationContexts();
+
+        final AdaptationAction action = mock( AdaptationAction.class );
+        final RegionExecPlan newRegion1ExecPlan = mock( RegionExecPlan.class );
+        when( region1ExecPlan.getThreadCount() ).thenReturn( 1 );
+        when( newRegion1ExecPlan.getThreadCount() ).thenReturn( 2 );
+        when( region1Context.getBaseExecPlan() ).thenReturn( region1ExecPlan );
+        when( region1Context.getCurrentExecPlan() ).thenReturn( newRegion1ExecPlan );
+
+        when( region1Context.resolveIfBottleneck( eq( bottleneckPredicate ), anyListOf( BottleneckResolver.class ) ) ).thenReturn(
+                singletonList( action ) );
+        when( region2Context.resolveIfBottleneck( eq( bottleneckPredicate ),
+                                                  anyListOf( BottleneckResolver.class ) ) ).thenReturn( emptyList() );
+        when( region3Context.resolveIfBottleneck( eq( bottleneckPredicate ),
+                                                  anyListOf( BottleneckResolver.class ) ) ).thenReturn( emptyList() );
+        when( region4Context.resolveIfBottleneck( eq( bottleneckPredicate ),
+                                                  anyListOf( BottleneckResolver.class ) ) ).thenReturn( emptyList() );
+
+        final List<AdaptationAction> result = adaptationManager.adapt( regionExecPlans, metrics );
+
+        assertTrue( result.isEmpty() );
+        assertTrue( adaptationManager.getAdaptingRegions().isEmpty() );
+        verify( region1Context ).cancelAdaptation();
+    }
+
     @Test
     public void shouldReturnAdaptationActionForMultipleRegions ()
     {
@@ -570,6 +608,135 @@ public class OrganicAdaptationManagerTest extends AbstractJokerTest
         verify( region4Context, never() ).revertAdaptation();
     }
 
+    @Test
+    public void shouldResolveRegionContributingMostToTailLatencyWhenLatencySloIsViolated ()
+    {
+        initLatencySlo();
+        setLatencyMetrics( 20, operator3, 15 );
+
+        final AdaptationAction action = mock( AdaptationAction.class );
+        final ArgumentCaptor<Predicate> bottleneckPredicateCaptor = ArgumentCaptor.forClass( Predicate.class );
+        when( region3Context.resolveIfBottleneck( bottleneckPredicateCaptor.capture(),
+                                                  anyListOf( BottleneckResolver.class ) ) ).thenReturn( singletonList( action ) );
+
+        final List<AdaptationAction> result = adaptationManager.adapt( regionExecPlans, metrics );
+
+        assertThat( result, equalTo( singletonList( action ) ) );
+        assertThat( adaptationManager.getAdaptingRegions(), equalTo( singletonList( region3Context ) ) );
+
+        final PipelineMetrics pipelineMetrics = mock( PipelineMetrics.class );
+        when( pipelineMetrics.getPipelineId() ).thenReturn( new PipelineId( region3.getRegionId(), 0 ) );
+        assertTrue( bottleneckPredicateCaptor.getValue().test( pipelineMetrics ) );
+        when( pipelineMetrics.getPipelineId() ).thenReturn( new PipelineId( region3.getRegionId(), 1 ) );
+        assertFalse( bottleneckPredicateCaptor.getValue().test( pipelineMetrics ) );
+
+        verify( region1Context, never() ).resolveIfBottleneck( anyObject(), anyListOf( BottleneckResolver.class ) );
+        verify( region2Context, never() ).resolveIfBottleneck( anyObject(), anyListOf( BottleneckResolver.class ) );
+        verify( region4Context, never() ).resolveIfBottleneck( anyObject(), anyListOf( BottleneckResolver.class ) );
+    }
+
+    @Test
+    public void shouldReleaseThreadsOfRegionContributingLeastToTailLatencyWhenLatencySloHasSlack ()
+    {
+        initLatencySlo();
+        setLatencyMetrics( 2, operator3, 1 );
+        when( region3ExecPlan.getPipelineCount() ).thenReturn( 2 );
+        when( region4ExecPlan.getPipelineCount() ).thenReturn( 2 );
+
+        final AdaptationAction action = mock( AdaptationAction.class );
+        when( region4Context.releaseThreads( anyObject() ) ).thenReturn( singletonList( action ) );
+
+        final List<AdaptationAction> result = adaptationManager.adapt( regionExecPlans, metrics );
+
+        assertThat( result, equalTo( singletonList( action ) ) );
+        assertThat( adaptationManager.getAdaptingRegions(), equalTo( singletonList( region4Context ) ) );
+
+        verify( region3Context, never() ).releaseThreads( anyObject() );
+        verify( region1Context, never() ).resolveIfBottleneck( anyObject(), anyListOf( BottleneckResolver.class ) );
+    }
+
+    @Test
+    public void shouldFinalizeLatencyAdaptationWhenTailLatencyMeetsLatencySlo ()
+    {
+        shouldResolveRegionContributingMostToTailLatencyWhenLatencySloIsViolated();
+
+        setLatencyMetrics( 8, operator3, 5 );
+        final List<PipelineMetrics> region3Metrics = singletonList( mock( PipelineMetrics.class ) );
+        when( metrics.getRegionMetrics( region3.getRegionId(), pipelineMetricsHistorySummarizer ) ).thenReturn( region3Metrics );
+
+        final List<AdaptationAction> result = adaptationManager.adapt( regionExecPlans, metrics );
+
+        assertTrue( result.isEmpty() );
+        assertTrue( adaptationManager.getAdaptingRegions().isEmpty() );
+        verify( region3Context ).finalizeAdaptation( region3Metrics );
+        verify( region3Context, never() ).revertAdaptation();
+    }
+
+    @Test
+    public void shouldRevertLatencyAdaptationWhenTailLatencyDoesNotDecrease ()
+    {
+        shouldResolveRegionContributingMostToTailLatencyWhenLatencySloIsViolated();
+
+        setLatencyMetrics( 19, operator3, 14 );
+        final AdaptationAction revert = mock( AdaptationAction.class );
+        when( region3Context.revertAdaptation() ).thenReturn( singletonList( revert ) );
+
+        final List<AdaptationAction> result = adaptationManager.adapt( regionExecPlans, metrics );
+
+        assertThat( result, equalTo( singletonList( revert ) ) );
+        assertTrue( adaptationManager.getAdaptingRegions().isEmpty() );
+        verify( region3Context, never() ).finalizeAdaptation( anyObject() );
+    }
+
+    private void initLatencySlo ()
+    {
+        when( adaptationConfig.isLatencySloEnabled() ).thenReturn( true );
+        when( adaptationConfig.getP99LatencySloInMicros() ).thenReturn( MILLISECONDS.toMicros( 10 ) );
+        when( adaptationConfig.getLatencySloSlackRatio() ).thenReturn( 0.5 );
+        when( adaptationConfig.getLatencyDecreaseThreshold() ).thenReturn( 0.1 );
+        adaptationManager = new OrganicAdaptationManager( config, regionAdaptationContextFactory );
+        shouldInitRegionAdaptationContexts();
+
+        final List<RegionAdaptationContext> contexts = asList( region1Context, region2Context, region3Context, region4Context );
+        final List<RegionDef> regionDefs = asList( region1, region2, region3, region4 );
+        for ( int i = 0; i < regionExecPlans.size(); i++ )
+        {
+            final RegionExecPlan execPlan = regionExecPlans.get( i );
+            final RegionDef regionDef = regionDefs.get( i );
+            when( contexts.get( i ).getCurrentExecPlan() ).thenReturn( execPlan );
+            when( execPlan.getPipelineIds() ).thenReturn( singletonList( new PipelineId( regionDef.getRegionId(), 0 ) ) );
+            when( execPlan.getOperatorDefsByPipelineStartIndex( 0 ) ).thenReturn( regionDef.getOperators().toArray( new OperatorDef[ 0 ] ) );
+            when( execPlan.getPipelineCount() ).thenReturn( 1 );
+            when( execPlan.getReplicaCount() ).thenReturn( 1 );
+        }
+    }
+
+    private void setLatencyMetrics ( final long p99TupleLatencyInMillis,
+                                     final OperatorDef operator,
+                                     final long p99QueueLatencyInMillis )
+    {
+        final LatencyRecord zero = createLatencyRecord( 0 );
+        final LatencyMetrics latencyMetrics = mock( LatencyMetrics.class );
+        final LatencyRecord tupleLatency = createLatencyRecord( p99TupleLatencyInMillis );
+        final LatencyRecord queueLatency = createLatencyRecord( p99QueueLatencyInMillis );
+        when( latencyMetrics.getTupleLatency() ).thenReturn( tupleLatency );
+        when( latencyMetrics.getQueueLatency( anyString() ) ).thenReturn( zero );
+        when( latencyMetrics.getQueueLatency( operator.getId() ) ).thenReturn( queueLatency );
+        when( latencyMetrics.getInvocationLatency( anyString() ) ).thenReturn( zero );
+
+        final LatencyMetricsHistory latencyMetricsHistory = mock( LatencyMetricsHistory.class );
+        when( latencyMetricsHistory.getLatest() ).thenReturn( latencyMetrics );
+        when( metrics.getLatencyMetricsHistories() ).thenReturn( singletonList( latencyMetricsHistory ) );
+    }
+
+    private LatencyRecord createLatencyRecord ( final long p99LatencyInMillis )
+    {
+        final LatencyRecord record = mock( LatencyRecord.class );
+        when( record.getPercentile99() ).thenReturn( MILLISECONDS.toNanos( p99LatencyInMillis ) );
+
+        return record;
+    }
+
     public static RegionDef getRegion ( final List<RegionDef> regions, final OperatorDef operatorDef )
     {
         return regions.stream().filter( r -> r.getOperators().contains( operatorDef ) ).findFirst().orElse( null );
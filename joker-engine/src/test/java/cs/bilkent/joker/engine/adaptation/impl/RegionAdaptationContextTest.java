@@ -129,6 +129,31 @@ public class RegionAdaptationContextTest extends AbstractJokerTest
         assertTrue( actions.isEmpty() );
     }
 
+    @Test
+    public void shouldReleaseThreadsWithoutMarkingPipelinesNonResolvable ()
+    {
+        final PipelineMetrics pipelineMetrics = mock( PipelineMetrics.class );
+        when( pipelineMetrics.getPipelineId() ).thenReturn( pipelineId0 );
+
+        context.updateRegionMetrics( singletonList( pipelineMetrics ), loadChangePredicate );
+
+        final List<AdaptationAction> noActions = context.releaseThreads( bottleneckResolver0 );
+
+        assertTrue( noActions.isEmpty() );
+        assertTrue( context.getNonResolvablePipelineIds().isEmpty() );
+
+        final AdaptationAction action = mock( AdaptationAction.class );
+        when( action.getNewExecPlan() ).thenReturn( newRegionExecPlan );
+        when( bottleneckResolver0.resolve( regionExecPlan, singletonList( pipelineMetrics ) ) ).thenReturn( singletonList( Pair.of(
+                action,
+                singletonList( pipelineId0 ) ) ) );
+
+        final List<AdaptationAction> actions = context.releaseThreads( bottleneckResolver0 );
+
+        assertThat( actions, equalTo( singletonList( action ) ) );
+        assertThat( context.getCurrentExecPlan(), equalTo( newRegionExecPlan ) );
+    }
+
     @Test
     public void shouldNotSetAdaptationStateWhenNoBottleneckPipeline ()
     {
@@ -0,0 +1,139 @@
+package cs.bilkent.joker.engine.adaptation.impl.bottleneckresolver;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import cs.bilkent.joker.engine.adaptation.AdaptationAction;
+import cs.bilkent.joker.engine.adaptation.impl.adaptationaction.RegionRebalanceAction;
+import cs.bilkent.joker.engine.adaptation.impl.adaptationaction.SplitPipelineAction;
+import static cs.bilkent.joker.engine.adaptation.impl.adaptationaction.RegionRebalanceActionTest.getRegion;
+import cs.bilkent.joker.engine.flow.PipelineId;
+import cs.bilkent.joker.engine.flow.RegionDef;
+import cs.bilkent.joker.engine.flow.RegionExecPlan;
+import cs.bilkent.joker.engine.metric.PipelineMetrics;
+import cs.bilkent.joker.engine.metric.PipelineMetrics.PipelineMetricsBuilder;
+import cs.bilkent.joker.engine.region.RegionDefFormer;
+import cs.bilkent.joker.engine.region.impl.IdGenerator;
+import cs.bilkent.joker.engine.region.impl.RegionDefFormerImpl;
+import cs.bilkent.joker.engine.region.impl.RegionManagerImplTest.FlowExample6;
+import static cs.bilkent.joker.operator.spec.OperatorType.PARTITIONED_STATEFUL;
+import cs.bilkent.joker.operator.utils.Pair;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertTrue;
+
+public class ModelBasedPlannerTest extends AbstractJokerTest
+{
+
+    private RegionExecPlan regionExecPlan;
+
+    private PipelineId pipelineId;
+
+    @Before
+    public void init ()
+    {
+        final FlowExample6 flowExample = new FlowExample6();
+
+        final RegionDefFormer regionDefFormer = new RegionDefFormerImpl( new IdGenerator() );
+        final List<RegionDef> regions = regionDefFormer.createRegions( flowExample.getFlow() );
+        final RegionDef region = getRegion( regions, PARTITIONED_STATEFUL );
+        assertTrue( region.getOperatorCount() > 1 );
+
+        regionExecPlan = new RegionExecPlan( region, singletonList( 0 ), 1 );
+        pipelineId = regionExecPlan.getPipelineId( 0 );
+    }
+
+    @Test
+    public void shouldSplitPipelineAtCheapestStageBoundary ()
+    {
+        final ModelBasedPlanner planner = new ModelBasedPlanner( true, false, 16, 8, 0.1, 0.5 );
+        final PipelineMetrics metrics = createMetrics( 1, 1000, 1, 0.5 );
+
+        final List<Pair<AdaptationAction, List<PipelineId>>> actions = planner.resolve( regionExecPlan, singletonList( metrics ) );
+
+        assertThat( actions.size(), equalTo( 1 ) );
+        assertTrue( actions.get( 0 )._1 instanceof SplitPipelineAction );
+        assertThat( actions.get( 0 )._1.getNewExecPlan().getPipelineStartIndices(), equalTo( asList( 0, 1 ) ) );
+        assertThat( actions.get( 0 )._2, equalTo( singletonList( pipelineId ) ) );
+    }
+
+    @Test
+    public void shouldNotSplitPipelineWhenSingleOperatorDominatesCost ()
+    {
+        final ModelBasedPlanner planner = new ModelBasedPlanner( true, false, 16, 8, 0.1, 0.5 );
+        final PipelineMetrics metrics = createMetrics( 1, 1000, 1, 1 );
+
+        final List<Pair<AdaptationAction, List<PipelineId>>> actions = planner.resolve( regionExecPlan, singletonList( metrics ) );
+
+        assertTrue( actions.isEmpty() );
+    }
+
+    @Test
+    public void shouldRebalanceRegionUpToAvailableCores ()
+    {
+        final ModelBasedPlanner planner = new ModelBasedPlanner( false, true, 16, 4, 0.1, 0.5 );
+        final PipelineMetrics metrics = createMetrics( 1, 1000, 1, 1 );
+
+        final List<Pair<AdaptationAction, List<PipelineId>>> actions = planner.resolve( regionExecPlan, singletonList( metrics ) );
+
+        assertThat( actions.size(), equalTo( 1 ) );
+        assertTrue( actions.get( 0 )._1 instanceof RegionRebalanceAction );
+        assertThat( actions.get( 0 )._1.getNewExecPlan().getReplicaCount(), equalTo( 4 ) );
+    }
+
+    @Test
+    public void shouldCorrectModelWithObservedThroughput ()
+    {
+        final ModelBasedPlanner planner = new ModelBasedPlanner( false, true, 16, 4, 0.1, 0.5 );
+        final PipelineMetrics metrics = createMetrics( 1, 1000, 1, 1 );
+
+        final List<Pair<AdaptationAction, List<PipelineId>>> actions = planner.resolve( regionExecPlan, singletonList( metrics ) );
+        final RegionExecPlan newExecPlan = actions.get( 0 )._1.getNewExecPlan();
+
+        // predicted speedup is 4 and observed speedup is 2.5, so the sample correction is 0.5
+        planner.observe( newExecPlan, singletonList( createMetrics( 4, 2500, 1, 1 ) ) );
+
+        assertThat( planner.getCorrection( regionExecPlan.getRegionId() ), closeTo( 0.75, 0.0001 ) );
+    }
+
+    @Test
+    public void shouldIgnoreObservationForDifferentExecPlan ()
+    {
+        final ModelBasedPlanner planner = new ModelBasedPlanner( false, true, 16, 4, 0.1, 0.5 );
+        final PipelineMetrics metrics = createMetrics( 1, 1000, 1, 1 );
+
+        planner.resolve( regionExecPlan, singletonList( metrics ) );
+        planner.observe( regionExecPlan, singletonList( metrics ) );
+
+        assertThat( planner.getCorrection( regionExecPlan.getRegionId() ), equalTo( 1d ) );
+    }
+
+    private PipelineMetrics createMetrics ( final int replicaCount,
+                                            final long throughput,
+                                            final double cpuUtilizationRatio,
+                                            final double headOperatorCost )
+    {
+        final int operatorCount = regionExecPlan.getOperatorCountByPipelineIndex( 0 );
+        final PipelineMetricsBuilder builder = new PipelineMetricsBuilder( pipelineId, 0, replicaCount, operatorCount, 1 );
+        for ( int replicaIndex = 0; replicaIndex < replicaCount; replicaIndex++ )
+        {
+            builder.setCpuUtilizationRatio( replicaIndex, cpuUtilizationRatio )
+                   .setPipelineCost( replicaIndex, 0 )
+                   .setInboundThroughput( replicaIndex, 0, throughput / replicaCount )
+                   .setOperatorCost( replicaIndex, 0, headOperatorCost );
+            for ( int operatorIndex = 1; operatorIndex < operatorCount; operatorIndex++ )
+            {
+                builder.setOperatorCost( replicaIndex, operatorIndex, ( 1 - headOperatorCost ) / ( operatorCount - 1 ) );
+            }
+        }
+
+        return builder.build();
+    }
+
+}
@@ -0,0 +1,119 @@
+package cs.bilkent.joker.engine.adaptation.impl.bottleneckresolver;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import cs.bilkent.joker.engine.adaptation.AdaptationAction;
+import cs.bilkent.joker.engine.adaptation.impl.adaptationaction.MergePipelinesAction;
+import cs.bilkent.joker.engine.adaptation.impl.adaptationaction.RegionRebalanceAction;
+import cs.bilkent.joker.engine.flow.PipelineId;
+import cs.bilkent.joker.engine.flow.RegionExecPlan;
+import cs.bilkent.joker.engine.metric.PipelineMetrics;
+import static cs.bilkent.joker.operator.spec.OperatorType.PARTITIONED_STATEFUL;
+import static cs.bilkent.joker.operator.spec.OperatorType.STATELESS;
+import cs.bilkent.joker.operator.utils.Pair;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ThreadReleaserTest extends AbstractJokerTest
+{
+
+    private static final double CPU_UTIL_BOTTLENECK_THRESHOLD = 0.8;
+
+
+    private final RegionExecPlan regionExecPlan = mock( RegionExecPlan.class );
+
+    private final RegionExecPlan newRegionExecPlan = mock( RegionExecPlan.class );
+
+    private final ThreadReleaser threadReleaser = new ThreadReleaser( true, true, CPU_UTIL_BOTTLENECK_THRESHOLD );
+
+    @Test
+    public void shouldNotReleaseThreadOfRegionWithSinglePipelineAndSingleReplica ()
+    {
+        when( regionExecPlan.getRegionType() ).thenReturn( PARTITIONED_STATEFUL );
+        when( regionExecPlan.getPipelineCount() ).thenReturn( 1 );
+        when( regionExecPlan.getReplicaCount() ).thenReturn( 1 );
+
+        assertFalse( threadReleaser.canRelease( regionExecPlan ) );
+    }
+
+    @Test
+    public void shouldMergeAdjacentPipelinesWithLowestCpuUtilization ()
+    {
+        final PipelineMetrics metrics0 = createPipelineMetrics( new PipelineId( 0, 0 ), 0.5 );
+        final PipelineMetrics metrics1 = createPipelineMetrics( new PipelineId( 0, 1 ), 0.2 );
+        final PipelineMetrics metrics2 = createPipelineMetrics( new PipelineId( 0, 2 ), 0.1 );
+        when( regionExecPlan.getRegionType() ).thenReturn( STATELESS );
+        when( regionExecPlan.getPipelineCount() ).thenReturn( 3 );
+        when( regionExecPlan.getPipelineStartIndices() ).thenReturn( asList( 0, 1, 2 ) );
+        when( regionExecPlan.withMergedPipelines( asList( 1, 2 ) ) ).thenReturn( newRegionExecPlan );
+
+        assertTrue( threadReleaser.canRelease( regionExecPlan ) );
+
+        final List<Pair<AdaptationAction, List<PipelineId>>> actions = threadReleaser.resolve( regionExecPlan,
+                                                                                               asList( metrics0, metrics1, metrics2 ) );
+
+        assertThat( actions.size(), equalTo( 1 ) );
+        assertTrue( actions.get( 0 )._1 instanceof MergePipelinesAction );
+        assertThat( actions.get( 0 )._1.getNewExecPlan(), equalTo( newRegionExecPlan ) );
+        assertThat( actions.get( 0 )._2, equalTo( asList( metrics1.getPipelineId(), metrics2.getPipelineId() ) ) );
+    }
+
+    @Test
+    public void shouldNotMergePipelinesExceedingCpuUtilizationThreshold ()
+    {
+        final PipelineMetrics metrics0 = createPipelineMetrics( new PipelineId( 0, 0 ), 0.5 );
+        final PipelineMetrics metrics1 = createPipelineMetrics( new PipelineId( 0, 1 ), 0.4 );
+        when( regionExecPlan.getRegionType() ).thenReturn( STATELESS );
+        when( regionExecPlan.getPipelineCount() ).thenReturn( 2 );
+
+        assertTrue( threadReleaser.resolve( regionExecPlan, asList( metrics0, metrics1 ) ).isEmpty() );
+    }
+
+    @Test
+    public void shouldRemoveReplicaOfPartitionedStatefulRegion ()
+    {
+        final PipelineMetrics metrics = createPipelineMetrics( new PipelineId( 0, 0 ), 0.3 );
+        when( regionExecPlan.getRegionType() ).thenReturn( PARTITIONED_STATEFUL );
+        when( regionExecPlan.getPipelineCount() ).thenReturn( 1 );
+        when( regionExecPlan.getReplicaCount() ).thenReturn( 3 );
+        when( regionExecPlan.withNewReplicaCount( 2 ) ).thenReturn( newRegionExecPlan );
+
+        assertTrue( threadReleaser.canRelease( regionExecPlan ) );
+
+        final List<Pair<AdaptationAction, List<PipelineId>>> actions = threadReleaser.resolve( regionExecPlan, singletonList( metrics ) );
+
+        assertThat( actions.size(), equalTo( 1 ) );
+        assertTrue( actions.get( 0 )._1 instanceof RegionRebalanceAction );
+        assertThat( actions.get( 0 )._1.getNewExecPlan(), equalTo( newRegionExecPlan ) );
+    }
+
+    @Test
+    public void shouldNotRemoveReplicaExceedingCpuUtilizationThreshold ()
+    {
+        final PipelineMetrics metrics = createPipelineMetrics( new PipelineId( 0, 0 ), 0.6 );
+        when( regionExecPlan.getRegionType() ).thenReturn( PARTITIONED_STATEFUL );
+        when( regionExecPlan.getPipelineCount() ).thenReturn( 1 );
+        when( regionExecPlan.getReplicaCount() ).thenReturn( 3 );
+
+        assertTrue( threadReleaser.resolve( regionExecPlan, singletonList( metrics ) ).isEmpty() );
+    }
+
+    private PipelineMetrics createPipelineMetrics ( final PipelineId pipelineId, final double cpuUtilizationRatio )
+    {
+        final PipelineMetrics metrics = mock( PipelineMetrics.class );
+        when( metrics.getPipelineId() ).thenReturn( pipelineId );
+        when( metrics.getAvgCpuUtilizationRatio() ).thenReturn( cpuUtilizationRatio );
+
+        return metrics;
+    }
+
+}
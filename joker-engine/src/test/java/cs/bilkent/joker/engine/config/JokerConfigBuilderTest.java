@@ -285,6 +285,24 @@ public class JokerConfigBuilderTest extends AbstractJokerTest
         assertEquals( val, builder.build().getPartitionServiceConfig().getPartitionCount() );
     }
 
+    @Test
+    public void test_PartitionServiceConfig_maxPartitionCount ()
+    {
+        final int val = 2340;
+        builder.getPartitionServiceConfigBuilder().setMaxPartitionCount( val );
+
+        assertEquals( val, builder.build().getPartitionServiceConfig().getMaxPartitionCount() );
+    }
+
+    @Test
+    public void test_PartitionServiceConfig_minPartitionCountPerReplica ()
+    {
+        final int val = 234;
+        builder.getPartitionServiceConfigBuilder().setMinPartitionCountPerReplica( val );
+
+        assertEquals( val, builder.build().getPartitionServiceConfig().getMinPartitionCountPerReplica() );
+    }
+
     @Test
     public void test_PartitionServiceConfig_maxReplicaCount ()
     {
@@ -294,6 +312,24 @@ public class JokerConfigBuilderTest extends AbstractJokerTest
         assertEquals( val, builder.build().getPartitionServiceConfig().getMaxReplicaCount() );
     }
 
+    @Test
+    public void test_PartitionServiceConfig_instanceCountAndIndex ()
+    {
+        builder.getPartitionServiceConfigBuilder().setInstanceCount( 3 ).setInstanceIndex( 2 );
+
+        final PartitionServiceConfig config = builder.build().getPartitionServiceConfig();
+        assertEquals( 3, config.getInstanceCount() );
+        assertEquals( 2, config.getInstanceIndex() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void test_PartitionServiceConfig_invalidInstanceIndex ()
+    {
+        builder.getPartitionServiceConfigBuilder().setInstanceCount( 2 ).setInstanceIndex( 2 );
+
+        builder.build();
+    }
+
     @Test
     public void test_PipelineManagerConfig_runnerCommandTimeoutInMillis ()
     {
@@ -303,6 +339,15 @@ public class JokerConfigBuilderTest extends AbstractJokerTest
         assertEquals( val, builder.build().getPipelineManagerConfig().getRunnerCommandTimeoutInMillis() );
     }
 
+    @Test
+    public void test_PipelineManagerConfig_initializationParallelism ()
+    {
+        final int val = 3;
+        builder.getPipelineManagerConfigBuilder().setInitializationParallelism( val );
+
+        assertEquals( val, builder.build().getPipelineManagerConfig().getInitializationParallelism() );
+    }
+
     @Test
     public void test_PipelineReplicaRunnerConfig_runnerWaitTimeoutInMillis ()
     {
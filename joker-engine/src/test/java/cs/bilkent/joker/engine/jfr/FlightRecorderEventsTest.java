@@ -0,0 +1,153 @@
+package cs.bilkent.joker.engine.jfr;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.google.common.util.concurrent.Uninterruptibles.sleepUninterruptibly;
+import cs.bilkent.joker.engine.tuplequeue.TupleQueue;
+import cs.bilkent.joker.engine.tuplequeue.impl.drainer.BlockingSinglePortDrainer;
+import cs.bilkent.joker.engine.tuplequeue.impl.queue.MultiThreadedTupleQueue;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.impl.TuplesImpl;
+import static cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.TupleAvailabilityByCount.AT_LEAST;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.Assert.assertTrue;
+
+public class FlightRecorderEventsTest extends AbstractJokerTest
+{
+
+    private static final String BACKPRESSURE_WAIT_EVENT_NAME = "cs.bilkent.joker.BackpressureWait";
+
+    private static final String DRAINER_IDLE_EVENT_NAME = "cs.bilkent.joker.DrainerIdle";
+
+
+    private final Recording recording = new Recording();
+
+    @Before
+    public void init ()
+    {
+        recording.enable( BackpressureWaitEvent.class ).withThreshold( null );
+        recording.enable( DrainerIdleEvent.class );
+        recording.start();
+    }
+
+    @After
+    public void after ()
+    {
+        recording.close();
+    }
+
+    @Test
+    public void shouldRecordBackpressureWaitWithIdleCount () throws IOException
+    {
+        BackpressureWaitEvent event = null;
+        for ( int i = 0; i < 3; i++ )
+        {
+            event = BackpressureWaitEvent.onIdle( event, "op1", 1 );
+        }
+        BackpressureWaitEvent.onCompleted( event );
+
+        final List<RecordedEvent> events = stopAndGetEvents( BACKPRESSURE_WAIT_EVENT_NAME );
+
+        assertThat( events.size(), equalTo( 1 ) );
+        final RecordedEvent recordedEvent = events.get( 0 );
+        assertThat( recordedEvent.getString( "operatorId" ), equalTo( "op1" ) );
+        assertThat( recordedEvent.getInt( "portIndex" ), equalTo( 1 ) );
+        assertThat( recordedEvent.getLong( "idleCount" ), equalTo( 3L ) );
+    }
+
+    @Test
+    public void shouldRecordBackpressureWaitViaOpaqueEvents () throws IOException
+    {
+        assertTrue( FlightRecorderEvents.isEnabled() );
+
+        Object event = null;
+        for ( int i = 0; i < 2; i++ )
+        {
+            event = FlightRecorderEvents.onBackpressureIdle( event, "op2", -1 );
+        }
+        FlightRecorderEvents.onBackpressureCompleted( event );
+
+        final List<RecordedEvent> events = stopAndGetEvents( BACKPRESSURE_WAIT_EVENT_NAME );
+
+        assertThat( events.size(), equalTo( 1 ) );
+        assertThat( events.get( 0 ).getString( "operatorId" ), equalTo( "op2" ) );
+        assertThat( events.get( 0 ).getLong( "idleCount" ), equalTo( 2L ) );
+    }
+
+    @Test
+    public void shouldNotRecordBackpressureWaitWithoutIdle () throws IOException
+    {
+        BackpressureWaitEvent.onCompleted( null );
+
+        assertTrue( stopAndGetEvents( BACKPRESSURE_WAIT_EVENT_NAME ).isEmpty() );
+    }
+
+    @Test
+    public void shouldNotRecordDrainerIdleBelowThreshold () throws IOException
+    {
+        DrainerIdleEvent.onCompleted( DrainerIdleEvent.onIdle( null, this ), true );
+
+        assertTrue( stopAndGetEvents( DRAINER_IDLE_EVENT_NAME ).isEmpty() );
+    }
+
+    @Test
+    public void shouldRecordDrainerIdleUntilTuplesBecomeAvailable () throws IOException, InterruptedException
+    {
+        final TupleQueue tupleQueue = new MultiThreadedTupleQueue( 10 );
+        final BlockingSinglePortDrainer drainer = new BlockingSinglePortDrainer( Integer.MAX_VALUE );
+        drainer.setParameters( AT_LEAST, 1 );
+
+        final Thread producer = new Thread( () -> {
+            sleepUninterruptibly( 50, MILLISECONDS );
+            tupleQueue.offer( new Tuple() );
+        } );
+        producer.start();
+
+        final TuplesImpl result = new TuplesImpl( 1 );
+        assertTrue( drainer.drain( false, null, new TupleQueue[] { tupleQueue }, key -> result ) );
+        producer.join();
+
+        final List<RecordedEvent> events = stopAndGetEvents( DRAINER_IDLE_EVENT_NAME );
+
+        assertThat( events.size(), equalTo( 1 ) );
+        final RecordedEvent recordedEvent = events.get( 0 );
+        assertThat( recordedEvent.getString( "drainer" ), equalTo( BlockingSinglePortDrainer.class.getSimpleName() ) );
+        assertTrue( recordedEvent.getBoolean( "satisfied" ) );
+        assertThat( recordedEvent.getDuration().toMillis(), greaterThanOrEqualTo( 10L ) );
+        assertTrue( result.isNonEmpty() );
+    }
+
+    private List<RecordedEvent> stopAndGetEvents ( final String eventName ) throws IOException
+    {
+        recording.stop();
+        final Path file = Files.createTempFile( "joker", ".jfr" );
+        try
+        {
+            recording.dump( file );
+            return RecordingFile.readAllEvents( file )
+                                .stream()
+                                .filter( event -> event.getEventType().getName().equals( eventName ) )
+                                .collect( toList() );
+        }
+        finally
+        {
+            Files.delete( file );
+        }
+    }
+
+}
@@ -0,0 +1,333 @@
+package cs.bilkent.joker.engine.kvstore.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static cs.bilkent.joker.engine.partition.PartitionUtil.getPartitionId;
+import cs.bilkent.joker.engine.spill.SpillFile;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.kvstore.KVStore;
+import static cs.bilkent.joker.operator.kvstore.StateRetentionPolicy.expireAfterAccess;
+import static cs.bilkent.joker.operator.kvstore.StateRetentionPolicy.maxKeysPerPartition;
+import cs.bilkent.joker.operator.utils.Pair;
+import cs.bilkent.joker.partition.impl.PartitionKey;
+import cs.bilkent.joker.partition.impl.PartitionKey1;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class KVStoreContainerTest extends AbstractJokerTest
+{
+
+    private static final int IN_MEMORY_KEY_LIMIT = 4;
+
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private SpillFile spillFile;
+
+    private KVStoreContainer container;
+
+    @Before
+    public void init ()
+    {
+        spillFile = new SpillFile( temporaryFolder.getRoot().getAbsolutePath(), "op1" );
+        container = new KVStoreContainer( 0, spillFile, IN_MEMORY_KEY_LIMIT );
+    }
+
+    @After
+    public void after ()
+    {
+        spillFile.close();
+    }
+
+    @Test
+    public void shouldSpillLeastRecentlyAccessedKVStores ()
+    {
+        for ( int i = 0; i < IN_MEMORY_KEY_LIMIT; i++ )
+        {
+            container.getOrCreateKVStore( new PartitionKey1( i ) ).set( "count", i );
+        }
+
+        final KVStore kvStore0 = container.getOrCreateKVStore( new PartitionKey1( 0 ) );
+        container.getOrCreateKVStore( new PartitionKey1( IN_MEMORY_KEY_LIMIT ) ).set( "count", IN_MEMORY_KEY_LIMIT );
+
+        assertEquals( 2, container.getSpilledKeyCount() );
+        assertEquals( IN_MEMORY_KEY_LIMIT + 1, container.getKeyCount() );
+        assertSame( kvStore0, container.getOrCreateKVStore( new PartitionKey1( 0 ) ) );
+
+        final KVStore kvStore1 = container.getOrCreateKVStore( new PartitionKey1( 1 ) );
+        assertEquals( 1, kvStore1.getInteger( "count" ).intValue() );
+        assertEquals( 1, spillFile.getPageInCount() );
+    }
+
+    @Test
+    public void shouldPageInKVStoresWithTupleValues ()
+    {
+        final Tuple tuple = Tuple.of( "a", 1 );
+        container.getOrCreateKVStore( new PartitionKey1( 0 ) ).set( "tuple", tuple );
+        for ( int i = 1; i <= IN_MEMORY_KEY_LIMIT; i++ )
+        {
+            container.getOrCreateKVStore( new PartitionKey1( i ) ).set( "count", i );
+        }
+
+        final KVStore kvStore = container.getOrCreateKVStore( new PartitionKey1( 0 ) );
+
+        assertEquals( tuple, kvStore.get( "tuple" ) );
+        assertNotSame( tuple, kvStore.get( "tuple" ) );
+    }
+
+    @Test
+    public void shouldKeepKVStoresWithNonStringKeysInMemory ()
+    {
+        final KVStore kvStore0 = container.getOrCreateKVStore( new PartitionKey1( 0 ) );
+        kvStore0.set( 1, "val" );
+        for ( int i = 1; i <= IN_MEMORY_KEY_LIMIT; i++ )
+        {
+            container.getOrCreateKVStore( new PartitionKey1( i ) ).set( "count", i );
+        }
+
+        assertSame( kvStore0, container.getOrCreateKVStore( new PartitionKey1( 0 ) ) );
+    }
+
+    @Test
+    public void shouldNotLoseKVStoreOfAccessedKeyWhenColdKVStoresCannotBeSpilled ()
+    {
+        for ( int i = 0; i < IN_MEMORY_KEY_LIMIT; i++ )
+        {
+            container.getOrCreateKVStore( new PartitionKey1( i ) ).set( "list", new ArrayList<>( singletonList( i ) ) );
+        }
+
+        container.getOrCreateKVStore( new PartitionKey1( IN_MEMORY_KEY_LIMIT ) ).set( "count", IN_MEMORY_KEY_LIMIT );
+
+        assertEquals( 0, container.getSpilledKeyCount() );
+        assertEquals( IN_MEMORY_KEY_LIMIT + 1, container.getKeyCount() );
+        final KVStore kvStore = container.getOrCreateKVStore( new PartitionKey1( IN_MEMORY_KEY_LIMIT ) );
+        assertEquals( IN_MEMORY_KEY_LIMIT, kvStore.getInteger( "count" ).intValue() );
+    }
+
+    @Test
+    public void shouldDiscardSpilledKVStoresOnClear ()
+    {
+        for ( int i = 0; i <= IN_MEMORY_KEY_LIMIT; i++ )
+        {
+            container.getOrCreateKVStore( new PartitionKey1( i ) ).set( "count", i );
+        }
+
+        container.clear();
+
+        assertEquals( 0, container.getKeyCount() );
+        assertEquals( 0, spillFile.getLiveByteCount() );
+    }
+
+    @Test
+    public void shouldSplitPartitionKeysWithoutPagingInSpilledKVStores ()
+    {
+        final int keyCount = IN_MEMORY_KEY_LIMIT * 4;
+        for ( int i = 0; i < keyCount; i++ )
+        {
+            container.getOrCreateKVStore( new PartitionKey1( i ) ).set( "count", i );
+            container.getKVStore( new PartitionKey1( i ) ).setLongState( "sum", i );
+        }
+
+        final int spilledKeyCount = container.getSpilledKeyCount();
+        final KVStoreContainer[] containers = container.split( 1, 4 );
+
+        assertEquals( 4, containers.length );
+        assertSame( container, containers[ 0 ] );
+        int totalKeyCount = 0, totalSpilledKeyCount = 0;
+        for ( int partitionId = 0; partitionId < containers.length; partitionId++ )
+        {
+            assertEquals( partitionId, containers[ partitionId ].getPartitionId() );
+            totalKeyCount += containers[ partitionId ].getKeyCount();
+            totalSpilledKeyCount += containers[ partitionId ].getSpilledKeyCount();
+        }
+        assertEquals( keyCount, totalKeyCount );
+        assertEquals( spilledKeyCount, totalSpilledKeyCount );
+        assertEquals( 0, spillFile.getPageInCount() );
+
+        for ( int i = 0; i < keyCount; i++ )
+        {
+            final PartitionKey1 key = new PartitionKey1( i );
+            final KVStoreContainer container = containers[ getPartitionId( key.partitionHashCode(), 4 ) ];
+            assertEquals( i, container.getOrCreateKVStore( key ).getInteger( "count" ).intValue() );
+            assertEquals( i, container.getKVStore( key ).getLongState( "sum", -1 ) );
+        }
+    }
+
+    @Test
+    public void shouldMergeSplitPartitions ()
+    {
+        final int keyCount = IN_MEMORY_KEY_LIMIT * 4;
+        for ( int i = 0; i < keyCount; i++ )
+        {
+            container.getOrCreateKVStore( new PartitionKey1( i ) ).set( "count", i );
+            container.getKVStore( new PartitionKey1( i ) ).<Integer>getListState( "values", true ).add( i );
+        }
+
+        final KVStoreContainer[] containers = container.split( 1, 2 );
+        containers[ 0 ].merge( containers[ 1 ] );
+
+        assertEquals( keyCount, container.getKeyCount() );
+        assertEquals( 0, containers[ 1 ].getKeyCount() );
+        for ( int i = 0; i < keyCount; i++ )
+        {
+            final PartitionKey1 key = new PartitionKey1( i );
+            assertEquals( i, container.getOrCreateKVStore( key ).getInteger( "count" ).intValue() );
+            assertEquals( singletonList( i ), container.getKVStore( key ).getListState( "values", false ) );
+        }
+    }
+
+    @Test
+    public void shouldKeepTypedStatesOfPartitionKeysSeparately ()
+    {
+        final PartitionKey1 key0 = new PartitionKey1( 0 ), key1 = new PartitionKey1( 1 );
+
+        container.getKVStore( key0 ).addLongState( "count", 2 );
+        container.getKVStore( key1 ).addLongState( "count", 5 );
+        container.getKVStore( key0 ).addLongState( "count", 3 );
+        container.getKVStore( key1 ).<String>getListState( "values", true ).add( "a" );
+
+        assertEquals( 5, container.getKVStore( key0 ).getLongState( "count", 0 ) );
+        assertEquals( 5, container.getKVStore( key1 ).getLongState( "count", 0 ) );
+        assertNull( container.getKVStore( key0 ).getListState( "values", false ) );
+        assertEquals( asList( "a" ), container.getKVStore( key1 ).getListState( "values", false ) );
+        assertEquals( 0, container.getKeyCount() );
+    }
+
+    @Test
+    public void shouldNotCreateKVStoreForTypedStates ()
+    {
+        final KVStore kvStore = container.getKVStore( new PartitionKey1( 0 ) );
+        kvStore.getLongLongMapState( "counts", true ).add( 1, 1 );
+        kvStore.setDoubleState( "sum", 1.5 );
+
+        assertEquals( 0, container.getKeyCount() );
+        assertEquals( 2, kvStore.size() );
+    }
+
+    @Test
+    public void shouldReturnDefaultValueOfAbsentTypedState ()
+    {
+        container.getKVStore( new PartitionKey1( 1 ) ).setLongState( "count", 0 );
+        final KVStore kvStore = container.getKVStore( new PartitionKey1( 0 ) );
+
+        assertEquals( -1, kvStore.getLongState( "count", -1 ) );
+        assertEquals( -1, kvStore.getDoubleState( "sum", -1 ), 0 );
+        assertEquals( 0, container.getKVStore( new PartitionKey1( 1 ) ).getLongState( "count", -1 ) );
+    }
+
+    @Test
+    public void shouldDeleteTypedStatesOfPartitionKey ()
+    {
+        final PartitionKey1 key0 = new PartitionKey1( 0 ), key1 = new PartitionKey1( 1 );
+        container.getKVStore( key0 ).set( "field", "val" );
+        container.getKVStore( key0 ).addLongState( "count", 1 );
+        container.getKVStore( key1 ).addLongState( "count", 1 );
+
+        assertTrue( container.getKVStore( key1 ).deleteState( "count" ) );
+        assertFalse( container.getKVStore( key1 ).deleteState( "count" ) );
+
+        container.getKVStore( key0 ).clear();
+
+        assertEquals( 0, container.getKVStore( key0 ).size() );
+    }
+
+    @Test
+    public void shouldClearTypedStates ()
+    {
+        final PartitionKey1 key = new PartitionKey1( 0 );
+        container.getKVStore( key ).addLongState( "count", 1 );
+
+        container.clear();
+
+        assertEquals( 0, container.getKVStore( key ).getLongState( "count", 0 ) );
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyAccessedKeyWhenKeyLimitIsExceeded ()
+    {
+        final KVStoreContainer container = new KVStoreContainer( 0, null, Integer.MAX_VALUE, maxKeysPerPartition( 2 ) );
+        final PartitionKey1 key0 = new PartitionKey1( 0 ), key1 = new PartitionKey1( 1 ), key2 = new PartitionKey1( 2 );
+        container.getKVStore( key0, 0 ).set( "field", "val0" );
+        container.getKVStore( key1, 0 ).set( "field", "val1" );
+        container.getKVStore( key0, 0 ).addLongState( "count", 1 );
+        container.getKVStore( key2, 0 ).set( "field", "val2" );
+
+        final List<Pair<PartitionKey, KVStore>> evicted = new ArrayList<>();
+        container.drainEvictedKVStores( ( key, kvStore ) -> evicted.add( Pair.of( key, kvStore ) ) );
+
+        assertEquals( 1, evicted.size() );
+        assertEquals( key1, evicted.get( 0 )._1 );
+        assertEquals( "val1", evicted.get( 0 )._2.get( "field" ) );
+        assertEquals( 1, container.getEvictedKeyCount() );
+        assertEquals( 2, container.getKeyCount() );
+        assertFalse( container.getKVStore( key1, 0 ).contains( "field" ) );
+    }
+
+    @Test
+    public void shouldEvictExpiredKeysWithTypedStates ()
+    {
+        final KVStoreContainer container = new KVStoreContainer( 0, null, Integer.MAX_VALUE, expireAfterAccess( 10, MILLISECONDS ) );
+        final PartitionKey1 key0 = new PartitionKey1( 0 ), key1 = new PartitionKey1( 1 );
+        container.getKVStore( key0, 0 ).set( "field", "val" );
+        container.getKVStore( key0, 0 ).addLongState( "count", 2 );
+        container.getKVStore( key1, 5 ).addLongState( "count", 1 );
+
+        final List<Pair<PartitionKey, KVStore>> evicted = new ArrayList<>();
+        final int evictionCount = container.evictExpiredKeys( 10, 10, ( key, kvStore ) -> evicted.add( Pair.of( key, kvStore ) ) );
+
+        assertEquals( 1, evictionCount );
+        assertEquals( 1, evicted.size() );
+        assertEquals( key0, evicted.get( 0 )._1 );
+        assertEquals( "val", evicted.get( 0 )._2.get( "field" ) );
+        assertEquals( 2, evicted.get( 0 )._2.getLongState( "count", 0 ) );
+        assertEquals( 1, container.getExpiredKeyCount() );
+        assertEquals( 0, container.getKVStore( key0, 10 ).getLongState( "count", 0 ) );
+        assertEquals( 1, container.getKVStore( key1, 10 ).getLongState( "count", 0 ) );
+    }
+
+    @Test
+    public void shouldEvictExpiredKeysUpToGivenCount ()
+    {
+        final KVStoreContainer container = new KVStoreContainer( 0, null, Integer.MAX_VALUE, expireAfterAccess( 10, MILLISECONDS ) );
+        for ( int i = 0; i < 5; i++ )
+        {
+            container.getKVStore( new PartitionKey1( i ), 0 ).addLongState( "count", 1 );
+        }
+
+        final List<PartitionKey> evicted = new ArrayList<>();
+
+        assertEquals( 3, container.evictExpiredKeys( 20, 3, ( key, kvStore ) -> evicted.add( key ) ) );
+        assertEquals( asList( new PartitionKey1( 0 ), new PartitionKey1( 1 ), new PartitionKey1( 2 ) ), evicted );
+        assertEquals( 2, container.evictExpiredKeys( 20, 3, ( key, kvStore ) -> evicted.add( key ) ) );
+        assertEquals( 5, evicted.size() );
+    }
+
+    @Test
+    public void shouldNotPassStatelessEvictedKeysToConsumer ()
+    {
+        final KVStoreContainer container = new KVStoreContainer( 0, null, Integer.MAX_VALUE, expireAfterAccess( 10, MILLISECONDS ) );
+        container.getKVStore( new PartitionKey1( 0 ), 0 );
+
+        final List<PartitionKey> evicted = new ArrayList<>();
+
+        assertEquals( 1, container.evictExpiredKeys( 10, 10, ( key, kvStore ) -> evicted.add( key ) ) );
+        assertTrue( evicted.isEmpty() );
+    }
+
+}
@@ -1,21 +1,27 @@
 package cs.bilkent.joker.engine.kvstore.impl;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.Before;
 import org.junit.Test;
 
 import cs.bilkent.joker.engine.config.JokerConfig;
+import cs.bilkent.joker.engine.config.JokerConfigBuilder;
 import cs.bilkent.joker.engine.kvstore.OperatorKVStore;
+import cs.bilkent.joker.engine.metric.StateEvictionMetrics;
 import cs.bilkent.joker.engine.partition.PartitionDistribution;
 import cs.bilkent.joker.engine.partition.PartitionService;
 import static cs.bilkent.joker.engine.partition.PartitionUtil.getPartitionId;
 import cs.bilkent.joker.engine.partition.impl.PartitionServiceImpl;
 import cs.bilkent.joker.operator.kvstore.KVStore;
+import static cs.bilkent.joker.operator.kvstore.StateRetentionPolicy.maxKeysPerPartition;
 import cs.bilkent.joker.partition.impl.PartitionKey;
 import cs.bilkent.joker.partition.impl.PartitionKey1;
 import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertEquals;
@@ -41,7 +47,7 @@ public class OperatorKVStoreManagerImplTest extends AbstractJokerTest
     public void init ()
     {
         partitionService = new PartitionServiceImpl( new JokerConfig() );
-        kvStoreManager = new OperatorKVStoreManagerImpl();
+        kvStoreManager = new OperatorKVStoreManagerImpl( new JokerConfig() );
     }
 
     @Test
@@ -88,6 +94,91 @@ public class OperatorKVStoreManagerImplTest extends AbstractJokerTest
         assertNull( kvStoreManager.getPartitionedKVStores( REGION_ID, OPERATOR_ID ) );
     }
 
+    @Test
+    public void shouldNotCreateStateEvictorWithoutRetentionPolicy ()
+    {
+        final PartitionDistribution partitionDistribution = partitionService.createPartitionDistribution( REGION_ID, 1 );
+        final OperatorKVStore operatorKvStore = kvStoreManager.createPartitionedKVStores( REGION_ID,
+                                                                                          OPERATOR_ID,
+                                                                                          partitionDistribution )[ 0 ];
+
+        assertNull( operatorKvStore.getStateEvictor() );
+    }
+
+    @Test
+    public void shouldEvictStatesWithRetentionPolicy ()
+    {
+        final PartitionDistribution partitionDistribution = partitionService.createPartitionDistribution( REGION_ID, 2 );
+        final OperatorKVStore[] operatorKvStores = kvStoreManager.createPartitionedKVStores( REGION_ID,
+                                                                                             OPERATOR_ID,
+                                                                                             partitionDistribution,
+                                                                                             maxKeysPerPartition( 1 ) );
+        final PartitionKey key1 = generatePartitionKey( 0 );
+        PartitionKey key2;
+        int i = 0;
+        do
+        {
+            key2 = new PartitionKey1( "key" + i++ );
+        } while ( getPartitionId( key2.partitionHashCode(), partitionDistribution.getPartitionCount() ) != 0 );
+
+        final OperatorKVStore operatorKvStore = operatorKvStores[ partitionDistribution.getReplicaIndex( 0 ) ];
+        operatorKvStore.getKVStore( key1 ).set( "key", "val" );
+        operatorKvStore.getKVStore( key2 ).set( "key", "val" );
+
+        final List<PartitionKey> evictedKeys = new ArrayList<>();
+        operatorKvStore.getStateEvictor().evictStates( ( key, kvStore ) -> evictedKeys.add( key ) );
+
+        assertEquals( singletonList( key1 ), evictedKeys );
+        assertNull( operatorKvStore.getKVStore( key1 ).get( "key" ) );
+    }
+
+    @Test
+    public void shouldReturnStateEvictionMetricsOfOperatorsWithRetentionPolicy ()
+    {
+        final PartitionDistribution partitionDistribution = partitionService.createPartitionDistribution( REGION_ID, 1 );
+        final OperatorKVStore operatorKvStore = kvStoreManager.createPartitionedKVStores( REGION_ID,
+                                                                                         OPERATOR_ID,
+                                                                                         partitionDistribution,
+                                                                                         maxKeysPerPartition( 1 ) )[ 0 ];
+        kvStoreManager.createPartitionedKVStores( REGION_ID, "op2", partitionDistribution );
+
+        final PartitionKey key1 = generatePartitionKey( 0 );
+        PartitionKey key2;
+        int i = 0;
+        do
+        {
+            key2 = new PartitionKey1( "key" + i++ );
+        } while ( getPartitionId( key2.partitionHashCode(), partitionDistribution.getPartitionCount() ) != 0 );
+
+        operatorKvStore.getKVStore( key1 ).set( "key", "val" );
+        operatorKvStore.getKVStore( key2 ).set( "key", "val" );
+
+        final List<StateEvictionMetrics> metrics = kvStoreManager.getStateEvictionMetrics();
+
+        assertEquals( 1, metrics.size() );
+        assertEquals( OPERATOR_ID, metrics.get( 0 ).getOperatorId() );
+        assertEquals( 1, metrics.get( 0 ).getEvictedKeyCount() );
+        assertEquals( 0, metrics.get( 0 ).getExpiredKeyCount() );
+    }
+
+    @Test
+    public void shouldKeepRetentionPolicyWhenPartitionedOperatorKVStoresAreRebalanced ()
+    {
+        final PartitionDistribution partitionDistribution = partitionService.createPartitionDistribution( REGION_ID, 2 );
+        kvStoreManager.createPartitionedKVStores( REGION_ID, OPERATOR_ID, partitionDistribution, maxKeysPerPartition( 1 ) );
+
+        final PartitionDistribution newPartitionDistribution = partitionService.rebalancePartitionDistribution( REGION_ID, 4 );
+        final OperatorKVStore[] operatorKVStores = kvStoreManager.rebalancePartitionedKVStores( REGION_ID,
+                                                                                                OPERATOR_ID,
+                                                                                                partitionDistribution,
+                                                                                                newPartitionDistribution );
+
+        for ( OperatorKVStore operatorKVStore : operatorKVStores )
+        {
+            assertNotNull( operatorKVStore.getStateEvictor() );
+        }
+    }
+
     @Test
     public void shouldShrinkPartitionedOperatorKVStores ()
     {
@@ -131,6 +222,72 @@ public class OperatorKVStoreManagerImplTest extends AbstractJokerTest
         }
     }
 
+    @Test
+    public void shouldSplitAndMergePartitionsOfPartitionedOperatorKVStores ()
+    {
+        final JokerConfigBuilder configBuilder = new JokerConfigBuilder();
+        configBuilder.getPartitionServiceConfigBuilder()
+                     .setPartitionCount( 8 )
+                     .setMaxPartitionCount( 64 )
+                     .setMinPartitionCountPerReplica( 4 );
+        final JokerConfig config = configBuilder.build();
+        partitionService = new PartitionServiceImpl( config );
+        kvStoreManager = new OperatorKVStoreManagerImpl( config );
+
+        final PartitionDistribution partitionDistribution = partitionService.createPartitionDistribution( REGION_ID, 2 );
+        assertEquals( 8, partitionDistribution.getPartitionCount() );
+        OperatorKVStore[] operatorKVStores = kvStoreManager.createPartitionedKVStores( REGION_ID, OPERATOR_ID, partitionDistribution );
+
+        final int keyCount = 1000;
+        for ( int i = 0; i < keyCount; i++ )
+        {
+            final PartitionKey key = new PartitionKey1( i );
+            final int partitionId = getPartitionId( key.partitionHashCode(), partitionDistribution.getPartitionCount() );
+            operatorKVStores[ partitionDistribution.getReplicaIndex( partitionId ) ].getKVStore( key ).set( "key", i );
+        }
+
+        final PartitionDistribution splitPartitionDistribution = partitionService.rebalancePartitionDistribution( REGION_ID, 8 );
+        assertEquals( 32, splitPartitionDistribution.getPartitionCount() );
+        operatorKVStores = kvStoreManager.rebalancePartitionedKVStores( REGION_ID,
+                                                                        OPERATOR_ID,
+                                                                        partitionDistribution,
+                                                                        splitPartitionDistribution );
+        assertKVStores( operatorKVStores, splitPartitionDistribution, keyCount );
+
+        final PartitionDistribution mergedPartitionDistribution = partitionService.rebalancePartitionDistribution( REGION_ID, 1 );
+        assertEquals( 8, mergedPartitionDistribution.getPartitionCount() );
+        operatorKVStores = kvStoreManager.rebalancePartitionedKVStores( REGION_ID,
+                                                                        OPERATOR_ID,
+                                                                        splitPartitionDistribution,
+                                                                        mergedPartitionDistribution );
+        assertKVStores( operatorKVStores, mergedPartitionDistribution, keyCount );
+    }
+
+    private void assertKVStores ( final OperatorKVStore[] operatorKVStores,
+                                  final PartitionDistribution partitionDistribution,
+                                  final int keyCount )
+    {
+        assertEquals( partitionDistribution.getReplicaCount(), operatorKVStores.length );
+
+        final KVStoreContainer[] containers = kvStoreManager.getKVStoreContainers( REGION_ID, OPERATOR_ID );
+        assertEquals( partitionDistribution.getPartitionCount(), containers.length );
+        int containerKeyCount = 0;
+        for ( int partitionId = 0; partitionId < containers.length; partitionId++ )
+        {
+            assertEquals( partitionId, containers[ partitionId ].getPartitionId() );
+            containerKeyCount += containers[ partitionId ].getKeyCount();
+        }
+        assertEquals( keyCount, containerKeyCount );
+
+        for ( int i = 0; i < keyCount; i++ )
+        {
+            final PartitionKey key = new PartitionKey1( i );
+            final int partitionId = getPartitionId( key.partitionHashCode(), partitionDistribution.getPartitionCount() );
+            final KVStore kvStore = operatorKVStores[ partitionDistribution.getReplicaIndex( partitionId ) ].getKVStore( key );
+            assertEquals( i, kvStore.getInteger( "key" ).intValue() );
+        }
+    }
+
     private PartitionKey generatePartitionKey ( final int partitionId )
     {
         int i = 0;
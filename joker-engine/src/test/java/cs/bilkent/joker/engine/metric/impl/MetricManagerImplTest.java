@@ -14,6 +14,7 @@ import com.codahale.metrics.MetricRegistry;
 
 import cs.bilkent.joker.engine.config.JokerConfig;
 import cs.bilkent.joker.engine.exception.JokerException;
+import cs.bilkent.joker.engine.kvstore.OperatorKVStoreManager;
 import cs.bilkent.joker.test.AbstractJokerTest;
 import static java.util.Collections.emptyList;
 import static org.junit.Assert.fail;
@@ -35,6 +36,9 @@ public class MetricManagerImplTest extends AbstractJokerTest
     @Mock
     private OperatingSystemMXBean osMXBean;
 
+    @Mock
+    private OperatorKVStoreManager operatorKVStoreManager;
+
     private MetricManagerImpl metricManager;
 
     @Before
@@ -49,6 +53,7 @@ public class MetricManagerImplTest extends AbstractJokerTest
                                                threadMXBean,
                                                runtimeMXBean,
                                                osMXBean,
+                                               operatorKVStoreManager,
                                                new ThreadGroup( "Test" ) );
     }
 
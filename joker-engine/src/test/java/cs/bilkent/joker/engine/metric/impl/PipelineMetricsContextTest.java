@@ -15,6 +15,7 @@ import cs.bilkent.joker.engine.metric.PipelineMetrics;
 import cs.bilkent.joker.test.AbstractJokerTest;
 import static java.lang.System.arraycopy;
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
@@ -104,6 +105,47 @@ public class PipelineMetricsContextTest extends AbstractJokerTest
         }
     }
 
+    @Test
+    public void shouldPublishOperatorThroughputs ()
+    {
+        final long[][] initialInboundThroughputs = { { 10, 8, 4 }, { 20, 10, 5 } };
+        final long[][] initialOutboundThroughputs = { { 8, 4, 4 }, { 10, 5, 5 } };
+        final long[][] newInboundThroughputs = { { 20, 14, 7 }, { 40, 20, 10 } };
+        final long[][] newOutboundThroughputs = { { 14, 7, 19 }, { 20, 10, 10 } };
+        final long[][][] throughputs = { initialInboundThroughputs, initialOutboundThroughputs };
+        doAnswer( invocation -> {
+            final int replicaIndex = (int) invocation.getArguments()[ 0 ];
+            final long[] inbound = (long[]) invocation.getArguments()[ 1 ];
+            final long[] outbound = (long[]) invocation.getArguments()[ 2 ];
+            arraycopy( throughputs[ 0 ][ replicaIndex ], 0, inbound, 0, OPERATOR_COUNT );
+            arraycopy( throughputs[ 1 ][ replicaIndex ], 0, outbound, 0, OPERATOR_COUNT );
+            return null;
+        } ).when( meter ).readOperatorThroughputs( anyInt(), anyObject(), anyObject() );
+
+        metrics.initialize( threadMXBean );
+
+        throughputs[ 0 ] = newInboundThroughputs;
+        throughputs[ 1 ] = newOutboundThroughputs;
+
+        final PipelineMetrics snapshot = metrics.update( new long[ REPLICA_COUNT ], 10 );
+
+        for ( int replicaIndex = 0; replicaIndex < REPLICA_COUNT; replicaIndex++ )
+        {
+            for ( int operatorIndex = 0; operatorIndex < OPERATOR_COUNT; operatorIndex++ )
+            {
+                assertEquals( newInboundThroughputs[ replicaIndex ][ operatorIndex ]
+                              - initialInboundThroughputs[ replicaIndex ][ operatorIndex ],
+                              snapshot.getOperatorInboundThroughput( replicaIndex, operatorIndex ) );
+                assertEquals( newOutboundThroughputs[ replicaIndex ][ operatorIndex ]
+                              - initialOutboundThroughputs[ replicaIndex ][ operatorIndex ],
+                              snapshot.getOperatorOutboundThroughput( replicaIndex, operatorIndex ) );
+            }
+        }
+
+        assertEquals( 0.5, snapshot.getOperatorSelectivity( 1 ), 0.01 );
+        assertEquals( 2.5, snapshot.getOperatorSelectivity( 2 ), 0.01 );
+    }
+
     @Test
     public void shouldPublishCosts ()
     {
@@ -1,10 +1,18 @@
 package cs.bilkent.joker.engine.partition;
 
+import java.util.List;
+
 import org.junit.Test;
 
+import cs.bilkent.joker.engine.config.JokerConfigBuilder;
+import cs.bilkent.joker.engine.partition.impl.PartitionServiceImpl;
 import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class PartitionDistributionTest extends AbstractJokerTest
@@ -22,6 +30,174 @@ public class PartitionDistributionTest extends AbstractJokerTest
         assertEquals( singletonList( 2 ), distribution1.getPartitionIdsMigratedToReplicaIndex( distribution2, 3 ) );
     }
 
+    @Test
+    public void shouldSplitPartitions ()
+    {
+        final PartitionDistribution distribution = new PartitionDistribution( new int[] { 0, 1, 1 } );
+
+        final PartitionDistribution split = distribution.split( 6 );
+
+        assertArrayEquals( new int[] { 0, 1, 1, 0, 1, 1 }, split.getDistribution() );
+        assertEquals( distribution.getReplicaCount(), split.getReplicaCount() );
+    }
+
+    @Test
+    public void shouldOwnAllPartitionsLocallyByDefault ()
+    {
+        final PartitionDistribution distribution = new PartitionDistribution( new int[] { 0, 1, 1 } );
+
+        assertFalse( distribution.isDistributed() );
+        assertArrayEquals( new int[] { 0, 0, 0 }, distribution.getInstanceIndices() );
+        assertTrue( distribution.isLocal( 2 ) );
+    }
+
+    @Test
+    public void shouldMapPartitionsToInstances ()
+    {
+        final PartitionDistribution distribution = new PartitionDistribution( new int[] { 0, 1, 1, 0 }, new int[] { 0, 1, 0, 1 }, 1 );
+
+        assertTrue( distribution.isDistributed() );
+        assertFalse( distribution.isLocal( 0 ) );
+        assertTrue( distribution.isLocal( 1 ) );
+        assertEquals( 0, distribution.getInstanceIndex( 2 ) );
+        assertEquals( 1, distribution.getReplicaIndex( 2 ) );
+    }
+
+    @Test
+    public void shouldSplitPartitionsWithTheirInstances ()
+    {
+        final PartitionDistribution distribution = new PartitionDistribution( new int[] { 0, 1, 1 }, new int[] { 1, 0, 1 }, 0 );
+
+        final PartitionDistribution split = distribution.split( 6 );
+
+        assertArrayEquals( new int[] { 1, 0, 1, 1, 0, 1 }, split.getInstanceIndices() );
+        assertEquals( 0, split.getLocalInstanceIndex() );
+    }
+
+    @Test
+    public void shouldKeepInstancesOfMergedPartitions ()
+    {
+        final PartitionDistribution split = new PartitionDistribution( new int[] { 0, 1, 1 }, new int[] { 1, 0, 1 }, 0 ).split( 6 );
+
+        final PartitionDistribution merged = split.withReplicaIndices( new int[] { 1, 0, 0 } );
+
+        assertArrayEquals( new int[] { 1, 0, 0 }, merged.getDistribution() );
+        assertArrayEquals( new int[] { 1, 0, 1 }, merged.getInstanceIndices() );
+    }
+
+    @Test
+    public void shouldNotMigratePartitionsOfOtherInstances ()
+    {
+        final int[] instanceIndices = { 0, 1, 0, 1 };
+        final PartitionDistribution distribution1 = new PartitionDistribution( new int[] { 0, 1, 2, 3 }, instanceIndices, 0 );
+        final PartitionDistribution distribution2 = new PartitionDistribution( new int[] { 0, 1, 0, 1 }, instanceIndices, 0 );
+
+        assertEquals( singletonList( 2 ), distribution1.getPartitionIdsMigratedFromReplicaIndex( distribution2, 2 ) );
+        assertEquals( singletonList( 2 ), distribution1.getPartitionIdsMigratedToReplicaIndex( distribution2, 0 ) );
+        assertEquals( emptyList(), distribution1.getPartitionIdsMigratedFromReplicaIndex( distribution2, 3 ) );
+        assertEquals( emptyList(), distribution1.getPartitionIdsMigratedToReplicaIndex( distribution2, 1 ) );
+    }
+
+    @Test
+    public void shouldRebalanceOnlyLocalPartitionsOfMultipleInstances ()
+    {
+        final int instanceCount = 3, localInstanceIndex = 2, regionId = 1;
+        final JokerConfigBuilder configBuilder = new JokerConfigBuilder();
+        configBuilder.getPartitionServiceConfigBuilder()
+                     .setPartitionCount( 16 )
+                     .setMaxPartitionCount( 128 )
+                     .setMinPartitionCountPerReplica( 2 )
+                     .setInstanceCount( instanceCount )
+                     .setInstanceIndex( localInstanceIndex );
+        final PartitionServiceImpl partitionService = new PartitionServiceImpl( configBuilder.build() );
+
+        PartitionDistribution distribution = partitionService.createPartitionDistribution( regionId, 4 );
+        for ( int newReplicaCount : new int[] { 7, 2, 5, 1, 3 } )
+        {
+            final PartitionDistribution newDistribution = partitionService.rebalancePartitionDistribution( regionId, newReplicaCount );
+            assertEquals( newReplicaCount, newDistribution.getReplicaCount() );
+
+            final int localPartitionCount = getLocalPartitionCount( newDistribution );
+            for ( int replicaIndex = 0; replicaIndex < newReplicaCount; replicaIndex++ )
+            {
+                int ownedLocalPartitionCount = 0;
+                for ( int partitionId : newDistribution.getPartitionIdsByReplicaIndex( replicaIndex ) )
+                {
+                    if ( newDistribution.isLocal( partitionId ) )
+                    {
+                        ownedLocalPartitionCount++;
+                    }
+                }
+
+                assertTrue( ownedLocalPartitionCount == localPartitionCount / newReplicaCount
+                            || ownedLocalPartitionCount == localPartitionCount / newReplicaCount + 1 );
+            }
+
+            final int partitionCount = Math.max( distribution.getPartitionCount(), newDistribution.getPartitionCount() );
+            final PartitionDistribution from = distribution.split( partitionCount );
+            final PartitionDistribution to = newDistribution.split( partitionCount );
+            for ( int replicaIndex = 0; replicaIndex < Math.max( distribution.getReplicaCount(), newReplicaCount ); replicaIndex++ )
+            {
+                assertLocal( to, from.getPartitionIdsMigratedFromReplicaIndex( to, replicaIndex ) );
+                assertLocal( to, from.getPartitionIdsMigratedToReplicaIndex( to, replicaIndex ) );
+            }
+
+            for ( int partitionId = 0; partitionId < partitionCount; partitionId++ )
+            {
+                assertEquals( ( partitionId % 16 ) % instanceCount, to.getInstanceIndex( partitionId ) );
+                if ( !to.isLocal( partitionId ) && from.getReplicaIndex( partitionId ) < newReplicaCount )
+                {
+                    assertEquals( from.getReplicaIndex( partitionId ), to.getReplicaIndex( partitionId ) );
+                }
+            }
+
+            distribution = newDistribution;
+        }
+    }
+
+    private int getLocalPartitionCount ( final PartitionDistribution distribution )
+    {
+        int count = 0;
+        for ( int partitionId = 0; partitionId < distribution.getPartitionCount(); partitionId++ )
+        {
+            if ( distribution.isLocal( partitionId ) )
+            {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    private void assertLocal ( final PartitionDistribution distribution, final List<Integer> partitionIds )
+    {
+        for ( int partitionId : partitionIds )
+        {
+            assertTrue( distribution.isLocal( partitionId ) );
+        }
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotCreatePartitionDistributionWithMissingInstanceIndices ()
+    {
+        new PartitionDistribution( new int[] { 0, 1, 1 }, new int[] { 0, 1 }, 0 );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotSplitPartitionsToNonMultiplePartitionCount ()
+    {
+        new PartitionDistribution( new int[] { 0, 1, 1 } ).split( 4 );
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void shouldNotMigrateBetweenDistributionsWithDifferentPartitionCounts ()
+    {
+        final PartitionDistribution distribution1 = new PartitionDistribution( new int[] { 0, 0, 1, 1 } );
+        final PartitionDistribution distribution2 = new PartitionDistribution( new int[] { 0, 1 } );
+
+        distribution1.getPartitionIdsMigratedFromReplicaIndex( distribution2, 0 );
+    }
+
     @Test
     public void shouldShrinkPartitionReplicas ()
     {
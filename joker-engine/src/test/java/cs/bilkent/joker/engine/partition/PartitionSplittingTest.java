@@ -0,0 +1,190 @@
+package cs.bilkent.joker.engine.partition;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import cs.bilkent.joker.engine.config.JokerConfigBuilder;
+import cs.bilkent.joker.engine.partition.impl.PartitionServiceImpl;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PartitionSplittingTest extends AbstractJokerTest
+{
+
+    private static final int PARTITION_COUNT = 16;
+
+    private static final int MAX_PARTITION_COUNT = 128;
+
+    private static final int MIN_PARTITION_COUNT_PER_REPLICA = 4;
+
+    private static final Random RANDOM = new Random();
+
+
+    private final int regionId = 1;
+
+    private PartitionServiceImpl partitionService;
+
+    @Before
+    public void init ()
+    {
+        final JokerConfigBuilder configBuilder = new JokerConfigBuilder();
+        configBuilder.getPartitionServiceConfigBuilder()
+                     .setPartitionCount( PARTITION_COUNT )
+                     .setMaxPartitionCount( MAX_PARTITION_COUNT )
+                     .setMinPartitionCountPerReplica( MIN_PARTITION_COUNT_PER_REPLICA );
+        partitionService = new PartitionServiceImpl( configBuilder.build() );
+    }
+
+    @Test
+    public void shouldCreatePartitionDistributionWithInitialPartitionCount ()
+    {
+        final PartitionDistribution distribution = partitionService.createPartitionDistribution( regionId, 4 );
+
+        assertEquals( PARTITION_COUNT, distribution.getPartitionCount() );
+    }
+
+    @Test
+    public void shouldCreatePartitionDistributionWithSplitPartitions ()
+    {
+        final PartitionDistribution distribution = partitionService.createPartitionDistribution( regionId, 10 );
+
+        assertEquals( 64, distribution.getPartitionCount() );
+        assertBalanced( distribution, 10 );
+    }
+
+    @Test
+    public void shouldSplitPartitionsWhenRegionIsExtended ()
+    {
+        final PartitionDistribution distribution = partitionService.createPartitionDistribution( regionId, 2 );
+
+        final PartitionDistribution newDistribution = rebalance( distribution, 8 );
+
+        assertEquals( 32, newDistribution.getPartitionCount() );
+    }
+
+    @Test
+    public void shouldNotSplitPartitionsBeyondMaxPartitionCount ()
+    {
+        final PartitionDistribution distribution = partitionService.createPartitionDistribution( regionId, 2 );
+
+        final PartitionDistribution newDistribution = rebalance( distribution, 100 );
+
+        assertEquals( MAX_PARTITION_COUNT, newDistribution.getPartitionCount() );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotCreatePartitionDistributionWithMoreReplicasThanMaxPartitionCount ()
+    {
+        partitionService.createPartitionDistribution( regionId, MAX_PARTITION_COUNT + 1 );
+    }
+
+    @Test
+    public void shouldMergePartitionsWhenRegionIsShrunkToSingleReplica ()
+    {
+        final PartitionDistribution distribution = partitionService.createPartitionDistribution( regionId, 2 );
+
+        final PartitionDistribution newDistribution = rebalance( rebalance( distribution, 20 ), 1 );
+
+        assertEquals( PARTITION_COUNT, newDistribution.getPartitionCount() );
+    }
+
+    @Test
+    public void shouldSplitAndMergePartitionsMultipleTimes ()
+    {
+        PartitionDistribution distribution = partitionService.createPartitionDistribution( regionId, 1 );
+
+        for ( int i = 0; i < 2000; i++ )
+        {
+            int newReplicaCount;
+            do
+            {
+                newReplicaCount = 1 + RANDOM.nextInt( 40 );
+            } while ( newReplicaCount == distribution.getReplicaCount() );
+
+            distribution = rebalance( distribution, newReplicaCount );
+        }
+    }
+
+    @Test
+    public void shouldKeepInstancesOfPartitionsWhileRebalancing ()
+    {
+        final JokerConfigBuilder configBuilder = new JokerConfigBuilder();
+        configBuilder.getPartitionServiceConfigBuilder()
+                     .setPartitionCount( PARTITION_COUNT )
+                     .setMaxPartitionCount( MAX_PARTITION_COUNT )
+                     .setMinPartitionCountPerReplica( MIN_PARTITION_COUNT_PER_REPLICA )
+                     .setInstanceCount( 3 )
+                     .setInstanceIndex( 1 );
+        partitionService = new PartitionServiceImpl( configBuilder.build() );
+
+        PartitionDistribution distribution = partitionService.createPartitionDistribution( regionId, 2 );
+        assertTrue( distribution.isDistributed() );
+        assertEquals( 1, distribution.getLocalInstanceIndex() );
+        assertLocalPartitionsBalanced( distribution );
+
+        for ( int newReplicaCount : new int[] { 10, 3, 25, 1 } )
+        {
+            distribution = rebalance( distribution, newReplicaCount );
+            for ( int partitionId = 0; partitionId < distribution.getPartitionCount(); partitionId++ )
+            {
+                assertEquals( ( partitionId % PARTITION_COUNT ) % 3, distribution.getInstanceIndex( partitionId ) );
+            }
+        }
+    }
+
+    private void assertLocalPartitionsBalanced ( final PartitionDistribution distribution )
+    {
+        final int replicaCount = distribution.getReplicaCount();
+        final int[] localPartitionCounts = new int[ replicaCount ];
+        int localPartitionCount = 0;
+        for ( int partitionId = 0; partitionId < distribution.getPartitionCount(); partitionId++ )
+        {
+            if ( distribution.isLocal( partitionId ) )
+            {
+                localPartitionCounts[ distribution.getReplicaIndex( partitionId ) ]++;
+                localPartitionCount++;
+            }
+        }
+
+        for ( int count : localPartitionCounts )
+        {
+            assertTrue( count == localPartitionCount / replicaCount || count == localPartitionCount / replicaCount + 1 );
+        }
+    }
+
+    /**
+     * Rebalances the partition distribution and verifies that partitions are migrated as they are migrated by the partitioned operator
+     * queues and kv stores. Partitions are split before the migrations, and merged after the migrations.
+     */
+    private PartitionDistribution rebalance ( final PartitionDistribution distribution, final int newReplicaCount )
+    {
+        final PartitionDistribution newDistribution = partitionService.rebalancePartitionDistribution( regionId, newReplicaCount );
+        assertBalanced( newDistribution, newReplicaCount );
+
+        final int partitionCount = Math.max( distribution.getPartitionCount(), newDistribution.getPartitionCount() );
+        assertTrue( partitionCount <= MAX_PARTITION_COUNT );
+        assertTrue( newDistribution.getPartitionCount() >= Math.min( newReplicaCount * MIN_PARTITION_COUNT_PER_REPLICA,
+                                                                     MAX_PARTITION_COUNT ) );
+
+        final PartitionDistribution from = distribution.split( partitionCount );
+        final PartitionDistribution to = newDistribution.split( partitionCount );
+        for ( int replicaIndex = 0; replicaIndex < Math.max( distribution.getReplicaCount(), newReplicaCount ); replicaIndex++ )
+        {
+            // fails if a partition is migrated between replicas which exist both before and after the rebalancing
+            from.getPartitionIdsMigratedFromReplicaIndex( to, replicaIndex );
+            from.getPartitionIdsMigratedToReplicaIndex( to, replicaIndex );
+        }
+
+        return newDistribution;
+    }
+
+    private void assertBalanced ( final PartitionDistribution distribution, final int replicaCount )
+    {
+        assertEquals( replicaCount, distribution.getReplicaCount() );
+        assertLocalPartitionsBalanced( distribution );
+    }
+
+}
@@ -0,0 +1,97 @@
+package cs.bilkent.joker.engine.partition.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import cs.bilkent.joker.engine.exception.JokerException;
+import cs.bilkent.joker.engine.partition.PartitionTransport.PartitionTupleReceiver;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+
+public class LoopbackPartitionTransportTest extends AbstractJokerTest
+{
+
+    private final LoopbackPartitionTransport transport = new LoopbackPartitionTransport( 0 );
+
+    @Test
+    public void shouldPassTuplesToBoundInstance ()
+    {
+        final RecordingReceiver receiver = new RecordingReceiver();
+        transport.bind( 1, receiver );
+
+        final Tuple tuple = new Tuple();
+        transport.send( 1, "op", 0, singletonList( tuple ) );
+
+        assertEquals( singletonList( tuple ), receiver.tuples );
+    }
+
+    @Test( expected = JokerException.class )
+    public void shouldFailToSendTuplesToUnboundInstance ()
+    {
+        transport.bind( 1, new RecordingReceiver() );
+        transport.unbind( 1 );
+
+        transport.send( 1, "op", 0, singletonList( new Tuple() ) );
+    }
+
+    @Test( expected = JokerException.class )
+    public void shouldFailToSendTuplesToNotBoundInstanceAfterBindTimeout ()
+    {
+        transport.send( 1, "op", 0, singletonList( new Tuple() ) );
+    }
+
+    @Test
+    public void shouldNotifyOtherInstancesWhenInstanceCompletesSending ()
+    {
+        final RecordingReceiver receiver0 = new RecordingReceiver();
+        final RecordingReceiver receiver1 = new RecordingReceiver();
+        transport.bind( 0, receiver0 );
+        transport.bind( 1, receiver1 );
+
+        transport.complete( 1 );
+
+        assertEquals( singletonList( 1 ), receiver0.completedInstanceIndices );
+        assertEquals( emptyList(), receiver1.completedInstanceIndices );
+    }
+
+    @Test
+    public void shouldNotifyInstanceBoundAfterOtherInstancesCompleteSending ()
+    {
+        transport.complete( 0 );
+        transport.complete( 2 );
+
+        final RecordingReceiver receiver = new RecordingReceiver();
+        transport.bind( 2, receiver );
+        transport.complete( 1 );
+
+        assertEquals( asList( 0, 1 ), receiver.completedInstanceIndices );
+    }
+
+    private static class RecordingReceiver implements PartitionTupleReceiver
+    {
+
+        private final List<Tuple> tuples = new ArrayList<>();
+
+        private final List<Integer> completedInstanceIndices = new ArrayList<>();
+
+        @Override
+        public void receive ( final String operatorId, final int portIndex, final List<Tuple> tuples )
+        {
+            this.tuples.addAll( tuples );
+        }
+
+        @Override
+        public void onSenderCompleted ( final int instanceIndex )
+        {
+            completedInstanceIndices.add( instanceIndex );
+        }
+
+    }
+
+}
@@ -0,0 +1,130 @@
+package cs.bilkent.joker.engine.partition.impl;
+
+import java.util.function.LongFunction;
+
+import org.junit.Test;
+
+import cs.bilkent.joker.engine.config.JokerConfig;
+import cs.bilkent.joker.engine.partition.PartitionDistribution;
+import cs.bilkent.joker.engine.partition.PartitionKeyExtractor;
+import static cs.bilkent.joker.engine.partition.PartitionUtil.getPartitionId;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.partition.impl.PartitionKey2;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertTrue;
+
+public class PartitionKeyDistributionTest extends AbstractJokerTest
+{
+
+    private static final int KEYS_PER_PARTITION = 128;
+
+    private static final int REPLICA_COUNT = 4;
+
+    private static final double MAX_PARTITION_LOAD_FACTOR = 1.4;
+
+    private static final double MIN_PARTITION_LOAD_FACTOR = 0.6;
+
+    private static final double MAX_REPLICA_LOAD_FACTOR = 1.1;
+
+
+    private final PartitionServiceImpl partitionService = new PartitionServiceImpl( new JokerConfig() );
+
+    private final int partitionCount = partitionService.getPartitionCount();
+
+    private final int keyCount = partitionCount * KEYS_PER_PARTITION;
+
+    private final Tuple tuple = new Tuple();
+
+    @Test
+    public void shouldDistributeSequentialLongIds ()
+    {
+        assertLongKeysAreDistributed( i -> 1_000_000L + i );
+    }
+
+    @Test
+    public void shouldDistributeLongIdsWithPartitionCountStride ()
+    {
+        // e.g., ids assigned by a sharded sequence with as many shards as partitions
+        assertLongKeysAreDistributed( i -> i * partitionCount );
+    }
+
+    @Test
+    public void shouldDistributeSnowflakeIds ()
+    {
+        // 41 bits of timestamp, 10 bits of worker id, 12 bits of sequence number
+        assertLongKeysAreDistributed( i -> ( ( 1500000000000L + i / 8 ) << 22 ) | ( ( i % 8 ) << 12 ) );
+    }
+
+    @Test
+    public void shouldDistributeLongIdsWithHighBitTenantIds ()
+    {
+        // Long.hashCode() maps keys with equal tenant and user ids to the same value
+        assertLongKeysAreDistributed( i -> ( ( i % 16 ) << 32 ) | ( i / 16 ) );
+    }
+
+    @Test
+    public void shouldDistributeSequentialIntIds ()
+    {
+        final PartitionKeyExtractor extractor = new PartitionKeyExtractor1Int( singletonList( "id" ) );
+        final int[] partitionKeyCounts = new int[ partitionCount ];
+        for ( int i = 0; i < keyCount; i++ )
+        {
+            tuple.set( "id", i * 1000 );
+            partitionKeyCounts[ getPartitionId( extractor.getPartitionHash( tuple ), partitionCount ) ]++;
+        }
+
+        assertDistributed( partitionKeyCounts );
+    }
+
+    @Test
+    public void shouldDistributeCompositeKeysOfLongAndIntIds ()
+    {
+        final int[] partitionKeyCounts = new int[ partitionCount ];
+        for ( int i = 0; i < keyCount; i++ )
+        {
+            final PartitionKey2 key = new PartitionKey2( (long) ( i / 32 ), i % 32 );
+            partitionKeyCounts[ getPartitionId( key.partitionHashCode(), partitionCount ) ]++;
+        }
+
+        assertDistributed( partitionKeyCounts );
+    }
+
+    private void assertLongKeysAreDistributed ( final LongFunction<Long> keyFunction )
+    {
+        final PartitionKeyExtractor extractor = new PartitionKeyExtractor1Long( singletonList( "id" ) );
+        final int[] partitionKeyCounts = new int[ partitionCount ];
+        for ( long i = 0; i < keyCount; i++ )
+        {
+            tuple.set( "id", keyFunction.apply( i ) );
+            partitionKeyCounts[ getPartitionId( extractor.getPartitionHash( tuple ), partitionCount ) ]++;
+        }
+
+        assertDistributed( partitionKeyCounts );
+    }
+
+    private void assertDistributed ( final int[] partitionKeyCounts )
+    {
+        for ( int partitionId = 0; partitionId < partitionCount; partitionId++ )
+        {
+            final int count = partitionKeyCounts[ partitionId ];
+            assertTrue( "partitionId=" + partitionId + " count=" + count, count <= KEYS_PER_PARTITION * MAX_PARTITION_LOAD_FACTOR );
+            assertTrue( "partitionId=" + partitionId + " count=" + count, count >= KEYS_PER_PARTITION * MIN_PARTITION_LOAD_FACTOR );
+        }
+
+        final PartitionDistribution distribution = partitionService.createPartitionDistribution( 1, REPLICA_COUNT );
+        final int[] replicaKeyCounts = new int[ REPLICA_COUNT ];
+        for ( int partitionId = 0; partitionId < partitionCount; partitionId++ )
+        {
+            replicaKeyCounts[ distribution.getReplicaIndex( partitionId ) ] += partitionKeyCounts[ partitionId ];
+        }
+
+        for ( int replicaIndex = 0; replicaIndex < REPLICA_COUNT; replicaIndex++ )
+        {
+            final int count = replicaKeyCounts[ replicaIndex ];
+            assertTrue( "replicaIndex=" + replicaIndex + " count=" + count,
+                        count <= ( (double) keyCount / REPLICA_COUNT ) * MAX_REPLICA_LOAD_FACTOR );
+        }
+    }
+
+}
@@ -1,9 +1,14 @@
 package cs.bilkent.joker.engine.partition.impl;
 
+import java.util.List;
+
 import org.junit.Test;
 
 import cs.bilkent.joker.engine.partition.PartitionKeyExtractor;
+import cs.bilkent.joker.engine.partition.PartitionKeyExtractorFactory;
 import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.schema.runtime.OperatorRuntimeSchema;
+import cs.bilkent.joker.operator.schema.runtime.OperatorRuntimeSchemaBuilder;
 import cs.bilkent.joker.partition.impl.PartitionKey;
 import cs.bilkent.joker.partition.impl.PartitionKey1;
 import cs.bilkent.joker.partition.impl.PartitionKey2;
@@ -13,6 +18,8 @@ import cs.bilkent.joker.test.AbstractJokerTest;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 
 public class PartitionKeyTest extends AbstractJokerTest
 {
@@ -268,4 +275,114 @@ public class PartitionKeyTest extends AbstractJokerTest
         assertEquals( extractor.getPartitionHash( tuple ), expectedPartitionHash );
     }
 
+    @Test
+    public void shouldHashLongField ()
+    {
+        final long val = 42L;
+        tuple.set( "val0", val );
+
+        final PartitionKey key = new PartitionKey1Long( val );
+        final PartitionKeyExtractor extractor = new PartitionKeyExtractor1Long( singletonList( "val0" ) );
+
+        assertEquals( key, new PartitionKey1Long( val ) );
+        assertEquals( key, extractor.getPartitionKey( tuple ) );
+        assertEquals( key, new PartitionKey1( val ) );
+        assertEquals( new PartitionKey1( val ), key );
+        assertEquals( key, singletonList( val ) );
+        assertEquals( singletonList( val ), key );
+
+        final int expectedHash = singletonList( val ).hashCode();
+        assertEquals( key.hashCode(), expectedHash );
+        assertEquals( new PartitionKey1( val ).hashCode(), expectedHash );
+        final int expectedPartitionHash = new PartitionKey1( val ).partitionHashCode();
+        assertNotEquals( expectedPartitionHash, expectedHash );
+        assertEquals( extractor.getPartitionHash( tuple ), expectedPartitionHash );
+        assertEquals( key.partitionHashCode(), expectedPartitionHash );
+        assertEquals( key.partitionHashCode(), new PartitionKey2Fwd1( val, "val1" ).partitionHashCode() );
+        assertEquals( key.partitionHashCode(), new PartitionKeyNFwd1( tuple, singletonList( "val0" ) ).partitionHashCode() );
+    }
+
+    @Test
+    public void shouldHashIntField ()
+    {
+        final int val = 42;
+        tuple.set( "val0", val );
+
+        final PartitionKey key = new PartitionKey1Int( val );
+        final PartitionKeyExtractor extractor = new PartitionKeyExtractor1Int( singletonList( "val0" ) );
+
+        assertEquals( key, extractor.getPartitionKey( tuple ) );
+        assertEquals( key, new PartitionKey1( val ) );
+        assertEquals( new PartitionKey1( val ), key );
+        assertNotEquals( key, new PartitionKey1Long( val ) );
+        assertEquals( key, singletonList( val ) );
+
+        assertEquals( key.hashCode(), singletonList( val ).hashCode() );
+        final int expectedPartitionHash = new PartitionKey1( val ).partitionHashCode();
+        assertEquals( extractor.getPartitionHash( tuple ), expectedPartitionHash );
+        assertEquals( key.partitionHashCode(), expectedPartitionHash );
+        assertEquals( key.partitionHashCode(), new PartitionKey3Fwd1( val, "val1", "val2" ).partitionHashCode() );
+    }
+
+    @Test
+    public void shouldHashPartitionKeysWithLongFieldsAsLists ()
+    {
+        final long val = 42L;
+        tuple.set( "val0", val ).set( "val1", val1 ).set( "val2", val ).set( "val3", val3 );
+        final List<Object> list = asList( val, val1, val, val3 );
+
+        final List<PartitionKey> keys = asList( new PartitionKeyN( tuple, asList( "val0", "val1", "val2", "val3" ) ),
+                                                new PartitionKeyNFwd1( tuple, asList( "val0", "val1", "val2", "val3" ) ),
+                                                new PartitionKeyNFwd2( tuple, asList( "val0", "val1", "val2", "val3" ) ),
+                                                new PartitionKeyNFwd3( tuple, asList( "val0", "val1", "val2", "val3" ) ),
+                                                new PartitionKeyNFwdM( tuple, asList( "val0", "val1", "val2", "val3" ), 4 ) );
+        for ( PartitionKey key : keys )
+        {
+            assertEquals( key, list );
+            assertEquals( list, key );
+            assertEquals( list.hashCode(), key.hashCode() );
+        }
+
+        assertEquals( asList( val, val1, val ).hashCode(), new PartitionKey3( val, val1, val ).hashCode() );
+        assertEquals( asList( val, val1, val ).hashCode(), new PartitionKey3Fwd1( val, val1, val ).hashCode() );
+        assertEquals( asList( val, val1, val ).hashCode(), new PartitionKey3Fwd2( val, val1, val ).hashCode() );
+        assertEquals( asList( val, val1 ).hashCode(), new PartitionKey2( val, val1 ).hashCode() );
+        assertEquals( asList( val, val1 ).hashCode(), new PartitionKey2Fwd1( val, val1 ).hashCode() );
+        assertEquals( new PartitionKey2( val, val1 ).partitionHashCode(), new PartitionKey3Fwd2( val, val1, val ).partitionHashCode() );
+        assertEquals( new PartitionKey2( val, val1 ).partitionHashCode(), keys.get( 2 ).partitionHashCode() );
+        assertNotEquals( asList( val, val1 ).hashCode(), new PartitionKey2( val, val1 ).partitionHashCode() );
+    }
+
+    @Test
+    public void shouldCreatePrimitiveKeyExtractorsByPartitionFieldType ()
+    {
+        final PartitionKeyExtractorFactory factory = new PartitionKeyExtractorFactoryImpl();
+
+        assertTrue( factory.createPartitionKeyExtractor( createSchema( long.class ),
+                                                         singletonList( "val0" ) ) instanceof PartitionKeyExtractor1Long );
+        assertTrue( factory.createPartitionKeyExtractor( createSchema( Long.class ),
+                                                         singletonList( "val0" ) ) instanceof PartitionKeyExtractor1Long );
+        assertTrue( factory.createPartitionKeyExtractor( createSchema( int.class ),
+                                                         singletonList( "val0" ) ) instanceof PartitionKeyExtractor1Int );
+        assertTrue( factory.createPartitionKeyExtractor( createSchema( String.class ),
+                                                         singletonList( "val0" ) ) instanceof PartitionKeyExtractor1 );
+    }
+
+    @Test
+    public void shouldNotCreatePrimitiveKeyExtractorWhenInputPortSchemasHaveDifferentPartitionFieldTypes ()
+    {
+        final OperatorRuntimeSchemaBuilder schemaBuilder = new OperatorRuntimeSchemaBuilder( 2, 1 );
+        schemaBuilder.addInputField( 0, "val0", long.class ).addInputField( 1, "val0", int.class );
+
+        final PartitionKeyExtractor extractor = new PartitionKeyExtractorFactoryImpl().createPartitionKeyExtractor( schemaBuilder.build(),
+                                                                                                                    singletonList( "val0" ) );
+
+        assertTrue( extractor instanceof PartitionKeyExtractor1 );
+    }
+
+    private OperatorRuntimeSchema createSchema ( final Class<?> partitionFieldType )
+    {
+        return new OperatorRuntimeSchemaBuilder( 1, 1 ).addInputField( 0, "val0", partitionFieldType ).build();
+    }
+
 }
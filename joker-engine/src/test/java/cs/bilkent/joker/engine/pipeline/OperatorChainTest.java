@@ -0,0 +1,94 @@
+package cs.bilkent.joker.engine.pipeline;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static cs.bilkent.joker.engine.pipeline.OperatorReplicaInitializationTest.createFilterOperator;
+import static cs.bilkent.joker.engine.pipeline.OperatorReplicaInitializationTest.createMapperOperator;
+import static cs.bilkent.joker.engine.pipeline.OperatorReplicaInitializationTest.createStatefulOperator;
+import cs.bilkent.joker.engine.pipeline.impl.invocation.DefaultOutputCollector;
+import cs.bilkent.joker.engine.pipeline.impl.invocation.FusedInvocationCtx;
+import cs.bilkent.joker.operator.ChainableOperator;
+import cs.bilkent.joker.operator.Operator;
+import cs.bilkent.joker.operator.OperatorDef;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.impl.InitCtxImpl;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OperatorChainTest extends AbstractJokerTest
+{
+
+    private final Predicate<Tuple> filterEvenNumbersPredicate = tuple -> tuple.getInteger( "f" ) % 2 == 0;
+
+    private final BiConsumer<Tuple, Tuple> add1Mapper = ( input, output ) -> output.set( "f", 1 + input.getInteger( "f" ) );
+
+    private final DefaultOutputCollector outputCollector = new DefaultOutputCollector( 1 );
+
+    private final FusedInvocationCtx mapperInvocationCtx = new FusedInvocationCtx( 1, key -> null, outputCollector );
+
+    private final FusedInvocationCtx filterInvocationCtx = new FusedInvocationCtx( 1, key -> null, mapperInvocationCtx );
+
+    private final OperatorDef filterOperatorDef = createFilterOperator( filterEvenNumbersPredicate );
+
+    private final OperatorDef mapperOperatorDef = createMapperOperator( add1Mapper );
+
+    private Operator filterOperator;
+
+    private Operator mapperOperator;
+
+    @Before
+    public void init () throws InstantiationException, IllegalAccessException
+    {
+        filterOperator = filterOperatorDef.createOperator();
+        filterOperator.init( new InitCtxImpl( filterOperatorDef, new boolean[] { true } ) );
+        mapperOperator = mapperOperatorDef.createOperator();
+        mapperOperator.init( new InitCtxImpl( mapperOperatorDef, new boolean[] { true } ) );
+    }
+
+    @Test
+    public void shouldChainStatelessChainableOperators ()
+    {
+        assertTrue( OperatorChain.isChainable( filterOperatorDef, filterOperator ) );
+        assertTrue( OperatorChain.isChainable( mapperOperatorDef, mapperOperator ) );
+    }
+
+    @Test
+    public void shouldNotChainNonChainableOperators () throws InstantiationException, IllegalAccessException
+    {
+        final OperatorDef statefulOperatorDef = createStatefulOperator();
+
+        assertFalse( OperatorChain.isChainable( statefulOperatorDef, statefulOperatorDef.createOperator() ) );
+    }
+
+    @Test
+    public void shouldPushTuplesThroughChain ()
+    {
+        final long[] tupleCounts = new long[ 4 ];
+        final List<ChainableOperator> operators = asList( (ChainableOperator) filterOperator, (ChainableOperator) mapperOperator );
+        final OperatorChain chain = new OperatorChain( 1, operators, mapperInvocationCtx, tupleCounts );
+
+        filterInvocationCtx.add( Tuple.of( "f", 2 ) );
+        filterInvocationCtx.add( Tuple.of( "f", 3 ) );
+        filterInvocationCtx.add( Tuple.of( "f", 4 ) );
+
+        chain.invoke( filterInvocationCtx );
+
+        final List<Tuple> outputTuples = outputCollector.getOutputTuples().getTuples( 0 );
+        assertThat( outputTuples, hasSize( 2 ) );
+        assertThat( outputTuples.get( 0 ).getInteger( "f" ), equalTo( 3 ) );
+        assertThat( outputTuples.get( 1 ).getInteger( "f" ), equalTo( 5 ) );
+        assertThat( mapperInvocationCtx.getInputCount(), equalTo( 0 ) );
+        assertThat( tupleCounts, equalTo( new long[] { 0, 3, 2, 0 } ) );
+    }
+
+}
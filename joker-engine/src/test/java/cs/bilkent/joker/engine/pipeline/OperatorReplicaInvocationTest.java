@@ -1,5 +1,6 @@
 package cs.bilkent.joker.engine.pipeline;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.BiConsumer;
 import java.util.function.Predicate;
@@ -30,6 +31,8 @@ import cs.bilkent.joker.engine.tuplequeue.impl.drainer.pool.NonBlockingTupleQueu
 import cs.bilkent.joker.engine.tuplequeue.impl.operator.DefaultOperatorQueue;
 import cs.bilkent.joker.engine.tuplequeue.impl.operator.EmptyOperatorQueue;
 import cs.bilkent.joker.engine.tuplequeue.impl.queue.SingleThreadedTupleQueue;
+import cs.bilkent.joker.operator.AsyncOperator;
+import cs.bilkent.joker.operator.ColumnarBatch;
 import cs.bilkent.joker.operator.InitCtx;
 import cs.bilkent.joker.operator.InvocationCtx;
 import cs.bilkent.joker.operator.InvocationCtx.InvocationReason;
@@ -39,12 +42,14 @@ import cs.bilkent.joker.operator.Operator;
 import cs.bilkent.joker.operator.OperatorDef;
 import cs.bilkent.joker.operator.OperatorDefBuilder;
 import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.VectorizedOperator;
 import cs.bilkent.joker.operator.impl.DefaultInvocationCtx;
 import cs.bilkent.joker.operator.impl.InternalInvocationCtx;
 import cs.bilkent.joker.operator.impl.TuplesImpl;
 import cs.bilkent.joker.operator.scheduling.ScheduleWhenAvailable;
 import cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.TupleAvailabilityByCount;
 import static cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.scheduleWhenTuplesAvailableOnAny;
+import static cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.scheduleWhenTuplesAvailableOnDefaultPort;
 import cs.bilkent.joker.operator.scheduling.SchedulingStrategy;
 import cs.bilkent.joker.operator.schema.annotation.OperatorSchema;
 import cs.bilkent.joker.operator.schema.annotation.PortSchema;
@@ -113,6 +118,111 @@ public class OperatorReplicaInvocationTest extends AbstractJokerTest
         assertThat( operatorReplica.getStatus(), equalTo( RUNNING ) );
     }
 
+    @Test
+    public void when_vectorizedOperatorHasExactInputPortSchema_then_operatorIsInvokedWithColumnarBatch ()
+    {
+        final SingleThreadedTupleQueue tupleQueue = new SingleThreadedTupleQueue( 10 );
+        final OperatorQueue operatorQueue = new DefaultOperatorQueue( "st", 1, SINGLE_THREADED, new TupleQueue[] { tupleQueue }, 100 );
+
+        final OperatorDef[] operatorDefs = new OperatorDef[] { OperatorDefBuilder.newInstance( "st", VectorizedStatefulOperator.class )
+                                                                                 .build() };
+        final TupleQueueDrainerPool drainerPool = new NonBlockingTupleQueueDrainerPool( new JokerConfig(), operatorDefs[ 0 ] );
+        final PipelineReplicaMeter meter = new PipelineReplicaMeter( 1, pipelineReplicaId, operatorDefs[ 0 ] );
+
+        final DefaultInvocationCtx statefulInvocationCtx = new DefaultInvocationCtx( 1, key -> null, new DefaultOutputCollector( 1 ) );
+
+        final InternalInvocationCtx[] invocationCtxes = new InternalInvocationCtx[] { statefulInvocationCtx };
+
+        operatorReplica = new OperatorReplica( pipelineReplicaId,
+                                               operatorQueue,
+                                               drainerPool,
+                                               meter,
+                                               statefulInvocationCtx::createInputTuples,
+                                               operatorDefs,
+                                               invocationCtxes );
+
+        final UpstreamCtx statefulUpstreamCtx = createInitialClosedUpstreamCtx( 1 );
+        final UpstreamCtx statefulDownstreamCtx = UpstreamCtx.createInitialUpstreamCtx( CLOSED );
+
+        operatorReplica.init( new UpstreamCtx[] { statefulUpstreamCtx }, statefulDownstreamCtx );
+
+        final TuplesImpl input = new TuplesImpl( 1 );
+        input.add( Tuple.of( "f", 2 ), Tuple.of( "f", 5 ) );
+
+        final TuplesImpl output = operatorReplica.invoke( true, input, statefulUpstreamCtx );
+
+        assertNotNull( output );
+        assertThat( output.getTupleCount( 0 ), equalTo( 1 ) );
+        assertThat( output.getTupleOrNull( 0, 0 ).getInteger( "f" ), equalTo( 7 ) );
+    }
+
+    @Test
+    public void when_asyncOperatorHasAvailableOutput_then_operatorIsInvokedWithoutInput ()
+    {
+        final UpstreamCtx upstreamCtx = initAsyncOperator( new SingleThreadedTupleQueue( 10 ) );
+        final AsyncStatefulOperator operator = (AsyncStatefulOperator) operatorReplica.getOperator( 0 );
+
+        final Tuple tuple = Tuple.of( "f", 2 );
+        operator.availableOutput.add( tuple );
+
+        final TuplesImpl output = operatorReplica.invoke( true, null, upstreamCtx );
+
+        assertNotNull( output );
+        assertThat( output.getTuples( 0 ), equalTo( singletonList( tuple ) ) );
+        assertThat( operator.invocationCount, equalTo( 1 ) );
+        assertThat( operatorReplica.getStatus(), equalTo( RUNNING ) );
+    }
+
+    @Test
+    public void when_asyncOperatorCannotAcceptInput_then_inputIsKeptInQueue ()
+    {
+        final SingleThreadedTupleQueue tupleQueue = new SingleThreadedTupleQueue( 10 );
+        final UpstreamCtx upstreamCtx = initAsyncOperator( tupleQueue );
+        final AsyncStatefulOperator operator = (AsyncStatefulOperator) operatorReplica.getOperator( 0 );
+
+        operator.canAcceptInput = false;
+        final Tuple tuple1 = Tuple.of( "f", 2 );
+        final Tuple tuple2 = Tuple.of( "f", 5 );
+        final TuplesImpl input = new TuplesImpl( 1 );
+        input.add( tuple1, tuple2 );
+
+        assertNull( operatorReplica.invoke( true, input, upstreamCtx ) );
+        assertThat( operator.invocationCount, equalTo( 0 ) );
+        assertThat( tupleQueue.size(), equalTo( 2 ) );
+
+        operator.canAcceptInput = true;
+        final TuplesImpl output = operatorReplica.invoke( true, null, upstreamCtx );
+
+        assertNotNull( output );
+        assertThat( output.getTuples( 0 ), equalTo( asList( tuple1, tuple2 ) ) );
+        assertThat( operator.invocationCount, equalTo( 1 ) );
+    }
+
+    private UpstreamCtx initAsyncOperator ( final SingleThreadedTupleQueue tupleQueue )
+    {
+        final OperatorQueue operatorQueue = new DefaultOperatorQueue( "st", 1, SINGLE_THREADED, new TupleQueue[] { tupleQueue }, 100 );
+
+        final OperatorDef[] operatorDefs = new OperatorDef[] { OperatorDefBuilder.newInstance( "st", AsyncStatefulOperator.class )
+                                                                                 .build() };
+        final TupleQueueDrainerPool drainerPool = new NonBlockingTupleQueueDrainerPool( new JokerConfig(), operatorDefs[ 0 ] );
+        final PipelineReplicaMeter meter = new PipelineReplicaMeter( 1, pipelineReplicaId, operatorDefs[ 0 ] );
+
+        final DefaultInvocationCtx invocationCtx = new DefaultInvocationCtx( 1, key -> null, new DefaultOutputCollector( 1 ) );
+
+        operatorReplica = new OperatorReplica( pipelineReplicaId,
+                                               operatorQueue,
+                                               drainerPool,
+                                               meter,
+                                               invocationCtx::createInputTuples,
+                                               operatorDefs,
+                                               new InternalInvocationCtx[] { invocationCtx } );
+
+        final UpstreamCtx upstreamCtx = UpstreamCtx.createInitialUpstreamCtx( OPEN );
+        operatorReplica.init( new UpstreamCtx[] { upstreamCtx }, UpstreamCtx.createInitialUpstreamCtx( CLOSED ) );
+
+        return upstreamCtx;
+    }
+
     @Test
     public void when_firstOperatorSchedulingStrategyIsSatisfied_then_allOperatorsAreInvoked ()
     {
@@ -193,6 +303,19 @@ public class OperatorReplicaInvocationTest extends AbstractJokerTest
         assertTrue( output.isEmpty() );
     }
 
+    @Test
+    public void when_fusedOperatorsAreInvoked_then_tupleCountsAreRecorded ()
+    {
+        when_firstOperatorSchedulingStrategyIsSatisfied_then_allOperatorsAreInvoked();
+
+        final long[] inboundTupleCounts = new long[ 3 ];
+        final long[] outboundTupleCounts = new long[ 3 ];
+        operatorReplica.readTupleCounts( inboundTupleCounts, outboundTupleCounts, 0 );
+
+        assertThat( inboundTupleCounts, equalTo( new long[] { 4, 4, 1 } ) );
+        assertThat( outboundTupleCounts, equalTo( new long[] { 4, 1, 1 } ) );
+    }
+
     @Test
     public void when_singleInputPortOperatorUpstreamCtxIsUpdated_then_operatorReplicaMovesToCompletingStatus ()
     {
@@ -533,4 +656,78 @@ public class OperatorReplicaInvocationTest extends AbstractJokerTest
 
     }
 
+
+    @OperatorSpec( type = OperatorType.STATEFUL, inputPortCount = 1, outputPortCount = 1 )
+    @OperatorSchema( inputs = @PortSchema( portIndex = 0, scope = EXACT_FIELD_SET, fields = @SchemaField( name = "f", type = Integer.class ) ), outputs = @PortSchema( portIndex = 0, scope = EXACT_FIELD_SET, fields = @SchemaField( name = "f", type = Integer.class ) ) )
+    public static class VectorizedStatefulOperator implements VectorizedOperator
+    {
+
+        @Override
+        public SchedulingStrategy init ( final InitCtx ctx )
+        {
+            return scheduleWhenTuplesAvailableOnDefaultPort( 2 );
+        }
+
+        @Override
+        public void invoke ( final InvocationCtx ctx )
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void invoke ( final InvocationCtx ctx, final ColumnarBatch[] inputBatches )
+        {
+            final ColumnarBatch batch = inputBatches[ 0 ];
+            final long[] values = batch.getLongColumn( "f" );
+            int sum = 0;
+            for ( int i = 0; i < batch.size(); i++ )
+            {
+                sum += values[ i ];
+            }
+
+            ctx.output( Tuple.of( "f", sum ) );
+        }
+
+    }
+
+
+    @OperatorSpec( type = OperatorType.STATEFUL, inputPortCount = 1, outputPortCount = 1 )
+    public static class AsyncStatefulOperator implements AsyncOperator
+    {
+
+        private final List<Tuple> availableOutput = new ArrayList<>();
+
+        private boolean canAcceptInput = true;
+
+        private int invocationCount;
+
+        @Override
+        public SchedulingStrategy init ( final InitCtx ctx )
+        {
+            return scheduleWhenTuplesAvailableOnDefaultPort( 1 );
+        }
+
+        @Override
+        public void invoke ( final InvocationCtx ctx )
+        {
+            invocationCount++;
+            ctx.getInputTuplesByDefaultPort().forEach( ctx::output );
+            availableOutput.forEach( ctx::output );
+            availableOutput.clear();
+        }
+
+        @Override
+        public boolean hasAvailableOutput ()
+        {
+            return !availableOutput.isEmpty();
+        }
+
+        @Override
+        public boolean canAcceptInput ()
+        {
+            return canAcceptInput;
+        }
+
+    }
+
 }
@@ -94,7 +94,7 @@ public class PipelineIntegrationTest extends AbstractJokerTest
     private final OperatorQueueManagerImpl operatorQueueManager = new OperatorQueueManagerImpl( jokerConfig,
                                                                                                 new PartitionKeyExtractorFactoryImpl() );
 
-    private final OperatorKVStoreManagerImpl operatorKVStoreManager = new OperatorKVStoreManagerImpl();
+    private final OperatorKVStoreManagerImpl operatorKVStoreManager = new OperatorKVStoreManagerImpl( new JokerConfig() );
 
     private final PipelineReplicaId pipelineReplicaId1 = new PipelineReplicaId( 0, 0, 0 );
 
@@ -1171,6 +1171,12 @@ public class PipelineIntegrationTest extends AbstractJokerTest
             failure.printStackTrace();
         }
 
+        @Override
+        public void notifyRemotePartitionSendersCompleted ()
+        {
+
+        }
+
     }
 
 }
@@ -0,0 +1,119 @@
+package cs.bilkent.joker.engine.pipeline;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Test;
+
+import cs.bilkent.joker.engine.pipeline.PipelineReplicaRunnerThreadPool.Execution;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PipelineReplicaRunnerThreadPoolTest extends AbstractJokerTest
+{
+
+    private PipelineReplicaRunnerThreadPool threadPool;
+
+    @After
+    public void after ()
+    {
+        if ( threadPool != null )
+        {
+            threadPool.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldRunRunnerWithThreadName () throws InterruptedException
+    {
+        threadPool = new PipelineReplicaRunnerThreadPool( new ThreadGroup( "test" ), MINUTES.toMillis( 1 ) );
+        final AtomicReference<Thread> thread = new AtomicReference<>();
+        final AtomicReference<String> threadName = new AtomicReference<>();
+
+        final Execution execution = threadPool.execute( () -> {
+            thread.set( Thread.currentThread() );
+            threadName.set( Thread.currentThread().getName() );
+        }, "runner" );
+
+        assertTrue( execution.join( SECONDS.toMillis( 30 ) ) );
+        assertEquals( "runner", threadName.get() );
+        assertEquals( thread.get().getId(), execution.getThreadId() );
+    }
+
+    @Test
+    public void shouldReuseThreadOfCompletedRunner () throws InterruptedException
+    {
+        threadPool = new PipelineReplicaRunnerThreadPool( new ThreadGroup( "test" ), MINUTES.toMillis( 1 ) );
+
+        final Execution execution1 = threadPool.execute( () -> {
+        }, "runner1" );
+        assertTrue( execution1.join( SECONDS.toMillis( 30 ) ) );
+
+        final Execution execution2 = threadPool.execute( () -> {
+        }, "runner2" );
+        assertTrue( execution2.join( SECONDS.toMillis( 30 ) ) );
+
+        assertEquals( execution1.getThreadId(), execution2.getThreadId() );
+        assertEquals( 1, threadPool.getThreadCount() );
+    }
+
+    @Test
+    public void shouldNotShareThreadOfRunningRunner () throws InterruptedException
+    {
+        threadPool = new PipelineReplicaRunnerThreadPool( new ThreadGroup( "test" ), MINUTES.toMillis( 1 ) );
+        final CountDownLatch latch = new CountDownLatch( 1 );
+
+        final Execution execution1 = threadPool.execute( () -> {
+            try
+            {
+                latch.await();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }, "runner1" );
+        final Execution execution2 = threadPool.execute( () -> {
+        }, "runner2" );
+
+        assertTrue( execution2.join( SECONDS.toMillis( 30 ) ) );
+        assertFalse( execution1.join( 0 ) );
+        assertTrue( execution1.getThreadId() != execution2.getThreadId() );
+        assertEquals( 2, threadPool.getThreadCount() );
+
+        latch.countDown();
+        assertTrue( execution1.join( SECONDS.toMillis( 30 ) ) );
+    }
+
+    @Test
+    public void shouldTerminateThreadWithoutKeepAliveTime () throws InterruptedException
+    {
+        threadPool = new PipelineReplicaRunnerThreadPool( new ThreadGroup( "test" ), 0 );
+
+        final Execution execution = threadPool.execute( () -> {
+        }, "runner" );
+
+        assertTrue( execution.join( SECONDS.toMillis( 30 ) ) );
+        assertTrueEventually( () -> assertEquals( 0, threadPool.getThreadCount() ) );
+    }
+
+    @Test
+    public void shouldTerminateIdleThreadsOnShutdown () throws InterruptedException
+    {
+        threadPool = new PipelineReplicaRunnerThreadPool( new ThreadGroup( "test" ), MINUTES.toMillis( 1 ) );
+
+        final Execution execution = threadPool.execute( () -> {
+        }, "runner" );
+        assertTrue( execution.join( SECONDS.toMillis( 30 ) ) );
+
+        threadPool.shutdown();
+
+        assertTrueEventually( () -> assertEquals( 0, threadPool.getThreadCount() ) );
+    }
+
+}
@@ -1,5 +1,8 @@
 package cs.bilkent.joker.engine.pipeline;
 
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -7,6 +10,7 @@ import org.junit.Test;
 import org.mockito.stubbing.Answer;
 
 import cs.bilkent.joker.engine.config.JokerConfig;
+import cs.bilkent.joker.engine.exception.InitializationException;
 import cs.bilkent.joker.engine.flow.PipelineId;
 import cs.bilkent.joker.engine.flow.RegionDef;
 import cs.bilkent.joker.engine.flow.RegionExecPlan;
@@ -20,7 +24,9 @@ import cs.bilkent.joker.operator.scheduling.SchedulingStrategy;
 import cs.bilkent.joker.test.AbstractJokerTest;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
@@ -31,6 +37,8 @@ public class PipelineTest extends AbstractJokerTest
 
     private final PipelineId pipelineId = new PipelineId( 0, 0 );
 
+    private final PipelineReplicaRunnerThreadPool runnerThreadPool = new PipelineReplicaRunnerThreadPool( new ThreadGroup( "test" ), 0 );
+
     @Test
     public void shouldInitializePipelineReplicas ()
     {
@@ -67,6 +75,100 @@ public class PipelineTest extends AbstractJokerTest
         verify( pipelineReplica1 ).init( fusedSchedulingStrategies, fusedUpstreamCtxes );
     }
 
+    @Test
+    public void shouldInitializePipelineReplicasAsync ()
+    {
+        final PipelineReplica pipelineReplica0 = mock( PipelineReplica.class ), pipelineReplica1 = mock( PipelineReplica.class );
+        final SchedulingStrategy schedulingStrategy = mock( SchedulingStrategy.class );
+        final SchedulingStrategy[] schedulingStrategies = new SchedulingStrategy[] { schedulingStrategy };
+        final SchedulingStrategy[][] fusedSchedulingStrategies = new SchedulingStrategy[][] { { schedulingStrategy } };
+        final UpstreamCtx upstreamCtx = mock( UpstreamCtx.class );
+        final UpstreamCtx[] upstreamCtxes = new UpstreamCtx[] { upstreamCtx };
+        final UpstreamCtx[][] fusedUpstreamCtxes = new UpstreamCtx[][] { { upstreamCtx } };
+
+        when( pipelineReplica0.getStatus() ).thenReturn( OperatorReplicaStatus.INITIAL );
+        when( pipelineReplica1.getStatus() ).thenReturn( OperatorReplicaStatus.INITIAL );
+
+        final RegionExecPlan regionExecPlan = mock( RegionExecPlan.class );
+        when( regionExecPlan.getReplicaCount() ).thenReturn( 2 );
+        when( regionExecPlan.getOperatorCountByPipelineStartIndex( pipelineId.getPipelineStartIndex() ) ).thenReturn( 1 );
+
+        final Region region = mock( Region.class );
+        when( region.getPipelineReplicas( pipelineId ) ).thenReturn( new PipelineReplica[] { pipelineReplica0, pipelineReplica1 } );
+        when( region.getSchedulingStrategies( pipelineId ) ).thenReturn( schedulingStrategies );
+        when( region.getFusedSchedulingStrategies( pipelineId ) ).thenReturn( fusedSchedulingStrategies );
+        when( region.getUpstreamCtxes( pipelineId ) ).thenReturn( upstreamCtxes );
+        when( region.getFusedUpstreamCtxes( pipelineId ) ).thenReturn( fusedUpstreamCtxes );
+        when( region.getExecPlan() ).thenReturn( regionExecPlan );
+
+        final ExecutorService executor = Executors.newFixedThreadPool( 2 );
+        try
+        {
+            final Pipeline pipeline = new Pipeline( pipelineId, region );
+            pipeline.initAsync( executor ).join();
+
+            assertThat( pipeline.getPipelineStatus(), equalTo( RUNNING ) );
+            assertThat( pipeline.getUpstreamCtx(), equalTo( upstreamCtxes[ 0 ] ) );
+
+            verify( pipelineReplica0 ).init( fusedSchedulingStrategies, fusedUpstreamCtxes );
+            verify( pipelineReplica1 ).init( fusedSchedulingStrategies, fusedUpstreamCtxes );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldShutdownPipelineReplicasWhenAsyncInitializationFails ()
+    {
+        final PipelineReplica pipelineReplica0 = mock( PipelineReplica.class ), pipelineReplica1 = mock( PipelineReplica.class );
+        final SchedulingStrategy schedulingStrategy = mock( SchedulingStrategy.class );
+        final SchedulingStrategy[] schedulingStrategies = new SchedulingStrategy[] { schedulingStrategy };
+        final SchedulingStrategy[][] fusedSchedulingStrategies = new SchedulingStrategy[][] { { schedulingStrategy } };
+        final UpstreamCtx upstreamCtx = mock( UpstreamCtx.class );
+        final UpstreamCtx[] upstreamCtxes = new UpstreamCtx[] { upstreamCtx };
+        final UpstreamCtx[][] fusedUpstreamCtxes = new UpstreamCtx[][] { { upstreamCtx } };
+
+        when( pipelineReplica0.getStatus() ).thenReturn( OperatorReplicaStatus.INITIAL );
+        when( pipelineReplica1.getStatus() ).thenReturn( OperatorReplicaStatus.INITIAL );
+
+        final RegionExecPlan regionExecPlan = mock( RegionExecPlan.class );
+        when( regionExecPlan.getReplicaCount() ).thenReturn( 2 );
+        when( regionExecPlan.getOperatorCountByPipelineStartIndex( pipelineId.getPipelineStartIndex() ) ).thenReturn( 1 );
+
+        final Region region = mock( Region.class );
+        when( region.getPipelineReplicas( pipelineId ) ).thenReturn( new PipelineReplica[] { pipelineReplica0, pipelineReplica1 } );
+        when( region.getSchedulingStrategies( pipelineId ) ).thenReturn( schedulingStrategies );
+        when( region.getFusedSchedulingStrategies( pipelineId ) ).thenReturn( fusedSchedulingStrategies );
+        when( region.getUpstreamCtxes( pipelineId ) ).thenReturn( upstreamCtxes );
+        when( region.getFusedUpstreamCtxes( pipelineId ) ).thenReturn( fusedUpstreamCtxes );
+        when( region.getExecPlan() ).thenReturn( regionExecPlan );
+
+        final RuntimeException failure = new RuntimeException( "expected" );
+        doThrow( failure ).when( pipelineReplica1 ).init( fusedSchedulingStrategies, fusedUpstreamCtxes );
+
+        final ExecutorService executor = Executors.newFixedThreadPool( 2 );
+        try
+        {
+            final Pipeline pipeline = new Pipeline( pipelineId, region );
+            pipeline.initAsync( executor ).join();
+            fail();
+        }
+        catch ( CompletionException e )
+        {
+            assertTrue( e.getCause() instanceof InitializationException );
+            assertThat( e.getCause().getCause(), equalTo( failure ) );
+
+            verify( pipelineReplica0 ).shutdown();
+            verify( pipelineReplica1 ).shutdown();
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void shouldStartPipelineReplicaRunnersOnceInitialized ()
     {
@@ -111,7 +213,7 @@ public class PipelineTest extends AbstractJokerTest
         when( supervisor.getDownstreamCollector( pipelineReplicaId0 ) ).thenReturn( mock( DownstreamCollector.class ) );
         when( supervisor.getDownstreamCollector( pipelineReplicaId1 ) ).thenReturn( mock( DownstreamCollector.class ) );
 
-        pipeline.startPipelineReplicaRunners( new JokerConfig(), supervisor, new ThreadGroup( "test" ) );
+        pipeline.startPipelineReplicaRunners( new JokerConfig(), supervisor, runnerThreadPool );
 
         pipeline.stopPipelineReplicaRunners( TimeUnit.SECONDS.toMillis( 30 ) );
     }
@@ -160,10 +262,10 @@ public class PipelineTest extends AbstractJokerTest
         pipeline.setDownstreamCollectors( new DownstreamCollector[] { mock( DownstreamCollector.class ),
                                                                       mock( DownstreamCollector.class ) } );
 
-        pipeline.startPipelineReplicaRunners( new JokerConfig(), supervisor, new ThreadGroup( "test" ) );
+        pipeline.startPipelineReplicaRunners( new JokerConfig(), supervisor, runnerThreadPool );
         try
         {
-            pipeline.startPipelineReplicaRunners( new JokerConfig(), supervisor, new ThreadGroup( "test" ) );
+            pipeline.startPipelineReplicaRunners( new JokerConfig(), supervisor, runnerThreadPool );
             fail();
         }
         catch ( IllegalStateException ignored )
@@ -253,7 +355,7 @@ public class PipelineTest extends AbstractJokerTest
         pipeline.setDownstreamCollectors( new DownstreamCollector[] { mock( DownstreamCollector.class ),
                                                                       mock( DownstreamCollector.class ) } );
 
-        pipeline.startPipelineReplicaRunners( new JokerConfig(), supervisor, new ThreadGroup( "test" ) );
+        pipeline.startPipelineReplicaRunners( new JokerConfig(), supervisor, runnerThreadPool );
         try
         {
             pipeline.shutdown();
@@ -314,7 +416,7 @@ public class PipelineTest extends AbstractJokerTest
 
         when( pipelineReplica1.isCompleted() ).thenAnswer( (Answer<Boolean>) invocation -> completed.get() );
 
-        pipeline.startPipelineReplicaRunners( new JokerConfig(), supervisor, new ThreadGroup( "test" ) );
+        pipeline.startPipelineReplicaRunners( new JokerConfig(), supervisor, runnerThreadPool );
 
         final UpstreamCtx newUpstreamCtx = mock( UpstreamCtx.class );
         when( newUpstreamCtx.getVersion() ).thenReturn( INITIAL_VERSION + 1 );
@@ -1,5 +1,6 @@
 package cs.bilkent.joker.engine.pipeline.impl;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.function.Supplier;
@@ -14,6 +15,7 @@ import cs.bilkent.joker.JokerModule;
 import cs.bilkent.joker.engine.config.JokerConfig;
 import cs.bilkent.joker.engine.flow.RegionDef;
 import cs.bilkent.joker.engine.flow.RegionExecPlan;
+import cs.bilkent.joker.engine.metric.PipelineReplicaMeter;
 import cs.bilkent.joker.engine.pipeline.DownstreamCollector;
 import static cs.bilkent.joker.engine.pipeline.OperatorReplicaStatus.INITIAL;
 import cs.bilkent.joker.engine.pipeline.Pipeline;
@@ -22,6 +24,7 @@ import cs.bilkent.joker.engine.pipeline.impl.PipelineManagerImpl.IngestionTimeIn
 import cs.bilkent.joker.engine.pipeline.impl.PipelineManagerImpl.LatencyRecorder;
 import cs.bilkent.joker.engine.pipeline.impl.downstreamcollector.CompositeDownstreamCollector;
 import cs.bilkent.joker.engine.pipeline.impl.downstreamcollector.DownstreamCollector1;
+import cs.bilkent.joker.engine.pipeline.impl.downstreamcollector.LoadBalancedDownstreamCollector1;
 import cs.bilkent.joker.engine.pipeline.impl.downstreamcollector.PartitionedDownstreamCollector1;
 import cs.bilkent.joker.engine.region.RegionDefFormer;
 import cs.bilkent.joker.engine.tuplequeue.OperatorQueue;
@@ -32,6 +35,12 @@ import cs.bilkent.joker.operator.InvocationCtx;
 import cs.bilkent.joker.operator.Operator;
 import cs.bilkent.joker.operator.OperatorDef;
 import cs.bilkent.joker.operator.OperatorDefBuilder;
+import cs.bilkent.joker.operator.Tuple;
+import static cs.bilkent.joker.operator.TupleAccessor.getIngestionTime;
+import static cs.bilkent.joker.operator.TupleAccessor.isIngestionTimeNA;
+import static cs.bilkent.joker.operator.TupleAccessor.isTrackingLatencyRecords;
+import static cs.bilkent.joker.operator.TupleAccessor.setIngestionTime;
+import cs.bilkent.joker.operator.impl.TuplesImpl;
 import cs.bilkent.joker.operator.scheduling.ScheduleWhenAvailable;
 import static cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.TupleAvailabilityByCount.AT_LEAST;
 import static cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.scheduleWhenTuplesAvailableOnAny;
@@ -56,6 +65,8 @@ import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class PipelineManagerImplTest extends AbstractJokerTest
 {
@@ -226,6 +237,67 @@ public class PipelineManagerImplTest extends AbstractJokerTest
         }
     }
 
+    @Test
+    public void test_partitionedStatefulRegion_statelessRegionWithDifferentReplicaCount ()
+    {
+        final OperatorDef operatorDef0 = OperatorDefBuilder.newInstance( "op0", StatefulOperatorInput0Output1.class ).build();
+        final OperatorDef operatorDef1 = OperatorDefBuilder.newInstance( "op1", PartitionedStatefulOperatorInput2Output2.class )
+                                                           .setPartitionFieldNames( singletonList( "field1" ) )
+                                                           .build();
+        final OperatorDef operatorDef2 = OperatorDefBuilder.newInstance( "op2", StatefulOperatorInput1Output1.class ).build();
+        final OperatorDef operatorDef3 = OperatorDefBuilder.newInstance( "op3", StatelessOperatorInput1Output1.class ).build();
+        final FlowDef flow = new FlowDefBuilder().add( operatorDef0 )
+                                                 .add( operatorDef1 )
+                                                 .add( operatorDef2 )
+                                                 .add( operatorDef3 )
+                                                 .connect( "op0", "op1" )
+                                                 .connect( "op1", "op2" )
+                                                 .connect( "op1", "op3" )
+                                                 .build();
+        final List<RegionDef> regions = regionDefFormer.createRegions( flow );
+        assertEquals( 4, regions.size() );
+
+        final RegionDef statefulRegionDef0 = findRegion( regions, operatorDef0 );
+        final RegionDef partitionedStatefulRegionDef = findRegion( regions, operatorDef1 );
+        final RegionDef statefulRegionDef1 = findRegion( regions, operatorDef2 );
+        final RegionDef statelessRegionDef = findRegion( regions, operatorDef3 );
+        final RegionExecPlan regionExecPlan0 = new RegionExecPlan( statefulRegionDef0, singletonList( 0 ), 1 );
+        final RegionExecPlan regionExecPlan1 = new RegionExecPlan( partitionedStatefulRegionDef, singletonList( 0 ), 2 );
+        final RegionExecPlan regionExecPlan2 = new RegionExecPlan( statefulRegionDef1, singletonList( 0 ), 1 );
+        final RegionExecPlan regionExecPlan3 = new RegionExecPlan( statelessRegionDef, singletonList( 0 ), 3 );
+        final List<Pipeline> pipelines = pipelineManager.createPipelines( flow,
+                                                                          asList( regionExecPlan0,
+                                                                                  regionExecPlan1,
+                                                                                  regionExecPlan2,
+                                                                                  regionExecPlan3 ) );
+
+        assertEquals( 4, pipelines.size() );
+
+        final Pipeline pipeline1 = pipelines.get( 1 );
+        final Pipeline pipeline3 = pipelines.get( 3 );
+        assertEquals( statelessRegionDef, pipeline3.getRegionDef() );
+        assertEquals( 3, pipeline3.getReplicaCount() );
+
+        final OperatorQueue[] statelessQueues = IntStream.range( 0, 3 )
+                                                         .mapToObj( i -> pipeline3.getPipelineReplica( i ).getEffectiveQueue() )
+                                                         .toArray( OperatorQueue[]::new );
+        for ( int replicaIndex = 0; replicaIndex < 2; replicaIndex++ )
+        {
+            final DownstreamCollector[] collectors = ( (CompositeDownstreamCollector) pipeline1.getDownstreamCollector( replicaIndex ) )
+                                                             .getDownstreamCollectors();
+            final long loadBalancedCollectorCount = Arrays.stream( collectors ).filter( collector -> {
+                if ( collector instanceof LoadBalancedDownstreamCollector1 )
+                {
+                    assertArrayEquals( statelessQueues, ( (Supplier<OperatorQueue[]>) collector ).get() );
+                    return true;
+                }
+
+                return false;
+            } ).count();
+            assertEquals( 1, loadBalancedCollectorCount );
+        }
+    }
+
     @Test
     public void test_statefulRegion_partitionedStatefulRegionWithPartitionedStatefulAndStatelessOperators ()
     {
@@ -464,6 +536,44 @@ public class PipelineManagerImplTest extends AbstractJokerTest
         assertTrue( pipeline3.getDownstreamCollector( 0 ) instanceof LatencyRecorder );
     }
 
+    @Test
+    public void shouldNotOverwriteIngestionTimesAssignedBySourceOperator ()
+    {
+        final TuplesImpl collected = new TuplesImpl( 1 );
+        final IngestionTimeInjector injector = new IngestionTimeInjector( mock( PipelineReplicaMeter.class ),
+                                                                          tuples -> collected.add( tuples.getTuples( 0 ) ) );
+
+        final Tuple stamped = new Tuple();
+        final long intendedSendTime = System.nanoTime() - 1000;
+        setIngestionTime( stamped, intendedSendTime, false );
+        final Tuple unstamped = new Tuple();
+
+        injector.accept( new TuplesImpl( 1 ).add( stamped ).add( unstamped ) );
+
+        assertEquals( 2, collected.getTupleCount( 0 ) );
+        assertEquals( intendedSendTime, getIngestionTime( stamped ) );
+        assertFalse( isIngestionTimeNA( unstamped ) );
+        assertTrue( getIngestionTime( unstamped ) > intendedSendTime );
+    }
+
+    @Test
+    public void shouldTrackLatencyRecordsOfTuplesWithIngestionTimesAssignedBySourceOperatorWhenMeterIsTicked ()
+    {
+        final TuplesImpl collected = new TuplesImpl( 1 );
+        final PipelineReplicaMeter meter = mock( PipelineReplicaMeter.class );
+        when( meter.isTicked() ).thenReturn( true );
+        final IngestionTimeInjector injector = new IngestionTimeInjector( meter, tuples -> collected.add( tuples.getTuples( 0 ) ) );
+
+        final Tuple stamped = new Tuple();
+        final long intendedSendTime = System.nanoTime() - 1000;
+        setIngestionTime( stamped, intendedSendTime, false );
+
+        injector.accept( new TuplesImpl( 1 ).add( stamped ) );
+
+        assertEquals( intendedSendTime, getIngestionTime( stamped ) );
+        assertTrue( isTrackingLatencyRecords( collected ) );
+    }
+
     private RegionDef findRegion ( Collection<RegionDef> regions, final OperatorDef operator )
     {
         return regions.stream().filter( regionDef -> regionDef.indexOf( operator ) != -1 ).findFirst().get();
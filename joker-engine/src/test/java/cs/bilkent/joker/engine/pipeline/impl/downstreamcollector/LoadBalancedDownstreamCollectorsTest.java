@@ -0,0 +1,149 @@
+package cs.bilkent.joker.engine.pipeline.impl.downstreamcollector;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import cs.bilkent.joker.engine.exception.JokerException;
+import cs.bilkent.joker.engine.tuplequeue.OperatorQueue;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.impl.TuplesImpl;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith( MockitoJUnitRunner.class )
+public class LoadBalancedDownstreamCollectorsTest extends AbstractJokerTest
+{
+
+    private final AtomicBoolean failureFlag = new AtomicBoolean();
+
+    private final TuplesImpl tuples = new TuplesImpl( 10 );
+
+    @Mock
+    private OperatorQueue operatorQueue0;
+
+    @Mock
+    private OperatorQueue operatorQueue1;
+
+    private int sourcePortIndex1 = 1, sourcePortIndex2 = 2;
+
+    private int destinationPortIndex1 = 2, destinationPortIndex2 = 1;
+
+    @Test
+    public void shouldSendTuplesToLessOccupiedReplica ()
+    {
+        final LoadBalancedDownstreamCollector1 collector = new LoadBalancedDownstreamCollector1( failureFlag,
+                                                                                                sourcePortIndex1,
+                                                                                                destinationPortIndex1,
+                                                                                                new OperatorQueue[] { operatorQueue0,
+                                                                                                                      operatorQueue1 } );
+        addTuple( "key", "val", sourcePortIndex1 );
+        when( operatorQueue0.getQueuedTupleCount() ).thenReturn( 10 );
+        when( operatorQueue1.getQueuedTupleCount() ).thenReturn( 0 );
+        setMock( operatorQueue1, sourcePortIndex1, destinationPortIndex1, 1 );
+
+        collector.accept( tuples );
+
+        verifyMock( operatorQueue1, "key", "val", destinationPortIndex1 );
+        verify( operatorQueue0, never() ).offer( anyInt(), anyListOf( Tuple.class ), anyInt() );
+    }
+
+    @Test
+    public void shouldSendRemainingTuplesToAnotherReplicaWhenSelectedReplicaIsFull ()
+    {
+        final LoadBalancedDownstreamCollector1 collector = new LoadBalancedDownstreamCollector1( failureFlag,
+                                                                                                sourcePortIndex1,
+                                                                                                destinationPortIndex1,
+                                                                                                new OperatorQueue[] { operatorQueue0,
+                                                                                                                      operatorQueue1 } );
+        addTuple( "key", "val", sourcePortIndex1 );
+        when( operatorQueue0.getQueuedTupleCount() ).thenReturn( 10 );
+        when( operatorQueue1.getQueuedTupleCount() ).thenReturn( 0, 20 );
+        setMock( operatorQueue1, sourcePortIndex1, destinationPortIndex1, 0 );
+        setMock( operatorQueue0, sourcePortIndex1, destinationPortIndex1, 1 );
+
+        collector.accept( tuples );
+
+        verifyMock( operatorQueue1, "key", "val", destinationPortIndex1 );
+        verifyMock( operatorQueue0, "key", "val", destinationPortIndex1 );
+    }
+
+    @Test( expected = JokerException.class )
+    public void shouldFailWhenFailureFlagIsSet ()
+    {
+        final LoadBalancedDownstreamCollector1 collector = new LoadBalancedDownstreamCollector1( failureFlag,
+                                                                                                sourcePortIndex1,
+                                                                                                destinationPortIndex1,
+                                                                                                new OperatorQueue[] { operatorQueue0,
+                                                                                                                      operatorQueue1 } );
+        failureFlag.set( true );
+        addTuple( "key", "val", sourcePortIndex1 );
+
+        collector.accept( tuples );
+    }
+
+    @Test
+    public void shouldSendTuplesOfEachPortToLessOccupiedReplica ()
+    {
+        final LoadBalancedDownstreamCollectorN collector = new LoadBalancedDownstreamCollectorN( failureFlag,
+                                                                                                new int[] { sourcePortIndex1,
+                                                                                                            sourcePortIndex2 },
+                                                                                                new int[] { destinationPortIndex1,
+                                                                                                            destinationPortIndex2 },
+                                                                                                new OperatorQueue[] { operatorQueue0,
+                                                                                                                      operatorQueue1 } );
+        addTuple( "key1", "val", sourcePortIndex1 );
+        addTuple( "key2", "val", sourcePortIndex2 );
+        when( operatorQueue0.getQueuedTupleCount() ).thenReturn( 0, 10 );
+        when( operatorQueue1.getQueuedTupleCount() ).thenReturn( 5 );
+        setMock( operatorQueue0, sourcePortIndex1, destinationPortIndex1, 1 );
+        setMock( operatorQueue1, sourcePortIndex2, destinationPortIndex2, 1 );
+
+        collector.accept( tuples );
+
+        verifyMock( operatorQueue0, "key1", "val", destinationPortIndex1 );
+        verifyMock( operatorQueue1, "key2", "val", destinationPortIndex2 );
+    }
+
+    @Test
+    public void shouldSelectSingleReplica ()
+    {
+        final LoadBalancedDownstreamCollector1 collector = new LoadBalancedDownstreamCollector1( failureFlag,
+                                                                                                sourcePortIndex1,
+                                                                                                destinationPortIndex1,
+                                                                                                new OperatorQueue[] { operatorQueue0 } );
+
+        assertEquals( 0, collector.selectReplica() );
+        verify( operatorQueue0, never() ).getQueuedTupleCount();
+    }
+
+    private void addTuple ( final String key, final Object val, final int sourcePortIndex )
+    {
+        tuples.add( sourcePortIndex, Tuple.of( key, val ) );
+    }
+
+    private void setMock ( final OperatorQueue operatorQueue,
+                           final int sourcePortIndex,
+                           final int destinationPortIndex,
+                           final int offerResult )
+    {
+        when( operatorQueue.offer( eq( destinationPortIndex ), eq( tuples.getTuplesModifiable( sourcePortIndex ) ), eq( 0 ) ) ).thenReturn(
+                offerResult );
+    }
+
+    private void verifyMock ( final OperatorQueue operatorQueue, final String key, final Object val, final int destinationPortIndex )
+    {
+        verify( operatorQueue ).offer( destinationPortIndex, singletonList( Tuple.of( key, val ) ), 0 );
+    }
+
+}
@@ -167,6 +167,12 @@ public class PartitionedDownstreamCollectorsTest extends AbstractJokerTest
             throw new UnsupportedOperationException();
         }
 
+        @Override
+        public int getQueuedTupleCount ()
+        {
+            throw new UnsupportedOperationException();
+        }
+
         @Override
         public void ensureCapacity ( final int capacity )
         {
@@ -14,8 +14,12 @@ import cs.bilkent.joker.operator.kvstore.KVStore;
 import cs.bilkent.joker.partition.impl.PartitionKey;
 import cs.bilkent.joker.test.AbstractJokerTest;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static java.util.Arrays.asList;
 import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 @RunWith( MockitoJUnitRunner.class )
 public class FusedInvocationCtxTest extends AbstractJokerTest
@@ -75,4 +79,23 @@ public class FusedInvocationCtxTest extends AbstractJokerTest
         assertThat( invocationCtx.getInputCount(), equalTo( 0 ) );
     }
 
+    @Test
+    public void when_outputSliceIsCommitted_then_tuplesAreAddedToOutputCollectorAtOnce ()
+    {
+        invocationCtx.reserveOutput( 2 ).add( new Tuple() ).add( new Tuple() ).commit();
+
+        verify( outputCollector ).add( eq( 0 ), any( Tuple[].class ), eq( 2 ) );
+        verifyNoMoreInteractions( outputCollector );
+    }
+
+    @Test
+    public void when_outputSliceIsAddedToFusedInvocationCtx_then_tuplesAreAddedToInput ()
+    {
+        final Tuple tuple1 = new Tuple(), tuple2 = new Tuple();
+
+        invocationCtx.add( 0, new Tuple[] { tuple1, tuple2, null }, 2 );
+
+        assertThat( invocationCtx.getInputTuples( 0 ), equalTo( asList( tuple1, tuple2 ) ) );
+    }
+
 }
@@ -0,0 +1,169 @@
+package cs.bilkent.joker.engine.region.impl;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static cs.bilkent.joker.engine.adaptation.impl.adaptationaction.RegionRebalanceActionTest.getRegion;
+import cs.bilkent.joker.engine.config.JokerConfig;
+import cs.bilkent.joker.engine.config.JokerConfigBuilder;
+import cs.bilkent.joker.engine.flow.PipelineId;
+import cs.bilkent.joker.engine.flow.RegionDef;
+import cs.bilkent.joker.engine.flow.RegionExecPlan;
+import cs.bilkent.joker.engine.metric.PipelineMetrics;
+import cs.bilkent.joker.engine.metric.PipelineMetrics.PipelineMetricsBuilder;
+import cs.bilkent.joker.engine.region.impl.RegionManagerImplTest.FlowExample6;
+import cs.bilkent.joker.flow.FlowDef;
+import cs.bilkent.joker.flow.FlowDefBuilder;
+import cs.bilkent.joker.operator.OperatorConfig;
+import cs.bilkent.joker.operator.OperatorDef;
+import cs.bilkent.joker.operator.OperatorDefBuilder;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.schema.runtime.OperatorRuntimeSchemaBuilder;
+import static cs.bilkent.joker.operator.spec.OperatorType.PARTITIONED_STATEFUL;
+import cs.bilkent.joker.operator.utils.Pair;
+import cs.bilkent.joker.operators.BeaconOperator;
+import static cs.bilkent.joker.operators.BeaconOperator.TUPLE_COUNT_CONFIG_PARAMETER;
+import static cs.bilkent.joker.operators.BeaconOperator.TUPLE_POPULATOR_CONFIG_PARAMETER;
+import cs.bilkent.joker.operators.ForEachOperator;
+import static cs.bilkent.joker.operators.ForEachOperator.CONSUMER_FUNCTION_CONFIG_PARAMETER;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertTrue;
+
+public class CalibratingRegionExecPlanFactoryTest extends AbstractJokerTest
+{
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldCalibrateAndCacheRegionExecPlans () throws Exception
+    {
+        final File cacheDir = temporaryFolder.newFolder();
+        final JokerConfig config = createConfig();
+        final AtomicInteger count = new AtomicInteger();
+        final FlowDef flow = createFlow( tuple -> count.incrementAndGet() );
+
+        final CalibratingRegionExecPlanFactory factory1 = new CalibratingRegionExecPlanFactory( config, flow, cacheDir, 30000 );
+        final List<RegionExecPlan> execPlans1 = factory1.createRegionExecPlans( createRegions( flow ) );
+
+        assertTrue( count.get() > 0 );
+        assertTrue( new File( cacheDir, factory1.getFingerprint() + ".properties" ).exists() );
+
+        count.set( 0 );
+
+        final CalibratingRegionExecPlanFactory factory2 = new CalibratingRegionExecPlanFactory( config, flow, cacheDir, 30000 );
+        final List<RegionExecPlan> execPlans2 = factory2.createRegionExecPlans( createRegions( flow ) );
+
+        assertThat( count.get(), equalTo( 0 ) );
+        assertThat( execPlans2, equalTo( execPlans1 ) );
+    }
+
+    @Test
+    public void shouldShareCoresAmongRegionsByCpuUtilization ()
+    {
+        final FlowExample6 flowExample = new FlowExample6();
+        final List<RegionDef> regions = createRegions( flowExample.getFlow() );
+        final RegionDef region = getRegion( regions, PARTITIONED_STATEFUL );
+        final RegionExecPlan execPlan = new RegionExecPlan( region, singletonList( 0 ), 1 );
+
+        final JokerConfigBuilder configBuilder = new JokerConfigBuilder();
+        configBuilder.getAdaptationConfigBuilder().disablePipelineSplit().setCpuQuota( 8 );
+        final CalibratingRegionExecPlanFactory factory = new CalibratingRegionExecPlanFactory( configBuilder.build(),
+                                                                                               flowExample.getFlow(),
+                                                                                               temporaryFolder.getRoot(),
+                                                                                               1000 );
+
+        final List<PipelineMetrics> metrics = singletonList( createMetrics( execPlan, 1 ) );
+
+        // the region consumes half of the total cpu, hence it gets 4 cores
+        final List<RegionExecPlan> newExecPlans = factory.computeRegionExecPlans( asList( Pair.of( execPlan, metrics ),
+                                                                                          Pair.of( execPlan, metrics ) ) );
+
+        assertThat( newExecPlans.get( 0 ).getReplicaCount(), equalTo( 4 ) );
+        assertThat( newExecPlans.get( 0 ).getPipelineCount(), equalTo( 1 ) );
+    }
+
+    @Test
+    public void shouldComputeSameFingerprintForSameFlow ()
+    {
+        final FlowDef flow1 = createFlow( tuple -> {
+        } );
+        final FlowDef flow2 = createFlow( tuple -> {
+        } );
+
+        assertThat( CalibratingRegionExecPlanFactory.getFingerprint( flow1, 4, 8 ),
+                    equalTo( CalibratingRegionExecPlanFactory.getFingerprint( flow2, 4, 8 ) ) );
+    }
+
+    @Test
+    public void shouldComputeDifferentFingerprintForDifferentCoreCount ()
+    {
+        final FlowDef flow = createFlow( tuple -> {
+        } );
+
+        assertThat( CalibratingRegionExecPlanFactory.getFingerprint( flow, 4, 8 ),
+                    not( equalTo( CalibratingRegionExecPlanFactory.getFingerprint( flow, 2, 8 ) ) ) );
+    }
+
+    private JokerConfig createConfig ()
+    {
+        final JokerConfigBuilder configBuilder = new JokerConfigBuilder();
+        configBuilder.getMetricManagerConfigBuilder().setPipelineMetricsScanningPeriodInMillis( 200 ).setHistorySize( 3 );
+        return configBuilder.build();
+    }
+
+    private PipelineMetrics createMetrics ( final RegionExecPlan execPlan, final double cpuUtilizationRatio )
+    {
+        final PipelineId pipelineId = execPlan.getPipelineId( 0 );
+        final int operatorCount = execPlan.getOperatorCountByPipelineIndex( 0 );
+        final PipelineMetricsBuilder builder = new PipelineMetricsBuilder( pipelineId, 0, 1, operatorCount, 1 );
+        builder.setCpuUtilizationRatio( 0, cpuUtilizationRatio ).setPipelineCost( 0, 0 ).setInboundThroughput( 0, 0, 1000 );
+        for ( int operatorIndex = 0; operatorIndex < operatorCount; operatorIndex++ )
+        {
+            builder.setOperatorCost( 0, operatorIndex, 1d / operatorCount );
+        }
+
+        return builder.build();
+    }
+
+    private List<RegionDef> createRegions ( final FlowDef flow )
+    {
+        return new RegionDefFormerImpl( new IdGenerator() ).createRegions( flow );
+    }
+
+    private FlowDef createFlow ( final Consumer<Tuple> consumer )
+    {
+        final OperatorConfig beaconConfig = new OperatorConfig().set( TUPLE_POPULATOR_CONFIG_PARAMETER,
+                                                                      (Consumer<Tuple>) tuple -> tuple.set( "val", 1 ) )
+                                                                .set( TUPLE_COUNT_CONFIG_PARAMETER, 10 );
+        final OperatorRuntimeSchemaBuilder beaconSchema = new OperatorRuntimeSchemaBuilder( 0, 1 );
+        beaconSchema.addOutputField( 0, "val", Integer.class );
+
+        final OperatorDef beacon = OperatorDefBuilder.newInstance( "beacon", BeaconOperator.class )
+                                                     .setConfig( beaconConfig )
+                                                     .setExtendingSchema( beaconSchema )
+                                                     .build();
+
+        final OperatorRuntimeSchemaBuilder foreachSchema = new OperatorRuntimeSchemaBuilder( 1, 1 );
+        foreachSchema.addInputField( 0, "val", Integer.class ).addOutputField( 0, "val", Integer.class );
+
+        final OperatorDef forEach = OperatorDefBuilder.newInstance( "forEach", ForEachOperator.class )
+                                                      .setConfig( new OperatorConfig().set( CONSUMER_FUNCTION_CONFIG_PARAMETER, consumer ) )
+                                                      .setExtendingSchema( foreachSchema )
+                                                      .build();
+
+        return new FlowDefBuilder().add( beacon ).add( forEach ).connect( beacon.getId(), forEach.getId() ).build();
+    }
+
+}
@@ -34,6 +34,7 @@ import cs.bilkent.joker.engine.tuplequeue.impl.operator.EmptyOperatorQueue;
 import cs.bilkent.joker.engine.tuplequeue.impl.operator.PartitionedOperatorQueue;
 import cs.bilkent.joker.flow.FlowDef;
 import cs.bilkent.joker.flow.FlowDefBuilder;
+import cs.bilkent.joker.operator.AsyncOperator;
 import cs.bilkent.joker.operator.InitCtx;
 import cs.bilkent.joker.operator.InvocationCtx;
 import cs.bilkent.joker.operator.Operator;
@@ -79,7 +80,7 @@ public class RegionManagerImplTest extends AbstractJokerTest
 
     private final PartitionService partitionService = new PartitionServiceImpl( config );
 
-    private final OperatorKVStoreManagerImpl kvStoreManager = new OperatorKVStoreManagerImpl();
+    private final OperatorKVStoreManagerImpl kvStoreManager = new OperatorKVStoreManagerImpl( new JokerConfig() );
 
     private final PartitionKeyExtractorFactory partitionKeyExtractorFactory = new PartitionKeyExtractorFactoryImpl();
 
@@ -655,7 +656,9 @@ public class RegionManagerImplTest extends AbstractJokerTest
     {
         final SchedulingStrategy[] schedulingStrategies = { scheduleWhenTuplesAvailableOnDefaultPort( 1 ) };
 
-        assertArrayEquals( new int[] { 0 }, findFusionStartIndices( schedulingStrategies ) );
+        final OperatorDef[] operatorDefs = createOperatorDefs( schedulingStrategies.length );
+
+        assertArrayEquals( new int[] { 0 }, findFusionStartIndices( operatorDefs, schedulingStrategies ) );
     }
 
     @Test
@@ -665,7 +668,9 @@ public class RegionManagerImplTest extends AbstractJokerTest
                                                             scheduleWhenTuplesAvailableOnDefaultPort( 1 ),
                                                             scheduleWhenTuplesAvailableOnDefaultPort( 1 ) };
 
-        assertArrayEquals( new int[] { 0 }, findFusionStartIndices( schedulingStrategies ) );
+        final OperatorDef[] operatorDefs = createOperatorDefs( schedulingStrategies.length );
+
+        assertArrayEquals( new int[] { 0 }, findFusionStartIndices( operatorDefs, schedulingStrategies ) );
     }
 
     @Test
@@ -676,7 +681,9 @@ public class RegionManagerImplTest extends AbstractJokerTest
                                                             scheduleWhenTuplesAvailableOnDefaultPort( 1 ),
                                                             scheduleWhenTuplesAvailableOnDefaultPort( 1 ) };
 
-        assertArrayEquals( new int[] { 0 }, findFusionStartIndices( schedulingStrategies ) );
+        final OperatorDef[] operatorDefs = createOperatorDefs( schedulingStrategies.length );
+
+        assertArrayEquals( new int[] { 0 }, findFusionStartIndices( operatorDefs, schedulingStrategies ) );
     }
 
     @Test
@@ -686,7 +693,9 @@ public class RegionManagerImplTest extends AbstractJokerTest
                                                             scheduleWhenTuplesAvailableOnAny( AT_LEAST, 2, 1, 0, 1 ),
                                                             scheduleWhenTuplesAvailableOnDefaultPort( 1 ) };
 
-        assertArrayEquals( new int[] { 0 }, findFusionStartIndices( schedulingStrategies ) );
+        final OperatorDef[] operatorDefs = createOperatorDefs( schedulingStrategies.length );
+
+        assertArrayEquals( new int[] { 0 }, findFusionStartIndices( operatorDefs, schedulingStrategies ) );
     }
 
     @Test
@@ -698,7 +707,9 @@ public class RegionManagerImplTest extends AbstractJokerTest
                                                             scheduleWhenTuplesAvailableOnDefaultPort( 2 ),
                                                             scheduleWhenTuplesAvailableOnDefaultPort( 1 ) };
 
-        assertArrayEquals( new int[] { 0, 3 }, findFusionStartIndices( schedulingStrategies ) );
+        final OperatorDef[] operatorDefs = createOperatorDefs( schedulingStrategies.length );
+
+        assertArrayEquals( new int[] { 0, 3 }, findFusionStartIndices( operatorDefs, schedulingStrategies ) );
     }
 
     @Test
@@ -710,7 +721,9 @@ public class RegionManagerImplTest extends AbstractJokerTest
                                                             scheduleWhenTuplesAvailableOnDefaultPort( EXACT, 1 ),
                                                             scheduleWhenTuplesAvailableOnDefaultPort( 1 ) };
 
-        assertArrayEquals( new int[] { 0, 3 }, findFusionStartIndices( schedulingStrategies ) );
+        final OperatorDef[] operatorDefs = createOperatorDefs( schedulingStrategies.length );
+
+        assertArrayEquals( new int[] { 0, 3 }, findFusionStartIndices( operatorDefs, schedulingStrategies ) );
     }
 
     @Test
@@ -722,7 +735,9 @@ public class RegionManagerImplTest extends AbstractJokerTest
                                                             scheduleWhenTuplesAvailableOnDefaultPort( EXACT, 5 ),
                                                             scheduleWhenTuplesAvailableOnDefaultPort( 1 ) };
 
-        assertArrayEquals( new int[] { 0, 3 }, findFusionStartIndices( schedulingStrategies ) );
+        final OperatorDef[] operatorDefs = createOperatorDefs( schedulingStrategies.length );
+
+        assertArrayEquals( new int[] { 0, 3 }, findFusionStartIndices( operatorDefs, schedulingStrategies ) );
     }
 
     @Test
@@ -732,7 +747,9 @@ public class RegionManagerImplTest extends AbstractJokerTest
                                                             scheduleWhenTuplesAvailableOnAll( AT_LEAST_BUT_SAME_ON_ALL_PORTS, 2, 1, 0, 1 ),
                                                             scheduleWhenTuplesAvailableOnDefaultPort( 1 ) };
 
-        assertArrayEquals( new int[] { 0, 1 }, findFusionStartIndices( schedulingStrategies ) );
+        final OperatorDef[] operatorDefs = createOperatorDefs( schedulingStrategies.length );
+
+        assertArrayEquals( new int[] { 0, 1 }, findFusionStartIndices( operatorDefs, schedulingStrategies ) );
     }
 
     @Test
@@ -742,7 +759,32 @@ public class RegionManagerImplTest extends AbstractJokerTest
                                                             scheduleWhenTuplesAvailableOnAll( AT_LEAST_BUT_SAME_ON_ALL_PORTS, 2, 2, 0, 1 ),
                                                             scheduleWhenTuplesAvailableOnDefaultPort( 1 ) };
 
-        assertArrayEquals( new int[] { 0, 1 }, findFusionStartIndices( schedulingStrategies ) );
+        final OperatorDef[] operatorDefs = createOperatorDefs( schedulingStrategies.length );
+
+        assertArrayEquals( new int[] { 0, 1 }, findFusionStartIndices( operatorDefs, schedulingStrategies ) );
+    }
+
+    @Test
+    public void test_operatorFusionStartIndices_with_asyncOperator ()
+    {
+        final OperatorDef[] operatorDefs = createOperatorDefs( 3 );
+        operatorDefs[ 1 ] = OperatorDefBuilder.newInstance( "async", AsyncOperatorWithSingleInputOutputPort.class ).build();
+        final SchedulingStrategy[] schedulingStrategies = { scheduleWhenTuplesAvailableOnDefaultPort( 1 ),
+                                                            scheduleWhenTuplesAvailableOnDefaultPort( 1 ),
+                                                            scheduleWhenTuplesAvailableOnDefaultPort( 1 ) };
+
+        assertArrayEquals( new int[] { 0, 1 }, findFusionStartIndices( operatorDefs, schedulingStrategies ) );
+    }
+
+    private static OperatorDef[] createOperatorDefs ( final int count )
+    {
+        final OperatorDef[] operatorDefs = new OperatorDef[ count ];
+        for ( int i = 0; i < count; i++ )
+        {
+            operatorDefs[ i ] = OperatorDefBuilder.newInstance( "op" + i, StatefulOperatorWithSingleInputOutputPort.class ).build();
+        }
+
+        return operatorDefs;
     }
 
     static void assertPipelineReplicaMeter ( final PipelineReplica pipelineReplica )
@@ -884,6 +926,29 @@ public class RegionManagerImplTest extends AbstractJokerTest
     }
 
 
+    @OperatorSpec( type = STATEFUL, inputPortCount = 1, outputPortCount = 1 )
+    public static class AsyncOperatorWithSingleInputOutputPort extends NopOperator implements AsyncOperator
+    {
+        @Override
+        public SchedulingStrategy init ( final InitCtx ctx )
+        {
+            return scheduleWhenTuplesAvailableOnDefaultPort( 1 );
+        }
+
+        @Override
+        public boolean hasAvailableOutput ()
+        {
+            return false;
+        }
+
+        @Override
+        public boolean canAcceptInput ()
+        {
+            return true;
+        }
+    }
+
+
     static class NopOperator implements Operator
     {
 
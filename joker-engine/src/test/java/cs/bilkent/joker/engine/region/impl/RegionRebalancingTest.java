@@ -77,7 +77,7 @@ public class RegionRebalancingTest extends AbstractJokerTest
 
     private final OperatorQueueManagerImpl operatorQueueManager = new OperatorQueueManagerImpl( config, partitionKeyExtractorFactory );
 
-    private final OperatorKVStoreManagerImpl operatorKVStoreManager = new OperatorKVStoreManagerImpl();
+    private final OperatorKVStoreManagerImpl operatorKVStoreManager = new OperatorKVStoreManagerImpl( new JokerConfig() );
 
     private final PipelineTransformer pipelineTransformer = new PipelineTransformerImpl( config,
                                                                                          partitionService,
@@ -0,0 +1,151 @@
+package cs.bilkent.joker.engine.spill;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.TupleAccessor;
+import static cs.bilkent.joker.operator.schema.annotation.PortSchemaScope.EXACT_FIELD_SET;
+import cs.bilkent.joker.operator.schema.runtime.PortRuntimeSchema;
+import cs.bilkent.joker.operator.schema.runtime.RuntimeSchemaField;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SpillFileTest extends AbstractJokerTest
+{
+
+    private final PortRuntimeSchema schema = new PortRuntimeSchema( EXACT_FIELD_SET,
+                                                                    asList( new RuntimeSchemaField( "id", Long.class ),
+                                                                            new RuntimeSchemaField( "name", String.class ) ) );
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private SpillFile spillFile;
+
+    @Before
+    public void init ()
+    {
+        spillFile = new SpillFile( temporaryFolder.getRoot().getAbsolutePath(), "op/1" );
+    }
+
+    @After
+    public void after ()
+    {
+        spillFile.close();
+    }
+
+    @Test
+    public void shouldPageInWrittenTuples ()
+    {
+        final Tuple tuple1 = Tuple.of( schema, "id", 1L, "name", "a" );
+        final Tuple tuple2 = Tuple.of( schema, "id", 2L );
+        TupleAccessor.setIngestionTime( tuple1, 10L, true );
+        final Tuple tuple3 = Tuple.of( "id", 3L, "nested", Tuple.of( schema, "id", 4L, "name", "b" ) );
+
+        final SpillSegment segment1 = spillFile.write( asList( tuple1, tuple2 ) );
+        final SpillSegment segment2 = spillFile.write( singletonList( tuple3 ) );
+
+        assertEquals( 3, spillFile.getSpilledTupleCount() );
+        assertEquals( segment1.getLength() + segment2.getLength(), spillFile.getLiveByteCount() );
+
+        final List<Tuple> tuples2 = spillFile.pageIn( segment2 );
+        final List<Tuple> tuples1 = spillFile.pageIn( segment1 );
+
+        assertEquals( asList( tuple1, tuple2 ), tuples1 );
+        assertSame( schema, tuples1.get( 0 ).getSchema() );
+        assertEquals( 10L, TupleAccessor.getIngestionTime( tuples1.get( 0 ) ) );
+        assertTrue( TupleAccessor.isIngestionTimeNA( tuples1.get( 1 ) ) );
+        assertEquals( singletonList( tuple3 ), tuples2 );
+        assertSame( schema, tuples2.get( 0 ).<Tuple>get( "nested" ).getSchema() );
+        assertEquals( 2, spillFile.getPageInCount() );
+        assertEquals( 3, spillFile.getPageInTupleCount() );
+    }
+
+    @Test
+    public void shouldTruncateFileWhenAllSegmentsAreReleased ()
+    {
+        final SpillSegment segment1 = spillFile.write( singletonList( Tuple.of( schema, "id", 1L ) ) );
+        final SpillSegment segment2 = spillFile.write( singletonList( Tuple.of( schema, "id", 2L ) ) );
+
+        spillFile.discard( segment1 );
+        spillFile.pageIn( segment2 );
+
+        assertEquals( 0, spillFile.getLiveByteCount() );
+        assertThat( spillFile.write( singletonList( Tuple.of( schema, "id", 3L ) ) ).getOffset(), equalTo( 0L ) );
+    }
+
+    @Test
+    public void shouldBoundFileSizeWhenSegmentsAreSpilledAndPagedInRepeatedly ()
+    {
+        final char[] chars = new char[ 1024 ];
+        Arrays.fill( chars, 'a' );
+        final String name = new String( chars );
+        final SpillSegment pinned = spillFile.write( singletonList( Tuple.of( schema, "id", 0L, "name", "pinned" ) ) );
+        SpillSegment live = spillFile.write( singletonList( Tuple.of( schema, "id", 1L, "name", name ) ) );
+
+        final File file = temporaryFolder.getRoot().listFiles()[ 0 ];
+        long maxFileSize = 0;
+        for ( long id = 2; id < 5000; id++ )
+        {
+            final SpillSegment next = spillFile.write( singletonList( Tuple.of( schema, "id", id, "name", name ) ) );
+            assertEquals( singletonList( Tuple.of( schema, "id", id - 1, "name", name ) ), spillFile.pageIn( live ) );
+            live = next;
+            maxFileSize = Math.max( maxFileSize, file.length() );
+        }
+
+        assertTrue( spillFile.getCompactionCount() > 0 );
+        assertTrue( maxFileSize <= SpillFile.MIN_COMPACTION_FILE_SIZE + 2 * live.getLength() );
+        assertEquals( pinned.getLength() + live.getLength(), spillFile.getLiveByteCount() );
+        assertEquals( singletonList( Tuple.of( schema, "id", 0L, "name", "pinned" ) ), spillFile.pageIn( pinned ) );
+        assertEquals( singletonList( Tuple.of( schema, "id", 4999L, "name", name ) ), spillFile.pageIn( live ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotReleaseSegmentTwice ()
+    {
+        final SpillSegment segment1 = spillFile.write( singletonList( Tuple.of( schema, "id", 1L ) ) );
+        spillFile.write( singletonList( Tuple.of( schema, "id", 2L ) ) );
+
+        spillFile.pageIn( segment1 );
+        spillFile.discard( segment1 );
+    }
+
+    @Test
+    public void shouldNotWriteTuplesWithFieldsWhichCannotBeEncoded ()
+    {
+        final SpillSegment segment = spillFile.write( singletonList( Tuple.of( "list", asList( 1, 2 ) ) ) );
+
+        assertThat( segment, nullValue() );
+        assertEquals( 0, spillFile.getSpilledTupleCount() );
+        assertEquals( 0, temporaryFolder.getRoot().listFiles().length );
+    }
+
+    @Test
+    public void shouldDeleteFileOnClose ()
+    {
+        spillFile.write( singletonList( Tuple.of( schema, "id", 1L ) ) );
+        final File[] files = temporaryFolder.getRoot().listFiles();
+        assertEquals( 1, files.length );
+
+        spillFile.close();
+
+        assertFalse( files[ 0 ].exists() );
+    }
+
+}
@@ -7,6 +7,7 @@ import java.util.Set;
 import org.junit.Test;
 
 import cs.bilkent.joker.engine.config.JokerConfig;
+import cs.bilkent.joker.engine.config.JokerConfigBuilder;
 import static cs.bilkent.joker.engine.config.ThreadingPref.MULTI_THREADED;
 import cs.bilkent.joker.engine.partition.PartitionDistribution;
 import cs.bilkent.joker.engine.partition.PartitionKeyExtractor;
@@ -17,6 +18,7 @@ import cs.bilkent.joker.engine.partition.impl.PartitionKeyExtractorFactoryImpl;
 import cs.bilkent.joker.engine.partition.impl.PartitionServiceImpl;
 import cs.bilkent.joker.engine.tuplequeue.OperatorQueue;
 import cs.bilkent.joker.engine.tuplequeue.impl.drainer.GreedyDrainer;
+import cs.bilkent.joker.engine.tuplequeue.impl.operator.PartitionedOperatorQueue;
 import cs.bilkent.joker.operator.Operator;
 import cs.bilkent.joker.operator.OperatorConfig;
 import cs.bilkent.joker.operator.OperatorDef;
@@ -195,6 +197,89 @@ public class OperatorQueueManagerImplTest extends AbstractJokerTest
         assertTrue( tuples.isEmpty() );
     }
 
+    @Test
+    public void shouldSplitPartitionsOfPartitionedOperatorQueues ()
+    {
+        final OperatorQueue[] operatorQueues = rebalanceSplittingPartitionedOperatorQueues( 2, 8 );
+
+        assertEquals( 8, operatorQueues.length );
+    }
+
+    @Test
+    public void shouldMergePartitionsOfPartitionedOperatorQueues ()
+    {
+        final OperatorQueue[] operatorQueues = rebalanceSplittingPartitionedOperatorQueues( 2, 8, 1 );
+
+        assertEquals( 1, operatorQueues.length );
+    }
+
+    /**
+     * Rebalances partitioned operator queues of a region which has 8 partitions initially, and each replica has at least 4 partitions.
+     * Verifies that each tuple is kept by the replica which owns its partition after each rebalancing.
+     */
+    private OperatorQueue[] rebalanceSplittingPartitionedOperatorQueues ( final int initialReplicaCount, final int... newReplicaCounts )
+    {
+        final JokerConfigBuilder configBuilder = new JokerConfigBuilder();
+        configBuilder.getPartitionServiceConfigBuilder()
+                     .setPartitionCount( 8 )
+                     .setMaxPartitionCount( 64 )
+                     .setMinPartitionCountPerReplica( 4 );
+        final JokerConfig config = configBuilder.build();
+        final PartitionService partitionService = new PartitionServiceImpl( config );
+        final OperatorQueueManagerImpl operatorQueueManager = new OperatorQueueManagerImpl( config,
+                                                                                            new PartitionKeyExtractorFactoryImpl() );
+
+        PartitionDistribution partitionDistribution = partitionService.createPartitionDistribution( REGION_ID, initialReplicaCount );
+        OperatorQueue[] operatorQueues = operatorQueueManager.createPartitionedQueues( REGION_ID,
+                                                                                       PARTITIONED_STATEFUL_OPERATOR,
+                                                                                       partitionDistribution );
+        final PartitionKeyExtractor extractor = ( (PartitionedOperatorQueue) operatorQueues[ 0 ] ).getPartitionKeyExtractor();
+
+        final int tupleCount = 200;
+        for ( int i = 0; i < tupleCount; i++ )
+        {
+            final Tuple tuple = Tuple.of( PARTITION_KEY_FIELD, i );
+            final int partitionId = getPartitionId( extractor.getPartitionHash( tuple ), partitionDistribution.getPartitionCount() );
+            operatorQueues[ partitionDistribution.getReplicaIndex( partitionId ) ].offer( 0, singletonList( tuple ) );
+        }
+
+        for ( int newReplicaCount : newReplicaCounts )
+        {
+            final PartitionDistribution newPartitionDistribution = partitionService.rebalancePartitionDistribution( REGION_ID,
+                                                                                                                    newReplicaCount );
+            assertEquals( Math.max( 8, newReplicaCount * 4 ), newPartitionDistribution.getPartitionCount() );
+            operatorQueues = operatorQueueManager.rebalancePartitionedQueues( REGION_ID,
+                                                                              PARTITIONED_STATEFUL_OPERATOR,
+                                                                              partitionDistribution,
+                                                                              newPartitionDistribution );
+            partitionDistribution = newPartitionDistribution;
+        }
+
+        final GreedyDrainer drainer = new GreedyDrainer( 1 );
+        int drainedTupleCount = 0;
+        for ( int replicaIndex = 0; replicaIndex < operatorQueues.length; replicaIndex++ )
+        {
+            TuplesImpl result;
+            do
+            {
+                result = new TuplesImpl( 1 );
+                final TuplesImpl output = result;
+                operatorQueues[ replicaIndex ].drain( drainer, key -> output );
+                for ( Tuple tuple : result.getTuplesByDefaultPort() )
+                {
+                    final int partitionHash = extractor.getPartitionHash( tuple );
+                    final int partitionId = getPartitionId( partitionHash, partitionDistribution.getPartitionCount() );
+                    assertEquals( replicaIndex, partitionDistribution.getReplicaIndex( partitionId ) );
+                    drainedTupleCount++;
+                }
+            } while ( result.isNonEmpty() );
+        }
+
+        assertEquals( tupleCount, drainedTupleCount );
+
+        return operatorQueues;
+    }
+
     private Tuple generateTuple ( final int partitionId )
     {
         final Tuple tuple = new Tuple();
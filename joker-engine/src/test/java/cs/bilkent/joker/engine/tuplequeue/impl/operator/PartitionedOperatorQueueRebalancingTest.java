@@ -21,10 +21,12 @@ import cs.bilkent.joker.operator.impl.TuplesImpl;
 import cs.bilkent.joker.partition.impl.PartitionKey;
 import cs.bilkent.joker.test.AbstractJokerTest;
 import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 public class PartitionedOperatorQueueRebalancingTest extends AbstractJokerTest
 {
@@ -155,6 +157,17 @@ public class PartitionedOperatorQueueRebalancingTest extends AbstractJokerTest
         assertEquals( 0, operatorQueue.getDrainableKeyCount() );
     }
 
+    @Test
+    public void shouldReleasePartitionsWithoutKeys ()
+    {
+        final int emptyPartitionId = NON_ACQUIRED_PARTITIONS.get( 0 );
+
+        final Map<Integer, Map<PartitionKey, TupleQueue[]>> released = operatorQueue.releasePartitions( singleton( emptyPartitionId ) );
+
+        assertTrue( released.get( emptyPartitionId ).isEmpty() );
+        assertEquals( ACQUIRED_PARTITIONS.size(), operatorQueue.getDrainableKeyCount() );
+    }
+
     private void assertReleasedPartitions ( final Set<Integer> releasePartitionIds,
                                             final Map<Integer, Map<PartitionKey, TupleQueue[]>> releasedPartitions )
     {
@@ -0,0 +1,165 @@
+package cs.bilkent.joker.engine.tuplequeue.impl.operator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import cs.bilkent.joker.engine.partition.impl.PartitionKeyExtractor1;
+import cs.bilkent.joker.engine.spill.SpillFile;
+import cs.bilkent.joker.engine.tuplequeue.TupleQueue;
+import cs.bilkent.joker.engine.tuplequeue.impl.drainer.NonBlockingMultiPortConjunctiveDrainer;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.impl.TuplesImpl;
+import static cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.TupleAvailabilityByCount.AT_LEAST;
+import static cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.TupleAvailabilityByPort.ALL_PORTS;
+import cs.bilkent.joker.partition.impl.PartitionKey;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PartitionedOperatorQueueSpillTest extends AbstractJokerTest
+{
+
+    private static final int INPUT_PORT_COUNT = 2;
+
+    private static final int IN_MEMORY_TUPLE_LIMIT = 2;
+
+    private static final String PARTITION_KEY_FIELD = "key";
+
+    private static final String VALUE_FIELD = "val";
+
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private SpillFile spillFile;
+
+    private PartitionedOperatorQueue operatorQueue;
+
+    @Before
+    public void init ()
+    {
+        spillFile = new SpillFile( temporaryFolder.getRoot().getAbsolutePath(), "op1" );
+        operatorQueue = new PartitionedOperatorQueue( "op1",
+                                                      INPUT_PORT_COUNT,
+                                                      1,
+                                                      0,
+                                                      1,
+                                                      new PartitionKeyExtractor1( singletonList( PARTITION_KEY_FIELD ) ),
+                                                      spillFile,
+                                                      IN_MEMORY_TUPLE_LIMIT );
+        operatorQueue.setTupleCounts( new int[] { 1, 1 }, ALL_PORTS );
+    }
+
+    @After
+    public void after ()
+    {
+        spillFile.close();
+    }
+
+    @Test
+    public void shouldSpillNonDrainableKeysWhenInMemoryTupleLimitIsExceeded ()
+    {
+        offer( 0, "key1", "a1" );
+        offer( 0, "key2", "a2" );
+        offer( 0, "key3", "a3" );
+
+        assertTrue( operatorQueue.getInMemoryTupleCount() <= IN_MEMORY_TUPLE_LIMIT / 2 );
+        assertEquals( 3, operatorQueue.getInMemoryTupleCount() + operatorQueue.getSpilledKeyCount() );
+        assertTrue( spillFile.getLiveByteCount() > 0 );
+        assertFalse( operatorQueue.isEmpty() );
+    }
+
+    @Test
+    public void shouldPageInSpilledTuplesBeforeNewerTuplesOnDrain ()
+    {
+        offer( 0, "key1", "a1" );
+        offer( 0, "key2", "a2" );
+        offer( 0, "key3", "a3" );
+        offer( 0, "key1", "b1" );
+        offer( 1, "key1", "c1" );
+        offer( 1, "key2", "c2" );
+        offer( 1, "key3", "c3" );
+
+        final NonBlockingMultiPortConjunctiveDrainer drainer = new NonBlockingMultiPortConjunctiveDrainer( INPUT_PORT_COUNT, 100 );
+        drainer.setParameters( AT_LEAST, new int[] { 0, 1 }, new int[] { 1, 1 } );
+        final Map<PartitionKey, TuplesImpl> results = new HashMap<>();
+        operatorQueue.drain( drainer, key -> results.computeIfAbsent( key, k -> new TuplesImpl( INPUT_PORT_COUNT ) ) );
+
+        assertEquals( 3, results.size() );
+        for ( TuplesImpl result : results.values() )
+        {
+            final String key = result.getTupleOrFail( 0, 0 ).getString( PARTITION_KEY_FIELD );
+            final List<String> expected = key.equals( "key1" ) ? asList( "a1", "b1" ) : singletonList( "a" + key.charAt( 3 ) );
+            assertEquals( expected, getValues( result.getTuples( 0 ) ) );
+            assertEquals( singletonList( "c" + key.charAt( 3 ) ), getValues( result.getTuples( 1 ) ) );
+        }
+
+        assertTrue( operatorQueue.isEmpty() );
+        assertEquals( 0, operatorQueue.getInMemoryTupleCount() );
+        assertEquals( 0, spillFile.getLiveByteCount() );
+        assertTrue( spillFile.getPageInCount() > 0 );
+    }
+
+    @Test
+    public void shouldPageInSpilledTuplesOnRelease ()
+    {
+        offer( 0, "key1", "a1" );
+        offer( 0, "key2", "a2" );
+        offer( 0, "key3", "a3" );
+
+        final Map<Integer, Map<PartitionKey, TupleQueue[]>> released = operatorQueue.releasePartitions( singleton( 0 ) );
+
+        int tupleCount = 0;
+        for ( TupleQueue[] tupleQueues : released.get( 0 ).values() )
+        {
+            tupleCount += tupleQueues[ 0 ].size();
+        }
+
+        assertEquals( 3, tupleCount );
+        assertTrue( operatorQueue.isEmpty() );
+        assertEquals( 0, spillFile.getLiveByteCount() );
+    }
+
+    @Test
+    public void shouldDiscardSpilledTuplesOnClear ()
+    {
+        offer( 0, "key1", "a1" );
+        offer( 0, "key2", "a2" );
+        offer( 0, "key3", "a3" );
+
+        operatorQueue.clear();
+
+        assertTrue( operatorQueue.isEmpty() );
+        assertEquals( 0, operatorQueue.getSpilledKeyCount() );
+        assertEquals( 0, spillFile.getLiveByteCount() );
+    }
+
+    private void offer ( final int portIndex, final String key, final String value )
+    {
+        operatorQueue.offer( portIndex, singletonList( Tuple.of( PARTITION_KEY_FIELD, key, VALUE_FIELD, value ) ) );
+    }
+
+    private List<String> getValues ( final List<Tuple> tuples )
+    {
+        final List<String> values = new ArrayList<>();
+        for ( Tuple tuple : tuples )
+        {
+            values.add( tuple.getString( VALUE_FIELD ) );
+        }
+
+        return values;
+    }
+
+}
@@ -101,7 +101,9 @@ public class BargainIndexOperator implements Operator
             final int askedSize = quote.getInteger( ASKED_SIZE_FIELD );
             final double bargainIndex = Math.exp( cvwap - askedTickerSymbolPrice ) * askedSize;
 
-            return Tuple.of( outputSchema, BARGAIN_INDEX_FIELD, bargainIndex );
+            final Tuple result = Tuple.of( outputSchema, BARGAIN_INDEX_FIELD, bargainIndex );
+            result.attachTo( quote );
+            return result;
         }
 
         return null;
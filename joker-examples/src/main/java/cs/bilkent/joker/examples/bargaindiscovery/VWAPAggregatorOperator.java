@@ -1,5 +1,6 @@
 package cs.bilkent.joker.examples.bargaindiscovery;
 
+import cs.bilkent.joker.operator.FieldHandle;
 import cs.bilkent.joker.operator.InitCtx;
 import cs.bilkent.joker.operator.InvocationCtx;
 import cs.bilkent.joker.operator.Operator;
@@ -62,12 +63,24 @@ public class VWAPAggregatorOperator implements Operator
 
     private TupleSchema outputSchema;
 
+    private FieldHandle<String> tickerSymbolField;
+
+    private FieldHandle<Number> vwapField;
+
+    private FieldHandle<Number> volumeField;
+
+    private FieldHandle<Long> timestampField;
+
     @Override
     public SchedulingStrategy init ( final InitCtx ctx )
     {
         this.windowSize = ctx.getConfig().getOrFail( WINDOW_SIZE_CONfIG_PARAMETER );
         this.slideFactor = ctx.getConfig().getOrDefault( SLIDE_FACTOR_CONfIG_PARAMETER, 1 );
         this.outputSchema = ctx.getOutputPortSchema( 0 );
+        this.tickerSymbolField = ctx.getInputFieldHandle( 0, TICKER_SYMBOL_FIELD );
+        this.vwapField = ctx.getInputFieldHandle( 0, TUPLE_INPUT_VWAP_FIELD );
+        this.volumeField = ctx.getInputFieldHandle( 0, TUPLE_VOLUME_FIELD );
+        this.timestampField = ctx.getInputFieldHandle( 0, TIMESTAMP_FIELD );
 
         return scheduleWhenTuplesAvailableOnDefaultPort( 1 );
     }
@@ -86,8 +99,8 @@ public class VWAPAggregatorOperator implements Operator
 
         for ( Tuple input : ctx.getInputTuplesByDefaultPort() )
         {
-            final double vwap = input.getDoubleValueOrDefault( TUPLE_INPUT_VWAP_FIELD, 0d );
-            final double volume = input.getDoubleValueOrDefault( TUPLE_VOLUME_FIELD, 0d );
+            final double vwap = vwapField.getDoubleValueOrDefault( input, 0d );
+            final double volume = volumeField.getDoubleValueOrDefault( input, 0d );
 
             final int i = tupleCount++ % windowSize;
 
@@ -102,8 +115,8 @@ public class VWAPAggregatorOperator implements Operator
 
             if ( endOfWindow( tupleCount ) || endOfSlide( tupleCount ) )
             {
-                final Tuple result = createOutputTuple( input.getString( TICKER_SYMBOL_FIELD ),
-                                                        input.getLong( TIMESTAMP_FIELD ),
+                final Tuple result = createOutputTuple( tickerSymbolField.get( input ),
+                                                        timestampField.get( input ),
                                                         vwapSum,
                                                         volumeSum );
                 result.attachTo( input );
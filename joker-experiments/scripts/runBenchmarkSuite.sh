@@ -0,0 +1,48 @@
+#!/bin/bash
+
+if [ $# -lt 3 ]; then
+	echo "Usage: `basename $0` directory targetRate authLogsFilePath [baselineDirectory] [regressionThreshold]"
+	exit 1
+fi
+
+dir=$1
+targetRate=$2
+authLogsFilePath=$3
+baselineDir=$4
+regressionThreshold=$5
+
+mkdir $dir
+
+if [ $? != '0' ]; then
+    exit 1
+fi
+
+runBenchmark() {
+	benchmarkName=$1
+	flowFactory=$2
+	shift 2
+
+	java -Xmx4G -XX:+PrintGCTimeStamps -XX:+PrintGCDateStamps -XX:+PrintGCDetails -Xloggc:$dir"/"$benchmarkName"_gc.log" -cp joker-experiments-0.1.jar -DbenchmarkName=$benchmarkName -DflowFactory=$flowFactory -DtargetRate=$targetRate -DreportDir=$dir "$@" cs.bilkent.joker.experiment.loadgen.BenchmarkRunner
+
+	if [ $? != '0' ]; then
+		echo "JAVA command failed for $benchmarkName!!!"
+		exit 1
+	fi
+}
+
+runBenchmark wordcount cs.bilkent.joker.experiment.wordcount.WordCountFlowDefFactory -DminWordLength=3 -DmaxWordLength=12 -DwordCountPerLength=1000 -DminSentenceLength=4 -DmaxSentenceLength=16 -DsentenceCountPerLength=100 -DshuffledSentenceCount=65536 -DmaxPartitionIndex=1024 -DsentenceCountPerInvocation=256
+
+runBenchmark bargain cs.bilkent.joker.experiment.bargain.BargainFlowDefFactory -DtickerCount=1000 -DminPrice=10 -DmaxPrice=100 -DtradesPerTimeUnit=1000 -DquotesPerTimeUnit=1000 -DtuplesPerInvocation=256
+
+runBenchmark authlogs cs.bilkent.joker.experiment.authlogs.AuthLogsFlowDefFactory -DfilePath=$authLogsFilePath -DfailureWindowDurationInSeconds=60 -DbatchSize=65536 -DuidRange=1000 -DeuidRange=1000 -DrhostCount=1000 -DuserCount=1000 -DauthFailureRatio=0.1 -DlogsPerSecond=1000 -DtuplesPerInvocation=256
+
+runBenchmark tree cs.bilkent.joker.experiment.TreeFlowDefFactory -DkeyRange=100000 -DvalueRange=10 -DtuplesPerKey=16 -DkeysPerInvocation=16 -DoperatorCostsDown1=16_16 -DoperatorCostsDown2=16_16 -DoperatorCostsUp=16_16
+
+if [ -n "$baselineDir" ]; then
+	java -cp joker-experiments-0.1.jar cs.bilkent.joker.experiment.loadgen.CompareBenchmarks $dir $baselineDir $regressionThreshold
+
+	if [ $? != '0' ]; then
+		echo "Benchmarks regressed against $baselineDir!!!"
+		exit 1
+	fi
+fi
@@ -8,6 +8,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import cs.bilkent.joker.experiment.loadgen.OpenLoopRateLimiter;
 import cs.bilkent.joker.operator.InitCtx;
 import cs.bilkent.joker.operator.InvocationCtx;
 import cs.bilkent.joker.operator.Operator;
@@ -70,6 +71,12 @@ public class MemorizingBeaconOperator implements Operator
 
     private int inv;
 
+    private OpenLoopRateLimiter rateLimiter;
+
+    private List<Tuple> openLoopOutput;
+
+    private int openLoopTupleIndex;
+
     private Thread shuffler;
 
     private volatile boolean shutdown;
@@ -83,6 +90,7 @@ public class MemorizingBeaconOperator implements Operator
         this.keysPerInvocation = config.getInteger( KEYS_PER_INVOCATION_CONFIG_PARAMETER );
         this.valueRange = config.getInteger( VALUE_RANGE_CONFIG_PARAMETER );
         this.keyRange = config.getInteger( KEY_RANGE_CONFIG_PARAMETER );
+        this.rateLimiter = OpenLoopRateLimiter.createIfConfigured( config );
 
         final List<Integer> keys = new ArrayList<>( keyRange );
         for ( int i = 0; i < keyRange; i++ )
@@ -113,6 +121,25 @@ public class MemorizingBeaconOperator implements Operator
 
     @Override
     public void invoke ( final InvocationCtx ctx )
+    {
+        if ( rateLimiter != null )
+        {
+            // memorized tuples are copied since each tuple gets its own intended send time
+            for ( int i = 0, j = rateLimiter.acquire(); i < j; i++ )
+            {
+                final Tuple tuple = new Tuple( outputSchema );
+                nextMemorizedTuple().sinkTo( tuple::set );
+                rateLimiter.stamp( tuple );
+                ctx.output( tuple );
+            }
+
+            return;
+        }
+
+        ctx.output( nextMemorizedOutput() );
+    }
+
+    private List<Tuple> nextMemorizedOutput ()
     {
         if ( inv == currentOutputs.size() )
         {
@@ -125,7 +152,18 @@ public class MemorizingBeaconOperator implements Operator
             inv = 0;
         }
 
-        ctx.output( currentOutputs.get( inv++ ) );
+        return currentOutputs.get( inv++ );
+    }
+
+    private Tuple nextMemorizedTuple ()
+    {
+        if ( openLoopOutput == null || openLoopTupleIndex == openLoopOutput.size() )
+        {
+            openLoopOutput = nextMemorizedOutput();
+            openLoopTupleIndex = 0;
+        }
+
+        return openLoopOutput.get( openLoopTupleIndex++ );
     }
 
     private List<Tuple> produceOutput ()
@@ -11,6 +11,7 @@ import static cs.bilkent.joker.experiment.MemorizingBeaconOperator.KEYS_PER_INVO
 import static cs.bilkent.joker.experiment.MemorizingBeaconOperator.KEY_RANGE_CONFIG_PARAMETER;
 import static cs.bilkent.joker.experiment.MemorizingBeaconOperator.TUPLES_PER_KEY_CONFIG_PARAMETER;
 import static cs.bilkent.joker.experiment.MemorizingBeaconOperator.VALUE_RANGE_CONFIG_PARAMETER;
+import static cs.bilkent.joker.experiment.loadgen.OpenLoopRateLimiter.copyConfig;
 import cs.bilkent.joker.flow.FlowDef;
 import cs.bilkent.joker.flow.FlowDefBuilder;
 import cs.bilkent.joker.operator.OperatorConfig;
@@ -50,7 +51,9 @@ public class TreeFlowDefFactory implements FlowDefFactory
                                                           .set( TUPLES_PER_KEY_CONFIG_PARAMETER, tuplesPerKey )
                                                           .set( KEYS_PER_INVOCATION_CONFIG_PARAMETER, keysPerInvocation );
 
-        OperatorDef beacon = OperatorDefBuilder.newInstance( "bc", MemorizingBeaconOperator.class ).setConfig( beaconConfig ).build();
+        OperatorDef beacon = OperatorDefBuilder.newInstance( "bc", MemorizingBeaconOperator.class )
+                                               .setConfig( copyConfig( config, beaconConfig ) )
+                                               .build();
 
         flowDefBuilder.add( beacon );
 
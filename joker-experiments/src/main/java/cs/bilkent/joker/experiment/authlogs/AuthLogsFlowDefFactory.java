@@ -13,6 +13,7 @@ import static cs.bilkent.joker.experiment.authlogs.LogBeaconOperator.HOST_FIELD_
 import static cs.bilkent.joker.experiment.authlogs.LogBeaconOperator.MESSAGE_FIELD_NAME;
 import static cs.bilkent.joker.experiment.authlogs.LogBeaconOperator.SERVICE_FIELD_NAME;
 import static cs.bilkent.joker.experiment.authlogs.LogBeaconOperator.TIMESTAMP_FIELD_NAME;
+import static cs.bilkent.joker.experiment.loadgen.OpenLoopRateLimiter.copyConfig;
 import cs.bilkent.joker.flow.FlowDef;
 import cs.bilkent.joker.flow.FlowDefBuilder;
 import cs.bilkent.joker.operator.OperatorConfig;
@@ -64,7 +65,7 @@ public class AuthLogsFlowDefFactory implements FlowDefFactory
                                                                    .set( "tuplesPerInvocation", config.getInt( "tuplesPerInvocation" ) );
 
         final OperatorDef logBeacon = OperatorDefBuilder.newInstance( "logBeacon", LogBeaconOperator.class )
-                                                        .setConfig( logBeaconConfig )
+                                                        .setConfig( copyConfig( config, logBeaconConfig ) )
                                                         .build();
 
         final OperatorRuntimeSchemaBuilder authFailureFilterSchema = new OperatorRuntimeSchemaBuilder( 1, 1 );
@@ -3,6 +3,7 @@ package cs.bilkent.joker.experiment.authlogs;
 import java.util.List;
 
 import static cs.bilkent.joker.experiment.authlogs.LogFileReader.readFile;
+import cs.bilkent.joker.experiment.loadgen.OpenLoopRateLimiter;
 import cs.bilkent.joker.operator.InitCtx;
 import cs.bilkent.joker.operator.InvocationCtx;
 import cs.bilkent.joker.operator.Operator;
@@ -63,6 +64,8 @@ public class LogBeaconOperator implements Operator
 
     private int tuplesPerInvocation;
 
+    private OpenLoopRateLimiter rateLimiter;
+
     @Override
     public SchedulingStrategy init ( final InitCtx ctx )
     {
@@ -76,6 +79,7 @@ public class LogBeaconOperator implements Operator
         final double authFailureRatio = config.get( "authFailureRatio" );
         logsPerSecond = config.get( "logsPerSecond" );
         tuplesPerInvocation = config.get( "tuplesPerInvocation" );
+        rateLimiter = OpenLoopRateLimiter.createIfConfigured( config );
 
         generator = new LogLineGenerator( lines, batchSize, uidRange, euidRange, rhostCount, userCount, authFailureRatio );
         generatorThread = new Thread( generator );
@@ -95,9 +99,16 @@ public class LogBeaconOperator implements Operator
     @Override
     public void invoke ( final InvocationCtx ctx )
     {
-        for ( int i = 0; i < tuplesPerInvocation; i++ )
+        final int count = rateLimiter != null ? rateLimiter.acquire() : tuplesPerInvocation;
+        for ( int i = 0; i < count; i++ )
         {
-            ctx.output( createOutputTuple( nextTimestamp(), nextLog() ) );
+            final Tuple tuple = createOutputTuple( nextTimestamp(), nextLog() );
+            if ( rateLimiter != null )
+            {
+                rateLimiter.stamp( tuple );
+            }
+
+            ctx.output( tuple );
         }
     }
 
@@ -19,6 +19,7 @@ import static cs.bilkent.joker.experiment.bargain.TickerPriceBaseOperator.MAX_PR
 import static cs.bilkent.joker.experiment.bargain.TickerPriceBaseOperator.MIN_PRICE_CONFIG_PARAMETER;
 import static cs.bilkent.joker.experiment.bargain.TickerPriceBaseOperator.TICKERS_PER_TIME_UNIT_CONFIG_PARAMETER;
 import static cs.bilkent.joker.experiment.bargain.TickerPriceBaseOperator.TUPLES_PER_INVOCATION_CONFIG_PARAMETER;
+import static cs.bilkent.joker.experiment.loadgen.OpenLoopRateLimiter.copyConfig;
 import cs.bilkent.joker.flow.FlowDef;
 import cs.bilkent.joker.flow.FlowDefBuilder;
 import cs.bilkent.joker.operator.OperatorConfig;
@@ -53,7 +54,7 @@ public class BargainFlowDefFactory implements FlowDefFactory
                                                                      .set( TUPLES_PER_INVOCATION_CONFIG_PARAMETER, tuplesPerInvocation );
 
         final OperatorDef tradeBeaconOperator = OperatorDefBuilder.newInstance( "tb", TradeBeaconOperator.class )
-                                                                  .setConfig( tradeBeaconConfig )
+                                                                  .setConfig( copyConfig( config, tradeBeaconConfig ) )
                                                                   .build();
 
         final OperatorConfig quoteBeaconConfig = new OperatorConfig().set( MIN_PRICE_CONFIG_PARAMETER, minPrice )
@@ -62,7 +63,7 @@ public class BargainFlowDefFactory implements FlowDefFactory
                                                                      .set( TUPLES_PER_INVOCATION_CONFIG_PARAMETER, tuplesPerInvocation );
 
         final OperatorDef quoteBeaconOperator = OperatorDefBuilder.newInstance( "qb", QuoteBeaconOperator.class )
-                                                                  .setConfig( quoteBeaconConfig )
+                                                                  .setConfig( copyConfig( config, quoteBeaconConfig ) )
                                                                   .build();
 
         final OperatorConfig vwapAggregatorConfig = new OperatorConfig().set( WINDOW_SIZE_CONfIG_PARAMETER, 5 );
@@ -2,6 +2,7 @@ package cs.bilkent.joker.experiment.bargain;
 
 import java.util.List;
 
+import cs.bilkent.joker.experiment.loadgen.OpenLoopRateLimiter;
 import cs.bilkent.joker.operator.InitCtx;
 import cs.bilkent.joker.operator.InvocationCtx;
 import cs.bilkent.joker.operator.Operator;
@@ -42,6 +43,8 @@ public abstract class TickerPriceBaseOperator implements Operator
 
     private int tuplesPerInvocation;
 
+    private OpenLoopRateLimiter rateLimiter;
+
     @Override
     public SchedulingStrategy init ( final InitCtx ctx )
     {
@@ -55,6 +58,7 @@ public abstract class TickerPriceBaseOperator implements Operator
         this.tickerPrices = tickerPriceGenerator.getTickerPrices();
         this.j = tickersPerTimeUnit;
         this.tuplesPerInvocation = ctx.getConfig().getInteger( TUPLES_PER_INVOCATION_CONFIG_PARAMETER );
+        this.rateLimiter = OpenLoopRateLimiter.createIfConfigured( config );
 
         return ScheduleWhenAvailable.INSTANCE;
     }
@@ -62,9 +66,16 @@ public abstract class TickerPriceBaseOperator implements Operator
     @Override
     public final void invoke ( final InvocationCtx ctx )
     {
-        for ( int i = 0; i < tuplesPerInvocation; i++ )
+        final int count = rateLimiter != null ? rateLimiter.acquire() : tuplesPerInvocation;
+        for ( int i = 0; i < count; i++ )
         {
-            ctx.output( nextTuple() );
+            final Tuple tuple = nextTuple();
+            if ( rateLimiter != null )
+            {
+                rateLimiter.stamp( tuple );
+            }
+
+            ctx.output( tuple );
         }
     }
 
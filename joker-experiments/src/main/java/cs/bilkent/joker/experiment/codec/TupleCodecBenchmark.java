@@ -0,0 +1,255 @@
+package cs.bilkent.joker.experiment.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.agrona.ExpandableArrayBuffer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.codec.CodecRegistry;
+import cs.bilkent.joker.operator.codec.TupleCodec;
+import static cs.bilkent.joker.operator.schema.annotation.PortSchemaScope.EXACT_FIELD_SET;
+import cs.bilkent.joker.operator.schema.runtime.PortRuntimeSchema;
+import cs.bilkent.joker.operator.schema.runtime.RuntimeSchemaField;
+import static java.util.Arrays.asList;
+
+/**
+ * Compares encode + decode round trip cost of {@link TupleCodec} with Java serialization of the tuple fields, and with a Kryo-style
+ * baseline which writes a class tag, name and value of each field to a stream. Each measurement is repeated after a warmup phase and
+ * the average time per tuple and the encoded size per tuple are printed.
+ * <p>
+ * Arguments: tuple count, warmup iterations, measurement iterations
+ */
+public class TupleCodecBenchmark
+{
+
+    private static final PortRuntimeSchema SCHEMA = new PortRuntimeSchema( EXACT_FIELD_SET,
+                                                                           asList( new RuntimeSchemaField( "id", Long.class ),
+                                                                                   new RuntimeSchemaField( "count", Integer.class ),
+                                                                                   new RuntimeSchemaField( "price", Double.class ),
+                                                                                   new RuntimeSchemaField( "symbol", String.class ) ) );
+
+
+    public static void main ( String[] args ) throws Exception
+    {
+        checkArgument( args.length == 3, "expected arguments: tuple count, warmup iterations, measurement iterations" );
+
+        final int tupleCount = Integer.parseInt( args[ 0 ] );
+        final int warmupIterations = Integer.parseInt( args[ 1 ] );
+        final int measurementIterations = Integer.parseInt( args[ 2 ] );
+
+        final List<Tuple> tuples = createTuples( tupleCount );
+
+        final List<Benchmark> benchmarks = asList( new TupleCodecRoundTrip(),
+                                                   new JavaSerializationRoundTrip(),
+                                                   new TaggedStreamRoundTrip() );
+        for ( Benchmark benchmark : benchmarks )
+        {
+            for ( int i = 0; i < warmupIterations; i++ )
+            {
+                benchmark.roundTrip( tuples );
+            }
+
+            long bytes = 0;
+            final long start = System.nanoTime();
+            for ( int i = 0; i < measurementIterations; i++ )
+            {
+                bytes += benchmark.roundTrip( tuples );
+            }
+            final long duration = System.nanoTime() - start;
+
+            final long operationCount = (long) measurementIterations * tupleCount;
+            System.out.println( String.format( "%-24s %10.1f ns/tuple %8.1f bytes/tuple",
+                                               benchmark.getClass().getSimpleName(),
+                                               ( (double) duration ) / operationCount,
+                                               ( (double) bytes ) / operationCount ) );
+        }
+    }
+
+    private static List<Tuple> createTuples ( final int tupleCount )
+    {
+        final Random random = new Random( 0 );
+        final List<Tuple> tuples = new ArrayList<>( tupleCount );
+        for ( int i = 0; i < tupleCount; i++ )
+        {
+            tuples.add( Tuple.of( SCHEMA,
+                                  "id",
+                                  (long) i,
+                                  "count",
+                                  random.nextInt( 1000 ),
+                                  "price",
+                                  random.nextDouble() * 100,
+                                  "symbol",
+                                  "SYM" + random.nextInt( 100 ) ) );
+        }
+
+        return tuples;
+    }
+
+    interface Benchmark
+    {
+
+        /**
+         * Encodes and decodes the given tuples and returns the total number of bytes encoded
+         */
+        long roundTrip ( List<Tuple> tuples ) throws Exception;
+
+    }
+
+
+    static class TupleCodecRoundTrip implements Benchmark
+    {
+
+        private final TupleCodec codec = new TupleCodec( SCHEMA, new CodecRegistry() );
+
+        private final ExpandableArrayBuffer buffer = new ExpandableArrayBuffer();
+
+        private final Tuple decoded = new Tuple( SCHEMA );
+
+        @Override
+        public long roundTrip ( final List<Tuple> tuples )
+        {
+            int offset = 0;
+            for ( int i = 0; i < tuples.size(); i++ )
+            {
+                offset += codec.encode( tuples.get( i ), buffer, offset );
+            }
+
+            int position = 0;
+            while ( position < offset )
+            {
+                position += codec.decode( buffer, position, decoded );
+            }
+
+            return offset;
+        }
+
+    }
+
+
+    static class JavaSerializationRoundTrip implements Benchmark
+    {
+
+        @Override
+        public long roundTrip ( final List<Tuple> tuples ) throws IOException, ClassNotFoundException
+        {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try ( ObjectOutputStream out = new ObjectOutputStream( bytes ) )
+            {
+                for ( int i = 0; i < tuples.size(); i++ )
+                {
+                    final HashMap<String, Object> fields = new HashMap<>();
+                    tuples.get( i ).sinkTo( fields::put );
+                    out.writeObject( fields );
+                    out.reset();
+                }
+            }
+
+            try ( ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ) ) )
+            {
+                for ( int i = 0; i < tuples.size(); i++ )
+                {
+                    final Tuple tuple = new Tuple( SCHEMA );
+                    @SuppressWarnings( "unchecked" ) final Map<String, Object> fields = (Map<String, Object>) in.readObject();
+                    fields.forEach( tuple::set );
+                }
+            }
+
+            return bytes.size();
+        }
+
+    }
+
+
+    static class TaggedStreamRoundTrip implements Benchmark
+    {
+
+        @Override
+        public long roundTrip ( final List<Tuple> tuples ) throws IOException
+        {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try ( DataOutputStream out = new DataOutputStream( bytes ) )
+            {
+                for ( int i = 0; i < tuples.size(); i++ )
+                {
+                    final Tuple tuple = tuples.get( i );
+                    out.writeInt( tuple.size() );
+                    tuple.sinkTo( ( name, value ) -> write( out, name, value ) );
+                }
+            }
+
+            try ( DataInputStream in = new DataInputStream( new ByteArrayInputStream( bytes.toByteArray() ) ) )
+            {
+                for ( int i = 0; i < tuples.size(); i++ )
+                {
+                    final Tuple tuple = new Tuple( SCHEMA );
+                    for ( int j = in.readInt(); j > 0; j-- )
+                    {
+                        final String name = in.readUTF();
+                        final String className = in.readUTF();
+                        tuple.set( name, read( in, className ) );
+                    }
+                }
+            }
+
+            return bytes.size();
+        }
+
+        private void write ( final DataOutputStream out, final String name, final Object value )
+        {
+            try
+            {
+                out.writeUTF( name );
+                out.writeUTF( value.getClass().getName() );
+                if ( value instanceof Long )
+                {
+                    out.writeLong( (Long) value );
+                }
+                else if ( value instanceof Integer )
+                {
+                    out.writeInt( (Integer) value );
+                }
+                else if ( value instanceof Double )
+                {
+                    out.writeDouble( (Double) value );
+                }
+                else
+                {
+                    out.writeUTF( value.toString() );
+                }
+            }
+            catch ( IOException e )
+            {
+                throw new RuntimeException( e );
+            }
+        }
+
+        private Object read ( final DataInputStream in, final String className ) throws IOException
+        {
+            switch ( className )
+            {
+                case "java.lang.Long":
+                    return in.readLong();
+                case "java.lang.Integer":
+                    return in.readInt();
+                case "java.lang.Double":
+                    return in.readDouble();
+                default:
+                    return in.readUTF();
+            }
+        }
+
+    }
+
+}
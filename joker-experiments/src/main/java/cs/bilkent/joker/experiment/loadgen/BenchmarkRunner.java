@@ -0,0 +1,191 @@
+package cs.bilkent.joker.experiment.loadgen;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Charsets;
+import com.sun.management.OperatingSystemMXBean;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigRenderOptions;
+import com.typesafe.config.ConfigValueFactory;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.util.concurrent.Uninterruptibles.sleepUninterruptibly;
+import static com.typesafe.config.ConfigFactory.systemProperties;
+import static com.typesafe.config.ConfigValueFactory.fromAnyRef;
+import cs.bilkent.joker.Joker;
+import cs.bilkent.joker.Joker.JokerBuilder;
+import cs.bilkent.joker.engine.config.JokerConfig;
+import cs.bilkent.joker.engine.config.JokerConfigBuilder;
+import cs.bilkent.joker.engine.region.impl.DefaultRegionExecPlanFactory;
+import cs.bilkent.joker.experiment.FlowDefFactory;
+import static cs.bilkent.joker.experiment.loadgen.LatencySinkOperator.LATENCY_HISTOGRAM_CONFIG_PARAMETER;
+import static cs.bilkent.joker.experiment.loadgen.OpenLoopRateLimiter.TARGET_RATE_CONFIG_PARAMETER;
+import cs.bilkent.joker.flow.FlowDef;
+import cs.bilkent.joker.flow.FlowDefBuilder;
+import cs.bilkent.joker.flow.Port;
+import cs.bilkent.joker.operator.OperatorConfig;
+import cs.bilkent.joker.operator.OperatorDef;
+import cs.bilkent.joker.operator.OperatorDefBuilder;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Runs a single benchmark of the benchmark suite. The flow is created by the given {@link FlowDefFactory} and its beacons are paced
+ * at the given target rate with {@link OpenLoopRateLimiter}. A {@link LatencySinkOperator} is connected to each unconnected output port
+ * of the flow. After a warmup period, throughput, end-to-end latency percentiles and CPU utilization of the process are measured and
+ * written as JSON to {@code <reportDir>/<benchmarkName>.json}. Adaptation is kept disabled so that runs are comparable.
+ * <p>
+ * Usage: {@code java -DbenchmarkName=wordcount -DflowFactory=... -DtargetRate=... -DreportDir=... BenchmarkRunner}
+ */
+public class BenchmarkRunner
+{
+
+    private static final Logger LOGGER = LoggerFactory.getLogger( BenchmarkRunner.class );
+
+    static final String BENCHMARK_NAME_PARAMETER = "benchmarkName";
+
+    static final String FLOW_FACTORY_PARAMETER = "flowFactory";
+
+    static final String REPORT_DIR_PARAMETER = "reportDir";
+
+    static final String WARMUP_DURATION_PARAMETER = "warmupDurationInSeconds";
+
+    static final String MEASUREMENT_DURATION_PARAMETER = "measurementDurationInSeconds";
+
+    static final String THROUGHPUT_FIELD = "throughput";
+
+    static final String LATENCY_FIELD = "latencyInMicros";
+
+    static final String CPU_UTILIZATION_FIELD = "cpuUtilization";
+
+    private static final int DEFAULT_WARMUP_DURATION_IN_SECONDS = 30;
+
+    private static final int DEFAULT_MEASUREMENT_DURATION_IN_SECONDS = 60;
+
+
+    public static void main ( String[] args ) throws InterruptedException, ExecutionException, TimeoutException, ClassNotFoundException,
+                                                             IllegalAccessException, InstantiationException, IOException
+    {
+        final Map<String, Object> defaults = new HashMap<>();
+        defaults.put( REPORT_DIR_PARAMETER, fromAnyRef( System.getProperty( "user.dir" ) ) );
+        defaults.put( WARMUP_DURATION_PARAMETER, DEFAULT_WARMUP_DURATION_IN_SECONDS );
+        defaults.put( MEASUREMENT_DURATION_PARAMETER, DEFAULT_MEASUREMENT_DURATION_IN_SECONDS );
+        final Config config = systemProperties().withFallback( ConfigValueFactory.fromMap( defaults ) );
+
+        checkArgument( config.hasPath( TARGET_RATE_CONFIG_PARAMETER ), "target rate must be given for open-loop load generation" );
+
+        final JokerConfig jokerConfig = new JokerConfigBuilder().build( config );
+
+        final String benchmarkName = config.getString( BENCHMARK_NAME_PARAMETER );
+        final String flowDefFactoryClassName = config.getString( FLOW_FACTORY_PARAMETER );
+        final FlowDefFactory flowDefFactory = (FlowDefFactory) Class.forName( flowDefFactoryClassName ).newInstance();
+        final LatencyHistogram latencyHistogram = new LatencyHistogram();
+        final FlowDef flow = addLatencySinks( flowDefFactory.createFlow( jokerConfig ), latencyHistogram );
+
+        final Joker joker = new JokerBuilder().setJokerConfig( jokerConfig )
+                                              .setRegionExecPlanFactory( new DefaultRegionExecPlanFactory( jokerConfig ) )
+                                              .build();
+
+        joker.run( flow );
+
+        LOGGER.info( "Warming up {} for {} seconds...", benchmarkName, config.getInt( WARMUP_DURATION_PARAMETER ) );
+        sleepUninterruptibly( config.getInt( WARMUP_DURATION_PARAMETER ), SECONDS );
+
+        final OperatingSystemMXBean osMXBean = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        latencyHistogram.reset();
+        final long startCpuTime = osMXBean.getProcessCpuTime();
+        final long startTime = System.nanoTime();
+
+        LOGGER.info( "Measuring {} for {} seconds...", benchmarkName, config.getInt( MEASUREMENT_DURATION_PARAMETER ) );
+        sleepUninterruptibly( config.getInt( MEASUREMENT_DURATION_PARAMETER ), SECONDS );
+
+        final long duration = System.nanoTime() - startTime;
+        final long cpuTime = osMXBean.getProcessCpuTime() - startCpuTime;
+        final Map<String, Object> result = createResult( benchmarkName, config, latencyHistogram, duration, cpuTime );
+
+        joker.shutdown().get( 60, SECONDS );
+
+        final String json = ConfigValueFactory.fromMap( result ).render( ConfigRenderOptions.concise().setFormatted( true ) );
+        final File reportFile = new File( config.getString( REPORT_DIR_PARAMETER ), benchmarkName + ".json" );
+        Files.write( reportFile.toPath(), json.getBytes( Charsets.UTF_8 ) );
+        LOGGER.info( "Benchmark result is written to {}\n{}", reportFile, json );
+
+        System.exit( 0 );
+    }
+
+    static FlowDef addLatencySinks ( final FlowDef flow, final LatencyHistogram latencyHistogram )
+    {
+        final FlowDefBuilder flowDefBuilder = new FlowDefBuilder();
+        flow.getOperators().forEach( flowDefBuilder::add );
+        for ( Entry<Port, Port> connection : flow.getConnections() )
+        {
+            final Port source = connection.getKey(), destination = connection.getValue();
+            flowDefBuilder.connect( source.getOperatorId(), source.getPortIndex(), destination.getOperatorId(), destination.getPortIndex() );
+        }
+
+        final OperatorConfig sinkConfig = new OperatorConfig().set( LATENCY_HISTOGRAM_CONFIG_PARAMETER, latencyHistogram );
+
+        for ( OperatorDef operator : flow.getOperators() )
+        {
+            final Map<Port, Set<Port>> outboundConnections = flow.getOutboundConnections( operator.getId() );
+            for ( int portIndex = 0; portIndex < operator.getOutputPortCount(); portIndex++ )
+            {
+                if ( outboundConnections.containsKey( new Port( operator.getId(), portIndex ) ) )
+                {
+                    continue;
+                }
+
+                final String sinkId = "latencySink_" + operator.getId() + "_" + portIndex;
+                flowDefBuilder.add( OperatorDefBuilder.newInstance( sinkId, LatencySinkOperator.class ).setConfig( sinkConfig ) );
+                flowDefBuilder.connect( operator.getId(), portIndex, sinkId, 0 );
+            }
+        }
+
+        return flowDefBuilder.build();
+    }
+
+    private static Map<String, Object> createResult ( final String benchmarkName,
+                                                      final Config config,
+                                                      final LatencyHistogram latencyHistogram,
+                                                      final long durationInNanos,
+                                                      final long cpuTimeInNanos )
+    {
+        final double durationInSeconds = ( (double) durationInNanos ) / SECONDS.toNanos( 1 );
+        final long untimedTupleCount = latencyHistogram.getUntimedCount();
+        final long tupleCount = latencyHistogram.getCount() + untimedTupleCount;
+
+        final Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put( "p50", NANOSECONDS.toMicros( latencyHistogram.getPercentile( 50 ) ) );
+        latency.put( "p99", NANOSECONDS.toMicros( latencyHistogram.getPercentile( 99 ) ) );
+        latency.put( "p999", NANOSECONDS.toMicros( latencyHistogram.getPercentile( 99.9 ) ) );
+        latency.put( "max", NANOSECONDS.toMicros( latencyHistogram.getMax() ) );
+
+        final Map<String, Object> result = new LinkedHashMap<>();
+        result.put( "benchmark", benchmarkName );
+        result.put( FLOW_FACTORY_PARAMETER, config.getString( FLOW_FACTORY_PARAMETER ) );
+        result.put( TARGET_RATE_CONFIG_PARAMETER, config.getInt( TARGET_RATE_CONFIG_PARAMETER ) );
+        result.put( "durationInSeconds", durationInSeconds );
+        result.put( "tupleCount", tupleCount );
+        result.put( "untimedTupleCount", untimedTupleCount );
+        result.put( THROUGHPUT_FIELD, tupleCount / durationInSeconds );
+        result.put( LATENCY_FIELD, latency );
+        result.put( CPU_UTILIZATION_FIELD, cpuTimeInNanos / ( durationInNanos * (double) Runtime.getRuntime().availableProcessors() ) );
+        result.put( "cpuTimeInSeconds", ( (double) cpuTimeInNanos ) / SECONDS.toNanos( 1 ) );
+
+        return result;
+    }
+
+}
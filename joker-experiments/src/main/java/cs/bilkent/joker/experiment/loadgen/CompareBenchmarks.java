@@ -0,0 +1,129 @@
+package cs.bilkent.joker.experiment.loadgen;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Charsets;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigRenderOptions;
+import com.typesafe.config.ConfigValueFactory;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static cs.bilkent.joker.experiment.loadgen.BenchmarkRunner.CPU_UTILIZATION_FIELD;
+import static cs.bilkent.joker.experiment.loadgen.BenchmarkRunner.LATENCY_FIELD;
+import static cs.bilkent.joker.experiment.loadgen.BenchmarkRunner.THROUGHPUT_FIELD;
+import static java.lang.Double.parseDouble;
+import static java.util.Arrays.asList;
+
+/**
+ * Compares the benchmark results in a report directory with the results of the same benchmarks in a baseline report directory.
+ * For each metric, change ratio of the current result to the baseline result is reported. A change is a regression if throughput
+ * decreases, or latency or CPU utilization increases, more than the given threshold ratio. The comparison is printed and written as JSON
+ * to {@code <reportDir>/comparison.json}. The process exits with status 1 if there is any regression.
+ */
+public class CompareBenchmarks
+{
+
+    private static final double DEFAULT_REGRESSION_THRESHOLD = 0.05;
+
+    private static final List<String> HIGHER_IS_BETTER_METRICS = asList( THROUGHPUT_FIELD );
+
+    private static final List<String> LOWER_IS_BETTER_METRICS = asList( LATENCY_FIELD + ".p50",
+                                                                        LATENCY_FIELD + ".p99",
+                                                                        LATENCY_FIELD + ".p999",
+                                                                        CPU_UTILIZATION_FIELD );
+
+
+    public static void main ( String[] args ) throws IOException
+    {
+        checkArgument( args.length == 2 || args.length == 3, "expected arguments: report dir, baseline report dir, [regression threshold]" );
+
+        final File reportDir = new File( args[ 0 ] );
+        final File baselineDir = new File( args[ 1 ] );
+        final double regressionThreshold = args.length == 3 ? parseDouble( args[ 2 ] ) : DEFAULT_REGRESSION_THRESHOLD;
+
+        final File[] reportFiles = reportDir.listFiles( ( dir, name ) -> name.endsWith( ".json" ) && !name.equals( "comparison.json" ) );
+        checkArgument( reportFiles != null, "invalid report dir: %s", reportDir );
+
+        final Map<String, Object> comparison = new LinkedHashMap<>();
+        final List<String> regressions = new ArrayList<>();
+
+        for ( File reportFile : reportFiles )
+        {
+            final File baselineFile = new File( baselineDir, reportFile.getName() );
+            if ( !baselineFile.exists() )
+            {
+                System.out.println( "No baseline found for " + reportFile.getName() );
+                continue;
+            }
+
+            final Config current = ConfigFactory.parseFile( reportFile );
+            final Config baseline = ConfigFactory.parseFile( baselineFile );
+            final String benchmarkName = current.getString( "benchmark" );
+
+            final Map<String, Object> changes = new LinkedHashMap<>();
+            for ( String metric : HIGHER_IS_BETTER_METRICS )
+            {
+                final double change = compare( benchmarkName, metric, current, baseline, changes );
+                if ( change < -regressionThreshold )
+                {
+                    regressions.add( benchmarkName + "." + metric );
+                }
+            }
+
+            for ( String metric : LOWER_IS_BETTER_METRICS )
+            {
+                final double change = compare( benchmarkName, metric, current, baseline, changes );
+                if ( change > regressionThreshold )
+                {
+                    regressions.add( benchmarkName + "." + metric );
+                }
+            }
+
+            comparison.put( benchmarkName, changes );
+        }
+
+        final Map<String, Object> result = new LinkedHashMap<>();
+        result.put( "baselineDir", baselineDir.getAbsolutePath() );
+        result.put( "regressionThreshold", regressionThreshold );
+        result.put( "changes", comparison );
+        result.put( "regressions", regressions );
+
+        final String json = ConfigValueFactory.fromMap( result ).render( ConfigRenderOptions.concise().setFormatted( true ) );
+        Files.write( new File( reportDir, "comparison.json" ).toPath(), json.getBytes( Charsets.UTF_8 ) );
+
+        if ( !regressions.isEmpty() )
+        {
+            System.out.println( "Regressions: " + regressions );
+            System.exit( 1 );
+        }
+    }
+
+    private static double compare ( final String benchmarkName,
+                                    final String metric,
+                                    final Config current,
+                                    final Config baseline,
+                                    final Map<String, Object> changes )
+    {
+        final double currentValue = current.getDouble( metric );
+        final double baselineValue = baseline.getDouble( metric );
+        final double change = baselineValue != 0 ? ( currentValue - baselineValue ) / baselineValue : 0;
+
+        System.out.println( String.format( "%s %s baseline: %.2f current: %.2f change: %+.2f%%",
+                                           benchmarkName,
+                                           metric,
+                                           baselineValue,
+                                           currentValue,
+                                           change * 100 ) );
+        changes.put( metric.replace( '.', '_' ), change );
+
+        return change;
+    }
+
+}
@@ -0,0 +1,134 @@
+package cs.bilkent.joker.experiment.loadgen;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Long.numberOfLeadingZeros;
+
+/**
+ * A thread-safe histogram of latency values with a bounded relative error. Values below {@link #SUB_BUCKET_COUNT} are counted exactly.
+ * Larger values are counted in buckets which split each power-of-two range into {@link #SUB_BUCKET_COUNT} / 2 sub-buckets, so the
+ * reported percentiles are at most 1 / 64 larger than the recorded values. Unlike the sampling reservoirs of the metric manager, all
+ * values are counted, hence tail percentiles, i.e., p99.9, are not lost.
+ */
+public class LatencyHistogram
+{
+
+    static final int SUB_BUCKET_BITS = 7;
+
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT / 2;
+
+    private static final int MAX_SHIFT = Long.SIZE - SUB_BUCKET_BITS;
+
+
+    private final AtomicLongArray counts = new AtomicLongArray( SUB_BUCKET_COUNT + MAX_SHIFT * HALF_SUB_BUCKET_COUNT );
+
+    private final LongAdder totalCount = new LongAdder();
+
+    private final LongAdder untimedCount = new LongAdder();
+
+    public void record ( final long value )
+    {
+        checkArgument( value >= 0, "invalid value: %s", value );
+        counts.incrementAndGet( getBucketIndex( value ) );
+        totalCount.increment();
+    }
+
+    /**
+     * Counts a value whose latency is not known, i.e., a tuple without an ingestion time.
+     */
+    public void recordUntimed ()
+    {
+        untimedCount.increment();
+    }
+
+    public long getCount ()
+    {
+        return totalCount.sum();
+    }
+
+    public long getUntimedCount ()
+    {
+        return untimedCount.sum();
+    }
+
+    /**
+     * Returns the smallest bucket value which is greater than or equal to the given percentage of the recorded values.
+     * Returns 0 if no value is recorded.
+     */
+    public long getPercentile ( final double percentile )
+    {
+        checkArgument( percentile > 0 && percentile <= 100, "invalid percentile: %s", percentile );
+
+        final long count = getCount();
+        if ( count == 0 )
+        {
+            return 0;
+        }
+
+        final long rank = Math.max( 1, (long) Math.ceil( count * percentile / 100 ) );
+        long seen = 0;
+        for ( int i = 0; i < counts.length(); i++ )
+        {
+            seen += counts.get( i );
+            if ( seen >= rank )
+            {
+                return getHighestValue( i );
+            }
+        }
+
+        return getMax();
+    }
+
+    public long getMax ()
+    {
+        for ( int i = counts.length() - 1; i >= 0; i-- )
+        {
+            if ( counts.get( i ) > 0 )
+            {
+                return getHighestValue( i );
+            }
+        }
+
+        return 0;
+    }
+
+    public void reset ()
+    {
+        for ( int i = 0; i < counts.length(); i++ )
+        {
+            counts.set( i, 0 );
+        }
+
+        totalCount.reset();
+        untimedCount.reset();
+    }
+
+    static int getBucketIndex ( final long value )
+    {
+        if ( value < SUB_BUCKET_COUNT )
+        {
+            return (int) value;
+        }
+
+        final int shift = ( Long.SIZE - 1 - numberOfLeadingZeros( value ) ) - ( SUB_BUCKET_BITS - 1 );
+        final int subBucket = (int) ( value >>> shift );
+        return SUB_BUCKET_COUNT + ( shift - 1 ) * HALF_SUB_BUCKET_COUNT + ( subBucket - HALF_SUB_BUCKET_COUNT );
+    }
+
+    static long getHighestValue ( final int bucketIndex )
+    {
+        if ( bucketIndex < SUB_BUCKET_COUNT )
+        {
+            return bucketIndex;
+        }
+
+        final int shift = ( bucketIndex - SUB_BUCKET_COUNT ) / HALF_SUB_BUCKET_COUNT + 1;
+        final long subBucket = ( bucketIndex - SUB_BUCKET_COUNT ) % HALF_SUB_BUCKET_COUNT + HALF_SUB_BUCKET_COUNT;
+        return ( ( subBucket + 1 ) << shift ) - 1;
+    }
+
+}
@@ -0,0 +1,61 @@
+package cs.bilkent.joker.experiment.loadgen;
+
+import java.util.List;
+
+import cs.bilkent.joker.operator.InitCtx;
+import cs.bilkent.joker.operator.InvocationCtx;
+import cs.bilkent.joker.operator.Operator;
+import cs.bilkent.joker.operator.Tuple;
+import static cs.bilkent.joker.operator.TupleAccessor.getIngestionTime;
+import static cs.bilkent.joker.operator.TupleAccessor.isIngestionTimeNA;
+import static cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.scheduleWhenTuplesAvailableOnDefaultPort;
+import cs.bilkent.joker.operator.scheduling.SchedulingStrategy;
+import cs.bilkent.joker.operator.schema.annotation.OperatorSchema;
+import cs.bilkent.joker.operator.schema.annotation.PortSchema;
+import static cs.bilkent.joker.operator.schema.annotation.PortSchemaScope.EXTENDABLE_FIELD_SET;
+import cs.bilkent.joker.operator.spec.OperatorSpec;
+import static cs.bilkent.joker.operator.spec.OperatorType.STATELESS;
+
+/**
+ * Records end-to-end latencies of the input tuples into a {@link LatencyHistogram} shared by all replicas of the operator.
+ * Latencies are measured from ingestion times of the tuples, which are intended send times if the beacons are paced with
+ * {@link OpenLoopRateLimiter}. Tuples without an ingestion time are only counted. It has an output port since stateless operators must
+ * have one, but it does not produce any output.
+ */
+@OperatorSpec( type = STATELESS, inputPortCount = 1, outputPortCount = 1 )
+@OperatorSchema( inputs = @PortSchema( portIndex = 0, scope = EXTENDABLE_FIELD_SET, fields = {} ) )
+public class LatencySinkOperator implements Operator
+{
+
+    public static final String LATENCY_HISTOGRAM_CONFIG_PARAMETER = "latencyHistogram";
+
+
+    private LatencyHistogram latencyHistogram;
+
+    @Override
+    public SchedulingStrategy init ( final InitCtx ctx )
+    {
+        this.latencyHistogram = ctx.getConfig().getOrFail( LATENCY_HISTOGRAM_CONFIG_PARAMETER );
+        return scheduleWhenTuplesAvailableOnDefaultPort( 1 );
+    }
+
+    @Override
+    public void invoke ( final InvocationCtx ctx )
+    {
+        final long now = System.nanoTime();
+        final List<Tuple> tuples = ctx.getInputTuplesByDefaultPort();
+        for ( int i = 0, j = tuples.size(); i < j; i++ )
+        {
+            final Tuple tuple = tuples.get( i );
+            if ( isIngestionTimeNA( tuple ) )
+            {
+                latencyHistogram.recordUntimed();
+            }
+            else
+            {
+                latencyHistogram.record( Math.max( 0, now - getIngestionTime( tuple ) ) );
+            }
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+package cs.bilkent.joker.experiment.loadgen;
+
+import com.typesafe.config.Config;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import cs.bilkent.joker.operator.OperatorConfig;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.TupleAccessor;
+import static java.lang.Math.min;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+
+/**
+ * Paces a beacon operator at a fixed target rate, independent of how fast the downstream operators consume its output.
+ * Each output tuple has an intended send time computed from the target rate. If the beacon falls behind the schedule, i.e., because of
+ * backpressure, the missed tuples are produced in the next invocations with their original intended send times. The intended send time
+ * is assigned to the tuple as its ingestion time so that latencies are measured from the time the tuple should have been sent, rather
+ * than the time the beacon managed to send it. Otherwise, a stalled beacon would silently skip the tuples that would experience the
+ * stall, which is known as coordinated omission.
+ */
+public class OpenLoopRateLimiter
+{
+
+    public static final String TARGET_RATE_CONFIG_PARAMETER = "targetRate";
+
+    public static final String MAX_BATCH_SIZE_CONFIG_PARAMETER = "maxBatchSize";
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1024;
+
+
+    /**
+     * Returns a rate limiter if the given operator config contains a target rate, null otherwise.
+     */
+    public static OpenLoopRateLimiter createIfConfigured ( final OperatorConfig config )
+    {
+        if ( !config.contains( TARGET_RATE_CONFIG_PARAMETER ) )
+        {
+            return null;
+        }
+
+        final int targetRate = config.getInteger( TARGET_RATE_CONFIG_PARAMETER );
+        final int maxBatchSize = config.getIntegerOrDefault( MAX_BATCH_SIZE_CONFIG_PARAMETER, DEFAULT_MAX_BATCH_SIZE );
+        return new OpenLoopRateLimiter( targetRate, maxBatchSize );
+    }
+
+    /**
+     * Copies the open-loop load generation parameters from the given experiment config to the given beacon operator config, if present.
+     */
+    public static OperatorConfig copyConfig ( final Config config, final OperatorConfig operatorConfig )
+    {
+        if ( config.hasPath( TARGET_RATE_CONFIG_PARAMETER ) )
+        {
+            operatorConfig.set( TARGET_RATE_CONFIG_PARAMETER, config.getInt( TARGET_RATE_CONFIG_PARAMETER ) );
+        }
+
+        if ( config.hasPath( MAX_BATCH_SIZE_CONFIG_PARAMETER ) )
+        {
+            operatorConfig.set( MAX_BATCH_SIZE_CONFIG_PARAMETER, config.getInt( MAX_BATCH_SIZE_CONFIG_PARAMETER ) );
+        }
+
+        return operatorConfig;
+    }
+
+
+    private final double sendIntervalInNanos;
+
+    private final int maxBatchSize;
+
+    private long startTime = -1;
+
+    private long sentCount;
+
+    public OpenLoopRateLimiter ( final int targetRate, final int maxBatchSize )
+    {
+        checkArgument( targetRate > 0, "invalid target rate: %s", targetRate );
+        checkArgument( maxBatchSize > 0, "invalid max batch size: %s", maxBatchSize );
+        this.sendIntervalInNanos = ( (double) SECONDS.toNanos( 1 ) ) / targetRate;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Waits until at least one tuple is due and returns the number of tuples that are due, bounded by the max batch size.
+     * The caller must {@link #stamp(Tuple)} exactly that many tuples before calling this method again.
+     */
+    public int acquire ()
+    {
+        long now = System.nanoTime();
+        if ( startTime == -1 )
+        {
+            startTime = now;
+        }
+
+        long dueCount = getDueCount( now );
+        while ( dueCount < 1 )
+        {
+            parkNanos( getIntendedSendTime( sentCount ) - now );
+            now = System.nanoTime();
+            dueCount = getDueCount( now );
+        }
+
+        return (int) min( dueCount, maxBatchSize );
+    }
+
+    /**
+     * Assigns the intended send time of the next tuple in the schedule as ingestion time of the given tuple.
+     */
+    public void stamp ( final Tuple tuple )
+    {
+        TupleAccessor.setIngestionTime( tuple, getIntendedSendTime( sentCount++ ), false );
+    }
+
+    public long getSentCount ()
+    {
+        return sentCount;
+    }
+
+    /**
+     * Returns how far behind the schedule the beacon is, in nanoseconds.
+     */
+    public long getLag ()
+    {
+        return startTime == -1 ? 0 : Math.max( 0, System.nanoTime() - getIntendedSendTime( sentCount ) );
+    }
+
+    private long getDueCount ( final long now )
+    {
+        return ( (long) ( ( now - startTime ) / sendIntervalInNanos ) ) + 1 - sentCount;
+    }
+
+    private long getIntendedSendTime ( final long sequence )
+    {
+        return startTime + (long) ( sequence * sendIntervalInNanos );
+    }
+
+}
@@ -6,7 +6,7 @@ import cs.bilkent.joker.operator.InitCtx;
 import cs.bilkent.joker.operator.InvocationCtx;
 import cs.bilkent.joker.operator.Operator;
 import cs.bilkent.joker.operator.Tuple;
-import cs.bilkent.joker.operator.kvstore.KVStore;
+import cs.bilkent.joker.operator.kvstore.LongValueState;
 import static cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.scheduleWhenTuplesAvailableOnDefaultPort;
 import cs.bilkent.joker.operator.scheduling.SchedulingStrategy;
 import cs.bilkent.joker.operator.schema.runtime.TupleSchema;
@@ -23,22 +23,22 @@ public class CounterOperator implements Operator
 
     private List<String> partitionFieldNames;
 
+    private LongValueState countState;
+
     @Override
     public SchedulingStrategy init ( final InitCtx ctx )
     {
         outputSchema = ctx.getOutputPortSchema( 0 );
         partitionFieldNames = ctx.getPartitionFieldNames();
+        countState = ctx.getLongValueState( COUNT_FIELD );
         return scheduleWhenTuplesAvailableOnDefaultPort( 1 );
     }
 
     @Override
     public void invoke ( final InvocationCtx ctx )
     {
-        final KVStore kvStore = ctx.getKVStore();
-
         final int inputTupleCount = ctx.getInputTupleCount( 0 );
-        final int count = kvStore.getIntegerOrDefault( COUNT_FIELD, 0 ) + inputTupleCount;
-        kvStore.set( COUNT_FIELD, count );
+        final long count = countState.add( ctx, inputTupleCount );
 
         final Tuple result = new Tuple( outputSchema );
         if ( inputTupleCount > 0 )
@@ -11,6 +11,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import cs.bilkent.joker.experiment.loadgen.OpenLoopRateLimiter;
 import cs.bilkent.joker.operator.InitCtx;
 import cs.bilkent.joker.operator.InvocationCtx;
 import cs.bilkent.joker.operator.Operator;
@@ -74,6 +75,8 @@ public class SentenceBeaconOperator implements Operator
 
     private int partitionIndex;
 
+    private OpenLoopRateLimiter rateLimiter;
+
     private final AtomicReference<List<String>> shuffledSentencesRef = new AtomicReference<>();
 
     private Thread shuffler;
@@ -89,6 +92,7 @@ public class SentenceBeaconOperator implements Operator
         final OperatorConfig config = ctx.getConfig();
         this.maxPartitionIndex = config.getInteger( MAX_PARTITION_INDEX_PARAM );
         this.sentenceCountPerInvocation = config.getInteger( SENTENCE_COUNT_PER_INVOCATION_PARAM );
+        this.rateLimiter = OpenLoopRateLimiter.createIfConfigured( config );
 
         final int minWordLength = config.getInteger( MIN_WORD_LENGTH_PARAM );
         final int maxWordLength = config.getInteger( MAX_WORD_LENGTH_PARAM );
@@ -121,7 +125,8 @@ public class SentenceBeaconOperator implements Operator
     @Override
     public void invoke ( final InvocationCtx ctx )
     {
-        for ( int i = 0; i < sentenceCountPerInvocation; i++ )
+        final int count = rateLimiter != null ? rateLimiter.acquire() : sentenceCountPerInvocation;
+        for ( int i = 0; i < count; i++ )
         {
             final Tuple result = Tuple.of( outputSchema, PARTITION_INDEX_FIELD, partitionIndex++ );
             if ( partitionIndex == maxPartitionIndex )
@@ -136,6 +141,11 @@ public class SentenceBeaconOperator implements Operator
                 getSentences();
             }
 
+            if ( rateLimiter != null )
+            {
+                rateLimiter.stamp( result );
+            }
+
             ctx.output( result );
         }
     }
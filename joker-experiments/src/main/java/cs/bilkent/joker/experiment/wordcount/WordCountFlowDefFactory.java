@@ -4,6 +4,7 @@ import com.typesafe.config.Config;
 
 import cs.bilkent.joker.engine.config.JokerConfig;
 import cs.bilkent.joker.experiment.FlowDefFactory;
+import static cs.bilkent.joker.experiment.loadgen.OpenLoopRateLimiter.copyConfig;
 import static cs.bilkent.joker.experiment.wordcount.SentenceBeaconOperator.MAX_PARTITION_INDEX_PARAM;
 import static cs.bilkent.joker.experiment.wordcount.SentenceBeaconOperator.MAX_SENTENCE_LENGTH_PARAM;
 import static cs.bilkent.joker.experiment.wordcount.SentenceBeaconOperator.MAX_WORD_LENGTH_PARAM;
@@ -54,7 +55,7 @@ public class WordCountFlowDefFactory implements FlowDefFactory
                                                                               sentenceCountPerInvocation );
 
         final OperatorDef sentenceBeaconOp = OperatorDefBuilder.newInstance( "sb", SentenceBeaconOperator.class )
-                                                               .setConfig( sentenceBeaconConfig )
+                                                               .setConfig( copyConfig( config, sentenceBeaconConfig ) )
                                                                .build();
 
         final OperatorRuntimeSchemaBuilder partitionerSchemaBuilder = new OperatorRuntimeSchemaBuilder( 1, 1 );
@@ -84,7 +85,7 @@ public class WordCountFlowDefFactory implements FlowDefFactory
         final OperatorRuntimeSchemaBuilder wordCounterSchemaBuilder = new OperatorRuntimeSchemaBuilder( 1, 1 );
         wordCounterSchemaBuilder.addInputField( 0, WORD_FIELD, String.class )
                                 .addOutputField( 0, WORD_FIELD, String.class )
-                                .addOutputField( 0, CounterOperator.COUNT_FIELD, Integer.class );
+                                .addOutputField( 0, CounterOperator.COUNT_FIELD, Long.class );
 
         final OperatorDef wordCounterOp = OperatorDefBuilder.newInstance( "wc", CounterOperator.class )
                                                             .setExtendingSchema( wordCounterSchemaBuilder )
@@ -73,7 +73,7 @@ public class WordCountFlowDefFactory2 implements FlowDefFactory
         final OperatorRuntimeSchemaBuilder wordCounterSchemaBuilder = new OperatorRuntimeSchemaBuilder( 1, 1 );
         wordCounterSchemaBuilder.addInputField( 0, WORD_FIELD, String.class )
                                 .addOutputField( 0, WORD_FIELD, String.class )
-                                .addOutputField( 0, CounterOperator.COUNT_FIELD, Integer.class );
+                                .addOutputField( 0, CounterOperator.COUNT_FIELD, Long.class );
 
         final OperatorDef wordCounterOp = OperatorDefBuilder.newInstance( "wc", CounterOperator.class )
                                                             .setExtendingSchema( wordCounterSchemaBuilder )
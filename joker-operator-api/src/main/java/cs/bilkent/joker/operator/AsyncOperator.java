@@ -0,0 +1,37 @@
+package cs.bilkent.joker.operator;
+
+
+import cs.bilkent.joker.operator.InvocationCtx.InvocationReason;
+import cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable;
+
+
+/**
+ * Opt-in contract for operators which produce output tuples asynchronously, for instance after the requests they send to an external
+ * service are completed. The runtime invokes an operator only when its {@link ScheduleWhenTuplesAvailable} scheduling strategy is
+ * satisfied, hence output tuples which become available between invocations would wait for the next input tuples. For the operators
+ * implementing this contract, while the operator is running, the runtime:
+ * <ul>
+ * <li>invokes the operator with {@link InvocationReason#SUCCESS} and no input tuples if {@link #hasAvailableOutput()} returns true, and
+ * </li>
+ * <li>keeps the input tuples in the input queue of the operator if {@link #canAcceptInput()} returns false, so that the upstream
+ * operators are back-pressured instead of the operator blocking the pipeline replica thread.</li>
+ * </ul>
+ * Once the input ports of the operator are closed, its input tuples are given to the operator regardless of {@link #canAcceptInput()},
+ * and the operator must emit all of its remaining output tuples in that invocation. Operators implementing this contract are not fused
+ * into the operators before them, so that they have their own input queues. Both methods are called on the pipeline replica thread which
+ * invokes the operator, and they must not block.
+ */
+public interface AsyncOperator extends Operator
+{
+
+    /**
+     * Returns true if the operator has output tuples to emit without any input tuple
+     */
+    boolean hasAvailableOutput ();
+
+    /**
+     * Returns false if the operator cannot accept new input tuples until some of its asynchronous work is completed
+     */
+    boolean canAcceptInput ();
+
+}
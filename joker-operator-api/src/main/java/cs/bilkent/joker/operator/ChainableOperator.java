@@ -0,0 +1,31 @@
+package cs.bilkent.joker.operator;
+
+
+import java.util.function.Consumer;
+
+import cs.bilkent.joker.operator.spec.OperatorType;
+
+
+/**
+ * Opt-in contract for {@link OperatorType#STATELESS} operators with a single input port and a single output port, which process each
+ * input tuple independently from the other tuples and the invocation reason. When such operators are fused into the same pipeline one
+ * after another, the runtime can compose their tuple functions into a single function and push each tuple through the whole chain
+ * without invoking {@link Operator#invoke(InvocationCtx)} and buffering the intermediate tuples. If the chain cannot be used for an
+ * invocation, operators are invoked one by one via {@link Operator#invoke(InvocationCtx)}. Therefore, both methods must produce the same
+ * output tuples.
+ */
+public interface ChainableOperator extends Operator
+{
+
+    /**
+     * Returns a function which processes a single input tuple and passes the output tuples to the given downstream function. Invoked
+     * after {@link Operator#init(InitCtx)}.
+     *
+     * @param downstream
+     *         function to pass the output tuples
+     *
+     * @return a function which processes a single input tuple
+     */
+    Consumer<Tuple> chain ( Consumer<Tuple> downstream );
+
+}
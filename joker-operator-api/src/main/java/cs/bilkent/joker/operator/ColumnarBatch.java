@@ -0,0 +1,250 @@
+package cs.bilkent.joker.operator;
+
+import java.util.List;
+
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+import cs.bilkent.joker.operator.schema.runtime.TupleSchema;
+import static cs.bilkent.joker.operator.schema.runtime.TupleSchema.FIELD_NOT_FOUND;
+import static java.lang.Math.max;
+import static java.util.Arrays.fill;
+import static java.util.Collections.emptyList;
+
+
+/**
+ * Columnar view of the tuples received from an input port in a single invocation of a {@link VectorizedOperator}. Values of a numeric
+ * field of the tuples are materialized into a {@code long[]} or {@code double[]} column on the first access, so that operators can
+ * process a field of all tuples in a tight loop. Index of a value in a column is the index of its tuple in the batch. Columns can be
+ * longer than the batch. Therefore, only the first {@link #size()} elements of a column must be used. Missing values are given as
+ * {@code 0}.
+ * <p>
+ * The batch also contains a selection vector which contains indices of the selected tuples. Initially, all tuples are selected in
+ * order. Operators can narrow down the selection vector by writing indices of the tuples to keep into the first elements of the
+ * selection vector and setting the selected tuple count.
+ * <p>
+ * A {@code ColumnarBatch} object and the arrays returned from it are reused between invocations. Therefore, they must not be cached by
+ * operators between invocations.
+ */
+public final class ColumnarBatch
+{
+
+    private static final int INITIAL_CAPACITY = 64;
+
+
+    private final TupleSchema schema;
+
+    private final FieldHandle<?>[] fieldHandles;
+
+    private final long[][] longColumns;
+
+    private final double[][] doubleColumns;
+
+    private final boolean[] longColumnsMaterialized;
+
+    private final boolean[] doubleColumnsMaterialized;
+
+    private List<Tuple> tuples = emptyList();
+
+    private int[] selection = new int[ INITIAL_CAPACITY ];
+
+    private int selectedCount;
+
+    public ColumnarBatch ( final TupleSchema schema )
+    {
+        checkArgument( schema != null, "schema can't be null" );
+        final int fieldCount = schema.getFieldCount();
+        this.schema = schema;
+        this.fieldHandles = new FieldHandle<?>[ fieldCount ];
+        for ( int i = 0; i < fieldCount; i++ )
+        {
+            fieldHandles[ i ] = FieldHandle.of( schema, schema.getFieldAt( i ) );
+        }
+        this.longColumns = new long[ fieldCount ][];
+        this.doubleColumns = new double[ fieldCount ][];
+        this.longColumnsMaterialized = new boolean[ fieldCount ];
+        this.doubleColumnsMaterialized = new boolean[ fieldCount ];
+    }
+
+    /**
+     * Resets the batch with the given tuples. Previously materialized columns are invalidated and all of the given tuples are selected.
+     *
+     * @param tuples
+     *         tuples of the batch
+     */
+    public void reset ( final List<Tuple> tuples )
+    {
+        checkArgument( tuples != null, "tuples can't be null" );
+        final int size = tuples.size();
+        this.tuples = tuples;
+        fill( longColumnsMaterialized, false );
+        fill( doubleColumnsMaterialized, false );
+        if ( selection.length < size )
+        {
+            selection = new int[ max( size, selection.length * 2 ) ];
+        }
+        for ( int i = 0; i < size; i++ )
+        {
+            selection[ i ] = i;
+        }
+        selectedCount = size;
+    }
+
+    public TupleSchema getSchema ()
+    {
+        return schema;
+    }
+
+    /**
+     * Returns number of tuples in the batch
+     *
+     * @return number of tuples in the batch
+     */
+    public int size ()
+    {
+        return tuples.size();
+    }
+
+    public List<Tuple> getTuples ()
+    {
+        return tuples;
+    }
+
+    public Tuple getTuple ( final int index )
+    {
+        return tuples.get( index );
+    }
+
+    public long[] getLongColumn ( final String fieldName )
+    {
+        return getLongColumn( getFieldIndexOrFail( fieldName ) );
+    }
+
+    /**
+     * Returns values of the field at the given index of the schema as a {@code long[]} column. The column is materialized on the first
+     * call after the batch is reset.
+     *
+     * @param fieldIndex
+     *         index of the field in the schema of the batch
+     *
+     * @return values of the field as a {@code long[]} column
+     */
+    public long[] getLongColumn ( final int fieldIndex )
+    {
+        checkArgument( fieldIndex >= 0 && fieldIndex < fieldHandles.length, "invalid field index: %s", fieldIndex );
+        final int size = tuples.size();
+        long[] column = longColumns[ fieldIndex ];
+        if ( longColumnsMaterialized[ fieldIndex ] )
+        {
+            return column;
+        }
+
+        if ( column == null || column.length < size )
+        {
+            column = new long[ max( size, INITIAL_CAPACITY ) ];
+            longColumns[ fieldIndex ] = column;
+        }
+
+        final FieldHandle<?> fieldHandle = fieldHandles[ fieldIndex ];
+        for ( int i = 0; i < size; i++ )
+        {
+            column[ i ] = fieldHandle.getLongValueOrDefault( tuples.get( i ), 0L );
+        }
+        longColumnsMaterialized[ fieldIndex ] = true;
+
+        return column;
+    }
+
+    public double[] getDoubleColumn ( final String fieldName )
+    {
+        return getDoubleColumn( getFieldIndexOrFail( fieldName ) );
+    }
+
+    /**
+     * Returns values of the field at the given index of the schema as a {@code double[]} column. The column is materialized on the first
+     * call after the batch is reset.
+     *
+     * @param fieldIndex
+     *         index of the field in the schema of the batch
+     *
+     * @return values of the field as a {@code double[]} column
+     */
+    public double[] getDoubleColumn ( final int fieldIndex )
+    {
+        checkArgument( fieldIndex >= 0 && fieldIndex < fieldHandles.length, "invalid field index: %s", fieldIndex );
+        final int size = tuples.size();
+        double[] column = doubleColumns[ fieldIndex ];
+        if ( doubleColumnsMaterialized[ fieldIndex ] )
+        {
+            return column;
+        }
+
+        if ( column == null || column.length < size )
+        {
+            column = new double[ max( size, INITIAL_CAPACITY ) ];
+            doubleColumns[ fieldIndex ] = column;
+        }
+
+        final FieldHandle<?> fieldHandle = fieldHandles[ fieldIndex ];
+        for ( int i = 0; i < size; i++ )
+        {
+            column[ i ] = fieldHandle.getDoubleValueOrDefault( tuples.get( i ), 0d );
+        }
+        doubleColumnsMaterialized[ fieldIndex ] = true;
+
+        return column;
+    }
+
+    /**
+     * Returns the selection vector which contains indices of the selected tuples in its first {@link #getSelectedCount()} elements.
+     *
+     * @return the selection vector
+     */
+    public int[] getSelection ()
+    {
+        return selection;
+    }
+
+    public int getSelectedCount ()
+    {
+        return selectedCount;
+    }
+
+    /**
+     * Sets number of the selected tuples after the selection vector is updated
+     *
+     * @param selectedCount
+     *         number of the tuples whose indices are present in the first elements of the selection vector
+     */
+    public void setSelectedCount ( final int selectedCount )
+    {
+        checkArgument( selectedCount >= 0 && selectedCount <= tuples.size(), "invalid selected count: %s", selectedCount );
+        this.selectedCount = selectedCount;
+    }
+
+    /**
+     * Returns the tuple at the given index of the selection vector
+     *
+     * @param selectionIndex
+     *         index in the selection vector
+     *
+     * @return the tuple at the given index of the selection vector
+     */
+    public Tuple getSelectedTuple ( final int selectionIndex )
+    {
+        checkArgument( selectionIndex >= 0 && selectionIndex < selectedCount, "invalid selection index: %s", selectionIndex );
+        return tuples.get( selection[ selectionIndex ] );
+    }
+
+    private int getFieldIndexOrFail ( final String fieldName )
+    {
+        final int fieldIndex = schema.getFieldIndex( fieldName );
+        checkArgument( fieldIndex != FIELD_NOT_FOUND, "%s is not present in %s", fieldName, schema );
+        return fieldIndex;
+    }
+
+    @Override
+    public String toString ()
+    {
+        return "ColumnarBatch{" + "size=" + tuples.size() + ", selectedCount=" + selectedCount + '}';
+    }
+
+}
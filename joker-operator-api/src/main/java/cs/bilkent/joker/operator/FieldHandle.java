@@ -0,0 +1,154 @@
+package cs.bilkent.joker.operator;
+
+
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+import cs.bilkent.joker.operator.schema.runtime.TupleSchema;
+import static cs.bilkent.joker.operator.schema.runtime.TupleSchema.FIELD_NOT_FOUND;
+
+
+/**
+ * Provides access to a single field of {@link Tuple} objects without looking up the field name in the {@link TupleSchema} of the
+ * tuples on each access. A {@code FieldHandle} is resolved against a {@link TupleSchema} once, preferably in
+ * {@link Operator#init(InitCtx)} via {@link InitCtx#getInputFieldHandle(int, String)} or
+ * {@link InitCtx#getOutputFieldHandle(int, String)}. Then, the field is accessed with its index in the schema as long as the accessed
+ * tuples have the same schema. If a tuple with a different schema is given, the handle resolves the field against the new schema and
+ * caches it. If the field is not present in the schema, the handle falls back to the field name based access.
+ *
+ * @param <T>
+ *         type of the field
+ */
+public final class FieldHandle<T>
+{
+
+    public static <T> FieldHandle<T> of ( final TupleSchema schema, final String fieldName )
+    {
+        checkArgument( schema != null, "schema can't be null" );
+        checkArgument( fieldName != null, "field name can't be null" );
+
+        return new FieldHandle<>( schema, fieldName );
+    }
+
+
+    private final String fieldName;
+
+    private Resolution resolution;
+
+    private FieldHandle ( final TupleSchema schema, final String fieldName )
+    {
+        this.fieldName = fieldName;
+        this.resolution = new Resolution( schema, schema.getFieldIndex( fieldName ) );
+    }
+
+    public String getFieldName ()
+    {
+        return fieldName;
+    }
+
+    /**
+     * Returns index of the field in the last resolved schema, or {@link TupleSchema#FIELD_NOT_FOUND} if the field is not present in the
+     * schema.
+     *
+     * @return index of the field in the last resolved schema
+     */
+    public int getFieldIndex ()
+    {
+        return resolution.fieldIndex;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    public T get ( final Tuple tuple )
+    {
+        final int fieldIndex = resolve( tuple );
+        return fieldIndex != FIELD_NOT_FOUND ? (T) tuple.getValueAt( fieldIndex ) : tuple.get( fieldName );
+    }
+
+    public T getOrDefault ( final Tuple tuple, final T defaultVal )
+    {
+        final T val = get( tuple );
+        return val != null ? val : defaultVal;
+    }
+
+    public T getOrFail ( final Tuple tuple )
+    {
+        final T val = get( tuple );
+        if ( val != null )
+        {
+            return val;
+        }
+
+        throw new IllegalArgumentException( fieldName + " is not present!" );
+    }
+
+    public int getIntegerValueOrDefault ( final Tuple tuple, final int defaultVal )
+    {
+        final Number number = (Number) get( tuple );
+        return number != null ? number.intValue() : defaultVal;
+    }
+
+    public long getLongValueOrDefault ( final Tuple tuple, final long defaultVal )
+    {
+        final Number number = (Number) get( tuple );
+        return number != null ? number.longValue() : defaultVal;
+    }
+
+    public double getDoubleValueOrDefault ( final Tuple tuple, final double defaultVal )
+    {
+        final Number number = (Number) get( tuple );
+        return number != null ? number.doubleValue() : defaultVal;
+    }
+
+    public boolean contains ( final Tuple tuple )
+    {
+        final int fieldIndex = resolve( tuple );
+        return fieldIndex != FIELD_NOT_FOUND ? tuple.getValueAt( fieldIndex ) != null : tuple.contains( fieldName );
+    }
+
+    public Tuple set ( final Tuple tuple, final T value )
+    {
+        final int fieldIndex = resolve( tuple );
+        if ( fieldIndex != FIELD_NOT_FOUND )
+        {
+            checkArgument( value != null, "value can't be null" );
+            tuple.setValueAt( fieldIndex, value );
+
+            return tuple;
+        }
+
+        return tuple.set( fieldName, value );
+    }
+
+    private int resolve ( final Tuple tuple )
+    {
+        final TupleSchema schema = tuple.getSchema();
+        Resolution resolution = this.resolution;
+        if ( resolution.schema != schema )
+        {
+            resolution = new Resolution( schema, schema.getFieldIndex( fieldName ) );
+            this.resolution = resolution;
+        }
+
+        return resolution.fieldIndex;
+    }
+
+    @Override
+    public String toString ()
+    {
+        return "FieldHandle{" + "fieldName='" + fieldName + '\'' + ", fieldIndex=" + resolution.fieldIndex + '}';
+    }
+
+    private static final class Resolution
+    {
+
+        private final TupleSchema schema;
+
+        private final int fieldIndex;
+
+        Resolution ( final TupleSchema schema, final int fieldIndex )
+        {
+            this.schema = schema;
+            this.fieldIndex = fieldIndex;
+        }
+
+    }
+
+}
@@ -4,7 +4,13 @@ package cs.bilkent.joker.operator;
 import java.util.List;
 
 import cs.bilkent.joker.flow.FlowDef;
+import cs.bilkent.joker.operator.kvstore.DoubleValueState;
+import cs.bilkent.joker.operator.kvstore.KVStore;
+import cs.bilkent.joker.operator.kvstore.ListState;
+import cs.bilkent.joker.operator.kvstore.LongLongMapState;
+import cs.bilkent.joker.operator.kvstore.LongValueState;
 import cs.bilkent.joker.operator.schema.runtime.TupleSchema;
+import cs.bilkent.joker.operator.spec.OperatorType;
 
 
 /**
@@ -78,6 +84,41 @@ public interface InitCtx
      */
     TupleSchema getOutputPortSchema ( int portIndex );
 
+    /**
+     * Returns a {@link FieldHandle} resolved against schema of the tuples received via the specified input port of an operator. Field
+     * handles should be created once during initialization and used for accessing the field of input tuples in invocations
+     *
+     * @param portIndex
+     *         to resolve the field against {@link TupleSchema} of the input port
+     * @param fieldName
+     *         name of the field
+     * @param <T>
+     *         type of the field
+     *
+     * @return a {@link FieldHandle} resolved against schema of the tuples received via the specified input port of an operator
+     */
+    default <T> FieldHandle<T> getInputFieldHandle ( int portIndex, String fieldName )
+    {
+        return FieldHandle.of( getInputPortSchema( portIndex ), fieldName );
+    }
+
+    /**
+     * Returns a {@link FieldHandle} resolved against schema of the tuples created by an operator instance for an output port
+     *
+     * @param portIndex
+     *         to resolve the field against {@link TupleSchema} of the output port
+     * @param fieldName
+     *         name of the field
+     * @param <T>
+     *         type of the field
+     *
+     * @return a {@link FieldHandle} resolved against schema of the tuples created by an operator instance for an output port
+     */
+    default <T> FieldHandle<T> getOutputFieldHandle ( int portIndex, String fieldName )
+    {
+        return FieldHandle.of( getOutputPortSchema( portIndex ), fieldName );
+    }
+
     /**
      * Names of the fields which are used for partitioning the {@link Tuple} instances for the {@link Operator}
      *
@@ -92,4 +133,51 @@ public interface InitCtx
      */
     OperatorConfig getConfig ();
 
+    /**
+     * Returns a handle of a {@code long} state which is kept in the {@link KVStore} without boxing. State handles should be created once
+     * during initialization and used in invocations. It can be used only by {@link OperatorType#STATEFUL} and
+     * {@link OperatorType#PARTITIONED_STATEFUL} operators.
+     *
+     * @param name
+     *         name of the state
+     *
+     * @return a handle of a {@code long} state which is kept in the {@link KVStore} without boxing
+     */
+    LongValueState getLongValueState ( String name );
+
+    /**
+     * Returns a handle of a {@code double} state which is kept in the {@link KVStore} without boxing. It can be used only by
+     * {@link OperatorType#STATEFUL} and {@link OperatorType#PARTITIONED_STATEFUL} operators.
+     *
+     * @param name
+     *         name of the state
+     *
+     * @return a handle of a {@code double} state which is kept in the {@link KVStore} without boxing
+     */
+    DoubleValueState getDoubleValueState ( String name );
+
+    /**
+     * Returns a handle of a map state of {@code long} keys and values, which is kept in the {@link KVStore} without boxing. It can be used
+     * only by {@link OperatorType#STATEFUL} and {@link OperatorType#PARTITIONED_STATEFUL} operators.
+     *
+     * @param name
+     *         name of the state
+     *
+     * @return a handle of a map state of {@code long} keys and values
+     */
+    LongLongMapState getLongLongMapState ( String name );
+
+    /**
+     * Returns a handle of a list state which is appended in place in the {@link KVStore}. It can be used only by
+     * {@link OperatorType#STATEFUL} and {@link OperatorType#PARTITIONED_STATEFUL} operators.
+     *
+     * @param name
+     *         name of the state
+     * @param <T>
+     *         type of the list elements
+     *
+     * @return a handle of a list state which is appended in place in the {@link KVStore}
+     */
+    <T> ListState<T> getListState ( String name );
+
 }
@@ -129,6 +129,37 @@ public interface InvocationCtx
      */
     void output ( int portIndex, List<Tuple> tuples );
 
+    /**
+     * Reserves a slice of output tuples for the given output port. Tuples added to the slice are emitted when the slice is committed.
+     * Only one slice can be reserved at a time.
+     *
+     * @param portIndex
+     *         target output port index
+     * @param tupleCount
+     *         expected number of tuples to be added to the slice
+     *
+     * @return the reserved slice
+     *
+     * @see OutputSlice
+     */
+    OutputSlice reserveOutput ( int portIndex, int tupleCount );
+
+    /**
+     * Reserves a slice of output tuples for the default output port.
+     *
+     * @param tupleCount
+     *         expected number of tuples to be added to the slice
+     *
+     * @return the reserved slice
+     *
+     * @see Port#DEFAULT_PORT_INDEX
+     * @see OutputSlice
+     */
+    default OutputSlice reserveOutput ( int tupleCount )
+    {
+        return reserveOutput( Port.DEFAULT_PORT_INDEX, tupleCount );
+    }
+
     /**
      * Returns the reason of a particular {@link Operator#invoke(InvocationCtx)} method invocation.
      *
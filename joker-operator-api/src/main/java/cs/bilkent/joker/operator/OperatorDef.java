@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+import cs.bilkent.joker.operator.kvstore.StateRetentionPolicy;
 import cs.bilkent.joker.operator.schema.runtime.OperatorRuntimeSchema;
 import cs.bilkent.joker.operator.spec.OperatorType;
 import static java.util.Collections.emptyList;
@@ -34,6 +35,8 @@ public class OperatorDef
 
     private final List<String> partitionFieldNames;
 
+    private final StateRetentionPolicy stateRetentionPolicy;
+
     public OperatorDef ( final String id,
                          final Class<? extends Operator> clazz,
                          final OperatorType type,
@@ -42,6 +45,19 @@ public class OperatorDef
                          final OperatorRuntimeSchema schema,
                          final OperatorConfig config,
                          final List<String> partitionFieldNames )
+    {
+        this( id, clazz, type, inputPortCount, outputPortCount, schema, config, partitionFieldNames, null );
+    }
+
+    public OperatorDef ( final String id,
+                         final Class<? extends Operator> clazz,
+                         final OperatorType type,
+                         final int inputPortCount,
+                         final int outputPortCount,
+                         final OperatorRuntimeSchema schema,
+                         final OperatorConfig config,
+                         final List<String> partitionFieldNames,
+                         final StateRetentionPolicy stateRetentionPolicy )
     {
         checkArgument( id != null, "id can't be null" );
         checkArgument( clazz != null, "clazz can't be null" );
@@ -58,6 +74,7 @@ public class OperatorDef
         this.schema = schema;
         this.config = config;
         this.partitionFieldNames = partitionFieldNames != null ? unmodifiableList( new ArrayList<>( partitionFieldNames ) ) : emptyList();
+        this.stateRetentionPolicy = stateRetentionPolicy;
     }
 
     public Operator createOperator () throws IllegalAccessException, InstantiationException
@@ -105,6 +122,14 @@ public class OperatorDef
         return partitionFieldNames;
     }
 
+    /**
+     * Returns the retention policy for states of the partition keys, or null if states are retained until the operator is shut down
+     */
+    public StateRetentionPolicy getStateRetentionPolicy ()
+    {
+        return stateRetentionPolicy;
+    }
+
     @Override
     public boolean equals ( final Object o )
     {
@@ -134,7 +159,7 @@ public class OperatorDef
     {
         return "OperatorDef{" + "id='" + id + '\'' + ", clazz=" + clazz + ", type=" + type + ", inputPortCount=" + inputPortCount
                + ", outputPortCount=" + outputPortCount + ", schema=" + schema + ", config=" + config + ", partitionFieldNames="
-               + partitionFieldNames + '}';
+               + partitionFieldNames + ", stateRetentionPolicy=" + stateRetentionPolicy + '}';
     }
 
 }
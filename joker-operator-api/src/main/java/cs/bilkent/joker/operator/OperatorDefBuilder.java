@@ -3,19 +3,19 @@ package cs.bilkent.joker.operator;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.function.Function;
+import java.util.function.BiConsumer;
 
 import cs.bilkent.joker.flow.Port;
 import static cs.bilkent.joker.flow.Port.DYNAMIC_PORT_COUNT;
 import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
 import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkState;
+import cs.bilkent.joker.operator.kvstore.StateRetentionPolicy;
 import cs.bilkent.joker.operator.schema.annotation.OperatorSchema;
 import cs.bilkent.joker.operator.schema.annotation.PortSchema;
 import cs.bilkent.joker.operator.schema.annotation.SchemaField;
 import cs.bilkent.joker.operator.schema.runtime.OperatorRuntimeSchema;
 import cs.bilkent.joker.operator.schema.runtime.OperatorRuntimeSchemaBuilder;
 import cs.bilkent.joker.operator.schema.runtime.PortRuntimeSchema;
-import cs.bilkent.joker.operator.schema.runtime.PortRuntimeSchemaBuilder;
 import cs.bilkent.joker.operator.schema.runtime.RuntimeSchemaField;
 import cs.bilkent.joker.operator.spec.OperatorSpec;
 import cs.bilkent.joker.operator.spec.OperatorType;
@@ -30,6 +30,21 @@ import static java.util.stream.Collectors.toList;
 public final class OperatorDefBuilder
 {
 
+    /**
+     * Validated annotations of the operator classes. Flows with many operators of the same class would otherwise repeat the same
+     * reflection and validation for each operator. Values are kept by {@link ClassValue}, hence they do not prevent unloading of the
+     * operator classes.
+     */
+    private static final ClassValue<OperatorAnnotations> OPERATOR_ANNOTATIONS = new ClassValue<OperatorAnnotations>()
+    {
+        @Override
+        @SuppressWarnings( "unchecked" )
+        protected OperatorAnnotations computeValue ( final Class<?> clazz )
+        {
+            return readOperatorAnnotations( (Class<? extends Operator>) clazz );
+        }
+    };
+
     /**
      * Creates the builder object using the given operator id and class
      *
@@ -45,6 +60,11 @@ public final class OperatorDefBuilder
         failIfEmptyOperatorId( id );
         checkArgument( clazz != null, "clazz must be provided" );
 
+        return new OperatorDefBuilder( id, clazz, OPERATOR_ANNOTATIONS.get( clazz ) );
+    }
+
+    private static OperatorAnnotations readOperatorAnnotations ( final Class<? extends Operator> clazz )
+    {
         final OperatorSpec spec = getOperatorSpecOrFail( clazz );
         final OperatorSchema schema = getOperatorSchema( clazz );
         if ( schema != null )
@@ -80,7 +100,7 @@ public final class OperatorDefBuilder
             failIfStatelessOperatorWithNoOutputPorts( spec.type(), spec.outputPortCount(), "output" );
         }
 
-        return new OperatorDefBuilder( id, clazz, spec, schema );
+        return new OperatorAnnotations( spec, schema );
     }
 
     private static OperatorSpec getOperatorSpecOrFail ( Class<? extends Operator> clazz )
@@ -151,6 +171,8 @@ public final class OperatorDefBuilder
 
     private int outputPortCount;
 
+    private final OperatorAnnotations annotations;
+
     private final OperatorSchema schema;
 
     private OperatorRuntimeSchema extendingSchema;
@@ -159,17 +181,17 @@ public final class OperatorDefBuilder
 
     private List<String> partitionFieldNames;
 
-    private OperatorDefBuilder ( final String id,
-                                 final Class<? extends Operator> clazz,
-                                 final OperatorSpec spec,
-                                 final OperatorSchema schema )
+    private StateRetentionPolicy stateRetentionPolicy;
+
+    private OperatorDefBuilder ( final String id, final Class<? extends Operator> clazz, final OperatorAnnotations annotations )
     {
         this.id = id;
         this.clazz = clazz;
-        this.type = spec.type();
-        this.inputPortCount = spec.inputPortCount();
-        this.outputPortCount = spec.outputPortCount();
-        this.schema = schema;
+        this.type = annotations.spec.type();
+        this.inputPortCount = annotations.spec.inputPortCount();
+        this.outputPortCount = annotations.spec.outputPortCount();
+        this.annotations = annotations;
+        this.schema = annotations.schema;
     }
 
     /**
@@ -332,6 +354,28 @@ public final class OperatorDefBuilder
         return this;
     }
 
+    /**
+     * Sets the retention policy for states of the partition keys
+     *
+     * @param stateRetentionPolicy
+     *         retention policy to be set for {@link OperatorType#PARTITIONED_STATEFUL} operator
+     *
+     * @return the current builder object
+     *
+     * @throws IllegalArgumentException
+     *         if the method argument is null
+     * @throws IllegalStateException
+     *         if the underlying operator in the builder is not {@link OperatorType#PARTITIONED_STATEFUL}
+     */
+    public OperatorDefBuilder setStateRetentionPolicy ( final StateRetentionPolicy stateRetentionPolicy )
+    {
+        checkArgument( stateRetentionPolicy != null, "state retention policy must be non-null" );
+        checkState( this.type == PARTITIONED_STATEFUL,
+                    "state retention policy can be only used with " + PARTITIONED_STATEFUL + " operators!" );
+        this.stateRetentionPolicy = stateRetentionPolicy;
+        return this;
+    }
+
     /**
      * Builds the {@link OperatorDef} object with the current status of the builder
      *
@@ -354,7 +398,8 @@ public final class OperatorDefBuilder
                                 outputPortCount,
                                 buildOperatorRuntimeSchema(),
                                 getConfigOrEmptyConfig(),
-                                partitionFieldNames );
+                                partitionFieldNames,
+                                stateRetentionPolicy );
     }
 
     private void failIfExtendingSchemaPortSchemaSizesMismatch ( final int schemaSize, final int portCount )
@@ -461,29 +506,60 @@ public final class OperatorDefBuilder
 
     private OperatorRuntimeSchema buildOperatorRuntimeSchema ()
     {
+        if ( extendingSchema == null && inputPortCount == annotations.spec.inputPortCount()
+             && outputPortCount == annotations.spec.outputPortCount() )
+        {
+            return annotations.getRuntimeSchema();
+        }
+
         final OperatorRuntimeSchemaBuilder schemaBuilder = new OperatorRuntimeSchemaBuilder( inputPortCount, outputPortCount, schema );
 
         if ( extendingSchema != null )
         {
-            addToSchema( extendingSchema.getInputSchemas(), schemaBuilder::getInputPortSchemaBuilder );
-            addToSchema( extendingSchema.getOutputSchemas(), schemaBuilder::getOutputPortSchemaBuilder );
+            addToSchema( extendingSchema.getInputSchemas(), schemaBuilder::addInputPortSchema );
+            addToSchema( extendingSchema.getOutputSchemas(), schemaBuilder::addOutputPortSchema );
         }
 
         return schemaBuilder.build();
     }
 
-    private void addToSchema ( final List<PortRuntimeSchema> portSchemas,
-                               final Function<Integer, PortRuntimeSchemaBuilder> portSchemaBuilderProvider )
+    private void addToSchema ( final List<PortRuntimeSchema> portSchemas, final BiConsumer<Integer, PortRuntimeSchema> portSchemaAdder )
     {
         for ( int portIndex = 0; portIndex < portSchemas.size(); portIndex++ )
         {
-            final PortRuntimeSchema portSchema = portSchemas.get( portIndex );
-            final PortRuntimeSchemaBuilder portSchemaBuilder = portSchemaBuilderProvider.apply( portIndex );
-            for ( RuntimeSchemaField schemaField : portSchema.getFields() )
+            portSchemaAdder.accept( portIndex, portSchemas.get( portIndex ) );
+        }
+    }
+
+
+    private static final class OperatorAnnotations
+    {
+
+        private final OperatorSpec spec;
+
+        private final OperatorSchema schema;
+
+        // runtime schemas are immutable. therefore, the one built only from the annotations is shared by the operators of the class
+        private volatile OperatorRuntimeSchema runtimeSchema;
+
+        OperatorAnnotations ( final OperatorSpec spec, final OperatorSchema schema )
+        {
+            this.spec = spec;
+            this.schema = schema;
+        }
+
+        OperatorRuntimeSchema getRuntimeSchema ()
+        {
+            OperatorRuntimeSchema runtimeSchema = this.runtimeSchema;
+            if ( runtimeSchema == null )
             {
-                portSchemaBuilder.addField( schemaField.name, schemaField.type );
+                runtimeSchema = new OperatorRuntimeSchemaBuilder( spec.inputPortCount(), spec.outputPortCount(), schema ).build();
+                this.runtimeSchema = runtimeSchema;
             }
+
+            return runtimeSchema;
         }
+
     }
 
 }
@@ -0,0 +1,43 @@
+package cs.bilkent.joker.operator;
+
+/**
+ * A batch of output tuples of a port, reserved with {@link InvocationCtx#reserveOutput(int, int)}. Tuples added to a slice are emitted
+ * together when the slice is committed, instead of passing each tuple to {@link InvocationCtx#output(int, Tuple)}. Therefore, operators
+ * which produce many output tuples in an invocation can avoid the per-tuple cost of the output path.
+ * <p>
+ * A slice must be committed before another slice is reserved in the same invocation. Tuples of a slice which is not committed until the
+ * end of the invocation are not emitted.
+ */
+public interface OutputSlice
+{
+
+    /**
+     * Returns index of the output port of the slice
+     *
+     * @return index of the output port of the slice
+     */
+    int getPortIndex ();
+
+    /**
+     * Returns number of the tuples added to the slice
+     *
+     * @return number of the tuples added to the slice
+     */
+    int size ();
+
+    /**
+     * Adds the given tuple to the slice. The slice grows if the number of tuples exceeds the reserved tuple count.
+     *
+     * @param tuple
+     *         tuple to add
+     *
+     * @return the slice
+     */
+    OutputSlice add ( Tuple tuple );
+
+    /**
+     * Emits all tuples of the slice to its output port
+     */
+    void commit ();
+
+}
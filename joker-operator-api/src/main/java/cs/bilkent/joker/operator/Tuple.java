@@ -314,6 +314,16 @@ public final class Tuple implements Fields<String>
         values.set( i, value );
     }
 
+    Object getValueAt ( final int i )
+    {
+        return values.get( i );
+    }
+
+    void setValueAt ( final int i, final Object value )
+    {
+        values.set( i, value );
+    }
+
     @Override
     public <T> T remove ( final String key )
     {
@@ -422,6 +432,14 @@ public final class Tuple implements Fields<String>
         }
     }
 
+    void enableLatencyRecords ()
+    {
+        if ( !isIngestionTimeNA() && latencyRecs == null )
+        {
+            latencyRecs = new ArrayList<>( 4 );
+        }
+    }
+
     public void attachTo ( final Tuple source )
     {
         if ( ingestionTime == INGESTION_TIME_UNASSIGNABLE )
@@ -496,7 +514,7 @@ public final class Tuple implements Fields<String>
         latencyRecs.add( new Triple<>( operatorId, true, latency ) );
     }
 
-    private boolean isNotTrackingLatencyRecords ()
+    boolean isNotTrackingLatencyRecords ()
     {
         return isIngestionTimeNA() || latencyRecs == null;
     }
@@ -0,0 +1,30 @@
+package cs.bilkent.joker.operator;
+
+
+import cs.bilkent.joker.operator.schema.annotation.PortSchemaScope;
+
+
+/**
+ * Opt-in contract for operators which process their input tuples in a columnar fashion. If an input port of a
+ * {@code VectorizedOperator} has a schema with {@link PortSchemaScope#EXACT_FIELD_SET} scope, the runtime assembles the tuples drained
+ * from the input port into a {@link ColumnarBatch} and invokes {@link #invoke(InvocationCtx, ColumnarBatch[])} instead of
+ * {@link Operator#invoke(InvocationCtx)}. The latter is still invoked when none of the input ports has a schema with
+ * {@link PortSchemaScope#EXACT_FIELD_SET} scope.
+ */
+public interface VectorizedOperator extends Operator
+{
+
+    /**
+     * Invoked to process input tuples given in columnar batches. The semantics are same with {@link Operator#invoke(InvocationCtx)},
+     * and tuples are still accessible via {@link InvocationCtx}. The given {@link ColumnarBatch} objects are reused between invocations
+     * so they must not be cached by the operator.
+     *
+     * @param ctx
+     *         invocation context of the current invocation
+     * @param inputBatches
+     *         columnar batches of the input tuples, indexed by input port. An element is {@code null} if the corresponding input port has
+     *         no schema with {@link PortSchemaScope#EXACT_FIELD_SET} scope.
+     */
+    void invoke ( InvocationCtx ctx, ColumnarBatch[] inputBatches );
+
+}
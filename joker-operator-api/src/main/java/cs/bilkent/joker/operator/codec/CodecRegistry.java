@@ -0,0 +1,141 @@
+package cs.bilkent.joker.operator.codec;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Maps field types to the type ids used by {@link TupleCodec}. Boolean, byte, short, char, int, long, float, double, {@link String} and
+ * byte array types, and their boxed types, are built-in. User types are registered with a {@link FieldCodec} and an explicit type id,
+ * which must be same in all processes encoding and decoding the tuples.
+ */
+public final class CodecRegistry
+{
+
+    public static final int TYPE_NOT_FOUND = -1;
+
+    public static final int MIN_USER_TYPE_ID = 32;
+
+    static final int BOOLEAN_TYPE_ID = 1;
+
+    static final int BYTE_TYPE_ID = 2;
+
+    static final int SHORT_TYPE_ID = 3;
+
+    static final int CHAR_TYPE_ID = 4;
+
+    static final int INT_TYPE_ID = 5;
+
+    static final int LONG_TYPE_ID = 6;
+
+    static final int FLOAT_TYPE_ID = 7;
+
+    static final int DOUBLE_TYPE_ID = 8;
+
+    static final int STRING_TYPE_ID = 9;
+
+    static final int BYTES_TYPE_ID = 10;
+
+    private static final Map<Class<?>, Integer> BUILT_IN_TYPE_IDS = new HashMap<>();
+
+    static
+    {
+        BUILT_IN_TYPE_IDS.put( boolean.class, BOOLEAN_TYPE_ID );
+        BUILT_IN_TYPE_IDS.put( Boolean.class, BOOLEAN_TYPE_ID );
+        BUILT_IN_TYPE_IDS.put( byte.class, BYTE_TYPE_ID );
+        BUILT_IN_TYPE_IDS.put( Byte.class, BYTE_TYPE_ID );
+        BUILT_IN_TYPE_IDS.put( short.class, SHORT_TYPE_ID );
+        BUILT_IN_TYPE_IDS.put( Short.class, SHORT_TYPE_ID );
+        BUILT_IN_TYPE_IDS.put( char.class, CHAR_TYPE_ID );
+        BUILT_IN_TYPE_IDS.put( Character.class, CHAR_TYPE_ID );
+        BUILT_IN_TYPE_IDS.put( int.class, INT_TYPE_ID );
+        BUILT_IN_TYPE_IDS.put( Integer.class, INT_TYPE_ID );
+        BUILT_IN_TYPE_IDS.put( long.class, LONG_TYPE_ID );
+        BUILT_IN_TYPE_IDS.put( Long.class, LONG_TYPE_ID );
+        BUILT_IN_TYPE_IDS.put( float.class, FLOAT_TYPE_ID );
+        BUILT_IN_TYPE_IDS.put( Float.class, FLOAT_TYPE_ID );
+        BUILT_IN_TYPE_IDS.put( double.class, DOUBLE_TYPE_ID );
+        BUILT_IN_TYPE_IDS.put( Double.class, DOUBLE_TYPE_ID );
+        BUILT_IN_TYPE_IDS.put( String.class, STRING_TYPE_ID );
+        BUILT_IN_TYPE_IDS.put( byte[].class, BYTES_TYPE_ID );
+    }
+
+
+    private final Map<Class<?>, Integer> userTypeIds = new LinkedHashMap<>();
+
+    private final Map<Integer, FieldCodec<?>> userCodecs = new HashMap<>();
+
+    /**
+     * Registers the codec for the given user type
+     *
+     * @param typeId
+     *         id of the type. Must be greater than or equal to {@link #MIN_USER_TYPE_ID}
+     * @param type
+     *         the user type
+     * @param codec
+     *         codec to encode and decode values of the user type
+     * @param <T>
+     *         the user type
+     *
+     * @return the current registry object
+     */
+    public <T> CodecRegistry register ( final int typeId, final Class<T> type, final FieldCodec<T> codec )
+    {
+        checkArgument( typeId >= MIN_USER_TYPE_ID, "type id: %s must be greater than or equal to %s", typeId, MIN_USER_TYPE_ID );
+        checkArgument( type != null, "type can't be null" );
+        checkArgument( codec != null, "codec can't be null" );
+        checkArgument( !BUILT_IN_TYPE_IDS.containsKey( type ), "%s is a built-in type", type );
+        checkArgument( !userTypeIds.containsKey( type ), "%s is already registered", type );
+        checkArgument( !userCodecs.containsKey( typeId ), "type id: %s is already registered", typeId );
+
+        userTypeIds.put( type, typeId );
+        userCodecs.put( typeId, codec );
+
+        return this;
+    }
+
+    /**
+     * Returns the type id of the given type, or of its first registered super type
+     *
+     * @param type
+     *         type to get the type id
+     *
+     * @return the type id of the given type, or {@link #TYPE_NOT_FOUND} if there is no registered type assignable from the given type
+     */
+    public int getTypeId ( final Class<?> type )
+    {
+        final Integer builtInTypeId = BUILT_IN_TYPE_IDS.get( type );
+        if ( builtInTypeId != null )
+        {
+            return builtInTypeId;
+        }
+
+        final Integer userTypeId = userTypeIds.get( type );
+        if ( userTypeId != null )
+        {
+            return userTypeId;
+        }
+
+        for ( Entry<Class<?>, Integer> e : userTypeIds.entrySet() )
+        {
+            if ( e.getKey().isAssignableFrom( type ) )
+            {
+                return e.getValue();
+            }
+        }
+
+        return TYPE_NOT_FOUND;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    FieldCodec<Object> getCodec ( final int typeId )
+    {
+        final FieldCodec<Object> codec = (FieldCodec<Object>) userCodecs.get( typeId );
+        checkArgument( codec != null, "no codec registered for type id: %s", typeId );
+        return codec;
+    }
+
+}
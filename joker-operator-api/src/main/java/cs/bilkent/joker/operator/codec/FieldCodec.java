@@ -0,0 +1,44 @@
+package cs.bilkent.joker.operator.codec;
+
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+
+/**
+ * Encodes and decodes values of a user type for {@link TupleCodec}. Implementations are registered to a {@link CodecRegistry} with a type
+ * id. Encoded values are length-prefixed by {@link TupleCodec}, hence implementations do not need to encode their own lengths.
+ *
+ * @param <T>
+ *         type of the values
+ */
+public interface FieldCodec<T>
+{
+
+    /**
+     * Encodes the given value into the buffer starting from the given offset
+     *
+     * @param buffer
+     *         buffer to write the value
+     * @param offset
+     *         offset in the buffer to write the first byte of the value
+     * @param value
+     *         value to encode
+     *
+     * @return number of bytes written
+     */
+    int encode ( MutableDirectBuffer buffer, int offset, T value );
+
+    /**
+     * Decodes a value from the buffer
+     *
+     * @param buffer
+     *         buffer to read the value
+     * @param offset
+     *         offset of the first byte of the value in the buffer
+     * @param length
+     *         number of bytes written for the value by {@link #encode(MutableDirectBuffer, int, Object)}
+     *
+     * @return the decoded value
+     */
+    T decode ( DirectBuffer buffer, int offset, int length );
+
+}
@@ -0,0 +1,599 @@
+package cs.bilkent.joker.operator.codec;
+
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.MutableDirectBuffer;
+
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+import cs.bilkent.joker.operator.Tuple;
+import static cs.bilkent.joker.operator.codec.CodecRegistry.BOOLEAN_TYPE_ID;
+import static cs.bilkent.joker.operator.codec.CodecRegistry.BYTES_TYPE_ID;
+import static cs.bilkent.joker.operator.codec.CodecRegistry.BYTE_TYPE_ID;
+import static cs.bilkent.joker.operator.codec.CodecRegistry.CHAR_TYPE_ID;
+import static cs.bilkent.joker.operator.codec.CodecRegistry.DOUBLE_TYPE_ID;
+import static cs.bilkent.joker.operator.codec.CodecRegistry.FLOAT_TYPE_ID;
+import static cs.bilkent.joker.operator.codec.CodecRegistry.INT_TYPE_ID;
+import static cs.bilkent.joker.operator.codec.CodecRegistry.LONG_TYPE_ID;
+import static cs.bilkent.joker.operator.codec.CodecRegistry.SHORT_TYPE_ID;
+import static cs.bilkent.joker.operator.codec.CodecRegistry.STRING_TYPE_ID;
+import static cs.bilkent.joker.operator.codec.CodecRegistry.TYPE_NOT_FOUND;
+import cs.bilkent.joker.operator.schema.annotation.PortSchemaScope;
+import cs.bilkent.joker.operator.schema.runtime.RuntimeSchemaField;
+import cs.bilkent.joker.operator.schema.runtime.TupleSchema;
+import static cs.bilkent.joker.operator.schema.runtime.TupleSchema.FIELD_NOT_FOUND;
+import static java.lang.Character.isHighSurrogate;
+import static java.lang.Character.isLowSurrogate;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+
+/**
+ * Encodes field values of {@link Tuple} objects of a {@link TupleSchema} into a compact binary format, and decodes them back. Tuples are
+ * written to and read from Agrona buffers directly without creating intermediate objects on the encoding path.
+ * <p>
+ * The format consists of:
+ * <ul>
+ * <li>fingerprint of the schema, which is validated while decoding,</li>
+ * <li>a bitmap of the schema fields present in the tuple,</li>
+ * <li>values of the present schema fields in the schema order,</li>
+ * <li>number of the extra fields, which are not present in the schema, i.e., set to tuples of
+ * {@link PortSchemaScope#EXTENDABLE_FIELD_SET} schemas, followed by name, type id and value of each extra field.</li>
+ * </ul>
+ * Integral values are written as zig-zag encoded varints, floating point values are written with fixed width, strings and byte arrays
+ * are length-prefixed. Values of user types are written via their {@link FieldCodec} implementations registered to the
+ * {@link CodecRegistry}. Values of the schema fields with types not present in the registry, such as {@link Number}, are prefixed with
+ * type ids of their runtime types.
+ * <p>
+ * Only the field values are encoded. Ingestion times and latency records of tuples are not part of the format.
+ * <p>
+ * A codec object is not thread-safe. It can be used by {@link FieldCodec} implementations to encode and decode nested tuples.
+ */
+public final class TupleCodec
+{
+
+    static final int FORMAT_VERSION = 1;
+
+    static final ByteOrder BYTE_ORDER = LITTLE_ENDIAN;
+
+    private static final int DYNAMIC_TYPE_ID = 0;
+
+    private static final int USER_TYPE_LENGTH_PREFIX = 4;
+
+
+    private final TupleSchema schema;
+
+    private final CodecRegistry registry;
+
+    private final int[] fieldTypeIds;
+
+    private final int fingerprint;
+
+    private final int bitmapLength;
+
+    private final BiConsumer<String, Object> extraFieldEncoder = this::encodeExtraField;
+
+    private final BiConsumer<String, Object> extraFieldMeasurer = this::measureExtraField;
+
+    private MutableDirectBuffer encodeBuffer;
+
+    private ExpandableArrayBuffer measureBuffer;
+
+    private int extraFieldsLength;
+
+    private int position;
+
+    public TupleCodec ( final TupleSchema schema, final CodecRegistry registry )
+    {
+        checkArgument( schema != null, "schema can't be null" );
+        checkArgument( registry != null, "registry can't be null" );
+        this.schema = schema;
+        this.registry = registry;
+        final List<RuntimeSchemaField> fields = schema.getFields();
+        this.fieldTypeIds = new int[ fields.size() ];
+        for ( int i = 0; i < fields.size(); i++ )
+        {
+            final int typeId = registry.getTypeId( fields.get( i ).getType() );
+            fieldTypeIds[ i ] = typeId != TYPE_NOT_FOUND ? typeId : DYNAMIC_TYPE_ID;
+        }
+        this.fingerprint = computeFingerprint( fields );
+        this.bitmapLength = ( fields.size() + 7 ) / 8;
+    }
+
+    /**
+     * Returns the fingerprint written to the header of the encoded tuples
+     *
+     * @return the fingerprint written to the header of the encoded tuples
+     */
+    public int getFingerprint ()
+    {
+        return fingerprint;
+    }
+
+    /**
+     * Encodes field values of the given tuple into the buffer. The buffer must have enough capacity for the encoded tuple, or must be
+     * expandable.
+     *
+     * @param tuple
+     *         tuple to encode
+     * @param buffer
+     *         buffer to write the tuple
+     * @param offset
+     *         offset in the buffer to write the first byte of the tuple
+     *
+     * @return number of bytes written
+     */
+    public int encode ( final Tuple tuple, final MutableDirectBuffer buffer, final int offset )
+    {
+        checkSchema( tuple );
+
+        position = offset;
+        buffer.putInt( position, fingerprint, BYTE_ORDER );
+        position += 4;
+
+        final int bitmapOffset = position;
+        // putByte() is used instead of setMemory() since the latter does not expand expandable buffers
+        for ( int i = 0; i < bitmapLength; i++ )
+        {
+            buffer.putByte( position++, (byte) 0 );
+        }
+
+        int fieldCount = 0;
+        for ( int i = 0; i < fieldTypeIds.length; i++ )
+        {
+            final Object value = tuple.getAtSchemaIndex( i );
+            if ( value != null )
+            {
+                final int bitmapIndex = bitmapOffset + ( i >>> 3 );
+                buffer.putByte( bitmapIndex, (byte) ( buffer.getByte( bitmapIndex ) | ( 1 << ( i & 7 ) ) ) );
+                encodeValue( buffer, fieldTypeIds[ i ], value );
+                fieldCount++;
+            }
+        }
+
+        final int extraFieldCount = tuple.size() - fieldCount;
+        writeVarLong( buffer, extraFieldCount );
+        if ( extraFieldCount > 0 )
+        {
+            final MutableDirectBuffer prevEncodeBuffer = encodeBuffer;
+            encodeBuffer = buffer;
+            try
+            {
+                tuple.sinkTo( extraFieldEncoder );
+            }
+            finally
+            {
+                encodeBuffer = prevEncodeBuffer;
+            }
+        }
+
+        return position - offset;
+    }
+
+    /**
+     * Returns number of bytes {@link #encode(Tuple, MutableDirectBuffer, int)} writes for the given tuple, without writing it. It can be
+     * used to check if a buffer has enough capacity for the tuple before encoding it. Values of user types are measured by encoding them
+     * into a scratch buffer of the codec, since {@link FieldCodec} implementations do not expose lengths of their values.
+     *
+     * @param tuple
+     *         tuple to measure
+     *
+     * @return number of bytes the encoded tuple occupies
+     */
+    public int getEncodedLength ( final Tuple tuple )
+    {
+        checkSchema( tuple );
+
+        int length = 4 + bitmapLength;
+        int fieldCount = 0;
+        for ( int i = 0; i < fieldTypeIds.length; i++ )
+        {
+            final Object value = tuple.getAtSchemaIndex( i );
+            if ( value != null )
+            {
+                length += getValueLength( fieldTypeIds[ i ], value );
+                fieldCount++;
+            }
+        }
+
+        final int extraFieldCount = tuple.size() - fieldCount;
+        length += varLongLength( extraFieldCount );
+        if ( extraFieldCount > 0 )
+        {
+            final int prevExtraFieldsLength = extraFieldsLength;
+            extraFieldsLength = 0;
+            try
+            {
+                tuple.sinkTo( extraFieldMeasurer );
+                length += extraFieldsLength;
+            }
+            finally
+            {
+                extraFieldsLength = prevExtraFieldsLength;
+            }
+        }
+
+        return length;
+    }
+
+    /**
+     * Decodes a tuple from the buffer into a new tuple object of the schema
+     *
+     * @param buffer
+     *         buffer to read the tuple
+     * @param offset
+     *         offset of the first byte of the tuple in the buffer
+     *
+     * @return the decoded tuple
+     */
+    public Tuple decode ( final DirectBuffer buffer, final int offset )
+    {
+        final Tuple tuple = new Tuple( schema );
+        decode( buffer, offset, tuple );
+        return tuple;
+    }
+
+    /**
+     * Decodes a tuple from the buffer into the given tuple object, which must be created with the schema of the codec
+     *
+     * @param buffer
+     *         buffer to read the tuple
+     * @param offset
+     *         offset of the first byte of the tuple in the buffer
+     * @param tuple
+     *         tuple to set the decoded field values
+     *
+     * @return number of bytes read
+     */
+    public int decode ( final DirectBuffer buffer, final int offset, final Tuple tuple )
+    {
+        checkSchema( tuple );
+
+        position = offset;
+        final int fingerprint = buffer.getInt( position, BYTE_ORDER );
+        checkArgument( fingerprint == this.fingerprint,
+                       "schema fingerprint mismatch! expected: %s actual: %s at offset: %s",
+                       this.fingerprint,
+                       fingerprint,
+                       offset );
+        position += 4;
+
+        final int bitmapOffset = position;
+        position += bitmapLength;
+
+        for ( int i = 0; i < fieldTypeIds.length; i++ )
+        {
+            if ( ( buffer.getByte( bitmapOffset + ( i >>> 3 ) ) & ( 1 << ( i & 7 ) ) ) != 0 )
+            {
+                tuple.setAtSchemaIndex( i, decodeValue( buffer, fieldTypeIds[ i ] ) );
+            }
+        }
+
+        final int extraFieldCount = (int) readVarLong( buffer );
+        for ( int i = 0; i < extraFieldCount; i++ )
+        {
+            final String name = readString( buffer );
+            final int typeId = (int) readVarLong( buffer );
+            tuple.set( name, decodeValue( buffer, typeId ) );
+        }
+
+        return position - offset;
+    }
+
+    private void checkSchema ( final Tuple tuple )
+    {
+        checkArgument( tuple != null, "tuple can't be null" );
+        final TupleSchema tupleSchema = tuple.getSchema();
+        checkArgument( tupleSchema == schema || tupleSchema.getFields().equals( schema.getFields() ),
+                       "tuple schema: %s does not match to codec schema: %s",
+                       tupleSchema.getFields(),
+                       schema.getFields() );
+    }
+
+    private void encodeExtraField ( final String name, final Object value )
+    {
+        if ( schema.getFieldIndex( name ) != FIELD_NOT_FOUND )
+        {
+            return;
+        }
+
+        final int typeId = registry.getTypeId( value.getClass() );
+        checkArgument( typeId != TYPE_NOT_FOUND, "no codec registered for type: %s of field: %s", value.getClass(), name );
+        writeString( encodeBuffer, name );
+        writeVarLong( encodeBuffer, typeId );
+        encodeValue( encodeBuffer, typeId, value );
+    }
+
+    private void encodeValue ( final MutableDirectBuffer buffer, final int typeId, final Object value )
+    {
+        switch ( typeId )
+        {
+            case DYNAMIC_TYPE_ID:
+                final int runtimeTypeId = registry.getTypeId( value.getClass() );
+                checkArgument( runtimeTypeId != TYPE_NOT_FOUND, "no codec registered for type: %s", value.getClass() );
+                writeVarLong( buffer, runtimeTypeId );
+                encodeValue( buffer, runtimeTypeId, value );
+                break;
+            case BOOLEAN_TYPE_ID:
+                buffer.putByte( position++, (byte) ( (Boolean) value ? 1 : 0 ) );
+                break;
+            case BYTE_TYPE_ID:
+                buffer.putByte( position++, (Byte) value );
+                break;
+            case SHORT_TYPE_ID:
+                writeVarLong( buffer, zigZag( (Short) value ) );
+                break;
+            case CHAR_TYPE_ID:
+                writeVarLong( buffer, (Character) value );
+                break;
+            case INT_TYPE_ID:
+                writeVarLong( buffer, zigZag( (Integer) value ) );
+                break;
+            case LONG_TYPE_ID:
+                writeVarLong( buffer, zigZag( (Long) value ) );
+                break;
+            case FLOAT_TYPE_ID:
+                buffer.putFloat( position, (Float) value, BYTE_ORDER );
+                position += 4;
+                break;
+            case DOUBLE_TYPE_ID:
+                buffer.putDouble( position, (Double) value, BYTE_ORDER );
+                position += 8;
+                break;
+            case STRING_TYPE_ID:
+                writeString( buffer, (String) value );
+                break;
+            case BYTES_TYPE_ID:
+                final byte[] bytes = (byte[]) value;
+                writeVarLong( buffer, bytes.length );
+                buffer.putBytes( position, bytes );
+                position += bytes.length;
+                break;
+            default:
+                // offsets are kept in locals since user codecs may encode nested tuples with this codec
+                final int lengthOffset = position;
+                final int length = registry.getCodec( typeId ).encode( buffer, lengthOffset + USER_TYPE_LENGTH_PREFIX, value );
+                buffer.putInt( lengthOffset, length, BYTE_ORDER );
+                position = lengthOffset + USER_TYPE_LENGTH_PREFIX + length;
+        }
+    }
+
+    private void measureExtraField ( final String name, final Object value )
+    {
+        if ( schema.getFieldIndex( name ) != FIELD_NOT_FOUND )
+        {
+            return;
+        }
+
+        final int typeId = registry.getTypeId( value.getClass() );
+        checkArgument( typeId != TYPE_NOT_FOUND, "no codec registered for type: %s of field: %s", value.getClass(), name );
+        final int nameLength = utf8Length( name );
+        extraFieldsLength += varLongLength( nameLength ) + nameLength + varLongLength( typeId ) + getValueLength( typeId, value );
+    }
+
+    private int getValueLength ( final int typeId, final Object value )
+    {
+        switch ( typeId )
+        {
+            case DYNAMIC_TYPE_ID:
+                final int runtimeTypeId = registry.getTypeId( value.getClass() );
+                checkArgument( runtimeTypeId != TYPE_NOT_FOUND, "no codec registered for type: %s", value.getClass() );
+                return varLongLength( runtimeTypeId ) + getValueLength( runtimeTypeId, value );
+            case BOOLEAN_TYPE_ID:
+            case BYTE_TYPE_ID:
+                return 1;
+            case SHORT_TYPE_ID:
+                return varLongLength( zigZag( (Short) value ) );
+            case CHAR_TYPE_ID:
+                return varLongLength( (Character) value );
+            case INT_TYPE_ID:
+                return varLongLength( zigZag( (Integer) value ) );
+            case LONG_TYPE_ID:
+                return varLongLength( zigZag( (Long) value ) );
+            case FLOAT_TYPE_ID:
+                return 4;
+            case DOUBLE_TYPE_ID:
+                return 8;
+            case STRING_TYPE_ID:
+                final int stringLength = utf8Length( (String) value );
+                return varLongLength( stringLength ) + stringLength;
+            case BYTES_TYPE_ID:
+                final int bytesLength = ( (byte[]) value ).length;
+                return varLongLength( bytesLength ) + bytesLength;
+            default:
+                if ( measureBuffer == null )
+                {
+                    measureBuffer = new ExpandableArrayBuffer();
+                }
+
+                return USER_TYPE_LENGTH_PREFIX + registry.getCodec( typeId ).encode( measureBuffer, 0, value );
+        }
+    }
+
+    private Object decodeValue ( final DirectBuffer buffer, final int typeId )
+    {
+        switch ( typeId )
+        {
+            case DYNAMIC_TYPE_ID:
+                return decodeValue( buffer, (int) readVarLong( buffer ) );
+            case BOOLEAN_TYPE_ID:
+                return buffer.getByte( position++ ) != 0;
+            case BYTE_TYPE_ID:
+                return buffer.getByte( position++ );
+            case SHORT_TYPE_ID:
+                return (short) unZigZag( readVarLong( buffer ) );
+            case CHAR_TYPE_ID:
+                return (char) readVarLong( buffer );
+            case INT_TYPE_ID:
+                return (int) unZigZag( readVarLong( buffer ) );
+            case LONG_TYPE_ID:
+                return unZigZag( readVarLong( buffer ) );
+            case FLOAT_TYPE_ID:
+                final float floatValue = buffer.getFloat( position, BYTE_ORDER );
+                position += 4;
+                return floatValue;
+            case DOUBLE_TYPE_ID:
+                final double doubleValue = buffer.getDouble( position, BYTE_ORDER );
+                position += 8;
+                return doubleValue;
+            case STRING_TYPE_ID:
+                return readString( buffer );
+            case BYTES_TYPE_ID:
+                final byte[] bytes = new byte[ (int) readVarLong( buffer ) ];
+                buffer.getBytes( position, bytes );
+                position += bytes.length;
+                return bytes;
+            default:
+                final int valueOffset = position + USER_TYPE_LENGTH_PREFIX;
+                final int length = buffer.getInt( position, BYTE_ORDER );
+                final Object value = registry.getCodec( typeId ).decode( buffer, valueOffset, length );
+                position = valueOffset + length;
+                return value;
+        }
+    }
+
+    private void writeString ( final MutableDirectBuffer buffer, final String value )
+    {
+        writeVarLong( buffer, utf8Length( value ) );
+        for ( int i = 0, j = value.length(); i < j; i++ )
+        {
+            final char c = value.charAt( i );
+            if ( c < 0x80 )
+            {
+                buffer.putByte( position++, (byte) c );
+            }
+            else if ( c < 0x800 )
+            {
+                buffer.putByte( position++, (byte) ( 0xC0 | ( c >> 6 ) ) );
+                buffer.putByte( position++, (byte) ( 0x80 | ( c & 0x3F ) ) );
+            }
+            else if ( isHighSurrogate( c ) && i + 1 < j && isLowSurrogate( value.charAt( i + 1 ) ) )
+            {
+                final int codePoint = Character.toCodePoint( c, value.charAt( ++i ) );
+                buffer.putByte( position++, (byte) ( 0xF0 | ( codePoint >> 18 ) ) );
+                buffer.putByte( position++, (byte) ( 0x80 | ( ( codePoint >> 12 ) & 0x3F ) ) );
+                buffer.putByte( position++, (byte) ( 0x80 | ( ( codePoint >> 6 ) & 0x3F ) ) );
+                buffer.putByte( position++, (byte) ( 0x80 | ( codePoint & 0x3F ) ) );
+            }
+            else if ( Character.isSurrogate( c ) )
+            {
+                // same replacement with String.getBytes(UTF_8) for malformed surrogate pairs
+                buffer.putByte( position++, (byte) '?' );
+            }
+            else
+            {
+                buffer.putByte( position++, (byte) ( 0xE0 | ( c >> 12 ) ) );
+                buffer.putByte( position++, (byte) ( 0x80 | ( ( c >> 6 ) & 0x3F ) ) );
+                buffer.putByte( position++, (byte) ( 0x80 | ( c & 0x3F ) ) );
+            }
+        }
+    }
+
+    private String readString ( final DirectBuffer buffer )
+    {
+        final int length = (int) readVarLong( buffer );
+        final String value = buffer.getStringWithoutLengthUtf8( position, length );
+        position += length;
+        return value;
+    }
+
+    private void writeVarLong ( final MutableDirectBuffer buffer, long value )
+    {
+        while ( ( value & ~0x7FL ) != 0 )
+        {
+            buffer.putByte( position++, (byte) ( ( value & 0x7F ) | 0x80 ) );
+            value >>>= 7;
+        }
+
+        buffer.putByte( position++, (byte) value );
+    }
+
+    private long readVarLong ( final DirectBuffer buffer )
+    {
+        long value = 0;
+        for ( int shift = 0; shift < 64; shift += 7 )
+        {
+            final byte b = buffer.getByte( position++ );
+            value |= (long) ( b & 0x7F ) << shift;
+            if ( b >= 0 )
+            {
+                return value;
+            }
+        }
+
+        throw new IllegalStateException( "malformed varint at offset: " + position );
+    }
+
+    static int varLongLength ( final long value )
+    {
+        // 7 bits per byte, and at least 1 byte for zero
+        return Math.max( 1, ( 64 - Long.numberOfLeadingZeros( value ) + 6 ) / 7 );
+    }
+
+    static int utf8Length ( final String value )
+    {
+        int length = 0;
+        for ( int i = 0, j = value.length(); i < j; i++ )
+        {
+            final char c = value.charAt( i );
+            if ( c < 0x80 )
+            {
+                length++;
+            }
+            else if ( c < 0x800 )
+            {
+                length += 2;
+            }
+            else if ( isHighSurrogate( c ) && i + 1 < j && isLowSurrogate( value.charAt( i + 1 ) ) )
+            {
+                length += 4;
+                i++;
+            }
+            else if ( Character.isSurrogate( c ) )
+            {
+                length++;
+            }
+            else
+            {
+                length += 3;
+            }
+        }
+
+        return length;
+    }
+
+    static long zigZag ( final long value )
+    {
+        return ( value << 1 ) ^ ( value >> 63 );
+    }
+
+    static long unZigZag ( final long value )
+    {
+        return ( value >>> 1 ) ^ -( value & 1 );
+    }
+
+    static int computeFingerprint ( final List<RuntimeSchemaField> fields )
+    {
+        // FNV-1a over the format version, and names and types of the fields in the schema order
+        int hash = 0x811C9DC5 ^ FORMAT_VERSION;
+        for ( RuntimeSchemaField field : fields )
+        {
+            hash = fnv1a( hash, field.getName() );
+            hash = fnv1a( hash, field.getType().getName() );
+        }
+
+        return hash;
+    }
+
+    private static int fnv1a ( int hash, final String value )
+    {
+        for ( int i = 0; i < value.length(); i++ )
+        {
+            hash = ( hash ^ value.charAt( i ) ) * 0x01000193;
+        }
+
+        return ( hash ^ ';' ) * 0x01000193;
+    }
+
+}
@@ -5,8 +5,11 @@ import java.util.List;
 import java.util.function.Function;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static cs.bilkent.joker.flow.Port.DEFAULT_PORT_INDEX;
+import cs.bilkent.joker.operator.OutputSlice;
 import cs.bilkent.joker.operator.Tuple;
 import cs.bilkent.joker.operator.kvstore.KVStore;
+import cs.bilkent.joker.operator.kvstore.StateEvictionListener;
 import cs.bilkent.joker.partition.impl.PartitionKey;
 import static java.util.Arrays.copyOf;
 
@@ -24,6 +27,8 @@ public class DefaultInvocationCtx implements InternalInvocationCtx
 
     private final OutputCollector outputCollector;
 
+    private final TupleArrayOutputSlice outputSlice;
+
     private InvocationReason reason;
 
     private boolean[] upstreamConnectionStatuses;
@@ -32,6 +37,8 @@ public class DefaultInvocationCtx implements InternalInvocationCtx
 
     private int currentInput = 0;
 
+    private StateEvictor stateEvictor;
+
     public DefaultInvocationCtx ( final int inputPortCount, final Function<PartitionKey, KVStore> kvStoreSupplier, final TuplesImpl output )
     {
         this( inputPortCount, kvStoreSupplier, new OutputCollector()
@@ -48,6 +55,18 @@ public class DefaultInvocationCtx implements InternalInvocationCtx
                 output.add( portIndex, tuple );
             }
 
+            @Override
+            public void add ( final int portIndex, final List<Tuple> tuples )
+            {
+                output.add( portIndex, tuples );
+            }
+
+            @Override
+            public void add ( final int portIndex, final Tuple[] tuples, final int count )
+            {
+                output.add( portIndex, tuples, count );
+            }
+
             @Override
             public void recordInvocationLatency ( final String operatorId, final long latency )
             {
@@ -75,6 +94,7 @@ public class DefaultInvocationCtx implements InternalInvocationCtx
         this.inputPortCount = inputPortCount;
         this.kvStoreSupplier = kvStoreSupplier;
         this.outputCollector = outputCollector;
+        this.outputSlice = new TupleArrayOutputSlice( outputCollector );
     }
 
     // InternalInvocationContext methods begin
@@ -95,11 +115,32 @@ public class DefaultInvocationCtx implements InternalInvocationCtx
             input.clear();
         }
         partitionKeys.clear();
+        outputSlice.reset();
         outputCollector.clear();
         inputCount = 0;
         currentInput = 0;
     }
 
+    @Override
+    public void setStateEvictor ( final StateEvictor stateEvictor )
+    {
+        this.stateEvictor = stateEvictor;
+    }
+
+    @Override
+    public void evictStates ( final StateEvictionListener listener )
+    {
+        if ( stateEvictor != null )
+        {
+            stateEvictor.evictStates( ( key, kvStore ) -> {
+                if ( listener != null )
+                {
+                    listener.onStateEvicted( key, kvStore, this );
+                }
+            } );
+        }
+    }
+
     @Override
     public int getInputCount ()
     {
@@ -155,10 +196,7 @@ public class DefaultInvocationCtx implements InternalInvocationCtx
     @Override
     public void output ( final List<Tuple> tuples )
     {
-        for ( int i = 0, j = tuples.size(); i < j; i++ )
-        {
-            outputCollector.add( tuples.get( i ) );
-        }
+        outputCollector.add( DEFAULT_PORT_INDEX, tuples );
     }
 
     @Override
@@ -170,10 +208,13 @@ public class DefaultInvocationCtx implements InternalInvocationCtx
     @Override
     public void output ( final int portIndex, final List<Tuple> tuples )
     {
-        for ( int i = 0, j = tuples.size(); i < j; i++ )
-        {
-            outputCollector.add( portIndex, tuples.get( i ) );
-        }
+        outputCollector.add( portIndex, tuples );
+    }
+
+    @Override
+    public OutputSlice reserveOutput ( final int portIndex, final int tupleCount )
+    {
+        return outputSlice.reserve( portIndex, tupleCount );
     }
 
     @Override
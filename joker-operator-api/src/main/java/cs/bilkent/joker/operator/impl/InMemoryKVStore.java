@@ -1,18 +1,27 @@
 package cs.bilkent.joker.operator.impl;
 
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import cs.bilkent.joker.operator.kvstore.KVStore;
+import cs.bilkent.joker.operator.kvstore.LongLongHashMap;
 
 @NotThreadSafe
 public class InMemoryKVStore implements KVStore
 {
     private final Map<Object, Object> values = new HashMap<>();
 
+    /**
+     * Typed states are kept in mutable holders so that they are updated in place without boxing
+     */
+    private final Map<String, Object> states = new HashMap<>();
+
     public InMemoryKVStore ()
     {
     }
@@ -55,12 +64,136 @@ public class InMemoryKVStore implements KVStore
     public void clear ()
     {
         values.clear();
+        states.clear();
     }
 
     @Override
     public int size ()
     {
-        return values.size();
+        return values.size() + states.size();
+    }
+
+    @Override
+    public long getLongState ( final String name, final long defaultVal )
+    {
+        final LongHolder holder = (LongHolder) states.get( name );
+        return holder != null ? holder.value : defaultVal;
+    }
+
+    @Override
+    public void setLongState ( final String name, final long value )
+    {
+        getOrCreateLongHolder( name ).value = value;
+    }
+
+    @Override
+    public long addLongState ( final String name, final long delta )
+    {
+        final LongHolder holder = getOrCreateLongHolder( name );
+        holder.value += delta;
+        return holder.value;
+    }
+
+    @Override
+    public double getDoubleState ( final String name, final double defaultVal )
+    {
+        final DoubleHolder holder = (DoubleHolder) states.get( name );
+        return holder != null ? holder.value : defaultVal;
+    }
+
+    @Override
+    public void setDoubleState ( final String name, final double value )
+    {
+        getOrCreateDoubleHolder( name ).value = value;
+    }
+
+    @Override
+    public double addDoubleState ( final String name, final double delta )
+    {
+        final DoubleHolder holder = getOrCreateDoubleHolder( name );
+        holder.value += delta;
+        return holder.value;
+    }
+
+    @Override
+    public LongLongHashMap getLongLongMapState ( final String name, final boolean createIfAbsent )
+    {
+        LongLongHashMap map = (LongLongHashMap) states.get( name );
+        if ( map == null && createIfAbsent )
+        {
+            map = new LongLongHashMap();
+            states.put( name, map );
+        }
+
+        return map;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    @Override
+    public <T> List<T> getListState ( final String name, final boolean createIfAbsent )
+    {
+        List<T> list = (List<T>) states.get( name );
+        if ( list == null && createIfAbsent )
+        {
+            list = new ArrayList<>();
+            states.put( name, list );
+        }
+
+        return list;
+    }
+
+    @Override
+    public boolean deleteState ( final String name )
+    {
+        return states.remove( name ) != null;
+    }
+
+    /**
+     * Passes the fields to the given consumer. Typed states are not included.
+     */
+    public void sinkTo ( final BiConsumer<Object, Object> consumer )
+    {
+        values.forEach( consumer );
+    }
+
+    public boolean hasTypedStates ()
+    {
+        return !states.isEmpty();
+    }
+
+    private LongHolder getOrCreateLongHolder ( final String name )
+    {
+        LongHolder holder = (LongHolder) states.get( name );
+        if ( holder == null )
+        {
+            holder = new LongHolder();
+            states.put( name, holder );
+        }
+
+        return holder;
+    }
+
+    private DoubleHolder getOrCreateDoubleHolder ( final String name )
+    {
+        DoubleHolder holder = (DoubleHolder) states.get( name );
+        if ( holder == null )
+        {
+            holder = new DoubleHolder();
+            states.put( name, holder );
+        }
+
+        return holder;
+    }
+
+    private static final class LongHolder
+    {
+        private long value;
+    }
+
+
+    private static final class DoubleHolder
+    {
+        private double value;
     }
 
 }
@@ -3,17 +3,28 @@ package cs.bilkent.joker.operator.impl;
 import java.util.Arrays;
 import java.util.List;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
 import cs.bilkent.joker.operator.InitCtx;
 import cs.bilkent.joker.operator.OperatorConfig;
 import cs.bilkent.joker.operator.OperatorDef;
+import cs.bilkent.joker.operator.kvstore.DoubleValueState;
+import cs.bilkent.joker.operator.kvstore.ListState;
+import cs.bilkent.joker.operator.kvstore.LongLongMapState;
+import cs.bilkent.joker.operator.kvstore.LongValueState;
 import cs.bilkent.joker.operator.schema.runtime.OperatorRuntimeSchema;
 import cs.bilkent.joker.operator.schema.runtime.TupleSchema;
+import cs.bilkent.joker.operator.spec.OperatorType;
+import static cs.bilkent.joker.operator.spec.OperatorType.STATELESS;
 
 
 public class InitCtxImpl implements InitCtx
 {
     private String id;
 
+    private OperatorType operatorType;
+
     private int inputPortCount;
 
     private int outputPortCount;
@@ -29,6 +40,7 @@ public class InitCtxImpl implements InitCtx
     public InitCtxImpl ( final OperatorDef operatorDef, final boolean[] upstreamConnectionStatuses )
     {
         this.id = operatorDef.getId();
+        this.operatorType = operatorDef.getOperatorType();
         this.inputPortCount = operatorDef.getInputPortCount();
         this.outputPortCount = operatorDef.getOutputPortCount();
         this.partitionFieldNames = operatorDef.getPartitionFieldNames();
@@ -85,4 +97,38 @@ public class InitCtxImpl implements InitCtx
         return config;
     }
 
+    @Override
+    public LongValueState getLongValueState ( final String name )
+    {
+        checkStateAccess( name );
+        return new LongValueState( name );
+    }
+
+    @Override
+    public DoubleValueState getDoubleValueState ( final String name )
+    {
+        checkStateAccess( name );
+        return new DoubleValueState( name );
+    }
+
+    @Override
+    public LongLongMapState getLongLongMapState ( final String name )
+    {
+        checkStateAccess( name );
+        return new LongLongMapState( name );
+    }
+
+    @Override
+    public <T> ListState<T> getListState ( final String name )
+    {
+        checkStateAccess( name );
+        return new ListState<>( name );
+    }
+
+    private void checkStateAccess ( final String name )
+    {
+        checkArgument( name != null, "state name can't be null for operator: %s", id );
+        checkState( operatorType != STATELESS, "%s operator: %s cannot have state: %s", operatorType, id, name );
+    }
+
 }
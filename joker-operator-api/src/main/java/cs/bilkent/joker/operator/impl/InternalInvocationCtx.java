@@ -3,6 +3,7 @@ package cs.bilkent.joker.operator.impl;
 import java.util.List;
 
 import cs.bilkent.joker.operator.InvocationCtx;
+import cs.bilkent.joker.operator.kvstore.StateEvictionListener;
 
 public interface InternalInvocationCtx extends InvocationCtx
 {
@@ -26,4 +27,17 @@ public interface InternalInvocationCtx extends InvocationCtx
 
     void setUpstreamConnectionStatuses ( boolean[] upstreamConnectionStatuses );
 
+    default void setStateEvictor ( StateEvictor stateEvictor )
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Evicts states of the partition keys according to the retention policy of the operator, if it has one. The given listener is
+     * notified for each evicted partition key if it is not null.
+     */
+    default void evictStates ( StateEvictionListener listener )
+    {
+    }
+
 }
@@ -1,5 +1,7 @@
 package cs.bilkent.joker.operator.impl;
 
+import java.util.List;
+
 import cs.bilkent.joker.operator.Tuple;
 
 public interface OutputCollector
@@ -9,6 +11,25 @@ public interface OutputCollector
 
     void add ( int portIndex, Tuple tuple );
 
+    default void add ( final int portIndex, final List<Tuple> tuples )
+    {
+        for ( int i = 0, j = tuples.size(); i < j; i++ )
+        {
+            add( portIndex, tuples.get( i ) );
+        }
+    }
+
+    /**
+     * Adds the first {@code count} tuples of the given array to the given port. The array is not retained by the collector.
+     */
+    default void add ( final int portIndex, final Tuple[] tuples, final int count )
+    {
+        for ( int i = 0; i < count; i++ )
+        {
+            add( portIndex, tuples[ i ] );
+        }
+    }
+
     void recordInvocationLatency ( String operatorId, long latency );
 
     TuplesImpl getOutputTuples ();
@@ -0,0 +1,21 @@
+package cs.bilkent.joker.operator.impl;
+
+import java.util.function.BiConsumer;
+
+import cs.bilkent.joker.operator.kvstore.KVStore;
+import cs.bilkent.joker.partition.impl.PartitionKey;
+
+/**
+ * Evicts states of the partition keys of an operator according to its retention policy
+ */
+@FunctionalInterface
+public interface StateEvictor
+{
+
+    /**
+     * Evicts states of the expired partition keys with a bounded amount of work, and passes each evicted partition key and its states to
+     * the given consumer.
+     */
+    void evictStates ( BiConsumer<PartitionKey, KVStore> consumer );
+
+}
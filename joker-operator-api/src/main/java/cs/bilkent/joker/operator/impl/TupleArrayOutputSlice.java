@@ -0,0 +1,94 @@
+package cs.bilkent.joker.operator.impl;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import cs.bilkent.joker.operator.OutputSlice;
+import cs.bilkent.joker.operator.Tuple;
+
+/**
+ * {@link OutputSlice} implementation which is reused by an invocation context for all reservations. Tuples are kept in an array, and they
+ * are given to the {@link OutputCollector} with a single call on commit.
+ */
+public final class TupleArrayOutputSlice implements OutputSlice
+{
+
+    private static final int INITIAL_CAPACITY = 16;
+
+
+    private final OutputCollector outputCollector;
+
+    private Tuple[] tuples = new Tuple[ INITIAL_CAPACITY ];
+
+    private int portIndex = -1;
+
+    private int size;
+
+    public TupleArrayOutputSlice ( final OutputCollector outputCollector )
+    {
+        this.outputCollector = outputCollector;
+    }
+
+    public OutputSlice reserve ( final int portIndex, final int tupleCount )
+    {
+        checkState( this.portIndex == -1, "slice of port: %s is not committed", this.portIndex );
+        checkArgument( portIndex >= 0, "invalid port index: %s", portIndex );
+        checkArgument( tupleCount >= 0, "invalid tuple count: %s", tupleCount );
+
+        if ( tuples.length < tupleCount )
+        {
+            tuples = new Tuple[ tupleCount ];
+        }
+
+        this.portIndex = portIndex;
+        return this;
+    }
+
+    @Override
+    public int getPortIndex ()
+    {
+        return portIndex;
+    }
+
+    @Override
+    public int size ()
+    {
+        return size;
+    }
+
+    @Override
+    public OutputSlice add ( final Tuple tuple )
+    {
+        checkState( portIndex != -1, "slice is not reserved" );
+        checkArgument( tuple != null, "tuple can't be null" );
+
+        if ( size == tuples.length )
+        {
+            tuples = Arrays.copyOf( tuples, size * 2 );
+        }
+
+        tuples[ size++ ] = tuple;
+        return this;
+    }
+
+    @Override
+    public void commit ()
+    {
+        checkState( portIndex != -1, "slice is not reserved" );
+
+        outputCollector.add( portIndex, tuples, size );
+        reset();
+    }
+
+    /**
+     * Discards the tuples of the slice if it is not committed
+     */
+    public void reset ()
+    {
+        Arrays.fill( tuples, 0, size, null );
+        size = 0;
+        portIndex = -1;
+    }
+
+}
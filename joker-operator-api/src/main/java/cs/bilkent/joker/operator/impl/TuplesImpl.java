@@ -54,11 +54,11 @@ public final class TuplesImpl implements Tuples
     private static final int INITIAL_CAPACITY;
 
 
-    private final List<Tuple>[] ports;
+    private final ArrayList<Tuple>[] ports;
 
     public TuplesImpl ( final int portCount )
     {
-        ports = new List[ portCount ];
+        ports = new ArrayList[ portCount ];
         for ( int i = 0; i < portCount; i++ )
         {
             ports[ i ] = new ArrayList<>( INITIAL_CAPACITY );
@@ -97,6 +97,19 @@ public final class TuplesImpl implements Tuples
         ports[ portIndex ].addAll( tuples );
     }
 
+    /**
+     * Adds the first {@code count} tuples of the given array to the given port
+     */
+    public void add ( final int portIndex, final Tuple[] tuples, final int count )
+    {
+        final ArrayList<Tuple> port = ports[ portIndex ];
+        port.ensureCapacity( port.size() + count );
+        for ( int i = 0; i < count; i++ )
+        {
+            port.add( tuples[ i ] );
+        }
+    }
+
     @Override
     public List<Tuple> getTuples ( final int portIndex )
     {
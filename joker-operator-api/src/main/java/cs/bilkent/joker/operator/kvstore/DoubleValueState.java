@@ -0,0 +1,62 @@
+package cs.bilkent.joker.operator.kvstore;
+
+import cs.bilkent.joker.operator.InitCtx;
+import cs.bilkent.joker.operator.InvocationCtx;
+
+/**
+ * Handle of a {@code double} state which is kept without boxing. It is obtained once via {@link InitCtx#getDoubleValueState(String)}
+ * and used in invocations. The value is resolved against the {@link KVStore} of the given invocation.
+ */
+public final class DoubleValueState
+{
+
+    private final String name;
+
+    public DoubleValueState ( final String name )
+    {
+        this.name = name;
+    }
+
+    public String getName ()
+    {
+        return name;
+    }
+
+    /**
+     * Returns the value, or 0 if it is not present
+     */
+    public double get ( final InvocationCtx ctx )
+    {
+        return ctx.getKVStore().getDoubleState( name, 0 );
+    }
+
+    public double getOrDefault ( final InvocationCtx ctx, final double defaultVal )
+    {
+        return ctx.getKVStore().getDoubleState( name, defaultVal );
+    }
+
+    public void set ( final InvocationCtx ctx, final double value )
+    {
+        ctx.getKVStore().setDoubleState( name, value );
+    }
+
+    /**
+     * Adds the given delta to the value and returns the new value
+     */
+    public double add ( final InvocationCtx ctx, final double delta )
+    {
+        return ctx.getKVStore().addDoubleState( name, delta );
+    }
+
+    public boolean clear ( final InvocationCtx ctx )
+    {
+        return ctx.getKVStore().deleteState( name );
+    }
+
+    @Override
+    public String toString ()
+    {
+        return "DoubleValueState{" + "name='" + name + '\'' + '}';
+    }
+
+}
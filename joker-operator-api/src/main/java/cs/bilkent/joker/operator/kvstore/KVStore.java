@@ -1,7 +1,10 @@
 package cs.bilkent.joker.operator.kvstore;
 
 
+import java.util.List;
+
 import cs.bilkent.joker.operator.Fields;
+import cs.bilkent.joker.operator.InitCtx;
 import cs.bilkent.joker.operator.spec.OperatorType;
 
 /**
@@ -11,6 +14,10 @@ import cs.bilkent.joker.operator.spec.OperatorType;
  * Please do not modify an object after it is to the {@code KVStore} during operator invocation.
  * Please do not modify an object instance if it is added to the {@code KVStore} for different partition keys during invocations of a
  * {@link OperatorType#PARTITIONED_STATEFUL} operator.
+ * <p>
+ * In addition to the fields, a {@code KVStore} keeps typed states, such as {@code long} values, without boxing them. Typed states are
+ * kept separately from the fields, and they are accessed via the state handles obtained from {@link InitCtx}, such as
+ * {@link LongValueState}, instead of the methods below.
  */
 public interface KVStore extends Fields<Object>
 {
@@ -27,4 +34,68 @@ public interface KVStore extends Fields<Object>
         throw new UnsupportedOperationException();
     }
 
+    default long getLongState ( String name, long defaultVal )
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    default void setLongState ( String name, long value )
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Adds the given delta to the {@code long} state and returns the new value. The state is assumed to be 0 if it is not present.
+     */
+    default long addLongState ( String name, long delta )
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    default double getDoubleState ( String name, double defaultVal )
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    default void setDoubleState ( String name, double value )
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Adds the given delta to the {@code double} state and returns the new value. The state is assumed to be 0 if it is not present.
+     */
+    default double addDoubleState ( String name, double delta )
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the map state with the given name. If the state is not present, an empty map is created if {@code createIfAbsent} is
+     * {@code true}, and {@code null} is returned otherwise. The returned map can be modified in place.
+     */
+    default LongLongHashMap getLongLongMapState ( String name, boolean createIfAbsent )
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the list state with the given name. If the state is not present, an empty list is created if {@code createIfAbsent} is
+     * {@code true}, and {@code null} is returned otherwise. The returned list can be modified in place.
+     */
+    default <T> List<T> getListState ( String name, boolean createIfAbsent )
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Deletes the typed state with the given name
+     *
+     * @return {@code true} if the state is present
+     */
+    default boolean deleteState ( String name )
+    {
+        throw new UnsupportedOperationException();
+    }
+
 }
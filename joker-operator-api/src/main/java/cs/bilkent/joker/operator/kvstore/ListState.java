@@ -0,0 +1,63 @@
+package cs.bilkent.joker.operator.kvstore;
+
+import java.util.List;
+
+import cs.bilkent.joker.operator.InitCtx;
+import cs.bilkent.joker.operator.InvocationCtx;
+import static java.util.Collections.emptyList;
+
+/**
+ * Handle of a list state which can be appended in place, instead of copying the list into the {@link KVStore} on each update. It is
+ * obtained once via {@link InitCtx#getListState(String)} and used in invocations. The list is resolved against the {@link KVStore} of the
+ * given invocation. The list is created on the first write.
+ *
+ * @param <T>
+ *         type of the list elements
+ */
+public final class ListState<T>
+{
+
+    private final String name;
+
+    public ListState ( final String name )
+    {
+        this.name = name;
+    }
+
+    public String getName ()
+    {
+        return name;
+    }
+
+    public void add ( final InvocationCtx ctx, final T value )
+    {
+        ctx.getKVStore().<T>getListState( name, true ).add( value );
+    }
+
+    /**
+     * Returns the list, or an empty list if the state is not present. The returned list must not be modified.
+     */
+    public List<T> get ( final InvocationCtx ctx )
+    {
+        final List<T> list = ctx.getKVStore().getListState( name, false );
+        return list != null ? list : emptyList();
+    }
+
+    public int size ( final InvocationCtx ctx )
+    {
+        final List<T> list = ctx.getKVStore().getListState( name, false );
+        return list != null ? list.size() : 0;
+    }
+
+    public boolean clear ( final InvocationCtx ctx )
+    {
+        return ctx.getKVStore().deleteState( name );
+    }
+
+    @Override
+    public String toString ()
+    {
+        return "ListState{" + "name='" + name + '\'' + '}';
+    }
+
+}
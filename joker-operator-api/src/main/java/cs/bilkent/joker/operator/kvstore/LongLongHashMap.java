@@ -0,0 +1,225 @@
+package cs.bilkent.joker.operator.kvstore;
+
+import java.util.Arrays;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Open-addressing hash map of primitive {@code long} keys to primitive {@code long} values, which does not box keys or values. Collisions
+ * are resolved with linear probing, and removals shift the following entries back instead of leaving tombstones.
+ */
+@NotThreadSafe
+public final class LongLongHashMap
+{
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+
+    private long[] keys;
+
+    private long[] values;
+
+    private boolean[] used;
+
+    private int mask;
+
+    private int size;
+
+    private int resizeThreshold;
+
+    public LongLongHashMap ()
+    {
+        this( DEFAULT_CAPACITY );
+    }
+
+    public LongLongHashMap ( final int initialCapacity )
+    {
+        checkArgument( initialCapacity > 0, "invalid initial capacity: %s", initialCapacity );
+        allocate( Integer.highestOneBit( Math.max( 2, (int) Math.ceil( initialCapacity / LOAD_FACTOR ) ) - 1 ) << 1 );
+    }
+
+    public int size ()
+    {
+        return size;
+    }
+
+    public boolean isEmpty ()
+    {
+        return size == 0;
+    }
+
+    public boolean containsKey ( final long key )
+    {
+        return indexOf( key ) >= 0;
+    }
+
+    public long get ( final long key, final long defaultVal )
+    {
+        final int index = indexOf( key );
+        return index >= 0 ? values[ index ] : defaultVal;
+    }
+
+    public void put ( final long key, final long value )
+    {
+        final int index = insertionIndexOf( key );
+        values[ index ] = value;
+    }
+
+    /**
+     * Adds the given delta to the value of the given key, which is assumed to be 0 if the key is not present
+     *
+     * @return the new value of the key
+     */
+    public long add ( final long key, final long delta )
+    {
+        final int index = insertionIndexOf( key );
+        return values[ index ] += delta;
+    }
+
+    public boolean remove ( final long key )
+    {
+        int index = indexOf( key );
+        if ( index < 0 )
+        {
+            return false;
+        }
+
+        // shifts back the following entries of the probe sequence which would be unreachable otherwise
+        int next = ( index + 1 ) & mask;
+        while ( used[ next ] )
+        {
+            final int ideal = hash( keys[ next ] ) & mask;
+            if ( ( ( next - ideal ) & mask ) >= ( ( next - index ) & mask ) )
+            {
+                keys[ index ] = keys[ next ];
+                values[ index ] = values[ next ];
+                index = next;
+            }
+
+            next = ( next + 1 ) & mask;
+        }
+
+        used[ index ] = false;
+        values[ index ] = 0;
+        size--;
+        return true;
+    }
+
+    public void clear ()
+    {
+        Arrays.fill( used, false );
+        Arrays.fill( values, 0 );
+        size = 0;
+    }
+
+    public void forEach ( final LongLongConsumer consumer )
+    {
+        for ( int i = 0; i < used.length; i++ )
+        {
+            if ( used[ i ] )
+            {
+                consumer.accept( keys[ i ], values[ i ] );
+            }
+        }
+    }
+
+    private int indexOf ( final long key )
+    {
+        int index = hash( key ) & mask;
+        while ( used[ index ] )
+        {
+            if ( keys[ index ] == key )
+            {
+                return index;
+            }
+
+            index = ( index + 1 ) & mask;
+        }
+
+        return -1;
+    }
+
+    private int insertionIndexOf ( final long key )
+    {
+        int index = hash( key ) & mask;
+        while ( used[ index ] )
+        {
+            if ( keys[ index ] == key )
+            {
+                return index;
+            }
+
+            index = ( index + 1 ) & mask;
+        }
+
+        if ( size == resizeThreshold )
+        {
+            rehash( keys.length << 1 );
+            return insertionIndexOf( key );
+        }
+
+        used[ index ] = true;
+        keys[ index ] = key;
+        size++;
+        return index;
+    }
+
+    private void rehash ( final int capacity )
+    {
+        final long[] oldKeys = keys;
+        final long[] oldValues = values;
+        final boolean[] oldUsed = used;
+        allocate( capacity );
+        for ( int i = 0; i < oldUsed.length; i++ )
+        {
+            if ( oldUsed[ i ] )
+            {
+                int index = hash( oldKeys[ i ] ) & mask;
+                while ( used[ index ] )
+                {
+                    index = ( index + 1 ) & mask;
+                }
+
+                used[ index ] = true;
+                keys[ index ] = oldKeys[ i ];
+                values[ index ] = oldValues[ i ];
+            }
+        }
+    }
+
+    private void allocate ( final int capacity )
+    {
+        this.keys = new long[ capacity ];
+        this.values = new long[ capacity ];
+        this.used = new boolean[ capacity ];
+        this.mask = capacity - 1;
+        this.resizeThreshold = (int) ( capacity * LOAD_FACTOR );
+    }
+
+    private static int hash ( final long key )
+    {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    @Override
+    public String toString ()
+    {
+        return "LongLongHashMap{" + "size=" + size + ", capacity=" + keys.length + '}';
+    }
+
+    @FunctionalInterface
+    public interface LongLongConsumer
+    {
+
+        void accept ( long key, long value );
+
+    }
+
+}
@@ -0,0 +1,83 @@
+package cs.bilkent.joker.operator.kvstore;
+
+import cs.bilkent.joker.operator.InitCtx;
+import cs.bilkent.joker.operator.InvocationCtx;
+
+/**
+ * Handle of a map state of {@code long} keys and values, which is kept in a {@link LongLongHashMap} without boxing. It is obtained once
+ * via {@link InitCtx#getLongLongMapState(String)} and used in invocations. The map is resolved against the {@link KVStore} of the given
+ * invocation. The map is created on the first write.
+ */
+public final class LongLongMapState
+{
+
+    private final String name;
+
+    public LongLongMapState ( final String name )
+    {
+        this.name = name;
+    }
+
+    public String getName ()
+    {
+        return name;
+    }
+
+    public long get ( final InvocationCtx ctx, final long key, final long defaultVal )
+    {
+        final LongLongHashMap map = ctx.getKVStore().getLongLongMapState( name, false );
+        return map != null ? map.get( key, defaultVal ) : defaultVal;
+    }
+
+    public boolean containsKey ( final InvocationCtx ctx, final long key )
+    {
+        final LongLongHashMap map = ctx.getKVStore().getLongLongMapState( name, false );
+        return map != null && map.containsKey( key );
+    }
+
+    public void put ( final InvocationCtx ctx, final long key, final long value )
+    {
+        ctx.getKVStore().getLongLongMapState( name, true ).put( key, value );
+    }
+
+    /**
+     * Adds the given delta to the value of the given key and returns the new value. The value is assumed to be 0 if the key is not
+     * present.
+     */
+    public long add ( final InvocationCtx ctx, final long key, final long delta )
+    {
+        return ctx.getKVStore().getLongLongMapState( name, true ).add( key, delta );
+    }
+
+    public boolean remove ( final InvocationCtx ctx, final long key )
+    {
+        final LongLongHashMap map = ctx.getKVStore().getLongLongMapState( name, false );
+        return map != null && map.remove( key );
+    }
+
+    public int size ( final InvocationCtx ctx )
+    {
+        final LongLongHashMap map = ctx.getKVStore().getLongLongMapState( name, false );
+        return map != null ? map.size() : 0;
+    }
+
+    /**
+     * Returns the map which can be used for bulk reads and writes within the given invocation
+     */
+    public LongLongHashMap getMap ( final InvocationCtx ctx )
+    {
+        return ctx.getKVStore().getLongLongMapState( name, true );
+    }
+
+    public boolean clear ( final InvocationCtx ctx )
+    {
+        return ctx.getKVStore().deleteState( name );
+    }
+
+    @Override
+    public String toString ()
+    {
+        return "LongLongMapState{" + "name='" + name + '\'' + '}';
+    }
+
+}
@@ -0,0 +1,63 @@
+package cs.bilkent.joker.operator.kvstore;
+
+import cs.bilkent.joker.operator.InitCtx;
+import cs.bilkent.joker.operator.InvocationCtx;
+
+/**
+ * Handle of a {@code long} state which is kept without boxing. It is obtained once via {@link InitCtx#getLongValueState(String)} and
+ * used in invocations. The value is resolved against the {@link KVStore} of the given invocation, hence it is scoped to the partition
+ * key of the invocation for partitioned stateful operators.
+ */
+public final class LongValueState
+{
+
+    private final String name;
+
+    public LongValueState ( final String name )
+    {
+        this.name = name;
+    }
+
+    public String getName ()
+    {
+        return name;
+    }
+
+    /**
+     * Returns the value, or 0 if it is not present
+     */
+    public long get ( final InvocationCtx ctx )
+    {
+        return ctx.getKVStore().getLongState( name, 0 );
+    }
+
+    public long getOrDefault ( final InvocationCtx ctx, final long defaultVal )
+    {
+        return ctx.getKVStore().getLongState( name, defaultVal );
+    }
+
+    public void set ( final InvocationCtx ctx, final long value )
+    {
+        ctx.getKVStore().setLongState( name, value );
+    }
+
+    /**
+     * Adds the given delta to the value and returns the new value
+     */
+    public long add ( final InvocationCtx ctx, final long delta )
+    {
+        return ctx.getKVStore().addLongState( name, delta );
+    }
+
+    public boolean clear ( final InvocationCtx ctx )
+    {
+        return ctx.getKVStore().deleteState( name );
+    }
+
+    @Override
+    public String toString ()
+    {
+        return "LongValueState{" + "name='" + name + '\'' + '}';
+    }
+
+}
@@ -0,0 +1,27 @@
+package cs.bilkent.joker.operator.kvstore;
+
+import cs.bilkent.joker.operator.InvocationCtx;
+import cs.bilkent.joker.operator.spec.OperatorType;
+import cs.bilkent.joker.partition.impl.PartitionKey;
+
+/**
+ * Implemented by {@link OperatorType#PARTITIONED_STATEFUL} operators which have a {@link StateRetentionPolicy} to be notified when the
+ * states of a partition key are evicted, for instance to emit a final result for the partition key.
+ */
+public interface StateEvictionListener
+{
+
+    /**
+     * Called on the thread invoking the operator, after an invocation.
+     *
+     * @param key
+     *         evicted partition key
+     * @param kvStore
+     *         states of the evicted partition key, including its typed states. It is discarded after the method returns.
+     * @param ctx
+     *         invocation context which can be used for emitting output tuples. Its {@link InvocationCtx#getKVStore()} method must not
+     *         be used.
+     */
+    void onStateEvicted ( PartitionKey key, KVStore kvStore, InvocationCtx ctx );
+
+}
@@ -0,0 +1,99 @@
+package cs.bilkent.joker.operator.kvstore;
+
+import java.util.concurrent.TimeUnit;
+
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+import cs.bilkent.joker.operator.OperatorDefBuilder;
+import cs.bilkent.joker.operator.spec.OperatorType;
+
+/**
+ * Specifies how long the states of partition keys of a {@link OperatorType#PARTITIONED_STATEFUL} operator are retained. States of a
+ * partition key are evicted if the partition key is not accessed for the given time-to-live, or the number of partition keys in a
+ * partition exceeds the given limit, in which case the least recently accessed partition key is evicted. Expired partition keys are
+ * checked after each invocation of the operator, and at most {@link #getMaxEvictionsPerInvocation()} partition keys are evicted in an
+ * invocation so that the invocation latency is bounded.
+ * <p>
+ * If the operator implements {@link StateEvictionListener}, it is notified with the states of each evicted partition key.
+ *
+ * @see OperatorDefBuilder#setStateRetentionPolicy(StateRetentionPolicy)
+ */
+public final class StateRetentionPolicy
+{
+
+    public static final long NO_TTL = Long.MAX_VALUE;
+
+    public static final int NO_KEY_LIMIT = Integer.MAX_VALUE;
+
+    public static final int DEFAULT_MAX_EVICTIONS_PER_INVOCATION = 64;
+
+
+    public static StateRetentionPolicy expireAfterAccess ( final long duration, final TimeUnit unit )
+    {
+        return new StateRetentionPolicy( unit.toMillis( duration ), NO_KEY_LIMIT, DEFAULT_MAX_EVICTIONS_PER_INVOCATION );
+    }
+
+    public static StateRetentionPolicy maxKeysPerPartition ( final int maxKeysPerPartition )
+    {
+        return new StateRetentionPolicy( NO_TTL, maxKeysPerPartition, DEFAULT_MAX_EVICTIONS_PER_INVOCATION );
+    }
+
+
+    private final long ttlMillis;
+
+    private final int maxKeysPerPartition;
+
+    private final int maxEvictionsPerInvocation;
+
+    private StateRetentionPolicy ( final long ttlMillis, final int maxKeysPerPartition, final int maxEvictionsPerInvocation )
+    {
+        checkArgument( ttlMillis > 0, "invalid ttl millis: %s", ttlMillis );
+        checkArgument( maxKeysPerPartition > 0, "invalid max keys per partition: %s", maxKeysPerPartition );
+        checkArgument( maxEvictionsPerInvocation > 0, "invalid max evictions per invocation: %s", maxEvictionsPerInvocation );
+        this.ttlMillis = ttlMillis;
+        this.maxKeysPerPartition = maxKeysPerPartition;
+        this.maxEvictionsPerInvocation = maxEvictionsPerInvocation;
+    }
+
+    public StateRetentionPolicy withExpireAfterAccess ( final long duration, final TimeUnit unit )
+    {
+        return new StateRetentionPolicy( unit.toMillis( duration ), maxKeysPerPartition, maxEvictionsPerInvocation );
+    }
+
+    public StateRetentionPolicy withMaxKeysPerPartition ( final int maxKeysPerPartition )
+    {
+        return new StateRetentionPolicy( ttlMillis, maxKeysPerPartition, maxEvictionsPerInvocation );
+    }
+
+    public StateRetentionPolicy withMaxEvictionsPerInvocation ( final int maxEvictionsPerInvocation )
+    {
+        return new StateRetentionPolicy( ttlMillis, maxKeysPerPartition, maxEvictionsPerInvocation );
+    }
+
+    public long getTtlMillis ()
+    {
+        return ttlMillis;
+    }
+
+    public boolean hasTtl ()
+    {
+        return ttlMillis != NO_TTL;
+    }
+
+    public int getMaxKeysPerPartition ()
+    {
+        return maxKeysPerPartition;
+    }
+
+    public int getMaxEvictionsPerInvocation ()
+    {
+        return maxEvictionsPerInvocation;
+    }
+
+    @Override
+    public String toString ()
+    {
+        return "StateRetentionPolicy{" + "ttlMillis=" + ttlMillis + ", maxKeysPerPartition=" + maxKeysPerPartition
+               + ", maxEvictionsPerInvocation=" + maxEvictionsPerInvocation + '}';
+    }
+
+}
@@ -7,6 +7,7 @@ import java.util.List;
 import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
 import cs.bilkent.joker.operator.schema.annotation.OperatorSchema;
 import cs.bilkent.joker.operator.schema.annotation.PortSchema;
+import cs.bilkent.joker.operator.schema.annotation.PortSchemaScope;
 import static java.util.stream.Collectors.toList;
 
 /**
@@ -120,6 +121,40 @@ public final class OperatorRuntimeSchemaBuilder
         return this;
     }
 
+    /**
+     * Adds the given port schema to schema of the given input port. If the input port has no schema yet, the port schema is added with
+     * its {@link PortSchemaScope}. Otherwise, fields of the given port schema are added to the existing schema of the input port.
+     *
+     * @param portIndex
+     *         input port to add the port schema
+     * @param portSchema
+     *         port schema to add
+     *
+     * @return the current builder object
+     */
+    public OperatorRuntimeSchemaBuilder addInputPortSchema ( final int portIndex, final PortRuntimeSchema portSchema )
+    {
+        addPortSchema( inputSchemaBuilders, portIndex, portSchema );
+        return this;
+    }
+
+    /**
+     * Adds the given port schema to schema of the given output port. If the output port has no schema yet, the port schema is added with
+     * its {@link PortSchemaScope}. Otherwise, fields of the given port schema are added to the existing schema of the output port.
+     *
+     * @param portIndex
+     *         output port to add the port schema
+     * @param portSchema
+     *         port schema to add
+     *
+     * @return the current builder object
+     */
+    public OperatorRuntimeSchemaBuilder addOutputPortSchema ( final int portIndex, final PortRuntimeSchema portSchema )
+    {
+        addPortSchema( outputSchemaBuilders, portIndex, portSchema );
+        return this;
+    }
+
     /**
      * Builds the {@link OperatorRuntimeSchema} object for the operator using the field definitions given for input and output ports
      *
@@ -159,6 +194,24 @@ public final class OperatorRuntimeSchemaBuilder
         }
     }
 
+    private void addPortSchema ( final PortRuntimeSchemaBuilder[] builders, final int portIndex, final PortRuntimeSchema portSchema )
+    {
+        checkArgument( portSchema != null, "port schema must be provided" );
+        checkArgument( portIndex >= 0 && portIndex < builders.length,
+                       "invalid port index! port count: %s port index: %s",
+                       builders.length,
+                       portIndex );
+        final PortRuntimeSchemaBuilder builder = builders[ portIndex ];
+        if ( builder == null )
+        {
+            builders[ portIndex ] = new PortRuntimeSchemaBuilder( portSchema.getScope(), portSchema.getFields() );
+        }
+        else
+        {
+            portSchema.getFields().forEach( builder::addField );
+        }
+    }
+
     private PortRuntimeSchemaBuilder getOrCreate ( final PortRuntimeSchemaBuilder[] builders, final int portIndex )
     {
         checkArgument( portIndex >= 0 && portIndex < builders.length,
@@ -7,7 +7,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
 import cs.bilkent.joker.operator.schema.annotation.PortSchema;
+import cs.bilkent.joker.operator.schema.annotation.PortSchemaScope;
+import static cs.bilkent.joker.operator.schema.annotation.PortSchemaScope.EXTENDABLE_FIELD_SET;
 import static java.util.Collections.unmodifiableList;
 
 
@@ -17,18 +20,36 @@ import static java.util.Collections.unmodifiableList;
 public final class PortRuntimeSchema implements TupleSchema
 {
 
+    private final PortSchemaScope scope;
+
     private final List<RuntimeSchemaField> fields;
 
     private final Map<String, Integer> fieldIndices = new HashMap<>();
 
     /**
-     * Creates the {@code PortRuntimeSchema} using the given field definitions. Sorts the fields by field name.
+     * Creates the {@code PortRuntimeSchema} with {@link PortSchemaScope#EXTENDABLE_FIELD_SET} scope using the given field definitions.
+     * Sorts the fields by field name.
      *
      * @param fields
      *         to be included in the created {@code PortRuntimeSchema}
      */
     public PortRuntimeSchema ( final List<RuntimeSchemaField> fields )
     {
+        this( EXTENDABLE_FIELD_SET, fields );
+    }
+
+    /**
+     * Creates the {@code PortRuntimeSchema} with the given scope using the given field definitions. Sorts the fields by field name.
+     *
+     * @param scope
+     *         scope of the created {@code PortRuntimeSchema}
+     * @param fields
+     *         to be included in the created {@code PortRuntimeSchema}
+     */
+    public PortRuntimeSchema ( final PortSchemaScope scope, final List<RuntimeSchemaField> fields )
+    {
+        checkArgument( scope != null, "scope can't be null" );
+        this.scope = scope;
         final ArrayList<RuntimeSchemaField> f = new ArrayList<>( fields );
         f.sort( Comparator.comparing( RuntimeSchemaField::getName ) );
         this.fields = unmodifiableList( f );
@@ -38,6 +59,16 @@ public final class PortRuntimeSchema implements TupleSchema
         }
     }
 
+    /**
+     * Returns scope of the port schema
+     *
+     * @return scope of the port schema
+     */
+    public PortSchemaScope getScope ()
+    {
+        return scope;
+    }
+
     /**
      * Returns the number of fields in the port schema
      *
@@ -144,7 +175,7 @@ public final class PortRuntimeSchema implements TupleSchema
     @Override
     public String toString ()
     {
-        return "PortRuntimeSchema{" + fields + '}';
+        return "PortRuntimeSchema{" + "scope=" + scope + ", fields=" + fields + '}';
     }
 
 }
@@ -89,7 +89,7 @@ public final class PortRuntimeSchemaBuilder
      */
     public PortRuntimeSchema build ()
     {
-        return new PortRuntimeSchema( fields );
+        return new PortRuntimeSchema( scope, fields );
     }
 
 }
@@ -5,6 +5,10 @@ import java.util.List;
 public interface PartitionKey extends List<Object>
 {
 
+    /**
+     * Returns the hash code used for mapping the partition key to a partition. Unlike {@link #hashCode()}, which is the same as the hash
+     * code of a list with the same elements, long and int values are mixed before they are combined. See {@link PartitionKeyUtil}.
+     */
     int partitionHashCode ();
 
 }
@@ -4,6 +4,7 @@ import java.util.AbstractList;
 import java.util.List;
 
 import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.hashHead;
+import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.listHashHead;
 
 public class PartitionKey1 extends AbstractList<Object> implements PartitionKey
 {
@@ -12,16 +13,19 @@ public class PartitionKey1 extends AbstractList<Object> implements PartitionKey
 
     private final int hashCode;
 
+    private final int partitionHashCode;
+
     public PartitionKey1 ( final Object val0 )
     {
         this.val0 = val0;
-        this.hashCode = computeHashCode( val0 );
+        this.hashCode = listHashHead( val0 );
+        this.partitionHashCode = computeHashCode( val0 );
     }
 
     @Override
     public int partitionHashCode ()
     {
-        return hashCode;
+        return partitionHashCode;
     }
 
     @Override
@@ -5,6 +5,8 @@ import java.util.List;
 
 import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.hashHead;
 import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.hashTail;
+import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.listHashHead;
+import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.listHashTail;
 
 public class PartitionKey2 extends AbstractList<Object> implements PartitionKey
 {
@@ -15,17 +17,20 @@ public class PartitionKey2 extends AbstractList<Object> implements PartitionKey
 
     private final int hashCode;
 
+    private final int partitionHashCode;
+
     public PartitionKey2 ( final Object val0, final Object val1 )
     {
         this.val0 = val0;
         this.val1 = val1;
-        this.hashCode = computeHashCode( val0, val1 );
+        this.hashCode = listHashTail( listHashHead( val0 ), val1 );
+        this.partitionHashCode = computeHashCode( val0, val1 );
     }
 
     @Override
     public int partitionHashCode ()
     {
-        return hashCode;
+        return partitionHashCode;
     }
 
     @Override
@@ -5,6 +5,8 @@ import java.util.List;
 
 import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.hashHead;
 import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.hashTail;
+import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.listHashHead;
+import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.listHashTail;
 
 public class PartitionKey3 extends AbstractList<Object> implements PartitionKey
 {
@@ -17,18 +19,21 @@ public class PartitionKey3 extends AbstractList<Object> implements PartitionKey
 
     private final int hashCode;
 
+    private final int partitionHashCode;
+
     public PartitionKey3 ( final Object val0, final Object val1, final Object val2 )
     {
         this.val0 = val0;
         this.val1 = val1;
         this.val2 = val2;
-        this.hashCode = computeHashCode( val0, val1, val2 );
+        this.hashCode = listHashTail( listHashTail( listHashHead( val0 ), val1 ), val2 );
+        this.partitionHashCode = computeHashCode( val0, val1, val2 );
     }
 
     @Override
     public int partitionHashCode ()
     {
-        return hashCode;
+        return partitionHashCode;
     }
 
     @Override
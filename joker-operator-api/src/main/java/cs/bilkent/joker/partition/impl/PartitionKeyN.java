@@ -7,6 +7,8 @@ import java.util.List;
 import cs.bilkent.joker.operator.Tuple;
 import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.hashHead;
 import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.hashTail;
+import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.listHashHead;
+import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.listHashTail;
 import static cs.bilkent.joker.partition.impl.PartitionKeyUtil.rangeCheck;
 
 public class PartitionKeyN extends AbstractList<Object> implements PartitionKey
@@ -16,28 +18,33 @@ public class PartitionKeyN extends AbstractList<Object> implements PartitionKey
 
     private final int hashCode;
 
+    private final int partitionHashCode;
+
     public PartitionKeyN ( final Tuple tuple, final List<String> partitionFieldNames )
     {
         final int j = partitionFieldNames.size();
         this.values = new Object[ j ];
 
         final Object headVal = tuple.getObject( partitionFieldNames.get( 0 ) );
-        int hashCode = hashHead( headVal );
+        int hashCode = listHashHead( headVal );
+        int partitionHashCode = hashHead( headVal );
         this.values[ 0 ] = headVal;
         for ( int i = 1; i < j; i++ )
         {
             final Object val = tuple.getObject( partitionFieldNames.get( i ) );
             this.values[ i ] = val;
-            hashCode = hashTail( hashCode, val );
+            hashCode = listHashTail( hashCode, val );
+            partitionHashCode = hashTail( partitionHashCode, val );
         }
 
         this.hashCode = hashCode;
+        this.partitionHashCode = partitionHashCode;
     }
 
     @Override
     public int partitionHashCode ()
     {
-        return hashCode;
+        return partitionHashCode;
     }
 
     @Override
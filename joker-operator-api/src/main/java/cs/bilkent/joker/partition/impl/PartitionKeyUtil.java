@@ -7,6 +7,10 @@ package cs.bilkent.joker.partition.impl;
  * for (E e : list)
  *     hashCode = 31*hashCode + (e==null ? 0 : e.hashCode());
  *
+ * Partition keys are lists, hence their hash codes are computed as above with listHashHead() and listHashTail(), so that they are
+ * consistent with equals(). Partition hash codes are computed in the same way with hashHead() and hashTail(), but with hashValue(e) instead
+ * of e.hashCode(). hashValue(e) is e.hashCode() except for long and int values, which are mixed with the murmur3 64-bit finalizer, since
+ * Long.hashCode() and Integer.hashCode() map sequential ids and ids with structured high bits to clustered partitions.
  *
  */
 public final class PartitionKeyUtil
@@ -24,14 +28,68 @@ public final class PartitionKeyUtil
         }
     }
 
-    public static int hashHead ( final Object val )
+    public static int listHashHead ( final Object val )
     {
         return 31 + val.hashCode();
     }
 
-    public static int hashTail ( final int headHashCode, final Object val )
+    public static int listHashTail ( final int headHashCode, final Object val )
     {
         return 31 * headHashCode + val.hashCode();
     }
 
+    public static int listHashCode ( final Object[] values )
+    {
+        int hashCode = listHashHead( values[ 0 ] );
+        for ( int i = 1; i < values.length; i++ )
+        {
+            hashCode = listHashTail( hashCode, values[ i ] );
+        }
+
+        return hashCode;
+    }
+
+    public static int hashHead ( final Object val )
+    {
+        return 31 + hashValue( val );
+    }
+
+    public static int hashTail ( final int headHashCode, final Object val )
+    {
+        return 31 * headHashCode + hashValue( val );
+    }
+
+    public static int hashHead ( final long val )
+    {
+        return 31 + hashLong( val );
+    }
+
+    public static int hashValue ( final Object val )
+    {
+        if ( val instanceof Long )
+        {
+            return hashLong( (Long) val );
+        }
+        else if ( val instanceof Integer )
+        {
+            return hashLong( (Integer) val );
+        }
+
+        return val.hashCode();
+    }
+
+    /**
+     * Mixes all bits of the given value with the murmur3 64-bit finalizer and folds the result into an int
+     */
+    public static int hashLong ( final long val )
+    {
+        long h = val;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) ( h ^ ( h >>> 32 ) );
+    }
+
 }
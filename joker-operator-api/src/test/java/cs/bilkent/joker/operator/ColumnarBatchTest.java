@@ -0,0 +1,123 @@
+package cs.bilkent.joker.operator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static cs.bilkent.joker.operator.schema.annotation.PortSchemaScope.EXACT_FIELD_SET;
+import cs.bilkent.joker.operator.schema.runtime.PortRuntimeSchema;
+import cs.bilkent.joker.operator.schema.runtime.RuntimeSchemaField;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+
+public class ColumnarBatchTest extends AbstractJokerTest
+{
+
+    private final PortRuntimeSchema schema = new PortRuntimeSchema( EXACT_FIELD_SET,
+                                                                    asList( new RuntimeSchemaField( "count", Integer.class ),
+                                                                            new RuntimeSchemaField( "price", Double.class ) ) );
+
+    private final ColumnarBatch batch = new ColumnarBatch( schema );
+
+    @Test
+    public void shouldMaterializeColumns ()
+    {
+        batch.reset( asList( createTuple( 1, 1.5 ), createTuple( 2, 2.5 ), createTuple( 3, 3.5 ) ) );
+
+        final long[] counts = batch.getLongColumn( "count" );
+        final double[] prices = batch.getDoubleColumn( "price" );
+
+        assertThat( batch.size(), equalTo( 3 ) );
+        for ( int i = 0; i < batch.size(); i++ )
+        {
+            assertThat( counts[ i ], equalTo( (long) ( i + 1 ) ) );
+            assertThat( prices[ i ], equalTo( i + 1.5 ) );
+        }
+    }
+
+    @Test
+    public void shouldMaterializeMissingValuesAsZero ()
+    {
+        final Tuple tuple = new Tuple( schema );
+        tuple.set( "count", 5 );
+        batch.reset( singletonList( tuple ) );
+
+        assertThat( batch.getDoubleColumn( "price" )[ 0 ], equalTo( 0d ) );
+    }
+
+    @Test
+    public void shouldMaterializeColumnsOfTuplesWithDifferentSchema ()
+    {
+        batch.reset( asList( Tuple.of( "count", 1, "price", 1.5 ), createTuple( 2, 2.5 ) ) );
+
+        final double[] prices = batch.getDoubleColumn( "price" );
+
+        assertThat( prices[ 0 ], equalTo( 1.5 ) );
+        assertThat( prices[ 1 ], equalTo( 2.5 ) );
+    }
+
+    @Test
+    public void shouldMaterializeColumnOnlyOnceAfterReset ()
+    {
+        final List<Tuple> tuples = new ArrayList<>( singletonList( createTuple( 1, 1.5 ) ) );
+        batch.reset( tuples );
+
+        final long[] counts = batch.getLongColumn( "count" );
+        tuples.get( 0 ).set( "count", 10 );
+
+        assertThat( batch.getLongColumn( "count" ), sameInstance( counts ) );
+        assertThat( batch.getLongColumn( "count" )[ 0 ], equalTo( 1L ) );
+
+        batch.reset( tuples );
+
+        assertThat( batch.getLongColumn( "count" )[ 0 ], equalTo( 10L ) );
+    }
+
+    @Test
+    public void shouldSelectAllTuplesAfterReset ()
+    {
+        batch.reset( asList( createTuple( 1, 1.5 ), createTuple( 2, 2.5 ) ) );
+        batch.getSelection()[ 0 ] = 1;
+        batch.setSelectedCount( 1 );
+
+        assertThat( batch.getSelectedTuple( 0 ), sameInstance( batch.getTuple( 1 ) ) );
+
+        batch.reset( asList( createTuple( 1, 1.5 ), createTuple( 2, 2.5 ), createTuple( 3, 3.5 ) ) );
+
+        assertThat( batch.getSelectedCount(), equalTo( 3 ) );
+        for ( int i = 0; i < batch.size(); i++ )
+        {
+            assertThat( batch.getSelectedTuple( i ), sameInstance( batch.getTuple( i ) ) );
+        }
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotSetSelectedCountLargerThanBatchSize ()
+    {
+        batch.reset( singletonList( createTuple( 1, 1.5 ) ) );
+
+        batch.setSelectedCount( 2 );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotGetColumnOfFieldNotPresentInSchema ()
+    {
+        batch.reset( singletonList( createTuple( 1, 1.5 ) ) );
+
+        batch.getLongColumn( "volume" );
+    }
+
+    private Tuple createTuple ( final int count, final double price )
+    {
+        final Tuple tuple = new Tuple( schema );
+        tuple.set( "count", count ).set( "price", price );
+        return tuple;
+    }
+
+}
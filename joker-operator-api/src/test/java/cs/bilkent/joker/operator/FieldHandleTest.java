@@ -0,0 +1,105 @@
+package cs.bilkent.joker.operator;
+
+import org.junit.Test;
+
+import cs.bilkent.joker.operator.schema.runtime.PortRuntimeSchema;
+import cs.bilkent.joker.operator.schema.runtime.RuntimeSchemaField;
+import static cs.bilkent.joker.operator.schema.runtime.TupleSchema.FIELD_NOT_FOUND;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+public class FieldHandleTest extends AbstractJokerTest
+{
+
+    private final PortRuntimeSchema schema1 = new PortRuntimeSchema( asList( new RuntimeSchemaField( "field1", Integer.class ),
+                                                                             new RuntimeSchemaField( "field2", Double.class ) ) );
+
+    private final PortRuntimeSchema schema2 = new PortRuntimeSchema( asList( new RuntimeSchemaField( "field0", String.class ),
+                                                                             new RuntimeSchemaField( "field2", Double.class ) ) );
+
+    @Test
+    public void shouldResolveFieldIndexInSchema ()
+    {
+        final FieldHandle<Double> handle = FieldHandle.of( schema1, "field2" );
+
+        assertThat( handle.getFieldIndex(), equalTo( schema1.getFieldIndex( "field2" ) ) );
+    }
+
+    @Test
+    public void shouldGetAndSetFieldInSchema ()
+    {
+        final FieldHandle<Double> handle = FieldHandle.of( schema1, "field2" );
+        final Tuple tuple = new Tuple( schema1 );
+
+        assertNull( handle.get( tuple ) );
+        assertFalse( handle.contains( tuple ) );
+
+        handle.set( tuple, 5d );
+
+        assertThat( handle.get( tuple ), equalTo( 5d ) );
+        assertThat( tuple.getDouble( "field2" ), equalTo( 5d ) );
+        assertTrue( handle.contains( tuple ) );
+    }
+
+    @Test
+    public void shouldResolveFieldForTupleWithDifferentSchema ()
+    {
+        final FieldHandle<Double> handle = FieldHandle.of( schema1, "field2" );
+        final Tuple tuple1 = new Tuple( schema1 ).set( "field2", 1d );
+        final Tuple tuple2 = new Tuple( schema2 ).set( "field2", 2d );
+
+        assertThat( handle.get( tuple1 ), equalTo( 1d ) );
+        assertThat( handle.get( tuple2 ), equalTo( 2d ) );
+        assertThat( handle.getFieldIndex(), equalTo( schema2.getFieldIndex( "field2" ) ) );
+        assertThat( handle.get( tuple1 ), equalTo( 1d ) );
+    }
+
+    @Test
+    public void shouldAccessFieldNotPresentInSchema ()
+    {
+        final FieldHandle<String> handle = FieldHandle.of( schema1, "field3" );
+        final Tuple tuple = new Tuple( schema1 );
+
+        assertThat( handle.getFieldIndex(), equalTo( FIELD_NOT_FOUND ) );
+        assertNull( handle.get( tuple ) );
+
+        handle.set( tuple, "val" );
+
+        assertThat( handle.get( tuple ), equalTo( "val" ) );
+        assertThat( tuple.getString( "field3" ), equalTo( "val" ) );
+    }
+
+    @Test
+    public void shouldAccessFieldOfTupleWithEmptySchema ()
+    {
+        final FieldHandle<Integer> handle = FieldHandle.of( schema1, "field1" );
+        final Tuple tuple = Tuple.of( "field1", 3 );
+
+        assertThat( handle.get( tuple ), equalTo( 3 ) );
+        assertThat( handle.getDoubleValueOrDefault( tuple, 0d ), equalTo( 3d ) );
+        assertThat( handle.getLongValueOrDefault( new Tuple(), 4L ), equalTo( 4L ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotSetNullValueToFieldInSchema ()
+    {
+        final FieldHandle<Integer> handle = FieldHandle.of( schema1, "field1" );
+
+        handle.set( new Tuple( schema1 ), null );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldFailForMissingField ()
+    {
+        final FieldHandle<Integer> handle = FieldHandle.of( schema1, "field1" );
+
+        handle.getOrFail( new Tuple( schema1 ) );
+    }
+
+}
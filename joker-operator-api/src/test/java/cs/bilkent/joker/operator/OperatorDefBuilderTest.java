@@ -11,6 +11,9 @@ import cs.bilkent.joker.flow.FlowDefBuilderTest.StatefulOperatorWithInvalidInput
 import cs.bilkent.joker.flow.FlowDefBuilderTest.StatefulOperatorWithInvalidOutputPortCount;
 import cs.bilkent.joker.flow.FlowDefBuilderTest.StatelessOperatorWithDynamicPortCounts;
 import static cs.bilkent.joker.flow.Port.DEFAULT_PORT_INDEX;
+import cs.bilkent.joker.operator.kvstore.StateRetentionPolicy;
+import static cs.bilkent.joker.operator.kvstore.StateRetentionPolicy.expireAfterAccess;
+import static cs.bilkent.joker.operator.kvstore.StateRetentionPolicy.maxKeysPerPartition;
 import cs.bilkent.joker.operator.schema.annotation.OperatorSchema;
 import cs.bilkent.joker.operator.schema.annotation.PortSchema;
 import static cs.bilkent.joker.operator.schema.annotation.PortSchemaScope.EXACT_FIELD_SET;
@@ -26,11 +29,15 @@ import static cs.bilkent.joker.operator.spec.OperatorType.PARTITIONED_STATEFUL;
 import static cs.bilkent.joker.operator.spec.OperatorType.STATELESS;
 import cs.bilkent.joker.test.AbstractJokerTest;
 import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 
 public class OperatorDefBuilderTest extends AbstractJokerTest
@@ -228,6 +235,25 @@ public class OperatorDefBuilderTest extends AbstractJokerTest
                           .setPartitionFieldNames( singletonList( "field1" ) );
     }
 
+    @Test( expected = IllegalStateException.class )
+    public void shouldNotSetStateRetentionPolicyToStatefulOperator ()
+    {
+        OperatorDefBuilder.newInstance( "op1", StatefulOperatorWithFixedPortCounts.class )
+                          .setStateRetentionPolicy( maxKeysPerPartition( 10 ) );
+    }
+
+    @Test
+    public void shouldSetStateRetentionPolicyToPartitionedStatefulOperator ()
+    {
+        final StateRetentionPolicy retentionPolicy = expireAfterAccess( 1, MINUTES );
+        final OperatorDef operatorDef = OperatorDefBuilder.newInstance( "op1", PartitionedStatefulOperatorWithExactInputPortSchema.class )
+                                                          .setPartitionFieldNames( singletonList( "field1" ) )
+                                                          .setStateRetentionPolicy( retentionPolicy )
+                                                          .build();
+
+        assertThat( operatorDef.getStateRetentionPolicy(), equalTo( retentionPolicy ) );
+    }
+
     @Test( expected = IllegalStateException.class )
     public void shouldNotSetPartitionFieldNamesToStatefulOperator ()
     {
@@ -402,6 +428,54 @@ public class OperatorDefBuilderTest extends AbstractJokerTest
         }
     }
 
+    @Test
+    public void shouldShareRuntimeSchemaOfOperatorDefsWithoutExtendingSchema ()
+    {
+        final OperatorDef definition1 = OperatorDefBuilder.newInstance( "op1", PartitionedStatefulOperatorWithExactInputPortSchema.class )
+                                                          .setPartitionFieldNames( singletonList( "field1" ) )
+                                                          .build();
+        final OperatorDef definition2 = OperatorDefBuilder.newInstance( "op2", PartitionedStatefulOperatorWithExactInputPortSchema.class )
+                                                          .setPartitionFieldNames( singletonList( "field1" ) )
+                                                          .build();
+
+        assertSame( definition1.getSchema(), definition2.getSchema() );
+    }
+
+    @Test
+    public void shouldNotShareRuntimeSchemaOfOperatorDefsWithExtendingSchema ()
+    {
+        final OperatorRuntimeSchemaBuilder schemaBuilder = new OperatorRuntimeSchemaBuilder( 1, 1 );
+        schemaBuilder.addOutputField( DEFAULT_PORT_INDEX, "field3", boolean.class );
+
+        final OperatorDef definition1 = OperatorDefBuilder.newInstance( "op1", PartitionedStatefulOperatorWithExactInputPortSchema.class )
+                                                          .setPartitionFieldNames( singletonList( "field1" ) )
+                                                          .build();
+        final OperatorDef definition2 = OperatorDefBuilder.newInstance( "op2", PartitionedStatefulOperatorWithExactInputPortSchema.class )
+                                                          .setExtendingSchema( schemaBuilder )
+                                                          .setPartitionFieldNames( singletonList( "field1" ) )
+                                                          .build();
+
+        assertNotSame( definition1.getSchema(), definition2.getSchema() );
+        assertThat( definition1.getSchema().getOutputSchema( DEFAULT_PORT_INDEX ).getFields(), hasSize( 1 ) );
+        assertThat( definition2.getSchema().getOutputSchema( DEFAULT_PORT_INDEX ).getFields(), hasSize( 2 ) );
+    }
+
+    @Test
+    public void shouldFailOnEachBuilderCreationForInvalidOperator ()
+    {
+        for ( int i = 0; i < 2; i++ )
+        {
+            try
+            {
+                OperatorDefBuilder.newInstance( "op1", OperatorWithDuplicateInputPortSchema.class );
+                fail();
+            }
+            catch ( IllegalArgumentException expected )
+            {
+            }
+        }
+    }
+
     @OperatorSpec( type = PARTITIONED_STATEFUL, inputPortCount = 1, outputPortCount = 1 )
     @OperatorSchema( inputs = { @PortSchema( portIndex = DEFAULT_PORT_INDEX, scope = EXACT_FIELD_SET, fields = { @SchemaField( name = "field1", type = int.class ) } ) }, outputs = {
             @PortSchema( portIndex = DEFAULT_PORT_INDEX, scope = EXTENDABLE_FIELD_SET, fields = { @SchemaField( name = "field2", type = long.class ) } ) } )
@@ -0,0 +1,364 @@
+package cs.bilkent.joker.operator.codec;
+
+import java.util.List;
+
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import cs.bilkent.joker.operator.Tuple;
+import static cs.bilkent.joker.operator.codec.TupleCodec.utf8Length;
+import static cs.bilkent.joker.operator.schema.annotation.PortSchemaScope.EXACT_FIELD_SET;
+import static cs.bilkent.joker.operator.schema.annotation.PortSchemaScope.EXTENDABLE_FIELD_SET;
+import cs.bilkent.joker.operator.schema.runtime.PortRuntimeSchema;
+import cs.bilkent.joker.operator.schema.runtime.RuntimeSchemaField;
+import cs.bilkent.joker.operator.utils.Pair;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertArrayEquals;
+
+public class TupleCodecTest extends AbstractJokerTest
+{
+
+    private static final FieldCodec<Pair> PAIR_CODEC = new FieldCodec<Pair>()
+    {
+        @Override
+        public int encode ( final MutableDirectBuffer buffer, final int offset, final Pair value )
+        {
+            buffer.putInt( offset, (Integer) value._1 );
+            buffer.putInt( offset + 4, (Integer) value._2 );
+            return 8;
+        }
+
+        @Override
+        public Pair decode ( final DirectBuffer buffer, final int offset, final int length )
+        {
+            assertThat( length, equalTo( 8 ) );
+            return Pair.of( buffer.getInt( offset ), buffer.getInt( offset + 4 ) );
+        }
+    };
+
+
+    private final PortRuntimeSchema schema = new PortRuntimeSchema( EXACT_FIELD_SET,
+                                                                    asList( new RuntimeSchemaField( "bool", Boolean.class ),
+                                                                            new RuntimeSchemaField( "byte", Byte.class ),
+                                                                            new RuntimeSchemaField( "short", Short.class ),
+                                                                            new RuntimeSchemaField( "char", Character.class ),
+                                                                            new RuntimeSchemaField( "int", Integer.class ),
+                                                                            new RuntimeSchemaField( "long", Long.class ),
+                                                                            new RuntimeSchemaField( "float", Float.class ),
+                                                                            new RuntimeSchemaField( "double", double.class ),
+                                                                            new RuntimeSchemaField( "str", String.class ),
+                                                                            new RuntimeSchemaField( "bytes", byte[].class ) ) );
+
+    private final CodecRegistry registry = new CodecRegistry();
+
+    private final UnsafeBuffer buffer = new UnsafeBuffer( new byte[ 1024 ] );
+
+    @Test
+    public void shouldEncodeAndDecodeBuiltInTypes ()
+    {
+        final TupleCodec codec = new TupleCodec( schema, registry );
+        final Tuple tuple = new Tuple( schema );
+        tuple.set( "bool", true )
+             .set( "byte", (byte) -3 )
+             .set( "short", (short) -300 )
+             .set( "char", 'ç' )
+             .set( "int", Integer.MIN_VALUE )
+             .set( "long", Long.MAX_VALUE )
+             .set( "float", 1.5f )
+             .set( "double", -2.25d )
+             .set( "str", "joker ç€😀" )
+             .set( "bytes", new byte[] { 1, 2, 3 } );
+
+        final int length = codec.encode( tuple, buffer, 10 );
+        final Tuple decoded = new Tuple( schema );
+
+        assertThat( codec.decode( buffer, 10, decoded ), equalTo( length ) );
+        assertThat( decoded.getBoolean( "bool" ), equalTo( true ) );
+        assertThat( decoded.get( "byte" ), equalTo( (byte) -3 ) );
+        assertThat( decoded.get( "short" ), equalTo( (short) -300 ) );
+        assertThat( decoded.get( "char" ), equalTo( 'ç' ) );
+        assertThat( decoded.getInteger( "int" ), equalTo( Integer.MIN_VALUE ) );
+        assertThat( decoded.getLong( "long" ), equalTo( Long.MAX_VALUE ) );
+        assertThat( decoded.getFloat( "float" ), equalTo( 1.5f ) );
+        assertThat( decoded.getDouble( "double" ), equalTo( -2.25d ) );
+        assertThat( decoded.getString( "str" ), equalTo( "joker ç€😀" ) );
+        assertArrayEquals( new byte[] { 1, 2, 3 }, decoded.get( "bytes" ) );
+    }
+
+    @Test
+    public void shouldSkipNullFields ()
+    {
+        final TupleCodec codec = new TupleCodec( schema, registry );
+        final Tuple tuple = new Tuple( schema );
+        tuple.set( "int", 1 ).set( "str", "a" );
+
+        codec.encode( tuple, buffer, 0 );
+        final Tuple decoded = codec.decode( buffer, 0 );
+
+        assertThat( decoded, equalTo( tuple ) );
+        assertThat( decoded.get( "long" ), nullValue() );
+    }
+
+    @Test
+    public void shouldEncodeSmallIntegersWithSingleByte ()
+    {
+        final PortRuntimeSchema schema = new PortRuntimeSchema( EXACT_FIELD_SET, singletonList( new RuntimeSchemaField( "int", int.class ) ) );
+        final TupleCodec codec = new TupleCodec( schema, registry );
+
+        // fingerprint + bitmap + value + extra field count
+        assertThat( codec.encode( Tuple.of( schema, "int", -1 ), buffer, 0 ), equalTo( 4 + 1 + 1 + 1 ) );
+    }
+
+    @Test
+    public void shouldEncodeExtraFields ()
+    {
+        final PortRuntimeSchema schema = new PortRuntimeSchema( EXTENDABLE_FIELD_SET,
+                                                                singletonList( new RuntimeSchemaField( "key", String.class ) ) );
+        registry.register( CodecRegistry.MIN_USER_TYPE_ID, Pair.class, PAIR_CODEC );
+        final TupleCodec codec = new TupleCodec( schema, registry );
+        final Tuple tuple = Tuple.of( schema, "key", "k1", "count", 5L, "pair", Pair.of( 1, 2 ) );
+
+        final int length = codec.encode( tuple, buffer, 0 );
+        final Tuple decoded = new Tuple( schema );
+
+        assertThat( codec.decode( buffer, 0, decoded ), equalTo( length ) );
+        assertThat( decoded, equalTo( tuple ) );
+    }
+
+    @Test
+    public void shouldEncodeTuplesWithoutSchema ()
+    {
+        final TupleCodec codec = new TupleCodec( new PortRuntimeSchema( emptyList() ), registry );
+        final Tuple tuple = Tuple.of( "a", 1, "b", "x" );
+
+        codec.encode( tuple, buffer, 0 );
+        final Tuple decoded = new Tuple();
+        codec.decode( buffer, 0, decoded );
+
+        assertThat( decoded, equalTo( tuple ) );
+    }
+
+    @Test
+    public void shouldEncodeSchemaFieldsWithAbstractTypesWithRuntimeTypes ()
+    {
+        final PortRuntimeSchema schema = new PortRuntimeSchema( EXACT_FIELD_SET,
+                                                                asList( new RuntimeSchemaField( "n1", Number.class ),
+                                                                        new RuntimeSchemaField( "n2", Number.class ) ) );
+        final TupleCodec codec = new TupleCodec( schema, registry );
+        final Tuple tuple = Tuple.of( schema, "n1", 3, "n2", 4.5d );
+
+        codec.encode( tuple, buffer, 0 );
+
+        assertThat( codec.decode( buffer, 0 ), equalTo( tuple ) );
+    }
+
+    @Test
+    public void shouldEncodeSchemaFieldsWithUserTypes ()
+    {
+        registry.register( CodecRegistry.MIN_USER_TYPE_ID, Pair.class, PAIR_CODEC );
+        final PortRuntimeSchema schema = new PortRuntimeSchema( EXACT_FIELD_SET,
+                                                                singletonList( new RuntimeSchemaField( "pair", Pair.class ) ) );
+        final TupleCodec codec = new TupleCodec( schema, registry );
+        final Tuple tuple = Tuple.of( schema, "pair", Pair.of( 3, 4 ) );
+
+        assertThat( codec.encode( tuple, buffer, 0 ), equalTo( 4 + 1 + 4 + 8 + 1 ) );
+        assertThat( codec.decode( buffer, 0 ), equalTo( tuple ) );
+    }
+
+    @Test
+    public void shouldEncodeNestedTuplesWithSameCodec ()
+    {
+        final PortRuntimeSchema schema = new PortRuntimeSchema( EXACT_FIELD_SET,
+                                                                asList( new RuntimeSchemaField( "id", Integer.class ),
+                                                                        new RuntimeSchemaField( "child", Tuple.class ),
+                                                                        new RuntimeSchemaField( "name", String.class ) ) );
+        final TupleCodec[] codec = new TupleCodec[ 1 ];
+        registry.register( CodecRegistry.MIN_USER_TYPE_ID, Tuple.class, new FieldCodec<Tuple>()
+        {
+            @Override
+            public int encode ( final MutableDirectBuffer buffer, final int offset, final Tuple value )
+            {
+                return codec[ 0 ].encode( value, buffer, offset );
+            }
+
+            @Override
+            public Tuple decode ( final DirectBuffer buffer, final int offset, final int length )
+            {
+                return codec[ 0 ].decode( buffer, offset );
+            }
+        } );
+        codec[ 0 ] = new TupleCodec( schema, registry );
+        final Tuple grandChild = Tuple.of( schema, "id", 3, "name", "c" );
+        final Tuple child = Tuple.of( schema, "id", 2, "child", grandChild, "name", "b" );
+        final Tuple tuple = Tuple.of( schema, "id", 1, "child", child, "name", "a" );
+
+        final int length = codec[ 0 ].encode( tuple, buffer, 0 );
+        final Tuple decoded = new Tuple( schema );
+
+        assertThat( codec[ 0 ].decode( buffer, 0, decoded ), equalTo( length ) );
+        assertThat( decoded, equalTo( tuple ) );
+    }
+
+    @Test
+    public void shouldEncodeConsecutiveTuplesToExpandableBuffer ()
+    {
+        final TupleCodec codec = new TupleCodec( schema, registry );
+        final ExpandableArrayBuffer buffer = new ExpandableArrayBuffer( 4 );
+        final List<Tuple> tuples = asList( Tuple.of( schema, "int", 1, "str", "first" ),
+                                           Tuple.of( schema, "long", 2L ),
+                                           Tuple.of( schema, "str", "third", "double", 3d ) );
+
+        int offset = 0;
+        for ( Tuple tuple : tuples )
+        {
+            offset += codec.encode( tuple, buffer, offset );
+        }
+
+        offset = 0;
+        for ( Tuple tuple : tuples )
+        {
+            final Tuple decoded = new Tuple( schema );
+            offset += codec.decode( buffer, offset, decoded );
+            assertThat( decoded, equalTo( tuple ) );
+        }
+    }
+
+    @Test
+    public void shouldComputeEncodedLengthOfSchemaFields ()
+    {
+        final TupleCodec codec = new TupleCodec( schema, registry );
+        final Tuple tuple = new Tuple( schema );
+        tuple.set( "bool", false )
+             .set( "byte", (byte) 1 )
+             .set( "short", Short.MIN_VALUE )
+             .set( "char", '€' )
+             .set( "int", 64 )
+             .set( "long", Long.MIN_VALUE )
+             .set( "float", 1f )
+             .set( "double", 2d )
+             .set( "str", "joker ç€😀" )
+             .set( "bytes", new byte[ 200 ] );
+
+        assertThat( codec.getEncodedLength( tuple ), equalTo( codec.encode( tuple, buffer, 0 ) ) );
+        assertThat( codec.getEncodedLength( new Tuple( schema ) ), equalTo( codec.encode( new Tuple( schema ), buffer, 0 ) ) );
+    }
+
+    @Test
+    public void shouldComputeEncodedLengthOfExtraFieldsAndUserTypes ()
+    {
+        final PortRuntimeSchema schema = new PortRuntimeSchema( EXTENDABLE_FIELD_SET,
+                                                                asList( new RuntimeSchemaField( "n", Number.class ),
+                                                                        new RuntimeSchemaField( "pair", Pair.class ) ) );
+        registry.register( CodecRegistry.MIN_USER_TYPE_ID, Pair.class, PAIR_CODEC );
+        final TupleCodec codec = new TupleCodec( schema, registry );
+        final Tuple tuple = Tuple.of( schema, "n", 4.5d, "pair", Pair.of( 1, 2 ), "ç", 300L, "other", Pair.of( 3, 4 ) );
+
+        assertThat( codec.getEncodedLength( tuple ), equalTo( codec.encode( tuple, buffer, 0 ) ) );
+    }
+
+    @Test
+    public void shouldComputeEncodedLengthOfNestedTuples ()
+    {
+        final PortRuntimeSchema schema = new PortRuntimeSchema( EXACT_FIELD_SET,
+                                                                asList( new RuntimeSchemaField( "id", Integer.class ),
+                                                                        new RuntimeSchemaField( "child", Tuple.class ) ) );
+        final TupleCodec[] codec = new TupleCodec[ 1 ];
+        registry.register( CodecRegistry.MIN_USER_TYPE_ID, Tuple.class, new FieldCodec<Tuple>()
+        {
+            @Override
+            public int encode ( final MutableDirectBuffer buffer, final int offset, final Tuple value )
+            {
+                return codec[ 0 ].encode( value, buffer, offset );
+            }
+
+            @Override
+            public Tuple decode ( final DirectBuffer buffer, final int offset, final int length )
+            {
+                return codec[ 0 ].decode( buffer, offset );
+            }
+        } );
+        codec[ 0 ] = new TupleCodec( schema, registry );
+        final Tuple tuple = Tuple.of( schema, "id", 1, "child", Tuple.of( schema, "id", 1000, "child", Tuple.of( schema, "id", 3 ) ) );
+
+        assertThat( codec[ 0 ].getEncodedLength( tuple ), equalTo( codec[ 0 ].encode( tuple, buffer, 0 ) ) );
+    }
+
+    @Test
+    public void shouldComputeVarLongLength ()
+    {
+        assertThat( TupleCodec.varLongLength( 0 ), equalTo( 1 ) );
+        assertThat( TupleCodec.varLongLength( 127 ), equalTo( 1 ) );
+        assertThat( TupleCodec.varLongLength( 128 ), equalTo( 2 ) );
+        assertThat( TupleCodec.varLongLength( Long.MAX_VALUE ), equalTo( 9 ) );
+        assertThat( TupleCodec.varLongLength( -1 ), equalTo( 10 ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotDecodeTupleOfDifferentSchema ()
+    {
+        final TupleCodec codec = new TupleCodec( schema, registry );
+        final PortRuntimeSchema otherSchema = new PortRuntimeSchema( EXACT_FIELD_SET,
+                                                                     singletonList( new RuntimeSchemaField( "int", Long.class ) ) );
+        final TupleCodec otherCodec = new TupleCodec( otherSchema, registry );
+        assertThat( codec.getFingerprint(), not( equalTo( otherCodec.getFingerprint() ) ) );
+
+        otherCodec.encode( Tuple.of( otherSchema, "int", 1L ), buffer, 0 );
+        codec.decode( buffer, 0 );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotEncodeExtraFieldsOfUnregisteredTypes ()
+    {
+        final TupleCodec codec = new TupleCodec( new PortRuntimeSchema( emptyList() ), registry );
+
+        codec.encode( Tuple.of( "pair", Pair.of( 1, 2 ) ), buffer, 0 );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotRegisterBuiltInTypes ()
+    {
+        registry.register( CodecRegistry.MIN_USER_TYPE_ID, String.class, new FieldCodec<String>()
+        {
+            @Override
+            public int encode ( final MutableDirectBuffer buffer, final int offset, final String value )
+            {
+                return 0;
+            }
+
+            @Override
+            public String decode ( final DirectBuffer buffer, final int offset, final int length )
+            {
+                return null;
+            }
+        } );
+    }
+
+    @Test
+    public void shouldComputeUtf8LengthSameWithJdk ()
+    {
+        for ( String s : asList( "", "abc", "çö", "€", "😀", "a\ud83db", "\ude00" ) )
+        {
+            assertThat( s, utf8Length( s ), equalTo( s.getBytes( UTF_8 ).length ) );
+        }
+    }
+
+    @Test
+    public void shouldZigZagEncodeNegativeValuesToSmallValues ()
+    {
+        assertThat( TupleCodec.zigZag( -1 ), equalTo( 1L ) );
+        assertThat( TupleCodec.zigZag( 1 ), equalTo( 2L ) );
+        assertThat( TupleCodec.unZigZag( TupleCodec.zigZag( Long.MIN_VALUE ) ), equalTo( Long.MIN_VALUE ) );
+    }
+
+}
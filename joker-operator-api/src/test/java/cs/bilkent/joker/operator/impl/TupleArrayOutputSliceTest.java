@@ -0,0 +1,85 @@
+package cs.bilkent.joker.operator.impl;
+
+import org.junit.Test;
+
+import cs.bilkent.joker.operator.OutputSlice;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+
+public class TupleArrayOutputSliceTest extends AbstractJokerTest
+{
+
+    private final TuplesImpl output = new TuplesImpl( 2 );
+
+    private final DefaultInvocationCtx invocationCtx = new DefaultInvocationCtx( 1, key -> null, output );
+
+    @Test
+    public void shouldEmitTuplesOnCommit ()
+    {
+        final Tuple tuple1 = new Tuple(), tuple2 = new Tuple();
+        final OutputSlice slice = invocationCtx.reserveOutput( 1, 2 ).add( tuple1 ).add( tuple2 );
+
+        assertEquals( 2, slice.size() );
+        assertEquals( 0, output.getTupleCount( 1 ) );
+
+        slice.commit();
+
+        assertEquals( asList( tuple1, tuple2 ), output.getTuples( 1 ) );
+        assertEquals( 0, output.getTupleCount( 0 ) );
+    }
+
+    @Test
+    public void shouldGrowBeyondReservedTupleCount ()
+    {
+        final OutputSlice slice = invocationCtx.reserveOutput( 1 );
+        for ( int i = 0; i < 100; i++ )
+        {
+            slice.add( new Tuple() );
+        }
+        slice.commit();
+
+        assertEquals( 100, output.getTupleCount( 0 ) );
+    }
+
+    @Test
+    public void shouldReserveNewSliceAfterCommit ()
+    {
+        final Tuple tuple1 = new Tuple(), tuple2 = new Tuple();
+        invocationCtx.reserveOutput( 0, 1 ).add( tuple1 ).commit();
+        invocationCtx.reserveOutput( 0, 1 ).add( tuple2 ).commit();
+
+        assertEquals( asList( tuple1, tuple2 ), output.getTuples( 0 ) );
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void shouldNotReserveSliceBeforePreviousSliceIsCommitted ()
+    {
+        invocationCtx.reserveOutput( 0, 1 );
+        invocationCtx.reserveOutput( 1, 1 );
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void shouldNotAddToCommittedSlice ()
+    {
+        final OutputSlice slice = invocationCtx.reserveOutput( 0, 1 );
+        slice.commit();
+
+        slice.add( new Tuple() );
+    }
+
+    @Test
+    public void shouldDiscardUncommittedSliceOnReset ()
+    {
+        invocationCtx.reserveOutput( 0, 1 ).add( new Tuple() );
+        invocationCtx.reset();
+
+        final Tuple tuple = new Tuple();
+        invocationCtx.reserveOutput( 0, 1 ).add( tuple ).commit();
+
+        assertEquals( singletonList( tuple ), output.getTuples( 0 ) );
+    }
+
+}
@@ -0,0 +1,103 @@
+package cs.bilkent.joker.operator.kvstore;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LongLongHashMapTest extends AbstractJokerTest
+{
+
+    private final LongLongHashMap map = new LongLongHashMap();
+
+    @Test
+    public void shouldReturnDefaultValueForAbsentKey ()
+    {
+        assertEquals( -1, map.get( 1, -1 ) );
+        assertFalse( map.containsKey( 1 ) );
+        assertTrue( map.isEmpty() );
+    }
+
+    @Test
+    public void shouldPutAndGet ()
+    {
+        map.put( 1, 10 );
+        map.put( 0, 20 );
+        map.put( 1, 30 );
+
+        assertEquals( 2, map.size() );
+        assertEquals( 30, map.get( 1, -1 ) );
+        assertEquals( 20, map.get( 0, -1 ) );
+    }
+
+    @Test
+    public void shouldAddToAbsentKey ()
+    {
+        assertEquals( 5, map.add( 1, 5 ) );
+        assertEquals( 8, map.add( 1, 3 ) );
+        assertEquals( 8, map.get( 1, 0 ) );
+    }
+
+    @Test
+    public void shouldRemove ()
+    {
+        map.put( 1, 10 );
+
+        assertTrue( map.remove( 1 ) );
+        assertFalse( map.remove( 1 ) );
+        assertFalse( map.containsKey( 1 ) );
+        assertEquals( 0, map.size() );
+    }
+
+    @Test
+    public void shouldClear ()
+    {
+        map.put( 1, 10 );
+        map.put( 2, 20 );
+
+        map.clear();
+
+        assertTrue( map.isEmpty() );
+        assertFalse( map.containsKey( 1 ) );
+    }
+
+    @Test
+    public void shouldBehaveAsHashMapWithRandomOperations ()
+    {
+        final Map<Long, Long> expected = new HashMap<>();
+        final Random random = new Random( 0 );
+        for ( int i = 0; i < 100000; i++ )
+        {
+            final long key = random.nextInt( 1000 ) - 500;
+            final int op = random.nextInt( 3 );
+            if ( op == 0 )
+            {
+                map.put( key, i );
+                expected.put( key, (long) i );
+            }
+            else if ( op == 1 )
+            {
+                map.add( key, i );
+                expected.merge( key, (long) i, Long::sum );
+            }
+            else
+            {
+                assertEquals( expected.remove( key ) != null, map.remove( key ) );
+            }
+        }
+
+        assertEquals( expected.size(), map.size() );
+        expected.forEach( ( key, value ) -> assertEquals( value.longValue(), map.get( key, Long.MIN_VALUE ) ) );
+
+        final Map<Long, Long> iterated = new HashMap<>();
+        map.forEach( iterated::put );
+        assertEquals( expected, iterated );
+    }
+
+}
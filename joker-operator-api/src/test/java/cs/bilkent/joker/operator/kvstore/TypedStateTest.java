@@ -0,0 +1,170 @@
+package cs.bilkent.joker.operator.kvstore;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import cs.bilkent.joker.operator.InitCtx;
+import cs.bilkent.joker.operator.InvocationCtx;
+import cs.bilkent.joker.operator.Operator;
+import cs.bilkent.joker.operator.OperatorDef;
+import cs.bilkent.joker.operator.OperatorDefBuilder;
+import cs.bilkent.joker.operator.impl.DefaultInvocationCtx;
+import cs.bilkent.joker.operator.impl.InMemoryKVStore;
+import cs.bilkent.joker.operator.impl.InitCtxImpl;
+import cs.bilkent.joker.operator.impl.TuplesImpl;
+import cs.bilkent.joker.operator.scheduling.SchedulingStrategy;
+import cs.bilkent.joker.operator.spec.OperatorSpec;
+import static cs.bilkent.joker.operator.spec.OperatorType.STATEFUL;
+import static cs.bilkent.joker.operator.spec.OperatorType.STATELESS;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TypedStateTest extends AbstractJokerTest
+{
+
+    private final InMemoryKVStore kvStore = new InMemoryKVStore();
+
+    private final DefaultInvocationCtx invocationCtx = new DefaultInvocationCtx( 1, key -> kvStore, new TuplesImpl( 1 ) );
+
+    private final InitCtx initCtx = newInitCtx( StatefulOperator.class );
+
+    @Before
+    public void init ()
+    {
+        invocationCtx.createInputTuples( null );
+    }
+
+    @Test
+    public void shouldAddToLongValueState ()
+    {
+        final LongValueState state = initCtx.getLongValueState( "count" );
+
+        assertEquals( 0, state.get( invocationCtx ) );
+        assertEquals( 3, state.add( invocationCtx, 3 ) );
+        assertEquals( 5, state.add( invocationCtx, 2 ) );
+        assertEquals( 5, state.get( invocationCtx ) );
+    }
+
+    @Test
+    public void shouldClearLongValueState ()
+    {
+        final LongValueState state = initCtx.getLongValueState( "count" );
+        state.set( invocationCtx, 5 );
+
+        assertTrue( state.clear( invocationCtx ) );
+        assertEquals( -1, state.getOrDefault( invocationCtx, -1 ) );
+        assertFalse( state.clear( invocationCtx ) );
+    }
+
+    @Test
+    public void shouldAddToDoubleValueState ()
+    {
+        final DoubleValueState state = initCtx.getDoubleValueState( "sum" );
+
+        state.add( invocationCtx, 1.5 );
+        state.add( invocationCtx, 2 );
+
+        assertEquals( 3.5, state.get( invocationCtx ), 0 );
+    }
+
+    @Test
+    public void shouldAddToLongLongMapState ()
+    {
+        final LongLongMapState state = initCtx.getLongLongMapState( "counts" );
+
+        assertEquals( 0, state.size( invocationCtx ) );
+        state.add( invocationCtx, 1, 2 );
+        state.add( invocationCtx, 1, 3 );
+        state.put( invocationCtx, 2, 7 );
+
+        assertEquals( 5, state.get( invocationCtx, 1, 0 ) );
+        assertEquals( 7, state.get( invocationCtx, 2, 0 ) );
+        assertEquals( 2, state.size( invocationCtx ) );
+    }
+
+    @Test
+    public void shouldAppendToListState ()
+    {
+        final ListState<String> state = initCtx.getListState( "values" );
+
+        assertEquals( emptyList(), state.get( invocationCtx ) );
+        state.add( invocationCtx, "a" );
+        state.add( invocationCtx, "b" );
+
+        final List<String> values = state.get( invocationCtx );
+        assertEquals( asList( "a", "b" ), values );
+    }
+
+    @Test
+    public void shouldKeepTypedStatesSeparateFromFields ()
+    {
+        kvStore.set( "count", "field" );
+        final LongValueState state = initCtx.getLongValueState( "count" );
+
+        state.add( invocationCtx, 1 );
+
+        assertEquals( "field", kvStore.get( "count" ) );
+        assertEquals( 1, state.get( invocationCtx ) );
+        assertEquals( 2, kvStore.size() );
+
+        kvStore.clear();
+
+        assertEquals( 0, state.get( invocationCtx ) );
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void shouldNotCreateStateForStatelessOperator ()
+    {
+        newInitCtx( StatelessOperator.class ).getLongValueState( "count" );
+    }
+
+    private static InitCtx newInitCtx ( final Class<? extends Operator> operatorClazz )
+    {
+        final OperatorDef operatorDef = OperatorDefBuilder.newInstance( "op", operatorClazz ).build();
+        return new InitCtxImpl( operatorDef, new boolean[] { true } );
+    }
+
+    @OperatorSpec( type = STATEFUL, inputPortCount = 1, outputPortCount = 1 )
+    public static class StatefulOperator implements Operator
+    {
+
+        @Override
+        public SchedulingStrategy init ( final InitCtx ctx )
+        {
+            return null;
+        }
+
+        @Override
+        public void invoke ( final InvocationCtx ctx )
+        {
+
+        }
+
+    }
+
+
+    @OperatorSpec( type = STATELESS, inputPortCount = 1, outputPortCount = 1 )
+    public static class StatelessOperator implements Operator
+    {
+
+        @Override
+        public SchedulingStrategy init ( final InitCtx ctx )
+        {
+            return null;
+        }
+
+        @Override
+        public void invoke ( final InvocationCtx ctx )
+        {
+
+        }
+
+    }
+
+}
@@ -8,6 +8,7 @@ import static cs.bilkent.joker.operator.schema.annotation.PortSchemaScope.EXACT_
 import static cs.bilkent.joker.operator.schema.annotation.PortSchemaScope.EXTENDABLE_FIELD_SET;
 import cs.bilkent.joker.operator.schema.annotation.SchemaField;
 import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
@@ -115,6 +116,48 @@ public class OperatorRuntimeSchemaBuilderTest extends AbstractJokerTest
         assertThat( field2, equalTo( new RuntimeSchemaField( "field2", long.class ) ) );
     }
 
+    @Test
+    public void shouldKeepScopeOfAnnotatedPortSchemas ()
+    {
+        final OperatorSchema schemaAnnotation = AnnotatedClass.class.getDeclaredAnnotation( OperatorSchema.class );
+        final OperatorRuntimeSchemaBuilder builder = new OperatorRuntimeSchemaBuilder( 1, 1, schemaAnnotation );
+
+        final OperatorRuntimeSchema schema = builder.build();
+
+        assertThat( schema.getInputSchema( 0 ).getScope(), equalTo( EXACT_FIELD_SET ) );
+        assertThat( schema.getOutputSchema( 0 ).getScope(), equalTo( EXTENDABLE_FIELD_SET ) );
+    }
+
+    @Test
+    public void shouldAddPortSchemaWithScope ()
+    {
+        final PortRuntimeSchema portSchema = new PortRuntimeSchema( EXACT_FIELD_SET, singletonList( new RuntimeSchemaField( "field1",
+                                                                                                                           int.class ) ) );
+        final OperatorRuntimeSchemaBuilder builder = new OperatorRuntimeSchemaBuilder( 1, 1 );
+        builder.addInputPortSchema( 0, portSchema );
+
+        final OperatorRuntimeSchema schema = builder.build();
+
+        final PortRuntimeSchema inputSchema0 = schema.getInputSchema( 0 );
+        assertThat( inputSchema0.getScope(), equalTo( EXACT_FIELD_SET ) );
+        assertThat( inputSchema0.getFields(), equalTo( portSchema.getFields() ) );
+        assertThat( schema.getOutputSchema( 0 ).getScope(), equalTo( EXTENDABLE_FIELD_SET ) );
+    }
+
+    @Test
+    public void shouldAddFieldsOfPortSchemaToExistingPortSchema ()
+    {
+        final PortRuntimeSchema portSchema = new PortRuntimeSchema( EXACT_FIELD_SET, singletonList( new RuntimeSchemaField( "field2",
+                                                                                                                           long.class ) ) );
+        final OperatorRuntimeSchemaBuilder builder = new OperatorRuntimeSchemaBuilder( 1, 1 );
+        builder.addOutputField( 0, "field1", int.class ).addOutputPortSchema( 0, portSchema );
+
+        final PortRuntimeSchema outputSchema0 = builder.build().getOutputSchema( 0 );
+
+        assertThat( outputSchema0.getScope(), equalTo( EXTENDABLE_FIELD_SET ) );
+        assertThat( outputSchema0.getFields(), hasSize( 2 ) );
+    }
+
     @OperatorSchema( inputs = { @PortSchema( portIndex = 0, scope = EXACT_FIELD_SET, fields = { @SchemaField( name = "field1", type = int.class ) } ) }, outputs = {
             @PortSchema( portIndex = 0, scope = EXTENDABLE_FIELD_SET, fields = { @SchemaField( name = "field2", type = long.class ) } ) } )
     private static class AnnotatedClass
@@ -0,0 +1,272 @@
+package cs.bilkent.joker.operators;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeoutException;
+
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+import cs.bilkent.joker.operator.AsyncOperator;
+import cs.bilkent.joker.operator.InitCtx;
+import cs.bilkent.joker.operator.InvocationCtx;
+import cs.bilkent.joker.operator.OperatorConfig;
+import cs.bilkent.joker.operator.Tuple;
+import static cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.scheduleWhenTuplesAvailableOnDefaultPort;
+import cs.bilkent.joker.operator.scheduling.SchedulingStrategy;
+import cs.bilkent.joker.operator.schema.runtime.TupleSchema;
+import cs.bilkent.joker.operator.spec.OperatorSpec;
+import static cs.bilkent.joker.operator.spec.OperatorType.STATEFUL;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+
+/**
+ * Enriches the input tuples with an asynchronous function, such as a lookup from an external service, without blocking the pipeline
+ * thread while the lookups are in progress. For each input tuple, the provided enricher function is called with the input tuple and a new
+ * output tuple, and it returns a {@link CompletionStage} which is completed after the output tuple is populated. Output tuples of the
+ * completed lookups are emitted in the following invocations, either in the order of the input tuples, or in the order of completion
+ * if {@link #ORDERED_CONFIG_PARAMETER} is false. Since the operator is an {@link AsyncOperator}, it is invoked without input tuples
+ * once a lookup is completed.
+ * <p>
+ * At most {@link #MAX_IN_FLIGHT_CONFIG_PARAMETER} lookups are in progress at a time. Input tuples which exceed the limit are kept
+ * until some lookups are completed, and the operator does not accept new input tuples meanwhile. Therefore, the upstream operators are
+ * back-pressured instead of the pipeline thread waiting for the lookups. When the operator is invoked because its input port is closed, or
+ * it is shut down, all remaining lookups are waited and their output tuples are emitted. Waiting for a lookup fails if it is not completed
+ * within {@link #WAIT_TIMEOUT_MILLIS_CONFIG_PARAMETER} milliseconds.
+ * <p>
+ * The operator is stateful since it keeps the lookups in progress between invocations, hence it is not replicated.
+ */
+@OperatorSpec( type = STATEFUL, inputPortCount = 1, outputPortCount = 1 )
+public class AsyncEnrichmentOperator implements AsyncOperator
+{
+
+    public static final String ENRICHER_CONFIG_PARAMETER = "enricher";
+
+    public static final String MAX_IN_FLIGHT_CONFIG_PARAMETER = "maxInFlight";
+
+    public static final String ORDERED_CONFIG_PARAMETER = "ordered";
+
+    public static final String WAIT_TIMEOUT_MILLIS_CONFIG_PARAMETER = "waitTimeoutMillis";
+
+    static final int DEFAULT_MAX_IN_FLIGHT = 100;
+
+    static final long DEFAULT_WAIT_TIMEOUT_MILLIS = 10000;
+
+
+    private AsyncEnricher enricher;
+
+    private TupleSchema outputSchema;
+
+    private int maxInFlight;
+
+    private boolean ordered;
+
+    private long waitTimeoutMillis;
+
+    /**
+     * Input tuples of which lookups are not issued yet since the in-flight limit is reached
+     */
+    private final ArrayDeque<Tuple> waitingTuples = new ArrayDeque<>();
+
+    /**
+     * In-flight lookups in the order of the input tuples. Used in the ordered mode.
+     */
+    private final ArrayDeque<PendingTuple> pendingTuples = new ArrayDeque<>();
+
+    /**
+     * Completed lookups in the order of completion. Used in the unordered mode.
+     */
+    private final BlockingQueue<PendingTuple> completedTuples = new LinkedBlockingQueue<>();
+
+    private int inFlightCount;
+
+    @Override
+    public SchedulingStrategy init ( final InitCtx ctx )
+    {
+        final OperatorConfig config = ctx.getConfig();
+
+        this.enricher = config.getOrFail( ENRICHER_CONFIG_PARAMETER );
+        this.maxInFlight = config.getOrDefault( MAX_IN_FLIGHT_CONFIG_PARAMETER, DEFAULT_MAX_IN_FLIGHT );
+        this.ordered = config.getOrDefault( ORDERED_CONFIG_PARAMETER, true );
+        this.waitTimeoutMillis = config.<Number>getOrDefault( WAIT_TIMEOUT_MILLIS_CONFIG_PARAMETER,
+                                                              DEFAULT_WAIT_TIMEOUT_MILLIS ).longValue();
+        checkArgument( maxInFlight > 0, "invalid max in flight: %s", maxInFlight );
+        checkArgument( waitTimeoutMillis > 0, "invalid wait timeout millis: %s", waitTimeoutMillis );
+        this.outputSchema = ctx.getOutputPortSchema( 0 );
+
+        return scheduleWhenTuplesAvailableOnDefaultPort( 1 );
+    }
+
+    @Override
+    public void invoke ( final InvocationCtx ctx )
+    {
+        emitCompleted( ctx );
+
+        waitingTuples.addAll( ctx.getInputTuplesByDefaultPort() );
+        issueWaiting();
+
+        emitCompleted( ctx );
+        issueWaiting();
+
+        if ( !ctx.isSuccessfulInvocation() )
+        {
+            while ( inFlightCount > 0 )
+            {
+                awaitOne( ctx );
+                issueWaiting();
+            }
+        }
+    }
+
+    @Override
+    public boolean hasAvailableOutput ()
+    {
+        return ordered ? ( !pendingTuples.isEmpty() && pendingTuples.peekFirst().future.isDone() ) : !completedTuples.isEmpty();
+    }
+
+    @Override
+    public boolean canAcceptInput ()
+    {
+        return waitingTuples.isEmpty() && inFlightCount < maxInFlight;
+    }
+
+    int getInFlightCount ()
+    {
+        return inFlightCount;
+    }
+
+    int getWaitingTupleCount ()
+    {
+        return waitingTuples.size();
+    }
+
+    private void issueWaiting ()
+    {
+        while ( inFlightCount < maxInFlight && !waitingTuples.isEmpty() )
+        {
+            issue( waitingTuples.pollFirst() );
+        }
+    }
+
+    private void issue ( final Tuple input )
+    {
+        final Tuple output = new Tuple( outputSchema );
+        output.attachTo( input );
+        final CompletableFuture<?> future = enricher.enrich( input, output ).toCompletableFuture();
+        final PendingTuple pendingTuple = new PendingTuple( output, future );
+        if ( ordered )
+        {
+            pendingTuples.addLast( pendingTuple );
+        }
+        else
+        {
+            future.whenComplete( ( result, failure ) -> completedTuples.offer( pendingTuple ) );
+        }
+
+        inFlightCount++;
+    }
+
+    private void emitCompleted ( final InvocationCtx ctx )
+    {
+        if ( ordered )
+        {
+            while ( !pendingTuples.isEmpty() && pendingTuples.peekFirst().future.isDone() )
+            {
+                emit( ctx, pendingTuples.pollFirst() );
+            }
+        }
+        else
+        {
+            PendingTuple pendingTuple;
+            while ( ( pendingTuple = completedTuples.poll() ) != null )
+            {
+                emit( ctx, pendingTuple );
+            }
+        }
+    }
+
+    /**
+     * Waits until at least one in-flight lookup is completed, and emits output tuples of the completed lookups
+     */
+    private void awaitOne ( final InvocationCtx ctx )
+    {
+        try
+        {
+            if ( ordered )
+            {
+                pendingTuples.peekFirst().future.get( waitTimeoutMillis, MILLISECONDS );
+            }
+            else
+            {
+                final PendingTuple pendingTuple = completedTuples.poll( waitTimeoutMillis, MILLISECONDS );
+                if ( pendingTuple == null )
+                {
+                    throw new TimeoutException();
+                }
+
+                emit( ctx, pendingTuple );
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "interrupted while waiting for in-flight lookups", e );
+        }
+        catch ( TimeoutException e )
+        {
+            throw new IllegalStateException( "no in-flight lookup is completed in " + waitTimeoutMillis + " ms", e );
+        }
+        catch ( ExecutionException e )
+        {
+            // the failure is propagated while the output tuple is emitted below
+        }
+
+        emitCompleted( ctx );
+    }
+
+    private void emit ( final InvocationCtx ctx, final PendingTuple pendingTuple )
+    {
+        inFlightCount--;
+        // propagates the failure of the lookup
+        pendingTuple.future.join();
+        ctx.output( pendingTuple.output );
+    }
+
+    /**
+     * Populates the output tuple for the given input tuple asynchronously
+     */
+    @FunctionalInterface
+    public interface AsyncEnricher
+    {
+
+        /**
+         * @param input
+         *         input tuple
+         * @param output
+         *         output tuple to be populated before the returned stage is completed
+         *
+         * @return a stage which is completed after the output tuple is populated
+         */
+        CompletionStage<?> enrich ( Tuple input, Tuple output );
+
+    }
+
+
+    private static final class PendingTuple
+    {
+
+        private final Tuple output;
+
+        private final CompletableFuture<?> future;
+
+        PendingTuple ( final Tuple output, final CompletableFuture<?> future )
+        {
+            this.output = output;
+            this.future = future;
+        }
+
+    }
+
+}
@@ -0,0 +1,61 @@
+package cs.bilkent.joker.operators;
+
+import static cs.bilkent.joker.flow.Port.DEFAULT_PORT_INDEX;
+import cs.bilkent.joker.operator.OperatorConfig;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.schema.annotation.OperatorSchema;
+import cs.bilkent.joker.operator.schema.annotation.PortSchema;
+import static cs.bilkent.joker.operator.schema.annotation.PortSchemaScope.EXTENDABLE_FIELD_SET;
+import cs.bilkent.joker.operator.schema.annotation.SchemaField;
+import cs.bilkent.joker.operator.spec.OperatorSpec;
+import static cs.bilkent.joker.operator.spec.OperatorType.PARTITIONED_STATEFUL;
+import cs.bilkent.joker.operators.sketch.HyperLogLogSketch;
+
+
+/**
+ * Estimates the number of distinct values of a field in sliding tuple-count windows of each partition key with a
+ * {@link HyperLogLogSketch}.
+ *
+ * @see SketchWindowOperator
+ */
+@OperatorSpec( type = PARTITIONED_STATEFUL, inputPortCount = 1, outputPortCount = 1 )
+@OperatorSchema( outputs = { @PortSchema( portIndex = DEFAULT_PORT_INDEX, scope = EXTENDABLE_FIELD_SET, fields = { @SchemaField( name = SketchWindowOperator.WINDOW_FIELD, type = int.class ), @SchemaField( name = SketchWindowOperator.SKETCH_FIELD, type = HyperLogLogSketch.class ), @SchemaField( name = DistinctCountOperator.DISTINCT_COUNT_FIELD, type = long.class ) } ) } )
+public class DistinctCountOperator extends SketchWindowOperator<HyperLogLogSketch>
+{
+
+    public static final String PRECISION_CONFIG_PARAMETER = "precision";
+
+    public static final int DEFAULT_PRECISION = 12;
+
+    public static final String DISTINCT_COUNT_FIELD = "distinctCount";
+
+
+    private int precision;
+
+    @Override
+    protected void configure ( final OperatorConfig config )
+    {
+        this.precision = config.getOrDefault( PRECISION_CONFIG_PARAMETER, DEFAULT_PRECISION );
+        // fails early if the precision is invalid
+        createSketch();
+    }
+
+    @Override
+    protected HyperLogLogSketch createSketch ()
+    {
+        return new HyperLogLogSketch( precision );
+    }
+
+    @Override
+    protected void add ( final HyperLogLogSketch sketch, final Object value )
+    {
+        sketch.add( value );
+    }
+
+    @Override
+    protected void setSummaryFields ( final HyperLogLogSketch sketch, final Tuple output )
+    {
+        output.set( DISTINCT_COUNT_FIELD, sketch.estimate() );
+    }
+
+}
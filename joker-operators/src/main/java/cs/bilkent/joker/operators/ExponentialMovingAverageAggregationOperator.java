@@ -1,6 +1,7 @@
 package cs.bilkent.joker.operators;
 
 import static cs.bilkent.joker.flow.Port.DEFAULT_PORT_INDEX;
+import cs.bilkent.joker.operator.FieldHandle;
 import cs.bilkent.joker.operator.InitCtx;
 import cs.bilkent.joker.operator.InvocationCtx;
 import cs.bilkent.joker.operator.Operator;
@@ -47,21 +48,31 @@ public class ExponentialMovingAverageAggregationOperator implements Operator
 
     private double weight;
 
-    private String fieldName;
+    private FieldHandle<Number> inputValueField;
+
+    private FieldHandle<Double> outputValueField;
 
     private TupleSchema windowSchema;
 
+    private FieldHandle<Double> windowValueField;
+
+    private FieldHandle<Integer> windowTupleCountField;
+
     @Override
     public SchedulingStrategy init ( final InitCtx ctx )
     {
         this.outputSchema = ctx.getOutputPortSchema( 0 );
+        this.outputValueField = ctx.getOutputFieldHandle( 0, VALUE_FIELD );
 
         final OperatorConfig config = ctx.getConfig();
         this.weight = config.getOrFail( WEIGHT_CONFIG_PARAMETER );
-        this.fieldName = config.getOrFail( FIELD_NAME_CONFIG_PARAMETER );
+        final String fieldName = config.getOrFail( FIELD_NAME_CONFIG_PARAMETER );
+        this.inputValueField = ctx.getInputFieldHandle( 0, fieldName );
         this.windowSchema = new PortRuntimeSchemaBuilder( EXACT_FIELD_SET,
                                                           asList( new RuntimeSchemaField( VALUE_FIELD, Double.class ),
                                                                   new RuntimeSchemaField( TUPLE_COUNT_FIELD, Integer.class ) ) ).build();
+        this.windowValueField = FieldHandle.of( windowSchema, VALUE_FIELD );
+        this.windowTupleCountField = FieldHandle.of( windowSchema, TUPLE_COUNT_FIELD );
 
         return scheduleWhenTuplesAvailableOnDefaultPort( 1 );
     }
@@ -73,20 +84,21 @@ public class ExponentialMovingAverageAggregationOperator implements Operator
 
         final Tuple currentWindow = kvStore.getOrDefault( CURRENT_WINDOW_KEY, () -> new Tuple( windowSchema ) );
 
-        double value = currentWindow.getDoubleValueOrDefault( VALUE_FIELD, 0d );
-        int tupleCount = currentWindow.getIntegerValueOrDefault( TUPLE_COUNT_FIELD, 0 );
+        double value = windowValueField.getDoubleValueOrDefault( currentWindow, 0d );
+        int tupleCount = windowTupleCountField.getIntegerValueOrDefault( currentWindow, 0 );
 
         for ( Tuple input : ctx.getInputTuplesByDefaultPort() )
         {
-            final double tupleValue = input.getDoubleValueOrDefault( fieldName, 0d );
+            final double tupleValue = inputValueField.getDoubleValueOrDefault( input, 0d );
             value = ( tupleCount++ == 0 ) ? tupleValue : ( weight * tupleValue + ( 1 - weight ) * value );
-            final Tuple avgTuple = Tuple.of( outputSchema, VALUE_FIELD, value );
+            final Tuple avgTuple = outputValueField.set( new Tuple( outputSchema ), value );
             avgTuple.attachTo( input );
 
             ctx.output( avgTuple );
         }
 
-        currentWindow.set( VALUE_FIELD, value ).set( TUPLE_COUNT_FIELD, tupleCount );
+        windowValueField.set( currentWindow, value );
+        windowTupleCountField.set( currentWindow, tupleCount );
 
         kvStore.set( CURRENT_WINDOW_KEY, currentWindow );
     }
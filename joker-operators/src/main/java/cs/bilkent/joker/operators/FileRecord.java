@@ -0,0 +1,105 @@
+package cs.bilkent.joker.operators;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+
+
+/**
+ * A single record read by {@link MappedFileSourceOperator}. It is a view over the bytes of the record in a memory-mapped region of the
+ * file, hence creating it does not copy any bytes. The record is decoded into a string lazily, on the first {@link #toString()} call.
+ */
+public final class FileRecord
+{
+
+    private final ByteBuffer buffer;
+
+    private final Charset charset;
+
+    private String decoded;
+
+    FileRecord ( final ByteBuffer buffer, final Charset charset )
+    {
+        this.buffer = buffer;
+        this.charset = charset;
+    }
+
+    /**
+     * Returns number of bytes in the record
+     *
+     * @return number of bytes in the record
+     */
+    public int length ()
+    {
+        return buffer.limit();
+    }
+
+    /**
+     * Returns the byte at the given index of the record
+     *
+     * @param index
+     *         index of the byte in the record
+     *
+     * @return the byte at the given index of the record
+     */
+    public byte getByte ( final int index )
+    {
+        return buffer.get( index );
+    }
+
+    /**
+     * Copies bytes of the record to the given array, starting from the given offset of the array
+     *
+     * @param dest
+     *         array to copy the bytes
+     * @param offset
+     *         offset in the array to write the first byte
+     */
+    public void copyTo ( final byte[] dest, final int offset )
+    {
+        checkArgument( dest != null, "destination array can't be null" );
+        checkArgument( offset >= 0 && offset + length() <= dest.length, "record of %s bytes does not fit to offset %s of array of %s bytes",
+                       length(), offset, dest.length );
+        buffer.duplicate().get( dest, offset, length() );
+    }
+
+    /**
+     * Returns a copy of bytes of the record
+     *
+     * @return a copy of bytes of the record
+     */
+    public byte[] getBytes ()
+    {
+        final byte[] bytes = new byte[ length() ];
+        copyTo( bytes, 0 );
+        return bytes;
+    }
+
+    /**
+     * Returns a read-only buffer over bytes of the record without copying them
+     *
+     * @return a read-only buffer over bytes of the record
+     */
+    public ByteBuffer asByteBuffer ()
+    {
+        return buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * Decodes the record into a string with the charset configured for {@link MappedFileSourceOperator}. The decoded string is cached.
+     *
+     * @return the record decoded into a string
+     */
+    @Override
+    public String toString ()
+    {
+        if ( decoded == null )
+        {
+            decoded = charset.decode( buffer.duplicate() ).toString();
+        }
+
+        return decoded;
+    }
+
+}
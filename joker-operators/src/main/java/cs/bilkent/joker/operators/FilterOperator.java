@@ -1,10 +1,11 @@
 package cs.bilkent.joker.operators;
 
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
+import cs.bilkent.joker.operator.ChainableOperator;
 import cs.bilkent.joker.operator.InitCtx;
 import cs.bilkent.joker.operator.InvocationCtx;
-import cs.bilkent.joker.operator.Operator;
 import cs.bilkent.joker.operator.OperatorConfig;
 import cs.bilkent.joker.operator.Tuple;
 import static cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.scheduleWhenTuplesAvailableOnDefaultPort;
@@ -17,7 +18,7 @@ import static cs.bilkent.joker.operator.spec.OperatorType.STATELESS;
  * Applies the given predicate function to each input tuple and only returns the ones that satisfy the predicate
  */
 @OperatorSpec( type = STATELESS, inputPortCount = 1, outputPortCount = 1 )
-public class FilterOperator implements Operator
+public class FilterOperator implements ChainableOperator
 {
 
     public static final String PREDICATE_CONFIG_PARAMETER = "predicate";
@@ -48,4 +49,16 @@ public class FilterOperator implements Operator
         }
     }
 
+    @Override
+    public Consumer<Tuple> chain ( final Consumer<Tuple> downstream )
+    {
+        final Predicate<Tuple> predicate = this.predicate;
+        return tuple -> {
+            if ( predicate.test( tuple ) )
+            {
+                downstream.accept( tuple );
+            }
+        };
+    }
+
 }
@@ -1,12 +1,14 @@
 package cs.bilkent.joker.operators;
 
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
+import cs.bilkent.joker.operator.ChainableOperator;
 import cs.bilkent.joker.operator.InitCtx;
 import cs.bilkent.joker.operator.InvocationCtx;
-import cs.bilkent.joker.operator.Operator;
 import cs.bilkent.joker.operator.OperatorConfig;
+import cs.bilkent.joker.operator.OutputSlice;
 import cs.bilkent.joker.operator.Tuple;
 import static cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.scheduleWhenTuplesAvailableOnDefaultPort;
 import cs.bilkent.joker.operator.scheduling.SchedulingStrategy;
@@ -18,7 +20,7 @@ import static cs.bilkent.joker.operator.spec.OperatorType.STATELESS;
  * Maps an input tuple to a collection of tuples, and flattens them.
  */
 @OperatorSpec( type = STATELESS, inputPortCount = 1, outputPortCount = 1 )
-public class FlatMapperOperator implements Operator
+public class FlatMapperOperator implements ChainableOperator
 {
 
     public static final String FLAT_MAPPER_CONFIG_PARAMETER = "flatMapper";
@@ -47,13 +49,29 @@ public class FlatMapperOperator implements Operator
     @Override
     public void invoke ( final InvocationCtx ctx )
     {
-        for ( Tuple input : ctx.getInputTuplesByDefaultPort() )
+        final List<Tuple> inputs = ctx.getInputTuplesByDefaultPort();
+        final OutputSlice slice = ctx.reserveOutput( inputs.size() );
+        for ( int i = 0; i < inputs.size(); i++ )
         {
+            final Tuple input = inputs.get( i );
             flatMapper.accept( input, outputTupleSupplier, output -> {
                 output.attachTo( input );
-                ctx.output( output );
+                slice.add( output );
             } );
         }
+
+        slice.commit();
+    }
+
+    @Override
+    public Consumer<Tuple> chain ( final Consumer<Tuple> downstream )
+    {
+        final FlatMapperConsumer flatMapper = this.flatMapper;
+        final Supplier<Tuple> outputTupleSupplier = this.outputTupleSupplier;
+        return input -> flatMapper.accept( input, outputTupleSupplier, output -> {
+            output.attachTo( input );
+            downstream.accept( output );
+        } );
     }
 
     @FunctionalInterface
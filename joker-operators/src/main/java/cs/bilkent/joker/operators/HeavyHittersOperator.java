@@ -0,0 +1,71 @@
+package cs.bilkent.joker.operators;
+
+import java.util.List;
+
+import static cs.bilkent.joker.flow.Port.DEFAULT_PORT_INDEX;
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+import cs.bilkent.joker.operator.OperatorConfig;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.schema.annotation.OperatorSchema;
+import cs.bilkent.joker.operator.schema.annotation.PortSchema;
+import static cs.bilkent.joker.operator.schema.annotation.PortSchemaScope.EXTENDABLE_FIELD_SET;
+import cs.bilkent.joker.operator.schema.annotation.SchemaField;
+import cs.bilkent.joker.operator.spec.OperatorSpec;
+import static cs.bilkent.joker.operator.spec.OperatorType.PARTITIONED_STATEFUL;
+import cs.bilkent.joker.operators.sketch.SpaceSavingSketch;
+
+
+/**
+ * Finds the most frequent values of a field in sliding tuple-count windows of each partition key with a {@link SpaceSavingSketch}.
+ * The {@link #TOP_K_FIELD} field of the output tuples contains the {@link #TOP_K_CONFIG_PARAMETER} most frequent values in descending
+ * order of their estimated counts.
+ *
+ * @see SketchWindowOperator
+ */
+@OperatorSpec( type = PARTITIONED_STATEFUL, inputPortCount = 1, outputPortCount = 1 )
+@OperatorSchema( outputs = { @PortSchema( portIndex = DEFAULT_PORT_INDEX, scope = EXTENDABLE_FIELD_SET, fields = { @SchemaField( name = SketchWindowOperator.WINDOW_FIELD, type = int.class ), @SchemaField( name = SketchWindowOperator.SKETCH_FIELD, type = SpaceSavingSketch.class ), @SchemaField( name = HeavyHittersOperator.TOP_K_FIELD, type = List.class ) } ) } )
+public class HeavyHittersOperator extends SketchWindowOperator<SpaceSavingSketch>
+{
+
+    public static final String CAPACITY_CONFIG_PARAMETER = "capacity";
+
+    public static final String TOP_K_CONFIG_PARAMETER = "topK";
+
+    public static final int DEFAULT_TOP_K = 10;
+
+    public static final String TOP_K_FIELD = "topK";
+
+
+    private int capacity;
+
+    private int topK;
+
+    @Override
+    protected void configure ( final OperatorConfig config )
+    {
+        this.topK = config.getOrDefault( TOP_K_CONFIG_PARAMETER, DEFAULT_TOP_K );
+        // a larger capacity decreases the count errors of the most frequent values
+        this.capacity = config.getOrDefault( CAPACITY_CONFIG_PARAMETER, topK * 10 );
+        checkArgument( topK > 0, "invalid top k: %s", topK );
+        checkArgument( capacity >= topK, "capacity: %s must be at least top k: %s", capacity, topK );
+    }
+
+    @Override
+    protected SpaceSavingSketch createSketch ()
+    {
+        return new SpaceSavingSketch( capacity );
+    }
+
+    @Override
+    protected void add ( final SpaceSavingSketch sketch, final Object value )
+    {
+        sketch.add( value );
+    }
+
+    @Override
+    protected void setSummaryFields ( final SpaceSavingSketch sketch, final Tuple output )
+    {
+        output.set( TOP_K_FIELD, sketch.getTopK( topK ) );
+    }
+
+}
@@ -0,0 +1,129 @@
+package cs.bilkent.joker.operators;
+
+import cs.bilkent.joker.operator.Tuple;
+
+/**
+ * Ring buffer of the tuples of one side of {@link WindowedJoinOperator} for a partition key. Tuples are kept in the order they are
+ * added, along with their timestamps in a primitive array, so that expired tuples are removed from the head and the tuples in a
+ * timestamp range are found with binary search.
+ */
+final class JoinBuffer
+{
+
+    private static final int INITIAL_CAPACITY = 8;
+
+
+    private Tuple[] tuples = new Tuple[ INITIAL_CAPACITY ];
+
+    private long[] timestamps = new long[ INITIAL_CAPACITY ];
+
+    private int head;
+
+    private int size;
+
+    void add ( final Tuple tuple, final long timestamp )
+    {
+        if ( size == tuples.length )
+        {
+            grow();
+        }
+
+        final int i = ( head + size ) & ( tuples.length - 1 );
+        tuples[ i ] = tuple;
+        timestamps[ i ] = timestamp;
+        size++;
+    }
+
+    int size ()
+    {
+        return size;
+    }
+
+    boolean isEmpty ()
+    {
+        return size == 0;
+    }
+
+    Tuple get ( final int index )
+    {
+        return tuples[ ( head + index ) & ( tuples.length - 1 ) ];
+    }
+
+    long getTimestamp ( final int index )
+    {
+        return timestamps[ ( head + index ) & ( tuples.length - 1 ) ];
+    }
+
+    /**
+     * Removes the tuples with timestamps smaller than the given timestamp from the head of the buffer
+     */
+    void expireBefore ( final long timestamp )
+    {
+        while ( size > 0 && timestamps[ head ] < timestamp )
+        {
+            removeHead();
+        }
+    }
+
+    /**
+     * Removes the oldest tuples until the buffer contains at most the given number of tuples
+     */
+    void expireToSize ( final int maxSize )
+    {
+        while ( size > maxSize )
+        {
+            removeHead();
+        }
+    }
+
+    /**
+     * Returns index of the first tuple with a timestamp greater than the given timestamp, or size of the buffer if there is no such tuple
+     */
+    int upperBound ( final long timestamp )
+    {
+        int low = 0, high = size;
+        while ( low < high )
+        {
+            final int mid = ( low + high ) >>> 1;
+            if ( getTimestamp( mid ) <= timestamp )
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    private void removeHead ()
+    {
+        tuples[ head ] = null;
+        head = ( head + 1 ) & ( tuples.length - 1 );
+        size--;
+    }
+
+    private void grow ()
+    {
+        final int capacity = tuples.length;
+        final Tuple[] newTuples = new Tuple[ capacity << 1 ];
+        final long[] newTimestamps = new long[ capacity << 1 ];
+        final int tail = capacity - head;
+        System.arraycopy( tuples, head, newTuples, 0, tail );
+        System.arraycopy( tuples, 0, newTuples, tail, head );
+        System.arraycopy( timestamps, head, newTimestamps, 0, tail );
+        System.arraycopy( timestamps, 0, newTimestamps, tail, head );
+        tuples = newTuples;
+        timestamps = newTimestamps;
+        head = 0;
+    }
+
+    @Override
+    public String toString ()
+    {
+        return "JoinBuffer{" + "size=" + size + ", capacity=" + tuples.length + '}';
+    }
+
+}
@@ -0,0 +1,325 @@
+package cs.bilkent.joker.operators;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static cs.bilkent.joker.flow.Port.DEFAULT_PORT_INDEX;
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkState;
+import cs.bilkent.joker.operator.FieldHandle;
+import cs.bilkent.joker.operator.InitCtx;
+import cs.bilkent.joker.operator.InvocationCtx;
+import cs.bilkent.joker.operator.Operator;
+import cs.bilkent.joker.operator.OperatorConfig;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.scheduling.ScheduleWhenAvailable;
+import cs.bilkent.joker.operator.scheduling.SchedulingStrategy;
+import cs.bilkent.joker.operator.schema.annotation.OperatorSchema;
+import cs.bilkent.joker.operator.schema.annotation.PortSchema;
+import static cs.bilkent.joker.operator.schema.annotation.PortSchemaScope.EXACT_FIELD_SET;
+import cs.bilkent.joker.operator.schema.annotation.SchemaField;
+import cs.bilkent.joker.operator.schema.runtime.TupleSchema;
+import cs.bilkent.joker.operator.spec.OperatorSpec;
+import static cs.bilkent.joker.operator.spec.OperatorType.STATEFUL;
+import static java.lang.Math.min;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+
+
+/**
+ * Reads records of the given files and produces an output tuple for each record. Files are memory-mapped chunk by chunk, and records are
+ * split either on a delimiter byte or by a fixed length directly from the mapped chunks, so memory use does not depend on file sizes.
+ * Each output tuple contains a {@link FileRecord} which is a view over bytes of the record and decoded into a string lazily, path of the
+ * file, and offset of the record in the file.
+ * <p>
+ * Files can be read in parallel by multiple instances of the operator. Each instance is given a partition index and a partition count,
+ * and reads only the records which start in its own byte range of each file. Once all files are read, invocations produce no tuples.
+ */
+@OperatorSpec( type = STATEFUL, inputPortCount = 0, outputPortCount = 1 )
+@OperatorSchema( outputs = { @PortSchema( portIndex = DEFAULT_PORT_INDEX, scope = EXACT_FIELD_SET, fields = {
+        @SchemaField( name = MappedFileSourceOperator.RECORD_FIELD, type = FileRecord.class ),
+        @SchemaField( name = MappedFileSourceOperator.FILE_FIELD, type = String.class ),
+        @SchemaField( name = MappedFileSourceOperator.OFFSET_FIELD, type = Long.class ) } ) } )
+public class MappedFileSourceOperator implements Operator
+{
+
+    public static final String FILES_CONFIG_PARAMETER = "files";
+
+    public static final String DELIMITER_CONFIG_PARAMETER = "delimiter";
+
+    public static final String RECORD_LENGTH_CONFIG_PARAMETER = "recordLength";
+
+    public static final String CHUNK_SIZE_CONFIG_PARAMETER = "chunkSize";
+
+    public static final String TUPLE_COUNT_CONFIG_PARAMETER = "tupleCount";
+
+    public static final String CHARSET_CONFIG_PARAMETER = "charset";
+
+    public static final String PARTITION_INDEX_CONFIG_PARAMETER = "partitionIndex";
+
+    public static final String PARTITION_COUNT_CONFIG_PARAMETER = "partitionCount";
+
+    public static final String RECORD_FIELD = "record";
+
+    public static final String FILE_FIELD = "file";
+
+    public static final String OFFSET_FIELD = "offset";
+
+    static final byte DEFAULT_DELIMITER = '\n';
+
+    static final int DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    static final int DEFAULT_TUPLE_COUNT = 1024;
+
+
+    private List<String> files;
+
+    private byte delimiter;
+
+    private int recordLength;
+
+    private int chunkSize;
+
+    private int tupleCount;
+
+    private Charset charset;
+
+    private int partitionIndex;
+
+    private int partitionCount;
+
+    private TupleSchema outputSchema;
+
+    private FieldHandle<FileRecord> recordField;
+
+    private FieldHandle<String> fileField;
+
+    private FieldHandle<Long> offsetField;
+
+    private int fileIndex;
+
+    private String file;
+
+    private FileChannel channel;
+
+    private long fileSize;
+
+    private long position;
+
+    private long end;
+
+    private MappedByteBuffer chunk;
+
+    private long chunkStart;
+
+    @Override
+    public SchedulingStrategy init ( final InitCtx ctx )
+    {
+        final OperatorConfig config = ctx.getConfig();
+
+        this.files = config.getOrFail( FILES_CONFIG_PARAMETER );
+        this.delimiter = config.getOrDefault( DELIMITER_CONFIG_PARAMETER, DEFAULT_DELIMITER );
+        this.recordLength = config.getOrDefault( RECORD_LENGTH_CONFIG_PARAMETER, 0 );
+        this.chunkSize = config.getOrDefault( CHUNK_SIZE_CONFIG_PARAMETER, DEFAULT_CHUNK_SIZE );
+        this.tupleCount = config.getOrDefault( TUPLE_COUNT_CONFIG_PARAMETER, DEFAULT_TUPLE_COUNT );
+        this.charset = config.getOrDefault( CHARSET_CONFIG_PARAMETER, UTF_8 );
+        this.partitionIndex = config.getOrDefault( PARTITION_INDEX_CONFIG_PARAMETER, 0 );
+        this.partitionCount = config.getOrDefault( PARTITION_COUNT_CONFIG_PARAMETER, 1 );
+
+        checkArgument( recordLength >= 0, "invalid record length: %s", recordLength );
+        checkArgument( chunkSize > 0 && chunkSize >= recordLength,
+                       "invalid chunk size: %s for record length: %s",
+                       chunkSize,
+                       recordLength );
+        checkArgument( tupleCount > 0, "invalid tuple count: %s", tupleCount );
+        checkArgument( partitionCount > 0 && partitionIndex >= 0 && partitionIndex < partitionCount,
+                       "invalid partition index: %s for partition count: %s",
+                       partitionIndex,
+                       partitionCount );
+
+        this.outputSchema = ctx.getOutputPortSchema( 0 );
+        this.recordField = ctx.getOutputFieldHandle( 0, RECORD_FIELD );
+        this.fileField = ctx.getOutputFieldHandle( 0, FILE_FIELD );
+        this.offsetField = ctx.getOutputFieldHandle( 0, OFFSET_FIELD );
+
+        return ScheduleWhenAvailable.INSTANCE;
+    }
+
+    @Override
+    public void invoke ( final InvocationCtx ctx )
+    {
+        try
+        {
+            for ( int i = 0; i < tupleCount && hasNextRecord(); i++ )
+            {
+                final long offset = position;
+                final ByteBuffer record = recordLength > 0 ? nextFixedLengthRecord() : nextDelimitedRecord();
+
+                final Tuple tuple = new Tuple( outputSchema );
+                recordField.set( tuple, new FileRecord( record, charset ) );
+                fileField.set( tuple, file );
+                offsetField.set( tuple, offset );
+                ctx.output( tuple );
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( "cannot read " + file, e );
+        }
+    }
+
+    @Override
+    public void shutdown ()
+    {
+        try
+        {
+            closeFile();
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( "cannot close " + file, e );
+        }
+    }
+
+    private boolean hasNextRecord () throws IOException
+    {
+        while ( channel == null || position >= end )
+        {
+            closeFile();
+            if ( fileIndex == files.size() )
+            {
+                return false;
+            }
+
+            openFile( files.get( fileIndex++ ) );
+        }
+
+        return true;
+    }
+
+    private void openFile ( final String file ) throws IOException
+    {
+        this.file = file;
+        this.channel = FileChannel.open( Paths.get( file ), READ );
+        this.fileSize = channel.size();
+
+        if ( recordLength > 0 )
+        {
+            final long recordCount = fileSize / recordLength;
+            this.position = ( recordCount * partitionIndex / partitionCount ) * recordLength;
+            this.end = ( recordCount * ( partitionIndex + 1 ) / partitionCount ) * recordLength;
+        }
+        else
+        {
+            final long start = fileSize * partitionIndex / partitionCount;
+            this.end = fileSize * ( partitionIndex + 1 ) / partitionCount;
+            // a record belongs to the partition in which it starts, so skip the record started in the previous partition
+            this.position = start > 0 ? skipToNextRecord( start - 1 ) : 0;
+        }
+    }
+
+    private void closeFile () throws IOException
+    {
+        if ( channel != null )
+        {
+            channel.close();
+            channel = null;
+            chunk = null;
+        }
+    }
+
+    private long skipToNextRecord ( final long offset ) throws IOException
+    {
+        map( offset );
+        long i = offset;
+        while ( i < fileSize )
+        {
+            if ( i == chunkStart + chunk.limit() )
+            {
+                map( i );
+            }
+
+            if ( chunk.get( (int) ( i - chunkStart ) ) == delimiter )
+            {
+                return i + 1;
+            }
+
+            i++;
+        }
+
+        return fileSize;
+    }
+
+    private ByteBuffer nextFixedLengthRecord () throws IOException
+    {
+        if ( chunk == null || position < chunkStart || position + recordLength > chunkStart + chunk.limit() )
+        {
+            map( position );
+        }
+
+        final int recordStart = (int) ( position - chunkStart );
+        position += recordLength;
+
+        return slice( recordStart, recordStart + recordLength );
+    }
+
+    private ByteBuffer nextDelimitedRecord () throws IOException
+    {
+        if ( chunk == null || position < chunkStart || position >= chunkStart + chunk.limit() )
+        {
+            map( position );
+        }
+
+        int recordStart = (int) ( position - chunkStart );
+        int i = recordStart;
+        while ( true )
+        {
+            final int limit = chunk.limit();
+            while ( i < limit && chunk.get( i ) != delimiter )
+            {
+                i++;
+            }
+
+            if ( i < limit )
+            {
+                position = chunkStart + i + 1;
+                return slice( recordStart, i );
+            }
+            else if ( chunkStart + limit == fileSize )
+            {
+                position = fileSize;
+                return slice( recordStart, limit );
+            }
+
+            checkState( recordStart > 0, "record at offset %s of %s is longer than chunk size %s", position, file, chunkSize );
+            // the record continues in the next chunk. re-map the file starting from the record and continue scanning where we left
+            map( position );
+            i = limit - recordStart;
+            recordStart = 0;
+        }
+    }
+
+    private void map ( final long offset ) throws IOException
+    {
+        chunkStart = offset;
+        chunk = channel.map( READ_ONLY, offset, min( chunkSize, fileSize - offset ) );
+    }
+
+    private ByteBuffer slice ( final int from, final int to )
+    {
+        final ByteBuffer view = chunk.duplicate();
+        // Buffer casts keep the binary compatible with Java 8 when compiled with a newer JDK
+        ( (Buffer) view ).limit( to );
+        ( (Buffer) view ).position( from );
+        return view.slice();
+    }
+
+}
@@ -1,10 +1,11 @@
 package cs.bilkent.joker.operators;
 
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
+import cs.bilkent.joker.operator.ChainableOperator;
 import cs.bilkent.joker.operator.InitCtx;
 import cs.bilkent.joker.operator.InvocationCtx;
-import cs.bilkent.joker.operator.Operator;
 import cs.bilkent.joker.operator.OperatorConfig;
 import cs.bilkent.joker.operator.Tuple;
 import static cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.scheduleWhenTuplesAvailableOnDefaultPort;
@@ -18,7 +19,7 @@ import static cs.bilkent.joker.operator.spec.OperatorType.STATELESS;
  * Maps the input tuples into new output tuples with the provided mapper function.
  */
 @OperatorSpec( type = STATELESS, inputPortCount = 1, outputPortCount = 1 )
-public class MapperOperator implements Operator
+public class MapperOperator implements ChainableOperator
 {
 
     public static final String MAPPER_CONFIG_PARAMETER = "mapper";
@@ -52,4 +53,17 @@ public class MapperOperator implements Operator
         }
     }
 
+    @Override
+    public Consumer<Tuple> chain ( final Consumer<Tuple> downstream )
+    {
+        final BiConsumer<Tuple, Tuple> mapper = this.mapper;
+        final TupleSchema outputSchema = this.outputSchema;
+        return input -> {
+            final Tuple result = new Tuple( outputSchema );
+            result.attachTo( input );
+            mapper.accept( input, result );
+            downstream.accept( result );
+        };
+    }
+
 }
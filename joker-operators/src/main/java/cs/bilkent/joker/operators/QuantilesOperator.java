@@ -0,0 +1,71 @@
+package cs.bilkent.joker.operators;
+
+import static cs.bilkent.joker.flow.Port.DEFAULT_PORT_INDEX;
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+import cs.bilkent.joker.operator.OperatorConfig;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.schema.annotation.OperatorSchema;
+import cs.bilkent.joker.operator.schema.annotation.PortSchema;
+import static cs.bilkent.joker.operator.schema.annotation.PortSchemaScope.EXTENDABLE_FIELD_SET;
+import cs.bilkent.joker.operator.schema.annotation.SchemaField;
+import cs.bilkent.joker.operator.spec.OperatorSpec;
+import static cs.bilkent.joker.operator.spec.OperatorType.PARTITIONED_STATEFUL;
+import cs.bilkent.joker.operators.sketch.KllSketch;
+
+
+/**
+ * Estimates quantiles of a numeric field in sliding tuple-count windows of each partition key with a {@link KllSketch}. The
+ * {@link #QUANTILES_FIELD} field of the output tuples contains the estimated values of the quantiles given with
+ * {@link #FRACTIONS_CONFIG_PARAMETER}, in the same order.
+ *
+ * @see SketchWindowOperator
+ */
+@OperatorSpec( type = PARTITIONED_STATEFUL, inputPortCount = 1, outputPortCount = 1 )
+@OperatorSchema( outputs = { @PortSchema( portIndex = DEFAULT_PORT_INDEX, scope = EXTENDABLE_FIELD_SET, fields = { @SchemaField( name = SketchWindowOperator.WINDOW_FIELD, type = int.class ), @SchemaField( name = SketchWindowOperator.SKETCH_FIELD, type = KllSketch.class ), @SchemaField( name = QuantilesOperator.QUANTILES_FIELD, type = double[].class ) } ) } )
+public class QuantilesOperator extends SketchWindowOperator<KllSketch>
+{
+
+    public static final String K_CONFIG_PARAMETER = "k";
+
+    public static final String FRACTIONS_CONFIG_PARAMETER = "fractions";
+
+    public static final String QUANTILES_FIELD = "quantiles";
+
+    private static final double[] DEFAULT_FRACTIONS = { 0.5, 0.9, 0.99 };
+
+
+    private int k;
+
+    private double[] fractions;
+
+    @Override
+    protected void configure ( final OperatorConfig config )
+    {
+        this.k = config.getOrDefault( K_CONFIG_PARAMETER, KllSketch.DEFAULT_K );
+        this.fractions = config.getOrDefault( FRACTIONS_CONFIG_PARAMETER, DEFAULT_FRACTIONS );
+        checkArgument( k >= KllSketch.MIN_K, "invalid k: %s", k );
+        for ( double fraction : fractions )
+        {
+            checkArgument( fraction >= 0 && fraction <= 1, "invalid fraction: %s", fraction );
+        }
+    }
+
+    @Override
+    protected KllSketch createSketch ()
+    {
+        return new KllSketch( k );
+    }
+
+    @Override
+    protected void add ( final KllSketch sketch, final Object value )
+    {
+        sketch.add( ( (Number) value ).doubleValue() );
+    }
+
+    @Override
+    protected void setSummaryFields ( final KllSketch sketch, final Tuple output )
+    {
+        output.set( QUANTILES_FIELD, sketch.getQuantiles( fractions ) );
+    }
+
+}
@@ -0,0 +1,170 @@
+package cs.bilkent.joker.operators;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+import cs.bilkent.joker.operator.FieldHandle;
+import cs.bilkent.joker.operator.InitCtx;
+import cs.bilkent.joker.operator.InvocationCtx;
+import cs.bilkent.joker.operator.Operator;
+import cs.bilkent.joker.operator.OperatorConfig;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.kvstore.KVStore;
+import static cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.scheduleWhenTuplesAvailableOnDefaultPort;
+import cs.bilkent.joker.operator.scheduling.SchedulingStrategy;
+import cs.bilkent.joker.operator.schema.runtime.TupleSchema;
+import cs.bilkent.joker.operators.sketch.Sketch;
+
+
+/**
+ * Base class of the operators which summarize a field of the input tuples with a {@link Sketch} over sliding tuple-count windows of
+ * each partition key. A window contains the last {@link #WINDOW_TUPLE_COUNT_CONFIG_PARAMETER} tuples of a partition key, and it slides by
+ * {@link #SLIDE_TUPLE_COUNT_CONFIG_PARAMETER} tuples. If the slide is not given, windows are tumbling.
+ * <p>
+ * Each window is split into panes of slide size, and a sketch is kept for each pane, so that sketches of the panes are merged when a
+ * window is completed, instead of keeping all tuples of the window. For each window, an output tuple which contains the partition key
+ * fields, the window index, the sketch of the window, and summary fields set by the subclass is emitted. Since the emitted sketches are mergeable, a downstream
+ * operator can combine sketches of the same window produced by different replicas.
+ *
+ * @param <S>
+ *         type of the sketch
+ */
+public abstract class SketchWindowOperator<S extends Sketch<S>> implements Operator
+{
+
+    public static final String FIELD_NAME_CONFIG_PARAMETER = "fieldName";
+
+    public static final String WINDOW_TUPLE_COUNT_CONFIG_PARAMETER = "windowTupleCount";
+
+    public static final String SLIDE_TUPLE_COUNT_CONFIG_PARAMETER = "slideTupleCount";
+
+    public static final String WINDOW_FIELD = "window";
+
+    public static final String SKETCH_FIELD = "sketch";
+
+    static final String WINDOW_STATE_KEY = "windowState";
+
+
+    private TupleSchema outputSchema;
+
+    private List<String> partitionFieldNames;
+
+    private FieldHandle<Object> inputField;
+
+    private int slideTupleCount;
+
+    private int paneCount;
+
+    @Override
+    public final SchedulingStrategy init ( final InitCtx ctx )
+    {
+        final OperatorConfig config = ctx.getConfig();
+
+        final int windowTupleCount = config.getOrFail( WINDOW_TUPLE_COUNT_CONFIG_PARAMETER );
+        this.slideTupleCount = config.getOrDefault( SLIDE_TUPLE_COUNT_CONFIG_PARAMETER, windowTupleCount );
+        checkArgument( windowTupleCount > 0, "invalid window tuple count: %s", windowTupleCount );
+        checkArgument( slideTupleCount > 0 && windowTupleCount % slideTupleCount == 0,
+                       "slide tuple count: %s must divide window tuple count: %s",
+                       slideTupleCount,
+                       windowTupleCount );
+        this.paneCount = windowTupleCount / slideTupleCount;
+
+        this.inputField = ctx.getInputFieldHandle( 0, config.getOrFail( FIELD_NAME_CONFIG_PARAMETER ) );
+        this.outputSchema = ctx.getOutputPortSchema( 0 );
+        this.partitionFieldNames = ctx.getPartitionFieldNames();
+
+        configure( config );
+
+        return scheduleWhenTuplesAvailableOnDefaultPort( 1 );
+    }
+
+    @Override
+    public final void invoke ( final InvocationCtx ctx )
+    {
+        final KVStore kvStore = ctx.getKVStore();
+        final WindowState<S> state = kvStore.getOrDefault( WINDOW_STATE_KEY, WindowState::new );
+        if ( state.panes.isEmpty() )
+        {
+            state.panes.add( createSketch() );
+        }
+
+        for ( Tuple input : ctx.getInputTuplesByDefaultPort() )
+        {
+            final Object value = inputField.get( input );
+            if ( value == null )
+            {
+                continue;
+            }
+
+            add( state.panes.get( state.panes.size() - 1 ), value );
+
+            if ( ++state.paneTupleCount == slideTupleCount )
+            {
+                state.paneTupleCount = 0;
+                if ( state.panes.size() == paneCount )
+                {
+                    final Tuple output = new Tuple( outputSchema );
+                    final S sketch = mergePanes( state.panes );
+                    for ( int i = 0; i < partitionFieldNames.size(); i++ )
+                    {
+                        final String partitionFieldName = partitionFieldNames.get( i );
+                        output.set( partitionFieldName, input.get( partitionFieldName ) );
+                    }
+                    output.set( WINDOW_FIELD, state.windowCount++ ).set( SKETCH_FIELD, sketch );
+                    setSummaryFields( sketch, output );
+                    output.attachTo( input );
+                    ctx.output( output );
+                    state.panes.remove( 0 );
+                }
+
+                state.panes.add( createSketch() );
+            }
+        }
+
+        kvStore.set( WINDOW_STATE_KEY, state );
+    }
+
+    /**
+     * Reads the operator-specific config parameters. Called once before the first invocation.
+     */
+    protected abstract void configure ( OperatorConfig config );
+
+    protected abstract S createSketch ();
+
+    protected abstract void add ( S sketch, Object value );
+
+    /**
+     * Sets the operator-specific summary fields of the output tuple of a window
+     */
+    protected abstract void setSummaryFields ( S sketch, Tuple output );
+
+    private S mergePanes ( final List<S> panes )
+    {
+        if ( panes.size() == 1 )
+        {
+            // the pane is removed from the window state after it is emitted
+            return panes.get( 0 );
+        }
+
+        final S sketch = panes.get( 0 ).copy();
+        for ( int i = 1; i < panes.size(); i++ )
+        {
+            sketch.merge( panes.get( i ) );
+        }
+
+        return sketch;
+    }
+
+    static final class WindowState<S>
+    {
+
+        private final List<S> panes = new ArrayList<>();
+
+        private int paneTupleCount;
+
+        private int windowCount;
+
+    }
+
+}
@@ -5,6 +5,7 @@ import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import static cs.bilkent.joker.flow.Port.DEFAULT_PORT_INDEX;
+import cs.bilkent.joker.operator.FieldHandle;
 import cs.bilkent.joker.operator.InitCtx;
 import cs.bilkent.joker.operator.InvocationCtx;
 import cs.bilkent.joker.operator.Operator;
@@ -56,8 +57,14 @@ public class TupleCountBasedWindowReducerOperator implements Operator
 
     private Supplier<Tuple> accumulatorSupplier;
 
+    private FieldHandle<Integer> outputWindowField;
+
     private TupleSchema windowSchema;
 
+    private FieldHandle<Integer> windowTupleCountField;
+
+    private FieldHandle<Integer> windowWindowField;
+
     @Override
     public SchedulingStrategy init ( final InitCtx ctx )
     {
@@ -72,9 +79,12 @@ public class TupleCountBasedWindowReducerOperator implements Operator
             return accumulator;
         };
         this.outputSchema = ctx.getOutputPortSchema( 0 );
+        this.outputWindowField = ctx.getOutputFieldHandle( 0, WINDOW_FIELD );
         this.windowSchema = new PortRuntimeSchemaBuilder( EXACT_FIELD_SET,
                                                           asList( new RuntimeSchemaField( TUPLE_COUNT_FIELD, Integer.class ),
                                                                   new RuntimeSchemaField( WINDOW_FIELD, Integer.class ) ) ).build();
+        this.windowTupleCountField = FieldHandle.of( windowSchema, TUPLE_COUNT_FIELD );
+        this.windowWindowField = FieldHandle.of( windowSchema, WINDOW_FIELD );
 
         return scheduleWhenTuplesAvailableOnDefaultPort( 1 );
     }
@@ -85,8 +95,8 @@ public class TupleCountBasedWindowReducerOperator implements Operator
         final KVStore kvStore = ctx.getKVStore();
 
         final Tuple window = kvStore.getOrDefault( CURRENT_WINDOW_KEY, () -> new Tuple( windowSchema ) );
-        int currentTupleCount = window.getIntegerOrDefault( TUPLE_COUNT_FIELD, 0 );
-        int windowCount = window.getIntegerOrDefault( WINDOW_FIELD, 0 );
+        int currentTupleCount = windowTupleCountField.getIntegerValueOrDefault( window, 0 );
+        int windowCount = windowWindowField.getIntegerValueOrDefault( window, 0 );
         Tuple accumulator = kvStore.getOrDefault( ACCUMULATOR_TUPLE_KEY, accumulatorSupplier );
 
         for ( Tuple input : ctx.getInputTuplesByDefaultPort() )
@@ -96,7 +106,7 @@ public class TupleCountBasedWindowReducerOperator implements Operator
             if ( ++currentTupleCount == tupleCount )
             {
                 currentTupleCount = 0;
-                accumulator.set( WINDOW_FIELD, windowCount++ );
+                outputWindowField.set( accumulator, windowCount++ );
 
                 accumulator.attachTo( input );
                 ctx.output( accumulator );
@@ -104,7 +114,8 @@ public class TupleCountBasedWindowReducerOperator implements Operator
             }
         }
 
-        window.set( WINDOW_FIELD, windowCount ).set( TUPLE_COUNT_FIELD, currentTupleCount );
+        windowWindowField.set( window, windowCount );
+        windowTupleCountField.set( window, currentTupleCount );
 
         kvStore.set( CURRENT_WINDOW_KEY, window ).set( ACCUMULATOR_TUPLE_KEY, accumulator );
     }
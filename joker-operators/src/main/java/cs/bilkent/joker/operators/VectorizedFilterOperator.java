@@ -0,0 +1,130 @@
+package cs.bilkent.joker.operators;
+
+import java.util.function.DoublePredicate;
+import java.util.function.LongPredicate;
+
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+import cs.bilkent.joker.operator.ColumnarBatch;
+import cs.bilkent.joker.operator.InitCtx;
+import cs.bilkent.joker.operator.InvocationCtx;
+import cs.bilkent.joker.operator.OperatorConfig;
+import cs.bilkent.joker.operator.VectorizedOperator;
+import static cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.scheduleWhenTuplesAvailableOnDefaultPort;
+import cs.bilkent.joker.operator.scheduling.SchedulingStrategy;
+import cs.bilkent.joker.operator.schema.runtime.TupleSchema;
+import static cs.bilkent.joker.operator.schema.runtime.TupleSchema.FIELD_NOT_FOUND;
+import cs.bilkent.joker.operator.spec.OperatorSpec;
+import static cs.bilkent.joker.operator.spec.OperatorType.STATELESS;
+import static cs.bilkent.joker.operators.VectorizedMapperOperator.checkNumericFieldType;
+
+
+/**
+ * Vectorized variant of {@link FilterOperator}. Applies the given predicate function to values of a numeric field of the input tuples,
+ * and only returns the tuples with values that satisfy the predicate. The field must be present in the input port schema. The input
+ * tuples are processed in a columnar batch, which is assembled by the runtime if the input port schema has exact field set scope.
+ * <p>
+ * The predicate is either a {@link LongPredicate}, which is applied to a {@code long[]} column of an integral field, or a
+ * {@link DoublePredicate}, which is applied to a {@code double[]} column. A {@link DoublePredicate} cannot be given for a {@code Long}
+ * field, since values above 2^53 cannot be represented as {@code double} precisely. The predicate is applied in a single loop over the
+ * column and the selection vector is narrowed down without branching on the predicate result.
+ */
+@OperatorSpec( type = STATELESS, inputPortCount = 1, outputPortCount = 1 )
+public class VectorizedFilterOperator implements VectorizedOperator
+{
+
+    public static final String FIELD_CONFIG_PARAMETER = "field";
+
+    public static final String PREDICATE_CONFIG_PARAMETER = "predicate";
+
+    private static final int DEFAULT_TUPLE_COUNT_CONFIG_VALUE = 1;
+
+
+    private LongPredicate longPredicate;
+
+    private DoublePredicate doublePredicate;
+
+    private int fieldIndex;
+
+    private ColumnarBatch[] inputBatches;
+
+    @Override
+    public SchedulingStrategy init ( final InitCtx ctx )
+    {
+        final OperatorConfig config = ctx.getConfig();
+
+        final String field = config.getOrFail( FIELD_CONFIG_PARAMETER );
+        final Object predicate = config.getOrFail( PREDICATE_CONFIG_PARAMETER );
+        final TupleSchema inputSchema = ctx.getInputPortSchema( 0 );
+        this.fieldIndex = inputSchema.getFieldIndex( field );
+        checkArgument( fieldIndex != FIELD_NOT_FOUND, "%s is not present in input port schema", field );
+        final Class<?> fieldType = inputSchema.getFields().get( fieldIndex ).getType();
+        if ( predicate instanceof LongPredicate )
+        {
+            checkNumericFieldType( field, fieldType, true );
+            this.longPredicate = (LongPredicate) predicate;
+        }
+        else
+        {
+            checkArgument( predicate instanceof DoublePredicate,
+                           "%s must be a LongPredicate or DoublePredicate",
+                           PREDICATE_CONFIG_PARAMETER );
+            checkNumericFieldType( field, fieldType, false );
+            this.doublePredicate = (DoublePredicate) predicate;
+        }
+        this.inputBatches = new ColumnarBatch[] { new ColumnarBatch( inputSchema ) };
+        return scheduleWhenTuplesAvailableOnDefaultPort( DEFAULT_TUPLE_COUNT_CONFIG_VALUE );
+    }
+
+    @Override
+    public void invoke ( final InvocationCtx ctx )
+    {
+        inputBatches[ 0 ].reset( ctx.getInputTuplesByDefaultPort() );
+        invoke( ctx, inputBatches );
+    }
+
+    @Override
+    public void invoke ( final InvocationCtx ctx, final ColumnarBatch[] inputBatches )
+    {
+        final ColumnarBatch batch = inputBatches[ 0 ];
+        final int selectedCount = longPredicate != null ? filterLongs( batch ) : filterDoubles( batch );
+        batch.setSelectedCount( selectedCount );
+
+        for ( int i = 0; i < selectedCount; i++ )
+        {
+            ctx.output( batch.getSelectedTuple( i ) );
+        }
+    }
+
+    private int filterLongs ( final ColumnarBatch batch )
+    {
+        final LongPredicate predicate = this.longPredicate;
+        final long[] values = batch.getLongColumn( fieldIndex );
+        final int[] selection = batch.getSelection();
+        int selectedCount = 0;
+        for ( int i = 0, j = batch.getSelectedCount(); i < j; i++ )
+        {
+            final int index = selection[ i ];
+            selection[ selectedCount ] = index;
+            selectedCount += predicate.test( values[ index ] ) ? 1 : 0;
+        }
+
+        return selectedCount;
+    }
+
+    private int filterDoubles ( final ColumnarBatch batch )
+    {
+        final DoublePredicate predicate = this.doublePredicate;
+        final double[] values = batch.getDoubleColumn( fieldIndex );
+        final int[] selection = batch.getSelection();
+        int selectedCount = 0;
+        for ( int i = 0, j = batch.getSelectedCount(); i < j; i++ )
+        {
+            final int index = selection[ i ];
+            selection[ selectedCount ] = index;
+            selectedCount += predicate.test( values[ index ] ) ? 1 : 0;
+        }
+
+        return selectedCount;
+    }
+
+}
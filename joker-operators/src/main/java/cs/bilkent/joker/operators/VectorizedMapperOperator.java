@@ -0,0 +1,214 @@
+package cs.bilkent.joker.operators;
+
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.LongUnaryOperator;
+
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+import cs.bilkent.joker.operator.ColumnarBatch;
+import cs.bilkent.joker.operator.FieldHandle;
+import cs.bilkent.joker.operator.InitCtx;
+import cs.bilkent.joker.operator.InvocationCtx;
+import cs.bilkent.joker.operator.OperatorConfig;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.VectorizedOperator;
+import static cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.scheduleWhenTuplesAvailableOnDefaultPort;
+import cs.bilkent.joker.operator.scheduling.SchedulingStrategy;
+import cs.bilkent.joker.operator.schema.runtime.TupleSchema;
+import static cs.bilkent.joker.operator.schema.runtime.TupleSchema.FIELD_NOT_FOUND;
+import cs.bilkent.joker.operator.spec.OperatorSpec;
+import static cs.bilkent.joker.operator.spec.OperatorType.STATELESS;
+import static java.lang.Math.max;
+
+
+/**
+ * Vectorized variant of {@link MapperOperator}. Maps values of a numeric field of the input tuples with the provided mapper function, and
+ * returns a new output tuple for each input tuple, which contains the mapped value in the output field. The input field must be present
+ * in the input port schema. The input tuples are processed in a columnar batch, which is assembled by the runtime if the input port
+ * schema has exact field set scope.
+ * <p>
+ * The mapper is either a {@link LongUnaryOperator}, which maps a {@code long[]} column of an integral field to {@code Long} values, or a
+ * {@link DoubleUnaryOperator}, which maps a {@code double[]} column to {@code Double} values. A {@link DoubleUnaryOperator} cannot be
+ * given for a {@code Long} field, since values above 2^53 cannot be represented as {@code double} precisely. The mapped values are
+ * computed into a primitive array in a loop over the column before the output tuples are created. If all tuples of the batch are
+ * selected, the column is read sequentially, so that the JIT compiler can vectorize the loop when the mapper is inlined.
+ */
+@OperatorSpec( type = STATELESS, inputPortCount = 1, outputPortCount = 1 )
+public class VectorizedMapperOperator implements VectorizedOperator
+{
+
+    public static final String INPUT_FIELD_CONFIG_PARAMETER = "inputField";
+
+    public static final String OUTPUT_FIELD_CONFIG_PARAMETER = "outputField";
+
+    public static final String MAPPER_CONFIG_PARAMETER = "mapper";
+
+    private static final int DEFAULT_TUPLE_COUNT_CONFIG_VALUE = 1;
+
+
+    private LongUnaryOperator longMapper;
+
+    private DoubleUnaryOperator doubleMapper;
+
+    private int inputFieldIndex;
+
+    private FieldHandle<Object> outputField;
+
+    private TupleSchema outputSchema;
+
+    private ColumnarBatch[] inputBatches;
+
+    private long[] longResults = new long[ 0 ];
+
+    private double[] doubleResults = new double[ 0 ];
+
+    @Override
+    public SchedulingStrategy init ( final InitCtx ctx )
+    {
+        final OperatorConfig config = ctx.getConfig();
+
+        final String inputField = config.getOrFail( INPUT_FIELD_CONFIG_PARAMETER );
+        final String outputField = config.getOrFail( OUTPUT_FIELD_CONFIG_PARAMETER );
+        final Object mapper = config.getOrFail( MAPPER_CONFIG_PARAMETER );
+        final TupleSchema inputSchema = ctx.getInputPortSchema( 0 );
+        this.inputFieldIndex = inputSchema.getFieldIndex( inputField );
+        checkArgument( inputFieldIndex != FIELD_NOT_FOUND, "%s is not present in input port schema", inputField );
+        final Class<?> inputFieldType = inputSchema.getFields().get( inputFieldIndex ).getType();
+        if ( mapper instanceof LongUnaryOperator )
+        {
+            checkNumericFieldType( inputField, inputFieldType, true );
+            this.longMapper = (LongUnaryOperator) mapper;
+        }
+        else
+        {
+            checkArgument( mapper instanceof DoubleUnaryOperator,
+                           "%s must be a LongUnaryOperator or DoubleUnaryOperator",
+                           MAPPER_CONFIG_PARAMETER );
+            checkNumericFieldType( inputField, inputFieldType, false );
+            this.doubleMapper = (DoubleUnaryOperator) mapper;
+        }
+        this.outputField = ctx.getOutputFieldHandle( 0, outputField );
+        this.outputSchema = ctx.getOutputPortSchema( 0 );
+        this.inputBatches = new ColumnarBatch[] { new ColumnarBatch( inputSchema ) };
+        return scheduleWhenTuplesAvailableOnDefaultPort( DEFAULT_TUPLE_COUNT_CONFIG_VALUE );
+    }
+
+    @Override
+    public void invoke ( final InvocationCtx ctx )
+    {
+        inputBatches[ 0 ].reset( ctx.getInputTuplesByDefaultPort() );
+        invoke( ctx, inputBatches );
+    }
+
+    @Override
+    public void invoke ( final InvocationCtx ctx, final ColumnarBatch[] inputBatches )
+    {
+        final ColumnarBatch batch = inputBatches[ 0 ];
+        final int selectedCount = batch.getSelectedCount();
+        if ( longMapper != null )
+        {
+            final long[] results = mapLongs( batch );
+            for ( int i = 0; i < selectedCount; i++ )
+            {
+                output( ctx, batch.getSelectedTuple( i ), results[ i ] );
+            }
+        }
+        else
+        {
+            final double[] results = mapDoubles( batch );
+            for ( int i = 0; i < selectedCount; i++ )
+            {
+                output( ctx, batch.getSelectedTuple( i ), results[ i ] );
+            }
+        }
+    }
+
+    private long[] mapLongs ( final ColumnarBatch batch )
+    {
+        final LongUnaryOperator mapper = this.longMapper;
+        final long[] values = batch.getLongColumn( inputFieldIndex );
+        final int[] selection = batch.getSelection();
+        final int selectedCount = batch.getSelectedCount();
+        if ( longResults.length < selectedCount )
+        {
+            longResults = new long[ max( selectedCount, longResults.length * 2 ) ];
+        }
+
+        final long[] results = this.longResults;
+        if ( selectedCount == batch.size() )
+        {
+            for ( int i = 0; i < selectedCount; i++ )
+            {
+                results[ i ] = mapper.applyAsLong( values[ i ] );
+            }
+        }
+        else
+        {
+            for ( int i = 0; i < selectedCount; i++ )
+            {
+                results[ i ] = mapper.applyAsLong( values[ selection[ i ] ] );
+            }
+        }
+
+        return results;
+    }
+
+    private double[] mapDoubles ( final ColumnarBatch batch )
+    {
+        final DoubleUnaryOperator mapper = this.doubleMapper;
+        final double[] values = batch.getDoubleColumn( inputFieldIndex );
+        final int[] selection = batch.getSelection();
+        final int selectedCount = batch.getSelectedCount();
+        if ( doubleResults.length < selectedCount )
+        {
+            doubleResults = new double[ max( selectedCount, doubleResults.length * 2 ) ];
+        }
+
+        final double[] results = this.doubleResults;
+        if ( selectedCount == batch.size() )
+        {
+            for ( int i = 0; i < selectedCount; i++ )
+            {
+                results[ i ] = mapper.applyAsDouble( values[ i ] );
+            }
+        }
+        else
+        {
+            for ( int i = 0; i < selectedCount; i++ )
+            {
+                results[ i ] = mapper.applyAsDouble( values[ selection[ i ] ] );
+            }
+        }
+
+        return results;
+    }
+
+    private void output ( final InvocationCtx ctx, final Tuple input, final Object value )
+    {
+        final Tuple result = new Tuple( outputSchema );
+        result.attachTo( input );
+        outputField.set( result, value );
+        ctx.output( result );
+    }
+
+    /**
+     * Checks if values of the given field can be processed in a {@code long[]} column, or in a {@code double[]} column without losing
+     * precision
+     */
+    static void checkNumericFieldType ( final String field, final Class<?> fieldType, final boolean longColumn )
+    {
+        final boolean integral =
+                fieldType == Long.class || fieldType == Integer.class || fieldType == Short.class || fieldType == Byte.class;
+        if ( longColumn )
+        {
+            checkArgument( integral, "%s must be an integral field to be processed as long, but it is %s", field, fieldType.getName() );
+        }
+        else
+        {
+            checkArgument( fieldType == Double.class || fieldType == Float.class || ( integral && fieldType != Long.class ),
+                           "%s must be a floating point or int field to be processed as double, but it is %s",
+                           field,
+                           fieldType.getName() );
+        }
+    }
+
+}
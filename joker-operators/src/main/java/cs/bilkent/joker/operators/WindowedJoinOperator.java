@@ -0,0 +1,214 @@
+package cs.bilkent.joker.operators;
+
+import java.util.List;
+
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+import cs.bilkent.joker.operator.FieldHandle;
+import cs.bilkent.joker.operator.InitCtx;
+import cs.bilkent.joker.operator.InvocationCtx;
+import cs.bilkent.joker.operator.Operator;
+import cs.bilkent.joker.operator.OperatorConfig;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.kvstore.KVStore;
+import static cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.TupleAvailabilityByCount.AT_LEAST;
+import static cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.scheduleWhenTuplesAvailableOnAny;
+import cs.bilkent.joker.operator.scheduling.SchedulingStrategy;
+import cs.bilkent.joker.operator.schema.runtime.TupleSchema;
+import cs.bilkent.joker.operator.spec.OperatorSpec;
+import static cs.bilkent.joker.operator.spec.OperatorType.PARTITIONED_STATEFUL;
+
+
+/**
+ * Symmetric hash join of the tuples of two input ports which have the same partition key. Tuples of each port are buffered per partition
+ * key, and each input tuple is joined with the buffered tuples of the other port with the provided joiner function. Tuples of the left
+ * port are given as the first argument of the joiner function.
+ * <p>
+ * If {@link #TIMESTAMP_FIELD_CONFIG_PARAMETER} is given, two tuples are joined if their timestamps differ by at most
+ * {@link #WINDOW_SIZE_CONFIG_PARAMETER}. Timestamps of the tuples of each port must be non-decreasing. A buffered tuple is expired when
+ * a tuple arrives from the other port with a timestamp greater than the buffered timestamp plus window size. Otherwise, each tuple is
+ * joined with the last {@link #WINDOW_TUPLE_COUNT_CONFIG_PARAMETER} tuples of the other port.
+ * <p>
+ * The operator is invoked when any of its ports has a tuple, hence a stalled port does not block the other port.
+ */
+@OperatorSpec( type = PARTITIONED_STATEFUL, inputPortCount = 2, outputPortCount = 1 )
+public class WindowedJoinOperator implements Operator
+{
+
+    public static final String JOINER_CONFIG_PARAMETER = "joiner";
+
+    public static final String TIMESTAMP_FIELD_CONFIG_PARAMETER = "timestampField";
+
+    public static final String WINDOW_SIZE_CONFIG_PARAMETER = "windowSize";
+
+    public static final String WINDOW_TUPLE_COUNT_CONFIG_PARAMETER = "windowTupleCount";
+
+    public static final int LEFT_PORT_INDEX = 0;
+
+    public static final int RIGHT_PORT_INDEX = 1;
+
+    static final String LEFT_BUFFER_KEY = "left";
+
+    static final String RIGHT_BUFFER_KEY = "right";
+
+
+    private Joiner joiner;
+
+    private TupleSchema outputSchema;
+
+    private FieldHandle<Number> leftTimestampField;
+
+    private FieldHandle<Number> rightTimestampField;
+
+    private long windowSize;
+
+    private int windowTupleCount;
+
+    @Override
+    public SchedulingStrategy init ( final InitCtx ctx )
+    {
+        final OperatorConfig config = ctx.getConfig();
+
+        this.joiner = config.getOrFail( JOINER_CONFIG_PARAMETER );
+        this.outputSchema = ctx.getOutputPortSchema( 0 );
+
+        final String timestampField = config.get( TIMESTAMP_FIELD_CONFIG_PARAMETER );
+        if ( timestampField != null )
+        {
+            checkArgument( !config.contains( WINDOW_TUPLE_COUNT_CONFIG_PARAMETER ),
+                           "%s and %s cannot be given together",
+                           TIMESTAMP_FIELD_CONFIG_PARAMETER,
+                           WINDOW_TUPLE_COUNT_CONFIG_PARAMETER );
+            this.windowSize = config.<Number>getOrFail( WINDOW_SIZE_CONFIG_PARAMETER ).longValue();
+            checkArgument( windowSize >= 0, "invalid window size: %s", windowSize );
+            this.leftTimestampField = ctx.getInputFieldHandle( LEFT_PORT_INDEX, timestampField );
+            this.rightTimestampField = ctx.getInputFieldHandle( RIGHT_PORT_INDEX, timestampField );
+        }
+        else
+        {
+            this.windowTupleCount = config.getOrFail( WINDOW_TUPLE_COUNT_CONFIG_PARAMETER );
+            checkArgument( windowTupleCount > 0, "invalid window tuple count: %s", windowTupleCount );
+        }
+
+        return scheduleWhenTuplesAvailableOnAny( AT_LEAST, 2, 1, LEFT_PORT_INDEX, RIGHT_PORT_INDEX );
+    }
+
+    @Override
+    public void invoke ( final InvocationCtx ctx )
+    {
+        final KVStore kvStore = ctx.getKVStore();
+        final JoinBuffer left = kvStore.getOrDefault( LEFT_BUFFER_KEY, JoinBuffer::new );
+        final JoinBuffer right = kvStore.getOrDefault( RIGHT_BUFFER_KEY, JoinBuffer::new );
+
+        final List<Tuple> leftTuples = ctx.getInputTuples( LEFT_PORT_INDEX );
+        final List<Tuple> rightTuples = ctx.getInputTuples( RIGHT_PORT_INDEX );
+        if ( leftTimestampField != null )
+        {
+            joinByTime( ctx, leftTuples, leftTimestampField, left, right, true, ctx.isInputPortOpen( RIGHT_PORT_INDEX ) );
+            joinByTime( ctx, rightTuples, rightTimestampField, right, left, false, ctx.isInputPortOpen( LEFT_PORT_INDEX ) );
+        }
+        else
+        {
+            joinByCount( ctx, leftTuples, left, right, true, ctx.isInputPortOpen( RIGHT_PORT_INDEX ) );
+            joinByCount( ctx, rightTuples, right, left, false, ctx.isInputPortOpen( LEFT_PORT_INDEX ) );
+        }
+
+        if ( left.isEmpty() && right.isEmpty() )
+        {
+            kvStore.delete( LEFT_BUFFER_KEY );
+            kvStore.delete( RIGHT_BUFFER_KEY );
+        }
+        else
+        {
+            kvStore.set( LEFT_BUFFER_KEY, left ).set( RIGHT_BUFFER_KEY, right );
+        }
+    }
+
+    private void joinByTime ( final InvocationCtx ctx,
+                              final List<Tuple> tuples,
+                              final FieldHandle<Number> timestampField,
+                              final JoinBuffer buffer,
+                              final JoinBuffer otherBuffer,
+                              final boolean isLeft,
+                              final boolean isOtherPortOpen )
+    {
+        if ( !isOtherPortOpen )
+        {
+            buffer.expireToSize( 0 );
+        }
+
+        for ( int i = 0; i < tuples.size(); i++ )
+        {
+            final Tuple tuple = tuples.get( i );
+            final long timestamp = timestampField.getOrFail( tuple ).longValue();
+
+            otherBuffer.expireBefore( timestamp - windowSize );
+            final int end = otherBuffer.upperBound( timestamp + windowSize );
+            for ( int j = 0; j < end; j++ )
+            {
+                join( ctx, tuple, otherBuffer.get( j ), isLeft );
+            }
+
+            // a tuple can be joined only with the tuples which will arrive from the other port
+            if ( isOtherPortOpen )
+            {
+                buffer.add( tuple, timestamp );
+            }
+        }
+    }
+
+    private void joinByCount ( final InvocationCtx ctx,
+                               final List<Tuple> tuples,
+                               final JoinBuffer buffer,
+                               final JoinBuffer otherBuffer,
+                               final boolean isLeft,
+                               final boolean isOtherPortOpen )
+    {
+        if ( !isOtherPortOpen )
+        {
+            buffer.expireToSize( 0 );
+        }
+
+        for ( int i = 0; i < tuples.size(); i++ )
+        {
+            final Tuple tuple = tuples.get( i );
+            for ( int j = 0; j < otherBuffer.size(); j++ )
+            {
+                join( ctx, tuple, otherBuffer.get( j ), isLeft );
+            }
+
+            if ( isOtherPortOpen )
+            {
+                buffer.add( tuple, 0 );
+                buffer.expireToSize( windowTupleCount );
+            }
+        }
+    }
+
+    private void join ( final InvocationCtx ctx, final Tuple input, final Tuple buffered, final boolean isLeft )
+    {
+        final Tuple result = new Tuple( outputSchema );
+        result.attachTo( input );
+        if ( isLeft )
+        {
+            joiner.join( input, buffered, result );
+        }
+        else
+        {
+            joiner.join( buffered, input, result );
+        }
+
+        ctx.output( result );
+    }
+
+    /**
+     * Sets fields of the output tuple for a pair of joined tuples
+     */
+    @FunctionalInterface
+    public interface Joiner
+    {
+
+        void join ( Tuple left, Tuple right, Tuple output );
+
+    }
+
+}
@@ -0,0 +1,140 @@
+package cs.bilkent.joker.operators.sketch;
+
+import java.util.Arrays;
+
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * HyperLogLog sketch which estimates the number of distinct values. It keeps {@code 2^precision} one-byte registers, and its relative
+ * standard error is about {@code 1.04 / sqrt(2^precision)}.
+ *
+ * @see <a href="http://algo.inria.fr/flajolet/Publications/FlFuGaMe07.pdf">HyperLogLog: the analysis of a near-optimal cardinality
+ * estimation algorithm</a>
+ */
+public final class HyperLogLogSketch implements Sketch<HyperLogLogSketch>
+{
+
+    public static final int MIN_PRECISION = 4;
+
+    public static final int MAX_PRECISION = 18;
+
+
+    private final int precision;
+
+    private final byte[] registers;
+
+    public HyperLogLogSketch ( final int precision )
+    {
+        checkArgument( precision >= MIN_PRECISION && precision <= MAX_PRECISION, "invalid precision: %s", precision );
+        this.precision = precision;
+        this.registers = new byte[ 1 << precision ];
+    }
+
+    private HyperLogLogSketch ( final int precision, final byte[] registers )
+    {
+        this.precision = precision;
+        this.registers = registers;
+    }
+
+    public int getPrecision ()
+    {
+        return precision;
+    }
+
+    public void add ( final Object value )
+    {
+        addHash( SketchHashing.hash( value ) );
+    }
+
+    /**
+     * Adds a value with the given 64-bit hash. Bits of the hash must be uniformly distributed.
+     */
+    public void addHash ( final long hash )
+    {
+        final int index = (int) ( hash >>> ( Long.SIZE - precision ) );
+        // the sentinel bit bounds the rank when the remaining bits are all zero
+        final byte rank = (byte) ( Long.numberOfLeadingZeros( ( hash << precision ) | ( 1L << ( precision - 1 ) ) ) + 1 );
+        if ( registers[ index ] < rank )
+        {
+            registers[ index ] = rank;
+        }
+    }
+
+    public long estimate ()
+    {
+        final int m = registers.length;
+        double sum = 0;
+        int zeroRegisterCount = 0;
+        for ( byte register : registers )
+        {
+            sum += 1d / ( 1L << register );
+            if ( register == 0 )
+            {
+                zeroRegisterCount++;
+            }
+        }
+
+        final double estimate = alpha( m ) * m * m / sum;
+        if ( estimate <= 2.5 * m && zeroRegisterCount > 0 )
+        {
+            // linear counting is more accurate for small cardinalities
+            return Math.round( m * Math.log( (double) m / zeroRegisterCount ) );
+        }
+
+        return Math.round( estimate );
+    }
+
+    public boolean isEmpty ()
+    {
+        for ( byte register : registers )
+        {
+            if ( register != 0 )
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public void merge ( final HyperLogLogSketch other )
+    {
+        checkArgument( precision == other.precision, "cannot merge sketches with precisions %s and %s", precision, other.precision );
+        for ( int i = 0; i < registers.length; i++ )
+        {
+            if ( registers[ i ] < other.registers[ i ] )
+            {
+                registers[ i ] = other.registers[ i ];
+            }
+        }
+    }
+
+    @Override
+    public HyperLogLogSketch copy ()
+    {
+        return new HyperLogLogSketch( precision, Arrays.copyOf( registers, registers.length ) );
+    }
+
+    private static double alpha ( final int m )
+    {
+        switch ( m )
+        {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / ( 1 + 1.079 / m );
+        }
+    }
+
+    @Override
+    public String toString ()
+    {
+        return "HyperLogLogSketch{" + "precision=" + precision + ", estimate=" + estimate() + '}';
+    }
+
+}
@@ -0,0 +1,348 @@
+package cs.bilkent.joker.operators.sketch;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * KLL sketch which estimates quantiles of a stream of numbers. Values are kept in a hierarchy of compactors, where each value in level
+ * {@code h} represents {@code 2^h} values of the stream. When the sketch is full, the lowest level which exceeds its capacity is sorted,
+ * and either its odd or even positioned values are promoted to the next level. Capacities of the levels decrease geometrically from the
+ * top level, which has a capacity of {@code k}. The rank error is about {@code 1.65 / k}.
+ *
+ * @see <a href="https://arxiv.org/abs/1603.05346">Optimal Quantile Approximation in Streams</a>
+ */
+public final class KllSketch implements Sketch<KllSketch>
+{
+
+    public static final int DEFAULT_K = 200;
+
+    public static final int MIN_K = 8;
+
+    private static final int MIN_LEVEL_CAPACITY = 2;
+
+    private static final double CAPACITY_DECAY = 2d / 3;
+
+
+    private final int k;
+
+    private double[][] levels;
+
+    private int[] levelSizes;
+
+    private int levelCount;
+
+    private int totalCapacity;
+
+    private long count;
+
+    private double min = Double.NaN;
+
+    private double max = Double.NaN;
+
+    public KllSketch ()
+    {
+        this( DEFAULT_K );
+    }
+
+    public KllSketch ( final int k )
+    {
+        checkArgument( k >= MIN_K, "invalid k: %s", k );
+        this.k = k;
+        this.levels = new double[][] { new double[ k ] };
+        this.levelSizes = new int[ 1 ];
+        this.levelCount = 1;
+        this.totalCapacity = k;
+    }
+
+    public int getK ()
+    {
+        return k;
+    }
+
+    public long getCount ()
+    {
+        return count;
+    }
+
+    public boolean isEmpty ()
+    {
+        return count == 0;
+    }
+
+    public double getMin ()
+    {
+        return min;
+    }
+
+    public double getMax ()
+    {
+        return max;
+    }
+
+    public void add ( final double value )
+    {
+        checkArgument( !Double.isNaN( value ), "value can't be NaN" );
+
+        append( 0, value );
+        updateMinMax( value, value );
+        count++;
+        compressIfFull();
+    }
+
+    /**
+     * Returns an estimate of the value at the given normalized rank, or {@link Double#NaN} if the sketch is empty
+     *
+     * @param fraction
+     *         normalized rank between 0 and 1
+     */
+    public double getQuantile ( final double fraction )
+    {
+        checkArgument( fraction >= 0 && fraction <= 1, "invalid fraction: %s", fraction );
+        if ( count == 0 )
+        {
+            return Double.NaN;
+        }
+        else if ( fraction == 0 )
+        {
+            return min;
+        }
+        else if ( fraction == 1 )
+        {
+            return max;
+        }
+
+        final int retained = getRetainedCount();
+        final double[] values = new double[ retained ];
+        final long[] weights = new long[ retained ];
+        sortRetainedValues( values, weights );
+
+        final double target = fraction * count;
+        long cumulativeWeight = 0;
+        for ( int i = 0; i < retained; i++ )
+        {
+            cumulativeWeight += weights[ i ];
+            if ( cumulativeWeight >= target )
+            {
+                return values[ i ];
+            }
+        }
+
+        return max;
+    }
+
+    public double[] getQuantiles ( final double[] fractions )
+    {
+        final double[] quantiles = new double[ fractions.length ];
+        for ( int i = 0; i < fractions.length; i++ )
+        {
+            quantiles[ i ] = getQuantile( fractions[ i ] );
+        }
+
+        return quantiles;
+    }
+
+    /**
+     * Returns an estimate of the fraction of the values which are smaller than or equal to the given value
+     */
+    public double getRank ( final double value )
+    {
+        if ( count == 0 )
+        {
+            return Double.NaN;
+        }
+
+        long weight = 0;
+        for ( int h = 0; h < levelCount; h++ )
+        {
+            for ( int i = 0; i < levelSizes[ h ]; i++ )
+            {
+                if ( levels[ h ][ i ] <= value )
+                {
+                    weight += 1L << h;
+                }
+            }
+        }
+
+        return (double) weight / count;
+    }
+
+    @Override
+    public void merge ( final KllSketch other )
+    {
+        checkArgument( k == other.k, "cannot merge sketches with k values %s and %s", k, other.k );
+        if ( other.count == 0 )
+        {
+            return;
+        }
+
+        for ( int h = 0; h < other.levelCount; h++ )
+        {
+            for ( int i = 0; i < other.levelSizes[ h ]; i++ )
+            {
+                append( h, other.levels[ h ][ i ] );
+            }
+        }
+
+        updateMinMax( other.min, other.max );
+        count += other.count;
+        compressIfFull();
+    }
+
+    @Override
+    public KllSketch copy ()
+    {
+        final KllSketch copy = new KllSketch( k );
+        copy.levels = new double[ levels.length ][];
+        for ( int h = 0; h < levelCount; h++ )
+        {
+            copy.levels[ h ] = Arrays.copyOf( levels[ h ], levels[ h ].length );
+        }
+        copy.levelSizes = Arrays.copyOf( levelSizes, levelSizes.length );
+        copy.levelCount = levelCount;
+        copy.totalCapacity = totalCapacity;
+        copy.count = count;
+        copy.min = min;
+        copy.max = max;
+        return copy;
+    }
+
+    int getRetainedCount ()
+    {
+        int retained = 0;
+        for ( int h = 0; h < levelCount; h++ )
+        {
+            retained += levelSizes[ h ];
+        }
+
+        return retained;
+    }
+
+    private void append ( final int level, final double value )
+    {
+        while ( level >= levelCount )
+        {
+            addLevel();
+        }
+
+        if ( levelSizes[ level ] == levels[ level ].length )
+        {
+            levels[ level ] = Arrays.copyOf( levels[ level ], levels[ level ].length * 2 );
+        }
+
+        levels[ level ][ levelSizes[ level ]++ ] = value;
+    }
+
+    private void updateMinMax ( final double otherMin, final double otherMax )
+    {
+        if ( Double.isNaN( min ) || otherMin < min )
+        {
+            min = otherMin;
+        }
+        if ( Double.isNaN( max ) || otherMax > max )
+        {
+            max = otherMax;
+        }
+    }
+
+    private void compressIfFull ()
+    {
+        while ( getRetainedCount() >= totalCapacity )
+        {
+            compress();
+        }
+    }
+
+    private void compress ()
+    {
+        int level = 0;
+        while ( levelSizes[ level ] < getLevelCapacity( level ) )
+        {
+            level++;
+        }
+
+        if ( level == levelCount - 1 )
+        {
+            addLevel();
+        }
+
+        final double[] values = levels[ level ];
+        final int size = levelSizes[ level ];
+        Arrays.sort( values, 0, size );
+
+        // if the level has an odd number of values, the smallest one stays in the level
+        final int start = size & 1;
+        final int offset = ThreadLocalRandom.current().nextBoolean() ? 1 : 0;
+        for ( int i = start + offset; i < size; i += 2 )
+        {
+            append( level + 1, values[ i ] );
+        }
+
+        levelSizes[ level ] = start;
+    }
+
+    private void addLevel ()
+    {
+        if ( levelCount == levels.length )
+        {
+            levels = Arrays.copyOf( levels, levelCount * 2 );
+            levelSizes = Arrays.copyOf( levelSizes, levelCount * 2 );
+        }
+
+        levels[ levelCount ] = new double[ k ];
+        levelSizes[ levelCount ] = 0;
+        levelCount++;
+
+        totalCapacity = 0;
+        for ( int h = 0; h < levelCount; h++ )
+        {
+            totalCapacity += getLevelCapacity( h );
+        }
+    }
+
+    private int getLevelCapacity ( final int level )
+    {
+        final int depth = levelCount - 1 - level;
+        return Math.max( MIN_LEVEL_CAPACITY, (int) Math.ceil( k * Math.pow( CAPACITY_DECAY, depth ) ) );
+    }
+
+    private void sortRetainedValues ( final double[] values, final long[] weights )
+    {
+        int i = 0;
+        for ( int h = 0; h < levelCount; h++ )
+        {
+            for ( int j = 0; j < levelSizes[ h ]; j++ )
+            {
+                values[ i ] = levels[ h ][ j ];
+                weights[ i ] = 1L << h;
+                i++;
+            }
+        }
+
+        final Integer[] order = new Integer[ values.length ];
+        for ( int j = 0; j < order.length; j++ )
+        {
+            order[ j ] = j;
+        }
+        Arrays.sort( order, ( a, b ) -> Double.compare( values[ a ], values[ b ] ) );
+
+        final double[] sortedValues = new double[ values.length ];
+        final long[] sortedWeights = new long[ values.length ];
+        for ( int j = 0; j < order.length; j++ )
+        {
+            sortedValues[ j ] = values[ order[ j ] ];
+            sortedWeights[ j ] = weights[ order[ j ] ];
+        }
+
+        System.arraycopy( sortedValues, 0, values, 0, values.length );
+        System.arraycopy( sortedWeights, 0, weights, 0, weights.length );
+    }
+
+    @Override
+    public String toString ()
+    {
+        return "KllSketch{" + "k=" + k + ", count=" + count + ", retained=" + getRetainedCount() + ", levels=" + levelCount + '}';
+    }
+
+}
@@ -0,0 +1,32 @@
+package cs.bilkent.joker.operators.sketch;
+
+/**
+ * A summary of a stream which has a bounded size regardless of the number of values it summarizes. Sketches of the same type and the
+ * same parameters are mergeable, hence partial sketches built by different replicas or for different windows can be combined to obtain
+ * a summary of all of their values.
+ *
+ * @param <S>
+ *         type of the sketch
+ */
+public interface Sketch<S extends Sketch<S>>
+{
+
+    /**
+     * Adds the values summarized by the given sketch to this sketch. The given sketch is not modified.
+     *
+     * @param other
+     *         sketch to merge into this sketch
+     *
+     * @throws IllegalArgumentException
+     *         if parameters of the sketches are different
+     */
+    void merge ( S other );
+
+    /**
+     * Returns a copy of this sketch which does not share any state with this sketch
+     *
+     * @return a copy of this sketch
+     */
+    S copy ();
+
+}
@@ -0,0 +1,57 @@
+package cs.bilkent.joker.operators.sketch;
+
+/**
+ * 64-bit hashing of the values added to the sketches. {@link Object#hashCode()} values are not used directly since they are only 32 bits
+ * and usually not well-distributed for integral values.
+ */
+final class SketchHashing
+{
+
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+
+    private SketchHashing ()
+    {
+    }
+
+    static long hash ( final Object value )
+    {
+        if ( value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte )
+        {
+            return fmix64( ( (Number) value ).longValue() );
+        }
+        else if ( value instanceof Double )
+        {
+            return fmix64( Double.doubleToLongBits( (Double) value ) );
+        }
+        else if ( value instanceof String )
+        {
+            final String s = (String) value;
+            long h = FNV_OFFSET_BASIS;
+            for ( int i = 0; i < s.length(); i++ )
+            {
+                h = ( h ^ s.charAt( i ) ) * FNV_PRIME;
+            }
+
+            return fmix64( h );
+        }
+
+        return fmix64( value.hashCode() );
+    }
+
+    /**
+     * Finalization mix of MurmurHash3. It avalanches all bits of the given value.
+     */
+    static long fmix64 ( long h )
+    {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+}
@@ -0,0 +1,277 @@
+package cs.bilkent.joker.operators.sketch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static cs.bilkent.joker.impl.com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Space-Saving sketch which finds the most frequent values of a stream. It monitors at most {@code capacity} values. When a value which
+ * is not monitored arrives and the sketch is full, the value with the minimum count is replaced by the new value, and the new value
+ * inherits its count as the overestimation error. Any value which occurs more than {@code totalCount / capacity} times is guaranteed to
+ * be monitored.
+ * <p>
+ * Monitored values are kept in a min-heap of their counts, which are stored in primitive arrays.
+ *
+ * @see <a href="https://www.cs.ucsb.edu/sites/default/files/documents/2005-23.pdf">Efficient Computation of Frequent and Top-k Elements
+ * in Data Streams</a>
+ */
+public final class SpaceSavingSketch implements Sketch<SpaceSavingSketch>
+{
+
+    private final int capacity;
+
+    private final Object[] values;
+
+    private final long[] counts;
+
+    private final long[] errors;
+
+    private final Map<Object, Integer> positions;
+
+    private int size;
+
+    private long totalCount;
+
+    public SpaceSavingSketch ( final int capacity )
+    {
+        checkArgument( capacity > 0, "invalid capacity: %s", capacity );
+        this.capacity = capacity;
+        this.values = new Object[ capacity ];
+        this.counts = new long[ capacity ];
+        this.errors = new long[ capacity ];
+        this.positions = new HashMap<>( capacity * 2 );
+    }
+
+    public int getCapacity ()
+    {
+        return capacity;
+    }
+
+    public int size ()
+    {
+        return size;
+    }
+
+    public long getTotalCount ()
+    {
+        return totalCount;
+    }
+
+    public void add ( final Object value )
+    {
+        add( value, 1 );
+    }
+
+    public void add ( final Object value, final long weight )
+    {
+        checkArgument( value != null, "value can't be null" );
+        checkArgument( weight > 0, "invalid weight: %s", weight );
+
+        totalCount += weight;
+        final Integer position = positions.get( value );
+        if ( position != null )
+        {
+            counts[ position ] += weight;
+            siftDown( position );
+        }
+        else if ( size < capacity )
+        {
+            values[ size ] = value;
+            counts[ size ] = weight;
+            errors[ size ] = 0;
+            positions.put( value, size );
+            siftUp( size++ );
+        }
+        else
+        {
+            positions.remove( values[ 0 ] );
+            values[ 0 ] = value;
+            errors[ 0 ] = counts[ 0 ];
+            counts[ 0 ] += weight;
+            positions.put( value, 0 );
+            siftDown( 0 );
+        }
+    }
+
+    /**
+     * Returns an upper bound for the number of occurrences of the given value, or 0 if the value is not monitored
+     */
+    public long getCount ( final Object value )
+    {
+        final Integer position = positions.get( value );
+        return position != null ? counts[ position ] : 0;
+    }
+
+    /**
+     * Returns the maximum overestimation in the count of the given value, or 0 if the value is not monitored
+     */
+    public long getError ( final Object value )
+    {
+        final Integer position = positions.get( value );
+        return position != null ? errors[ position ] : 0;
+    }
+
+    /**
+     * Returns at most {@code k} monitored values in descending order of their counts
+     */
+    public List<Object> getTopK ( final int k )
+    {
+        final Integer[] order = sortByCount( counts, size );
+        final int n = Math.min( k, size );
+        final List<Object> topK = new ArrayList<>( n );
+        for ( int i = 0; i < n; i++ )
+        {
+            topK.add( values[ order[ size - 1 - i ] ] );
+        }
+
+        return topK;
+    }
+
+    /**
+     * Merges the given sketch into this sketch as described in "Mergeable Summaries" by Agarwal et al. If a value is monitored only by one
+     * of the sketches, the minimum count of the other sketch is added to its count and error.
+     */
+    @Override
+    public void merge ( final SpaceSavingSketch other )
+    {
+        checkArgument( capacity == other.capacity, "cannot merge sketches with capacities %s and %s", capacity, other.capacity );
+
+        final long minCount = getMinCount(), otherMinCount = other.getMinCount();
+        final int maxSize = size + other.size;
+        final Object[] mergedValues = new Object[ maxSize ];
+        final long[] mergedCounts = new long[ maxSize ];
+        final long[] mergedErrors = new long[ maxSize ];
+        int mergedSize = 0;
+
+        for ( int i = 0; i < size; i++ )
+        {
+            final Integer otherPosition = other.positions.get( values[ i ] );
+            mergedValues[ mergedSize ] = values[ i ];
+            mergedCounts[ mergedSize ] = counts[ i ] + ( otherPosition != null ? other.counts[ otherPosition ] : otherMinCount );
+            mergedErrors[ mergedSize ] = errors[ i ] + ( otherPosition != null ? other.errors[ otherPosition ] : otherMinCount );
+            mergedSize++;
+        }
+
+        for ( int i = 0; i < other.size; i++ )
+        {
+            if ( !positions.containsKey( other.values[ i ] ) )
+            {
+                mergedValues[ mergedSize ] = other.values[ i ];
+                mergedCounts[ mergedSize ] = other.counts[ i ] + minCount;
+                mergedErrors[ mergedSize ] = other.errors[ i ] + minCount;
+                mergedSize++;
+            }
+        }
+
+        // an array sorted in ascending order of counts is also a valid min-heap
+        final Integer[] order = sortByCount( mergedCounts, mergedSize );
+        final int skip = Math.max( 0, mergedSize - capacity );
+        positions.clear();
+        size = 0;
+        for ( int i = skip; i < mergedSize; i++ )
+        {
+            final int j = order[ i ];
+            values[ size ] = mergedValues[ j ];
+            counts[ size ] = mergedCounts[ j ];
+            errors[ size ] = mergedErrors[ j ];
+            positions.put( values[ size ], size );
+            size++;
+        }
+
+        Arrays.fill( values, size, capacity, null );
+        totalCount += other.totalCount;
+    }
+
+    @Override
+    public SpaceSavingSketch copy ()
+    {
+        final SpaceSavingSketch copy = new SpaceSavingSketch( capacity );
+        System.arraycopy( values, 0, copy.values, 0, size );
+        System.arraycopy( counts, 0, copy.counts, 0, size );
+        System.arraycopy( errors, 0, copy.errors, 0, size );
+        copy.positions.putAll( positions );
+        copy.size = size;
+        copy.totalCount = totalCount;
+        return copy;
+    }
+
+    private long getMinCount ()
+    {
+        return size == capacity ? counts[ 0 ] : 0;
+    }
+
+    private void siftUp ( int i )
+    {
+        while ( i > 0 )
+        {
+            final int parent = ( i - 1 ) >>> 1;
+            if ( counts[ parent ] <= counts[ i ] )
+            {
+                break;
+            }
+
+            swap( i, parent );
+            i = parent;
+        }
+    }
+
+    private void siftDown ( int i )
+    {
+        while ( true )
+        {
+            final int left = 2 * i + 1;
+            if ( left >= size )
+            {
+                break;
+            }
+
+            final int right = left + 1;
+            final int smallest = ( right < size && counts[ right ] < counts[ left ] ) ? right : left;
+            if ( counts[ i ] <= counts[ smallest ] )
+            {
+                break;
+            }
+
+            swap( i, smallest );
+            i = smallest;
+        }
+    }
+
+    private void swap ( final int i, final int j )
+    {
+        final Object value = values[ i ];
+        values[ i ] = values[ j ];
+        values[ j ] = value;
+        final long count = counts[ i ];
+        counts[ i ] = counts[ j ];
+        counts[ j ] = count;
+        final long error = errors[ i ];
+        errors[ i ] = errors[ j ];
+        errors[ j ] = error;
+        positions.put( values[ i ], i );
+        positions.put( values[ j ], j );
+    }
+
+    private static Integer[] sortByCount ( final long[] counts, final int size )
+    {
+        final Integer[] order = new Integer[ size ];
+        for ( int i = 0; i < size; i++ )
+        {
+            order[ i ] = i;
+        }
+
+        Arrays.sort( order, ( i, j ) -> Long.compare( counts[ i ], counts[ j ] ) );
+        return order;
+    }
+
+    @Override
+    public String toString ()
+    {
+        return "SpaceSavingSketch{" + "capacity=" + capacity + ", size=" + size + ", totalCount=" + totalCount + '}';
+    }
+
+}
@@ -0,0 +1,290 @@
+package cs.bilkent.joker.operators;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import cs.bilkent.joker.operator.InvocationCtx.InvocationReason;
+import static cs.bilkent.joker.operator.InvocationCtx.InvocationReason.INPUT_PORT_CLOSED;
+import static cs.bilkent.joker.operator.InvocationCtx.InvocationReason.SUCCESS;
+import cs.bilkent.joker.operator.OperatorConfig;
+import cs.bilkent.joker.operator.OperatorDef;
+import cs.bilkent.joker.operator.OperatorDefBuilder;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.impl.DefaultInvocationCtx;
+import cs.bilkent.joker.operator.impl.InitCtxImpl;
+import cs.bilkent.joker.operator.impl.TuplesImpl;
+import cs.bilkent.joker.operators.AsyncEnrichmentOperator.AsyncEnricher;
+import static cs.bilkent.joker.operators.AsyncEnrichmentOperator.ENRICHER_CONFIG_PARAMETER;
+import static cs.bilkent.joker.operators.AsyncEnrichmentOperator.MAX_IN_FLIGHT_CONFIG_PARAMETER;
+import static cs.bilkent.joker.operators.AsyncEnrichmentOperator.ORDERED_CONFIG_PARAMETER;
+import static cs.bilkent.joker.operators.AsyncEnrichmentOperator.WAIT_TIMEOUT_MILLIS_CONFIG_PARAMETER;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class AsyncEnrichmentOperatorTest extends AbstractJokerTest
+{
+
+    private final TuplesImpl output = new TuplesImpl( 1 );
+
+    private final DefaultInvocationCtx invocationCtx = new DefaultInvocationCtx( 1, key -> null, output );
+
+    private final OperatorConfig config = new OperatorConfig();
+
+    private final StubLookupService service = new StubLookupService();
+
+    private final AsyncEnricher enricher = ( input, output ) -> service.lookup( input.getString( "id" ) )
+                                                                       .thenAccept( name -> output.set( "name", name ) );
+
+    private AsyncEnrichmentOperator operator;
+
+    private InitCtxImpl initCtx;
+
+    @Before
+    public void init () throws InstantiationException, IllegalAccessException
+    {
+        final OperatorDef operatorDef = OperatorDefBuilder.newInstance( "op", AsyncEnrichmentOperator.class ).setConfig( config ).build();
+        operator = (AsyncEnrichmentOperator) operatorDef.createOperator();
+        initCtx = new InitCtxImpl( operatorDef, new boolean[] { true } );
+
+        config.set( ENRICHER_CONFIG_PARAMETER, enricher );
+    }
+
+    @After
+    public void after ()
+    {
+        service.shutdown();
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldFailToInitWithInvalidMaxInFlight ()
+    {
+        config.set( MAX_IN_FLIGHT_CONFIG_PARAMETER, 0 );
+
+        operator.init( initCtx );
+    }
+
+    @Test
+    public void shouldNotBlockInvocationWhileLookupsAreInFlight ()
+    {
+        operator.init( initCtx );
+
+        invoke( SUCCESS, "1", "2", "3" );
+
+        assertEquals( 0, output.getTupleCount( 0 ) );
+        assertEquals( 3, operator.getInFlightCount() );
+    }
+
+    @Test
+    public void shouldEmitCompletedLookupsInInputOrder ()
+    {
+        operator.init( initCtx );
+
+        invoke( SUCCESS, "1", "2", "3" );
+        service.complete( "2", "b" );
+        service.complete( "3", "c" );
+        assertFalse( operator.hasAvailableOutput() );
+        invoke( SUCCESS );
+        assertEquals( 0, output.getTupleCount( 0 ) );
+
+        service.complete( "1", "a" );
+        assertTrue( operator.hasAvailableOutput() );
+        invoke( SUCCESS, "4" );
+
+        assertEquals( asList( "a", "b", "c" ), getNames() );
+        assertEquals( 1, operator.getInFlightCount() );
+    }
+
+    @Test
+    public void shouldEmitCompletedLookupsInCompletionOrder ()
+    {
+        config.set( ORDERED_CONFIG_PARAMETER, false );
+        operator.init( initCtx );
+
+        invoke( SUCCESS, "1", "2", "3" );
+        assertFalse( operator.hasAvailableOutput() );
+        service.complete( "3", "c" );
+        service.complete( "2", "b" );
+        assertTrue( operator.hasAvailableOutput() );
+        invoke( SUCCESS );
+
+        assertEquals( asList( "c", "b" ), getNames() );
+        assertFalse( operator.hasAvailableOutput() );
+        assertEquals( 1, operator.getInFlightCount() );
+    }
+
+    @Test
+    public void shouldNotAcceptInputWhenMaxInFlightIsReached ()
+    {
+        config.set( MAX_IN_FLIGHT_CONFIG_PARAMETER, 2 );
+        operator.init( initCtx );
+
+        invoke( SUCCESS, "1", "2", "3" );
+
+        assertEquals( 0, output.getTupleCount( 0 ) );
+        assertEquals( 2, operator.getInFlightCount() );
+        assertEquals( 1, operator.getWaitingTupleCount() );
+        assertFalse( operator.canAcceptInput() );
+    }
+
+    @Test
+    public void shouldIssueWaitingLookupsWhenLookupsAreCompleted ()
+    {
+        config.set( MAX_IN_FLIGHT_CONFIG_PARAMETER, 2 );
+        operator.init( initCtx );
+
+        invoke( SUCCESS, "1", "2", "3", "4" );
+        service.complete( "1", "a" );
+        invoke( SUCCESS );
+
+        assertEquals( singletonList( "a" ), getNames() );
+        assertEquals( 2, operator.getInFlightCount() );
+        assertEquals( 1, operator.getWaitingTupleCount() );
+        assertFalse( operator.canAcceptInput() );
+
+        service.complete( "2", "b" );
+        service.complete( "3", "c" );
+        invoke( SUCCESS );
+
+        assertEquals( asList( "b", "c" ), getNames() );
+        assertEquals( 1, operator.getInFlightCount() );
+        assertEquals( 0, operator.getWaitingTupleCount() );
+        assertTrue( operator.canAcceptInput() );
+    }
+
+    @Test
+    public void shouldEmitAllLookupsWhenInputPortIsClosed ()
+    {
+        operator.init( initCtx );
+
+        invoke( SUCCESS, "1", "2" );
+        service.completeAsync( "2", "b" );
+        service.completeAsync( "1", "a" );
+        invoke( INPUT_PORT_CLOSED );
+
+        assertEquals( asList( "a", "b" ), getNames() );
+        assertEquals( 0, operator.getInFlightCount() );
+    }
+
+    @Test
+    public void shouldEmitWaitingLookupsWhenInputPortIsClosed ()
+    {
+        config.set( MAX_IN_FLIGHT_CONFIG_PARAMETER, 1 );
+        operator.init( initCtx );
+
+        invoke( SUCCESS, "1", "2", "3" );
+        service.completeAsync( "1", "a" );
+        service.completeAsync( "2", "b" );
+        service.completeAsync( "3", "c" );
+        invoke( INPUT_PORT_CLOSED );
+
+        assertEquals( asList( "a", "b", "c" ), getNames() );
+        assertEquals( 0, operator.getInFlightCount() );
+        assertEquals( 0, operator.getWaitingTupleCount() );
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void shouldFailWhenLookupIsNotCompletedInTime ()
+    {
+        config.set( WAIT_TIMEOUT_MILLIS_CONFIG_PARAMETER, 10 );
+        operator.init( initCtx );
+
+        invoke( SUCCESS, "1" );
+        invoke( INPUT_PORT_CLOSED );
+    }
+
+    @Test
+    public void shouldPropagateFailedLookup ()
+    {
+        operator.init( initCtx );
+
+        invoke( SUCCESS, "1" );
+        service.fail( "1" );
+
+        try
+        {
+            invoke( SUCCESS );
+        }
+        catch ( RuntimeException e )
+        {
+            assertTrue( e.getCause() instanceof IllegalArgumentException );
+            return;
+        }
+
+        throw new AssertionError( "failed lookup is not propagated" );
+    }
+
+    private void invoke ( final InvocationReason reason, final String... ids )
+    {
+        invocationCtx.reset();
+        invocationCtx.setInvocationReason( reason );
+        final TuplesImpl input = invocationCtx.createInputTuples( null );
+        for ( String id : ids )
+        {
+            input.add( Tuple.of( "id", id ) );
+        }
+        operator.invoke( invocationCtx );
+    }
+
+    private List<String> getNames ()
+    {
+        final List<String> names = new ArrayList<>();
+        for ( Tuple tuple : output.getTuples( 0 ) )
+        {
+            names.add( tuple.getString( "name" ) );
+        }
+
+        return names;
+    }
+
+    /**
+     * In-memory lookup service whose lookups are completed by the test
+     */
+    private static class StubLookupService
+    {
+
+        private final Map<String, CompletableFuture<String>> lookups = new HashMap<>();
+
+        private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        synchronized CompletableFuture<String> lookup ( final String id )
+        {
+            return lookups.computeIfAbsent( id, k -> new CompletableFuture<>() );
+        }
+
+        void complete ( final String id, final String name )
+        {
+            lookup( id ).complete( name );
+        }
+
+        void completeAsync ( final String id, final String name )
+        {
+            executor.submit( () -> complete( id, name ) );
+        }
+
+        void fail ( final String id )
+        {
+            lookup( id ).completeExceptionally( new IllegalArgumentException( "unknown id: " + id ) );
+        }
+
+        void shutdown ()
+        {
+            executor.shutdownNow();
+        }
+
+    }
+
+}
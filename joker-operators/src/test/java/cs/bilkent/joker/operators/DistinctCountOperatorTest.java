@@ -0,0 +1,162 @@
+package cs.bilkent.joker.operators;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static cs.bilkent.joker.operator.InvocationCtx.InvocationReason.SUCCESS;
+import cs.bilkent.joker.operator.OperatorConfig;
+import cs.bilkent.joker.operator.OperatorDef;
+import cs.bilkent.joker.operator.OperatorDefBuilder;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.impl.DefaultInvocationCtx;
+import cs.bilkent.joker.operator.impl.InMemoryKVStore;
+import cs.bilkent.joker.operator.impl.InitCtxImpl;
+import cs.bilkent.joker.operator.impl.TuplesImpl;
+import cs.bilkent.joker.operator.kvstore.KVStore;
+import cs.bilkent.joker.operator.schema.runtime.OperatorRuntimeSchemaBuilder;
+import static cs.bilkent.joker.operators.DistinctCountOperator.DISTINCT_COUNT_FIELD;
+import static cs.bilkent.joker.operators.DistinctCountOperator.PRECISION_CONFIG_PARAMETER;
+import static cs.bilkent.joker.operators.SketchWindowOperator.FIELD_NAME_CONFIG_PARAMETER;
+import static cs.bilkent.joker.operators.SketchWindowOperator.SKETCH_FIELD;
+import static cs.bilkent.joker.operators.SketchWindowOperator.SLIDE_TUPLE_COUNT_CONFIG_PARAMETER;
+import static cs.bilkent.joker.operators.SketchWindowOperator.WINDOW_FIELD;
+import static cs.bilkent.joker.operators.SketchWindowOperator.WINDOW_TUPLE_COUNT_CONFIG_PARAMETER;
+import cs.bilkent.joker.operators.sketch.HyperLogLogSketch;
+import cs.bilkent.joker.partition.impl.PartitionKey;
+import cs.bilkent.joker.partition.impl.PartitionKey1;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+
+public class DistinctCountOperatorTest extends AbstractJokerTest
+{
+
+    private final KVStore kvStore = new InMemoryKVStore();
+
+    private final TuplesImpl output = new TuplesImpl( 1 );
+
+    private final DefaultInvocationCtx invocationCtx = new DefaultInvocationCtx( 1, key -> kvStore, output );
+
+    private final PartitionKey key = new PartitionKey1( "key" );
+
+    private final TuplesImpl input = invocationCtx.createInputTuples( key );
+
+    private final OperatorConfig config = new OperatorConfig();
+
+    private DistinctCountOperator operator;
+
+    private InitCtxImpl initCtx;
+
+    @Before
+    public void init () throws InstantiationException, IllegalAccessException
+    {
+        invocationCtx.setInvocationReason( SUCCESS );
+
+        final OperatorRuntimeSchemaBuilder builder = new OperatorRuntimeSchemaBuilder( 1, 1 );
+        builder.addInputField( 0, "key", String.class ).addInputField( 0, "val", Integer.class ).addOutputField( 0, "key", String.class );
+
+        final OperatorDef operatorDef = OperatorDefBuilder.newInstance( "op", DistinctCountOperator.class )
+                                                          .setConfig( config )
+                                                          .setExtendingSchema( builder )
+                                                          .setPartitionFieldNames( singletonList( "key" ) )
+                                                          .build();
+        operator = (DistinctCountOperator) operatorDef.createOperator();
+        initCtx = new InitCtxImpl( operatorDef, new boolean[] { true } );
+
+        config.set( FIELD_NAME_CONFIG_PARAMETER, "val" );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldFailToInitWithoutWindowTupleCount ()
+    {
+        operator.init( initCtx );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldFailToInitWithSlideNotDividingWindow ()
+    {
+        config.set( WINDOW_TUPLE_COUNT_CONFIG_PARAMETER, 5 );
+        config.set( SLIDE_TUPLE_COUNT_CONFIG_PARAMETER, 2 );
+
+        operator.init( initCtx );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldFailToInitWithInvalidPrecision ()
+    {
+        config.set( WINDOW_TUPLE_COUNT_CONFIG_PARAMETER, 5 );
+        config.set( PRECISION_CONFIG_PARAMETER, 1 );
+
+        operator.init( initCtx );
+    }
+
+    @Test
+    public void shouldCountDistinctValuesInTumblingWindows ()
+    {
+        config.set( WINDOW_TUPLE_COUNT_CONFIG_PARAMETER, 4 );
+        operator.init( initCtx );
+
+        addInputTuples( 1, 1, 2, 3, 4, 4, 4 );
+        operator.invoke( invocationCtx );
+
+        assertEquals( 1, output.getTupleCount( 0 ) );
+        final Tuple window = output.getTupleOrFail( 0, 0 );
+        assertEquals( "key", window.getString( "key" ) );
+        assertEquals( 0, window.getIntegerValueOrDefault( WINDOW_FIELD, -1 ) );
+        assertEquals( 3L, window.getLongValueOrDefault( DISTINCT_COUNT_FIELD, -1L ) );
+
+        invocationCtx.reset();
+        invocationCtx.setInvocationReason( SUCCESS );
+        invocationCtx.createInputTuples( key ).add( Tuple.of( "key", "key", "val", 5 ) );
+        operator.invoke( invocationCtx );
+
+        assertEquals( 1, output.getTupleCount( 0 ) );
+        assertEquals( 1, output.getTupleOrFail( 0, 0 ).getIntegerValueOrDefault( WINDOW_FIELD, -1 ) );
+        assertEquals( 2L, output.getTupleOrFail( 0, 0 ).getLongValueOrDefault( DISTINCT_COUNT_FIELD, -1L ) );
+    }
+
+    @Test
+    public void shouldCountDistinctValuesInSlidingWindows ()
+    {
+        config.set( WINDOW_TUPLE_COUNT_CONFIG_PARAMETER, 4 );
+        config.set( SLIDE_TUPLE_COUNT_CONFIG_PARAMETER, 2 );
+        operator.init( initCtx );
+
+        addInputTuples( 1, 2, 2, 3, 4, 5, 1, 1 );
+        operator.invoke( invocationCtx );
+
+        final List<Tuple> windows = output.getTuples( 0 );
+        assertEquals( 3, windows.size() );
+        assertEquals( 3L, windows.get( 0 ).getLongValueOrDefault( DISTINCT_COUNT_FIELD, -1L ) );
+        assertEquals( 4L, windows.get( 1 ).getLongValueOrDefault( DISTINCT_COUNT_FIELD, -1L ) );
+        assertEquals( 3L, windows.get( 2 ).getLongValueOrDefault( DISTINCT_COUNT_FIELD, -1L ) );
+        assertNotSame( windows.get( 0 ).get( SKETCH_FIELD ), windows.get( 1 ).get( SKETCH_FIELD ) );
+    }
+
+    @Test
+    public void shouldEmitMergeableSketches ()
+    {
+        config.set( WINDOW_TUPLE_COUNT_CONFIG_PARAMETER, 2 );
+        operator.init( initCtx );
+
+        addInputTuples( 1, 2, 2, 3 );
+        operator.invoke( invocationCtx );
+
+        final HyperLogLogSketch sketch = output.getTupleOrFail( 0, 0 ).get( SKETCH_FIELD );
+        sketch.merge( output.getTupleOrFail( 0, 1 ).get( SKETCH_FIELD ) );
+        assertEquals( 3, sketch.estimate() );
+    }
+
+    private void addInputTuples ( final int... values )
+    {
+        for ( int value : values )
+        {
+            input.add( Tuple.of( "key", "key", "val", value ) );
+        }
+    }
+
+}
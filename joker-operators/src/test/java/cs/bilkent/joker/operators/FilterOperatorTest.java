@@ -1,6 +1,8 @@
 package cs.bilkent.joker.operators;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 import org.junit.Before;
@@ -19,7 +21,9 @@ import cs.bilkent.joker.operator.scheduling.SchedulingStrategy;
 import static cs.bilkent.joker.operators.FilterOperator.PREDICATE_CONFIG_PARAMETER;
 import static cs.bilkent.joker.operators.MapperOperatorTest.assertScheduleWhenTuplesAvailableStrategy;
 import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertTrue;
 
@@ -97,6 +101,22 @@ public class FilterOperatorTest extends AbstractJokerTest
         shouldFilterTuplesWithPositiveCount( invocationCtx );
     }
 
+    @Test
+    public void shouldFilterTuplesWithChainedFunction ()
+    {
+        config.set( PREDICATE_CONFIG_PARAMETER, positiveCountsPredicate );
+        operator.init( initCtx );
+
+        final List<Tuple> outputTuples = new ArrayList<>();
+        final Consumer<Tuple> f = operator.chain( outputTuples::add );
+        final Tuple tuple1 = Tuple.of( "count", -1 );
+        final Tuple tuple2 = Tuple.of( "count", 1 );
+        f.accept( tuple1 );
+        f.accept( tuple2 );
+
+        assertThat( outputTuples, equalTo( singletonList( tuple2 ) ) );
+    }
+
     private void shouldFilterTuplesWithPositiveCount ( final DefaultInvocationCtx invocationCtx )
     {
         config.set( PREDICATE_CONFIG_PARAMETER, positiveCountsPredicate );
@@ -1,5 +1,6 @@
 package cs.bilkent.joker.operators;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.Before;
@@ -77,4 +78,17 @@ public class FlatMapperOperatorTest extends AbstractJokerTest
         assertEquals( value + 2, output2.getIntegerValueOrDefault( "val", 0 ) );
     }
 
+    @Test
+    public void shouldFlatMapValuesWithChainedFunction ()
+    {
+        final int value = 5;
+        final List<Tuple> outputTuples = new ArrayList<>();
+
+        operator.chain( outputTuples::add ).accept( Tuple.of( "val", value ) );
+
+        assertEquals( 2, outputTuples.size() );
+        assertEquals( value + 1, outputTuples.get( 0 ).getIntegerValueOrDefault( "val", 0 ) );
+        assertEquals( value + 2, outputTuples.get( 1 ).getIntegerValueOrDefault( "val", 0 ) );
+    }
+
 }
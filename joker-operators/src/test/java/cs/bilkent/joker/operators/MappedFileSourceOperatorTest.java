@@ -0,0 +1,234 @@
+package cs.bilkent.joker.operators;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static cs.bilkent.joker.operator.InvocationCtx.InvocationReason.SUCCESS;
+import cs.bilkent.joker.operator.OperatorConfig;
+import cs.bilkent.joker.operator.OperatorDef;
+import cs.bilkent.joker.operator.OperatorDefBuilder;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.impl.DefaultInvocationCtx;
+import cs.bilkent.joker.operator.impl.InitCtxImpl;
+import cs.bilkent.joker.operator.impl.TuplesImpl;
+import static cs.bilkent.joker.operators.MappedFileSourceOperator.CHUNK_SIZE_CONFIG_PARAMETER;
+import static cs.bilkent.joker.operators.MappedFileSourceOperator.FILES_CONFIG_PARAMETER;
+import static cs.bilkent.joker.operators.MappedFileSourceOperator.FILE_FIELD;
+import static cs.bilkent.joker.operators.MappedFileSourceOperator.OFFSET_FIELD;
+import static cs.bilkent.joker.operators.MappedFileSourceOperator.PARTITION_COUNT_CONFIG_PARAMETER;
+import static cs.bilkent.joker.operators.MappedFileSourceOperator.PARTITION_INDEX_CONFIG_PARAMETER;
+import static cs.bilkent.joker.operators.MappedFileSourceOperator.RECORD_FIELD;
+import static cs.bilkent.joker.operators.MappedFileSourceOperator.RECORD_LENGTH_CONFIG_PARAMETER;
+import static cs.bilkent.joker.operators.MappedFileSourceOperator.TUPLE_COUNT_CONFIG_PARAMETER;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+
+public class MappedFileSourceOperatorTest extends AbstractJokerTest
+{
+
+    private final List<Path> paths = new ArrayList<>();
+
+    private final List<MappedFileSourceOperator> operators = new ArrayList<>();
+
+    @After
+    public void after () throws IOException
+    {
+        operators.forEach( MappedFileSourceOperator::shutdown );
+        for ( Path path : paths )
+        {
+            Files.deleteIfExists( path );
+        }
+    }
+
+    @Test
+    public void shouldSplitRecordsOnDelimiterAcrossChunks () throws IOException
+    {
+        final String file = createFile( "a\nbcdefg\n\nhijklmn\nop" );
+        final MappedFileSourceOperator operator = createOperator( new OperatorConfig().set( FILES_CONFIG_PARAMETER, singletonList( file ) )
+                                                                                      .set( CHUNK_SIZE_CONFIG_PARAMETER, 8 ) );
+
+        final List<Tuple> tuples = invoke( operator );
+
+        assertThat( getRecords( tuples ), equalTo( asList( "a", "bcdefg", "", "hijklmn", "op" ) ) );
+        final List<Long> offsets = tuples.stream().map( tuple -> tuple.getLong( OFFSET_FIELD ) ).collect( toList() );
+        assertThat( offsets, equalTo( asList( 0L, 2L, 9L, 10L, 18L ) ) );
+        assertThat( tuples.get( 0 ).getString( FILE_FIELD ), equalTo( file ) );
+        assertThat( invoke( operator ), empty() );
+    }
+
+    @Test
+    public void shouldReadMultipleFiles () throws IOException
+    {
+        final List<String> files = asList( createFile( "a\nb\n" ), createFile( "" ), createFile( "c\nd\n" ) );
+        final MappedFileSourceOperator operator = createOperator( new OperatorConfig().set( FILES_CONFIG_PARAMETER, files ) );
+
+        assertThat( getRecords( invoke( operator ) ), equalTo( asList( "a", "b", "c", "d" ) ) );
+    }
+
+    @Test
+    public void shouldProduceConfiguredNumberOfTuplesPerInvocation () throws IOException
+    {
+        final List<String> files = singletonList( createFile( "a\nb\nc\n" ) );
+        final MappedFileSourceOperator operator = createOperator( new OperatorConfig().set( FILES_CONFIG_PARAMETER, files )
+                                                                                      .set( TUPLE_COUNT_CONFIG_PARAMETER, 2 ) );
+
+        assertThat( getRecords( invoke( operator ) ), equalTo( asList( "a", "b" ) ) );
+        assertThat( getRecords( invoke( operator ) ), equalTo( singletonList( "c" ) ) );
+    }
+
+    @Test
+    public void shouldSplitFixedLengthRecords () throws IOException
+    {
+        final List<String> files = singletonList( createFile( "abcdefghij" ) );
+        final MappedFileSourceOperator operator = createOperator( new OperatorConfig().set( FILES_CONFIG_PARAMETER, files )
+                                                                                      .set( RECORD_LENGTH_CONFIG_PARAMETER, 3 )
+                                                                                      .set( CHUNK_SIZE_CONFIG_PARAMETER, 4 ) );
+
+        assertThat( getRecords( invoke( operator ) ), equalTo( asList( "abc", "def", "ghi" ) ) );
+    }
+
+    @Test
+    public void shouldReadEachRecordOnceWithPartitionedReading () throws IOException
+    {
+        final Random random = new Random();
+        final List<String> lines = new ArrayList<>();
+        final StringBuilder sb = new StringBuilder();
+        for ( int i = 0; i < 1000; i++ )
+        {
+            final String line = Integer.toString( random.nextInt( 1 << ( 1 + random.nextInt( 20 ) ) ) );
+            lines.add( line );
+            sb.append( line ).append( '\n' );
+        }
+        final List<String> files = singletonList( createFile( sb.toString() ) );
+
+        final int partitionCount = 7;
+        final List<String> records = new ArrayList<>();
+        for ( int partitionIndex = 0; partitionIndex < partitionCount; partitionIndex++ )
+        {
+            final MappedFileSourceOperator operator = createOperator( new OperatorConfig().set( FILES_CONFIG_PARAMETER, files )
+                                                                                          .set( CHUNK_SIZE_CONFIG_PARAMETER, 64 )
+                                                                                          .set( PARTITION_INDEX_CONFIG_PARAMETER,
+                                                                                                partitionIndex )
+                                                                                          .set( PARTITION_COUNT_CONFIG_PARAMETER,
+                                                                                                partitionCount ) );
+            records.addAll( getRecords( invoke( operator ) ) );
+        }
+
+        assertThat( records, equalTo( lines ) );
+    }
+
+    @Test
+    public void shouldReadEachFixedLengthRecordOnceWithPartitionedReading () throws IOException
+    {
+        final List<String> files = singletonList( createFile( "aabbccddee" ) );
+
+        final List<String> records = new ArrayList<>();
+        for ( int partitionIndex = 0; partitionIndex < 3; partitionIndex++ )
+        {
+            final MappedFileSourceOperator operator = createOperator( new OperatorConfig().set( FILES_CONFIG_PARAMETER, files )
+                                                                                          .set( RECORD_LENGTH_CONFIG_PARAMETER, 2 )
+                                                                                          .set( PARTITION_INDEX_CONFIG_PARAMETER,
+                                                                                                partitionIndex )
+                                                                                          .set( PARTITION_COUNT_CONFIG_PARAMETER, 3 ) );
+            records.addAll( getRecords( invoke( operator ) ) );
+        }
+
+        assertThat( records, equalTo( asList( "aa", "bb", "cc", "dd", "ee" ) ) );
+    }
+
+    @Test
+    public void shouldProvideRecordBytes () throws IOException
+    {
+        final List<String> files = singletonList( createFile( "abc\n" ) );
+        final MappedFileSourceOperator operator = createOperator( new OperatorConfig().set( FILES_CONFIG_PARAMETER, files ) );
+
+        final List<Tuple> tuples = invoke( operator );
+
+        assertThat( tuples, hasSize( 1 ) );
+        final FileRecord record = tuples.get( 0 ).get( RECORD_FIELD );
+        assertThat( record.length(), equalTo( 3 ) );
+        assertThat( record.getByte( 1 ), equalTo( (byte) 'b' ) );
+        assertThat( new String( record.getBytes(), UTF_8 ), equalTo( "abc" ) );
+        assertThat( record.asByteBuffer().remaining(), equalTo( 3 ) );
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void shouldFailWithRecordLongerThanChunkSize () throws IOException
+    {
+        final List<String> files = singletonList( createFile( "a\nbcdefghijk\n" ) );
+        final MappedFileSourceOperator operator = createOperator( new OperatorConfig().set( FILES_CONFIG_PARAMETER, files )
+                                                                                      .set( CHUNK_SIZE_CONFIG_PARAMETER, 4 ) );
+
+        invoke( operator );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldFailWithInvalidPartitionIndex () throws IOException
+    {
+        final List<String> files = singletonList( createFile( "a\n" ) );
+        createOperator( new OperatorConfig().set( FILES_CONFIG_PARAMETER, files )
+                                            .set( PARTITION_INDEX_CONFIG_PARAMETER, 2 )
+                                            .set( PARTITION_COUNT_CONFIG_PARAMETER, 2 ) );
+    }
+
+    private String createFile ( final String content ) throws IOException
+    {
+        final Path path = Files.createTempFile( "joker", ".txt" );
+        paths.add( path );
+        Files.write( path, content.getBytes( UTF_8 ) );
+        return path.toString();
+    }
+
+    private MappedFileSourceOperator createOperator ( final OperatorConfig config )
+    {
+        final OperatorDef operatorDef = OperatorDefBuilder.newInstance( "source", MappedFileSourceOperator.class )
+                                                          .setConfig( config )
+                                                          .build();
+        final MappedFileSourceOperator operator;
+        try
+        {
+            operator = (MappedFileSourceOperator) operatorDef.createOperator();
+        }
+        catch ( InstantiationException | IllegalAccessException e )
+        {
+            throw new IllegalStateException( e );
+        }
+
+        operator.init( new InitCtxImpl( operatorDef, new boolean[] {} ) );
+        operators.add( operator );
+        return operator;
+    }
+
+    private List<Tuple> invoke ( final MappedFileSourceOperator operator )
+    {
+        final TuplesImpl output = new TuplesImpl( 1 );
+        final DefaultInvocationCtx invocationCtx = new DefaultInvocationCtx( 0, key -> null, output );
+        invocationCtx.createInputTuples( null );
+        invocationCtx.setInvocationReason( SUCCESS );
+
+        operator.invoke( invocationCtx );
+
+        return output.getTuplesByDefaultPort();
+    }
+
+    private List<String> getRecords ( final List<Tuple> tuples )
+    {
+        return tuples.stream().map( tuple -> tuple.get( RECORD_FIELD ).toString() ).collect( toList() );
+    }
+
+}
@@ -1,5 +1,6 @@
 package cs.bilkent.joker.operators;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.BiConsumer;
 
@@ -147,6 +148,18 @@ public class MapperOperatorTest extends AbstractJokerTest
         shouldMultiplyCountValuesBy2( invocationCtx );
     }
 
+    @Test
+    public void shouldMapTuplesWithChainedFunction ()
+    {
+        initializeOperatorWithMultipleBy2Mapper();
+
+        final List<Tuple> outputTuples = new ArrayList<>();
+        operator.chain( outputTuples::add ).accept( Tuple.of( "count", 5 ) );
+
+        assertThat( outputTuples, hasSize( 1 ) );
+        assertThat( outputTuples.get( 0 ).getInteger( "count" ), equalTo( 10 ) );
+    }
+
     private void shouldMultiplyCountValuesBy2 ( final DefaultInvocationCtx invocationCtx )
     {
         initializeOperatorWithMultipleBy2Mapper();
@@ -0,0 +1,89 @@
+package cs.bilkent.joker.operators;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static cs.bilkent.joker.operator.InvocationCtx.InvocationReason.SUCCESS;
+import cs.bilkent.joker.operator.OperatorConfig;
+import cs.bilkent.joker.operator.OperatorDef;
+import cs.bilkent.joker.operator.OperatorDefBuilder;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.impl.DefaultInvocationCtx;
+import cs.bilkent.joker.operator.impl.InMemoryKVStore;
+import cs.bilkent.joker.operator.impl.InitCtxImpl;
+import cs.bilkent.joker.operator.impl.TuplesImpl;
+import cs.bilkent.joker.operator.kvstore.KVStore;
+import cs.bilkent.joker.operator.schema.runtime.OperatorRuntimeSchemaBuilder;
+import static cs.bilkent.joker.operators.QuantilesOperator.FRACTIONS_CONFIG_PARAMETER;
+import static cs.bilkent.joker.operators.QuantilesOperator.QUANTILES_FIELD;
+import static cs.bilkent.joker.operators.SketchWindowOperator.FIELD_NAME_CONFIG_PARAMETER;
+import static cs.bilkent.joker.operators.SketchWindowOperator.WINDOW_TUPLE_COUNT_CONFIG_PARAMETER;
+import cs.bilkent.joker.partition.impl.PartitionKey1;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+
+public class QuantilesOperatorTest extends AbstractJokerTest
+{
+
+    private final KVStore kvStore = new InMemoryKVStore();
+
+    private final TuplesImpl output = new TuplesImpl( 1 );
+
+    private final DefaultInvocationCtx invocationCtx = new DefaultInvocationCtx( 1, key -> kvStore, output );
+
+    private final TuplesImpl input = invocationCtx.createInputTuples( new PartitionKey1( "key" ) );
+
+    private final OperatorConfig config = new OperatorConfig();
+
+    private QuantilesOperator operator;
+
+    private InitCtxImpl initCtx;
+
+    @Before
+    public void init () throws InstantiationException, IllegalAccessException
+    {
+        invocationCtx.setInvocationReason( SUCCESS );
+
+        final OperatorRuntimeSchemaBuilder builder = new OperatorRuntimeSchemaBuilder( 1, 1 );
+        builder.addInputField( 0, "key", String.class ).addInputField( 0, "val", Double.class );
+
+        final OperatorDef operatorDef = OperatorDefBuilder.newInstance( "op", QuantilesOperator.class )
+                                                          .setConfig( config )
+                                                          .setExtendingSchema( builder )
+                                                          .setPartitionFieldNames( singletonList( "key" ) )
+                                                          .build();
+        operator = (QuantilesOperator) operatorDef.createOperator();
+        initCtx = new InitCtxImpl( operatorDef, new boolean[] { true } );
+
+        config.set( FIELD_NAME_CONFIG_PARAMETER, "val" );
+        config.set( WINDOW_TUPLE_COUNT_CONFIG_PARAMETER, 100 );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldFailToInitWithInvalidFraction ()
+    {
+        config.set( FRACTIONS_CONFIG_PARAMETER, new double[] { 1.5 } );
+
+        operator.init( initCtx );
+    }
+
+    @Test
+    public void shouldEmitQuantilesOfWindow ()
+    {
+        config.set( FRACTIONS_CONFIG_PARAMETER, new double[] { 0, 0.5, 0.9 } );
+        operator.init( initCtx );
+
+        for ( int i = 100; i > 0; i-- )
+        {
+            input.add( Tuple.of( "key", "key", "val", (double) i ) );
+        }
+        operator.invoke( invocationCtx );
+
+        assertEquals( 1, output.getTupleCount( 0 ) );
+        assertArrayEquals( new double[] { 1, 50, 90 }, output.getTupleOrFail( 0, 0 ).get( QUANTILES_FIELD ), 0 );
+    }
+
+}
@@ -0,0 +1,208 @@
+package cs.bilkent.joker.operators;
+
+import java.util.List;
+import java.util.function.DoublePredicate;
+import java.util.function.LongPredicate;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import cs.bilkent.joker.operator.ColumnarBatch;
+import static cs.bilkent.joker.operator.InvocationCtx.InvocationReason.SHUTDOWN;
+import static cs.bilkent.joker.operator.InvocationCtx.InvocationReason.SUCCESS;
+import cs.bilkent.joker.operator.OperatorConfig;
+import cs.bilkent.joker.operator.OperatorDef;
+import cs.bilkent.joker.operator.OperatorDefBuilder;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.impl.DefaultInvocationCtx;
+import cs.bilkent.joker.operator.impl.InitCtxImpl;
+import cs.bilkent.joker.operator.impl.TuplesImpl;
+import cs.bilkent.joker.operator.scheduling.SchedulingStrategy;
+import static cs.bilkent.joker.operator.schema.annotation.PortSchemaScope.EXACT_FIELD_SET;
+import cs.bilkent.joker.operator.schema.runtime.OperatorRuntimeSchemaBuilder;
+import cs.bilkent.joker.operator.schema.runtime.PortRuntimeSchema;
+import cs.bilkent.joker.operator.schema.runtime.RuntimeSchemaField;
+import static cs.bilkent.joker.operators.MapperOperatorTest.assertScheduleWhenTuplesAvailableStrategy;
+import static cs.bilkent.joker.operators.VectorizedFilterOperator.FIELD_CONFIG_PARAMETER;
+import static cs.bilkent.joker.operators.VectorizedFilterOperator.PREDICATE_CONFIG_PARAMETER;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.sameInstance;
+
+
+public class VectorizedFilterOperatorTest extends AbstractJokerTest
+{
+
+    private final DoublePredicate positiveCountsPredicate = count -> count > 0;
+
+    private final PortRuntimeSchema inputSchema = new PortRuntimeSchema( EXACT_FIELD_SET,
+                                                                         singletonList( new RuntimeSchemaField( "count", Integer.class ) ) );
+
+    private final TuplesImpl output = new TuplesImpl( 1 );
+
+    private final DefaultInvocationCtx invocationCtx = new DefaultInvocationCtx( 1, key -> null, output );
+
+    private final TuplesImpl input = invocationCtx.createInputTuples( null );
+
+    private final OperatorConfig config = new OperatorConfig();
+
+    private VectorizedFilterOperator operator;
+
+    private InitCtxImpl initCtx;
+
+    @Before
+    public void init () throws InstantiationException, IllegalAccessException
+    {
+        invocationCtx.setInvocationReason( SUCCESS );
+
+        final OperatorRuntimeSchemaBuilder schemaBuilder = new OperatorRuntimeSchemaBuilder( 1, 1 ).addInputPortSchema( 0, inputSchema );
+        final OperatorDef operatorDef = OperatorDefBuilder.newInstance( "filter", VectorizedFilterOperator.class )
+                                                          .setExtendingSchema( schemaBuilder )
+                                                          .setConfig( config )
+                                                          .build();
+        operator = (VectorizedFilterOperator) operatorDef.createOperator();
+        initCtx = new InitCtxImpl( operatorDef, new boolean[] { true } );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldFailWithNoPredicate ()
+    {
+        config.set( FIELD_CONFIG_PARAMETER, "count" );
+
+        operator.init( initCtx );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldFailWithFieldNotPresentInInputSchema ()
+    {
+        config.set( FIELD_CONFIG_PARAMETER, "price" );
+        config.set( PREDICATE_CONFIG_PARAMETER, positiveCountsPredicate );
+
+        operator.init( initCtx );
+    }
+
+    @Test
+    public void shouldInitializeWithPredicate ()
+    {
+        config.set( FIELD_CONFIG_PARAMETER, "count" );
+        config.set( PREDICATE_CONFIG_PARAMETER, positiveCountsPredicate );
+
+        final SchedulingStrategy strategy = operator.init( initCtx );
+
+        assertScheduleWhenTuplesAvailableStrategy( strategy, 1 );
+    }
+
+    @Test
+    public void shouldFilterMultipleTuplesForSuccessfulInvocation ()
+    {
+        input.add( createTuple( -1 ), createTuple( 1 ), createTuple( 0 ), createTuple( 2 ) );
+
+        shouldFilterTuplesWithPositiveCount();
+    }
+
+    @Test
+    public void shouldFilterMultipleTuplesForErroneousInvocation ()
+    {
+        input.add( createTuple( -1 ), createTuple( 1 ), createTuple( 0 ), createTuple( 2 ) );
+
+        invocationCtx.setInvocationReason( SHUTDOWN );
+        shouldFilterTuplesWithPositiveCount();
+    }
+
+    @Test
+    public void shouldFilterSelectedTuplesOfColumnarBatch ()
+    {
+        config.set( FIELD_CONFIG_PARAMETER, "count" );
+        config.set( PREDICATE_CONFIG_PARAMETER, positiveCountsPredicate );
+        operator.init( initCtx );
+
+        input.add( createTuple( -1 ), createTuple( 1 ), createTuple( 2 ) );
+        final ColumnarBatch batch = new ColumnarBatch( inputSchema );
+        batch.reset( input.getTuplesByDefaultPort() );
+        batch.getSelection()[ 0 ] = 0;
+        batch.getSelection()[ 1 ] = 2;
+        batch.setSelectedCount( 2 );
+
+        operator.invoke( invocationCtx, new ColumnarBatch[] { batch } );
+
+        final List<Tuple> outputTuples = invocationCtx.getOutput().getTuplesByDefaultPort();
+        assertThat( outputTuples, hasSize( 1 ) );
+        assertThat( outputTuples.get( 0 ), sameInstance( input.getTuplesByDefaultPort().get( 2 ) ) );
+        assertThat( batch.getSelectedCount(), equalTo( 1 ) );
+    }
+
+    @Test
+    public void shouldFilterLongFieldWithLongPredicate () throws InstantiationException, IllegalAccessException
+    {
+        final long id = ( 1L << 53 ) + 1;
+        final PortRuntimeSchema longSchema = new PortRuntimeSchema( EXACT_FIELD_SET,
+                                                                    singletonList( new RuntimeSchemaField( "id", Long.class ) ) );
+        config.set( FIELD_CONFIG_PARAMETER, "id" );
+        config.set( PREDICATE_CONFIG_PARAMETER, (LongPredicate) value -> value == id );
+        final VectorizedFilterOperator operator = createOperator( longSchema );
+
+        input.add( Tuple.of( longSchema, "id", id - 1 ), Tuple.of( longSchema, "id", id ), Tuple.of( longSchema, "id", id + 1 ) );
+        operator.invoke( invocationCtx );
+
+        final List<Tuple> outputTuples = invocationCtx.getOutput().getTuplesByDefaultPort();
+        assertThat( outputTuples, equalTo( singletonList( input.getTuplesByDefaultPort().get( 1 ) ) ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldFailWithDoublePredicateForLongField () throws InstantiationException, IllegalAccessException
+    {
+        final PortRuntimeSchema longSchema = new PortRuntimeSchema( EXACT_FIELD_SET,
+                                                                    singletonList( new RuntimeSchemaField( "id", Long.class ) ) );
+        config.set( FIELD_CONFIG_PARAMETER, "id" );
+        config.set( PREDICATE_CONFIG_PARAMETER, positiveCountsPredicate );
+
+        createOperator( longSchema );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldFailWithLongPredicateForDoubleField () throws InstantiationException, IllegalAccessException
+    {
+        final PortRuntimeSchema doubleSchema = new PortRuntimeSchema( EXACT_FIELD_SET,
+                                                                      singletonList( new RuntimeSchemaField( "price", Double.class ) ) );
+        config.set( FIELD_CONFIG_PARAMETER, "price" );
+        config.set( PREDICATE_CONFIG_PARAMETER, (LongPredicate) value -> value > 0 );
+
+        createOperator( doubleSchema );
+    }
+
+    private VectorizedFilterOperator createOperator ( final PortRuntimeSchema inputSchema )
+            throws InstantiationException, IllegalAccessException
+    {
+        final OperatorRuntimeSchemaBuilder schemaBuilder = new OperatorRuntimeSchemaBuilder( 1, 1 ).addInputPortSchema( 0, inputSchema );
+        final OperatorDef operatorDef = OperatorDefBuilder.newInstance( "filter", VectorizedFilterOperator.class )
+                                                          .setExtendingSchema( schemaBuilder )
+                                                          .setConfig( config )
+                                                          .build();
+        final VectorizedFilterOperator operator = (VectorizedFilterOperator) operatorDef.createOperator();
+        operator.init( new InitCtxImpl( operatorDef, new boolean[] { true } ) );
+        return operator;
+    }
+
+    private void shouldFilterTuplesWithPositiveCount ()
+    {
+        config.set( FIELD_CONFIG_PARAMETER, "count" );
+        config.set( PREDICATE_CONFIG_PARAMETER, positiveCountsPredicate );
+        operator.init( initCtx );
+
+        operator.invoke( invocationCtx );
+
+        final List<Tuple> outputTuples = invocationCtx.getOutput().getTuplesByDefaultPort();
+        final List<Tuple> inputTuples = invocationCtx.getInput().getTuplesByDefaultPort();
+        assertThat( outputTuples, equalTo( asList( inputTuples.get( 1 ), inputTuples.get( 3 ) ) ) );
+    }
+
+    private Tuple createTuple ( final int count )
+    {
+        return Tuple.of( inputSchema, "count", count );
+    }
+
+}
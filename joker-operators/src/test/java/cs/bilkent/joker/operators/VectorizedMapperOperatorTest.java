@@ -0,0 +1,176 @@
+package cs.bilkent.joker.operators;
+
+import java.util.List;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.LongUnaryOperator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static cs.bilkent.joker.operator.InvocationCtx.InvocationReason.SUCCESS;
+import cs.bilkent.joker.operator.OperatorConfig;
+import cs.bilkent.joker.operator.OperatorDef;
+import cs.bilkent.joker.operator.OperatorDefBuilder;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.impl.DefaultInvocationCtx;
+import cs.bilkent.joker.operator.impl.InitCtxImpl;
+import cs.bilkent.joker.operator.impl.TuplesImpl;
+import cs.bilkent.joker.operator.scheduling.SchedulingStrategy;
+import static cs.bilkent.joker.operator.schema.annotation.PortSchemaScope.EXACT_FIELD_SET;
+import cs.bilkent.joker.operator.schema.runtime.OperatorRuntimeSchemaBuilder;
+import cs.bilkent.joker.operator.schema.runtime.PortRuntimeSchema;
+import cs.bilkent.joker.operator.schema.runtime.RuntimeSchemaField;
+import static cs.bilkent.joker.operators.MapperOperatorTest.assertScheduleWhenTuplesAvailableStrategy;
+import static cs.bilkent.joker.operators.VectorizedMapperOperator.INPUT_FIELD_CONFIG_PARAMETER;
+import static cs.bilkent.joker.operators.VectorizedMapperOperator.MAPPER_CONFIG_PARAMETER;
+import static cs.bilkent.joker.operators.VectorizedMapperOperator.OUTPUT_FIELD_CONFIG_PARAMETER;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+
+public class VectorizedMapperOperatorTest extends AbstractJokerTest
+{
+
+    private final DoubleUnaryOperator multiplyBy2Mapper = value -> value * 2;
+
+    private final PortRuntimeSchema inputSchema = new PortRuntimeSchema( EXACT_FIELD_SET,
+                                                                         singletonList( new RuntimeSchemaField( "price", Double.class ) ) );
+
+    private final TuplesImpl output = new TuplesImpl( 1 );
+
+    private final DefaultInvocationCtx invocationCtx = new DefaultInvocationCtx( 1, key -> null, output );
+
+    private final TuplesImpl input = invocationCtx.createInputTuples( null );
+
+    private final OperatorConfig config = new OperatorConfig();
+
+    private VectorizedMapperOperator operator;
+
+    private InitCtxImpl initCtx;
+
+    @Before
+    public void init () throws InstantiationException, IllegalAccessException
+    {
+        invocationCtx.setInvocationReason( SUCCESS );
+
+        final OperatorRuntimeSchemaBuilder schemaBuilder = new OperatorRuntimeSchemaBuilder( 1, 1 );
+        schemaBuilder.addInputPortSchema( 0, inputSchema ).addOutputField( 0, "doublePrice", Double.class );
+        final OperatorDef operatorDef = OperatorDefBuilder.newInstance( "mapper", VectorizedMapperOperator.class )
+                                                          .setExtendingSchema( schemaBuilder )
+                                                          .setConfig( config )
+                                                          .build();
+        operator = (VectorizedMapperOperator) operatorDef.createOperator();
+        initCtx = new InitCtxImpl( operatorDef, new boolean[] { true } );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldFailWithNoMapper ()
+    {
+        config.set( INPUT_FIELD_CONFIG_PARAMETER, "price" );
+        config.set( OUTPUT_FIELD_CONFIG_PARAMETER, "doublePrice" );
+
+        operator.init( initCtx );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldFailWithInputFieldNotPresentInInputSchema ()
+    {
+        config.set( INPUT_FIELD_CONFIG_PARAMETER, "count" );
+        config.set( OUTPUT_FIELD_CONFIG_PARAMETER, "doublePrice" );
+        config.set( MAPPER_CONFIG_PARAMETER, multiplyBy2Mapper );
+
+        operator.init( initCtx );
+    }
+
+    @Test
+    public void shouldInitializeWithMapper ()
+    {
+        initConfig();
+
+        final SchedulingStrategy strategy = operator.init( initCtx );
+
+        assertScheduleWhenTuplesAvailableStrategy( strategy, 1 );
+    }
+
+    @Test
+    public void shouldMapMultipleTuples ()
+    {
+        initConfig();
+        operator.init( initCtx );
+
+        for ( int i = 0; i < 100; i++ )
+        {
+            input.add( Tuple.of( inputSchema, "price", (double) i ) );
+        }
+
+        operator.invoke( invocationCtx );
+
+        final List<Tuple> outputTuples = invocationCtx.getOutput().getTuplesByDefaultPort();
+        assertThat( outputTuples, hasSize( 100 ) );
+        for ( int i = 0; i < outputTuples.size(); i++ )
+        {
+            final Tuple outputTuple = outputTuples.get( i );
+            assertThat( outputTuple.getDouble( "doublePrice" ), equalTo( 2d * i ) );
+            assertThat( outputTuple.getSchema(), equalTo( initCtx.getOutputPortSchema( 0 ) ) );
+        }
+    }
+
+    @Test
+    public void shouldMapLongFieldWithLongMapper () throws InstantiationException, IllegalAccessException
+    {
+        final long id = 1L << 53;
+        final PortRuntimeSchema longSchema = new PortRuntimeSchema( EXACT_FIELD_SET,
+                                                                    singletonList( new RuntimeSchemaField( "id", Long.class ) ) );
+        config.set( INPUT_FIELD_CONFIG_PARAMETER, "id" );
+        config.set( OUTPUT_FIELD_CONFIG_PARAMETER, "nextId" );
+        config.set( MAPPER_CONFIG_PARAMETER, (LongUnaryOperator) value -> value + 1 );
+        final VectorizedMapperOperator operator = createOperator( longSchema, "nextId", Long.class );
+
+        input.add( Tuple.of( longSchema, "id", id ), Tuple.of( longSchema, "id", id + 2 ) );
+        operator.invoke( invocationCtx );
+
+        final List<Tuple> outputTuples = invocationCtx.getOutput().getTuplesByDefaultPort();
+        assertThat( outputTuples, hasSize( 2 ) );
+        assertThat( outputTuples.get( 0 ).getLong( "nextId" ), equalTo( id + 1 ) );
+        assertThat( outputTuples.get( 1 ).getLong( "nextId" ), equalTo( id + 3 ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldFailWithDoubleMapperForLongField () throws InstantiationException, IllegalAccessException
+    {
+        final PortRuntimeSchema longSchema = new PortRuntimeSchema( EXACT_FIELD_SET,
+                                                                    singletonList( new RuntimeSchemaField( "id", Long.class ) ) );
+        config.set( INPUT_FIELD_CONFIG_PARAMETER, "id" );
+        config.set( OUTPUT_FIELD_CONFIG_PARAMETER, "doubleId" );
+        config.set( MAPPER_CONFIG_PARAMETER, multiplyBy2Mapper );
+
+        createOperator( longSchema, "doubleId", Double.class );
+    }
+
+    private VectorizedMapperOperator createOperator ( final PortRuntimeSchema inputSchema,
+                                                      final String outputField,
+                                                      final Class<?> outputFieldType )
+            throws InstantiationException, IllegalAccessException
+    {
+        final OperatorRuntimeSchemaBuilder schemaBuilder = new OperatorRuntimeSchemaBuilder( 1, 1 );
+        schemaBuilder.addInputPortSchema( 0, inputSchema ).addOutputField( 0, outputField, outputFieldType );
+        final OperatorDef operatorDef = OperatorDefBuilder.newInstance( "mapper", VectorizedMapperOperator.class )
+                                                          .setExtendingSchema( schemaBuilder )
+                                                          .setConfig( config )
+                                                          .build();
+        final VectorizedMapperOperator operator = (VectorizedMapperOperator) operatorDef.createOperator();
+        operator.init( new InitCtxImpl( operatorDef, new boolean[] { true } ) );
+        return operator;
+    }
+
+    private void initConfig ()
+    {
+        config.set( INPUT_FIELD_CONFIG_PARAMETER, "price" );
+        config.set( OUTPUT_FIELD_CONFIG_PARAMETER, "doublePrice" );
+        config.set( MAPPER_CONFIG_PARAMETER, multiplyBy2Mapper );
+    }
+
+}
@@ -0,0 +1,280 @@
+package cs.bilkent.joker.operators;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static cs.bilkent.joker.operator.InvocationCtx.InvocationReason.SUCCESS;
+import cs.bilkent.joker.operator.OperatorConfig;
+import cs.bilkent.joker.operator.OperatorDef;
+import cs.bilkent.joker.operator.OperatorDefBuilder;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.impl.DefaultInvocationCtx;
+import cs.bilkent.joker.operator.impl.InMemoryKVStore;
+import cs.bilkent.joker.operator.impl.InitCtxImpl;
+import cs.bilkent.joker.operator.impl.TuplesImpl;
+import cs.bilkent.joker.operator.kvstore.KVStore;
+import cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable;
+import static cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.TupleAvailabilityByPort.ANY_PORT;
+import cs.bilkent.joker.operator.scheduling.SchedulingStrategy;
+import cs.bilkent.joker.operator.schema.runtime.OperatorRuntimeSchemaBuilder;
+import static cs.bilkent.joker.operators.WindowedJoinOperator.JOINER_CONFIG_PARAMETER;
+import static cs.bilkent.joker.operators.WindowedJoinOperator.LEFT_BUFFER_KEY;
+import static cs.bilkent.joker.operators.WindowedJoinOperator.LEFT_PORT_INDEX;
+import static cs.bilkent.joker.operators.WindowedJoinOperator.RIGHT_BUFFER_KEY;
+import static cs.bilkent.joker.operators.WindowedJoinOperator.RIGHT_PORT_INDEX;
+import static cs.bilkent.joker.operators.WindowedJoinOperator.TIMESTAMP_FIELD_CONFIG_PARAMETER;
+import static cs.bilkent.joker.operators.WindowedJoinOperator.WINDOW_SIZE_CONFIG_PARAMETER;
+import static cs.bilkent.joker.operators.WindowedJoinOperator.WINDOW_TUPLE_COUNT_CONFIG_PARAMETER;
+import cs.bilkent.joker.partition.impl.PartitionKey;
+import cs.bilkent.joker.partition.impl.PartitionKey1;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+public class WindowedJoinOperatorTest extends AbstractJokerTest
+{
+
+    private final KVStore kvStore = new InMemoryKVStore();
+
+    private final TuplesImpl output = new TuplesImpl( 1 );
+
+    private final DefaultInvocationCtx invocationCtx = new DefaultInvocationCtx( 2, key -> kvStore, output );
+
+    private final PartitionKey key = new PartitionKey1( "key" );
+
+    private final OperatorConfig config = new OperatorConfig();
+
+    private final WindowedJoinOperator.Joiner joiner = ( left, right, output ) -> {
+        output.set( "left", left.getString( "val" ) );
+        output.set( "right", right.getString( "val" ) );
+    };
+
+    private WindowedJoinOperator operator;
+
+    private InitCtxImpl initCtx;
+
+    @Before
+    public void init () throws InstantiationException, IllegalAccessException
+    {
+        invocationCtx.setInvocationReason( SUCCESS );
+        invocationCtx.setUpstreamConnectionStatuses( new boolean[] { true, true } );
+
+        final OperatorRuntimeSchemaBuilder builder = new OperatorRuntimeSchemaBuilder( 2, 1 );
+        builder.addInputField( LEFT_PORT_INDEX, "key", String.class )
+               .addInputField( LEFT_PORT_INDEX, "ts", Long.class )
+               .addInputField( LEFT_PORT_INDEX, "val", String.class )
+               .addInputField( RIGHT_PORT_INDEX, "key", String.class )
+               .addInputField( RIGHT_PORT_INDEX, "ts", Long.class )
+               .addInputField( RIGHT_PORT_INDEX, "val", String.class )
+               .addOutputField( 0, "left", String.class )
+               .addOutputField( 0, "right", String.class );
+
+        final OperatorDef operatorDef = OperatorDefBuilder.newInstance( "op", WindowedJoinOperator.class )
+                                                          .setConfig( config )
+                                                          .setExtendingSchema( builder )
+                                                          .setPartitionFieldNames( singletonList( "key" ) )
+                                                          .build();
+        operator = (WindowedJoinOperator) operatorDef.createOperator();
+        initCtx = new InitCtxImpl( operatorDef, new boolean[] { true, true } );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldFailToInitWithoutJoiner ()
+    {
+        config.set( WINDOW_TUPLE_COUNT_CONFIG_PARAMETER, 1 );
+
+        operator.init( initCtx );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldFailToInitWithoutWindow ()
+    {
+        config.set( JOINER_CONFIG_PARAMETER, joiner );
+
+        operator.init( initCtx );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldFailToInitWithTimeAndTupleCountWindows ()
+    {
+        config.set( JOINER_CONFIG_PARAMETER, joiner );
+        config.set( TIMESTAMP_FIELD_CONFIG_PARAMETER, "ts" );
+        config.set( WINDOW_SIZE_CONFIG_PARAMETER, 10L );
+        config.set( WINDOW_TUPLE_COUNT_CONFIG_PARAMETER, 1 );
+
+        operator.init( initCtx );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldFailToInitWithNegativeWindowSize ()
+    {
+        config.set( JOINER_CONFIG_PARAMETER, joiner );
+        config.set( TIMESTAMP_FIELD_CONFIG_PARAMETER, "ts" );
+        config.set( WINDOW_SIZE_CONFIG_PARAMETER, -1L );
+
+        operator.init( initCtx );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldFailToInitWithNonPositiveWindowTupleCount ()
+    {
+        config.set( JOINER_CONFIG_PARAMETER, joiner );
+        config.set( WINDOW_TUPLE_COUNT_CONFIG_PARAMETER, 0 );
+
+        operator.init( initCtx );
+    }
+
+    @Test
+    public void shouldScheduleWhenTuplesAvailableOnAnyPort ()
+    {
+        initTimeWindow( 10 );
+
+        final SchedulingStrategy strategy = operator.init( initCtx );
+
+        assertTrue( strategy instanceof ScheduleWhenTuplesAvailable );
+        final ScheduleWhenTuplesAvailable s = (ScheduleWhenTuplesAvailable) strategy;
+        assertThat( s.getTupleAvailabilityByPort(), equalTo( ANY_PORT ) );
+        assertThat( s.getTupleCount( LEFT_PORT_INDEX ), equalTo( 1 ) );
+        assertThat( s.getTupleCount( RIGHT_PORT_INDEX ), equalTo( 1 ) );
+    }
+
+    @Test
+    public void shouldJoinTuplesWithinTimeWindow ()
+    {
+        initTimeWindow( 10 );
+        operator.init( initCtx );
+
+        invoke( asList( tuple( 0, "l0" ), tuple( 5, "l5" ), tuple( 20, "l20" ) ), emptyList() );
+        assertEquals( 0, output.getTupleCount( 0 ) );
+
+        invoke( emptyList(), singletonList( tuple( 12, "r12" ) ) );
+
+        assertEquals( asList( "l5-r12", "l20-r12" ), getJoinedValues() );
+    }
+
+    @Test
+    public void shouldNotJoinTuplesBeyondUpperBoundOfTimeWindow ()
+    {
+        initTimeWindow( 10 );
+        operator.init( initCtx );
+
+        invoke( asList( tuple( 0, "l0" ), tuple( 30, "l30" ) ), emptyList() );
+        invoke( emptyList(), singletonList( tuple( 8, "r8" ) ) );
+
+        assertEquals( singletonList( "l0-r8" ), getJoinedValues() );
+    }
+
+    @Test
+    public void shouldExpireBufferedTuplesWithTuplesOfOtherPort ()
+    {
+        initTimeWindow( 10 );
+        operator.init( initCtx );
+
+        invoke( asList( tuple( 0, "l0" ), tuple( 5, "l5" ) ), emptyList() );
+        invoke( emptyList(), singletonList( tuple( 100, "r100" ) ) );
+        assertEquals( 0, output.getTupleCount( 0 ) );
+
+        final JoinBuffer left = kvStore.get( LEFT_BUFFER_KEY );
+        assertTrue( left.isEmpty() );
+        invoke( singletonList( tuple( 105, "l105" ) ), emptyList() );
+
+        assertEquals( singletonList( "l105-r100" ), getJoinedValues() );
+    }
+
+    @Test
+    public void shouldJoinTuplesOfBothPortsInSameInvocation ()
+    {
+        initTimeWindow( 10 );
+        operator.init( initCtx );
+
+        invoke( singletonList( tuple( 0, "l0" ) ), singletonList( tuple( 1, "r1" ) ) );
+
+        assertEquals( singletonList( "l0-r1" ), getJoinedValues() );
+    }
+
+    @Test
+    public void shouldJoinWithLastTuplesOfOtherPortInTupleCountWindow ()
+    {
+        config.set( JOINER_CONFIG_PARAMETER, joiner );
+        config.set( WINDOW_TUPLE_COUNT_CONFIG_PARAMETER, 2 );
+        operator.init( initCtx );
+
+        invoke( asList( tuple( 0, "l0" ), tuple( 0, "l1" ), tuple( 0, "l2" ) ), emptyList() );
+        invoke( emptyList(), singletonList( tuple( 0, "r0" ) ) );
+
+        assertEquals( asList( "l1-r0", "l2-r0" ), getJoinedValues() );
+    }
+
+    @Test
+    public void shouldNotBufferTuplesWhenOtherPortIsClosed ()
+    {
+        initTimeWindow( 10 );
+        operator.init( initCtx );
+
+        invoke( singletonList( tuple( 0, "l0" ) ), emptyList() );
+        invocationCtx.setUpstreamConnectionStatuses( new boolean[] { true, false } );
+        invoke( singletonList( tuple( 1, "l1" ) ), emptyList() );
+
+        assertEquals( 0, output.getTupleCount( 0 ) );
+        assertNull( kvStore.get( LEFT_BUFFER_KEY ) );
+        assertNull( kvStore.get( RIGHT_BUFFER_KEY ) );
+    }
+
+    @Test
+    public void shouldJoinBufferedTuplesWithTuplesOfClosingPort ()
+    {
+        initTimeWindow( 10 );
+        operator.init( initCtx );
+
+        invoke( singletonList( tuple( 0, "l0" ) ), emptyList() );
+        invocationCtx.setUpstreamConnectionStatuses( new boolean[] { false, true } );
+        invoke( emptyList(), singletonList( tuple( 1, "r1" ) ) );
+
+        assertEquals( singletonList( "l0-r1" ), getJoinedValues() );
+        assertTrue( kvStore.<JoinBuffer>get( RIGHT_BUFFER_KEY ).isEmpty() );
+    }
+
+    private void initTimeWindow ( final long windowSize )
+    {
+        config.set( JOINER_CONFIG_PARAMETER, joiner );
+        config.set( TIMESTAMP_FIELD_CONFIG_PARAMETER, "ts" );
+        config.set( WINDOW_SIZE_CONFIG_PARAMETER, windowSize );
+    }
+
+    private void invoke ( final List<Tuple> leftTuples, final List<Tuple> rightTuples )
+    {
+        invocationCtx.reset();
+        invocationCtx.setInvocationReason( SUCCESS );
+        final TuplesImpl input = invocationCtx.createInputTuples( key );
+        input.add( LEFT_PORT_INDEX, leftTuples );
+        input.add( RIGHT_PORT_INDEX, rightTuples );
+        operator.invoke( invocationCtx );
+    }
+
+    private Tuple tuple ( final long timestamp, final String val )
+    {
+        return Tuple.of( "key", "key", "ts", timestamp, "val", val );
+    }
+
+    private List<String> getJoinedValues ()
+    {
+        final List<String> values = new ArrayList<>();
+        for ( Tuple tuple : output.getTuples( 0 ) )
+        {
+            values.add( tuple.getString( "left" ) + "-" + tuple.getString( "right" ) );
+        }
+
+        return values;
+    }
+
+}
@@ -0,0 +1,76 @@
+package cs.bilkent.joker.operators.sketch;
+
+import org.junit.Test;
+
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HyperLogLogSketchTest extends AbstractJokerTest
+{
+
+    private static final int PRECISION = 12;
+
+    // about 3 standard errors for precision 12
+    private static final double TOLERANCE = 0.05;
+
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotCreateSketchWithInvalidPrecision ()
+    {
+        new HyperLogLogSketch( HyperLogLogSketch.MIN_PRECISION - 1 );
+    }
+
+    @Test
+    public void shouldEstimateSmallCardinalitiesExactly ()
+    {
+        final HyperLogLogSketch sketch = new HyperLogLogSketch( PRECISION );
+        assertTrue( sketch.isEmpty() );
+
+        for ( int i = 0; i < 10; i++ )
+        {
+            sketch.add( "val" + ( i % 5 ) );
+        }
+
+        assertEquals( 5, sketch.estimate() );
+    }
+
+    @Test
+    public void shouldEstimateLargeCardinalities ()
+    {
+        final HyperLogLogSketch sketch = new HyperLogLogSketch( PRECISION );
+        final int cardinality = 100000;
+        for ( long i = 0; i < cardinality; i++ )
+        {
+            sketch.add( i );
+            sketch.add( i );
+        }
+
+        assertEquals( cardinality, sketch.estimate(), cardinality * TOLERANCE );
+    }
+
+    @Test
+    public void shouldMergeSketches ()
+    {
+        final HyperLogLogSketch sketch1 = new HyperLogLogSketch( PRECISION );
+        final HyperLogLogSketch sketch2 = new HyperLogLogSketch( PRECISION );
+        for ( int i = 0; i < 20000; i++ )
+        {
+            sketch1.add( "val" + i );
+            sketch2.add( "val" + ( i + 10000 ) );
+        }
+
+        final HyperLogLogSketch copy = sketch1.copy();
+        sketch1.merge( sketch2 );
+
+        assertEquals( 30000, sketch1.estimate(), 30000 * TOLERANCE );
+        assertEquals( 20000, copy.estimate(), 20000 * TOLERANCE );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotMergeSketchesWithDifferentPrecisions ()
+    {
+        new HyperLogLogSketch( PRECISION ).merge( new HyperLogLogSketch( PRECISION + 1 ) );
+    }
+
+}
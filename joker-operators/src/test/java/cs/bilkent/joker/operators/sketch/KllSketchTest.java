@@ -0,0 +1,89 @@
+package cs.bilkent.joker.operators.sketch;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class KllSketchTest extends AbstractJokerTest
+{
+
+    private static final int VALUE_COUNT = 100000;
+
+    // a few times the expected rank error of the default k
+    private static final double RANK_TOLERANCE = 0.03;
+
+
+    @Test
+    public void shouldReturnNaNWhenEmpty ()
+    {
+        assertTrue( Double.isNaN( new KllSketch().getQuantile( 0.5 ) ) );
+    }
+
+    @Test
+    public void shouldReturnExactQuantilesWhenNotCompacted ()
+    {
+        final KllSketch sketch = new KllSketch();
+        for ( int i = 1; i <= 100; i++ )
+        {
+            sketch.add( i );
+        }
+
+        assertEquals( 50, sketch.getQuantile( 0.5 ), 0 );
+        assertEquals( 1, sketch.getQuantile( 0 ), 0 );
+        assertEquals( 100, sketch.getQuantile( 1 ), 0 );
+        assertEquals( 0.9, sketch.getRank( 90 ), 0 );
+    }
+
+    @Test
+    public void shouldEstimateQuantilesWithBoundedMemory ()
+    {
+        final KllSketch sketch = new KllSketch();
+        final Random random = new Random( 1 );
+        for ( int i = 0; i < VALUE_COUNT; i++ )
+        {
+            sketch.add( random.nextInt( VALUE_COUNT ) );
+        }
+
+        assertEquals( VALUE_COUNT, sketch.getCount() );
+        assertTrue( sketch.getRetainedCount() < 4 * KllSketch.DEFAULT_K );
+        assertRankWithinTolerance( sketch, 0.5 );
+        assertRankWithinTolerance( sketch, 0.99 );
+    }
+
+    @Test
+    public void shouldMergeSketches ()
+    {
+        final KllSketch sketch1 = new KllSketch();
+        final KllSketch sketch2 = new KllSketch();
+        for ( int i = 0; i < VALUE_COUNT; i++ )
+        {
+            ( i % 2 == 0 ? sketch1 : sketch2 ).add( i );
+        }
+
+        sketch1.merge( sketch2 );
+
+        assertEquals( VALUE_COUNT, sketch1.getCount() );
+        assertEquals( 0, sketch1.getMin(), 0 );
+        assertEquals( VALUE_COUNT - 1, sketch1.getMax(), 0 );
+        assertTrue( sketch1.getRetainedCount() < 4 * KllSketch.DEFAULT_K );
+        assertRankWithinTolerance( sketch1, 0.5 );
+        assertRankWithinTolerance( sketch1, 0.9 );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotMergeSketchesWithDifferentK ()
+    {
+        new KllSketch( 100 ).merge( new KllSketch( 200 ) );
+    }
+
+    private void assertRankWithinTolerance ( final KllSketch sketch, final double fraction )
+    {
+        final double quantile = sketch.getQuantile( fraction );
+        assertEquals( fraction, quantile / VALUE_COUNT, RANK_TOLERANCE );
+    }
+
+}
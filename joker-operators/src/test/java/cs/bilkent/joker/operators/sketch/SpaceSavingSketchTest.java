@@ -0,0 +1,84 @@
+package cs.bilkent.joker.operators.sketch;
+
+import org.junit.Test;
+
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SpaceSavingSketchTest extends AbstractJokerTest
+{
+
+    @Test
+    public void shouldCountValuesExactlyWhenCapacityIsNotExceeded ()
+    {
+        final SpaceSavingSketch sketch = new SpaceSavingSketch( 4 );
+        sketch.add( "a" );
+        sketch.add( "b" );
+        sketch.add( "a" );
+        sketch.add( "c", 3 );
+
+        assertEquals( asList( "c", "a" ), sketch.getTopK( 2 ) );
+        assertEquals( 2, sketch.getCount( "a" ) );
+        assertEquals( 0, sketch.getError( "a" ) );
+        assertEquals( 6, sketch.getTotalCount() );
+    }
+
+    @Test
+    public void shouldReplaceMinimumCountValueWhenFull ()
+    {
+        final SpaceSavingSketch sketch = new SpaceSavingSketch( 2 );
+        sketch.add( "a", 5 );
+        sketch.add( "b", 2 );
+        sketch.add( "c" );
+
+        assertEquals( 2, sketch.size() );
+        assertEquals( 0, sketch.getCount( "b" ) );
+        assertEquals( 3, sketch.getCount( "c" ) );
+        assertEquals( 2, sketch.getError( "c" ) );
+        assertEquals( asList( "a", "c" ), sketch.getTopK( 2 ) );
+    }
+
+    @Test
+    public void shouldFindHeavyHittersInSkewedStream ()
+    {
+        final SpaceSavingSketch sketch = new SpaceSavingSketch( 20 );
+        for ( int i = 0; i < 10000; i++ )
+        {
+            sketch.add( i % 2 == 0 ? "hot1" : ( i % 3 == 0 ? "hot2" : "cold" + i ) );
+        }
+
+        assertEquals( asList( "hot1", "hot2" ), sketch.getTopK( 2 ) );
+        assertTrue( sketch.getCount( "hot1" ) - sketch.getError( "hot1" ) <= 5000 );
+        assertTrue( sketch.getCount( "hot1" ) >= 5000 );
+    }
+
+    @Test
+    public void shouldMergeSketches ()
+    {
+        final SpaceSavingSketch sketch1 = new SpaceSavingSketch( 2 );
+        sketch1.add( "a", 10 );
+        sketch1.add( "b", 4 );
+        final SpaceSavingSketch sketch2 = new SpaceSavingSketch( 2 );
+        sketch2.add( "a", 1 );
+        sketch2.add( "c", 8 );
+
+        final SpaceSavingSketch copy = sketch1.copy();
+        sketch1.merge( sketch2 );
+
+        assertEquals( asList( "c", "a" ), sketch1.getTopK( 2 ) );
+        assertEquals( 11, sketch1.getCount( "a" ) );
+        assertEquals( 12, sketch1.getCount( "c" ) );
+        assertEquals( 4, sketch1.getError( "c" ) );
+        assertEquals( 23, sketch1.getTotalCount() );
+        assertEquals( asList( "a", "b" ), copy.getTopK( 2 ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotMergeSketchesWithDifferentCapacities ()
+    {
+        new SpaceSavingSketch( 2 ).merge( new SpaceSavingSketch( 3 ) );
+    }
+
+}
@@ -0,0 +1,64 @@
+package cs.bilkent.joker.pcj.remote;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import javax.annotation.concurrent.ThreadSafe;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static cs.bilkent.joker.pcj.remote.RemoteEdgeProtocol.BYTE_ORDER;
+
+/**
+ * Pool of direct {@link ByteBuffer} objects of the same capacity. Buffers are allocated lazily and at most the given number of released
+ * buffers are kept in the pool. Buffers requested with a larger capacity are allocated on demand and they are not pooled.
+ */
+@ThreadSafe
+public class DirectBufferPool
+{
+
+    private final int bufferSize;
+
+    private final BlockingQueue<ByteBuffer> buffers;
+
+    public DirectBufferPool ( final int bufferSize, final int maxPooledBufferCount )
+    {
+        checkArgument( bufferSize > 0, "invalid buffer size: %s", bufferSize );
+        checkArgument( maxPooledBufferCount > 0, "invalid max pooled buffer count: %s", maxPooledBufferCount );
+        this.bufferSize = bufferSize;
+        this.buffers = new ArrayBlockingQueue<>( maxPooledBufferCount );
+    }
+
+    public int getBufferSize ()
+    {
+        return bufferSize;
+    }
+
+    /**
+     * Returns a cleared buffer which has at least the given capacity
+     */
+    public ByteBuffer acquire ( final int capacity )
+    {
+        if ( capacity > bufferSize )
+        {
+            return ByteBuffer.allocateDirect( capacity ).order( BYTE_ORDER );
+        }
+
+        final ByteBuffer buffer = buffers.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect( bufferSize ).order( BYTE_ORDER );
+    }
+
+    public void release ( final ByteBuffer buffer )
+    {
+        if ( buffer.capacity() == bufferSize )
+        {
+            buffer.clear();
+            buffers.offer( buffer );
+        }
+    }
+
+    public int getPooledBufferCount ()
+    {
+        return buffers.size();
+    }
+
+}
@@ -0,0 +1,41 @@
+package cs.bilkent.joker.pcj.remote;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A batch of encoded tuples received from a sender. Its buffer is returned to the buffer pool, and a credit is granted back to the sender
+ * once the batch is released.
+ */
+final class RemoteBatch
+{
+
+    // tuple count
+    static final int TUPLES_OFFSET = 4;
+
+
+    private final RemoteEdgeConnection connection;
+
+    private final ByteBuffer buffer;
+
+    RemoteBatch ( final RemoteEdgeConnection connection, final ByteBuffer buffer )
+    {
+        this.connection = connection;
+        this.buffer = buffer;
+    }
+
+    ByteBuffer getBuffer ()
+    {
+        return buffer;
+    }
+
+    int getTupleCount ()
+    {
+        return buffer.getInt( 0 );
+    }
+
+    void release ()
+    {
+        connection.release( buffer );
+    }
+
+}
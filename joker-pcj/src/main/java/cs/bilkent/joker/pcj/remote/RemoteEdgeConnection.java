@@ -0,0 +1,216 @@
+package cs.bilkent.joker.pcj.remote;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Preconditions.checkState;
+import cs.bilkent.joker.engine.util.concurrent.BackoffIdleStrategy;
+import cs.bilkent.joker.engine.util.concurrent.IdleStrategy;
+import static cs.bilkent.joker.pcj.remote.RemoteEdgeProtocol.BATCH;
+import static cs.bilkent.joker.pcj.remote.RemoteEdgeProtocol.BYTE_ORDER;
+import static cs.bilkent.joker.pcj.remote.RemoteEdgeProtocol.CLOSE;
+import static cs.bilkent.joker.pcj.remote.RemoteEdgeProtocol.CREDIT;
+import static cs.bilkent.joker.pcj.remote.RemoteEdgeProtocol.CREDIT_FRAME_LENGTH;
+import static cs.bilkent.joker.pcj.remote.RemoteEdgeProtocol.FRAME_HEADER_LENGTH;
+import static cs.bilkent.joker.pcj.remote.RemoteEdgeProtocol.HELLO;
+import static cs.bilkent.joker.pcj.remote.RemoteEdgeProtocol.putFrameHeader;
+import static cs.bilkent.joker.pcj.remote.RemoteEdgeProtocol.writeFully;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Server side of a connection opened by a {@link RemoteEdgeSender}. Frames are read by the selector thread of the server. Batch frames
+ * are read into pooled direct buffers and handed over to the inbox of the edge as they are. Credits are written back by the threads
+ * releasing the batches.
+ */
+final class RemoteEdgeConnection
+{
+
+    private static final Logger LOGGER = LoggerFactory.getLogger( RemoteEdgeConnection.class );
+
+
+    private final SocketChannel channel;
+
+    private final DirectBufferPool bufferPool;
+
+    private final Function<String, RemoteEdgeInbox> inboxes;
+
+    private final int initialCredits;
+
+    private final ByteBuffer header = ByteBuffer.allocateDirect( FRAME_HEADER_LENGTH ).order( BYTE_ORDER );
+
+    private final ByteBuffer creditFrame = ByteBuffer.allocateDirect( CREDIT_FRAME_LENGTH ).order( BYTE_ORDER );
+
+    private final IdleStrategy creditIdleStrategy = BackoffIdleStrategy.newDefaultInstance();
+
+    private ByteBuffer payload;
+
+    private byte frameType;
+
+    private RemoteEdgeInbox inbox;
+
+    private boolean closed;
+
+    RemoteEdgeConnection ( final SocketChannel channel,
+                           final DirectBufferPool bufferPool,
+                           final Function<String, RemoteEdgeInbox> inboxes,
+                           final int initialCredits )
+    {
+        this.channel = channel;
+        this.bufferPool = bufferPool;
+        this.inboxes = inboxes;
+        this.initialCredits = initialCredits;
+    }
+
+    /**
+     * Reads the available frames from the channel without blocking.
+     *
+     * @return false if the sender has closed the connection, true otherwise
+     */
+    boolean read () throws IOException
+    {
+        while ( true )
+        {
+            if ( payload == null )
+            {
+                if ( channel.read( header ) == -1 )
+                {
+                    return false;
+                }
+                else if ( header.hasRemaining() )
+                {
+                    return true;
+                }
+
+                final int payloadLength = header.getInt( 0 ) - 1;
+                checkState( payloadLength >= 0, "invalid frame length: %s", payloadLength + 1 );
+                frameType = header.get( 4 );
+                payload = bufferPool.acquire( payloadLength );
+                ( (Buffer) payload ).limit( payloadLength );
+                ( (Buffer) header ).clear();
+            }
+
+            if ( channel.read( payload ) == -1 )
+            {
+                return false;
+            }
+            else if ( payload.hasRemaining() )
+            {
+                return true;
+            }
+
+            ( (Buffer) payload ).flip();
+            final ByteBuffer frame = payload;
+            payload = null;
+            if ( !handleFrame( frame ) )
+            {
+                return false;
+            }
+        }
+    }
+
+    private boolean handleFrame ( final ByteBuffer frame )
+    {
+        switch ( frameType )
+        {
+            case HELLO:
+                checkState( inbox == null, "duplicate hello frame" );
+                final byte[] edgeIdBytes = new byte[ frame.remaining() ];
+                frame.get( edgeIdBytes );
+                bufferPool.release( frame );
+                inbox = inboxes.apply( new String( edgeIdBytes, UTF_8 ) );
+                inbox.onConnected();
+                LOGGER.info( "Remote edge {} is connected from {}", inbox.getEdgeId(), getRemoteAddress() );
+                grantCredits( initialCredits );
+                return true;
+            case BATCH:
+                checkState( inbox != null, "batch frame before hello frame" );
+                inbox.add( new RemoteBatch( this, frame ) );
+                return true;
+            case CLOSE:
+                bufferPool.release( frame );
+                return false;
+            default:
+                throw new IllegalStateException( "invalid frame type: " + frameType );
+        }
+    }
+
+    boolean isInboxClosed ()
+    {
+        return inbox != null && inbox.isClosed();
+    }
+
+    void release ( final ByteBuffer buffer )
+    {
+        bufferPool.release( buffer );
+        grantCredits( 1 );
+    }
+
+    synchronized void close ()
+    {
+        if ( closed )
+        {
+            return;
+        }
+
+        closed = true;
+        if ( inbox != null )
+        {
+            inbox.onDisconnected();
+            LOGGER.info( "Remote edge {} is disconnected from {}", inbox.getEdgeId(), getRemoteAddress() );
+        }
+
+        if ( payload != null )
+        {
+            bufferPool.release( payload );
+            payload = null;
+        }
+
+        try
+        {
+            channel.close();
+        }
+        catch ( IOException e )
+        {
+            LOGGER.warn( "Channel of remote edge connection cannot be closed", e );
+        }
+    }
+
+    private synchronized void grantCredits ( final int credits )
+    {
+        if ( closed )
+        {
+            return;
+        }
+
+        ( (Buffer) creditFrame ).clear();
+        putFrameHeader( creditFrame, 0, CREDIT_FRAME_LENGTH, CREDIT );
+        creditFrame.putInt( FRAME_HEADER_LENGTH, credits );
+        try
+        {
+            writeFully( channel, creditFrame, creditIdleStrategy );
+        }
+        catch ( IOException e )
+        {
+            LOGGER.warn( "Credits cannot be granted to {}: {}", getRemoteAddress(), e.getMessage() );
+        }
+    }
+
+    private Object getRemoteAddress ()
+    {
+        try
+        {
+            return channel.getRemoteAddress();
+        }
+        catch ( IOException e )
+        {
+            return null;
+        }
+    }
+
+}
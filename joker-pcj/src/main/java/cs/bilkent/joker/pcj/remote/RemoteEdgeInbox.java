@@ -0,0 +1,106 @@
+package cs.bilkent.joker.pcj.remote;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Keeps the received batches of a remote edge until they are consumed by the receiver operator. The queue is not bounded by itself, but
+ * the number of batches in it is bounded by the credits granted to the connected senders.
+ */
+final class RemoteEdgeInbox
+{
+
+    private final String edgeId;
+
+    private final BlockingQueue<RemoteBatch> batches = new LinkedBlockingQueue<>();
+
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    private final AtomicInteger closedConnectionCount = new AtomicInteger();
+
+    private volatile boolean closed;
+
+    RemoteEdgeInbox ( final String edgeId )
+    {
+        this.edgeId = edgeId;
+    }
+
+    String getEdgeId ()
+    {
+        return edgeId;
+    }
+
+    void add ( final RemoteBatch batch )
+    {
+        batches.add( batch );
+        if ( closed )
+        {
+            releaseBatches();
+        }
+    }
+
+    RemoteBatch poll ()
+    {
+        return batches.poll();
+    }
+
+    RemoteBatch poll ( final long timeout, final TimeUnit unit ) throws InterruptedException
+    {
+        return batches.poll( timeout, unit );
+    }
+
+    int getQueuedBatchCount ()
+    {
+        return batches.size();
+    }
+
+    void onConnected ()
+    {
+        checkState( !closed, "remote edge %s is closed", edgeId );
+        connectionCount.incrementAndGet();
+    }
+
+    void onDisconnected ()
+    {
+        closedConnectionCount.incrementAndGet();
+    }
+
+    /**
+     * Releases the queued batches and the batches received afterwards. The edge does not accept new connections, and its connections are
+     * closed by the server, hence its senders fail instead of waiting for credits which are never granted.
+     */
+    void close ()
+    {
+        closed = true;
+        releaseBatches();
+    }
+
+    boolean isClosed ()
+    {
+        return closed;
+    }
+
+    int getConnectionCount ()
+    {
+        return connectionCount.get();
+    }
+
+    int getClosedConnectionCount ()
+    {
+        return closedConnectionCount.get();
+    }
+
+    private void releaseBatches ()
+    {
+        RemoteBatch batch;
+        while ( ( batch = batches.poll() ) != null )
+        {
+            batch.release();
+        }
+    }
+
+}
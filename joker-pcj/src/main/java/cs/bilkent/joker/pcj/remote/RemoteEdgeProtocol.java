@@ -0,0 +1,67 @@
+package cs.bilkent.joker.pcj.remote;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SocketChannel;
+
+import cs.bilkent.joker.engine.util.concurrent.IdleStrategy;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+
+/**
+ * Frame format of the remote edges. Each frame starts with a header which contains length of the frame excluding the length field
+ * itself, and type of the frame. A sender opens a connection with a {@link #HELLO} frame which contains the edge id, and then sends
+ * {@link #BATCH} frames each of which contains a tuple count followed by the tuples encoded with {@code TupleCodec}. A sender can send a
+ * batch only if it has a credit. The receiver grants credits to a sender with {@link #CREDIT} frames, initially once the connection is
+ * opened, and then each time a batch of the sender is consumed. A sender ends its stream with a {@link #CLOSE} frame.
+ */
+final class RemoteEdgeProtocol
+{
+
+    static final ByteOrder BYTE_ORDER = LITTLE_ENDIAN;
+
+    static final byte HELLO = 1;
+
+    static final byte BATCH = 2;
+
+    static final byte CREDIT = 3;
+
+    static final byte CLOSE = 4;
+
+    // frame length + frame type
+    static final int FRAME_HEADER_LENGTH = 4 + 1;
+
+    // frame header + tuple count
+    static final int BATCH_HEADER_LENGTH = FRAME_HEADER_LENGTH + 4;
+
+    // frame header + credit count
+    static final int CREDIT_FRAME_LENGTH = FRAME_HEADER_LENGTH + 4;
+
+
+    static void putFrameHeader ( final ByteBuffer buffer, final int index, final int frameLength, final byte frameType )
+    {
+        buffer.putInt( index, frameLength - 4 );
+        buffer.put( index + 4, frameType );
+    }
+
+    static void writeFully ( final SocketChannel channel, final ByteBuffer buffer, final IdleStrategy idleStrategy ) throws IOException
+    {
+        idleStrategy.reset();
+        while ( buffer.hasRemaining() )
+        {
+            if ( channel.write( buffer ) == 0 )
+            {
+                idleStrategy.idle();
+            }
+            else
+            {
+                idleStrategy.reset();
+            }
+        }
+    }
+
+    private RemoteEdgeProtocol ()
+    {
+    }
+
+}
@@ -0,0 +1,113 @@
+package cs.bilkent.joker.pcj.remote;
+
+import java.util.concurrent.TimeUnit;
+
+import org.agrona.concurrent.UnsafeBuffer;
+
+import cs.bilkent.joker.operator.InitCtx;
+import cs.bilkent.joker.operator.InvocationCtx;
+import cs.bilkent.joker.operator.Operator;
+import cs.bilkent.joker.operator.OperatorConfig;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.codec.CodecRegistry;
+import cs.bilkent.joker.operator.codec.TupleCodec;
+import cs.bilkent.joker.operator.scheduling.ScheduleWhenAvailable;
+import cs.bilkent.joker.operator.scheduling.SchedulingStrategy;
+import cs.bilkent.joker.operator.schema.runtime.TupleSchema;
+import cs.bilkent.joker.operator.spec.OperatorSpec;
+import static cs.bilkent.joker.operator.spec.OperatorType.STATEFUL;
+import static cs.bilkent.joker.pcj.remote.RemoteBatch.TUPLES_OFFSET;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Downstream side of a remote edge. Produces the tuples received by the {@link RemoteEdgeServer} of its node for the remote edge.
+ * Batches are decoded directly from the buffers they are received into, and each decoded batch grants a credit back to its sender.
+ * If no batch is received, an invocation waits for the configured poll timeout and produces no tuples.
+ *
+ * @see RemoteFlowSplitter
+ */
+@OperatorSpec( type = STATEFUL, inputPortCount = 0, outputPortCount = 1 )
+public class RemoteEdgeReceiverOperator implements Operator
+{
+
+    public static final String EDGE_ID_CONFIG_PARAMETER = "edgeId";
+
+    public static final String SERVER_PORT_CONFIG_PARAMETER = "serverPort";
+
+    public static final String MAX_BATCH_COUNT_CONFIG_PARAMETER = "maxBatchCount";
+
+    public static final String POLL_TIMEOUT_IN_MICROS_CONFIG_PARAMETER = "pollTimeoutInMicros";
+
+    static final int DEFAULT_MAX_BATCH_COUNT = 4;
+
+    static final long DEFAULT_POLL_TIMEOUT_IN_MICROS = 1000;
+
+
+    private final UnsafeBuffer batchView = new UnsafeBuffer( new byte[ 0 ] );
+
+    private RemoteEdgeInbox inbox;
+
+    private int maxBatchCount;
+
+    private long pollTimeoutInMicros;
+
+    private TupleSchema outputSchema;
+
+    private TupleCodec codec;
+
+    @Override
+    public SchedulingStrategy init ( final InitCtx ctx )
+    {
+        final OperatorConfig config = ctx.getConfig();
+
+        final String edgeId = config.getOrFail( EDGE_ID_CONFIG_PARAMETER );
+        final int serverPort = config.getOrFail( SERVER_PORT_CONFIG_PARAMETER );
+        this.maxBatchCount = config.getOrDefault( MAX_BATCH_COUNT_CONFIG_PARAMETER, DEFAULT_MAX_BATCH_COUNT );
+        this.pollTimeoutInMicros = config.getOrDefault( POLL_TIMEOUT_IN_MICROS_CONFIG_PARAMETER, DEFAULT_POLL_TIMEOUT_IN_MICROS );
+        this.inbox = RemoteEdgeServer.get( serverPort ).getInbox( edgeId );
+        this.outputSchema = ctx.getOutputPortSchema( 0 );
+        this.codec = new TupleCodec( outputSchema, new CodecRegistry() );
+
+        return ScheduleWhenAvailable.INSTANCE;
+    }
+
+    @Override
+    public void invoke ( final InvocationCtx ctx )
+    {
+        RemoteBatch batch = poll( pollTimeoutInMicros, MICROSECONDS );
+        for ( int i = 0; batch != null; i++ )
+        {
+            try
+            {
+                batchView.wrap( batch.getBuffer() );
+                int offset = TUPLES_OFFSET;
+                for ( int j = 0, tupleCount = batch.getTupleCount(); j < tupleCount; j++ )
+                {
+                    final Tuple tuple = new Tuple( outputSchema );
+                    offset += codec.decode( batchView, offset, tuple );
+                    ctx.output( tuple );
+                }
+            }
+            finally
+            {
+                batch.release();
+            }
+
+            batch = i + 1 < maxBatchCount ? inbox.poll() : null;
+        }
+    }
+
+    private RemoteBatch poll ( final long timeout, final TimeUnit unit )
+    {
+        try
+        {
+            return inbox.poll( timeout, unit );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,361 @@
+package cs.bilkent.joker.pcj.remote;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.util.concurrent.Uninterruptibles.sleepUninterruptibly;
+import cs.bilkent.joker.engine.exception.JokerException;
+import cs.bilkent.joker.engine.util.concurrent.BackoffIdleStrategy;
+import cs.bilkent.joker.engine.util.concurrent.IdleStrategy;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.codec.CodecRegistry;
+import cs.bilkent.joker.operator.codec.TupleCodec;
+import cs.bilkent.joker.operator.schema.runtime.TupleSchema;
+import static cs.bilkent.joker.pcj.remote.RemoteEdgeProtocol.BATCH;
+import static cs.bilkent.joker.pcj.remote.RemoteEdgeProtocol.BATCH_HEADER_LENGTH;
+import static cs.bilkent.joker.pcj.remote.RemoteEdgeProtocol.BYTE_ORDER;
+import static cs.bilkent.joker.pcj.remote.RemoteEdgeProtocol.CLOSE;
+import static cs.bilkent.joker.pcj.remote.RemoteEdgeProtocol.CREDIT;
+import static cs.bilkent.joker.pcj.remote.RemoteEdgeProtocol.CREDIT_FRAME_LENGTH;
+import static cs.bilkent.joker.pcj.remote.RemoteEdgeProtocol.FRAME_HEADER_LENGTH;
+import static cs.bilkent.joker.pcj.remote.RemoteEdgeProtocol.HELLO;
+import static cs.bilkent.joker.pcj.remote.RemoteEdgeProtocol.putFrameHeader;
+import static cs.bilkent.joker.pcj.remote.RemoteEdgeProtocol.writeFully;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Sends tuples of a remote edge to the {@link RemoteEdgeServer} of the node which runs the downstream side of the edge. Tuples are
+ * encoded with {@link TupleCodec} directly into a direct buffer, which is written to the socket channel as a single batch frame without
+ * an intermediate copy. Encoded length of each tuple is computed before the tuple is written, so that the batch is sent once the tuple
+ * does not fit into it. The buffer grows only for a tuple which is larger than the batch size itself. A batch is sent only if the
+ * receiver has granted a credit. Therefore, a slow receiver blocks the sender, which in turn back-pressures the upstream operators of the
+ * sender on its own node.
+ * <p>
+ * Ingestion times of the tuples are not sent since {@link System#nanoTime()} values are not comparable across processes.
+ */
+@NotThreadSafe
+public class RemoteEdgeSender implements Closeable
+{
+
+    private static final Logger LOGGER = LoggerFactory.getLogger( RemoteEdgeSender.class );
+
+    private static final long CONNECT_RETRY_INTERVAL_IN_MILLIS = 100;
+
+    private static final int MAX_BUFFERED_CREDIT_FRAME_COUNT = 64;
+
+
+    private final String edgeId;
+
+    private final InetSocketAddress address;
+
+    private final TupleCodec codec;
+
+    private final int batchSize;
+
+    private final IdleStrategy idleStrategy = BackoffIdleStrategy.newDefaultInstance();
+
+    private final ByteBuffer creditBuffer = ByteBuffer.allocateDirect( CREDIT_FRAME_LENGTH * MAX_BUFFERED_CREDIT_FRAME_COUNT )
+                                                      .order( BYTE_ORDER );
+
+    private final UnsafeBuffer batchView;
+
+    private ByteBuffer batch;
+
+    private int batchPosition = BATCH_HEADER_LENGTH;
+
+    private int batchTupleCount;
+
+    private int credits;
+
+    private SocketChannel channel;
+
+    private long sentBatchCount;
+
+    private long sentTupleCount;
+
+    private long sentByteCount;
+
+    private long creditWaitNanos;
+
+    public RemoteEdgeSender ( final String edgeId, final InetSocketAddress address, final TupleSchema schema, final int batchSize )
+    {
+        checkArgument( edgeId != null, "edge id can't be null" );
+        checkArgument( address != null, "address can't be null" );
+        checkArgument( batchSize > BATCH_HEADER_LENGTH, "invalid batch size: %s", batchSize );
+        this.edgeId = edgeId;
+        this.address = address;
+        this.codec = new TupleCodec( schema, new CodecRegistry() );
+        this.batchSize = batchSize;
+        this.batch = ByteBuffer.allocateDirect( batchSize ).order( BYTE_ORDER );
+        this.batchView = new UnsafeBuffer( batch );
+    }
+
+    public String getEdgeId ()
+    {
+        return edgeId;
+    }
+
+    /**
+     * Connects to the remote edge server. Connection attempts are repeated until the given timeout elapses, since the remote node may not
+     * have started its server yet.
+     */
+    public void connect ( final long timeoutInMillis )
+    {
+        checkState( channel == null, "remote edge %s is already connected", edgeId );
+
+        final long deadline = System.currentTimeMillis() + timeoutInMillis;
+        while ( true )
+        {
+            try
+            {
+                final SocketChannel channel = SocketChannel.open( address );
+                channel.setOption( StandardSocketOptions.TCP_NODELAY, true );
+                channel.configureBlocking( false );
+                this.channel = channel;
+                break;
+            }
+            catch ( ConnectException e )
+            {
+                if ( System.currentTimeMillis() > deadline )
+                {
+                    throw new JokerException( "Cannot connect to " + address + " for remote edge " + edgeId, e );
+                }
+
+                sleepUninterruptibly( CONNECT_RETRY_INTERVAL_IN_MILLIS, MILLISECONDS );
+            }
+            catch ( IOException e )
+            {
+                throw new JokerException( "Cannot connect to " + address + " for remote edge " + edgeId, e );
+            }
+        }
+
+        final byte[] edgeIdBytes = edgeId.getBytes( UTF_8 );
+        final ByteBuffer hello = ByteBuffer.allocate( FRAME_HEADER_LENGTH + edgeIdBytes.length ).order( BYTE_ORDER );
+        putFrameHeader( hello, 0, hello.capacity(), HELLO );
+        ( (Buffer) hello ).position( FRAME_HEADER_LENGTH );
+        hello.put( edgeIdBytes );
+        ( (Buffer) hello ).flip();
+        write( hello );
+
+        LOGGER.info( "Remote edge {} is connected to {}", edgeId, address );
+    }
+
+    /**
+     * Appends the given tuples to the current batch. Full batches are sent to the receiver, which may block until a credit is granted.
+     */
+    public void send ( final List<Tuple> tuples )
+    {
+        for ( int i = 0, j = tuples.size(); i < j; i++ )
+        {
+            send( tuples.get( i ) );
+        }
+    }
+
+    public void send ( final Tuple tuple )
+    {
+        checkState( channel != null, "remote edge %s is not connected", edgeId );
+
+        final int tupleLength = codec.getEncodedLength( tuple );
+        if ( batchTupleCount > 0 && batchPosition + tupleLength > batchSize )
+        {
+            flush();
+        }
+
+        if ( batchPosition + tupleLength > batch.capacity() )
+        {
+            // a single tuple larger than the batch size
+            growBatch( batchPosition + tupleLength );
+        }
+
+        batchPosition += codec.encode( tuple, batchView, batchPosition );
+        batchTupleCount++;
+
+        if ( batchPosition >= batchSize )
+        {
+            flush();
+        }
+    }
+
+    /**
+     * Sends the current batch if it contains any tuple. It blocks until a credit is granted by the receiver.
+     */
+    public void flush ()
+    {
+        if ( batchTupleCount == 0 )
+        {
+            return;
+        }
+
+        awaitCredit();
+
+        putFrameHeader( batch, 0, batchPosition, BATCH );
+        batch.putInt( FRAME_HEADER_LENGTH, batchTupleCount );
+        ( (Buffer) batch ).limit( batchPosition );
+        write( batch );
+        ( (Buffer) batch ).clear();
+
+        credits--;
+        sentBatchCount++;
+        sentTupleCount += batchTupleCount;
+        sentByteCount += batchPosition;
+        batchPosition = BATCH_HEADER_LENGTH;
+        batchTupleCount = 0;
+    }
+
+    public long getSentBatchCount ()
+    {
+        return sentBatchCount;
+    }
+
+    public long getSentTupleCount ()
+    {
+        return sentTupleCount;
+    }
+
+    public long getSentByteCount ()
+    {
+        return sentByteCount;
+    }
+
+    public long getCreditWaitNanos ()
+    {
+        return creditWaitNanos;
+    }
+
+    /**
+     * Sends the current batch and closes the connection after notifying the receiver
+     */
+    @Override
+    public void close ()
+    {
+        if ( channel == null )
+        {
+            return;
+        }
+
+        try
+        {
+            flush();
+            final ByteBuffer close = ByteBuffer.allocate( FRAME_HEADER_LENGTH ).order( BYTE_ORDER );
+            putFrameHeader( close, 0, FRAME_HEADER_LENGTH, CLOSE );
+            write( close );
+        }
+        catch ( JokerException e )
+        {
+            LOGGER.warn( "Remote edge " + edgeId + " cannot be closed gracefully", e );
+        }
+        finally
+        {
+            try
+            {
+                channel.close();
+            }
+            catch ( IOException e )
+            {
+                LOGGER.warn( "Channel of remote edge " + edgeId + " cannot be closed", e );
+            }
+
+            channel = null;
+        }
+
+        LOGGER.info( "Remote edge {} is closed. sent batches: {} tuples: {} bytes: {} credit wait: {} ms",
+                     edgeId,
+                     sentBatchCount,
+                     sentTupleCount,
+                     sentByteCount,
+                     NANOSECONDS.toMillis( creditWaitNanos ) );
+    }
+
+    private void growBatch ( final int minCapacity )
+    {
+        int capacity = this.batch.capacity() * 2;
+        while ( capacity < minCapacity )
+        {
+            capacity *= 2;
+        }
+
+        final ByteBuffer batch = ByteBuffer.allocateDirect( capacity ).order( BYTE_ORDER );
+        LOGGER.debug( "Batch buffer of remote edge {} is grown to {} bytes", edgeId, batch.capacity() );
+        this.batch = batch;
+        this.batchView.wrap( batch );
+    }
+
+    private void awaitCredit ()
+    {
+        if ( credits > 0 || readCredits() > 0 )
+        {
+            return;
+        }
+
+        final long start = System.nanoTime();
+        idleStrategy.reset();
+        while ( readCredits() == 0 )
+        {
+            if ( Thread.currentThread().isInterrupted() )
+            {
+                throw new JokerException( "Interrupted while waiting for a credit of remote edge " + edgeId );
+            }
+
+            idleStrategy.idle();
+        }
+
+        creditWaitNanos += System.nanoTime() - start;
+    }
+
+    private int readCredits ()
+    {
+        try
+        {
+            if ( channel.read( creditBuffer ) == -1 )
+            {
+                throw new JokerException( "Remote edge " + edgeId + " is closed by the receiver" );
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new JokerException( "Cannot read credits of remote edge " + edgeId, e );
+        }
+
+        ( (Buffer) creditBuffer ).flip();
+        while ( creditBuffer.remaining() >= CREDIT_FRAME_LENGTH )
+        {
+            final int index = creditBuffer.position();
+            final byte frameType = creditBuffer.get( index + 4 );
+            checkState( frameType == CREDIT, "invalid frame type: %s on remote edge %s", frameType, edgeId );
+            credits += creditBuffer.getInt( index + FRAME_HEADER_LENGTH );
+            ( (Buffer) creditBuffer ).position( index + CREDIT_FRAME_LENGTH );
+        }
+        creditBuffer.compact();
+
+        return credits;
+    }
+
+    private void write ( final ByteBuffer buffer )
+    {
+        try
+        {
+            writeFully( channel, buffer, idleStrategy );
+        }
+        catch ( IOException e )
+        {
+            throw new JokerException( "Cannot write to remote edge " + edgeId, e );
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package cs.bilkent.joker.pcj.remote;
+
+import java.net.InetSocketAddress;
+
+import cs.bilkent.joker.operator.InitCtx;
+import cs.bilkent.joker.operator.InvocationCtx;
+import cs.bilkent.joker.operator.Operator;
+import cs.bilkent.joker.operator.OperatorConfig;
+import static cs.bilkent.joker.operator.scheduling.ScheduleWhenTuplesAvailable.scheduleWhenTuplesAvailableOnDefaultPort;
+import cs.bilkent.joker.operator.scheduling.SchedulingStrategy;
+import cs.bilkent.joker.operator.schema.annotation.OperatorSchema;
+import cs.bilkent.joker.operator.schema.annotation.PortSchema;
+import static cs.bilkent.joker.operator.schema.annotation.PortSchemaScope.EXTENDABLE_FIELD_SET;
+import cs.bilkent.joker.operator.spec.OperatorSpec;
+import static cs.bilkent.joker.operator.spec.OperatorType.STATELESS;
+
+/**
+ * Upstream side of a remote edge. Sends its input tuples to the {@link RemoteEdgeServer} of the node running the downstream side of the
+ * edge via a {@link RemoteEdgeSender}. Each instance of the operator opens its own connection. Tuples of an invocation are sent before the
+ * invocation returns. The operator has an output port since stateless operators must have one, but it does not produce any output.
+ *
+ * @see RemoteFlowSplitter
+ */
+@OperatorSpec( type = STATELESS, inputPortCount = 1, outputPortCount = 1 )
+@OperatorSchema( inputs = @PortSchema( portIndex = 0, scope = EXTENDABLE_FIELD_SET, fields = {} ) )
+public class RemoteEdgeSenderOperator implements Operator
+{
+
+    public static final String EDGE_ID_CONFIG_PARAMETER = "edgeId";
+
+    public static final String HOST_CONFIG_PARAMETER = "host";
+
+    public static final String PORT_CONFIG_PARAMETER = "port";
+
+    public static final String BATCH_SIZE_CONFIG_PARAMETER = "batchSize";
+
+    public static final String CONNECT_TIMEOUT_IN_MILLIS_CONFIG_PARAMETER = "connectTimeoutInMillis";
+
+    static final int DEFAULT_BATCH_SIZE = RemoteEdgeServer.DEFAULT_BUFFER_SIZE;
+
+    static final long DEFAULT_CONNECT_TIMEOUT_IN_MILLIS = 30000;
+
+
+    private RemoteEdgeSender sender;
+
+    @Override
+    public SchedulingStrategy init ( final InitCtx ctx )
+    {
+        final OperatorConfig config = ctx.getConfig();
+
+        final String edgeId = config.getOrFail( EDGE_ID_CONFIG_PARAMETER );
+        final String host = config.getOrFail( HOST_CONFIG_PARAMETER );
+        final int port = config.getOrFail( PORT_CONFIG_PARAMETER );
+        final int batchSize = config.getOrDefault( BATCH_SIZE_CONFIG_PARAMETER, DEFAULT_BATCH_SIZE );
+        final long connectTimeout = config.getOrDefault( CONNECT_TIMEOUT_IN_MILLIS_CONFIG_PARAMETER, DEFAULT_CONNECT_TIMEOUT_IN_MILLIS );
+
+        this.sender = new RemoteEdgeSender( edgeId, new InetSocketAddress( host, port ), ctx.getInputPortSchema( 0 ), batchSize );
+        this.sender.connect( connectTimeout );
+
+        return scheduleWhenTuplesAvailableOnDefaultPort( 1 );
+    }
+
+    @Override
+    public void invoke ( final InvocationCtx ctx )
+    {
+        sender.send( ctx.getInputTuplesByDefaultPort() );
+        sender.flush();
+    }
+
+    @Override
+    public void shutdown ()
+    {
+        if ( sender != null )
+        {
+            sender.close();
+        }
+    }
+
+}
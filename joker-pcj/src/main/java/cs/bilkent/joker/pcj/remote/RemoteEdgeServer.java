@@ -0,0 +1,287 @@
+package cs.bilkent.joker.pcj.remote;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.nio.channels.SelectionKey.OP_ACCEPT;
+import static java.nio.channels.SelectionKey.OP_READ;
+
+/**
+ * Accepts the connections of the {@link RemoteEdgeSender} objects running on the other nodes, and keeps the received batches in the
+ * inboxes of the remote edges until they are consumed by the {@link RemoteEdgeReceiverOperator} instances. A single selector thread reads
+ * all connections into pooled direct buffers, and the batches are decoded from these buffers by the receiver operators. Each connection
+ * is given the configured number of credits initially, so the number of batches buffered for a connection never exceeds it.
+ * <p>
+ * Servers are registered with their ports so that the receiver operators of the flows running in the same process can find them.
+ */
+@ThreadSafe
+public class RemoteEdgeServer implements Closeable
+{
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    public static final int DEFAULT_CREDITS_PER_CONNECTION = 8;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger( RemoteEdgeServer.class );
+
+    private static final long SELECT_TIMEOUT_IN_MILLIS = 100;
+
+    private static final ConcurrentMap<Integer, RemoteEdgeServer> SERVERS = new ConcurrentHashMap<>();
+
+
+    /**
+     * Starts a server on the given port. If the port is 0, the server is bound to an ephemeral port, which can be obtained via
+     * {@link #getPort()}.
+     */
+    public static RemoteEdgeServer start ( final int port, final int bufferSize, final int creditsPerConnection ) throws IOException
+    {
+        final RemoteEdgeServer server = new RemoteEdgeServer( port, bufferSize, creditsPerConnection );
+        checkState( SERVERS.putIfAbsent( server.getPort(), server ) == null, "remote edge server is already started on port %s", port );
+        server.selectorThread.start();
+        LOGGER.info( "Remote edge server is started on port {}", server.getPort() );
+        return server;
+    }
+
+    public static RemoteEdgeServer start ( final int port ) throws IOException
+    {
+        return start( port, DEFAULT_BUFFER_SIZE, DEFAULT_CREDITS_PER_CONNECTION );
+    }
+
+    public static RemoteEdgeServer get ( final int port )
+    {
+        final RemoteEdgeServer server = SERVERS.get( port );
+        checkArgument( server != null, "no remote edge server is started on port %s", port );
+        return server;
+    }
+
+
+    private final ServerSocketChannel serverChannel;
+
+    private final Selector selector;
+
+    private final int port;
+
+    private final DirectBufferPool bufferPool;
+
+    private final int creditsPerConnection;
+
+    private final ConcurrentMap<String, RemoteEdgeInbox> inboxes = new ConcurrentHashMap<>();
+
+    private final Set<String> closedEdgeIdPrefixes = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean inboxesClosed;
+
+    private final Thread selectorThread;
+
+    private volatile boolean running = true;
+
+    private RemoteEdgeServer ( final int port, final int bufferSize, final int creditsPerConnection ) throws IOException
+    {
+        checkArgument( creditsPerConnection > 0, "invalid credits per connection: %s", creditsPerConnection );
+        this.bufferPool = new DirectBufferPool( bufferSize, creditsPerConnection * Runtime.getRuntime().availableProcessors() );
+        this.creditsPerConnection = creditsPerConnection;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.setOption( StandardSocketOptions.SO_REUSEADDR, true );
+        this.serverChannel.bind( new InetSocketAddress( port ) );
+        this.serverChannel.configureBlocking( false );
+        this.serverChannel.register( selector, OP_ACCEPT );
+        this.port = ( (InetSocketAddress) serverChannel.getLocalAddress() ).getPort();
+        this.selectorThread = new Thread( this::runSelector, "RemoteEdgeServer-" + this.port );
+        this.selectorThread.setDaemon( true );
+    }
+
+    public int getPort ()
+    {
+        return port;
+    }
+
+    RemoteEdgeInbox getInbox ( final String edgeId )
+    {
+        return inboxes.computeIfAbsent( edgeId, this::createInbox );
+    }
+
+    Collection<RemoteEdgeInbox> getInboxes ()
+    {
+        return inboxes.values();
+    }
+
+    /**
+     * Closes the inboxes of which edge ids start with the given prefix, including the inboxes created afterwards. Connections of the
+     * closed inboxes are closed on the selector thread.
+     */
+    void closeInboxes ( final String edgeIdPrefix )
+    {
+        closedEdgeIdPrefixes.add( edgeIdPrefix );
+        for ( RemoteEdgeInbox inbox : inboxes.values() )
+        {
+            if ( inbox.getEdgeId().startsWith( edgeIdPrefix ) )
+            {
+                inbox.close();
+            }
+        }
+
+        inboxesClosed = true;
+        selector.wakeup();
+    }
+
+    private RemoteEdgeInbox createInbox ( final String edgeId )
+    {
+        final RemoteEdgeInbox inbox = new RemoteEdgeInbox( edgeId );
+        for ( String edgeIdPrefix : closedEdgeIdPrefixes )
+        {
+            if ( edgeId.startsWith( edgeIdPrefix ) )
+            {
+                inbox.close();
+            }
+        }
+
+        return inbox;
+    }
+
+    @Override
+    public void close ()
+    {
+        if ( !running )
+        {
+            return;
+        }
+
+        running = false;
+        selector.wakeup();
+        try
+        {
+            selectorThread.join();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        SERVERS.remove( port, this );
+        LOGGER.info( "Remote edge server on port {} is closed", port );
+    }
+
+    private void runSelector ()
+    {
+        try
+        {
+            while ( running )
+            {
+                selector.select( SELECT_TIMEOUT_IN_MILLIS );
+                final Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while ( it.hasNext() )
+                {
+                    final SelectionKey key = it.next();
+                    it.remove();
+                    if ( !key.isValid() )
+                    {
+                        continue;
+                    }
+
+                    if ( key.isAcceptable() )
+                    {
+                        accept();
+                    }
+                    else if ( key.isReadable() )
+                    {
+                        read( key );
+                    }
+                }
+
+                if ( inboxesClosed )
+                {
+                    inboxesClosed = false;
+                    closeConnectionsOfClosedInboxes();
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            LOGGER.error( "Remote edge server on port " + port + " failed", e );
+        }
+        finally
+        {
+            for ( SelectionKey key : selector.keys() )
+            {
+                if ( key.attachment() instanceof RemoteEdgeConnection )
+                {
+                    ( (RemoteEdgeConnection) key.attachment() ).close();
+                }
+            }
+
+            try
+            {
+                serverChannel.close();
+                selector.close();
+            }
+            catch ( IOException e )
+            {
+                LOGGER.warn( "Remote edge server on port " + port + " cannot be closed", e );
+            }
+        }
+    }
+
+    private void closeConnectionsOfClosedInboxes ()
+    {
+        for ( SelectionKey key : selector.keys() )
+        {
+            if ( key.attachment() instanceof RemoteEdgeConnection && ( (RemoteEdgeConnection) key.attachment() ).isInboxClosed() )
+            {
+                key.cancel();
+                ( (RemoteEdgeConnection) key.attachment() ).close();
+            }
+        }
+    }
+
+    private void accept () throws IOException
+    {
+        final SocketChannel channel = serverChannel.accept();
+        if ( channel == null )
+        {
+            return;
+        }
+
+        channel.setOption( StandardSocketOptions.TCP_NODELAY, true );
+        channel.configureBlocking( false );
+        final RemoteEdgeConnection connection = new RemoteEdgeConnection( channel, bufferPool, this::getInbox, creditsPerConnection );
+        channel.register( selector, OP_READ, connection );
+    }
+
+    private void read ( final SelectionKey key )
+    {
+        final RemoteEdgeConnection connection = (RemoteEdgeConnection) key.attachment();
+        try
+        {
+            if ( connection.read() )
+            {
+                return;
+            }
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            LOGGER.error( "Remote edge connection failed", e );
+        }
+
+        key.cancel();
+        connection.close();
+    }
+
+}
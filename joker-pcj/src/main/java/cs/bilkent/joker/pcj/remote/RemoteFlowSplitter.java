@@ -0,0 +1,132 @@
+package cs.bilkent.joker.pcj.remote;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import cs.bilkent.joker.flow.FlowDef;
+import cs.bilkent.joker.flow.FlowDefBuilder;
+import cs.bilkent.joker.flow.Port;
+import cs.bilkent.joker.operator.OperatorConfig;
+import cs.bilkent.joker.operator.OperatorDef;
+import cs.bilkent.joker.operator.OperatorDefBuilder;
+import cs.bilkent.joker.operator.schema.runtime.OperatorRuntimeSchemaBuilder;
+import cs.bilkent.joker.operator.schema.runtime.RuntimeSchemaField;
+import static cs.bilkent.joker.pcj.remote.RemoteEdgeReceiverOperator.SERVER_PORT_CONFIG_PARAMETER;
+import static cs.bilkent.joker.pcj.remote.RemoteEdgeSenderOperator.HOST_CONFIG_PARAMETER;
+import static cs.bilkent.joker.pcj.remote.RemoteEdgeSenderOperator.PORT_CONFIG_PARAMETER;
+
+/**
+ * Splits a {@link FlowDef} into flows to be run on multiple nodes, each by a separate {@code Joker} instance. Each operator is placed to
+ * the node given in the placement map. A connection between two operators placed to different nodes is replaced with a remote edge,
+ * which consists of a {@link RemoteEdgeSenderOperator} connected to the source port on the source node, and a
+ * {@link RemoteEdgeReceiverOperator} connected to the destination port on the destination node. Schemas of both operators are extended
+ * with the schema of the source port.
+ * <p>
+ * Each node must start a {@link RemoteEdgeServer} with the port in its address before its flow is run.
+ */
+public final class RemoteFlowSplitter
+{
+
+    public static final String REMOTE_SENDER_OPERATOR_ID_PREFIX = "remoteSender:";
+
+    public static final String REMOTE_RECEIVER_OPERATOR_ID_PREFIX = "remoteReceiver:";
+
+
+    /**
+     * Splits the given flow into the flows of the nodes
+     *
+     * @param flow
+     *         flow to split
+     * @param placement
+     *         node indices of the operators, which are indices in the node addresses list
+     * @param nodeAddresses
+     *         addresses of the remote edge servers of the nodes
+     *
+     * @return flows of the nodes by node indices. Nodes without any operator are not present.
+     */
+    public static Map<Integer, FlowDef> split ( final FlowDef flow,
+                                                final Map<String, Integer> placement,
+                                                final List<InetSocketAddress> nodeAddresses )
+    {
+        final Map<Integer, FlowDefBuilder> flowDefBuilders = new TreeMap<>();
+        for ( OperatorDef operator : flow.getOperators() )
+        {
+            final Integer node = placement.get( operator.getId() );
+            checkArgument( node != null, "no node is given for operator %s", operator.getId() );
+            checkArgument( node >= 0 && node < nodeAddresses.size(), "invalid node %s for operator %s", node, operator.getId() );
+            flowDefBuilders.computeIfAbsent( node, n -> new FlowDefBuilder() ).add( operator );
+        }
+
+        for ( Entry<Port, Port> connection : flow.getConnections() )
+        {
+            final Port source = connection.getKey(), destination = connection.getValue();
+            final int sourceNode = placement.get( source.getOperatorId() );
+            final int destinationNode = placement.get( destination.getOperatorId() );
+            if ( sourceNode == destinationNode )
+            {
+                flowDefBuilders.get( sourceNode )
+                               .connect( source.getOperatorId(),
+                                         source.getPortIndex(),
+                                         destination.getOperatorId(),
+                                         destination.getPortIndex() );
+                continue;
+            }
+
+            final String edgeId = getEdgeId( source, destination );
+            final List<RuntimeSchemaField> fields = flow.getOperator( source.getOperatorId() )
+                                                        .getSchema()
+                                                        .getOutputSchema( source.getPortIndex() )
+                                                        .getFields();
+            final InetSocketAddress destinationAddress = nodeAddresses.get( destinationNode );
+
+            final OperatorRuntimeSchemaBuilder senderSchema = new OperatorRuntimeSchemaBuilder( 1, 1 );
+            final OperatorRuntimeSchemaBuilder receiverSchema = new OperatorRuntimeSchemaBuilder( 0, 1 );
+            for ( RuntimeSchemaField field : fields )
+            {
+                senderSchema.addInputField( 0, field.getName(), field.getType() );
+                receiverSchema.addOutputField( 0, field.getName(), field.getType() );
+            }
+
+            final OperatorConfig senderConfig = new OperatorConfig().set( RemoteEdgeSenderOperator.EDGE_ID_CONFIG_PARAMETER, edgeId )
+                                                                    .set( HOST_CONFIG_PARAMETER, destinationAddress.getHostString() )
+                                                                    .set( PORT_CONFIG_PARAMETER, destinationAddress.getPort() );
+            final String senderId = REMOTE_SENDER_OPERATOR_ID_PREFIX + edgeId;
+            flowDefBuilders.get( sourceNode )
+                           .add( OperatorDefBuilder.newInstance( senderId, RemoteEdgeSenderOperator.class )
+                                                   .setExtendingSchema( senderSchema )
+                                                   .setConfig( senderConfig ) )
+                           .connect( source.getOperatorId(), source.getPortIndex(), senderId, 0 );
+
+            final OperatorConfig receiverConfig = new OperatorConfig().set( RemoteEdgeReceiverOperator.EDGE_ID_CONFIG_PARAMETER, edgeId )
+                                                                      .set( SERVER_PORT_CONFIG_PARAMETER, destinationAddress.getPort() );
+            final String receiverId = REMOTE_RECEIVER_OPERATOR_ID_PREFIX + edgeId;
+            flowDefBuilders.get( destinationNode )
+                           .add( OperatorDefBuilder.newInstance( receiverId, RemoteEdgeReceiverOperator.class )
+                                                   .setExtendingSchema( receiverSchema )
+                                                   .setConfig( receiverConfig ) )
+                           .connect( receiverId, 0, destination.getOperatorId(), destination.getPortIndex() );
+        }
+
+        final Map<Integer, FlowDef> flows = new TreeMap<>();
+        flowDefBuilders.forEach( ( node, flowDefBuilder ) -> flows.put( node, flowDefBuilder.build() ) );
+        return flows;
+    }
+
+    static String getEdgeId ( final Port source, final Port destination )
+    {
+        return String.format( "%s[%d]->%s[%d]",
+                              source.getOperatorId(),
+                              source.getPortIndex(),
+                              destination.getOperatorId(),
+                              destination.getPortIndex() );
+    }
+
+    private RemoteFlowSplitter ()
+    {
+    }
+
+}
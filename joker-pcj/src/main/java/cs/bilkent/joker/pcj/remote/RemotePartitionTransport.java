@@ -0,0 +1,428 @@
+package cs.bilkent.joker.pcj.remote;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import cs.bilkent.joker.engine.exception.JokerException;
+import cs.bilkent.joker.engine.partition.PartitionTransport;
+import cs.bilkent.joker.engine.util.concurrent.BackoffIdleStrategy;
+import cs.bilkent.joker.engine.util.concurrent.IdleStrategy;
+import cs.bilkent.joker.flow.FlowDef;
+import cs.bilkent.joker.flow.Port;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.codec.CodecRegistry;
+import cs.bilkent.joker.operator.codec.TupleCodec;
+import cs.bilkent.joker.operator.schema.runtime.PortRuntimeSchema;
+import cs.bilkent.joker.operator.schema.runtime.TupleSchema;
+import static cs.bilkent.joker.pcj.remote.RemoteBatch.TUPLES_OFFSET;
+import static java.util.Collections.emptyList;
+
+/**
+ * Carries tuples of the partitions owned by the Joker instances running on the other nodes over remote edges. Each instance runs a
+ * {@link RemoteEdgeServer}, which is used only by this transport, and tuples sent to an operator input port of an instance are sent to
+ * its server over a {@link RemoteEdgeSender} connection. Connections are opened lazily and shared by the pipeline replica threads which
+ * send tuples to the same destination. Since a batch is sent only if the destination has granted a credit, backpressure of the
+ * destination is propagated to the senders. Tuples are encoded with the output schema of the upstream operators of the destination port.
+ * <p>
+ * Once an instance is bound, a receiver thread decodes the batches received by its server and passes them to the receiver of the instance.
+ * When an instance completes sending, it closes its connections and opens a completion edge to each of the other instances. Id of a
+ * completion edge contains the number of connections opened to the destination instance. Since batches of a connection are received in
+ * order, the destination is notified that the sender has completed only after all of the batches of the sender are passed to its
+ * receiver. When an instance is unbound, its server closes the connections of this transport, hence the senders fail instead of blocking.
+ */
+@ThreadSafe
+public class RemotePartitionTransport implements PartitionTransport
+{
+
+    private static final Logger LOGGER = LoggerFactory.getLogger( RemotePartitionTransport.class );
+
+    public static final int DEFAULT_BATCH_SIZE = 64 * 1024;
+
+    public static final long DEFAULT_CONNECT_TIMEOUT_IN_MILLIS = 30000;
+
+    static final String EDGE_ID_PREFIX = "partition:";
+
+    static final String COMPLETION_EDGE_ID_PREFIX = "partition-completed:";
+
+    private static final int MAX_BATCH_COUNT_PER_POLL = 4;
+
+    private static final TupleSchema COMPLETION_EDGE_SCHEMA = new PortRuntimeSchema( emptyList() );
+
+
+    private final FlowDef flow;
+
+    private final int localInstanceIndex;
+
+    private final List<InetSocketAddress> instanceAddresses;
+
+    private final RemoteEdgeServer server;
+
+    private final int batchSize;
+
+    private final long connectTimeoutInMillis;
+
+    private final ConcurrentMap<Port, TupleSchema> schemas = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, OutboundEdge> outboundEdges = new ConcurrentHashMap<>();
+
+    private volatile boolean completed;
+
+    private volatile boolean receiving;
+
+    private Thread receiverThread;
+
+    public RemotePartitionTransport ( final FlowDef flow,
+                                      final int localInstanceIndex,
+                                      final List<InetSocketAddress> instanceAddresses,
+                                      final RemoteEdgeServer server )
+    {
+        this( flow, localInstanceIndex, instanceAddresses, server, DEFAULT_BATCH_SIZE, DEFAULT_CONNECT_TIMEOUT_IN_MILLIS );
+    }
+
+    public RemotePartitionTransport ( final FlowDef flow,
+                                      final int localInstanceIndex,
+                                      final List<InetSocketAddress> instanceAddresses,
+                                      final RemoteEdgeServer server,
+                                      final int batchSize,
+                                      final long connectTimeoutInMillis )
+    {
+        checkArgument( flow != null, "flow can't be null" );
+        checkArgument( instanceAddresses != null && localInstanceIndex >= 0 && localInstanceIndex < instanceAddresses.size(),
+                       "invalid instance index: %s",
+                       localInstanceIndex );
+        checkArgument( server != null, "server can't be null" );
+        checkArgument( connectTimeoutInMillis >= 0, "invalid connect timeout: %s", connectTimeoutInMillis );
+        this.flow = flow;
+        this.localInstanceIndex = localInstanceIndex;
+        this.instanceAddresses = new ArrayList<>( instanceAddresses );
+        this.server = server;
+        this.batchSize = batchSize;
+        this.connectTimeoutInMillis = connectTimeoutInMillis;
+    }
+
+    @Override
+    public synchronized void bind ( final int instanceIndex, final PartitionTupleReceiver receiver )
+    {
+        checkArgument( instanceIndex == localInstanceIndex, "cannot bind instance %s on instance %s", instanceIndex, localInstanceIndex );
+        checkArgument( receiver != null );
+        checkState( receiverThread == null, "instance %s is already bound", instanceIndex );
+
+        receiving = true;
+        receiverThread = new Thread( () -> receive( receiver ), "RemotePartitionTransport-" + instanceIndex );
+        receiverThread.setDaemon( true );
+        receiverThread.start();
+    }
+
+    @Override
+    public synchronized void unbind ( final int instanceIndex )
+    {
+        checkArgument( instanceIndex == localInstanceIndex, "cannot unbind instance %s on instance %s", instanceIndex, localInstanceIndex );
+        if ( receiverThread == null )
+        {
+            return;
+        }
+
+        receiving = false;
+        try
+        {
+            receiverThread.join();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        server.closeInboxes( EDGE_ID_PREFIX );
+    }
+
+    @Override
+    public void complete ( final int instanceIndex )
+    {
+        checkArgument( instanceIndex == localInstanceIndex,
+                       "cannot complete instance %s on instance %s",
+                       instanceIndex,
+                       localInstanceIndex );
+        synchronized ( this )
+        {
+            if ( completed )
+            {
+                return;
+            }
+
+            completed = true;
+        }
+
+        final int[] edgeCounts = new int[ instanceAddresses.size() ];
+        for ( OutboundEdge edge : outboundEdges.values() )
+        {
+            if ( edge.close() )
+            {
+                edgeCounts[ edge.instanceIndex ]++;
+            }
+        }
+
+        for ( int i = 0; i < instanceAddresses.size(); i++ )
+        {
+            if ( i != localInstanceIndex )
+            {
+                final String edgeId = COMPLETION_EDGE_ID_PREFIX + localInstanceIndex + ":" + edgeCounts[ i ];
+                final RemoteEdgeSender sender = new RemoteEdgeSender( edgeId,
+                                                                      instanceAddresses.get( i ),
+                                                                      COMPLETION_EDGE_SCHEMA,
+                                                                      batchSize );
+                sender.connect( connectTimeoutInMillis );
+                sender.close();
+            }
+        }
+    }
+
+    @Override
+    public void send ( final int instanceIndex, final String operatorId, final int portIndex, final List<Tuple> tuples )
+    {
+        checkArgument( instanceIndex != localInstanceIndex, "cannot send tuples to the local instance %s", instanceIndex );
+        checkArgument( instanceIndex >= 0 && instanceIndex < instanceAddresses.size(), "invalid instance index: %s", instanceIndex );
+        if ( completed )
+        {
+            throw new JokerException( "cannot send " + tuples.size() + " tuples of operator: " + operatorId + " port index: " + portIndex
+                                      + " since instance " + localInstanceIndex + " has completed sending" );
+        }
+
+        final String edgeId = EDGE_ID_PREFIX + localInstanceIndex + ":" + portIndex + ":" + operatorId;
+        final OutboundEdge edge = outboundEdges.computeIfAbsent( instanceIndex + "/" + edgeId,
+                                                                 k -> new OutboundEdge( instanceIndex,
+                                                                                        edgeId,
+                                                                                        getSchema( operatorId, portIndex ) ) );
+        edge.send( tuples );
+    }
+
+    private TupleSchema getSchema ( final String operatorId, final int portIndex )
+    {
+        return schemas.computeIfAbsent( new Port( operatorId, portIndex ), port -> {
+            TupleSchema schema = null;
+            for ( Port upstreamPort : flow.getInboundConnections( port ) )
+            {
+                final PortRuntimeSchema upstreamSchema = flow.getOperator( upstreamPort.getOperatorId() )
+                                                             .getSchema()
+                                                             .getOutputSchema( upstreamPort.getPortIndex() );
+                checkArgument( schema == null || schema.getFields().equals( upstreamSchema.getFields() ),
+                               "upstream operators of %s have different output schemas",
+                               port );
+                schema = upstreamSchema;
+            }
+
+            checkArgument( schema != null, "%s has no upstream operator", port );
+            return schema;
+        } );
+    }
+
+    private void receive ( final PartitionTupleReceiver receiver )
+    {
+        final IdleStrategy idleStrategy = BackoffIdleStrategy.newDefaultInstance();
+        final Map<String, InboundEdge> inboundEdges = new HashMap<>();
+        final Set<Integer> completedInstanceIndices = new HashSet<>();
+        final UnsafeBuffer batchView = new UnsafeBuffer( new byte[ 0 ] );
+
+        while ( receiving )
+        {
+            boolean idle = true;
+            for ( RemoteEdgeInbox inbox : server.getInboxes() )
+            {
+                final String edgeId = inbox.getEdgeId();
+                if ( edgeId.startsWith( EDGE_ID_PREFIX ) )
+                {
+                    final InboundEdge edge = inboundEdges.computeIfAbsent( edgeId, InboundEdge::new );
+                    idle &= !receive( receiver, inbox, edge, batchView );
+                }
+            }
+
+            if ( idle )
+            {
+                notifyCompletedSenders( receiver, inboundEdges, completedInstanceIndices );
+                idleStrategy.idle();
+            }
+            else
+            {
+                idleStrategy.reset();
+            }
+        }
+    }
+
+    private boolean receive ( final PartitionTupleReceiver receiver,
+                              final RemoteEdgeInbox inbox,
+                              final InboundEdge edge,
+                              final UnsafeBuffer batchView )
+    {
+        boolean received = false;
+        RemoteBatch batch;
+        for ( int i = 0; i < MAX_BATCH_COUNT_PER_POLL && ( batch = inbox.poll() ) != null; i++ )
+        {
+            received = true;
+            try
+            {
+                batchView.wrap( batch.getBuffer() );
+                final List<Tuple> tuples = new ArrayList<>( batch.getTupleCount() );
+                int offset = TUPLES_OFFSET;
+                for ( int j = 0, tupleCount = batch.getTupleCount(); j < tupleCount; j++ )
+                {
+                    final Tuple tuple = new Tuple( edge.schema );
+                    offset += edge.codec.decode( batchView, offset, tuple );
+                    tuples.add( tuple );
+                }
+
+                // the batch is released after the tuples are received, hence backpressure of the receiver is propagated to the sender
+                receiver.receive( edge.operatorId, edge.portIndex, tuples );
+            }
+            catch ( RuntimeException e )
+            {
+                LOGGER.error( "Remote partition edge " + edge.edgeId + " is closed since its tuples cannot be received", e );
+                inbox.close();
+                return true;
+            }
+            finally
+            {
+                batch.release();
+            }
+        }
+
+        return received;
+    }
+
+    private void notifyCompletedSenders ( final PartitionTupleReceiver receiver,
+                                          final Map<String, InboundEdge> inboundEdges,
+                                          final Set<Integer> completedInstanceIndices )
+    {
+        for ( RemoteEdgeInbox completionInbox : server.getInboxes() )
+        {
+            final String completionEdgeId = completionInbox.getEdgeId();
+            if ( !completionEdgeId.startsWith( COMPLETION_EDGE_ID_PREFIX ) || completionInbox.getClosedConnectionCount() == 0 )
+            {
+                continue;
+            }
+
+            final String[] tokens = completionEdgeId.substring( COMPLETION_EDGE_ID_PREFIX.length() ).split( ":" );
+            final int instanceIndex = Integer.parseInt( tokens[ 0 ] );
+            final int edgeCount = Integer.parseInt( tokens[ 1 ] );
+            if ( completedInstanceIndices.contains( instanceIndex ) )
+            {
+                continue;
+            }
+
+            // inboxes are read again since the edges of the sender are connected before its completion edge
+            int connectionCount = 0;
+            boolean drained = true;
+            for ( RemoteEdgeInbox inbox : server.getInboxes() )
+            {
+                final InboundEdge edge = inboundEdges.get( inbox.getEdgeId() );
+                if ( edge != null && edge.instanceIndex == instanceIndex )
+                {
+                    connectionCount += inbox.getConnectionCount();
+                    drained &= inbox.getClosedConnectionCount() == inbox.getConnectionCount() && inbox.getQueuedBatchCount() == 0;
+                }
+            }
+
+            if ( connectionCount == edgeCount && drained )
+            {
+                LOGGER.info( "Instance {} has completed sending tuples to instance {}", instanceIndex, localInstanceIndex );
+                completedInstanceIndices.add( instanceIndex );
+                receiver.onSenderCompleted( instanceIndex );
+            }
+        }
+    }
+
+
+    private class OutboundEdge
+    {
+
+        private final int instanceIndex;
+
+        private final RemoteEdgeSender sender;
+
+        private boolean connected;
+
+        private boolean closed;
+
+        OutboundEdge ( final int instanceIndex, final String edgeId, final TupleSchema schema )
+        {
+            this.instanceIndex = instanceIndex;
+            this.sender = new RemoteEdgeSender( edgeId, instanceAddresses.get( instanceIndex ), schema, batchSize );
+        }
+
+        synchronized void send ( final List<Tuple> tuples )
+        {
+            // an edge created while the instance is completing is not closed by complete()
+            if ( closed || completed )
+            {
+                throw new JokerException( "cannot send " + tuples.size() + " tuples over remote partition edge " + sender.getEdgeId()
+                                          + " since instance " + localInstanceIndex + " has completed sending" );
+            }
+
+            if ( !connected )
+            {
+                sender.connect( connectTimeoutInMillis );
+                connected = true;
+            }
+
+            sender.send( tuples );
+            sender.flush();
+        }
+
+        /**
+         * Returns true if the edge was connected
+         */
+        synchronized boolean close ()
+        {
+            closed = true;
+            if ( connected )
+            {
+                sender.close();
+            }
+
+            return connected;
+        }
+
+    }
+
+
+    private class InboundEdge
+    {
+
+        private final String edgeId;
+
+        private final int instanceIndex;
+
+        private final int portIndex;
+
+        private final String operatorId;
+
+        private final TupleSchema schema;
+
+        private final TupleCodec codec;
+
+        InboundEdge ( final String edgeId )
+        {
+            final String[] tokens = edgeId.substring( EDGE_ID_PREFIX.length() ).split( ":", 3 );
+            this.edgeId = edgeId;
+            this.instanceIndex = Integer.parseInt( tokens[ 0 ] );
+            this.portIndex = Integer.parseInt( tokens[ 1 ] );
+            this.operatorId = tokens[ 2 ];
+            this.schema = getSchema( operatorId, portIndex );
+            this.codec = new TupleCodec( schema, new CodecRegistry() );
+        }
+
+    }
+
+}
@@ -0,0 +1,337 @@
+package cs.bilkent.joker.pcj.remote;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.After;
+import org.junit.Test;
+
+import static com.google.common.util.concurrent.Uninterruptibles.sleepUninterruptibly;
+import cs.bilkent.joker.Joker;
+import cs.bilkent.joker.Joker.JokerBuilder;
+import cs.bilkent.joker.flow.FlowDef;
+import cs.bilkent.joker.flow.FlowDefBuilder;
+import cs.bilkent.joker.operator.OperatorConfig;
+import cs.bilkent.joker.operator.OperatorDef;
+import cs.bilkent.joker.operator.OperatorDefBuilder;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.codec.CodecRegistry;
+import cs.bilkent.joker.operator.codec.TupleCodec;
+import cs.bilkent.joker.operator.schema.runtime.OperatorRuntimeSchemaBuilder;
+import cs.bilkent.joker.operator.schema.runtime.PortRuntimeSchema;
+import cs.bilkent.joker.operator.schema.runtime.RuntimeSchemaField;
+import cs.bilkent.joker.operators.BeaconOperator;
+import static cs.bilkent.joker.operators.BeaconOperator.TUPLE_COUNT_CONFIG_PARAMETER;
+import static cs.bilkent.joker.operators.BeaconOperator.TUPLE_POPULATOR_CONFIG_PARAMETER;
+import cs.bilkent.joker.operators.ForEachOperator;
+import static cs.bilkent.joker.operators.ForEachOperator.CONSUMER_FUNCTION_CONFIG_PARAMETER;
+import cs.bilkent.joker.operators.MapperOperator;
+import static cs.bilkent.joker.operators.MapperOperator.MAPPER_CONFIG_PARAMETER;
+import static cs.bilkent.joker.pcj.remote.RemoteBatch.TUPLES_OFFSET;
+import static cs.bilkent.joker.pcj.remote.RemoteEdgeProtocol.BATCH_HEADER_LENGTH;
+import static cs.bilkent.joker.pcj.remote.RemoteFlowSplitter.REMOTE_RECEIVER_OPERATOR_ID_PREFIX;
+import static cs.bilkent.joker.pcj.remote.RemoteFlowSplitter.REMOTE_SENDER_OPERATOR_ID_PREFIX;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RemoteEdgeTest extends AbstractJokerTest
+{
+
+    private static final String EDGE_ID = "edge";
+
+
+    private final PortRuntimeSchema schema = new PortRuntimeSchema( asList( new RuntimeSchemaField( "field1", Integer.class ),
+                                                                            new RuntimeSchemaField( "field2", String.class ) ) );
+
+    private final List<RemoteEdgeServer> servers = new ArrayList<>();
+
+    @After
+    public void after ()
+    {
+        servers.forEach( RemoteEdgeServer::close );
+    }
+
+    @Test
+    public void shouldSendTuplesInMultipleBatches () throws Exception
+    {
+        final RemoteEdgeServer server = startServer( 1024, 2 );
+        final int tupleCount = 100;
+
+        final Thread senderThread = spawnThread( () -> {
+            final RemoteEdgeSender sender = newSender( server, 128 );
+            for ( int i = 0; i < tupleCount; i++ )
+            {
+                sender.send( newTuple( i, "val" + i ) );
+            }
+            sender.close();
+        } );
+
+        final List<Tuple> tuples = new ArrayList<>();
+        final RemoteEdgeInbox inbox = server.getInbox( EDGE_ID );
+        while ( tuples.size() < tupleCount )
+        {
+            final RemoteBatch batch = inbox.poll( 30, SECONDS );
+            assertNotNull( batch );
+            tuples.addAll( decode( batch ) );
+        }
+
+        senderThread.join( SECONDS.toMillis( 30 ) );
+        assertFalse( senderThread.isAlive() );
+
+        for ( int i = 0; i < tupleCount; i++ )
+        {
+            final Tuple tuple = tuples.get( i );
+            assertThat( tuple.getInteger( "field1" ), equalTo( i ) );
+            assertThat( tuple.getString( "field2" ), equalTo( "val" + i ) );
+        }
+
+        assertTrueEventually( () -> assertEquals( 1, inbox.getClosedConnectionCount() ) );
+    }
+
+    @Test
+    public void shouldNotSendBatchWithoutCredit () throws Exception
+    {
+        final RemoteEdgeServer server = startServer( 1024, 2 );
+        final RemoteEdgeSender sender = newSender( server, 1024 );
+
+        final Thread senderThread = spawnThread( () -> {
+            for ( int i = 0; i < 3; i++ )
+            {
+                sender.send( newTuple( i, "val" + i ) );
+                sender.flush();
+            }
+        } );
+
+        final RemoteEdgeInbox inbox = server.getInbox( EDGE_ID );
+        assertTrueEventually( () -> assertEquals( 2, inbox.getQueuedBatchCount() ) );
+        sleepUninterruptibly( 500, MILLISECONDS );
+        assertEquals( 2, inbox.getQueuedBatchCount() );
+        assertTrue( senderThread.isAlive() );
+
+        final List<Tuple> tuples = decode( inbox.poll() );
+
+        senderThread.join( SECONDS.toMillis( 30 ) );
+        assertFalse( senderThread.isAlive() );
+        assertTrueEventually( () -> assertEquals( 2, inbox.getQueuedBatchCount() ) );
+
+        tuples.addAll( decode( inbox.poll() ) );
+        tuples.addAll( decode( inbox.poll() ) );
+        assertNull( inbox.poll() );
+        for ( int i = 0; i < 3; i++ )
+        {
+            assertThat( tuples.get( i ).getInteger( "field1" ), equalTo( i ) );
+        }
+
+        sender.close();
+    }
+
+    @Test
+    public void shouldSendBatchOnceNextTupleDoesNotFit () throws Exception
+    {
+        final RemoteEdgeServer server = startServer( 1024, 8 );
+        final int tupleLength = new TupleCodec( schema, new CodecRegistry() ).getEncodedLength( newTuple( 0, "val" ) );
+        final RemoteEdgeSender sender = newSender( server, BATCH_HEADER_LENGTH + 3 * tupleLength + tupleLength / 2 );
+
+        for ( int i = 0; i < 7; i++ )
+        {
+            sender.send( newTuple( i, "val" ) );
+        }
+        sender.flush();
+
+        final RemoteEdgeInbox inbox = server.getInbox( EDGE_ID );
+        final List<Tuple> tuples = new ArrayList<>();
+        for ( int expectedTupleCount : new int[] { 3, 3, 1 } )
+        {
+            final RemoteBatch batch = inbox.poll( 30, SECONDS );
+            assertNotNull( batch );
+            assertThat( batch.getTupleCount(), equalTo( expectedTupleCount ) );
+            tuples.addAll( decode( batch ) );
+        }
+
+        for ( int i = 0; i < 7; i++ )
+        {
+            assertThat( tuples.get( i ).getInteger( "field1" ), equalTo( i ) );
+        }
+        assertThat( sender.getSentBatchCount(), equalTo( 3L ) );
+        assertThat( sender.getSentByteCount(), equalTo( 3L * BATCH_HEADER_LENGTH + 7L * tupleLength ) );
+
+        sender.close();
+    }
+
+    @Test
+    public void shouldSendTupleLargerThanBatchSize () throws Exception
+    {
+        final RemoteEdgeServer server = startServer( 1024, 2 );
+        final RemoteEdgeSender sender = newSender( server, 128 );
+
+        final StringBuilder sb = new StringBuilder();
+        for ( int i = 0; i < 4096; i++ )
+        {
+            sb.append( (char) ( 'a' + ( i % 26 ) ) );
+        }
+        final String value = sb.toString();
+
+        sender.send( newTuple( 1, "small" ) );
+        sender.send( newTuple( 2, value ) );
+        sender.flush();
+
+        final RemoteEdgeInbox inbox = server.getInbox( EDGE_ID );
+        final List<Tuple> tuples = new ArrayList<>();
+        while ( tuples.size() < 2 )
+        {
+            final RemoteBatch batch = inbox.poll( 30, SECONDS );
+            assertNotNull( batch );
+            tuples.addAll( decode( batch ) );
+        }
+
+        assertThat( tuples.get( 0 ).getString( "field2" ), equalTo( "small" ) );
+        assertThat( tuples.get( 1 ).getString( "field2" ), equalTo( value ) );
+        assertThat( sender.getSentBatchCount(), equalTo( 2L ) );
+
+        sender.close();
+    }
+
+    @Test
+    public void shouldRunFlowSpanningMultipleJokerInstances () throws Exception
+    {
+        final int tupleCount = 1000;
+        final RemoteEdgeServer server0 = startServer( RemoteEdgeServer.DEFAULT_BUFFER_SIZE, 4 );
+        final RemoteEdgeServer server1 = startServer( RemoteEdgeServer.DEFAULT_BUFFER_SIZE, 4 );
+        final List<InetSocketAddress> nodeAddresses = asList( new InetSocketAddress( "localhost", server0.getPort() ),
+                                                              new InetSocketAddress( "localhost", server1.getPort() ) );
+
+        final AtomicInteger generated = new AtomicInteger();
+        final OperatorConfig beaconConfig = new OperatorConfig().set( TUPLE_COUNT_CONFIG_PARAMETER, 10 )
+                                                                .set( TUPLE_POPULATOR_CONFIG_PARAMETER, (Consumer<Tuple>) tuple -> {
+                                                                    final int value = generated.getAndIncrement();
+                                                                    if ( value >= tupleCount )
+                                                                    {
+                                                                        sleepUninterruptibly( 1, MILLISECONDS );
+                                                                    }
+                                                                    tuple.set( "field1", value );
+                                                                } );
+        final OperatorRuntimeSchemaBuilder beaconSchema = new OperatorRuntimeSchemaBuilder( 0, 1 );
+        beaconSchema.addOutputField( 0, "field1", Integer.class );
+        final OperatorDef beacon = OperatorDefBuilder.newInstance( "beacon", BeaconOperator.class )
+                                                     .setConfig( beaconConfig )
+                                                     .setExtendingSchema( beaconSchema )
+                                                     .build();
+
+        final BiConsumer<Tuple, Tuple> mapperFunc = ( input, output ) -> output.set( "field1", 2 * input.getInteger( "field1" ) );
+        final OperatorConfig mapperConfig = new OperatorConfig().set( MAPPER_CONFIG_PARAMETER, mapperFunc );
+        final OperatorRuntimeSchemaBuilder mapperSchema = new OperatorRuntimeSchemaBuilder( 1, 1 );
+        mapperSchema.addInputField( 0, "field1", Integer.class ).addOutputField( 0, "field1", Integer.class );
+        final OperatorDef mapper = OperatorDefBuilder.newInstance( "mapper", MapperOperator.class )
+                                                     .setConfig( mapperConfig )
+                                                     .setExtendingSchema( mapperSchema )
+                                                     .build();
+
+        final Set<Integer> received = ConcurrentHashMap.newKeySet();
+        final Consumer<Tuple> forEachFunc = tuple -> received.add( tuple.getInteger( "field1" ) );
+        final OperatorConfig forEachConfig = new OperatorConfig().set( CONSUMER_FUNCTION_CONFIG_PARAMETER, forEachFunc );
+        final OperatorRuntimeSchemaBuilder forEachSchema = new OperatorRuntimeSchemaBuilder( 1, 1 );
+        forEachSchema.addInputField( 0, "field1", Integer.class );
+        final OperatorDef forEach = OperatorDefBuilder.newInstance( "forEach", ForEachOperator.class )
+                                                      .setConfig( forEachConfig )
+                                                      .setExtendingSchema( forEachSchema )
+                                                      .build();
+
+        final FlowDef flow = new FlowDefBuilder().add( beacon )
+                                                 .add( mapper )
+                                                 .add( forEach )
+                                                 .connect( "beacon", "mapper" )
+                                                 .connect( "mapper", "forEach" )
+                                                 .build();
+
+        final Map<String, Integer> placement = new HashMap<>();
+        placement.put( "beacon", 0 );
+        placement.put( "mapper", 1 );
+        placement.put( "forEach", 1 );
+
+        final Map<Integer, FlowDef> flows = RemoteFlowSplitter.split( flow, placement, nodeAddresses );
+        final String edgeId = "beacon[0]->mapper[0]";
+        assertNotNull( flows.get( 0 ).getOperator( REMOTE_SENDER_OPERATOR_ID_PREFIX + edgeId ) );
+        assertNotNull( flows.get( 1 ).getOperator( REMOTE_RECEIVER_OPERATOR_ID_PREFIX + edgeId ) );
+
+        final Joker joker0 = new JokerBuilder().setJokerId( "node0" ).build();
+        final Joker joker1 = new JokerBuilder().setJokerId( "node1" ).build();
+        joker1.run( flows.get( 1 ) );
+        joker0.run( flows.get( 0 ) );
+
+        try
+        {
+            assertTrueEventually( () -> {
+                for ( int i = 0; i < tupleCount; i++ )
+                {
+                    assertTrue( received.contains( 2 * i ) );
+                }
+            } );
+        }
+        finally
+        {
+            joker0.shutdown().get( 30, SECONDS );
+            joker1.shutdown().get( 30, SECONDS );
+        }
+    }
+
+    private RemoteEdgeServer startServer ( final int bufferSize, final int creditsPerConnection ) throws Exception
+    {
+        final RemoteEdgeServer server = RemoteEdgeServer.start( 0, bufferSize, creditsPerConnection );
+        servers.add( server );
+        return server;
+    }
+
+    private RemoteEdgeSender newSender ( final RemoteEdgeServer server, final int batchSize )
+    {
+        final RemoteEdgeSender sender = new RemoteEdgeSender( EDGE_ID,
+                                                              new InetSocketAddress( "localhost", server.getPort() ),
+                                                              schema,
+                                                              batchSize );
+        sender.connect( SECONDS.toMillis( 30 ) );
+        return sender;
+    }
+
+    private Tuple newTuple ( final int field1, final String field2 )
+    {
+        final Tuple tuple = new Tuple( schema );
+        tuple.set( "field1", field1 );
+        tuple.set( "field2", field2 );
+        return tuple;
+    }
+
+    private List<Tuple> decode ( final RemoteBatch batch )
+    {
+        final TupleCodec codec = new TupleCodec( schema, new CodecRegistry() );
+        final UnsafeBuffer buffer = new UnsafeBuffer( batch.getBuffer() );
+        final List<Tuple> tuples = new ArrayList<>();
+        int offset = TUPLES_OFFSET;
+        for ( int i = 0; i < batch.getTupleCount(); i++ )
+        {
+            final Tuple tuple = new Tuple( schema );
+            offset += codec.decode( buffer, offset, tuple );
+            tuples.add( tuple );
+        }
+
+        batch.release();
+        return tuples;
+    }
+
+}
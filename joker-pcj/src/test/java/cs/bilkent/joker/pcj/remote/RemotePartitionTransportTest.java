@@ -0,0 +1,180 @@
+package cs.bilkent.joker.pcj.remote;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import cs.bilkent.joker.engine.exception.JokerException;
+import cs.bilkent.joker.engine.partition.PartitionTransport.PartitionTupleReceiver;
+import cs.bilkent.joker.flow.FlowDef;
+import cs.bilkent.joker.flow.FlowDefBuilder;
+import cs.bilkent.joker.operator.OperatorDef;
+import cs.bilkent.joker.operator.OperatorDefBuilder;
+import cs.bilkent.joker.operator.Tuple;
+import cs.bilkent.joker.operator.schema.runtime.OperatorRuntimeSchemaBuilder;
+import cs.bilkent.joker.operator.schema.runtime.TupleSchema;
+import cs.bilkent.joker.operators.BeaconOperator;
+import cs.bilkent.joker.operators.ForEachOperator;
+import cs.bilkent.joker.test.AbstractJokerTest;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+
+public class RemotePartitionTransportTest extends AbstractJokerTest
+{
+
+    private static final String OPERATOR_ID = "forEach";
+
+    private static final int TUPLE_COUNT = 1000;
+
+
+    private final List<RemoteEdgeServer> servers = new ArrayList<>();
+
+    private FlowDef flow;
+
+    private TupleSchema schema;
+
+    private RemotePartitionTransport transport0;
+
+    private RemotePartitionTransport transport1;
+
+    @Before
+    public void init () throws IOException
+    {
+        final OperatorRuntimeSchemaBuilder beaconSchema = new OperatorRuntimeSchemaBuilder( 0, 1 );
+        beaconSchema.addOutputField( 0, "key", Integer.class ).addOutputField( 0, "value", Integer.class );
+        final OperatorDef beacon = OperatorDefBuilder.newInstance( "beacon", BeaconOperator.class )
+                                                     .setExtendingSchema( beaconSchema )
+                                                     .build();
+
+        final OperatorRuntimeSchemaBuilder forEachSchema = new OperatorRuntimeSchemaBuilder( 1, 1 );
+        forEachSchema.addInputField( 0, "key", Integer.class ).addInputField( 0, "value", Integer.class );
+        final OperatorDef forEach = OperatorDefBuilder.newInstance( OPERATOR_ID, ForEachOperator.class )
+                                                      .setExtendingSchema( forEachSchema )
+                                                      .build();
+
+        flow = new FlowDefBuilder().add( beacon ).add( forEach ).connect( "beacon", OPERATOR_ID ).build();
+        schema = beacon.getSchema().getOutputSchema( 0 );
+
+        servers.add( RemoteEdgeServer.start( 0, RemoteEdgeServer.DEFAULT_BUFFER_SIZE, 4 ) );
+        servers.add( RemoteEdgeServer.start( 0, RemoteEdgeServer.DEFAULT_BUFFER_SIZE, 4 ) );
+        final List<InetSocketAddress> instanceAddresses = asList( new InetSocketAddress( "localhost", servers.get( 0 ).getPort() ),
+                                                                  new InetSocketAddress( "localhost", servers.get( 1 ).getPort() ) );
+        transport0 = new RemotePartitionTransport( flow, 0, instanceAddresses, servers.get( 0 ), 1024, 30000 );
+        transport1 = new RemotePartitionTransport( flow, 1, instanceAddresses, servers.get( 1 ), 1024, 30000 );
+    }
+
+    @After
+    public void after ()
+    {
+        transport0.unbind( 0 );
+        transport1.unbind( 1 );
+        servers.forEach( RemoteEdgeServer::close );
+    }
+
+    @Test
+    public void shouldPassTuplesToBoundInstance ()
+    {
+        final RecordingReceiver receiver = new RecordingReceiver();
+        transport1.bind( 1, receiver );
+
+        sendTuples();
+
+        assertTrueEventually( () -> assertEquals( TUPLE_COUNT, receiver.tuples.size() ) );
+        for ( int i = 0; i < TUPLE_COUNT; i++ )
+        {
+            final Tuple tuple = receiver.tuples.get( i );
+            assertEquals( i, (int) tuple.getInteger( "key" ) );
+            assertEquals( 2 * i, (int) tuple.getInteger( "value" ) );
+        }
+    }
+
+    @Test
+    public void shouldNotifyCompletionAfterAllTuplesOfSenderAreReceived ()
+    {
+        final RecordingReceiver receiver = new RecordingReceiver();
+        transport1.bind( 1, receiver );
+
+        sendTuples();
+        transport0.complete( 0 );
+
+        assertTrueEventually( () -> assertEquals( singletonList( 0 ), receiver.completedInstanceIndices ) );
+        assertEquals( singletonList( TUPLE_COUNT ), receiver.receivedTupleCountsOnCompletion );
+    }
+
+    @Test
+    public void shouldNotifyInstanceBoundAfterSenderCompletes ()
+    {
+        transport0.complete( 0 );
+
+        final RecordingReceiver receiver = new RecordingReceiver();
+        transport1.bind( 1, receiver );
+
+        assertTrueEventually( () -> assertEquals( singletonList( 0 ), receiver.completedInstanceIndices ) );
+    }
+
+    @Test( expected = JokerException.class )
+    public void shouldFailToSendTuplesToUnboundInstance ()
+    {
+        transport1.bind( 1, new RecordingReceiver() );
+        transport1.unbind( 1 );
+
+        sendTuples();
+    }
+
+    @Test( expected = JokerException.class )
+    public void shouldFailToSendTuplesAfterCompleted ()
+    {
+        transport1.bind( 1, new RecordingReceiver() );
+        transport0.complete( 0 );
+
+        sendTuples();
+    }
+
+    private void sendTuples ()
+    {
+        for ( int i = 0; i < TUPLE_COUNT; i += 10 )
+        {
+            final List<Tuple> tuples = new ArrayList<>();
+            for ( int j = i; j < i + 10; j++ )
+            {
+                tuples.add( Tuple.of( schema, "key", j, "value", 2 * j ) );
+            }
+
+            transport0.send( 1, OPERATOR_ID, 0, tuples );
+        }
+    }
+
+    private static class RecordingReceiver implements PartitionTupleReceiver
+    {
+
+        private final List<Tuple> tuples = new CopyOnWriteArrayList<>();
+
+        private final List<Integer> completedInstanceIndices = new CopyOnWriteArrayList<>();
+
+        private final List<Integer> receivedTupleCountsOnCompletion = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void receive ( final String operatorId, final int portIndex, final List<Tuple> tuples )
+        {
+            assertEquals( OPERATOR_ID, operatorId );
+            assertEquals( 0, portIndex );
+            this.tuples.addAll( tuples );
+        }
+
+        @Override
+        public void onSenderCompleted ( final int instanceIndex )
+        {
+            receivedTupleCountsOnCompletion.add( tuples.size() );
+            completedInstanceIndices.add( instanceIndex );
+        }
+
+    }
+
+}